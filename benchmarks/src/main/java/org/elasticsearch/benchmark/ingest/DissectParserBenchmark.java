@@ -0,0 +1,84 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.benchmark.ingest;
+
+import org.elasticsearch.dissect.DissectParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a single event with the dissect parser, for patterns that use plain keys only,
+ * append keys and reference keys respectively.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class DissectParserBenchmark {
+
+    @Param({ "apache", "append", "reference" })
+    private String pattern;
+
+    private DissectParser parser;
+    private String input;
+
+    @Setup
+    public void setUp() {
+        switch (pattern) {
+            case "apache":
+                parser = new DissectParser("%{clientip} %{ident} %{auth} [%{timestamp}] \"%{verb} %{request} HTTP/%{httpversion}\" " +
+                    "%{status} %{size} \"%{?referrer}\" \"%{agent}\"", null);
+                input = "31.184.238.164 - - [24/Jul/2014:05:35:37 +0530] \"GET /logs/access.log HTTP/1.0\" 200 69849 " +
+                    "\"http://8rursodiol.enjin.com\" \"Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.36 (KHTML, like Gecko) " +
+                    "Chrome/30.0.1599.12785 YaBrowser/13.12.1599.12785 Safari/537.36\"";
+                break;
+            case "append":
+                parser = new DissectParser("%{+timestamp} %{+timestamp} %{+timestamp} %{logsource} %{program}[%{pid}]: %{message}", " ");
+                input = "Mar 16 00:01:25 evita postfix/smtpd[1713]: connect from camomile.cloud9.net[168.100.1.3]";
+                break;
+            case "reference":
+                parser = new DissectParser("%{*key1}=%{&key1} %{*key2}=%{&key2} %{*key3}=%{&key3} %{message}", null);
+                input = "user=elastic action=login result=success some free text at the end of the event";
+                break;
+            default:
+                throw new IllegalArgumentException("unknown pattern [" + pattern + "]");
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> parse() {
+        return parser.parse(input);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.ingest;
+
+import org.elasticsearch.ingest.AbstractProcessor;
+import org.elasticsearch.ingest.CompoundProcessor;
+import org.elasticsearch.ingest.IngestDocument;
+import org.elasticsearch.ingest.Processor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Compares executing a pipeline of simple processors in a loop against going through the callback of every processor,
+ * which is how processors that override {@link Processor#execute(IngestDocument, BiConsumer)} are executed.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class PipelineExecutionBenchmark {
+
+    @Param({ "5", "20" })
+    private int numProcessors;
+
+    @Param({ "loop", "callback" })
+    private String execution;
+
+    private CompoundProcessor pipeline;
+
+    @Setup
+    public void setUp() {
+        final boolean callback = execution.equals("callback");
+        final List<Processor> processors = new ArrayList<>(numProcessors);
+        for (int i = 0; i < numProcessors; i++) {
+            final String source = "event.original.field_" + (i % 4);
+            final String target = "event.processed.field_" + i;
+            processors.add(callback ? new CallbackProcessor(source, target) : new LowercaseProcessor(source, target));
+        }
+        pipeline = new CompoundProcessor(false, processors, Collections.emptyList());
+    }
+
+    @Benchmark
+    public IngestDocument execute() {
+        final Map<String, Object> original = new HashMap<>();
+        for (int i = 0; i < 4; i++) {
+            original.put("field_" + i, "Value Of Field " + i);
+        }
+        final Map<String, Object> event = new HashMap<>();
+        event.put("original", original);
+        final Map<String, Object> source = new HashMap<>();
+        source.put("event", event);
+        final IngestDocument document = new IngestDocument("index", "id", null, null, null, source);
+        final IngestDocument[] result = new IngestDocument[1];
+        pipeline.execute(document, (processed, e) -> result[0] = processed);
+        return result[0];
+    }
+
+    private static class LowercaseProcessor extends AbstractProcessor {
+
+        private final String source;
+        private final String target;
+
+        LowercaseProcessor(String source, String target) {
+            super(null);
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public IngestDocument execute(IngestDocument ingestDocument) {
+            final String value = ingestDocument.getFieldValue(source, String.class);
+            ingestDocument.setFieldValue(target, value.toLowerCase(Locale.ROOT));
+            return ingestDocument;
+        }
+
+        @Override
+        public String getType() {
+            return "lowercase";
+        }
+    }
+
+    private static class CallbackProcessor extends LowercaseProcessor {
+
+        CallbackProcessor(String source, String target) {
+            super(source, target);
+        }
+
+        @Override
+        public void execute(IngestDocument ingestDocument, BiConsumer<IngestDocument, Exception> handler) {
+            try {
+                handler.accept(execute(ingestDocument), null);
+            } catch (Exception e) {
+                handler.accept(null, e);
+            }
+        }
+    }
+}
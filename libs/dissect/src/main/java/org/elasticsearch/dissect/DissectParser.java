@@ -19,12 +19,11 @@
 
 package org.elasticsearch.dissect;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -107,9 +106,18 @@ public final class DissectParser {
     private String leadingDelimiter = "";
     private final int maxMatches;
     private final int maxResults;
-    private final int appendCount;
-    private final int referenceCount;
     private final String appendSeparator;
+    // the compiled form of the match pairs, indexed by the position of the pair in the pattern
+    private final DissectKey[] keys;
+    private final String[] delimiters;
+    private final boolean[] skipRightPadding;
+    // positions of the pairs that provide the value of each result
+    private final String[] simpleNames;
+    private final int[] simplePositions;
+    private final int[] referenceKeyPositions;
+    private final int[] referenceValuePositions;
+    private final String[] appendNames;
+    private final int[][] appendPositions;
 
     public DissectParser(String pattern, String appendSeparator) {
         this.pattern = pattern;
@@ -147,7 +155,6 @@ public final class DissectParser {
             }
             matchPairs = modifiedMatchPairs;
         }
-        appendCount = appendKeyNames.size();
 
         //reference validation - ensure that '*' and '&' come in pairs
         Map<String, List<DissectPair>> referenceGroupings = matchPairs.stream()
@@ -161,8 +168,51 @@ public final class DissectParser {
             }
         }
 
-        referenceCount = referenceGroupings.size() * 2;
         this.matchPairs = Collections.unmodifiableList(matchPairs);
+
+        this.keys = new DissectKey[maxMatches];
+        this.delimiters = new String[maxMatches];
+        this.skipRightPadding = new boolean[maxMatches];
+        Map<String, Integer> simple = new LinkedHashMap<>();
+        Map<String, int[]> references = new LinkedHashMap<>();
+        Map<String, List<AppendPosition>> appends = new LinkedHashMap<>();
+        int implicitAppendOrder = -1000;
+        for (int i = 0; i < maxMatches; i++) {
+            DissectPair pair = this.matchPairs.get(i);
+            DissectKey key = pair.getKey();
+            keys[i] = key;
+            delimiters[i] = pair.getDelimiter();
+            skipRightPadding[i] = key.skipRightPadding();
+            if (key.skip()) {
+                continue;
+            }
+            switch (key.getModifier()) {
+                case NONE:
+                    // the last value for a key wins
+                    simple.put(key.getName(), i);
+                    break;
+                case APPEND:
+                    appends.computeIfAbsent(key.getName(), k -> new ArrayList<>()).add(new AppendPosition(i, implicitAppendOrder++));
+                    break;
+                case APPEND_WITH_ORDER:
+                    appends.computeIfAbsent(key.getName(), k -> new ArrayList<>()).add(new AppendPosition(i, key.getAppendPosition()));
+                    break;
+                case FIELD_NAME:
+                    references.computeIfAbsent(key.getName(), k -> new int[] {-1, -1})[0] = i;
+                    break;
+                case FIELD_VALUE:
+                    references.computeIfAbsent(key.getName(), k -> new int[] {-1, -1})[1] = i;
+                    break;
+            }
+        }
+        this.simpleNames = simple.keySet().toArray(new String[0]);
+        this.simplePositions = simple.values().stream().mapToInt(Integer::intValue).toArray();
+        this.referenceKeyPositions = references.values().stream().mapToInt(positions -> positions[0]).toArray();
+        this.referenceValuePositions = references.values().stream().mapToInt(positions -> positions[1]).toArray();
+        this.appendNames = appends.keySet().toArray(new String[0]);
+        this.appendPositions = appends.values().stream()
+            .map(positions -> positions.stream().sorted().mapToInt(AppendPosition::getPosition).toArray())
+            .toArray(int[][]::new);
     }
 
 
@@ -176,11 +226,9 @@ public final class DissectParser {
     public Map<String, String> parse(String inputString) {
         /**
          *
-         * This implements a naive string matching algorithm. The string is walked left to right, comparing each byte against
-         * another string's bytes looking for matches. If the bytes match, then a second cursor looks ahead to see if all the bytes
-         * of the other string matches. If they all match, record it and advances the primary cursor to the match point. If it can not match
-         * all of the bytes then progress the main cursor. Repeat till the end of the input string. Since the string being searching for
-         * (the delimiter) is generally small and rare the naive approach is efficient.
+         * The string is walked left to right, jumping from one occurrence of the string being searched for to the next with
+         * String#indexOf, which the JVM implements with vectorized instructions. When found, the value before the match is recorded and
+         * the cursor is advanced to the end of the match. Repeat till the end of the input string.
          *
          * In this case the string that is walked is the input string, and the string being searched for is the current delimiter.
          * For example for a dissect pattern of {@code %{a},%{b}:%{c}} the delimiters (comma then colon) are searched for in the
@@ -195,93 +243,118 @@ public final class DissectParser {
          * b=bar.
          *
          */
-        DissectMatch dissectMatch = new DissectMatch(appendSeparator, maxMatches, maxResults, appendCount, referenceCount);
-        Iterator<DissectPair> it = matchPairs.iterator();
+        // The pattern is compiled into arrays of keys and delimiters at construction. Values are recorded by the position of
+        // their key and strings are only created for keys that end up in the results.
+        String[] values = new String[maxMatches];
+        int matches = 0;
         //ensure leading delimiter matches
-        if (inputString != null && inputString.length() > leadingDelimiter.length()
-            && leadingDelimiter.equals(inputString.substring(0, leadingDelimiter.length()))) {
-            byte[] input = inputString.getBytes(StandardCharsets.UTF_8);
+        if (inputString != null && inputString.length() > leadingDelimiter.length() && inputString.startsWith(leadingDelimiter)) {
+            final int length = inputString.length();
             //grab the first key/delimiter pair
-            DissectPair dissectPair = it.next();
-            DissectKey key = dissectPair.getKey();
-            byte[] delimiter = dissectPair.getDelimiter().getBytes(StandardCharsets.UTF_8);
+            int position = 0;
+            String delimiter = delimiters[0];
             //start dissection after the first delimiter
             int i = leadingDelimiter.length();
             int valueStart = i;
-            int lookAheadMatches;
-            //start walking the input string byte by byte, look ahead for matches where needed
-            //if a match is found jump forward to the end of the match
-            for (; i < input.length; i++) {
-                lookAheadMatches = 0;
-                //potential match between delimiter and input string
-                if (delimiter.length > 0 && input[i] == delimiter[0]) {
-                    //look ahead to see if the entire delimiter matches the input string
-                    for (int j = 0; j < delimiter.length; j++) {
-                        if (i + j < input.length && input[i + j] == delimiter[j]) {
-                            lookAheadMatches++;
-                        }
-                    }
-                    //found a full delimiter match
-                    if (lookAheadMatches == delimiter.length) {
-                        //record the key/value tuple
-                        byte[] value = Arrays.copyOfRange(input, valueStart, i);
-                        dissectMatch.add(key, new String(value, StandardCharsets.UTF_8));
-                        //jump to the end of the match
-                        i += lookAheadMatches;
-                        //look for consecutive delimiters (e.g. a,,,,d,e)
-                        while (i < input.length) {
-                            lookAheadMatches = 0;
-                            for (int j = 0; j < delimiter.length; j++) {
-                                if (i + j < input.length && input[i + j] == delimiter[j]) {
-                                    lookAheadMatches++;
-                                }
-                            }
-                            //found consecutive delimiters
-                            if (lookAheadMatches == delimiter.length) {
-                                //jump to the end of the match
-                                i += lookAheadMatches;
-                                if (!key.skipRightPadding()) {
-                                    //progress the keys/delimiter if possible
-                                    if (!it.hasNext()) {
-                                        break; //the while loop
-                                    }
-                                    dissectPair = it.next();
-                                    key = dissectPair.getKey();
-                                    //add the key with an empty value for the empty delimiter
-                                    dissectMatch.add(key, "");
-                                }
-                            } else {
-                                break; //the while loop
-                            }
-                        }
+            //jump from one occurrence of the current delimiter to the next, a key without delimiter takes the rest of the input
+            for (; i < length && delimiter.length() > 0; i++) {
+                i = inputString.indexOf(delimiter, i);
+                if (i == -1) {
+                    break;
+                }
+                //record the key/value tuple
+                values[position] = value(inputString, position, valueStart, i);
+                matches++;
+                //jump to the end of the match
+                i += delimiter.length();
+                //look for consecutive delimiters (e.g. a,,,,d,e)
+                while (i < length && inputString.startsWith(delimiter, i)) {
+                    //jump to the end of the match
+                    i += delimiter.length();
+                    if (skipRightPadding[position] == false) {
                         //progress the keys/delimiter if possible
-                        if (!it.hasNext()) {
-                            break; //the for loop
+                        if (position + 1 == maxMatches) {
+                            break; //the while loop
                         }
-                        dissectPair = it.next();
-                        key = dissectPair.getKey();
-                        delimiter = dissectPair.getDelimiter().getBytes(StandardCharsets.UTF_8);
-                        //i is always one byte after the last found delimiter, aka the start of the next value
-                        valueStart = i;
+                        position++;
+                        //add the key with an empty value for the empty delimiter
+                        values[position] = "";
+                        matches++;
                     }
                 }
+                //progress the keys/delimiter if possible
+                if (position + 1 == maxMatches) {
+                    break; //the for loop
+                }
+                position++;
+                delimiter = delimiters[position];
+                //i is always one char after the last found delimiter, aka the start of the next value
+                valueStart = i;
             }
             //the last key, grab the rest of the input (unless consecutive delimiters already grabbed the last key)
             //and there is no trailing delimiter
-            if (!dissectMatch.fullyMatched() && delimiter.length == 0 ) {
-                byte[] value = Arrays.copyOfRange(input, valueStart, input.length);
-                String valueString = new String(value, StandardCharsets.UTF_8);
-                dissectMatch.add(key, valueString);
+            if (matches != maxMatches && delimiter.length() == 0) {
+                values[position] = value(inputString, position, valueStart, length);
+                matches++;
             }
         }
-        Map<String, String> results = dissectMatch.getResults();
+        if (matches != maxMatches) {
+            throw new DissectException.FindMatch(pattern, inputString);
+        }
 
-        if (!dissectMatch.isValid(results)) {
+        Map<String, String> results = new HashMap<>(maxResults);
+        for (int i = 0; i < simpleNames.length; i++) {
+            results.put(simpleNames[i], values[simplePositions[i]]);
+        }
+        for (int i = 0; i < referenceKeyPositions.length; i++) {
+            int keyPosition = referenceKeyPositions[i];
+            int valuePosition = referenceValuePositions[i];
+            results.put(keyPosition == -1 ? null : values[keyPosition], valuePosition == -1 ? null : values[valuePosition]);
+        }
+        for (int i = 0; i < appendNames.length; i++) {
+            int[] positions = appendPositions[i];
+            StringBuilder appended = new StringBuilder(values[positions[0]]);
+            for (int j = 1; j < positions.length; j++) {
+                appended.append(appendSeparator).append(values[positions[j]]);
+            }
+            results.put(appendNames[i], appended.toString());
+        }
+        if (results.size() != maxResults) {
             throw new DissectException.FindMatch(pattern, inputString);
         }
         return results;
     }
 
+    /**
+     * @return the value of the key at the provided position or <code>null</code> if the key is skipped
+     */
+    private String value(String input, int position, int start, int end) {
+        return keys[position].skip() ? null : input.substring(start, end);
+    }
+
+    /**
+     * The position of a key that appends to a result, ordered by the order in which its value is appended
+     */
+    private static final class AppendPosition implements Comparable<AppendPosition> {
+
+        private final int position;
+        private final int order;
+
+        private AppendPosition(int position, int order) {
+            this.position = position;
+            this.order = order;
+        }
+
+        private int getPosition() {
+            return position;
+        }
+
+        @Override
+        public int compareTo(AppendPosition o) {
+            return Integer.compare(order, o.order);
+        }
+    }
+
     /**
      * A tuple class to hold the dissect key and delimiter
      */
@@ -264,6 +264,11 @@ public class DissectParserTests extends ESTestCase {
         assertMatch(",%{a} %{b}", ",,foo bar", Arrays.asList("a", "b"), Arrays.asList(",foo", "bar"));
     }
 
+    public void testLeadingDelimiterUnicode() {
+        assertMatch("࿏%{a} %{b}", "࿏foo bar", Arrays.asList("a", "b"), Arrays.asList("foo", "bar"));
+        assertMatch("子 %{a}", "子 ⟳༒", Arrays.asList("a"), Arrays.asList("⟳༒"));
+    }
+
     /**
      * Runtime errors
      */
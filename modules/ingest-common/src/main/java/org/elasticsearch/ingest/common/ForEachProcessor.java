@@ -109,6 +109,97 @@ public final class ForEachProcessor extends AbstractProcessor implements Wrappin
         throw new UnsupportedOperationException("this method should not get executed");
     }
 
+    @Override
+    public boolean supportsBatchExecution() {
+        return processor.supportsBatchExecution();
+    }
+
+    @Override
+    public void executeBatch(List<IngestDocument> ingestDocuments, BiConsumer<IngestDocument[], Exception[]> handler) {
+        final IngestDocument[] results = new IngestDocument[ingestDocuments.size()];
+        final Exception[] failures = new Exception[ingestDocuments.size()];
+        final List<Iteration> iterations = new ArrayList<>(ingestDocuments.size());
+        for (int i = 0; i < ingestDocuments.size(); i++) {
+            final IngestDocument document = ingestDocuments.get(i);
+            try {
+                List<?> values = document.getFieldValue(field, List.class, ignoreMissing);
+                if (values != null) {
+                    iterations.add(new Iteration(i, document, values));
+                } else if (ignoreMissing) {
+                    results[i] = document;
+                } else {
+                    failures[i] = new IllegalArgumentException("field [" + field + "] is null, cannot loop over its elements.");
+                }
+            } catch (Exception e) {
+                failures[i] = e;
+            }
+        }
+        innerExecuteBatch(0, iterations, results, failures, handler);
+    }
+
+    /**
+     * Executes the processor on the value at the given index of all documents that have that many values, so that the values
+     * of all documents are passed down to the processor in batches.
+     */
+    private void innerExecuteBatch(int index, List<Iteration> iterations, IngestDocument[] results, Exception[] failures,
+                                   BiConsumer<IngestDocument[], Exception[]> handler) {
+        final List<Iteration> active = new ArrayList<>(iterations.size());
+        final List<IngestDocument> documents = new ArrayList<>(iterations.size());
+        for (Iteration iteration : iterations) {
+            if (index == iteration.values.size()) {
+                try {
+                    iteration.document.setFieldValue(field, new ArrayList<>(iteration.newValues));
+                    results[iteration.slot] = iteration.document;
+                } catch (Exception e) {
+                    failures[iteration.slot] = e;
+                }
+            } else {
+                iteration.previousValue = iteration.document.getIngestMetadata().put("_value", iteration.values.get(index));
+                active.add(iteration);
+                documents.add(iteration.document);
+            }
+        }
+        if (active.isEmpty()) {
+            handler.accept(results, failures);
+            return;
+        }
+
+        Processor.executeBatch(processor, documents, (processed, errors) -> {
+            final List<Iteration> remaining = new ArrayList<>(active.size());
+            for (int i = 0; i < active.size(); i++) {
+                final Iteration iteration = active.get(i);
+                if (errors[i] != null) {
+                    iteration.newValues.add(iteration.document.getIngestMetadata().put("_value", iteration.previousValue));
+                    failures[iteration.slot] = errors[i];
+                } else if (processed[i] != null) {
+                    iteration.newValues.add(iteration.document.getIngestMetadata().put("_value", iteration.previousValue));
+                    remaining.add(iteration);
+                }
+                // a null result without a failure means the document was dropped, its result stays null
+            }
+            innerExecuteBatch(index + 1, remaining, results, failures, handler);
+        });
+    }
+
+    /**
+     * The state of looping over the values of a single document of a batch.
+     */
+    private static final class Iteration {
+
+        private final int slot;
+        private final IngestDocument document;
+        private final List<?> values;
+        private final List<Object> newValues;
+        private Object previousValue;
+
+        Iteration(int slot, IngestDocument document, List<?> values) {
+            this.slot = slot;
+            this.document = document;
+            this.values = values;
+            this.newValues = new ArrayList<>(values.size());
+        }
+    }
+
     @Override
     public String getType() {
         return TYPE;
@@ -19,6 +19,8 @@
 
 package org.elasticsearch.ingest.common;
 
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
 import org.elasticsearch.grok.Grok;
 import org.elasticsearch.grok.ThreadWatchdog;
 import org.elasticsearch.ingest.AbstractProcessor;
@@ -26,9 +28,16 @@ import org.elasticsearch.ingest.ConfigurationUtils;
 import org.elasticsearch.ingest.IngestDocument;
 import org.elasticsearch.ingest.Processor;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
 
 import static org.elasticsearch.ingest.ConfigurationUtils.newConfigurationException;
 
@@ -36,19 +45,32 @@ public final class GrokProcessor extends AbstractProcessor {
 
     public static final String TYPE = "grok";
     private static final String PATTERN_MATCH_KEY = "_ingest._grok_match_index";
+    // upper bound of the number of pattern subsets per processor for which a dedicated regex gets compiled
+    private static final int MAX_CANDIDATE_GROKS = 64;
 
     private final String matchField;
     private final List<String> matchPatterns;
+    private final Function<String, Grok> grokCompiler;
     private final Grok grok;
+    private final String[] requiredLiterals;
+    private final ConcurrentMap<Long, Grok> candidateGroks = new ConcurrentHashMap<>();
     private final boolean traceMatch;
     private final boolean ignoreMissing;
 
     GrokProcessor(String tag, Map<String, String> patternBank, List<String> matchPatterns, String matchField,
                   boolean traceMatch, boolean ignoreMissing, ThreadWatchdog threadWatchdog) {
+        this(tag, expression -> new Grok(patternBank, expression, threadWatchdog), matchPatterns, matchField, traceMatch,
+            ignoreMissing);
+    }
+
+    GrokProcessor(String tag, Function<String, Grok> grokCompiler, List<String> matchPatterns, String matchField,
+                  boolean traceMatch, boolean ignoreMissing) {
         super(tag);
         this.matchField = matchField;
         this.matchPatterns = matchPatterns;
-        this.grok = new Grok(patternBank, combinePatterns(matchPatterns, traceMatch), threadWatchdog);
+        this.grokCompiler = grokCompiler;
+        this.grok = grokCompiler.apply(combinePatterns(matchPatterns, traceMatch));
+        this.requiredLiterals = requiredLiterals(matchPatterns);
         this.traceMatch = traceMatch;
         this.ignoreMissing = ignoreMissing;
     }
@@ -63,7 +85,8 @@ public final class GrokProcessor extends AbstractProcessor {
             throw new IllegalArgumentException("field [" + matchField + "] is null, cannot process it.");
         }
 
-        Map<String, Object> matches = grok.captures(fieldValue);
+        Grok candidateGrok = selectGrok(fieldValue);
+        Map<String, Object> matches = candidateGrok != null ? candidateGrok.captures(fieldValue) : null;
         if (matches == null) {
             throw new IllegalArgumentException("Provided Grok expressions do not match field value: [" + fieldValue + "]");
         }
@@ -105,6 +128,218 @@ public final class GrokProcessor extends AbstractProcessor {
         return matchPatterns;
     }
 
+    /**
+     * Selects the grok expression to run against the provided value, based on the literals that each of the
+     * match patterns requires to be present. Patterns that can't match are left out of the expression, which
+     * leaves the outcome of the match unchanged, since an alternative that can't match never wins.
+     *
+     * @return the grok expression to run or <code>null</code> if none of the match patterns can match
+     */
+    Grok selectGrok(String value) {
+        if (requiredLiterals == null) {
+            return grok;
+        }
+        long candidates = 0;
+        for (int i = 0; i < requiredLiterals.length; i++) {
+            if (requiredLiterals[i] == null || value.contains(requiredLiterals[i])) {
+                candidates |= 1L << i;
+            }
+        }
+        if (candidates == 0) {
+            return null;
+        } else if (Long.bitCount(candidates) == matchPatterns.size()) {
+            return grok;
+        }
+        Grok candidateGrok = candidateGroks.get(candidates);
+        if (candidateGrok == null) {
+            if (candidateGroks.size() >= MAX_CANDIDATE_GROKS) {
+                return grok;
+            }
+            candidateGrok = candidateGroks.computeIfAbsent(candidates,
+                key -> grokCompiler.apply(combinePatterns(matchPatterns, key, traceMatch)));
+        }
+        return candidateGrok;
+    }
+
+    /**
+     * Skips the operands of the escape sequence whose letter or digit is at position <code>i</code> of the pattern,
+     * for instance the code of <code>\x41</code> or the name of <code>\k&lt;name&gt;</code>.
+     *
+     * @return the position of the last character of the escape sequence or -1 if it can't be analyzed
+     */
+    private static int skipEscapeOperands(String pattern, int i) {
+        final char escaped = pattern.charAt(i);
+        switch (escaped) {
+            case 'x':
+            case 'o':
+            case 'p':
+            case 'P':
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '{') {
+                    final int end = pattern.indexOf('}', i + 1);
+                    return end == -1 ? -1 : end;
+                }
+                if (escaped == 'x') {
+                    return skipWhile(pattern, i, 2, GrokProcessor::isHexDigit);
+                }
+                // single letter property like \pL
+                return escaped == 'o' ? -1 : Math.min(i + 1, pattern.length() - 1);
+            case 'u':
+                return skipWhile(pattern, i, 4, GrokProcessor::isHexDigit);
+            case 'c':
+                // control character
+                return i + 1 < pattern.length() ? i + 1 : -1;
+            case 'k':
+            case 'g':
+                if (i + 1 < pattern.length() && (pattern.charAt(i + 1) == '<' || pattern.charAt(i + 1) == '\'')) {
+                    final int end = pattern.indexOf(pattern.charAt(i + 1) == '<' ? '>' : '\'', i + 2);
+                    return end == -1 ? -1 : end;
+                }
+                return skipWhile(pattern, i, Integer.MAX_VALUE, Character::isDigit);
+            case 'Q':
+                // quoted sequence, not worth analyzing
+                return -1;
+            default:
+                if (escaped >= '0' && escaped <= '9') {
+                    // octal codes and back references
+                    return skipWhile(pattern, i, 3, Character::isDigit);
+                }
+                return i;
+        }
+    }
+
+    private static int skipWhile(String pattern, int i, int max, IntPredicate predicate) {
+        int end = i;
+        while (end + 1 < pattern.length() && end - i < max && predicate.test(pattern.charAt(end + 1))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isHexDigit(int c) {
+        return Character.digit(c, 16) != -1;
+    }
+
+    /**
+     * @return for each of the provided patterns the longest literal that any matching value contains, or
+     * <code>null</code> if no pattern has such a literal
+     */
+    static String[] requiredLiterals(List<String> patterns) {
+        if (patterns.size() > Long.SIZE) {
+            return null;
+        }
+        String[] requiredLiterals = new String[patterns.size()];
+        boolean hasLiteral = false;
+        for (int i = 0; i < patterns.size(); i++) {
+            requiredLiterals[i] = requiredLiteral(patterns.get(i));
+            hasLiteral |= requiredLiterals[i] != null;
+        }
+        return hasLiteral ? requiredLiterals : null;
+    }
+
+    /**
+     * Extracts the longest run of literal characters from the top level of a grok pattern. Characters that are
+     * nested in groups, that are quantified or that are part of a top level alternation are not required and are
+     * never part of the returned literal.
+     *
+     * @return the longest required literal or <code>null</code> if the pattern has none or can't be analyzed
+     */
+    static String requiredLiteral(String pattern) {
+        String longest = "";
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            switch (c) {
+                case '%':
+                    if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '{') {
+                        int end = pattern.indexOf('}', i);
+                        if (end == -1) {
+                            return null;
+                        }
+                        longest = longest(longest, current);
+                        i = end;
+                    } else if (depth == 0) {
+                        current.append(c);
+                    }
+                    break;
+                case '\\':
+                    if (i + 1 >= pattern.length()) {
+                        return null;
+                    }
+                    char escaped = pattern.charAt(++i);
+                    if (Character.isLetterOrDigit(escaped)) {
+                        // character classes, anchors, back references and escapes of characters by their code
+                        longest = longest(longest, current);
+                        i = skipEscapeOperands(pattern, i);
+                        if (i == -1) {
+                            return null;
+                        }
+                    } else if (depth == 0) {
+                        current.append(escaped);
+                    }
+                    break;
+                case '(':
+                    if (i + 2 < pattern.length() && pattern.charAt(i + 1) == '?' && ":<=!>".indexOf(pattern.charAt(i + 2)) == -1) {
+                        // inline options, for example case insensitive matching
+                        return null;
+                    }
+                    longest = longest(longest, current);
+                    depth++;
+                    break;
+                case ')':
+                    depth--;
+                    break;
+                case '[':
+                    int end = i + 1;
+                    while (end < pattern.length() && (pattern.charAt(end) != ']' || end == i + 1 ||
+                        (end == i + 2 && pattern.charAt(i + 1) == '^'))) {
+                        end += pattern.charAt(end) == '\\' ? 2 : 1;
+                    }
+                    longest = longest(longest, current);
+                    i = end;
+                    break;
+                case '|':
+                    if (depth == 0) {
+                        return null;
+                    }
+                    break;
+                case '?':
+                case '*':
+                case '+':
+                case '{':
+                    // the quantifier applies to the preceding character, which therefore isn't required
+                    if (depth == 0 && current.length() > 0) {
+                        current.setLength(current.length() - 1);
+                    }
+                    longest = longest(longest, current);
+                    if (c == '{') {
+                        int close = pattern.indexOf('}', i);
+                        i = close == -1 ? i : close;
+                    }
+                    break;
+                case '.':
+                case '^':
+                case '$':
+                    longest = longest(longest, current);
+                    break;
+                default:
+                    if (depth == 0) {
+                        current.append(c);
+                    }
+            }
+        }
+        longest = longest(longest, current);
+        return longest.isEmpty() ? null : longest;
+    }
+
+    private static String longest(String longest, StringBuilder current) {
+        if (current.length() > longest.length()) {
+            longest = current.toString();
+        }
+        current.setLength(0);
+        return longest;
+    }
+
     static String combinePatterns(List<String> patterns, boolean traceMatch) {
         String combinedPattern;
         if (patterns.size() > 1) {
@@ -130,14 +365,46 @@ public final class GrokProcessor extends AbstractProcessor {
         return combinedPattern;
     }
 
+    /**
+     * Combines the patterns whose bit is set in the provided mask, keeping their original index, so that
+     * <code>trace_match</code> reports the same pattern index as when all patterns are combined.
+     */
+    static String combinePatterns(List<String> patterns, long mask, boolean traceMatch) {
+        if (patterns.size() == 1) {
+            return patterns.get(0);
+        }
+        StringBuilder combinedPattern = new StringBuilder();
+        for (int i = 0; i < patterns.size(); i++) {
+            if ((mask & (1L << i)) == 0) {
+                continue;
+            }
+            if (combinedPattern.length() > 0) {
+                combinedPattern.append('|');
+            }
+            if (traceMatch) {
+                combinedPattern.append("(?<" + PATTERN_MATCH_KEY + "." + i + ">" + patterns.get(i) + ")");
+            } else {
+                combinedPattern.append("(?:" + patterns.get(i) + ")");
+            }
+        }
+        return combinedPattern.toString();
+    }
+
     public static final class Factory implements Processor.Factory {
 
+        // maximum number of compiled grok expressions that are shared between all grok processors on a node
+        static final int GROK_CACHE_SIZE = 1000;
+
         private final Map<String, String> builtinPatterns;
         private final ThreadWatchdog threadWatchdog;
+        private final Cache<GrokCacheKey, Grok> grokCache;
 
         public Factory(Map<String, String> builtinPatterns, ThreadWatchdog threadWatchdog) {
             this.builtinPatterns = builtinPatterns;
             this.threadWatchdog = threadWatchdog;
+            this.grokCache = CacheBuilder.<GrokCacheKey, Grok>builder()
+                .setMaximumWeight(GROK_CACHE_SIZE)
+                .build();
         }
 
         @Override
@@ -156,15 +423,61 @@ public final class GrokProcessor extends AbstractProcessor {
             if (customPatternBank != null) {
                 patternBank.putAll(customPatternBank);
             }
+            Map<String, String> customPatterns = customPatternBank != null ? new HashMap<>(customPatternBank) : Collections.emptyMap();
 
             try {
-                return new GrokProcessor(processorTag, patternBank, matchPatterns, matchField, traceMatch, ignoreMissing,
-                    threadWatchdog);
+                return new GrokProcessor(processorTag, expression -> compile(customPatterns, patternBank, expression), matchPatterns,
+                    matchField, traceMatch, ignoreMissing);
             } catch (Exception e) {
                 throw newConfigurationException(TYPE, processorTag, "patterns",
                     "Invalid regex pattern found in: " + matchPatterns + ". " + e.getMessage());
             }
 
         }
+
+        private Grok compile(Map<String, String> customPatterns, Map<String, String> patternBank, String expression) {
+            try {
+                return grokCache.computeIfAbsent(new GrokCacheKey(customPatterns, expression),
+                    key -> new Grok(patternBank, expression, threadWatchdog));
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalArgumentException(e.getCause());
+            }
+        }
+
+        int getCacheSize() {
+            return grokCache.count();
+        }
+    }
+
+    /**
+     * Compiled grok expressions are identified by the expression and the custom pattern definitions they were
+     * compiled with, the built-in patterns are the same for all processors created by a factory.
+     */
+    private static final class GrokCacheKey {
+
+        private final Map<String, String> customPatterns;
+        private final String expression;
+
+        private GrokCacheKey(Map<String, String> customPatterns, String expression) {
+            this.customPatterns = customPatterns;
+            this.expression = expression;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            GrokCacheKey that = (GrokCacheKey) o;
+            return customPatterns.equals(that.customPatterns) &&
+                expression.equals(that.expression);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(customPatterns, expression);
+        }
     }
 }
@@ -37,6 +37,8 @@ import java.util.Map;
 
 import static org.elasticsearch.ingest.IngestDocumentMatcher.assertIngestDocument;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 public class ForEachProcessorTests extends ESTestCase {
 
@@ -62,6 +64,36 @@ public class ForEachProcessorTests extends ESTestCase {
         assertThat(result.get(2), equalTo("BAZ"));
     }
 
+    public void testExecuteBatch() throws Exception {
+        IngestDocument first = new IngestDocument(
+            "_index", "1", null, null, null, Collections.singletonMap("values", Arrays.asList("a", "b"))
+        );
+        IngestDocument second = new IngestDocument(
+            "_index", "2", null, null, null, Collections.singletonMap("values", Arrays.asList("c", "d", "e"))
+        );
+        IngestDocument missing = new IngestDocument("_index", "3", null, null, null, Collections.emptyMap());
+
+        TestProcessor testProcessor = new TestProcessor(id -> {
+            String value = id.getFieldValue("_ingest._value", String.class);
+            id.setFieldValue("_ingest._value", value.toUpperCase(Locale.ROOT));
+        });
+        ForEachProcessor processor = new ForEachProcessor("_tag", "values", testProcessor, false);
+        IngestDocument[][] results = new IngestDocument[1][];
+        Exception[][] failures = new Exception[1][];
+        processor.executeBatch(Arrays.asList(first, second, missing), (r, f) -> {
+            results[0] = r;
+            failures[0] = f;
+        });
+
+        assertThat(testProcessor.getInvokedCounter(), equalTo(5));
+        assertThat(results[0][0].getFieldValue("values", List.class), equalTo(Arrays.asList("A", "B")));
+        assertThat(results[0][1].getFieldValue("values", List.class), equalTo(Arrays.asList("C", "D", "E")));
+        assertThat(failures[0][0], nullValue());
+        assertThat(failures[0][1], nullValue());
+        assertThat(results[0][2], nullValue());
+        assertThat(failures[0][2], notNullValue());
+    }
+
     public void testExecuteWithFailure() throws Exception {
         IngestDocument ingestDocument = new IngestDocument(
             "_index", "_id", null, null, null, Collections.singletonMap("values", Arrays.asList("a", "b", "c"))
@@ -29,7 +29,9 @@ import java.util.Map;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class GrokProcessorFactoryTests extends ESTestCase {
 
@@ -119,4 +121,28 @@ public class GrokProcessorFactoryTests extends ESTestCase {
         assertThat(e.getMessage(),
             equalTo("[patterns] Invalid regex pattern found in: [%{MY_PATTERN:name}!]. premature end of char-class"));
     }
+
+    public void testCompiledExpressionsAreShared() throws Exception {
+        GrokProcessor.Factory factory = new GrokProcessor.Factory(Collections.singletonMap("ONE", "1"), ThreadWatchdog.noop());
+        Map<String, Object> config = new HashMap<>();
+        config.put("field", "_field");
+        config.put("patterns", Collections.singletonList("%{ONE:one}"));
+        GrokProcessor processor1 = factory.create(null, null, config);
+        config = new HashMap<>();
+        config.put("field", "_other_field");
+        config.put("patterns", Collections.singletonList("%{ONE:one}"));
+        GrokProcessor processor2 = factory.create(null, null, config);
+        assertThat(processor2.getGrok(), sameInstance(processor1.getGrok()));
+        assertThat(factory.getCacheSize(), equalTo(1));
+
+        // custom pattern definitions are part of the cache key
+        config = new HashMap<>();
+        config.put("field", "_field");
+        config.put("patterns", Collections.singletonList("%{ONE:one}"));
+        config.put("pattern_definitions", Collections.singletonMap("ONE", "one"));
+        GrokProcessor processor3 = factory.create(null, null, config);
+        assertThat(processor3.getGrok(), not(sameInstance(processor1.getGrok())));
+        assertThat(processor3.getGrok().match("one"), equalTo(true));
+        assertThat(factory.getCacheSize(), equalTo(2));
+    }
 }
@@ -19,18 +19,23 @@
 
 package org.elasticsearch.ingest.common;
 
+import org.elasticsearch.grok.Grok;
 import org.elasticsearch.grok.ThreadWatchdog;
 import org.elasticsearch.ingest.IngestDocument;
 import org.elasticsearch.ingest.RandomDocumentPicks;
 import org.elasticsearch.test.ESTestCase;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.elasticsearch.ingest.IngestDocumentMatcher.assertIngestDocument;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 
 public class GrokProcessorTests extends ESTestCase {
@@ -240,4 +245,93 @@ public class GrokProcessorTests extends ESTestCase {
         assertFalse(doc.hasField("first"));
         assertThat(doc.getFieldValue("second", String.class), equalTo("3"));
     }
+
+    public void testRequiredLiteral() {
+        assertThat(GrokProcessor.requiredLiteral("%{ONE:one}"), nullValue());
+        assertThat(GrokProcessor.requiredLiteral("foo"), equalTo("foo"));
+        assertThat(GrokProcessor.requiredLiteral("%{ONE:one} sshd\\[%{ONE:pid}\\]: %{ONE:message}"), equalTo(" sshd["));
+        assertThat(GrokProcessor.requiredLiteral("%{ONE:one} (?:foo|bar) baz"), equalTo(" baz"));
+        assertThat(GrokProcessor.requiredLiteral("foo|barbaz"), nullValue());
+        assertThat(GrokProcessor.requiredLiteral("fooo?bar"), equalTo("foo"));
+        assertThat(GrokProcessor.requiredLiteral("abcd{2,3}ab"), equalTo("abc"));
+        assertThat(GrokProcessor.requiredLiteral("foo\\s+[a-z]*barbaz"), equalTo("barbaz"));
+        assertThat(GrokProcessor.requiredLiteral("(?i)foo"), nullValue());
+        assertThat(GrokProcessor.requiredLiteral("(?<name>foo)"), nullValue());
+    }
+
+    public void testRequiredLiteralWithEscapeOperands() {
+        assertThat(GrokProcessor.requiredLiteral("\\x41bc"), equalTo("bc"));
+        assertThat(GrokProcessor.requiredLiteral("\\x{41}bc"), equalTo("bc"));
+        assertThat(GrokProcessor.requiredLiteral("\\101bc"), equalTo("bc"));
+        assertThat(GrokProcessor.requiredLiteral("\\0101bc"), equalTo("bc"));
+        assertThat(GrokProcessor.requiredLiteral("\\p{Alpha}bc"), equalTo("bc"));
+        assertThat(GrokProcessor.requiredLiteral("(?<word>a)b\\k<word>cd"), equalTo("cd"));
+        assertThat(GrokProcessor.requiredLiteral("(?<word>a)b\\g<word>cd"), equalTo("cd"));
+        assertThat(GrokProcessor.requiredLiteral("(?<word>a)b\\k'word'cd"), equalTo("cd"));
+        assertThat(GrokProcessor.requiredLiteral("\\Qfoo\\E"), nullValue());
+    }
+
+    public void testPrefilterWithEscapeOperands() throws Exception {
+        Map<String, String> patternBank = new HashMap<>();
+        patternBank.put("NUMBER", "\\d+");
+        GrokProcessor processor = new GrokProcessor(randomAlphaOfLength(10),
+            expression -> new Grok(patternBank, expression, ThreadWatchdog.noop()),
+            Arrays.asList("\\x41BC: %{NUMBER:hex}", "\\101BD: %{NUMBER:octal}", "cron: %{NUMBER:cron}"), "message", true, false);
+
+        IngestDocument doc = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+        doc.setFieldValue("message", "ABC: 12");
+        processor.execute(doc);
+        assertThat(doc.getFieldValue("hex", String.class), equalTo("12"));
+
+        doc = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+        doc.setFieldValue("message", "ABD: 13");
+        processor.execute(doc);
+        assertThat(doc.getFieldValue("octal", String.class), equalTo("13"));
+    }
+
+    public void testPrefilterSelectsCandidatePatterns() throws Exception {
+        Map<String, String> patternBank = new HashMap<>();
+        patternBank.put("NUMBER", "\\d+");
+        List<String> compiled = new ArrayList<>();
+        GrokProcessor processor = new GrokProcessor(randomAlphaOfLength(10), expression -> {
+            compiled.add(expression);
+            return new Grok(patternBank, expression, ThreadWatchdog.noop());
+        }, Arrays.asList("sshd: %{NUMBER:sshd}", "cron: %{NUMBER:cron}", "%{NUMBER:other}"), "message", true, false);
+        assertThat(compiled.size(), equalTo(1));
+
+        IngestDocument doc = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+        doc.setFieldValue("message", "cron: 12");
+        processor.execute(doc);
+        assertThat(doc.getFieldValue("cron", String.class), equalTo("12"));
+        assertThat(doc.getFieldValue("_ingest._grok_match_index", String.class), equalTo("1"));
+        assertThat(compiled.size(), equalTo(2));
+        assertThat(compiled.get(1),
+            equalTo("(?<_ingest._grok_match_index.1>cron: %{NUMBER:cron})|(?<_ingest._grok_match_index.2>%{NUMBER:other})"));
+
+        // the same candidates reuse the previously compiled expression
+        doc = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+        doc.setFieldValue("message", "cron: 34");
+        processor.execute(doc);
+        assertThat(doc.getFieldValue("cron", String.class), equalTo("34"));
+        assertThat(compiled.size(), equalTo(2));
+
+        // the leftmost match still wins, like with the combined expression of all patterns
+        doc = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+        doc.setFieldValue("message", "5 cron: 12");
+        processor.execute(doc);
+        assertThat(doc.getFieldValue("other", String.class), equalTo("5"));
+        assertThat(doc.hasField("cron"), equalTo(false));
+    }
+
+    public void testPrefilterWithoutCandidates() {
+        GrokProcessor processor = new GrokProcessor(randomAlphaOfLength(10), Collections.singletonMap("ONE", "1"),
+            Arrays.asList("foo %{ONE:one}", "bar %{ONE:one}"), "message", false, false, ThreadWatchdog.noop());
+        assertThat(processor.selectGrok("baz 1"), nullValue());
+        assertThat(processor.selectGrok("foo bar 1"), sameInstance(processor.getGrok()));
+
+        IngestDocument doc = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+        doc.setFieldValue("message", "baz 1");
+        Exception e = expectThrows(Exception.class, () -> processor.execute(doc));
+        assertThat(e.getMessage(), equalTo("Provided Grok expressions do not match field value: [baz 1]"));
+    }
 }
@@ -28,6 +28,7 @@ import io.netty.channel.ChannelPromise;
 import io.netty.util.Attribute;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.transport.Transports;
 
 import java.nio.channels.ClosedChannelException;
@@ -56,12 +57,14 @@ final class Netty4MessageChannelHandler extends ChannelDuplexHandler {
         assert msg instanceof ByteBuf : "Expected message type ByteBuf, found: " + msg.getClass();
 
         final ByteBuf buffer = (ByteBuf) msg;
+        // requests may retain the buffer beyond this call to avoid copying document sources out of it
+        final ReleasableBytesReference reference = new ReleasableBytesReference(Netty4Utils.toBytesReference(buffer), buffer::release);
         try {
             Channel channel = ctx.channel();
             Attribute<Netty4TcpChannel> channelAttribute = channel.attr(Netty4Transport.CHANNEL_KEY);
-            transport.inboundMessage(channelAttribute.get(), Netty4Utils.toBytesReference(buffer));
+            transport.inboundMessage(channelAttribute.get(), reference);
         } finally {
-            buffer.release();
+            reference.close();
         }
     }
 
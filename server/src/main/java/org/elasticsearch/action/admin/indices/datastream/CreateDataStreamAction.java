@@ -0,0 +1,211 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.action.admin.indices.datastream;
+
+import org.elasticsearch.ResourceAlreadyExistsException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.action.ActionType;
+import org.elasticsearch.action.IndicesRequest;
+import org.elasticsearch.action.admin.indices.create.CreateIndexClusterStateUpdateRequest;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.ActiveShardCount;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.action.support.master.AcknowledgedRequest;
+import org.elasticsearch.action.support.master.AcknowledgedResponse;
+import org.elasticsearch.action.support.master.TransportMasterNodeAction;
+import org.elasticsearch.cluster.AckedClusterStateUpdateTask;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.block.ClusterBlockException;
+import org.elasticsearch.cluster.block.ClusterBlockLevel;
+import org.elasticsearch.cluster.metadata.DataStream;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.cluster.metadata.MetaDataCreateIndexService;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Priority;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+import static org.elasticsearch.action.ValidateActions.addValidationError;
+
+/**
+ * Creates a data stream together with its first backing index.
+ */
+public class CreateDataStreamAction extends ActionType<AcknowledgedResponse> {
+
+    public static final CreateDataStreamAction INSTANCE = new CreateDataStreamAction();
+    public static final String NAME = "indices:admin/data_stream/create";
+
+    private CreateDataStreamAction() {
+        super(NAME, AcknowledgedResponse::new);
+    }
+
+    public static class Request extends AcknowledgedRequest<Request> implements IndicesRequest {
+
+        private final String name;
+        private String timestampField;
+
+        public Request(String name) {
+            this.name = name;
+        }
+
+        public Request(StreamInput in) throws IOException {
+            super(in);
+            this.name = in.readString();
+            this.timestampField = in.readString();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTimestampField() {
+            return timestampField;
+        }
+
+        public Request setTimestampField(String timestampField) {
+            this.timestampField = timestampField;
+            return this;
+        }
+
+        @Override
+        public String[] indices() {
+            return new String[] {name};
+        }
+
+        @Override
+        public IndicesOptions indicesOptions() {
+            return IndicesOptions.strictSingleIndexNoExpandForbidClosed();
+        }
+
+        @Override
+        public ActionRequestValidationException validate() {
+            ActionRequestValidationException validationException = null;
+            if (name == null || name.isEmpty()) {
+                validationException = addValidationError("name is missing", validationException);
+            }
+            if (timestampField == null || timestampField.isEmpty()) {
+                validationException = addValidationError("timestamp_field is missing", validationException);
+            }
+            return validationException;
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            super.writeTo(out);
+            out.writeString(name);
+            out.writeString(timestampField);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Request request = (Request) o;
+            return name.equals(request.name) && Objects.equals(timestampField, request.timestampField);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, timestampField);
+        }
+    }
+
+    public static class TransportAction extends TransportMasterNodeAction<Request, AcknowledgedResponse> {
+
+        private final MetaDataCreateIndexService createIndexService;
+
+        @Inject
+        public TransportAction(TransportService transportService, ClusterService clusterService, ThreadPool threadPool,
+                               ActionFilters actionFilters, IndexNameExpressionResolver indexNameExpressionResolver,
+                               MetaDataCreateIndexService createIndexService) {
+            super(NAME, transportService, clusterService, threadPool, actionFilters, Request::new, indexNameExpressionResolver);
+            this.createIndexService = createIndexService;
+        }
+
+        @Override
+        protected String executor() {
+            // we go async right away
+            return ThreadPool.Names.SAME;
+        }
+
+        @Override
+        protected AcknowledgedResponse read(StreamInput in) throws IOException {
+            return new AcknowledgedResponse(in);
+        }
+
+        @Override
+        protected void masterOperation(Task task, Request request, ClusterState state,
+                                       ActionListener<AcknowledgedResponse> listener) {
+            validate(request, state);
+            final String firstBackingIndex = DataStream.getBackingIndexName(request.getName(), 1);
+            CreateIndexClusterStateUpdateRequest createIndexRequest =
+                new CreateIndexClusterStateUpdateRequest("initialize_data_stream", firstBackingIndex, firstBackingIndex)
+                    .ackTimeout(request.timeout())
+                    .masterNodeTimeout(request.masterNodeTimeout())
+                    .waitForActiveShards(ActiveShardCount.NONE);
+            createIndexService.createIndex(createIndexRequest, ActionListener.wrap(createIndexResponse ->
+                clusterService.submitStateUpdateTask("create-data-stream [" + request.getName() + "]",
+                    new AckedClusterStateUpdateTask<AcknowledgedResponse>(Priority.HIGH, request, listener) {
+
+                        @Override
+                        public ClusterState execute(ClusterState currentState) {
+                            validate(request, currentState);
+                            IndexMetaData backingIndex = currentState.metaData().index(firstBackingIndex);
+                            if (backingIndex == null) {
+                                throw new IllegalStateException("backing index [" + firstBackingIndex + "] was deleted before data stream ["
+                                    + request.getName() + "] was created");
+                            }
+                            DataStream dataStream = new DataStream(request.getName(), request.getTimestampField(),
+                                List.of(backingIndex.getIndex()));
+                            return ClusterState.builder(currentState)
+                                .metaData(MetaData.builder(currentState.metaData()).put(dataStream))
+                                .build();
+                        }
+
+                        @Override
+                        protected AcknowledgedResponse newResponse(boolean acknowledged) {
+                            return new AcknowledgedResponse(acknowledged);
+                        }
+                    }), listener::onFailure));
+        }
+
+        static void validate(Request request, ClusterState state) {
+            if (state.metaData().dataStreams().containsKey(request.getName())) {
+                throw new ResourceAlreadyExistsException("data_stream [" + request.getName() + "] already exists");
+            }
+            MetaDataCreateIndexService.validateIndexName(request.getName(), state);
+        }
+
+        @Override
+        protected ClusterBlockException checkBlock(Request request, ClusterState state) {
+            return state.blocks().globalBlockedException(ClusterBlockLevel.METADATA_WRITE);
+        }
+    }
+}
@@ -19,6 +19,9 @@
 
 package org.elasticsearch.action.admin.indices.rollover;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.indices.alias.IndicesAliasesClusterStateUpdateRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexClusterStateUpdateRequest;
@@ -26,6 +29,7 @@ import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.stats.IndicesStatsAction;
 import org.elasticsearch.action.admin.indices.stats.IndicesStatsRequest;
 import org.elasticsearch.action.admin.indices.stats.IndicesStatsResponse;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.support.ActionFilters;
 import org.elasticsearch.action.support.ActiveShardCount;
 import org.elasticsearch.action.support.ActiveShardsObserver;
@@ -35,9 +39,11 @@ import org.elasticsearch.client.Client;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.ClusterStateUpdateTask;
 import org.elasticsearch.cluster.block.ClusterBlockException;
+import org.elasticsearch.cluster.block.ClusterBlocks;
 import org.elasticsearch.cluster.block.ClusterBlockLevel;
 import org.elasticsearch.cluster.metadata.AliasAction;
 import org.elasticsearch.cluster.metadata.AliasOrIndex;
+import org.elasticsearch.cluster.metadata.DataStream;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.metadata.IndexTemplateMetaData;
@@ -49,8 +55,13 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.Index;
 import org.elasticsearch.index.shard.DocsStats;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.metrics.Max;
+import org.elasticsearch.search.aggregations.metrics.Min;
 import org.elasticsearch.tasks.Task;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
@@ -69,6 +80,7 @@ import java.util.stream.Collectors;
  */
 public class TransportRolloverAction extends TransportMasterNodeAction<RolloverRequest, RolloverResponse> {
 
+    private static final Logger logger = LogManager.getLogger(TransportRolloverAction.class);
     private static final Pattern INDEX_NAME_PATTERN = Pattern.compile("^.*-\\d+$");
     private final MetaDataCreateIndexService createIndexService;
     private final MetaDataIndexAliasesService indexAliasesService;
@@ -111,6 +123,11 @@ public class TransportRolloverAction extends TransportMasterNodeAction<RolloverR
     protected void masterOperation(Task task, final RolloverRequest rolloverRequest, final ClusterState state,
                                    final ActionListener<RolloverResponse> listener) {
         final MetaData metaData = state.metaData();
+        final DataStream dataStream = metaData.dataStreams().get(rolloverRequest.getAlias());
+        if (dataStream != null) {
+            rolloverDataStream(task, rolloverRequest, state, dataStream, listener);
+            return;
+        }
         validate(metaData, rolloverRequest);
         final AliasOrIndex.Alias alias = (AliasOrIndex.Alias) metaData.getAliasAndIndexLookup().get(rolloverRequest.getAlias());
         final IndexMetaData indexMetaData = alias.getWriteIndex();
@@ -207,6 +224,160 @@ public class TransportRolloverAction extends TransportMasterNodeAction<RolloverR
         );
     }
 
+    /**
+     * Rolls a data stream over to a new backing index. Once the new write index is in place the range of timestamps in the
+     * previous write index is recorded so that searches can skip it when their time range doesn't overlap.
+     */
+    private void rolloverDataStream(Task task, RolloverRequest rolloverRequest, ClusterState state, DataStream dataStream,
+                                    ActionListener<RolloverResponse> listener) {
+        if (rolloverRequest.getNewIndexName() != null) {
+            throw new IllegalArgumentException("new index name may not be specified when rolling over data stream ["
+                + dataStream.getName() + "]");
+        }
+        final Index sourceIndex = dataStream.getWriteIndex();
+        final String sourceIndexName = sourceIndex.getName();
+        final String rolloverIndexName = DataStream.getBackingIndexName(dataStream.getName(), dataStream.getGeneration() + 1);
+        MetaDataCreateIndexService.validateIndexName(rolloverIndexName, state); // will fail if the index already exists
+        IndicesStatsRequest statsRequest = new IndicesStatsRequest().indices(sourceIndexName)
+            .clear()
+            .indicesOptions(IndicesOptions.fromOptions(true, false, true, true))
+            .docs(true);
+        statsRequest.setParentTask(clusterService.localNode().getId(), task.getId());
+        client.execute(IndicesStatsAction.INSTANCE, statsRequest, ActionListener.wrap(statsResponse -> {
+            final Map<String, Boolean> conditionResults = evaluateConditions(rolloverRequest.getConditions().values(),
+                state.metaData().index(sourceIndexName), statsResponse);
+            if (rolloverRequest.isDryRun()) {
+                listener.onResponse(new RolloverResponse(sourceIndexName, rolloverIndexName, conditionResults, true, false, false, false));
+                return;
+            }
+            List<Condition<?>> metConditions = rolloverRequest.getConditions().values().stream()
+                .filter(condition -> conditionResults.get(condition.toString())).collect(Collectors.toList());
+            if (conditionResults.size() > 0 && metConditions.isEmpty()) {
+                listener.onResponse(new RolloverResponse(sourceIndexName, rolloverIndexName, conditionResults, false, false, false, false));
+                return;
+            }
+            CreateIndexClusterStateUpdateRequest updateRequest = prepareCreateIndexRequest(rolloverIndexName, rolloverIndexName,
+                rolloverRequest);
+            createIndexService.createIndex(updateRequest, ActionListener.wrap(createIndexResponse ->
+                clusterService.submitStateUpdateTask("rollover_data_stream [" + dataStream.getName() + "]", new ClusterStateUpdateTask() {
+                    @Override
+                    public ClusterState execute(ClusterState currentState) {
+                        RolloverInfo rolloverInfo = new RolloverInfo(rolloverRequest.getAlias(), metConditions,
+                            threadPool.absoluteTimeInMillis());
+                        return rolloverDataStream(currentState, dataStream.getName(), sourceIndex, rolloverIndexName, rolloverInfo);
+                    }
+
+                    @Override
+                    public void onFailure(String source, Exception e) {
+                        listener.onFailure(e);
+                    }
+
+                    @Override
+                    public void clusterStateProcessed(String source, ClusterState oldState, ClusterState newState) {
+                        recordTimestampRange(dataStream.getName(), sourceIndex, dataStream.getTimestampField());
+                        activeShardsObserver.waitForActiveShards(new String[]{rolloverIndexName},
+                            rolloverRequest.getCreateIndexRequest().waitForActiveShards(),
+                            rolloverRequest.masterNodeTimeout(),
+                            isShardsAcknowledged -> listener.onResponse(new RolloverResponse(
+                                sourceIndexName, rolloverIndexName, conditionResults, false, true, true, isShardsAcknowledged)),
+                            listener::onFailure);
+                    }
+                }), listener::onFailure));
+        }, listener::onFailure));
+    }
+
+    /**
+     * Makes the freshly created index the write index of the data stream and puts a write block on the previous write index,
+     * so that the range of its timestamps can't change anymore once it has been recorded.
+     */
+    static ClusterState rolloverDataStream(ClusterState currentState, String dataStreamName, Index sourceIndex,
+                                           String rolloverIndexName, RolloverInfo rolloverInfo) {
+        DataStream current = currentState.metaData().dataStreams().get(dataStreamName);
+        if (current == null || current.getWriteIndex().equals(sourceIndex) == false) {
+            throw new IllegalStateException("data stream [" + dataStreamName + "] was modified concurrently");
+        }
+        final IndexMetaData sourceIndexMetaData = currentState.metaData().getIndexSafe(sourceIndex);
+        return ClusterState.builder(currentState)
+            .metaData(MetaData.builder(currentState.metaData())
+                .put(current.rollover(currentState.metaData().index(rolloverIndexName).getIndex()))
+                .put(IndexMetaData.builder(sourceIndexMetaData)
+                    .settings(Settings.builder().put(sourceIndexMetaData.getSettings()).put(IndexMetaData.SETTING_BLOCKS_WRITE, true))
+                    .settingsVersion(1 + sourceIndexMetaData.getSettingsVersion())
+                    .putRolloverInfo(rolloverInfo)))
+            .blocks(ClusterBlocks.builder().blocks(currentState.blocks()).addIndexBlock(sourceIndex.getName(),
+                IndexMetaData.INDEX_WRITE_BLOCK))
+            .build();
+    }
+
+    /**
+     * Records the range of timestamps of a backing index in its data stream. The range is only recorded if the index is still
+     * write blocked, otherwise documents outside of the range may have been indexed since it was computed.
+     */
+    static ClusterState recordTimestampRange(ClusterState currentState, String dataStreamName, Index index,
+                                             DataStream.TimestampRange range) {
+        DataStream current = currentState.metaData().dataStreams().get(dataStreamName);
+        if (current == null || current.getIndices().contains(index) == false || current.getWriteIndex().equals(index)
+                || currentState.blocks().hasIndexBlock(index.getName(), IndexMetaData.INDEX_WRITE_BLOCK) == false) {
+            return currentState;
+        }
+        return ClusterState.builder(currentState)
+            .metaData(MetaData.builder(currentState.metaData()).put(current.withTimestampRange(index, range)))
+            .build();
+    }
+
+    /**
+     * Extracts the range of timestamps from a search with a min and max aggregation on the timestamp field, or returns
+     * {@code null} if it can't be determined.
+     */
+    @Nullable
+    static DataStream.TimestampRange timestampRange(SearchResponse searchResponse) {
+        if (searchResponse.getFailedShards() > 0 || searchResponse.getSuccessfulShards() < searchResponse.getTotalShards()) {
+            return null;
+        }
+        double min = ((Min) searchResponse.getAggregations().get("min")).getValue();
+        double max = ((Max) searchResponse.getAggregations().get("max")).getValue();
+        if (Double.isInfinite(min) || Double.isInfinite(max)) {
+            // no documents or no timestamps
+            return null;
+        }
+        return new DataStream.TimestampRange((long) Math.floor(min), (long) Math.ceil(max));
+    }
+
+    /**
+     * Records the smallest and largest timestamp of a backing index that just stopped being the write index of its data stream.
+     * This is called once the write block that rolling over put on the index has been published, so that the range can't change
+     * anymore. This is best effort: if it fails the backing index is simply never skipped by searches.
+     */
+    private void recordTimestampRange(String dataStreamName, Index index, String timestampField) {
+        client.admin().indices().prepareRefresh(index.getName()).execute(ActionListener.wrap(refreshResponse ->
+            client.prepareSearch(index.getName())
+                .setSize(0)
+                .setTrackTotalHits(false)
+                .addAggregation(AggregationBuilders.min("min").field(timestampField))
+                .addAggregation(AggregationBuilders.max("max").field(timestampField))
+                .execute(ActionListener.wrap(searchResponse -> {
+                    final DataStream.TimestampRange range = timestampRange(searchResponse);
+                    if (range == null) {
+                        logger.debug("not recording timestamp range of [{}], [{}] of [{}] shards succeeded", index,
+                            searchResponse.getSuccessfulShards(), searchResponse.getTotalShards());
+                        return;
+                    }
+                    clusterService.submitStateUpdateTask("record_data_stream_timestamp_range [" + index.getName() + "]",
+                        new ClusterStateUpdateTask() {
+                            @Override
+                            public ClusterState execute(ClusterState currentState) {
+                                return recordTimestampRange(currentState, dataStreamName, index, range);
+                            }
+
+                            @Override
+                            public void onFailure(String source, Exception e) {
+                                logger.warn(() -> new ParameterizedMessage("failed to record timestamp range of [{}]", index), e);
+                            }
+                        });
+                }, e -> logger.warn(() -> new ParameterizedMessage("failed to compute timestamp range of [{}]", index), e))),
+            e -> logger.warn(() -> new ParameterizedMessage("failed to refresh [{}] to compute its timestamp range", index), e)));
+    }
+
     static IndicesAliasesClusterStateUpdateRequest prepareRolloverAliasesUpdateRequest(String oldIndex, String newIndex,
                                                                                        RolloverRequest request) {
         final List<AliasAction> actions = List.of(
@@ -22,6 +22,7 @@ package org.elasticsearch.action.bulk;
 import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.DocWriteResponse;
 import org.elasticsearch.action.delete.DeleteResponse;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.support.replication.ReplicationResponse;
 import org.elasticsearch.action.support.replication.TransportWriteAction;
@@ -29,7 +30,10 @@ import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.translog.Translog;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * This is a utility class that holds the per request state needed to perform bulk operations on the primary.
@@ -75,6 +79,7 @@ class BulkPrimaryExecutionContext {
     private DocWriteRequest requestToExecute;
     private BulkItemResponse executionResult;
     private int retryCounter;
+    private boolean pendingIndexRequestsConsumed;
 
 
     BulkPrimaryExecutionContext(BulkShardRequest request, IndexShard primary) {
@@ -206,6 +211,26 @@ class BulkPrimaryExecutionContext {
         return (T) requestToExecute;
     }
 
+    /**
+     * returns the index requests that follow the current item and have not been executed yet, so that their dynamic mapping
+     * updates can be submitted to the master together with the one of the current item. The pending requests are only handed
+     * out once per shard request, later mapping updates are requested item by item.
+     */
+    public List<IndexRequest> consumePendingIndexRequests() {
+        if (pendingIndexRequestsConsumed) {
+            return Collections.emptyList();
+        }
+        pendingIndexRequestsConsumed = true;
+        final List<IndexRequest> pending = new ArrayList<>();
+        for (int i = findNextNonAborted(currentIndex + 1); i < request.items().length; i = findNextNonAborted(i + 1)) {
+            final DocWriteRequest<?> itemRequest = request.items()[i].request();
+            if (itemRequest.opType() == DocWriteRequest.OpType.INDEX || itemRequest.opType() == DocWriteRequest.OpType.CREATE) {
+                pending.add((IndexRequest) itemRequest);
+            }
+        }
+        return pending;
+    }
+
     /** indicates that the current operation can not be completed and needs to wait for a new mapping from the master */
     public void markAsRequiringMappingUpdate() {
         assert assertInvariants(ItemProcessingState.TRANSLATED);
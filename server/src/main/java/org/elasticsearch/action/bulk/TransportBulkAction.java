@@ -49,6 +49,7 @@ import org.elasticsearch.cluster.ClusterStateObserver;
 import org.elasticsearch.cluster.block.ClusterBlockException;
 import org.elasticsearch.cluster.block.ClusterBlockLevel;
 import org.elasticsearch.cluster.metadata.AliasOrIndex;
+import org.elasticsearch.cluster.metadata.DataStream;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.metadata.IndexTemplateMetaData;
@@ -288,6 +289,13 @@ public class TransportBulkAction extends HandledTransportAction<BulkRequest, Bul
                     indexMetaData = alias.getWriteIndex();
                 }
             }
+            // check the data stream for the index request, its write index receives the document
+            if (indexMetaData == null && indexRequest.index() != null) {
+                DataStream dataStream = metaData.dataStreams().get(indexRequest.index());
+                if (dataStream != null) {
+                    indexMetaData = metaData.index(dataStream.getWriteIndex());
+                }
+            }
             // check the alias for the action request (this is how upserts are modeled)
             if (indexMetaData == null && originalRequest.index() != null) {
                 AliasOrIndex indexOrAlias = metaData.getAliasAndIndexLookup().get(originalRequest.index());
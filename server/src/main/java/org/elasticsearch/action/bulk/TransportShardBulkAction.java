@@ -60,6 +60,7 @@ import org.elasticsearch.index.engine.VersionConflictEngineException;
 import org.elasticsearch.index.get.GetResult;
 import org.elasticsearch.index.mapper.MapperException;
 import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.Mapping;
 import org.elasticsearch.index.mapper.SourceToParse;
 import org.elasticsearch.index.seqno.SequenceNumbers;
 import org.elasticsearch.index.shard.IndexShard;
@@ -263,36 +264,50 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
                     request.ifSeqNo(), request.ifPrimaryTerm(), request.getAutoGeneratedTimestamp(), request.isRetry());
         }
         if (result.getResultType() == Engine.Result.Type.MAPPING_UPDATE_REQUIRED) {
-            mappingUpdater.updateMappings(result.getRequiredMappingUpdate(), primary.shardId(),
-                MapperService.SINGLE_MAPPING_NAME,
-                new ActionListener<>() {
-                    @Override
-                    public void onResponse(Void v) {
-                        context.markAsRequiringMappingUpdate();
-                        waitForMappingUpdate.accept(
-                            ActionListener.runAfter(new ActionListener<>() {
-                                @Override
-                                public void onResponse(Void v) {
-                                    assert context.requiresWaitingForMappingUpdate();
-                                    context.resetForExecutionForRetry();
-                                }
-
-                                @Override
-                                public void onFailure(Exception e) {
-                                    context.failOnMappingUpdate(e);
-                                }
-                            }, () -> itemDoneListener.onResponse(null))
-                        );
-                    }
+            final ActionListener<Void> mappingUpdateListener = new ActionListener<>() {
+                @Override
+                public void onResponse(Void v) {
+                    context.markAsRequiringMappingUpdate();
+                    waitForMappingUpdate.accept(
+                        ActionListener.runAfter(new ActionListener<>() {
+                            @Override
+                            public void onResponse(Void v) {
+                                assert context.requiresWaitingForMappingUpdate();
+                                context.resetForExecutionForRetry();
+                            }
+
+                            @Override
+                            public void onFailure(Exception e) {
+                                context.failOnMappingUpdate(e);
+                            }
+                        }, () -> itemDoneListener.onResponse(null))
+                    );
+                }
 
-                    @Override
-                    public void onFailure(Exception e) {
-                        onComplete(exceptionToResult(e, primary, isDelete, version), context, updateResult);
-                        // Requesting mapping update failed, so we don't have to wait for a cluster state update
-                        assert context.isInitial();
-                        itemDoneListener.onResponse(null);
-                    }
-                });
+                @Override
+                public void onFailure(Exception e) {
+                    onComplete(exceptionToResult(e, primary, isDelete, version), context, updateResult);
+                    // Requesting mapping update failed, so we don't have to wait for a cluster state update
+                    assert context.isInitial();
+                    itemDoneListener.onResponse(null);
+                }
+            };
+            final Mapping requiredUpdate = result.getRequiredMappingUpdate();
+            final Mapping update = coalesceMappingUpdates(context, requiredUpdate);
+            if (update == requiredUpdate) {
+                mappingUpdater.updateMappings(requiredUpdate, primary.shardId(), MapperService.SINGLE_MAPPING_NAME,
+                    mappingUpdateListener);
+            } else {
+                mappingUpdater.updateMappings(update, primary.shardId(), MapperService.SINGLE_MAPPING_NAME,
+                    ActionListener.wrap(mappingUpdateListener::onResponse, e -> {
+                        // the combined update may be rejected (e.g. because of the total fields limit) even though the
+                        // update of the current item alone is fine, so retry with the latter before failing the item
+                        logger.debug(() -> new ParameterizedMessage("{} combined dynamic mapping update failed, " +
+                            "falling back to the mapping update of the current item", primary.shardId()), e);
+                        mappingUpdater.updateMappings(requiredUpdate, primary.shardId(), MapperService.SINGLE_MAPPING_NAME,
+                            mappingUpdateListener);
+                    }));
+            }
             return false;
         } else {
             onComplete(result, context, updateResult);
@@ -300,6 +315,30 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
         return true;
     }
 
+    /**
+     * Parses the index requests that are still pending in the bulk shard request and merges their dynamic mapping updates
+     * into the given one, so that the master is asked for a single mapping update instead of one round trip per item that
+     * introduces new fields. Requests that fail to parse or whose update conflicts with the merged one are left out, they
+     * are dealt with when they get executed.
+     */
+    static Mapping coalesceMappingUpdates(BulkPrimaryExecutionContext context, Mapping update) {
+        final IndexShard primary = context.getPrimary();
+        Mapping merged = update;
+        for (IndexRequest request : context.consumePendingIndexRequests()) {
+            try {
+                final Mapping itemUpdate = primary.parseDynamicMappingsUpdate(new SourceToParse(
+                    request.index(), request.id(), request.source(), request.getContentType(), request.routing()));
+                if (itemUpdate != null) {
+                    merged = merged.merge(itemUpdate);
+                }
+            } catch (Exception e) {
+                logger.trace(() -> new ParameterizedMessage("{} not including dynamic mapping update of [{}] in combined update",
+                    primary.shardId(), request.id()), e);
+            }
+        }
+        return merged;
+    }
+
     private static Engine.Result exceptionToResult(Exception e, IndexShard primary, boolean isDelete, long version) {
         return isDelete ? primary.getFailedDeleteResult(e, version) : primary.getFailedIndexResult(e, version);
     }
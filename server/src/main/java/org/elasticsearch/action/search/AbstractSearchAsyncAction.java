@@ -32,6 +32,8 @@ import org.elasticsearch.action.support.TransportActions;
 import org.elasticsearch.cluster.routing.GroupShardsIterator;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
 import org.elasticsearch.search.SearchPhaseResult;
@@ -49,6 +51,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
@@ -68,6 +71,7 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
     private final SearchTransportService searchTransportService;
     private final Executor executor;
     private final ActionListener<SearchResponse> listener;
+    private final List<Releasable> releasables = new CopyOnWriteArrayList<>();
     private final SearchRequest request;
     /**
      * Used by subclasses to resolve node ids to DiscoveryNodes.
@@ -129,7 +133,7 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         this.executor = executor;
         this.request = request;
         this.task = task;
-        this.listener = listener;
+        this.listener = ActionListener.runAfter(listener, this::releaseContext);
         this.nodeIdToConnection = nodeIdToConnection;
         this.clusterStateVersion = clusterStateVersion;
         this.concreteIndexBoosts = concreteIndexBoosts;
@@ -137,6 +141,16 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         this.indexRoutings = indexRoutings;
         this.results = resultConsumer;
         this.clusters = clusters;
+        addReleasable(resultConsumer);
+    }
+
+    @Override
+    public void addReleasable(Releasable releasable) {
+        releasables.add(releasable);
+    }
+
+    private void releaseContext() {
+        Releasables.close(releasables);
     }
 
     /**
@@ -381,6 +395,7 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
                     logger.trace(new ParameterizedMessage("{}: Failed to execute [{}]", shard, request), e);
                 }
             }
+            onShardGroupFailure(shardIndex, e);
             onPhaseDone();
         } else {
             final ShardRouting nextShard = shardIt.nextOrNull();
@@ -392,6 +407,7 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
             if (!lastShard) {
                 performPhaseOnShard(shardIndex, shardIt, nextShard);
             } else {
+                onShardGroupFailure(shardIndex, e);
                 // no more shards active, add a failure
                 if (logger.isDebugEnabled() && !logger.isTraceEnabled()) { // do not double log this exception
                     if (e != null && !TransportActions.isShardNotAvailableException(e)) {
@@ -404,6 +420,28 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         }
     }
 
+    /**
+     * Notifies the provided {@link SearchProgressListener} of the shards that are targeted by the search, including the ones
+     * that were skipped because they cannot match the query.
+     */
+    static void notifyListShards(SearchProgressListener progressListener, GroupShardsIterator<SearchShardIterator> shardsIts) {
+        int numSkipped = 0;
+        for (SearchShardIterator shardIt : shardsIts) {
+            if (shardIt.skip()) {
+                numSkipped++;
+            }
+        }
+        progressListener.notifyListShards(shardsIts.size(), numSkipped);
+    }
+
+    /**
+     * Executed once for every shard group whose copies have all failed, after the last failure has been recorded.
+     * @param shardIndex the internal index for this shard. Each shard has an index / ordinal assigned that is used to reference
+     *                   it's results
+     * @param exc the final failure reason
+     */
+    protected void onShardGroupFailure(int shardIndex, Exception exc) {}
+
     /**
      * Executed once for every failed shard level request. This method is invoked before the next replica is tried for the given
      * shard target.
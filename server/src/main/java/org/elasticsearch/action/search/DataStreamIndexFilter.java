@@ -0,0 +1,179 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.cluster.metadata.DataStream;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.MappingMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.time.DateFormatter;
+import org.elasticsearch.common.time.DateMathParser;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.mapper.DateFieldMapper;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.ConstantScoreQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.search.SearchService;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Removes the backing indices of data streams that can't contain documents matching the time range of a search request.
+ * A backing index can only be skipped once the range of its timestamps has been recorded in its {@link DataStream}, which
+ * allows to skip it on the coordinating node before any shard is contacted. Indices that don't have a write block anymore
+ * are never skipped since documents outside of their recorded range may have been indexed into them.
+ */
+final class DataStreamIndexFilter {
+
+    private DataStreamIndexFilter() {}
+
+    static Index[] filterIndices(Index[] indices, SearchRequest searchRequest, MetaData metaData, long nowInMillis) {
+        if (metaData.dataStreams().isEmpty() || SearchService.canRewriteToMatchNone(searchRequest.source()) == false) {
+            return indices;
+        }
+        final QueryBuilder query = searchRequest.source().query();
+        final Map<String, long[]> boundsPerDataStream = new HashMap<>();
+        final List<Index> filtered = new ArrayList<>(indices.length);
+        for (Index index : indices) {
+            DataStream dataStream = metaData.dataStreamForBackingIndex(index);
+            if (dataStream == null || dataStream.getTimestampRanges().containsKey(index.getName()) == false
+                    || IndexMetaData.INDEX_BLOCKS_WRITE_SETTING.get(metaData.getIndexSafe(index).getSettings()) == false) {
+                filtered.add(index);
+                continue;
+            }
+            final long[] bounds;
+            if (boundsPerDataStream.containsKey(dataStream.getName())) {
+                bounds = boundsPerDataStream.get(dataStream.getName());
+            } else {
+                DateMathParser parser = timestampParser(metaData.index(dataStream.getWriteIndex()), dataStream.getTimestampField());
+                bounds = timestampBounds(query, dataStream.getTimestampField(), parser, nowInMillis);
+                boundsPerDataStream.put(dataStream.getName(), bounds);
+            }
+            if (bounds == null || dataStream.mayContainTimestamps(index, bounds[0], bounds[1])) {
+                filtered.add(index);
+            }
+        }
+        return filtered.size() == indices.length ? indices : filtered.toArray(Index.EMPTY_ARRAY);
+    }
+
+    /**
+     * Extracts the range of values, in milliseconds since the epoch and both inclusive, that documents matching the query must
+     * have in the timestamp field. Returns {@code null} if this range can't be determined.
+     */
+    @Nullable
+    static long[] timestampBounds(QueryBuilder query, String timestampField, @Nullable DateMathParser mappingParser, long now) {
+        if (query instanceof RangeQueryBuilder) {
+            RangeQueryBuilder range = (RangeQueryBuilder) query;
+            if (range.fieldName().equals(timestampField) == false) {
+                return null;
+            }
+            DateMathParser parser = Strings.hasText(range.format())
+                ? DateFormatter.forPattern(range.format()).toDateMathParser()
+                : mappingParser;
+            if (parser == null) {
+                return null;
+            }
+            ZoneId zone = range.timeZone() == null ? ZoneOffset.UTC : ZoneId.of(range.timeZone());
+            try {
+                long from = Long.MIN_VALUE;
+                long to = Long.MAX_VALUE;
+                if (range.from() != null) {
+                    // same rounding as the date field: gt rounds up, gte rounds down
+                    from = parser.parse(range.from().toString(), () -> now, range.includeLower() == false, zone).toEpochMilli();
+                    if (range.includeLower() == false) {
+                        from = from == Long.MAX_VALUE ? from : from + 1;
+                    }
+                }
+                if (range.to() != null) {
+                    // same rounding as the date field: lte rounds up, lt rounds down
+                    to = parser.parse(range.to().toString(), () -> now, range.includeUpper(), zone).toEpochMilli();
+                    if (range.includeUpper() == false) {
+                        to = to == Long.MIN_VALUE ? to : to - 1;
+                    }
+                }
+                return new long[] {from, to};
+            } catch (RuntimeException e) {
+                // let the shards report the problem with the query
+                return null;
+            }
+        } else if (query instanceof ConstantScoreQueryBuilder) {
+            return timestampBounds(((ConstantScoreQueryBuilder) query).innerQuery(), timestampField, mappingParser, now);
+        } else if (query instanceof BoolQueryBuilder) {
+            // must and filter clauses are all required, so every one of them narrows the range
+            BoolQueryBuilder bool = (BoolQueryBuilder) query;
+            long[] bounds = null;
+            for (List<QueryBuilder> clauses : List.of(bool.must(), bool.filter())) {
+                for (QueryBuilder clause : clauses) {
+                    long[] clauseBounds = timestampBounds(clause, timestampField, mappingParser, now);
+                    if (clauseBounds != null) {
+                        bounds = bounds == null ? clauseBounds
+                            : new long[] {Math.max(bounds[0], clauseBounds[0]), Math.min(bounds[1], clauseBounds[1])};
+                    }
+                }
+            }
+            return bounds;
+        }
+        return null;
+    }
+
+    /**
+     * Builds the parser that the timestamp field uses for range queries without an explicit format, or {@code null} if
+     * the timestamp field isn't a date field in the mapping of the index.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static DateMathParser timestampParser(IndexMetaData indexMetaData, String timestampField) {
+        MappingMetaData mapping = indexMetaData.mapping();
+        if (mapping == null) {
+            return null;
+        }
+        Map<String, Object> properties = mapping.sourceAsMap();
+        Object fieldMapping = null;
+        for (String part : timestampField.split("\\.")) {
+            Object children = properties.get("properties");
+            if (children instanceof Map == false) {
+                return null;
+            }
+            fieldMapping = ((Map<String, Object>) children).get(part);
+            if (fieldMapping instanceof Map == false) {
+                return null;
+            }
+            properties = (Map<String, Object>) fieldMapping;
+        }
+        Object type = properties.get("type");
+        if (DateFieldMapper.Resolution.MILLISECONDS.type().equals(type) == false
+                && DateFieldMapper.Resolution.NANOSECONDS.type().equals(type) == false) {
+            return null;
+        }
+        Object format = properties.get("format");
+        DateFormatter formatter = format == null
+            ? DateFieldMapper.DEFAULT_DATE_TIME_FORMATTER
+            : DateFormatter.forPattern(format.toString());
+        return formatter.toDateMathParser();
+    }
+}
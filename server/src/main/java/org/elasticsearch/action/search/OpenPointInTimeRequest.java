@@ -0,0 +1,143 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.action.IndicesRequest;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import static org.elasticsearch.action.ValidateActions.addValidationError;
+
+/**
+ * A request to open a point in time over a set of indices. The reader of every shard copy that is searched is kept open until the
+ * point in time is closed or its keep alive expires, and subsequent search requests referencing the returned id all see the same view.
+ */
+public final class OpenPointInTimeRequest extends ActionRequest implements IndicesRequest.Replaceable {
+
+    public static final IndicesOptions DEFAULT_INDICES_OPTIONS = SearchRequest.DEFAULT_INDICES_OPTIONS;
+
+    private String[] indices;
+    private IndicesOptions indicesOptions = DEFAULT_INDICES_OPTIONS;
+    private TimeValue keepAlive;
+    @Nullable
+    private String routing;
+    @Nullable
+    private String preference;
+
+    public OpenPointInTimeRequest(String... indices) {
+        this.indices = Objects.requireNonNull(indices, "[index] is not specified");
+    }
+
+    public OpenPointInTimeRequest(StreamInput in) throws IOException {
+        super(in);
+        this.indices = in.readStringArray();
+        this.indicesOptions = IndicesOptions.readIndicesOptions(in);
+        this.keepAlive = in.readTimeValue();
+        this.routing = in.readOptionalString();
+        this.preference = in.readOptionalString();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeStringArray(indices);
+        indicesOptions.writeIndicesOptions(out);
+        out.writeTimeValue(keepAlive);
+        out.writeOptionalString(routing);
+        out.writeOptionalString(preference);
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (indices == null || indices.length == 0) {
+            validationException = addValidationError("[index] is not specified", validationException);
+        }
+        if (keepAlive == null) {
+            validationException = addValidationError("[keep_alive] is not specified", validationException);
+        }
+        return validationException;
+    }
+
+    @Override
+    public String[] indices() {
+        return indices;
+    }
+
+    @Override
+    public OpenPointInTimeRequest indices(String... indices) {
+        this.indices = Objects.requireNonNull(indices, "[index] is not specified");
+        return this;
+    }
+
+    @Override
+    public IndicesOptions indicesOptions() {
+        return indicesOptions;
+    }
+
+    public OpenPointInTimeRequest indicesOptions(IndicesOptions indicesOptions) {
+        this.indicesOptions = Objects.requireNonNull(indicesOptions, "[indices_options] parameter must be non null");
+        return this;
+    }
+
+    public TimeValue keepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Sets how long the point in time is kept alive after it was opened or last used.
+     */
+    public OpenPointInTimeRequest keepAlive(TimeValue keepAlive) {
+        this.keepAlive = Objects.requireNonNull(keepAlive, "[keep_alive] parameter must be non null");
+        return this;
+    }
+
+    public String routing() {
+        return routing;
+    }
+
+    public OpenPointInTimeRequest routing(String routing) {
+        this.routing = routing;
+        return this;
+    }
+
+    public String preference() {
+        return preference;
+    }
+
+    public OpenPointInTimeRequest preference(String preference) {
+        this.preference = preference;
+        return this;
+    }
+
+    @Override
+    public String getDescription() {
+        return "indices[" + Strings.arrayToCommaDelimitedString(indices) + "], keep_alive[" + keepAlive + "]";
+    }
+}
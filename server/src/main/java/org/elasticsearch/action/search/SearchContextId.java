@@ -0,0 +1,159 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.internal.AliasFilter;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The id of a point in time: for every shard that participates in the point in time, the node that holds its reader context and the
+ * id of that reader context on the node, together with the aliases that were resolved for each index when the point in time was opened.
+ * It is encoded into a compact URL-safe string that is handed to the client and passed back on every search.
+ */
+public final class SearchContextId {
+    private final Map<ShardId, SearchContextIdForNode> shards;
+    private final Map<String, String[]> aliasesByIndexUUID;
+
+    SearchContextId(Map<ShardId, SearchContextIdForNode> shards, Map<String, String[]> aliasesByIndexUUID) {
+        this.shards = Collections.unmodifiableMap(shards);
+        this.aliasesByIndexUUID = Collections.unmodifiableMap(aliasesByIndexUUID);
+    }
+
+    public Map<ShardId, SearchContextIdForNode> shards() {
+        return shards;
+    }
+
+    /**
+     * Returns the aliases through which the given index was targeted when the point in time was opened, or an empty array if the index
+     * was targeted directly.
+     */
+    public String[] aliases(String indexUUID) {
+        final String[] aliases = aliasesByIndexUUID.get(indexUUID);
+        return aliases == null ? new String[0] : aliases;
+    }
+
+    /**
+     * Returns the indices and aliases that the point in time was opened on: the aliases of each index that was targeted through
+     * aliases, and the name of every other index.
+     */
+    public String[] getActualIndices() {
+        final Set<String> indices = new LinkedHashSet<>();
+        for (ShardId shardId : shards.keySet()) {
+            final String[] aliases = aliases(shardId.getIndex().getUUID());
+            if (aliases.length == 0) {
+                indices.add(shardId.getIndexName());
+            } else {
+                Collections.addAll(indices, aliases);
+            }
+        }
+        return indices.toArray(new String[0]);
+    }
+
+    public static String encode(Map<ShardId, SearchContextIdForNode> shards, Map<String, AliasFilter> aliasFilters) {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.setVersion(Version.CURRENT);
+            Version.writeVersion(Version.CURRENT, out);
+            out.writeMap(shards, (o, k) -> k.writeTo(o), (o, v) -> v.writeTo(o));
+            out.writeVInt(aliasFilters.size());
+            for (Map.Entry<String, AliasFilter> entry : aliasFilters.entrySet()) {
+                out.writeString(entry.getKey());
+                out.writeStringArray(entry.getValue().getAliases());
+            }
+            return Base64.getUrlEncoder().encodeToString(BytesReference.toBytes(out.bytes()));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    public static SearchContextId decode(String id) {
+        final byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid id: [" + id + "]", e);
+        }
+        try (StreamInput in = StreamInput.wrap(bytes)) {
+            final Version version = Version.readVersion(in);
+            in.setVersion(version);
+            final Map<ShardId, SearchContextIdForNode> shards = in.readMap(ShardId::new, SearchContextIdForNode::new);
+            final int numIndices = in.readVInt();
+            final Map<String, String[]> aliases = new HashMap<>(numIndices);
+            for (int i = 0; i < numIndices; i++) {
+                aliases.put(in.readString(), in.readStringArray());
+            }
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Not all bytes were read");
+            }
+            return new SearchContextId(shards, aliases);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("invalid id: [" + id + "]", e);
+        }
+    }
+
+    /**
+     * The node holding the reader context of a shard, and the id of that reader context on the node.
+     */
+    public static final class SearchContextIdForNode implements Writeable {
+        private final String node;
+        private final long readerId;
+
+        public SearchContextIdForNode(String node, long readerId) {
+            this.node = node;
+            this.readerId = readerId;
+        }
+
+        SearchContextIdForNode(StreamInput in) throws IOException {
+            this.node = in.readString();
+            this.readerId = in.readLong();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(node);
+            out.writeLong(readerId);
+        }
+
+        public String getNode() {
+            return node;
+        }
+
+        public long getReaderId() {
+            return readerId;
+        }
+
+        @Override
+        public String toString() {
+            return "SearchContextIdForNode{node='" + node + "', readerId=" + readerId + '}';
+        }
+    }
+}
@@ -35,6 +35,7 @@ import java.util.function.BiFunction;
 final class SearchDfsQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<DfsSearchResult> {
 
     private final SearchPhaseController searchPhaseController;
+    private final SearchProgressListener progressListener;
 
     SearchDfsQueryThenFetchAsyncAction(final Logger logger, final SearchTransportService searchTransportService,
             final BiFunction<String, String, Transport.Connection> nodeIdToConnection, final Map<String, AliasFilter> aliasFilter,
@@ -48,6 +49,8 @@ final class SearchDfsQueryThenFetchAsyncAction extends AbstractSearchAsyncAction
                 shardsIts, timeProvider, clusterStateVersion, task, new ArraySearchPhaseResults<>(shardsIts.size()),
                 request.getMaxConcurrentShardRequests(), clusters);
         this.searchPhaseController = searchPhaseController;
+        this.progressListener = task.getProgressListener();
+        notifyListShards(progressListener, shardsIts);
     }
 
     @Override
@@ -57,6 +60,11 @@ final class SearchDfsQueryThenFetchAsyncAction extends AbstractSearchAsyncAction
             buildShardSearchRequest(shardIt) , getTask(), listener);
     }
 
+    @Override
+    protected void onShardGroupFailure(int shardIndex, Exception exc) {
+        progressListener.notifyQueryFailure(shardIndex, exc);
+    }
+
     @Override
     protected SearchPhase getNextPhase(final SearchPhaseResults<DfsSearchResult> results, final SearchPhaseContext context) {
         return new DfsQueryPhase(results.getAtomicArray(), searchPhaseController, (queryResults) ->
@@ -33,8 +33,13 @@ import org.apache.lucene.search.TopFieldDocs;
 import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.search.TotalHits.Relation;
 import org.apache.lucene.search.grouping.CollapseTopFieldDocs;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.collect.HppcMaps;
+import org.elasticsearch.common.io.stream.CountingStreamOutput;
 import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
@@ -55,6 +60,8 @@ import org.elasticsearch.search.suggest.Suggest;
 import org.elasticsearch.search.suggest.Suggest.Suggestion;
 import org.elasticsearch.search.suggest.completion.CompletionSuggestion;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -561,9 +568,17 @@ public final class SearchPhaseController {
      * A {@link ArraySearchPhaseResults} implementation
      * that incrementally reduces aggregation results as shard results are consumed.
      * This implementation can be configured to batch up a certain amount of results and only reduce them
-     * iff the buffer is exhausted.
+     * iff the buffer is exhausted. The estimated size of the buffered aggregations is accounted on the request
+     * circuit breaker, if the breaker trips the buffered aggregations are reduced eagerly to free up memory and
+     * the search is failed if that doesn't help.
      */
     static final class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhaseResult> {
+        /**
+         * Aggregations take more memory on the heap than on the wire, the estimated heap usage
+         * of buffered aggregations is their serialized size multiplied by this factor.
+         */
+        static final double AGGS_HEAP_TO_SERIALIZED_RATIO = 1.5;
+
         private final InternalAggregations[] aggsBuffer;
         private final TopDocs[] topDocsBuffer;
         private final boolean hasAggs;
@@ -574,6 +589,13 @@ public final class SearchPhaseController {
         private int numReducePhases = 0;
         private final TopDocsStats topDocsStats;
         private final boolean performFinalReduce;
+        private final SearchProgressListener progressListener;
+        private int numConsumed;
+        @Nullable
+        private final CircuitBreaker breaker;
+        private long aggsBufferBytes;
+        private CircuitBreakingException aggsFailure;
+        private boolean closed;
 
         /**
          * Creates a new {@link QueryPhaseResultConsumer}
@@ -582,8 +604,9 @@ public final class SearchPhaseController {
          * @param bufferSize the size of the reduce buffer. if the buffer size is smaller than the number of expected results
          *                   the buffer is used to incrementally reduce aggregation results before all shards responded.
          */
-        private QueryPhaseResultConsumer(SearchPhaseController controller, int expectedResultSize, int bufferSize,
-                                         boolean hasTopDocs, boolean hasAggs, int trackTotalHitsUpTo, boolean performFinalReduce) {
+        private QueryPhaseResultConsumer(SearchProgressListener progressListener, SearchPhaseController controller,
+                                         int expectedResultSize, int bufferSize, boolean hasTopDocs, boolean hasAggs,
+                                         int trackTotalHitsUpTo, boolean performFinalReduce) {
             super(expectedResultSize);
             if (expectedResultSize != 1 && bufferSize < 2) {
                 throw new IllegalArgumentException("buffer size must be >= 2 if there is more than one expected result");
@@ -603,6 +626,10 @@ public final class SearchPhaseController {
             this.bufferSize = bufferSize;
             this.topDocsStats = new TopDocsStats(trackTotalHitsUpTo);
             this.performFinalReduce = performFinalReduce;
+            this.progressListener = progressListener;
+            CircuitBreakerService breakerService = hasAggs ?
+                controller.reduceContextFunction.apply(false).bigArrays().breakerService() : null;
+            this.breaker = breakerService == null ? null : breakerService.getBreaker(CircuitBreaker.REQUEST);
         }
 
         @Override
@@ -610,29 +637,23 @@ public final class SearchPhaseController {
             super.consumeResult(result);
             QuerySearchResult queryResult = result.queryResult();
             consumeInternal(queryResult);
+            progressListener.notifyQueryResult(queryResult.getShardIndex());
         }
 
         private synchronized void consumeInternal(QuerySearchResult querySearchResult) {
+            // we have to merge here in the same way we collect on a shard
+            final int topNSize = querySearchResult.from() + querySearchResult.size();
             if (index == bufferSize) {
-                if (hasAggs) {
-                    ReduceContext reduceContext = controller.reduceContextFunction.apply(false);
-                    InternalAggregations reducedAggs = InternalAggregations.reduce(Arrays.asList(aggsBuffer), reduceContext);
-                    Arrays.fill(aggsBuffer, null);
-                    aggsBuffer[0] = reducedAggs;
-                }
-                if (hasTopDocs) {
-                    TopDocs reducedTopDocs = mergeTopDocs(Arrays.asList(topDocsBuffer),
-                        // we have to merge here in the same way we collect on a shard
-                        querySearchResult.from() + querySearchResult.size(), 0);
-                    Arrays.fill(topDocsBuffer, null);
-                    topDocsBuffer[0] = reducedTopDocs;
-                }
-                numReducePhases++;
-                index = 1;
+                partialReduce(topNSize);
+            }
+            InternalAggregations aggs = null;
+            if (hasAggs) {
+                final long serializedSize = querySearchResult.aggsSerializedSize();
+                aggs = accountAggs((InternalAggregations) querySearchResult.consumeAggs(), serializedSize, topNSize);
             }
             final int i = index++;
             if (hasAggs) {
-                aggsBuffer[i] = (InternalAggregations) querySearchResult.consumeAggs();
+                aggsBuffer[i] = aggs;
             }
             if (hasTopDocs) {
                 final TopDocsAndMaxScore topDocs = querySearchResult.consumeTopDocs(); // can't be null
@@ -640,6 +661,125 @@ public final class SearchPhaseController {
                 setShardIndex(topDocs.topDocs, querySearchResult.getShardIndex());
                 topDocsBuffer[i] = topDocs.topDocs;
             }
+            numConsumed++;
+        }
+
+        private void partialReduce(int topNSize) {
+            InternalAggregations reducedAggs = null;
+            if (hasAggs && aggsFailure == null && closed == false) {
+                ReduceContext reduceContext = controller.reduceContextFunction.apply(false);
+                reducedAggs = InternalAggregations.reduce(Arrays.asList(aggsBuffer).subList(0, index), reduceContext);
+                Arrays.fill(aggsBuffer, null);
+                aggsBuffer[0] = reducedAggs;
+                if (breaker != null) {
+                    // the buffered aggregations are now replaced by the reduced one, which is only serialized
+                    // once per batch of buffered results to estimate its size
+                    final long reducedBytes = estimateRamBytesUsed(serializedSize(reducedAggs));
+                    final long delta = reducedBytes - aggsBufferBytes;
+                    if (delta > 0) {
+                        try {
+                            breaker.addEstimateBytesAndMaybeBreak(delta, "<reduce_aggs>");
+                            aggsBufferBytes = reducedBytes;
+                        } catch (CircuitBreakingException e) {
+                            failAggs(e);
+                            reducedAggs = null;
+                        }
+                    } else {
+                        breaker.addWithoutBreaking(delta);
+                        aggsBufferBytes = reducedBytes;
+                    }
+                }
+            }
+            if (hasTopDocs) {
+                TopDocs reducedTopDocs = mergeTopDocs(Arrays.asList(topDocsBuffer).subList(0, index), topNSize, 0);
+                Arrays.fill(topDocsBuffer, null);
+                topDocsBuffer[0] = reducedTopDocs;
+            }
+            numReducePhases++;
+            index = 1;
+            progressListener.notifyPartialReduce(numConsumed, topDocsStats.getTotalHits(), reducedAggs, numReducePhases);
+        }
+
+        /**
+         * Accounts the estimated size of the provided shard aggregations on the circuit breaker. If the breaker trips,
+         * the buffered aggregations are partially reduced before trying again. Returns <code>null</code> if the aggregations
+         * could not be accounted, the failure is then rethrown by {@link #reduce()}.
+         *
+         * @param serializedSize the number of bytes the aggregations took on the wire, or -1 if the shard result is local
+         */
+        private InternalAggregations accountAggs(InternalAggregations aggs, long serializedSize, int topNSize) {
+            if (aggsFailure != null || closed) {
+                return null;
+            }
+            if (breaker == null || aggs == null) {
+                return aggs;
+            }
+            // local results are not serialized so their size must be computed
+            final long bytes = estimateRamBytesUsed(serializedSize >= 0 ? serializedSize : serializedSize(aggs));
+            try {
+                breaker.addEstimateBytesAndMaybeBreak(bytes, "<reduce_aggs>");
+            } catch (CircuitBreakingException e) {
+                if (index < 2) {
+                    failAggs(e);
+                    return null;
+                }
+                partialReduce(topNSize);
+                try {
+                    breaker.addEstimateBytesAndMaybeBreak(bytes, "<reduce_aggs>");
+                } catch (CircuitBreakingException exc) {
+                    failAggs(exc);
+                    return null;
+                }
+            }
+            aggsBufferBytes += bytes;
+            return aggs;
+        }
+
+        private void failAggs(CircuitBreakingException e) {
+            aggsFailure = e;
+            Arrays.fill(aggsBuffer, null);
+            releaseAggsBytes();
+        }
+
+        private void releaseAggsBytes() {
+            if (breaker != null && aggsBufferBytes > 0) {
+                breaker.addWithoutBreaking(-aggsBufferBytes);
+            }
+            aggsBufferBytes = 0;
+        }
+
+        private static long estimateRamBytesUsed(long serializedSize) {
+            return (long) Math.ceil(serializedSize * AGGS_HEAP_TO_SERIALIZED_RATIO);
+        }
+
+        private static long serializedSize(InternalAggregations aggs) {
+            if (aggs == null) {
+                return 0;
+            }
+            try (CountingStreamOutput out = new CountingStreamOutput()) {
+                aggs.writeTo(out);
+                return out.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private synchronized CircuitBreakingException getAggsFailure() {
+            return aggsFailure;
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            Arrays.fill(aggsBuffer, null);
+            releaseAggsBytes();
+        }
+
+        /**
+         * Returns the number of bytes of buffered aggregations that are accounted on the circuit breaker
+         */
+        synchronized long getAggsBufferBytes() {
+            return aggsBufferBytes;
         }
 
         private synchronized List<InternalAggregations> getRemainingAggs() {
@@ -652,8 +792,15 @@ public final class SearchPhaseController {
 
         @Override
         public ReducedQueryPhase reduce() {
-            return controller.reducedQueryPhase(results.asList(), getRemainingAggs(), getRemainingTopDocs(), topDocsStats,
-                numReducePhases, false, performFinalReduce);
+            CircuitBreakingException failure = getAggsFailure();
+            if (failure != null) {
+                throw failure;
+            }
+            ReducedQueryPhase reducePhase = controller.reducedQueryPhase(results.asList(), getRemainingAggs(), getRemainingTopDocs(),
+                topDocsStats, numReducePhases, false, performFinalReduce);
+            progressListener.notifyReduce(results.asList().size(), reducePhase.totalHits, reducePhase.aggregations,
+                reducePhase.numReducePhases);
+            return reducePhase;
         }
 
         /**
@@ -679,6 +826,15 @@ public final class SearchPhaseController {
      * Returns a new ArraySearchPhaseResults instance. This might return an instance that reduces search responses incrementally.
      */
     ArraySearchPhaseResults<SearchPhaseResult> newSearchPhaseResults(SearchRequest request, int numShards) {
+        return newSearchPhaseResults(SearchProgressListener.NOOP, request, numShards);
+    }
+
+    /**
+     * Returns a new ArraySearchPhaseResults instance that notifies the provided {@link SearchProgressListener} of the progress of
+     * the query phase. This might return an instance that reduces search responses incrementally.
+     */
+    ArraySearchPhaseResults<SearchPhaseResult> newSearchPhaseResults(SearchProgressListener listener, SearchRequest request,
+                                                                     int numShards) {
         SearchSourceBuilder source = request.source();
         boolean isScrollRequest = request.scroll() != null;
         final boolean hasAggs = source != null && source.aggregations() != null;
@@ -688,14 +844,24 @@ public final class SearchPhaseController {
             // no incremental reduce if scroll is used - we only hit a single shard or sometimes more...
             if (request.getBatchedReduceSize() < numShards) {
                 // only use this if there are aggs and if there are more shards than we should reduce at once
-                return new QueryPhaseResultConsumer(this, numShards, request.getBatchedReduceSize(), hasTopDocs, hasAggs,
+                return new QueryPhaseResultConsumer(listener, this, numShards, request.getBatchedReduceSize(), hasTopDocs, hasAggs,
                     trackTotalHitsUpTo, request.isFinalReduce());
             }
         }
         return new ArraySearchPhaseResults<SearchPhaseResult>(numShards) {
+            @Override
+            void consumeResult(SearchPhaseResult result) {
+                super.consumeResult(result);
+                listener.notifyQueryResult(result.getShardIndex());
+            }
+
             @Override
             ReducedQueryPhase reduce() {
-                return reducedQueryPhase(results.asList(), isScrollRequest, trackTotalHitsUpTo, request.isFinalReduce());
+                ReducedQueryPhase reducePhase = reducedQueryPhase(results.asList(), isScrollRequest, trackTotalHitsUpTo,
+                    request.isFinalReduce());
+                listener.notifyReduce(results.asList().size(), reducePhase.totalHits, reducePhase.aggregations,
+                    reducePhase.numReducePhases);
+                return reducePhase;
             }
         };
     }
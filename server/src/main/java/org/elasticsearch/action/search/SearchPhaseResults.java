@@ -19,6 +19,7 @@
 
 package org.elasticsearch.action.search;
 
+import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
 import org.elasticsearch.search.SearchPhaseResult;
 
@@ -27,7 +28,7 @@ import java.util.stream.Stream;
 /**
  * This class acts as a basic result collection that can be extended to do on-the-fly reduction or result processing
  */
-abstract class SearchPhaseResults<Result extends SearchPhaseResult> {
+abstract class SearchPhaseResults<Result extends SearchPhaseResult> implements Releasable {
     private final int numShards;
 
     SearchPhaseResults(int numShards) {
@@ -68,4 +69,10 @@ abstract class SearchPhaseResults<Result extends SearchPhaseResult> {
     SearchPhaseController.ReducedQueryPhase reduce() {
         throw new UnsupportedOperationException("reduce is not supported");
     }
+
+    /**
+     * Releases the resources that are held by the collected results, called once the search completed either way
+     */
+    @Override
+    public void close() {}
 }
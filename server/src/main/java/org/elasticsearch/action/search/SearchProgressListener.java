@@ -0,0 +1,123 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+
+/**
+ * A listener that allows to track progress of the {@link SearchAction}. Implementations are set on the {@link SearchTask} that
+ * executes the search and are notified on the coordinating node as shard results are consumed and reduced.
+ *
+ * Note that the aggregations that are passed to {@link #onPartialReduce} are non-final and shared with the ongoing search, they must
+ * not be modified by the listener.
+ */
+public abstract class SearchProgressListener {
+    private static final Logger logger = LogManager.getLogger(SearchProgressListener.class);
+
+    public static final SearchProgressListener NOOP = new SearchProgressListener() {};
+
+    /**
+     * Executed when shards are ready to be queried.
+     *
+     * @param totalShards The total number of shards that are targeted by the search.
+     * @param skippedShards The number of shards that were skipped because they cannot match the query.
+     */
+    protected void onListShards(int totalShards, int skippedShards) {}
+
+    /**
+     * Executed when a shard returns a query result.
+     *
+     * @param shardIndex The index of the shard in the list of shards targeted by the search.
+     */
+    protected void onQueryResult(int shardIndex) {}
+
+    /**
+     * Executed when a shard reports a query failure and no other copy of the shard can be tried.
+     *
+     * @param shardIndex The index of the shard in the list of shards targeted by the search.
+     * @param exc The cause of the failure.
+     */
+    protected void onQueryFailure(int shardIndex, Exception exc) {}
+
+    /**
+     * Executed when a partial reduce is created. The number of partial reduce can be controlled via
+     * {@link SearchRequest#setBatchedReduceSize(int)}.
+     *
+     * @param numReducedShards The number of shards that have been reduced so far.
+     * @param totalHits The partial total hits.
+     * @param aggs The partial result for aggregations, not finalized.
+     * @param reducePhase The version number for this reduce.
+     */
+    protected void onPartialReduce(int numReducedShards, TotalHits totalHits, InternalAggregations aggs, int reducePhase) {}
+
+    /**
+     * Executed once when the final reduce is created.
+     *
+     * @param numReducedShards The number of shards that have been reduced.
+     * @param totalHits The final total hits.
+     * @param aggs The final result for aggregations.
+     * @param reducePhase The number of reduce phases that were applied.
+     */
+    protected void onReduce(int numReducedShards, TotalHits totalHits, InternalAggregations aggs, int reducePhase) {}
+
+    final void notifyListShards(int totalShards, int skippedShards) {
+        try {
+            onListShards(totalShards, skippedShards);
+        } catch (Exception e) {
+            logger.warn("Failed to execute progress listener on list shards", e);
+        }
+    }
+
+    final void notifyQueryResult(int shardIndex) {
+        try {
+            onQueryResult(shardIndex);
+        } catch (Exception e) {
+            logger.warn(() -> new ParameterizedMessage("Failed to execute progress listener on query result [{}]", shardIndex), e);
+        }
+    }
+
+    final void notifyQueryFailure(int shardIndex, Exception exc) {
+        try {
+            onQueryFailure(shardIndex, exc);
+        } catch (Exception e) {
+            logger.warn(() -> new ParameterizedMessage("Failed to execute progress listener on query failure [{}]", shardIndex), e);
+        }
+    }
+
+    final void notifyPartialReduce(int numReducedShards, TotalHits totalHits, InternalAggregations aggs, int reducePhase) {
+        try {
+            onPartialReduce(numReducedShards, totalHits, aggs, reducePhase);
+        } catch (Exception e) {
+            logger.warn(() -> new ParameterizedMessage("Failed to execute progress listener on partial reduce [{}]", reducePhase), e);
+        }
+    }
+
+    final void notifyReduce(int numReducedShards, TotalHits totalHits, InternalAggregations aggs, int reducePhase) {
+        try {
+            onReduce(numReducedShards, totalHits, aggs, reducePhase);
+        } catch (Exception e) {
+            logger.warn("Failed to execute progress listener on reduce", e);
+        }
+    }
+}
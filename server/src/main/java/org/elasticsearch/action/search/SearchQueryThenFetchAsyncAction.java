@@ -35,6 +35,7 @@ import java.util.function.BiFunction;
 final class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<SearchPhaseResult> {
 
     private final SearchPhaseController searchPhaseController;
+    private final SearchProgressListener progressListener;
 
     SearchQueryThenFetchAsyncAction(final Logger logger, final SearchTransportService searchTransportService,
             final BiFunction<String, String, Transport.Connection> nodeIdToConnection, final Map<String, AliasFilter> aliasFilter,
@@ -45,8 +46,11 @@ final class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<Se
             long clusterStateVersion, SearchTask task, SearchResponse.Clusters clusters) {
         super("query", logger, searchTransportService, nodeIdToConnection, aliasFilter, concreteIndexBoosts, indexRoutings,
                 executor, request, listener, shardsIts, timeProvider, clusterStateVersion, task,
-                searchPhaseController.newSearchPhaseResults(request, shardsIts.size()), request.getMaxConcurrentShardRequests(), clusters);
+                searchPhaseController.newSearchPhaseResults(task.getProgressListener(), request, shardsIts.size()),
+                request.getMaxConcurrentShardRequests(), clusters);
         this.searchPhaseController = searchPhaseController;
+        this.progressListener = task.getProgressListener();
+        notifyListShards(progressListener, shardsIts);
     }
 
     protected void executePhaseOnShard(final SearchShardIterator shardIt, final ShardRouting shard,
@@ -55,6 +59,11 @@ final class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<Se
             buildShardSearchRequest(shardIt), getTask(), listener);
     }
 
+    @Override
+    protected void onShardGroupFailure(int shardIndex, Exception exc) {
+        progressListener.notifyQueryFailure(shardIndex, exc);
+    }
+
     @Override
     protected SearchPhase getNextPhase(final SearchPhaseResults<SearchPhaseResult> results, final SearchPhaseContext context) {
         return new FetchSearchPhase(results, searchPhaseController, context);
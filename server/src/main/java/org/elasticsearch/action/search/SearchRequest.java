@@ -270,6 +270,14 @@ public final class SearchRequest extends ActionRequest implements IndicesRequest
                     addValidationError("[request_cache] cannot be used in a scroll context", validationException);
             }
         }
+        if (source != null && source.pointInTimeBuilder() != null) {
+            if (scroll) {
+                validationException = addValidationError("using [point in time] is not allowed in a scroll context", validationException);
+            }
+            if (indices.length > 0) {
+                validationException = addValidationError("[indices] cannot be used with point in time", validationException);
+            }
+        }
         return validationException;
     }
 
@@ -427,10 +435,14 @@ public final class SearchRequest extends ActionRequest implements IndicesRequest
     }
 
     /**
-     * The indices
+     * The indices. When searching a point in time, these are the indices and aliases that the point in time was opened on, so that
+     * the search is authorized against the data it will actually read.
      */
     @Override
     public String[] indices() {
+        if (source != null && source.pointInTimeBuilder() != null) {
+            return source.pointInTimeBuilder().getActualIndices();
+        }
         return indices;
     }
 
@@ -28,11 +28,26 @@ import java.util.Map;
  * Task storing information about a currently running search request.
  */
 public class SearchTask extends CancellableTask {
+    private SearchProgressListener progressListener = SearchProgressListener.NOOP;
 
     public SearchTask(long id, String type, String action, String description, TaskId parentTaskId, Map<String, String> headers) {
         super(id, type, action, description, parentTaskId, headers);
     }
 
+    /**
+     * Attach a {@link SearchProgressListener} to this task.
+     */
+    public final void setProgressListener(SearchProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Return the {@link SearchProgressListener} attached to this task.
+     */
+    public final SearchProgressListener getProgressListener() {
+        return progressListener;
+    }
+
     @Override
     public boolean shouldCancelChildrenOnCancellation() {
         return true;
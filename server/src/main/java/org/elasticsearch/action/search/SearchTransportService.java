@@ -30,7 +30,9 @@ import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.SearchPhaseResult;
 import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.dfs.DfsSearchResult;
@@ -39,11 +41,13 @@ import org.elasticsearch.search.fetch.QueryFetchSearchResult;
 import org.elasticsearch.search.fetch.ScrollQueryFetchSearchResult;
 import org.elasticsearch.search.fetch.ShardFetchRequest;
 import org.elasticsearch.search.fetch.ShardFetchSearchRequest;
+import org.elasticsearch.search.internal.AliasFilter;
 import org.elasticsearch.search.internal.InternalScrollSearchRequest;
 import org.elasticsearch.search.internal.ShardSearchRequest;
 import org.elasticsearch.search.query.QuerySearchRequest;
 import org.elasticsearch.search.query.QuerySearchResult;
 import org.elasticsearch.search.query.ScrollQuerySearchResult;
+import org.elasticsearch.tasks.Task;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.RemoteClusterService;
 import org.elasticsearch.transport.Transport;
@@ -77,6 +81,8 @@ public class SearchTransportService {
     public static final String FETCH_ID_SCROLL_ACTION_NAME = "indices:data/read/search[phase/fetch/id/scroll]";
     public static final String FETCH_ID_ACTION_NAME = "indices:data/read/search[phase/fetch/id]";
     public static final String QUERY_CAN_MATCH_NAME = "indices:data/read/search[can_match]";
+    public static final String OPEN_READER_CONTEXT_ACTION_NAME = "indices:data/read/search[open_reader_context]";
+    public static final String FREE_READER_CONTEXT_ACTION_NAME = "indices:data/read/search[free_reader_context]";
 
     private final TransportService transportService;
     private final BiFunction<Transport.Connection, SearchActionListener, ActionListener> responseWrapper;
@@ -108,6 +114,18 @@ public class SearchTransportService {
             TransportRequestOptions.EMPTY, new ActionListenerResponseHandler<>(listener, SearchFreeContextResponse::new));
     }
 
+    public void sendOpenReaderContext(Transport.Connection connection, OpenReaderContextRequest request, Task task,
+                                      ActionListener<OpenReaderContextResponse> listener) {
+        transportService.sendChildRequest(connection, OPEN_READER_CONTEXT_ACTION_NAME, request, task,
+            TransportRequestOptions.EMPTY, new ActionListenerResponseHandler<>(listener, OpenReaderContextResponse::new));
+    }
+
+    public void sendFreeReaderContext(Transport.Connection connection, long readerId,
+                                      ActionListener<SearchFreeContextResponse> listener) {
+        transportService.sendRequest(connection, FREE_READER_CONTEXT_ACTION_NAME, new ScrollFreeContextRequest(readerId),
+            TransportRequestOptions.EMPTY, new ActionListenerResponseHandler<>(listener, SearchFreeContextResponse::new));
+    }
+
     public void sendCanMatch(Transport.Connection connection, final ShardSearchRequest request, SearchTask task, final
                             ActionListener<SearchService.CanMatchResponse> listener) {
         transportService.sendChildRequest(connection, QUERY_CAN_MATCH_NAME, request, task,
@@ -261,6 +279,81 @@ public class SearchTransportService {
 
         }
 
+    static class OpenReaderContextRequest extends TransportRequest implements IndicesRequest {
+        private final ShardId shardId;
+        private final OriginalIndices originalIndices;
+        private final AliasFilter aliasFilter;
+        private final TimeValue keepAlive;
+
+        OpenReaderContextRequest(ShardId shardId, OriginalIndices originalIndices, AliasFilter aliasFilter, TimeValue keepAlive) {
+            this.shardId = shardId;
+            this.originalIndices = originalIndices;
+            this.aliasFilter = aliasFilter;
+            this.keepAlive = keepAlive;
+        }
+
+        OpenReaderContextRequest(StreamInput in) throws IOException {
+            super(in);
+            shardId = new ShardId(in);
+            originalIndices = OriginalIndices.readOriginalIndices(in);
+            aliasFilter = new AliasFilter(in);
+            keepAlive = in.readTimeValue();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            super.writeTo(out);
+            shardId.writeTo(out);
+            OriginalIndices.writeOriginalIndices(originalIndices, out);
+            aliasFilter.writeTo(out);
+            out.writeTimeValue(keepAlive);
+        }
+
+        public ShardId shardId() {
+            return shardId;
+        }
+
+        public AliasFilter aliasFilter() {
+            return aliasFilter;
+        }
+
+        public TimeValue keepAlive() {
+            return keepAlive;
+        }
+
+        @Override
+        public String[] indices() {
+            return originalIndices.indices();
+        }
+
+        @Override
+        public IndicesOptions indicesOptions() {
+            return originalIndices.indicesOptions();
+        }
+    }
+
+    static class OpenReaderContextResponse extends TransportResponse {
+        private final long readerId;
+
+        OpenReaderContextResponse(long readerId) {
+            this.readerId = readerId;
+        }
+
+        OpenReaderContextResponse(StreamInput in) throws IOException {
+            super(in);
+            readerId = in.readLong();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeLong(readerId);
+        }
+
+        public long readerId() {
+            return readerId;
+        }
+    }
+
     public static class SearchFreeContextResponse extends TransportResponse {
 
         private boolean freed;
@@ -296,6 +389,17 @@ public class SearchTransportService {
                 channel.sendResponse(new SearchFreeContextResponse(freed));
         });
         TransportActionProxy.registerProxyAction(transportService, FREE_CONTEXT_ACTION_NAME, SearchFreeContextResponse::new);
+        transportService.registerRequestHandler(OPEN_READER_CONTEXT_ACTION_NAME, ThreadPool.Names.SAME, OpenReaderContextRequest::new,
+            (request, channel, task) -> searchService.openReaderContext(request.shardId(), request.aliasFilter(), request.keepAlive(),
+                ActionListener.map(new ChannelActionListener<>(channel, OPEN_READER_CONTEXT_ACTION_NAME, request),
+                    OpenReaderContextResponse::new)));
+        TransportActionProxy.registerProxyAction(transportService, OPEN_READER_CONTEXT_ACTION_NAME, OpenReaderContextResponse::new);
+        transportService.registerRequestHandler(FREE_READER_CONTEXT_ACTION_NAME, ThreadPool.Names.SAME, ScrollFreeContextRequest::new,
+            (request, channel, task) -> {
+                boolean freed = searchService.freeReaderContext(request.id());
+                channel.sendResponse(new SearchFreeContextResponse(freed));
+        });
+        TransportActionProxy.registerProxyAction(transportService, FREE_READER_CONTEXT_ACTION_NAME, SearchFreeContextResponse::new);
         transportService.registerRequestHandler(CLEAR_SCROLL_CONTEXTS_ACTION_NAME, ThreadPool.Names.SAME,
             TransportRequest.Empty::new,
             (request, channel, task) -> {
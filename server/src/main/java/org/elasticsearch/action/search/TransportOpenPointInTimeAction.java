@@ -0,0 +1,202 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.NoShardAvailableActionException;
+import org.elasticsearch.action.OriginalIndices;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.HandledTransportAction;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.block.ClusterBlockLevel;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.routing.GroupShardsIterator;
+import org.elasticsearch.cluster.routing.ShardIterator;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.util.concurrent.AtomicArray;
+import org.elasticsearch.common.util.concurrent.CountDown;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.SearchService;
+import org.elasticsearch.search.internal.AliasFilter;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.transport.RemoteClusterAware;
+import org.elasticsearch.transport.Transport;
+import org.elasticsearch.transport.TransportService;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Opens a point in time by acquiring a reader context on one copy of every targeted shard. The node and reader id of each shard are
+ * encoded in the returned point in time id. If any shard fails to open a reader on all of its copies, the readers that were already
+ * opened are released and the request fails.
+ */
+public class TransportOpenPointInTimeAction extends HandledTransportAction<OpenPointInTimeRequest, OpenPointInTimeResponse> {
+
+    private final ClusterService clusterService;
+    private final SearchService searchService;
+    private final SearchTransportService searchTransportService;
+    private final IndexNameExpressionResolver indexNameExpressionResolver;
+
+    @Inject
+    public TransportOpenPointInTimeAction(TransportService transportService, ClusterService clusterService, ActionFilters actionFilters,
+                                          SearchService searchService, SearchTransportService searchTransportService,
+                                          IndexNameExpressionResolver indexNameExpressionResolver) {
+        super(OpenPointInTimeAction.NAME, transportService, actionFilters, OpenPointInTimeRequest::new);
+        this.clusterService = clusterService;
+        this.searchService = searchService;
+        this.searchTransportService = searchTransportService;
+        this.indexNameExpressionResolver = indexNameExpressionResolver;
+    }
+
+    @Override
+    protected void doExecute(Task task, OpenPointInTimeRequest request, ActionListener<OpenPointInTimeResponse> listener) {
+        final Map<String, OriginalIndices> groupedIndices = searchTransportService.getRemoteClusterService()
+            .groupIndices(request.indicesOptions(), request.indices());
+        final OriginalIndices localIndices = groupedIndices.remove(RemoteClusterAware.LOCAL_CLUSTER_GROUP_KEY);
+        if (groupedIndices.isEmpty() == false) {
+            throw new IllegalArgumentException("point in time is not supported on remote indices " + groupedIndices.keySet());
+        }
+        if (localIndices == null) {
+            throw new IllegalArgumentException("no indices specified to open a point in time on");
+        }
+
+        final ClusterState clusterState = clusterService.state();
+        clusterState.blocks().globalBlockedRaiseException(ClusterBlockLevel.READ);
+        final Index[] indices = indexNameExpressionResolver.concreteIndices(clusterState, request.indicesOptions(), request.indices());
+        final Set<String> indicesAndAliases = indexNameExpressionResolver.resolveExpressions(clusterState, request.indices());
+        final Map<String, AliasFilter> aliasFilters = new HashMap<>();
+        for (Index index : indices) {
+            clusterState.blocks().indexBlockedRaiseException(ClusterBlockLevel.READ, index.getName());
+            aliasFilters.put(index.getUUID(), searchService.buildAliasFilter(clusterState, index.getName(), indicesAndAliases));
+        }
+        final Map<String, Set<String>> routingMap = indexNameExpressionResolver.resolveSearchRouting(clusterState, request.routing(),
+            request.indices());
+        final String[] concreteIndices = Arrays.stream(indices).map(Index::getName).toArray(String[]::new);
+        final GroupShardsIterator<ShardIterator> shardIterators = clusterService.operationRouting().searchShards(clusterState,
+            concreteIndices, routingMap, request.preference(), searchService.getResponseCollectorService(),
+            searchTransportService.getPendingSearchRequests());
+
+        if (shardIterators.size() == 0) {
+            listener.onResponse(new OpenPointInTimeResponse(SearchContextId.encode(Map.of(), aliasFilters)));
+            return;
+        }
+
+        final AtomicArray<ShardReader> results = new AtomicArray<>(shardIterators.size());
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final CountDown countDown = new CountDown(shardIterators.size());
+        final Runnable onShardDone = () -> {
+            if (countDown.countDown()) {
+                if (failure.get() == null) {
+                    final Map<ShardId, SearchContextId.SearchContextIdForNode> shards = new HashMap<>();
+                    for (ShardReader result : results.asList()) {
+                        shards.put(result.shardId, new SearchContextId.SearchContextIdForNode(result.node.getId(), result.readerId));
+                    }
+                    listener.onResponse(new OpenPointInTimeResponse(SearchContextId.encode(shards, aliasFilters)));
+                } else {
+                    for (ShardReader result : results.asList()) {
+                        freeReaderContext(result);
+                    }
+                    listener.onFailure(failure.get());
+                }
+            }
+        };
+        int shardIndex = 0;
+        for (ShardIterator shardIterator : shardIterators) {
+            final AliasFilter aliasFilter = aliasFilters.get(shardIterator.shardId().getIndex().getUUID());
+            final String[] aliases = aliasFilter.getAliases();
+            final String[] finalIndices = aliases.length == 0 ? new String[] { shardIterator.shardId().getIndexName() } : aliases;
+            final OriginalIndices originalIndices = new OriginalIndices(finalIndices, request.indicesOptions());
+            openReaderContext(task, request, shardIterator, originalIndices, aliasFilter, shardIndex++, null, results, failure,
+                onShardDone);
+        }
+    }
+
+    private void openReaderContext(Task task, OpenPointInTimeRequest request, ShardIterator shardIterator,
+                                   OriginalIndices originalIndices, AliasFilter aliasFilter, int shardIndex, Exception lastFailure,
+                                   AtomicArray<ShardReader> results, AtomicReference<Exception> failure, Runnable onShardDone) {
+        final ShardRouting shardRouting = shardIterator.nextOrNull();
+        final DiscoveryNode node = shardRouting == null ? null : clusterService.state().nodes().get(shardRouting.currentNodeId());
+        if (node == null) {
+            if (shardRouting != null) {
+                // the node holding this copy has left the cluster in the meantime, try the next one
+                openReaderContext(task, request, shardIterator, originalIndices, aliasFilter, shardIndex, lastFailure,
+                    results, failure, onShardDone);
+                return;
+            }
+            final Exception e = lastFailure != null ? lastFailure
+                : new NoShardAvailableActionException(shardIterator.shardId(), "no shard copy available to open a point in time on");
+            if (failure.compareAndSet(null, e) == false) {
+                failure.get().addSuppressed(e);
+            }
+            onShardDone.run();
+            return;
+        }
+        final Transport.Connection connection = searchTransportService.getConnection(null, node);
+        final SearchTransportService.OpenReaderContextRequest shardRequest =
+            new SearchTransportService.OpenReaderContextRequest(shardIterator.shardId(), originalIndices, aliasFilter,
+                request.keepAlive());
+        searchTransportService.sendOpenReaderContext(connection, shardRequest, task, new ActionListener<>() {
+            @Override
+            public void onResponse(SearchTransportService.OpenReaderContextResponse response) {
+                results.set(shardIndex, new ShardReader(shardIterator.shardId(), node, response.readerId()));
+                onShardDone.run();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                logger.trace(() -> new ParameterizedMessage("{} failed to open reader context on [{}]", shardIterator.shardId(), node), e);
+                openReaderContext(task, request, shardIterator, originalIndices, aliasFilter, shardIndex, e,
+                    results, failure, onShardDone);
+            }
+        });
+    }
+
+    private void freeReaderContext(ShardReader result) {
+        final DiscoveryNode node = clusterService.state().nodes().get(result.node.getId());
+        if (node == null) {
+            // the reader context is released by the node when it is closed
+            return;
+        }
+        searchTransportService.sendFreeReaderContext(searchTransportService.getConnection(null, node), result.readerId,
+            ActionListener.wrap(r -> {}, e -> logger.debug(() -> new ParameterizedMessage("{} failed to free reader context [{}]",
+                result.shardId, result.readerId), e)));
+    }
+
+    private static final class ShardReader {
+        private final ShardId shardId;
+        private final DiscoveryNode node;
+        private final long readerId;
+
+        ShardReader(ShardId shardId, DiscoveryNode node, long readerId) {
+            this.shardId = shardId;
+            this.node = node;
+            this.readerId = readerId;
+        }
+    }
+}
@@ -35,6 +35,9 @@ import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.routing.GroupShardsIterator;
+import org.elasticsearch.cluster.routing.IndexRoutingTable;
+import org.elasticsearch.cluster.routing.IndexShardRoutingTable;
+import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.ShardIterator;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.Nullable;
@@ -205,6 +208,10 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                 searchRequest.source(source);
             }
             final ClusterState clusterState = clusterService.state();
+            if (source != null && source.pointInTimeBuilder() != null) {
+                executePointInTimeSearch((SearchTask) task, timeProvider, searchRequest, clusterState, listener);
+                return;
+            }
             final Map<String, OriginalIndices> remoteClusterIndices = remoteClusterService.groupIndices(searchRequest.indicesOptions(),
                 searchRequest.indices());
             OriginalIndices localIndices = remoteClusterIndices.remove(RemoteClusterAware.LOCAL_CLUSTER_GROUP_KEY);
@@ -468,7 +475,9 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
         // TODO: I think startTime() should become part of ActionRequest and that should be used both for index name
         // date math expressions and $now in scripts. This way all apis will deal with now in the same way instead
         // of just for the _search api
-        final Index[] indices = resolveLocalIndices(localIndices, searchRequest.indicesOptions(), clusterState, timeProvider);
+        final Index[] indices = DataStreamIndexFilter.filterIndices(
+            resolveLocalIndices(localIndices, searchRequest.indicesOptions(), clusterState, timeProvider),
+            searchRequest, clusterState.metaData(), timeProvider.getAbsoluteStartMillis());
         Map<String, AliasFilter> aliasFilter = buildPerIndexAliasFilter(searchRequest, clusterState, indices, remoteAliasMap);
         Map<String, Set<String>> routingMap = indexNameExpressionResolver.resolveSearchRouting(clusterState, searchRequest.routing(),
             searchRequest.indices());
@@ -534,6 +543,60 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
         }
     }
 
+    /**
+     * Executes a search against the reader contexts of a point in time. The shards to search and the nodes holding their readers are
+     * taken from the point in time id rather than resolved from the request indices, so that every search sees the same view of the
+     * data even if shards have been relocated or new indices have been created since the point in time was opened.
+     */
+    private void executePointInTimeSearch(SearchTask task, SearchTimeProvider timeProvider, SearchRequest searchRequest,
+                                          ClusterState clusterState, ActionListener<SearchResponse> listener) {
+        clusterState.blocks().globalBlockedRaiseException(ClusterBlockLevel.READ);
+        final SearchContextId searchContextId = SearchContextId.decode(searchRequest.source().pointInTimeBuilder().getId());
+        final Map<String, AliasFilter> aliasFilter = new HashMap<>();
+        final List<SearchShardIterator> shards = new ArrayList<>();
+        for (Map.Entry<ShardId, SearchContextId.SearchContextIdForNode> entry : searchContextId.shards().entrySet()) {
+            final ShardId shardId = entry.getKey();
+            final Index index = shardId.getIndex();
+            final IndexRoutingTable indexRoutingTable = clusterState.routingTable().index(index);
+            final List<ShardRouting> shardRoutings = new ArrayList<>(1);
+            if (indexRoutingTable != null) {
+                clusterState.blocks().indexBlockedRaiseException(ClusterBlockLevel.READ, index.getName());
+                final IndexShardRoutingTable shardRoutingTable = indexRoutingTable.shard(shardId.id());
+                if (shardRoutingTable != null) {
+                    // only the copy holding the reader context can serve the request; if it is gone the shard fails
+                    for (ShardRouting shardRouting : shardRoutingTable.assignedShards()) {
+                        if (entry.getValue().getNode().equals(shardRouting.currentNodeId())) {
+                            shardRoutings.add(shardRouting);
+                            break;
+                        }
+                    }
+                }
+            }
+            // the alias filters were bound to the reader contexts when the point in time was opened and are applied by the data
+            // nodes, the aliases encoded in the id are only used to name the indices of the shard requests
+            aliasFilter.putIfAbsent(index.getUUID(), AliasFilter.EMPTY);
+            final String[] aliases = searchContextId.aliases(index.getUUID());
+            final String[] finalIndices = aliases.length == 0 ? new String[] { index.getName() } : aliases;
+            final OriginalIndices originalIndices = new OriginalIndices(finalIndices, searchRequest.indicesOptions());
+            shards.add(new SearchShardIterator(null, shardId, shardRoutings, originalIndices));
+        }
+        final GroupShardsIterator<SearchShardIterator> shardIterators = new GroupShardsIterator<>(shards);
+        failIfOverShardCountLimit(clusterService, shardIterators.size());
+        if (shardIterators.size() == 1) {
+            searchRequest.searchType(QUERY_THEN_FETCH);
+        }
+        if (searchRequest.allowPartialSearchResults() == null) {
+            searchRequest.allowPartialSearchResults(searchService.defaultAllowPartialSearchResults());
+        }
+        final DiscoveryNodes nodes = clusterState.nodes();
+        BiFunction<String, String, Transport.Connection> connectionLookup = buildConnectionLookup(null, nodes::get,
+            (alias, id) -> null, searchTransportService::getConnection);
+        // the shards of a point in time are pinned, there is no point in running the can_match phase to skip them
+        searchAsyncAction(task, searchRequest, shardIterators, timeProvider, connectionLookup, clusterState.version(),
+            Collections.unmodifiableMap(aliasFilter), resolveIndexBoosts(searchRequest, clusterState), Collections.emptyMap(), listener,
+            false, SearchResponse.Clusters.EMPTY).start();
+    }
+
     static boolean shouldSplitIndices(SearchRequest searchRequest) {
         return searchRequest.scroll() == null && searchRequest.searchType() != DFS_QUERY_THEN_FETCH
             && (searchRequest.source() == null || searchRequest.source().size() != 0);
@@ -27,17 +27,23 @@ import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.cli.EnvironmentAwareCommand;
 import org.elasticsearch.cli.Terminal;
 import org.elasticsearch.cluster.ClusterModule;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.metadata.Manifest;
 import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.env.NodeEnvironment;
+import org.elasticsearch.env.NodeMetaData;
+import org.elasticsearch.gateway.PersistedClusterStateService;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Objects;
 
 public abstract class ElasticsearchNodeCommand extends EnvironmentAwareCommand {
@@ -78,7 +84,31 @@ public abstract class ElasticsearchNodeCommand extends EnvironmentAwareCommand {
         }
     }
 
+    /**
+     * Returns the {@link PersistedClusterStateService} of the node if it stores its metadata with it rather than in the legacy state
+     * files, or null otherwise.
+     */
+    @Nullable
+    protected PersistedClusterStateService persistedClusterStateService(Path[] dataPaths) throws IOException {
+        final NodeMetaData nodeMetaData = NodeMetaData.FORMAT.loadLatestState(logger, namedXContentRegistry, dataPaths);
+        if (nodeMetaData == null) {
+            return null;
+        }
+        final PersistedClusterStateService persistedClusterStateService
+            = new PersistedClusterStateService(dataPaths, nodeMetaData.nodeId(), namedXContentRegistry);
+        return persistedClusterStateService.hasOnDiskState() ? persistedClusterStateService : null;
+    }
+
     protected Tuple<Manifest, MetaData> loadMetaData(Terminal terminal, Path[] dataPaths) throws IOException {
+        final PersistedClusterStateService persistedClusterStateService = persistedClusterStateService(dataPaths);
+        if (persistedClusterStateService != null) {
+            terminal.println(Terminal.Verbosity.VERBOSE, "Loading persisted cluster state");
+            final PersistedClusterStateService.OnDiskState onDiskState = persistedClusterStateService.loadBestOnDiskState();
+            // the persisted cluster state has no generations, only the term and the version of this manifest are used
+            final Manifest manifest = new Manifest(onDiskState.currentTerm, onDiskState.lastAcceptedVersion, 0L, Collections.emptyMap());
+            return Tuple.tuple(manifest, onDiskState.metaData);
+        }
+
         terminal.println(Terminal.Verbosity.VERBOSE, "Loading manifest file");
         final Manifest manifest = Manifest.FORMAT.loadLatestState(logger, namedXContentRegistry, dataPaths);
 
@@ -136,12 +166,31 @@ public abstract class ElasticsearchNodeCommand extends EnvironmentAwareCommand {
 
     protected void writeNewMetaData(Terminal terminal, Manifest oldManifest, long newCurrentTerm,
                                     MetaData oldMetaData, MetaData newMetaData, Path[] dataPaths) {
+        terminal.println(Terminal.Verbosity.VERBOSE,
+                "[clusterUUID = " + oldMetaData.clusterUUID() + ", committed = " + oldMetaData.clusterUUIDCommitted() + "] => " +
+                     "[clusterUUID = " + newMetaData.clusterUUID() + ", committed = " + newMetaData.clusterUUIDCommitted() + "]");
+        terminal.println(Terminal.Verbosity.VERBOSE, "New coordination metadata is " + newMetaData.coordinationMetaData());
+
+        final PersistedClusterStateService persistedClusterStateService;
+        try {
+            persistedClusterStateService = persistedClusterStateService(dataPaths);
+        } catch (Exception e) {
+            throw new ElasticsearchException(WRITE_METADATA_EXCEPTION_MSG, e);
+        }
+        if (persistedClusterStateService != null) {
+            // a failed write leaves the previous commit of the metadata index untouched, so there is nothing to clean up
+            terminal.println(Terminal.Verbosity.VERBOSE, "Writing new metadata to the persisted cluster state");
+            try (PersistedClusterStateService.Writer writer = persistedClusterStateService.createWriter()) {
+                writer.writeFullStateAndCommit(newCurrentTerm, ClusterState.builder(ClusterName.DEFAULT)
+                    .version(oldManifest.getClusterStateVersion()).metaData(newMetaData).build());
+            } catch (Exception e) {
+                throw new ElasticsearchException(WRITE_METADATA_EXCEPTION_MSG, e);
+            }
+            return;
+        }
+
         long newGeneration;
         try {
-            terminal.println(Terminal.Verbosity.VERBOSE,
-                    "[clusterUUID = " + oldMetaData.clusterUUID() + ", committed = " + oldMetaData.clusterUUIDCommitted() + "] => " +
-                         "[clusterUUID = " + newMetaData.clusterUUID() + ", committed = " + newMetaData.clusterUUIDCommitted() + "]");
-            terminal.println(Terminal.Verbosity.VERBOSE, "New coordination metadata is " + newMetaData.coordinationMetaData());
             terminal.println(Terminal.Verbosity.VERBOSE, "Writing new global metadata to disk");
             newGeneration = MetaData.FORMAT.write(newMetaData, dataPaths);
             Manifest newManifest = new Manifest(newCurrentTerm, oldManifest.getClusterStateVersion(), newGeneration,
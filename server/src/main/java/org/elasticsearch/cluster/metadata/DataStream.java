@@ -0,0 +1,324 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.cluster.metadata;
+
+import org.elasticsearch.cluster.AbstractDiffable;
+import org.elasticsearch.cluster.Diff;
+import org.elasticsearch.common.ParseField;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.xcontent.ConstructingObjectParser;
+import org.elasticsearch.common.xcontent.ToXContentObject;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.index.Index;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A data stream is a named, append-only sequence of backing indices. Writes always go to the newest backing index, the
+ * write index, and searches target all of them. Once a backing index is no longer the write index the range of values
+ * its documents have in the stream's timestamp field can be recorded, which allows searches to skip backing indices
+ * that can't match the time range of a query.
+ */
+public final class DataStream extends AbstractDiffable<DataStream> implements ToXContentObject {
+
+    public static final String BACKING_INDEX_PREFIX = ".ds-";
+
+    private final String name;
+    private final String timestampField;
+    private final List<Index> indices;
+    private final long generation;
+    private final Map<String, TimestampRange> timestampRanges;
+
+    public DataStream(String name, String timestampField, List<Index> indices, long generation,
+                      Map<String, TimestampRange> timestampRanges) {
+        this.name = Objects.requireNonNull(name);
+        this.timestampField = Objects.requireNonNull(timestampField);
+        this.indices = Collections.unmodifiableList(indices);
+        this.generation = generation;
+        this.timestampRanges = Collections.unmodifiableMap(timestampRanges);
+        assert indices.size() > 0 : "a data stream needs at least one backing index";
+        assert timestampRanges.containsKey(getWriteIndex().getName()) == false : "the write index can't have a timestamp range";
+    }
+
+    public DataStream(String name, String timestampField, List<Index> indices) {
+        this(name, timestampField, indices, indices.size(), Collections.emptyMap());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTimestampField() {
+        return timestampField;
+    }
+
+    /**
+     * The backing indices of this data stream, oldest first.
+     */
+    public List<Index> getIndices() {
+        return indices;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * The index that receives all writes to this data stream.
+     */
+    public Index getWriteIndex() {
+        return indices.get(indices.size() - 1);
+    }
+
+    /**
+     * The recorded range of timestamps, keyed by backing index name. Backing indices without an entry may contain any timestamp.
+     */
+    public Map<String, TimestampRange> getTimestampRanges() {
+        return timestampRanges;
+    }
+
+    /**
+     * Returns {@code false} only if the specified backing index is known to contain no document with a timestamp
+     * between {@code from} and {@code to}, both inclusive and in milliseconds since the epoch.
+     */
+    public boolean mayContainTimestamps(Index index, long from, long to) {
+        TimestampRange range = timestampRanges.get(index.getName());
+        return range == null || range.intersects(from, to);
+    }
+
+    /**
+     * Performs a rollover on this data stream. The specified index becomes the new write index.
+     */
+    public DataStream rollover(Index newWriteIndex) {
+        assert newWriteIndex.getName().equals(getBackingIndexName(name, generation + 1));
+        List<Index> backingIndices = new ArrayList<>(indices);
+        backingIndices.add(newWriteIndex);
+        return new DataStream(name, timestampField, backingIndices, generation + 1, timestampRanges);
+    }
+
+    /**
+     * Records the range of timestamps of a backing index that is no longer the write index.
+     */
+    public DataStream withTimestampRange(Index index, TimestampRange range) {
+        if (indices.contains(index) == false) {
+            throw new IllegalArgumentException("index [" + index.getName() + "] is not a backing index of data stream [" + name + "]");
+        }
+        if (index.equals(getWriteIndex())) {
+            throw new IllegalArgumentException("index [" + index.getName() + "] is the write index of data stream [" + name
+                + "] and can still receive documents with any timestamp");
+        }
+        Map<String, TimestampRange> ranges = new HashMap<>(timestampRanges);
+        ranges.put(index.getName(), range);
+        return new DataStream(name, timestampField, indices, generation, ranges);
+    }
+
+    /**
+     * Removes the specified backing index from this data stream. The write index can't be removed.
+     */
+    public DataStream removeBackingIndex(Index index) {
+        if (index.equals(getWriteIndex())) {
+            throw new IllegalArgumentException("index [" + index.getName() + "] is the write index of data stream [" + name
+                + "] and cannot be deleted");
+        }
+        List<Index> backingIndices = new ArrayList<>(indices);
+        backingIndices.remove(index);
+        Map<String, TimestampRange> ranges = new HashMap<>(timestampRanges);
+        ranges.remove(index.getName());
+        return new DataStream(name, timestampField, backingIndices, generation, ranges);
+    }
+
+    /**
+     * The name of the backing index of the specified generation of a data stream.
+     */
+    public static String getBackingIndexName(String dataStreamName, long generation) {
+        return String.format(Locale.ROOT, BACKING_INDEX_PREFIX + "%s-%06d", dataStreamName, generation);
+    }
+
+    public DataStream(StreamInput in) throws IOException {
+        this(in.readString(), in.readString(), in.readList(Index::new), in.readVLong(),
+            in.readMap(StreamInput::readString, TimestampRange::new));
+    }
+
+    public static Diff<DataStream> readDiffFrom(StreamInput in) throws IOException {
+        return readDiffFrom(DataStream::new, in);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(name);
+        out.writeString(timestampField);
+        out.writeList(indices);
+        out.writeVLong(generation);
+        out.writeMap(timestampRanges, StreamOutput::writeString, (o, range) -> range.writeTo(o));
+    }
+
+    public static final ParseField NAME_FIELD = new ParseField("name");
+    public static final ParseField TIMESTAMP_FIELD_FIELD = new ParseField("timestamp_field");
+    public static final ParseField INDICES_FIELD = new ParseField("indices");
+    public static final ParseField GENERATION_FIELD = new ParseField("generation");
+    public static final ParseField TIMESTAMP_RANGES_FIELD = new ParseField("timestamp_ranges");
+
+    @SuppressWarnings("unchecked")
+    private static final ConstructingObjectParser<DataStream, Void> PARSER = new ConstructingObjectParser<>("data_stream",
+        args -> new DataStream((String) args[0], (String) args[1], (List<Index>) args[2], (Long) args[3],
+            args[4] == null ? Collections.emptyMap() : (Map<String, TimestampRange>) args[4]));
+
+    static {
+        PARSER.declareString(ConstructingObjectParser.constructorArg(), NAME_FIELD);
+        PARSER.declareString(ConstructingObjectParser.constructorArg(), TIMESTAMP_FIELD_FIELD);
+        PARSER.declareObjectArray(ConstructingObjectParser.constructorArg(), (p, c) -> Index.fromXContent(p), INDICES_FIELD);
+        PARSER.declareLong(ConstructingObjectParser.constructorArg(), GENERATION_FIELD);
+        PARSER.declareObject(ConstructingObjectParser.optionalConstructorArg(), (p, c) -> {
+            Map<String, TimestampRange> ranges = new HashMap<>();
+            while (p.nextToken() != XContentParser.Token.END_OBJECT) {
+                String index = p.currentName();
+                p.nextToken();
+                ranges.put(index, TimestampRange.fromXContent(p));
+            }
+            return ranges;
+        }, TIMESTAMP_RANGES_FIELD);
+    }
+
+    public static DataStream fromXContent(XContentParser parser) throws IOException {
+        return PARSER.parse(parser, null);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject();
+        builder.field(NAME_FIELD.getPreferredName(), name);
+        builder.field(TIMESTAMP_FIELD_FIELD.getPreferredName(), timestampField);
+        builder.field(INDICES_FIELD.getPreferredName(), indices);
+        builder.field(GENERATION_FIELD.getPreferredName(), generation);
+        builder.startObject(TIMESTAMP_RANGES_FIELD.getPreferredName());
+        for (Map.Entry<String, TimestampRange> entry : timestampRanges.entrySet()) {
+            builder.field(entry.getKey(), entry.getValue());
+        }
+        builder.endObject();
+        builder.endObject();
+        return builder;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DataStream that = (DataStream) o;
+        return name.equals(that.name) &&
+            timestampField.equals(that.timestampField) &&
+            indices.equals(that.indices) &&
+            generation == that.generation &&
+            timestampRanges.equals(that.timestampRanges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, timestampField, indices, generation, timestampRanges);
+    }
+
+    /**
+     * The smallest and the largest value, in milliseconds since the epoch, of the timestamp field in a backing index.
+     */
+    public static final class TimestampRange implements Writeable, ToXContentObject {
+        private static final ParseField MIN_FIELD = new ParseField("min");
+        private static final ParseField MAX_FIELD = new ParseField("max");
+
+        private static final ConstructingObjectParser<TimestampRange, Void> PARSER = new ConstructingObjectParser<>("timestamp_range",
+            args -> new TimestampRange((long) args[0], (long) args[1]));
+
+        static {
+            PARSER.declareLong(ConstructingObjectParser.constructorArg(), MIN_FIELD);
+            PARSER.declareLong(ConstructingObjectParser.constructorArg(), MAX_FIELD);
+        }
+
+        private final long min;
+        private final long max;
+
+        public TimestampRange(long min, long max) {
+            if (min > max) {
+                throw new IllegalArgumentException("min [" + min + "] must be less than or equal to max [" + max + "]");
+            }
+            this.min = min;
+            this.max = max;
+        }
+
+        public TimestampRange(StreamInput in) throws IOException {
+            this(in.readLong(), in.readLong());
+        }
+
+        public long getMin() {
+            return min;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        boolean intersects(long from, long to) {
+            return from <= max && to >= min;
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeLong(min);
+            out.writeLong(max);
+        }
+
+        static TimestampRange fromXContent(XContentParser parser) throws IOException {
+            return PARSER.parse(parser, null);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field(MIN_FIELD.getPreferredName(), min);
+            builder.field(MAX_FIELD.getPreferredName(), max);
+            builder.endObject();
+            return builder;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TimestampRange that = (TimestampRange) o;
+            return min == that.min && max == that.max;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(min, max);
+        }
+
+        @Override
+        public String toString() {
+            return "[" + min + " TO " + max + "]";
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.cluster.metadata;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.Diff;
+import org.elasticsearch.cluster.DiffableUtils;
+import org.elasticsearch.cluster.NamedDiff;
+import org.elasticsearch.common.ParseField;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.xcontent.ObjectParser;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the data streams that are available in the cluster
+ */
+public final class DataStreamMetadata implements MetaData.Custom {
+
+    public static final String TYPE = "data_stream";
+    private static final ParseField DATA_STREAMS_FIELD = new ParseField("data_streams");
+    private static final ObjectParser<List<DataStream>, Void> PARSER = new ObjectParser<>("data_stream_metadata", ArrayList::new);
+
+    static {
+        PARSER.declareObjectArray(List::addAll, (p, c) -> DataStream.fromXContent(p), DATA_STREAMS_FIELD);
+    }
+
+    private final Map<String, DataStream> dataStreams;
+
+    public DataStreamMetadata(Map<String, DataStream> dataStreams) {
+        this.dataStreams = Collections.unmodifiableMap(dataStreams);
+    }
+
+    public DataStreamMetadata(StreamInput in) throws IOException {
+        this(in.readMap(StreamInput::readString, DataStream::new));
+    }
+
+    public Map<String, DataStream> dataStreams() {
+        return dataStreams;
+    }
+
+    @Override
+    public String getWriteableName() {
+        return TYPE;
+    }
+
+    @Override
+    public Version getMinimalSupportedVersion() {
+        return Version.V_8_0_0;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeMap(dataStreams, StreamOutput::writeString, (o, dataStream) -> dataStream.writeTo(o));
+    }
+
+    public static DataStreamMetadata fromXContent(XContentParser parser) throws IOException {
+        Map<String, DataStream> dataStreams = new HashMap<>();
+        for (DataStream dataStream : PARSER.parse(parser, null)) {
+            dataStreams.put(dataStream.getName(), dataStream);
+        }
+        return new DataStreamMetadata(dataStreams);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startArray(DATA_STREAMS_FIELD.getPreferredName());
+        for (DataStream dataStream : dataStreams.values()) {
+            dataStream.toXContent(builder, params);
+        }
+        builder.endArray();
+        return builder;
+    }
+
+    @Override
+    public EnumSet<MetaData.XContentContext> context() {
+        return MetaData.ALL_CONTEXTS;
+    }
+
+    @Override
+    public Diff<MetaData.Custom> diff(MetaData.Custom before) {
+        return new DataStreamMetadataDiff((DataStreamMetadata) before, this);
+    }
+
+    public static NamedDiff<MetaData.Custom> readDiffFrom(StreamInput in) throws IOException {
+        return new DataStreamMetadataDiff(in);
+    }
+
+    static class DataStreamMetadataDiff implements NamedDiff<MetaData.Custom> {
+
+        final Diff<Map<String, DataStream>> dataStreamDiff;
+
+        DataStreamMetadataDiff(DataStreamMetadata before, DataStreamMetadata after) {
+            this.dataStreamDiff = DiffableUtils.diff(before.dataStreams, after.dataStreams, DiffableUtils.getStringKeySerializer());
+        }
+
+        DataStreamMetadataDiff(StreamInput in) throws IOException {
+            this.dataStreamDiff = DiffableUtils.readJdkMapDiff(in, DiffableUtils.getStringKeySerializer(), DataStream::new,
+                DataStream::readDiffFrom);
+        }
+
+        @Override
+        public MetaData.Custom apply(MetaData.Custom part) {
+            return new DataStreamMetadata(dataStreamDiff.apply(((DataStreamMetadata) part).dataStreams));
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            dataStreamDiff.writeTo(out);
+        }
+
+        @Override
+        public String getWriteableName() {
+            return TYPE;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return dataStreams.equals(((DataStreamMetadata) o).dataStreams);
+    }
+
+    @Override
+    public int hashCode() {
+        return dataStreams.hashCode();
+    }
+}
@@ -180,6 +180,33 @@ public class IndexNameExpressionResolver {
 
         final Set<Index> concreteIndices = new HashSet<>(expressions.size());
         for (String expression : expressions) {
+            DataStream dataStream = metaData.dataStreams().get(expression);
+            if (dataStream != null) {
+                if (context.isResolveToWriteIndex()) {
+                    IndexMetaData writeIndex = metaData.index(dataStream.getWriteIndex());
+                    if (addIndex(writeIndex, context)) {
+                        concreteIndices.add(writeIndex.getIndex());
+                    }
+                } else {
+                    if (dataStream.getIndices().size() > 1 && options.allowAliasesToMultipleIndices() == false) {
+                        throw new IllegalArgumentException("Data stream [" + expression + "] has more than one backing index " +
+                            dataStream.getIndices() + ", can't execute a single index op");
+                    }
+                    for (Index index : dataStream.getIndices()) {
+                        IndexMetaData indexMetaData = metaData.index(index);
+                        if (indexMetaData.getState() == IndexMetaData.State.CLOSE) {
+                            if (failClosed) {
+                                throw new IndexClosedException(index);
+                            } else if (options.forbidClosedIndices() == false && addIndex(indexMetaData, context)) {
+                                concreteIndices.add(index);
+                            }
+                        } else if (addIndex(indexMetaData, context)) {
+                            concreteIndices.add(index);
+                        }
+                    }
+                }
+                continue;
+            }
             AliasOrIndex aliasOrIndex = metaData.getAliasAndIndexLookup().get(expression);
             if (aliasOrIndex == null ) {
                 if (failNoIndices) {
@@ -306,12 +333,14 @@ public class IndexNameExpressionResolver {
     }
 
     /**
-     * @return whether the specified alias or index exists. If the alias or index contains datemath then that is resolved too.
+     * @return whether the specified alias, index or data stream exists. If the alias or index contains datemath then that is
+     * resolved too.
      */
     public boolean hasIndexOrAlias(String aliasOrIndex, ClusterState state) {
         Context context = new Context(state, IndicesOptions.lenientExpandOpen());
         String resolvedAliasOrIndex = dateMathExpressionResolver.resolveExpression(aliasOrIndex, context);
-        return state.metaData().getAliasAndIndexLookup().containsKey(resolvedAliasOrIndex);
+        return state.metaData().getAliasAndIndexLookup().containsKey(resolvedAliasOrIndex)
+            || state.metaData().dataStreams().containsKey(resolvedAliasOrIndex);
     }
 
     /**
@@ -723,12 +752,13 @@ public class IndexNameExpressionResolver {
                 final IndexMetaData.State excludeState = excludeState(options);
                 final Map<String, AliasOrIndex> matches = matches(context, metaData, expression);
                 Set<String> expand = expand(context, excludeState, matches);
+                boolean dataStreamMatched = expandDataStreams(metaData, excludeState, expression, expand);
                 if (add) {
                     result.addAll(expand);
                 } else {
                     result.removeAll(expand);
                 }
-                if (options.allowNoIndices() == false && matches.isEmpty()) {
+                if (options.allowNoIndices() == false && matches.isEmpty() && dataStreamMatched == false) {
                     throw indexNotFoundException(expression);
                 }
                 if (Regex.isSimpleMatchPattern(expression)) {
@@ -751,7 +781,8 @@ public class IndexNameExpressionResolver {
         private static boolean aliasOrIndexExists(IndicesOptions options, MetaData metaData, String expression) {
             AliasOrIndex aliasOrIndex = metaData.getAliasAndIndexLookup().get(expression);
             //treat aliases as unavailable indices when ignoreAliases is set to true (e.g. delete index and update aliases api)
-            return aliasOrIndex != null && (options.ignoreAliases() == false || aliasOrIndex.isAlias() == false);
+            return (aliasOrIndex != null && (options.ignoreAliases() == false || aliasOrIndex.isAlias() == false))
+                || metaData.dataStreams().containsKey(expression);
         }
 
         private static IndexNotFoundException indexNotFoundException(String expression) {
@@ -834,6 +865,26 @@ public class IndexNameExpressionResolver {
             return expand;
         }
 
+        /**
+         * Adds the backing indices of all data streams matching the expression to {@code expand}.
+         * @return whether any data stream matched
+         */
+        private static boolean expandDataStreams(MetaData metaData, IndexMetaData.State excludeState, String expression,
+                                                 Set<String> expand) {
+            boolean matched = false;
+            for (DataStream dataStream : metaData.dataStreams().values()) {
+                if (Regex.simpleMatch(expression, dataStream.getName())) {
+                    matched = true;
+                    for (Index index : dataStream.getIndices()) {
+                        if (excludeState == null || metaData.index(index).getState() != excludeState) {
+                            expand.add(index.getName());
+                        }
+                    }
+                }
+            }
+            return matched;
+        }
+
         private boolean isEmptyOrTrivialWildcard(List<String> expressions) {
             return expressions.isEmpty() || (expressions.size() == 1 && (MetaData.ALL.equals(expressions.get(0)) ||
                 Regex.isMatchAllPattern(expressions.get(0))));
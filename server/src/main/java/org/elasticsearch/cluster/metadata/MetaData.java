@@ -667,6 +667,27 @@ public class MetaData implements Iterable<IndexMetaData>, Diffable<MetaData>, To
         return custom(IndexGraveyard.TYPE);
     }
 
+    /**
+     * The data streams in the cluster, keyed by name.
+     */
+    public Map<String, DataStream> dataStreams() {
+        DataStreamMetadata dataStreamMetadata = custom(DataStreamMetadata.TYPE);
+        return dataStreamMetadata == null ? Collections.emptyMap() : dataStreamMetadata.dataStreams();
+    }
+
+    /**
+     * Returns the data stream that the specified index is a backing index of, or {@code null} if it isn't part of a data stream.
+     */
+    @Nullable
+    public DataStream dataStreamForBackingIndex(Index index) {
+        for (DataStream dataStream : dataStreams().values()) {
+            if (dataStream.getIndices().contains(index)) {
+                return dataStream;
+            }
+        }
+        return null;
+    }
+
     public <T extends Custom> T custom(String type) {
         return (T) customs.get(type);
     }
@@ -1072,6 +1093,23 @@ public class MetaData implements Iterable<IndexMetaData>, Diffable<MetaData>, To
             return graveyard;
         }
 
+        public Map<String, DataStream> dataStreams() {
+            DataStreamMetadata dataStreamMetadata = (DataStreamMetadata) getCustom(DataStreamMetadata.TYPE);
+            return dataStreamMetadata == null ? Collections.emptyMap() : dataStreamMetadata.dataStreams();
+        }
+
+        public Builder put(DataStream dataStream) {
+            Map<String, DataStream> dataStreams = new HashMap<>(dataStreams());
+            dataStreams.put(dataStream.getName(), dataStream);
+            return putCustom(DataStreamMetadata.TYPE, new DataStreamMetadata(dataStreams));
+        }
+
+        public Builder removeDataStream(String name) {
+            Map<String, DataStream> dataStreams = new HashMap<>(dataStreams());
+            dataStreams.remove(name);
+            return putCustom(DataStreamMetadata.TYPE, new DataStreamMetadata(dataStreams));
+        }
+
         public Builder updateSettings(Settings settings, String... indices) {
             if (indices == null || indices.length == 0) {
                 indices = this.indices.keys().toArray(String.class);
@@ -1204,6 +1242,7 @@ public class MetaData implements Iterable<IndexMetaData>, Diffable<MetaData>, To
             }
 
             SortedMap<String, AliasOrIndex> aliasAndIndexLookup = Collections.unmodifiableSortedMap(buildAliasAndIndexLookup());
+            validateDataStreams(aliasAndIndexLookup);
 
 
             // build all concrete indices arrays:
@@ -1219,6 +1258,23 @@ public class MetaData implements Iterable<IndexMetaData>, Diffable<MetaData>, To
                     allClosedIndicesArray, aliasAndIndexLookup);
         }
 
+        private void validateDataStreams(SortedMap<String, AliasOrIndex> aliasAndIndexLookup) {
+            for (DataStream dataStream : dataStreams().values()) {
+                AliasOrIndex conflict = aliasAndIndexLookup.get(dataStream.getName());
+                if (conflict != null) {
+                    throw new IllegalStateException("data stream [" + dataStream.getName() + "] conflicts with existing "
+                        + (conflict.isAlias() ? "alias" : "index"));
+                }
+                for (Index index : dataStream.getIndices()) {
+                    IndexMetaData indexMetaData = indices.get(index.getName());
+                    if (indexMetaData == null || indexMetaData.getIndex().equals(index) == false) {
+                        throw new IllegalStateException("backing index [" + index.getName() + "] of data stream [" + dataStream.getName()
+                            + "] does not exist");
+                    }
+                }
+            }
+        }
+
         private SortedMap<String, AliasOrIndex> buildAliasAndIndexLookup() {
             SortedMap<String, AliasOrIndex> aliasAndIndexLookup = new TreeMap<>();
             for (ObjectCursor<IndexMetaData> cursor : indices.values()) {
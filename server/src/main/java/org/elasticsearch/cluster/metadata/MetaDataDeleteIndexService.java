@@ -112,6 +112,12 @@ public class MetaDataDeleteIndexService {
             routingTableBuilder.remove(indexName);
             clusterBlocksBuilder.removeIndexBlocks(indexName);
             metaDataBuilder.remove(indexName);
+            DataStream dataStream = meta.dataStreamForBackingIndex(index);
+            if (dataStream != null) {
+                // the write index can't be removed, delete the whole data stream instead
+                DataStream current = metaDataBuilder.dataStreams().get(dataStream.getName());
+                metaDataBuilder.put(current.removeBackingIndex(index));
+            }
         }
         // add tombstones to the cluster state for each deleted index
         final IndexGraveyard currentGraveyard = graveyardBuilder.addTombstones(indices).build(settings);
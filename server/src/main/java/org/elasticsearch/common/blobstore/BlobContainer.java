@@ -19,6 +19,8 @@
 
 package org.elasticsearch.common.blobstore;
 
+import org.elasticsearch.common.io.Streams;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.FileAlreadyExistsException;
@@ -49,6 +51,38 @@ public interface BlobContainer {
      */
     InputStream readBlob(String blobName) throws IOException;
 
+    /**
+     * Creates a new {@link InputStream} that can be used to read the given blob starting from
+     * a specific {@code position} in the blob. The {@code length} is an indication of the
+     * number of bytes that are expected to be read from the {@link InputStream}.
+     *
+     * The default implementation opens the whole blob and skips to the requested position; implementations
+     * that can natively request a byte range from the underlying storage should override it.
+     *
+     * @param   blobName
+     *          The name of the blob to get an {@link InputStream} for.
+     * @param   position
+     *          The position in the blob where the next byte will be read.
+     * @param   length
+     *          An indication of the number of bytes to be read.
+     * @return  The {@code InputStream} to read the blob.
+     * @throws  NoSuchFileException if the blob does not exist
+     * @throws  IOException if the blob can not be read.
+     */
+    default InputStream readBlob(String blobName, long position, long length) throws IOException {
+        final InputStream inputStream = readBlob(blobName);
+        boolean success = false;
+        try {
+            Streams.skipFully(inputStream, position);
+            success = true;
+            return Streams.limitStream(inputStream, length);
+        } finally {
+            if (success == false) {
+                inputStream.close();
+            }
+        }
+    }
+
     /**
      * Reads blob content from the input stream and writes it to the container in a new blob with the given name.
      * This method assumes the container does not already contain a blob of the same blobName.  If a blob by the
@@ -0,0 +1,108 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.bytes;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.util.concurrent.AbstractRefCounted;
+import org.elasticsearch.common.util.concurrent.RefCounted;
+
+import java.io.IOException;
+
+/**
+ * A reference counted {@link BytesReference} over a buffer that must be released once it is no longer used, for instance a pooled
+ * network buffer. The buffer is released when the last reference is dropped. Slices of this reference are only valid as long as a
+ * reference to it is held.
+ */
+public final class ReleasableBytesReference extends BytesReference implements RefCounted, Releasable {
+
+    private final BytesReference delegate;
+    private final AbstractRefCounted refCounted;
+
+    public ReleasableBytesReference(BytesReference delegate, Releasable releasable) {
+        this.delegate = delegate;
+        this.refCounted = new AbstractRefCounted("bytes-reference") {
+            @Override
+            protected void closeInternal() {
+                releasable.close();
+            }
+        };
+    }
+
+    @Override
+    public void incRef() {
+        refCounted.incRef();
+    }
+
+    @Override
+    public boolean tryIncRef() {
+        return refCounted.tryIncRef();
+    }
+
+    @Override
+    public void decRef() {
+        refCounted.decRef();
+    }
+
+    /**
+     * Drops the reference held by the creator of this instance.
+     */
+    @Override
+    public void close() {
+        decRef();
+    }
+
+    @Override
+    public byte get(int index) {
+        return delegate.get(index);
+    }
+
+    @Override
+    public int length() {
+        return delegate.length();
+    }
+
+    @Override
+    public BytesReference slice(int from, int length) {
+        return delegate.slice(from, length);
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        return delegate.ramBytesUsed();
+    }
+
+    @Override
+    public StreamInput streamInput() throws IOException {
+        return delegate.streamInput();
+    }
+
+    @Override
+    public BytesRef toBytesRef() {
+        return delegate.toBytesRef();
+    }
+
+    @Override
+    public BytesRefIterator iterator() {
+        return delegate.iterator();
+    }
+}
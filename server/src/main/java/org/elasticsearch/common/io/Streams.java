@@ -25,6 +25,8 @@ import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -238,6 +240,84 @@ public abstract class Streams {
         }
     }
 
+    /**
+     * Limits the given input stream to the provided number of bytes
+     */
+    public static InputStream limitStream(InputStream in, long limit) {
+        return new LimitedInputStream(in, limit);
+    }
+
+    /**
+     * Skips exactly {@code n} bytes of the given input stream, failing if the end of the stream is reached before.
+     */
+    public static void skipFully(InputStream in, long n) throws IOException {
+        long remaining = n;
+        while (remaining > 0) {
+            final long skipped = in.skip(remaining);
+            if (skipped > 0) {
+                remaining -= skipped;
+            } else if (in.read() == -1) {
+                throw new EOFException("stream ended after skipping [" + (n - remaining) + "] of [" + n + "] bytes");
+            } else {
+                remaining--;
+            }
+        }
+    }
+
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private long currentLimit;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            if (limit < 0L) {
+                throw new IllegalArgumentException("limit must be non-negative");
+            }
+            this.currentLimit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (currentLimit > 0) {
+                final int read = in.read();
+                if (read >= 0) {
+                    currentLimit--;
+                }
+                return read;
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (currentLimit <= 0) {
+                return -1;
+            }
+            final int read = in.read(b, off, (int) Math.min(len, currentLimit));
+            if (read > 0) {
+                currentLimit -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = in.skip(Math.min(n, currentLimit));
+            currentLimit -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), currentLimit);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
     /**
      * A wrapper around a {@link BytesStream} that makes the close operation a flush. This is
      * needed as sometimes a stream will be closed but the bytes that the stream holds still need
@@ -0,0 +1,96 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.io.stream;
+
+import org.elasticsearch.common.bytes.BytesReference;
+
+import java.io.IOException;
+
+/**
+ * A {@link StreamInput} that counts how many bytes are read from the wrapped stream, for example to know the
+ * serialized size of an object that is read. The wrapped stream must support reading {@link NamedWriteable}s
+ * through {@link StreamInput#namedWriteableRegistry()} if the object contains some.
+ */
+public class CountingStreamInput extends FilterStreamInput {
+
+    private long count;
+
+    public CountingStreamInput(StreamInput delegate) {
+        super(delegate);
+    }
+
+    /**
+     * @return the number of bytes read so far
+     */
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        final byte b = delegate.readByte();
+        ++count;
+        return b;
+    }
+
+    @Override
+    public void readBytes(byte[] b, int offset, int len) throws IOException {
+        delegate.readBytes(b, offset, len);
+        count += len;
+    }
+
+    @Override
+    public BytesReference readRetainedBytesReference() throws IOException {
+        final BytesReference bytes = delegate.readRetainedBytesReference();
+        count += bytes.length();
+        return bytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = delegate.read();
+        if (b != -1) {
+            ++count;
+        }
+        return b;
+    }
+
+    @Override
+    public <C extends NamedWriteable> C readNamedWriteable(Class<C> categoryClass) throws IOException {
+        String name = readString();
+        return readNamedWriteable(categoryClass, name);
+    }
+
+    @Override
+    public <C extends NamedWriteable> C readNamedWriteable(Class<C> categoryClass, String name) throws IOException {
+        final NamedWriteableRegistry registry = namedWriteableRegistry();
+        if (registry == null) {
+            return super.readNamedWriteable(categoryClass, name);
+        }
+        // read through this stream so that the bytes of the named writeable are counted
+        Writeable.Reader<? extends C> reader = registry.getReader(categoryClass, name);
+        C c = reader.read(this);
+        if (c == null) {
+            throw new IOException(
+                "Writeable.Reader [" + reader + "] returned null which is not allowed and probably means it screwed up the stream.");
+        }
+        return c;
+    }
+}
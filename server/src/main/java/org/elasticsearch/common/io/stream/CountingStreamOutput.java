@@ -0,0 +1,60 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.io.stream;
+
+/**
+ * A {@link StreamOutput} that only counts how many bytes are written, for example to estimate the size of an object.
+ */
+public class CountingStreamOutput extends StreamOutput {
+
+    private long size;
+
+    /**
+     * @return the number of bytes written so far
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void writeByte(byte b) {
+        ++size;
+    }
+
+    @Override
+    public void writeBytes(byte[] b, int offset, int length) {
+        size += length;
+    }
+
+    @Override
+    public void flush() {
+        // nothing to do there...
+    }
+
+    @Override
+    public void close() {
+        // nothing to do there...
+    }
+
+    @Override
+    public void reset() {
+        size = 0;
+    }
+}
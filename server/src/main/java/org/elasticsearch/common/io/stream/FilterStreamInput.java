@@ -20,6 +20,7 @@
 package org.elasticsearch.common.io.stream;
 
 import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.BytesReference;
 
 import java.io.EOFException;
 import java.io.IOException;
@@ -45,6 +46,11 @@ public abstract class FilterStreamInput extends StreamInput {
         delegate.readBytes(b, offset, len);
     }
 
+    @Override
+    public BytesReference readRetainedBytesReference() throws IOException {
+        return delegate.readRetainedBytesReference();
+    }
+
     @Override
     public void reset() throws IOException {
         delegate.reset();
@@ -70,6 +76,11 @@ public abstract class FilterStreamInput extends StreamInput {
         return delegate.getVersion();
     }
 
+    @Override
+    public NamedWriteableRegistry namedWriteableRegistry() {
+        return delegate.namedWriteableRegistry();
+    }
+
     @Override
     public void setVersion(Version version) {
         delegate.setVersion(version);
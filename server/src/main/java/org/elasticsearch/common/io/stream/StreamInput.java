@@ -149,6 +149,15 @@ public abstract class StreamInput extends InputStream {
         return readBytesReference(length);
     }
 
+    /**
+     * Reads a bytes reference written by {@link StreamOutput#writeBytesReference(BytesReference)}. Streams that read off a retained
+     * network buffer return a slice of that buffer instead of copying the bytes, so the returned reference must not be used after the
+     * request it was read from has been handled. Other streams copy the bytes, like {@link #readBytesReference()}.
+     */
+    public BytesReference readRetainedBytesReference() throws IOException {
+        return readBytesReference();
+    }
+
     /**
      * Reads an optional bytes reference from this stream. It might hold an actual reference to the underlying bytes of the stream. Use this
      * only if you must differentiate null from empty. Use {@link StreamInput#readBytesReference()} and
@@ -1085,6 +1094,15 @@ public abstract class StreamInput extends InputStream {
         return null;
     }
 
+    /**
+     * Returns the registry of {@link NamedWriteable}s that is used to read named writeables from this stream,
+     * or <code>null</code> if this stream can't read named writeables.
+     */
+    @Nullable
+    public NamedWriteableRegistry namedWriteableRegistry() {
+        return null;
+    }
+
     /**
      * Reads a {@link NamedWriteable} from the current stream, by first reading its name and then looking for
      * the corresponding entry in the registry by name, so that the proper object can be read and returned.
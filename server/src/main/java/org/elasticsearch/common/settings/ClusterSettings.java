@@ -72,9 +72,11 @@ import org.elasticsearch.env.Environment;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.gateway.GatewayService;
 import org.elasticsearch.gateway.IncrementalClusterStateWriter;
+import org.elasticsearch.gateway.PersistedClusterStateService;
 import org.elasticsearch.http.HttpTransportSettings;
 import org.elasticsearch.index.IndexModule;
 import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.translog.TranslogSyncCoordinator;
 import org.elasticsearch.indices.IndexingMemoryController;
 import org.elasticsearch.indices.IndicesQueryCache;
 import org.elasticsearch.indices.IndicesRequestCache;
@@ -227,6 +229,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
             GatewayService.RECOVER_AFTER_NODES_SETTING,
             GatewayService.RECOVER_AFTER_TIME_SETTING,
             IncrementalClusterStateWriter.SLOW_WRITE_LOGGING_THRESHOLD,
+            PersistedClusterStateService.LUCENE_PERSISTED_STATE_SETTING,
             NetworkModule.HTTP_DEFAULT_TYPE_SETTING,
             NetworkModule.TRANSPORT_DEFAULT_TYPE_SETTING,
             NetworkModule.HTTP_TYPE_SETTING,
@@ -378,6 +381,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
             MultiBucketConsumerService.MAX_BUCKET_SETTING,
             SearchService.LOW_LEVEL_CANCELLATION_SETTING,
             SearchService.MAX_OPEN_SCROLL_CONTEXT,
+            SearchService.MAX_OPEN_READER_CONTEXT,
             Node.WRITE_PORTS_FILE_SETTING,
             Node.NODE_NAME_SETTING,
             Node.NODE_DATA_SETTING,
@@ -422,6 +426,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
             IndexingMemoryController.MAX_INDEX_BUFFER_SIZE_SETTING,
             IndexingMemoryController.SHARD_INACTIVE_TIME_SETTING,
             IndexingMemoryController.SHARD_MEMORY_INTERVAL_TIME_SETTING,
+            TranslogSyncCoordinator.GROUP_SYNC_ENABLED_SETTING,
             ResourceWatcherService.ENABLED,
             ResourceWatcherService.RELOAD_INTERVAL_HIGH,
             ResourceWatcherService.RELOAD_INTERVAL_MEDIUM,
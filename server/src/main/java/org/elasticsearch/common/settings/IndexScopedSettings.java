@@ -130,6 +130,7 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
             ShardsLimitAllocationDecider.INDEX_TOTAL_SHARDS_PER_NODE_SETTING,
             IndexSettings.INDEX_GC_DELETES_SETTING,
             IndexSettings.INDEX_SOFT_DELETES_SETTING,
+            IndexSettings.INDEX_APPEND_ONLY_SETTING,
             IndexSettings.INDEX_SOFT_DELETES_RETENTION_OPERATIONS_SETTING,
             IndexSettings.INDEX_SOFT_DELETES_RETENTION_LEASE_PERIOD_SETTING,
             IndicesRequestCache.INDEX_CACHE_REQUEST_ENABLED_SETTING,
@@ -143,6 +144,7 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
             IndexSettings.INDEX_TRANSLOG_RETENTION_SIZE_SETTING,
             IndexSettings.INDEX_SEARCH_IDLE_AFTER,
             IndexSettings.INDEX_SEARCH_THROTTLED,
+            IndexSettings.INDEX_CONCURRENT_SEGMENT_SEARCH_SETTING,
             IndexFieldDataService.INDEX_FIELDDATA_CACHE_KEY,
             FieldMapper.IGNORE_MALFORMED_SETTING,
             FieldMapper.COERCE_SETTING,
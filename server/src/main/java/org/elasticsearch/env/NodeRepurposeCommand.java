@@ -24,12 +24,16 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.cli.Terminal;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.coordination.ElasticsearchNodeCommand;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.Manifest;
+import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.core.internal.io.IOUtils;
+import org.elasticsearch.gateway.PersistedClusterStateService;
 import org.elasticsearch.gateway.WriteStateException;
 
 import java.io.IOException;
@@ -105,12 +109,15 @@ public class NodeRepurposeCommand extends ElasticsearchNodeCommand {
         terminal.println(noMasterMessage(indexUUIDs.size(), shardDataPaths.size(), indexMetaDataPaths.size()));
         outputHowToSeeVerboseInformation(terminal);
 
-        final Manifest manifest = loadManifest(terminal, dataPaths);
+        final PersistedClusterStateService persistedClusterStateService = persistedClusterStateService(dataPaths);
+        final Manifest manifest = persistedClusterStateService == null ? loadManifest(terminal, dataPaths) : null;
 
         terminal.println("Node is being re-purposed as no-master and no-data. Clean-up of index data will be performed.");
         confirm(terminal, "Do you want to proceed?");
 
-        if (manifest != null) {
+        if (persistedClusterStateService != null) {
+            rewritePersistedClusterState(terminal, persistedClusterStateService);
+        } else if (manifest != null) {
             rewriteManifest(terminal, manifest, dataPaths);
         }
 
@@ -192,6 +199,18 @@ public class NodeRepurposeCommand extends ElasticsearchNodeCommand {
         Manifest.FORMAT.writeAndCleanup(newManifest, dataPaths);
     }
 
+    private void rewritePersistedClusterState(Terminal terminal, PersistedClusterStateService persistedClusterStateService)
+        throws IOException {
+        terminal.println(Terminal.Verbosity.VERBOSE, "Re-writing persisted cluster state without indices");
+        final PersistedClusterStateService.OnDiskState onDiskState = persistedClusterStateService.loadBestOnDiskState();
+        try (PersistedClusterStateService.Writer writer = persistedClusterStateService.createWriter()) {
+            writer.writeFullStateAndCommit(onDiskState.currentTerm, ClusterState.builder(ClusterName.DEFAULT)
+                .version(onDiskState.lastAcceptedVersion)
+                .metaData(MetaData.builder(onDiskState.metaData).removeAllIndices())
+                .build());
+        }
+    }
+
     private Manifest loadManifest(Terminal terminal, Path[] dataPaths) throws IOException {
         terminal.println(Terminal.Verbosity.VERBOSE, "Loading manifest");
         final Manifest manifest = Manifest.FORMAT.loadLatestState(logger, namedXContentRegistry, dataPaths);
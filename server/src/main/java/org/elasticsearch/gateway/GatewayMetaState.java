@@ -23,8 +23,10 @@ import com.carrotsearch.hppc.cursors.ObjectObjectCursor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.util.SetOnce;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.Version;
 import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterName;
@@ -43,13 +45,17 @@ import org.elasticsearch.common.collect.ImmutableOpenMap;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.core.internal.io.IOUtils;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.plugins.MetaDataUpgrader;
 import org.elasticsearch.transport.TransportService;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -63,7 +69,7 @@ import java.util.function.UnaryOperator;
  * ClusterState#metaData()} because it might be stale or incomplete. Master-eligible nodes must perform an election to find a complete and
  * non-stale state, and master-ineligible nodes receive the real cluster state from the elected master after joining the cluster.
  */
-public class GatewayMetaState {
+public class GatewayMetaState implements Closeable {
     private static final Logger logger = LogManager.getLogger(GatewayMetaState.class);
 
     // Set by calling start()
@@ -80,12 +86,29 @@ public class GatewayMetaState {
     }
 
     public void start(Settings settings, TransportService transportService, ClusterService clusterService,
-                      MetaStateService metaStateService, MetaDataIndexUpgradeService metaDataIndexUpgradeService,
-                      MetaDataUpgrader metaDataUpgrader) {
+                      MetaStateService metaStateService, PersistedClusterStateService persistedClusterStateService,
+                      MetaDataIndexUpgradeService metaDataIndexUpgradeService, MetaDataUpgrader metaDataUpgrader) {
         assert persistedState.get() == null : "should only start once, but already have " + persistedState.get();
 
+        if (DiscoveryNode.isMasterNode(settings) && PersistedClusterStateService.LUCENE_PERSISTED_STATE_SETTING.get(settings)) {
+            try {
+                persistedState.set(createLucenePersistedState(settings, transportService, clusterService, metaStateService,
+                    persistedClusterStateService, metaDataIndexUpgradeService, metaDataUpgrader));
+            } catch (IOException e) {
+                throw new ElasticsearchException("failed to load metadata", e);
+            }
+            if (DiscoveryNode.isDataNode(settings)) {
+                clusterService.addLowPriorityApplier(new IndexMetaDataStateApplier(metaStateService));
+            }
+            return;
+        }
+
         final Tuple<Manifest, ClusterState> manifestClusterStateTuple;
         try {
+            if (isMasterOrDataNode(settings) && persistedClusterStateService.hasOnDiskState()) {
+                throw new IllegalStateException("node has metadata stored by the persisted cluster state service, which cannot be read "
+                    + "unless [" + PersistedClusterStateService.LUCENE_PERSISTED_STATE_SETTING.getKey() + "] is enabled");
+            }
             upgradeMetaData(settings, metaStateService, metaDataIndexUpgradeService, metaDataUpgrader);
             manifestClusterStateTuple = loadStateAndManifest(ClusterName.CLUSTER_NAME_SETTING.get(settings), metaStateService);
         } catch (IOException e) {
@@ -127,6 +150,62 @@ public class GatewayMetaState {
         }
     }
 
+    /**
+     * Loads the metadata stored by the {@link PersistedClusterStateService}, migrating it from the legacy state files if there is none yet,
+     * and rewrites it in full so that it is entirely stored in the current format.
+     */
+    private LucenePersistedState createLucenePersistedState(Settings settings, TransportService transportService,
+                                                            ClusterService clusterService, MetaStateService metaStateService,
+                                                            PersistedClusterStateService persistedClusterStateService,
+                                                            MetaDataIndexUpgradeService metaDataIndexUpgradeService,
+                                                            MetaDataUpgrader metaDataUpgrader) throws IOException {
+        final PersistedClusterStateService.OnDiskState onDiskState = persistedClusterStateService.loadBestOnDiskState();
+
+        final long currentTerm;
+        final long lastAcceptedVersion;
+        final MetaData metaData;
+        if (onDiskState.empty()) {
+            final Tuple<Manifest, MetaData> legacyState = metaStateService.loadFullState();
+            logger.info("migrating legacy metadata with [{}] indices to the persisted cluster state service",
+                legacyState.v2().indices().size());
+            currentTerm = legacyState.v1().getCurrentTerm();
+            lastAcceptedVersion = legacyState.v1().getClusterStateVersion();
+            metaData = legacyState.v2();
+        } else {
+            currentTerm = onDiskState.currentTerm;
+            lastAcceptedVersion = onDiskState.lastAcceptedVersion;
+            metaData = onDiskState.metaData;
+        }
+
+        final ClusterState clusterState = prepareInitialClusterState(transportService, clusterService,
+            ClusterState.builder(ClusterName.CLUSTER_NAME_SETTING.get(settings))
+                .version(lastAcceptedVersion)
+                .metaData(upgradeMetaDataForNode(metaData, metaDataIndexUpgradeService, metaDataUpgrader))
+                .build());
+
+        final LucenePersistedState lucenePersistedState = new LucenePersistedState(persistedClusterStateService, currentTerm, clusterState);
+        boolean success = false;
+        try {
+            if (onDiskState.empty()) {
+                // the legacy global state files are only removed once the migrated state has been committed, the index metadata
+                // files are kept up to date by the IndexMetaDataStateApplier on data nodes
+                metaStateService.deleteGlobalStateAndManifest();
+            }
+            success = true;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(lucenePersistedState);
+            }
+        }
+        return lucenePersistedState;
+    }
+
+    // exposed so it can be overridden by tests
+    MetaData upgradeMetaDataForNode(MetaData metaData, MetaDataIndexUpgradeService metaDataIndexUpgradeService,
+                                    MetaDataUpgrader metaDataUpgrader) {
+        return upgradeMetaData(metaData, metaDataIndexUpgradeService, metaDataUpgrader);
+    }
+
     // exposed so it can be overridden by tests
     ClusterState prepareInitialClusterState(TransportService transportService, ClusterService clusterService, ClusterState clusterState) {
         assert clusterState.nodes().getLocalNode() == null : "prepareInitialClusterState must only be called once";
@@ -253,6 +332,55 @@ public class GatewayMetaState {
     }
 
 
+    @Override
+    public void close() throws IOException {
+        final PersistedState persistedState = this.persistedState.get();
+        if (persistedState instanceof Closeable) {
+            IOUtils.close((Closeable) persistedState);
+        }
+    }
+
+    /**
+     * Keeps the index metadata state files of the indices with shards on this node up to date when the cluster metadata is stored by the
+     * {@link PersistedClusterStateService}. These files aren't needed to restore the cluster state, but dangling indices detection, the
+     * deletion of stale indices and the node tools read them. Like on master-ineligible data nodes, they are written when applying the
+     * cluster state rather than when accepting it.
+     */
+    private static class IndexMetaDataStateApplier implements ClusterStateApplier {
+
+        private final MetaStateService metaStateService;
+        // the versions of the index metadata written since the node started, so the first applied state writes them all
+        private final Map<Index, Long> writtenVersions = new HashMap<>();
+
+        private IndexMetaDataStateApplier(MetaStateService metaStateService) {
+            this.metaStateService = metaStateService;
+        }
+
+        @Override
+        public void applyClusterState(ClusterChangedEvent event) {
+            if (event.state().blocks().disableStatePersistence()) {
+                writtenVersions.clear();
+                return;
+            }
+
+            final Set<Index> relevantIndices = IncrementalClusterStateWriter.getRelevantIndicesOnDataOnlyNode(event.state());
+            writtenVersions.keySet().retainAll(relevantIndices);
+            for (Index index : relevantIndices) {
+                final IndexMetaData indexMetaData = event.state().metaData().getIndexSafe(index);
+                final Long writtenVersion = writtenVersions.get(index);
+                if (writtenVersion == null || writtenVersion != indexMetaData.getVersion()) {
+                    try {
+                        final long generation = metaStateService.writeIndex("applying cluster state", indexMetaData);
+                        metaStateService.cleanupIndex(index, generation);
+                        writtenVersions.put(index, indexMetaData.getVersion());
+                    } catch (WriteStateException e) {
+                        logger.warn(() -> new ParameterizedMessage("[{}] failed to write index metadata", index), e);
+                    }
+                }
+            }
+        }
+    }
+
     private static class GatewayClusterApplier implements ClusterStateApplier {
 
         private final IncrementalClusterStateWriter incrementalClusterStateWriter;
@@ -329,4 +457,119 @@ public class GatewayMetaState {
 
     }
 
+    /**
+     * Encapsulates the incremental writing of metadata to a {@link PersistedClusterStateService.Writer}.
+     */
+    static class LucenePersistedState implements PersistedState, Closeable {
+
+        private long currentTerm;
+        private ClusterState lastAcceptedState;
+        private final PersistedClusterStateService persistedClusterStateService;
+
+        // As the close method can be concurrently called to the other PersistedState methods, this class has extra protection in place.
+        private final AtomicReference<PersistedClusterStateService.Writer> persistenceWriter = new AtomicReference<>();
+        private boolean writeNextStateFully;
+
+        LucenePersistedState(PersistedClusterStateService persistedClusterStateService, long currentTerm, ClusterState lastAcceptedState)
+            throws IOException {
+            this.persistedClusterStateService = persistedClusterStateService;
+            this.currentTerm = currentTerm;
+            this.lastAcceptedState = lastAcceptedState;
+            // Write the whole state out to be sure it's fresh and using the latest format. Called during initialisation, so that
+            // (1) throwing an IOException is enough to halt the node, and
+            // (2) the index is currently empty since it was opened with IndexWriterConfig.OpenMode.CREATE
+            final PersistedClusterStateService.Writer writer = persistedClusterStateService.createWriter();
+            try {
+                writer.writeFullStateAndCommit(currentTerm, lastAcceptedState);
+            } catch (Exception e) {
+                try {
+                    writer.close();
+                } catch (Exception e2) {
+                    e.addSuppressed(e2);
+                }
+                throw e;
+            }
+            persistenceWriter.set(writer);
+        }
+
+        @Override
+        public long getCurrentTerm() {
+            return currentTerm;
+        }
+
+        @Override
+        public ClusterState getLastAcceptedState() {
+            return lastAcceptedState;
+        }
+
+        @Override
+        public void setCurrentTerm(long currentTerm) {
+            try {
+                if (writeNextStateFully) {
+                    getWriterSafe().writeFullStateAndCommit(currentTerm, lastAcceptedState);
+                    writeNextStateFully = false;
+                } else {
+                    getWriterSafe().commit(currentTerm, lastAcceptedState.version());
+                }
+            } catch (Exception e) {
+                handleExceptionOnWrite(e);
+            }
+            this.currentTerm = currentTerm;
+        }
+
+        @Override
+        public void setLastAcceptedState(ClusterState clusterState) {
+            try {
+                if (writeNextStateFully) {
+                    getWriterSafe().writeFullStateAndCommit(currentTerm, clusterState);
+                    writeNextStateFully = false;
+                } else {
+                    if (clusterState.term() != lastAcceptedState.term()) {
+                        assert clusterState.term() > lastAcceptedState.term() : clusterState.term() + " vs " + lastAcceptedState.term();
+                        // In a new currentTerm, we cannot compare the persisted metadata's lastAcceptedVersion to those in the new state,
+                        // so it's simplest to write everything again.
+                        getWriterSafe().writeFullStateAndCommit(currentTerm, clusterState);
+                    } else {
+                        // Within the same currentTerm, we _can_ use metadata versions to skip unnecessary writing.
+                        getWriterSafe().writeIncrementalStateAndCommit(currentTerm, lastAcceptedState, clusterState);
+                    }
+                }
+            } catch (Exception e) {
+                handleExceptionOnWrite(e);
+            }
+
+            lastAcceptedState = clusterState;
+        }
+
+        private PersistedClusterStateService.Writer getWriterSafe() throws IOException {
+            final PersistedClusterStateService.Writer writer = persistenceWriter.get();
+            if (writer == null) {
+                throw new AlreadyClosedException("persisted state has been closed");
+            }
+            if (writer.isOpen()) {
+                return writer;
+            } else {
+                // the writer was closed after a failed write, so start afresh; the new writer must write the full state before it
+                // commits anything
+                final PersistedClusterStateService.Writer newWriter = persistedClusterStateService.createWriter();
+                if (persistenceWriter.compareAndSet(writer, newWriter)) {
+                    return newWriter;
+                } else {
+                    assert persistenceWriter.get() == null : "expected no concurrent calls to getWriterSafe";
+                    newWriter.close();
+                    throw new AlreadyClosedException("persisted state has been closed");
+                }
+            }
+        }
+
+        private void handleExceptionOnWrite(Exception e) {
+            writeNextStateFully = true;
+            throw ExceptionsHelper.convertToRuntime(e);
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOUtils.close(persistenceWriter.getAndSet(null));
+        }
+    }
 }
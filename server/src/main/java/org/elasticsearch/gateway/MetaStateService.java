@@ -266,6 +266,17 @@ public class MetaStateService {
         INDEX_META_DATA_FORMAT.cleanupOldFiles(currentGeneration, nodeEnv.indexPaths(index));
     }
 
+    /**
+     * Removes the legacy global metadata and manifest files. Used once the metadata has been migrated to the
+     * {@link PersistedClusterStateService}. The index metadata files are kept, they are still used by dangling indices detection and
+     * the node tools.
+     */
+    public void deleteGlobalStateAndManifest() {
+        // generation Long.MAX_VALUE is never written, so this removes every state file with the format's prefix
+        META_DATA_FORMAT.cleanupOldFiles(Long.MAX_VALUE, nodeEnv.nodeDataPaths());
+        MANIFEST_FORMAT.cleanupOldFiles(Long.MAX_VALUE, nodeEnv.nodeDataPaths());
+    }
+
     /**
      * Writes index metadata and updates manifest file accordingly.
      * Used by tests.
@@ -0,0 +1,615 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.gateway;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SerialMergeScheduler;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.SimpleFSDirectory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.common.CheckedFunction;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.core.internal.io.IOUtils;
+import org.elasticsearch.env.NodeEnvironment;
+import org.elasticsearch.index.Index;
+
+import java.io.Closeable;
+import java.io.IOError;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stores cluster metadata in a bare Lucene index (per data path) split across a number of documents. This is used by master-eligible
+ * nodes to record the last-accepted cluster state during publication. The metadata is written incrementally where possible, leaving
+ * alone any documents that have not changed, and each cluster state version results in a single Lucene commit per data path instead
+ * of one fsync'd file per changed index.
+ *
+ * The global metadata is stored in a single document whose {@code type} field is {@code global}, and each index metadata is stored in
+ * its own document whose {@code type} field is {@code index} and whose {@code index_uuid} field identifies the index. The current term
+ * and the version of the last-accepted cluster state are stored in the user data of each commit.
+ */
+public class PersistedClusterStateService {
+    private static final Logger logger = LogManager.getLogger(PersistedClusterStateService.class);
+
+    /**
+     * Whether master-eligible nodes store their cluster metadata in a Lucene index rather than in one state file per index.
+     */
+    public static final Setting<Boolean> LUCENE_PERSISTED_STATE_SETTING =
+        Setting.boolSetting("gateway.persisted_state.lucene", false, Setting.Property.NodeScope);
+
+    private static final String CURRENT_TERM_KEY = "current_term";
+    private static final String LAST_ACCEPTED_VERSION_KEY = "last_accepted_version";
+    private static final String NODE_ID_KEY = "node_id";
+    private static final String NODE_VERSION_KEY = "node_version";
+    private static final String TYPE_FIELD_NAME = "type";
+    private static final String DATA_FIELD_NAME = "data";
+    private static final String GLOBAL_TYPE_NAME = "global";
+    private static final String INDEX_TYPE_NAME = "index";
+    private static final String INDEX_UUID_FIELD_NAME = "index_uuid";
+
+    public static final String METADATA_DIRECTORY_NAME = MetaDataStateFormat.STATE_DIR_NAME;
+
+    private final Path[] dataPaths;
+    private final String nodeId;
+    private final NamedXContentRegistry namedXContentRegistry;
+
+    public PersistedClusterStateService(NodeEnvironment nodeEnvironment, NamedXContentRegistry namedXContentRegistry) {
+        this(nodeEnvironment.nodeDataPaths(), nodeEnvironment.nodeId(), namedXContentRegistry);
+    }
+
+    public PersistedClusterStateService(Path[] dataPaths, String nodeId, NamedXContentRegistry namedXContentRegistry) {
+        this.dataPaths = dataPaths;
+        this.nodeId = nodeId;
+        this.namedXContentRegistry = namedXContentRegistry;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Creates a new writer that writes to the metadata index of every data path.
+     */
+    public Writer createWriter() throws IOException {
+        final List<MetaDataIndexWriter> metaDataIndexWriters = new ArrayList<>();
+        final List<Closeable> closeables = new ArrayList<>();
+        boolean success = false;
+        try {
+            for (final Path path : dataPaths) {
+                final Directory directory = createDirectory(path.resolve(METADATA_DIRECTORY_NAME));
+                closeables.add(directory);
+
+                final IndexWriter indexWriter = createIndexWriter(directory);
+                closeables.add(indexWriter);
+                metaDataIndexWriters.add(new MetaDataIndexWriter(directory, indexWriter));
+            }
+            success = true;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(closeables);
+            }
+        }
+        return new Writer(metaDataIndexWriters, nodeId);
+    }
+
+    private static IndexWriter createIndexWriter(Directory directory) throws IOException {
+        final IndexWriterConfig indexWriterConfig = new IndexWriterConfig(new KeywordAnalyzer());
+        // start empty since we re-write the whole cluster state to ensure it is all using the same format version
+        indexWriterConfig.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+        // only commit when specifically instructed, we must not write any intermediate states
+        indexWriterConfig.setCommitOnClose(false);
+        // most of the data goes into stored fields which are not buffered, so we only really need a tiny buffer
+        indexWriterConfig.setRAMBufferSizeMB(1.0);
+        // merge on the write thread (e.g. while flushing)
+        indexWriterConfig.setMergeScheduler(new SerialMergeScheduler());
+
+        return new IndexWriter(directory, indexWriterConfig);
+    }
+
+    // exposed for tests
+    Directory createDirectory(Path path) throws IOException {
+        return new SimpleFSDirectory(path);
+    }
+
+    /**
+     * Returns true if any of the data paths contains a metadata index.
+     */
+    public boolean hasOnDiskState() throws IOException {
+        for (final Path dataPath : dataPaths) {
+            final Path indexPath = dataPath.resolve(METADATA_DIRECTORY_NAME);
+            if (Files.exists(indexPath)) {
+                try (Directory directory = createDirectory(indexPath)) {
+                    if (DirectoryReader.indexExists(directory)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The on-disk state of the node, as read from the freshest metadata index across all data paths.
+     */
+    public static class OnDiskState {
+        private static final OnDiskState NO_ON_DISK_STATE = new OnDiskState(null, null, 0L, 0L, MetaData.EMPTY_META_DATA);
+
+        private final String nodeId;
+        private final Path dataPath;
+        public final long currentTerm;
+        public final long lastAcceptedVersion;
+        public final MetaData metaData;
+
+        private OnDiskState(String nodeId, Path dataPath, long currentTerm, long lastAcceptedVersion, MetaData metaData) {
+            this.nodeId = nodeId;
+            this.dataPath = dataPath;
+            this.currentTerm = currentTerm;
+            this.lastAcceptedVersion = lastAcceptedVersion;
+            this.metaData = metaData;
+        }
+
+        public boolean empty() {
+            return this == NO_ON_DISK_STATE;
+        }
+    }
+
+    /**
+     * Loads the best available on-disk cluster state. Returns {@link OnDiskState#NO_ON_DISK_STATE} if no such state was found.
+     */
+    public OnDiskState loadBestOnDiskState() throws IOException {
+        String committedClusterUuid = null;
+        Path committedClusterUuidPath = null;
+        OnDiskState bestOnDiskState = OnDiskState.NO_ON_DISK_STATE;
+        OnDiskState maxCurrentTermOnDiskState = bestOnDiskState;
+
+        for (final Path dataPath : dataPaths) {
+            final Path indexPath = dataPath.resolve(METADATA_DIRECTORY_NAME);
+            if (Files.exists(indexPath)) {
+                try (Directory directory = createDirectory(indexPath)) {
+                    if (DirectoryReader.indexExists(directory) == false) {
+                        continue;
+                    }
+                    try (DirectoryReader directoryReader = DirectoryReader.open(directory)) {
+                        final OnDiskState onDiskState = loadOnDiskState(dataPath, directoryReader);
+
+                        if (nodeId.equals(onDiskState.nodeId) == false) {
+                            throw new IllegalStateException("unexpected node ID in metadata, found [" + onDiskState.nodeId +
+                                "] in [" + dataPath + "] but expected [" + nodeId + "]");
+                        }
+
+                        if (onDiskState.metaData.clusterUUIDCommitted()) {
+                            if (committedClusterUuid == null) {
+                                committedClusterUuid = onDiskState.metaData.clusterUUID();
+                                committedClusterUuidPath = dataPath;
+                            } else if (committedClusterUuid.equals(onDiskState.metaData.clusterUUID()) == false) {
+                                throw new IllegalStateException("mismatched cluster UUIDs in metadata, found [" + committedClusterUuid +
+                                    "] in [" + committedClusterUuidPath + "] and [" + onDiskState.metaData.clusterUUID() + "] in ["
+                                    + dataPath + "]");
+                            }
+                        }
+
+                        if (maxCurrentTermOnDiskState.empty() || maxCurrentTermOnDiskState.currentTerm < onDiskState.currentTerm) {
+                            maxCurrentTermOnDiskState = onDiskState;
+                        }
+
+                        long acceptedTerm = onDiskState.metaData.coordinationMetaData().term();
+                        long maxAcceptedTerm = bestOnDiskState.metaData.coordinationMetaData().term();
+                        if (bestOnDiskState.empty()
+                            || acceptedTerm > maxAcceptedTerm
+                            || (acceptedTerm == maxAcceptedTerm
+                                && (onDiskState.lastAcceptedVersion > bestOnDiskState.lastAcceptedVersion
+                                    || (onDiskState.lastAcceptedVersion == bestOnDiskState.lastAcceptedVersion)
+                                        && onDiskState.currentTerm > bestOnDiskState.currentTerm))) {
+                            bestOnDiskState = onDiskState;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (bestOnDiskState.currentTerm != maxCurrentTermOnDiskState.currentTerm) {
+            // the current term is persisted independently of the accepted state, so keep the highest one that we have seen
+            bestOnDiskState = new OnDiskState(bestOnDiskState.nodeId, bestOnDiskState.dataPath, maxCurrentTermOnDiskState.currentTerm,
+                bestOnDiskState.lastAcceptedVersion, bestOnDiskState.metaData);
+        }
+
+        return bestOnDiskState;
+    }
+
+    private OnDiskState loadOnDiskState(Path dataPath, DirectoryReader reader) throws IOException {
+        final Map<String, String> userData = reader.getIndexCommit().getUserData();
+        logger.trace("loading metadata from [{}] with user data {}", dataPath, userData);
+
+        final String currentTerm = userData.get(CURRENT_TERM_KEY);
+        final String lastAcceptedVersion = userData.get(LAST_ACCEPTED_VERSION_KEY);
+        final String nodeId = userData.get(NODE_ID_KEY);
+        if (currentTerm == null || lastAcceptedVersion == null || nodeId == null) {
+            throw new IllegalStateException("incomplete metadata commit in [" + dataPath + "], found user data " + userData);
+        }
+
+        final MetaData.Builder builder = MetaData.builder();
+        final Set<String> indexUUIDs = new HashSet<>();
+        boolean foundGlobalMetaData = false;
+        for (LeafReaderContext leafReaderContext : reader.leaves()) {
+            final LeafReader leafReader = leafReaderContext.reader();
+            final Bits liveDocs = leafReader.getLiveDocs();
+            for (int docId = 0; docId < leafReader.maxDoc(); docId++) {
+                if (liveDocs != null && liveDocs.get(docId) == false) {
+                    continue;
+                }
+                final Document document = leafReader.document(docId);
+                final String type = document.get(TYPE_FIELD_NAME);
+                final BytesRef data = document.getBinaryValue(DATA_FIELD_NAME);
+                if (GLOBAL_TYPE_NAME.equals(type)) {
+                    if (foundGlobalMetaData) {
+                        throw new IllegalStateException("duplicate global metadata found in [" + dataPath + "]");
+                    }
+                    foundGlobalMetaData = true;
+                    final MetaData globalMetaData = readXContent(data, MetaData.FORMAT::fromXContent);
+                    builder.version(globalMetaData.version());
+                    builder.clusterUUID(globalMetaData.clusterUUID());
+                    builder.clusterUUIDCommitted(globalMetaData.clusterUUIDCommitted());
+                    builder.coordinationMetaData(globalMetaData.coordinationMetaData());
+                    builder.persistentSettings(globalMetaData.persistentSettings());
+                    builder.templates(globalMetaData.templates());
+                    globalMetaData.customs().forEach(cursor -> builder.putCustom(cursor.key, cursor.value));
+                } else if (INDEX_TYPE_NAME.equals(type)) {
+                    final IndexMetaData indexMetaData = readXContent(data, IndexMetaData.FORMAT::fromXContent);
+                    if (indexUUIDs.add(indexMetaData.getIndexUUID()) == false) {
+                        throw new IllegalStateException("duplicate metadata found for " + indexMetaData.getIndex()
+                            + " in [" + dataPath + "]");
+                    }
+                    builder.put(indexMetaData, false);
+                } else {
+                    throw new IllegalStateException("unexpected document of type [" + type + "] in [" + dataPath + "]");
+                }
+            }
+        }
+
+        if (foundGlobalMetaData == false) {
+            throw new IllegalStateException("no global metadata found in [" + dataPath + "]");
+        }
+
+        return new OnDiskState(nodeId, dataPath, Long.parseLong(currentTerm), Long.parseLong(lastAcceptedVersion), builder.build());
+    }
+
+    private <T> T readXContent(BytesRef bytes, CheckedFunction<XContentParser, T, IOException> reader) throws IOException {
+        try (XContentParser parser = XContentFactory.xContent(MetaDataStateFormat.FORMAT).createParser(namedXContentRegistry,
+            LoggingDeprecationHandler.INSTANCE, bytes.bytes, bytes.offset, bytes.length)) {
+            return reader.apply(parser);
+        }
+    }
+
+    /**
+     * Encapsulates a single {@link IndexWriter} with its {@link Directory} for ease of closing, and a {@link Logger}. There is one of these
+     * for each data path.
+     */
+    private static class MetaDataIndexWriter implements Closeable {
+
+        private final Logger logger;
+        private final Directory directory;
+        private final IndexWriter indexWriter;
+
+        MetaDataIndexWriter(Directory directory, IndexWriter indexWriter) {
+            this.directory = directory;
+            this.indexWriter = indexWriter;
+            this.logger = LogManager.getLogger(MetaDataIndexWriter.class.getName() + "." + directory);
+        }
+
+        void deleteAll() throws IOException {
+            logger.trace("clearing existing metadata");
+            indexWriter.deleteAll();
+        }
+
+        void updateIndexMetaDataDocument(Document indexMetaDataDocument, Index index) throws IOException {
+            final Term indexUUIDTerm = new Term(INDEX_UUID_FIELD_NAME, index.getUUID());
+            logger.trace("updating metadata for [{}]", index);
+            indexWriter.updateDocument(indexUUIDTerm, indexMetaDataDocument);
+        }
+
+        void updateGlobalMetaData(Document globalMetaDataDocument) throws IOException {
+            logger.trace("updating global metadata doc");
+            indexWriter.updateDocument(new Term(TYPE_FIELD_NAME, GLOBAL_TYPE_NAME), globalMetaDataDocument);
+        }
+
+        void deleteIndexMetaData(String indexUUID) throws IOException {
+            logger.trace("removing metadata for [{}]", indexUUID);
+            indexWriter.deleteDocuments(new Term(INDEX_UUID_FIELD_NAME, indexUUID));
+        }
+
+        void flush() throws IOException {
+            logger.trace("flushing");
+            indexWriter.flush();
+        }
+
+        void commit(String nodeId, long currentTerm, long lastAcceptedVersion) throws IOException {
+            final Map<String, String> commitData = new HashMap<>(4);
+            commitData.put(CURRENT_TERM_KEY, Long.toString(currentTerm));
+            commitData.put(LAST_ACCEPTED_VERSION_KEY, Long.toString(lastAcceptedVersion));
+            commitData.put(NODE_VERSION_KEY, Integer.toString(Version.CURRENT.id));
+            commitData.put(NODE_ID_KEY, nodeId);
+            indexWriter.setLiveCommitData(commitData.entrySet());
+            indexWriter.commit();
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOUtils.close(indexWriter, directory);
+        }
+    }
+
+    /**
+     * Writes cluster states to the metadata index of every data path. Each write results in exactly one commit per data path. If a
+     * write fails then the writer is closed and a new writer must be created, starting with a full write of the cluster state.
+     */
+    public static class Writer implements Closeable {
+
+        private final List<MetaDataIndexWriter> metaDataIndexWriters;
+        private final String nodeId;
+
+        private boolean fullStateWritten = false;
+        private boolean closed = false;
+
+        private Writer(List<MetaDataIndexWriter> metaDataIndexWriters, String nodeId) {
+            this.metaDataIndexWriters = metaDataIndexWriters;
+            this.nodeId = nodeId;
+        }
+
+        private void ensureOpen() {
+            if (closed) {
+                throw new IllegalStateException("metadata writer is closed");
+            }
+        }
+
+        public boolean isOpen() {
+            return closed == false;
+        }
+
+        /**
+         * Overrides all the existing metadata with the metadata of the given cluster state and commits it.
+         */
+        public void writeFullStateAndCommit(long currentTerm, ClusterState clusterState) throws IOException {
+            ensureOpen();
+            boolean success = false;
+            try {
+                final long startTimeMillis = System.currentTimeMillis();
+                final int numIndices = overwriteMetaData(clusterState.metaData());
+                commit(currentTerm, clusterState.version());
+                fullStateWritten = true;
+                success = true;
+                logger.debug("wrote full cluster state with [{}] indices in [{}ms]", numIndices,
+                    System.currentTimeMillis() - startTimeMillis);
+            } finally {
+                if (success == false) {
+                    closeOnFailure();
+                }
+            }
+        }
+
+        /**
+         * Updates and commits the metadata that changed between the given cluster states, leaving the documents of the unchanged
+         * metadata untouched. Requires that the full state was written by this writer first.
+         */
+        public void writeIncrementalStateAndCommit(long currentTerm, ClusterState previousClusterState,
+                                                   ClusterState clusterState) throws IOException {
+            ensureOpen();
+            assert fullStateWritten : "Need to write full state first before doing incremental writes";
+            boolean success = false;
+            try {
+                final long startTimeMillis = System.currentTimeMillis();
+                final int numIndicesUpdated = updateMetaData(previousClusterState.metaData(), clusterState.metaData());
+                commit(currentTerm, clusterState.version());
+                success = true;
+                logger.debug("wrote incremental cluster state with [{}] updated indices in [{}ms]", numIndicesUpdated,
+                    System.currentTimeMillis() - startTimeMillis);
+            } finally {
+                if (success == false) {
+                    closeOnFailure();
+                }
+            }
+        }
+
+        /**
+         * Returns whether the full state has been written by this writer, which is required before writing incremental states.
+         */
+        public boolean isFullStateWritten() {
+            return fullStateWritten;
+        }
+
+        /**
+         * Updates the persisted metadata to match the given cluster state by removing any stale or unnecessary documents and adding any
+         * updated documents.
+         *
+         * @return the number of index documents that were added or updated
+         */
+        private int updateMetaData(MetaData previouslyWrittenMetaData, MetaData metaData) throws IOException {
+            assert previouslyWrittenMetaData.coordinationMetaData().term() == metaData.coordinationMetaData().term();
+            logger.trace("currentTerm [{}] matches previous currentTerm, writing changes only",
+                metaData.coordinationMetaData().term());
+
+            if (MetaData.isGlobalStateEquals(previouslyWrittenMetaData, metaData) == false) {
+                final Document globalMetaDataDocument = makeGlobalMetaDataDocument(metaData);
+                for (MetaDataIndexWriter metaDataIndexWriter : metaDataIndexWriters) {
+                    metaDataIndexWriter.updateGlobalMetaData(globalMetaDataDocument);
+                }
+            }
+
+            int numIndicesUpdated = 0;
+            for (IndexMetaData indexMetaData : metaData) {
+                final IndexMetaData previousIndexMetaData = previouslyWrittenMetaData.index(indexMetaData.getIndex());
+                if (previousIndexMetaData == null || previousIndexMetaData.getVersion() != indexMetaData.getVersion()) {
+                    numIndicesUpdated++;
+                    final Document indexMetaDataDocument = makeIndexMetaDataDocument(indexMetaData);
+                    for (MetaDataIndexWriter metaDataIndexWriter : metaDataIndexWriters) {
+                        metaDataIndexWriter.updateIndexMetaDataDocument(indexMetaDataDocument, indexMetaData.getIndex());
+                    }
+                }
+            }
+
+            for (IndexMetaData previousIndexMetaData : previouslyWrittenMetaData) {
+                if (metaData.index(previousIndexMetaData.getIndex()) == null) {
+                    for (MetaDataIndexWriter metaDataIndexWriter : metaDataIndexWriters) {
+                        metaDataIndexWriter.deleteIndexMetaData(previousIndexMetaData.getIndexUUID());
+                    }
+                }
+            }
+
+            // Flush, to try and expose a failure (e.g. out of disk space) before committing, because we can handle a failure here more
+            // gracefully than one that occurs during the commit process.
+            for (MetaDataIndexWriter metaDataIndexWriter : metaDataIndexWriters) {
+                metaDataIndexWriter.flush();
+            }
+
+            return numIndicesUpdated;
+        }
+
+        /**
+         * Replaces the persisted metadata with the given metadata.
+         *
+         * @return the number of index documents that were written
+         */
+        private int overwriteMetaData(MetaData metaData) throws IOException {
+            for (MetaDataIndexWriter metaDataIndexWriter : metaDataIndexWriters) {
+                metaDataIndexWriter.deleteAll();
+            }
+
+            final Document globalMetaDataDocument = makeGlobalMetaDataDocument(metaData);
+            for (MetaDataIndexWriter metaDataIndexWriter : metaDataIndexWriters) {
+                metaDataIndexWriter.updateGlobalMetaData(globalMetaDataDocument);
+            }
+
+            int numIndices = 0;
+            for (IndexMetaData indexMetaData : metaData) {
+                numIndices++;
+                final Document indexMetaDataDocument = makeIndexMetaDataDocument(indexMetaData);
+                for (MetaDataIndexWriter metaDataIndexWriter : metaDataIndexWriters) {
+                    metaDataIndexWriter.updateIndexMetaDataDocument(indexMetaDataDocument, indexMetaData.getIndex());
+                }
+            }
+
+            // Flush, to try and expose a failure (e.g. out of disk space) before committing, because we can handle a failure here more
+            // gracefully than one that occurs during the commit process.
+            for (MetaDataIndexWriter metaDataIndexWriter : metaDataIndexWriters) {
+                metaDataIndexWriter.flush();
+            }
+
+            return numIndices;
+        }
+
+        /**
+         * Commits the current term and the given accepted version without changing any metadata.
+         */
+        public void commit(long currentTerm, long lastAcceptedVersion) throws IOException {
+            ensureOpen();
+            try {
+                for (MetaDataIndexWriter metaDataIndexWriter : metaDataIndexWriters) {
+                    metaDataIndexWriter.commit(nodeId, currentTerm, lastAcceptedVersion);
+                }
+            } catch (Exception e) {
+                // The commit() call has similar semantics to a fsync(): although it's atomic, if it fails then we've no idea whether the
+                // data on disk is now the old version or the new version, and this is a disaster. It's safest to fail the whole node and
+                // retry from the beginning.
+                try {
+                    close();
+                } catch (Exception e2) {
+                    e.addSuppressed(e2);
+                }
+                throw new IOError(e);
+            }
+        }
+
+        private void closeOnFailure() {
+            if (closed == false) {
+                try {
+                    close();
+                } catch (Exception e) {
+                    logger.warn("failed to close metadata writer after a failure", e);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            logger.trace("closing PersistedClusterStateService.Writer");
+            closed = true;
+            IOUtils.close(metaDataIndexWriters);
+        }
+
+        private Document makeIndexMetaDataDocument(IndexMetaData indexMetaData) throws IOException {
+            final Document indexMetaDataDocument = makeDocument(INDEX_TYPE_NAME,
+                builder -> IndexMetaData.FORMAT.toXContent(builder, indexMetaData));
+            final String indexUUID = indexMetaData.getIndexUUID();
+            assert indexUUID.equals(IndexMetaData.INDEX_UUID_NA_VALUE) == false;
+            indexMetaDataDocument.add(new StringField(INDEX_UUID_FIELD_NAME, indexUUID, Field.Store.NO));
+            return indexMetaDataDocument;
+        }
+
+        private Document makeGlobalMetaDataDocument(MetaData metaData) throws IOException {
+            return makeDocument(GLOBAL_TYPE_NAME, builder -> MetaData.FORMAT.toXContent(builder, metaData));
+        }
+
+        private Document makeDocument(String typeName, CheckedConsumer<XContentBuilder, IOException> toXContent) throws IOException {
+            final Document document = new Document();
+            document.add(new StringField(TYPE_FIELD_NAME, typeName, Field.Store.YES));
+
+            try (BytesStreamOutput streamOutput = new BytesStreamOutput()) {
+                try (XContentBuilder xContentBuilder = XContentFactory.contentBuilder(MetaDataStateFormat.FORMAT, streamOutput)) {
+                    xContentBuilder.startObject();
+                    toXContent.accept(xContentBuilder);
+                    xContentBuilder.endObject();
+                }
+                document.add(new StoredField(DATA_FIELD_NAME, BytesReference.toBytes(streamOutput.bytes())));
+            }
+
+            return document;
+        }
+    }
+}
@@ -234,6 +234,13 @@ public final class IndexSettings {
         settings -> Boolean.toString(IndexMetaData.SETTING_INDEX_VERSION_CREATED.get(settings).onOrAfter(Version.V_7_0_0)),
         Property.IndexScope, Property.Final);
 
+    /**
+     * Specifies if the index only accepts new documents with auto-generated ids. Updates, deletes and documents with explicit ids are
+     * rejected, which allows the engine to index without maintaining the live version map or looking up document ids.
+     */
+    public static final Setting<Boolean> INDEX_APPEND_ONLY_SETTING =
+        Setting.boolSetting("index.append_only", false, Property.IndexScope, Property.Final);
+
     /**
      * Controls how many soft-deleted documents will be kept around before being merged away. Keeping more deleted
      * documents increases the chance of operation-based recoveries and allows querying a longer history of documents.
@@ -372,6 +379,13 @@ public final class IndexSettings {
     public static final Setting<Boolean> INDEX_SEARCH_THROTTLED = Setting.boolSetting("index.search.throttled", false,
         Property.IndexScope, Property.PrivateIndex, Property.Dynamic);
 
+    /**
+     * Whether the query phase of a search may collect slices of the segments of a shard concurrently on the
+     * {@link org.elasticsearch.threadpool.ThreadPool.Names#SEARCH_WORKER} thread-pool.
+     */
+    public static final Setting<Boolean> INDEX_CONCURRENT_SEGMENT_SEARCH_SETTING =
+        Setting.boolSetting("index.search.concurrent_segment_search", false, Property.IndexScope, Property.Dynamic);
+
     /**
      * Determines a balance between file-based and operations-based peer recoveries. The number of operations that will be used in an
      * operations-based peer recovery is limited to this proportion of the total number of documents in the shard (including deleted
@@ -413,6 +427,7 @@ public final class IndexSettings {
     private final IndexScopedSettings scopedSettings;
     private long gcDeletesInMillis = DEFAULT_GC_DELETES.millis();
     private final boolean softDeleteEnabled;
+    private final boolean appendOnly;
     private volatile long softDeleteRetentionOperations;
 
     private volatile long retentionLeaseMillis;
@@ -445,6 +460,7 @@ public final class IndexSettings {
     private volatile String defaultPipeline;
     private volatile String requiredPipeline;
     private volatile boolean searchThrottled;
+    private volatile boolean concurrentSegmentSearch;
 
     /**
      * The maximum number of refresh listeners allows on this shard.
@@ -529,6 +545,7 @@ public final class IndexSettings {
         numberOfShards = settings.getAsInt(IndexMetaData.SETTING_NUMBER_OF_SHARDS, null);
 
         this.searchThrottled = INDEX_SEARCH_THROTTLED.get(settings);
+        this.concurrentSegmentSearch = INDEX_CONCURRENT_SEGMENT_SEARCH_SETTING.get(settings);
         this.queryStringLenient = QUERY_STRING_LENIENT_SETTING.get(settings);
         this.queryStringAnalyzeWildcard = QUERY_STRING_ANALYZE_WILDCARD.get(nodeSettings);
         this.queryStringAllowLeadingWildcard = QUERY_STRING_ALLOW_LEADING_WILDCARD.get(nodeSettings);
@@ -543,6 +560,7 @@ public final class IndexSettings {
         mergeSchedulerConfig = new MergeSchedulerConfig(this);
         gcDeletesInMillis = scopedSettings.get(INDEX_GC_DELETES_SETTING).getMillis();
         softDeleteEnabled = scopedSettings.get(INDEX_SOFT_DELETES_SETTING);
+        appendOnly = scopedSettings.get(INDEX_APPEND_ONLY_SETTING);
         softDeleteRetentionOperations = scopedSettings.get(INDEX_SOFT_DELETES_RETENTION_OPERATIONS_SETTING);
         retentionLeaseMillis = scopedSettings.get(INDEX_SOFT_DELETES_RETENTION_LEASE_PERIOD_SETTING).millis();
         warmerEnabled = scopedSettings.get(INDEX_WARMER_ENABLED_SETTING);
@@ -616,6 +634,7 @@ public final class IndexSettings {
         scopedSettings.addSettingsUpdateConsumer(REQUIRED_PIPELINE, this::setRequiredPipeline);
         scopedSettings.addSettingsUpdateConsumer(INDEX_SOFT_DELETES_RETENTION_OPERATIONS_SETTING, this::setSoftDeleteRetentionOperations);
         scopedSettings.addSettingsUpdateConsumer(INDEX_SEARCH_THROTTLED, this::setSearchThrottled);
+        scopedSettings.addSettingsUpdateConsumer(INDEX_CONCURRENT_SEGMENT_SEARCH_SETTING, this::setConcurrentSegmentSearch);
         scopedSettings.addSettingsUpdateConsumer(INDEX_SOFT_DELETES_RETENTION_LEASE_PERIOD_SETTING, this::setRetentionLeaseMillis);
     }
 
@@ -1056,6 +1075,13 @@ public final class IndexSettings {
         return softDeleteEnabled;
     }
 
+    /**
+     * Returns <code>true</code> if the index only accepts new documents with auto-generated ids.
+     */
+    public boolean isAppendOnly() {
+        return appendOnly;
+    }
+
     private void setSoftDeleteRetentionOperations(long ops) {
         this.softDeleteRetentionOperations = ops;
     }
@@ -1078,4 +1104,15 @@ public final class IndexSettings {
     private void setSearchThrottled(boolean searchThrottled) {
         this.searchThrottled = searchThrottled;
     }
+
+    /**
+     * Returns true if the query phase may search slices of the segments of this index concurrently
+     */
+    public boolean isConcurrentSegmentSearch() {
+        return concurrentSegmentSearch;
+    }
+
+    private void setConcurrentSegmentSearch(boolean concurrentSegmentSearch) {
+        this.concurrentSegmentSearch = concurrentSegmentSearch;
+    }
 }
@@ -167,6 +167,8 @@ public class InternalEngine extends Engine {
     private final CounterMetric numDocUpdates = new CounterMetric();
     private final NumericDocValuesField softDeletesField = Lucene.newSoftDeletesField();
     private final boolean softDeleteEnabled;
+    // append-only indices never maintain the live version map, see IndexSettings#INDEX_APPEND_ONLY_SETTING
+    private final boolean appendOnly;
     private final SoftDeletesPolicy softDeletesPolicy;
     private final LastRefreshedCheckpointListener lastRefreshedCheckpointListener;
 
@@ -185,6 +187,7 @@ public class InternalEngine extends Engine {
             final EngineConfig engineConfig,
             final BiFunction<Long, Long, LocalCheckpointTracker> localCheckpointTrackerSupplier) {
         super(engineConfig);
+        this.appendOnly = engineConfig.getIndexSettings().isAppendOnly();
         final TranslogDeletionPolicy translogDeletionPolicy = new TranslogDeletionPolicy(
                 engineConfig.getIndexSettings().getTranslogRetentionSize().getBytes(),
                 engineConfig.getIndexSettings().getTranslogRetentionAge().getMillis(),
@@ -673,6 +676,9 @@ public class InternalEngine extends Engine {
                     }
                     assert versionValue.seqNo >= 0 : versionValue;
                     refreshIfNeeded("realtime_get", versionValue.seqNo);
+                } else if (appendOnly) {
+                    // without a version map we don't know whether the document is pending a refresh
+                    refreshIfNeeded("realtime_get", localCheckpointTracker.getProcessedCheckpoint());
                 }
                 scope = SearcherScope.INTERNAL;
             } else {
@@ -923,7 +929,7 @@ public class InternalEngine extends Engine {
                     }
                     indexResult.setTranslogLocation(location);
                 }
-                if (plan.indexIntoLucene && indexResult.getResultType() == Result.Type.SUCCESS) {
+                if (plan.indexIntoLucene && indexResult.getResultType() == Result.Type.SUCCESS && appendOnly == false) {
                     final Translog.Location translogLocation = trackTranslogLocation.get() ? indexResult.getTranslogLocation() : null;
                     versionMap.maybePutIndexUnderLock(index.uid().bytes(),
                         new IndexVersionValue(translogLocation, plan.versionForIndexing, index.seqNo(), index.primaryTerm()));
@@ -955,9 +961,7 @@ public class InternalEngine extends Engine {
     protected final IndexingStrategy planIndexingAsNonPrimary(Index index) throws IOException {
         assert assertNonPrimaryOrigin(index);
         // needs to maintain the auto_id timestamp in case this replica becomes primary
-        if (canOptimizeAddDocument(index)) {
-            mayHaveBeenIndexedBefore(index);
-        }
+        final boolean mayHaveBeenIndexedBefore = canOptimizeAddDocument(index) == false || mayHaveBeenIndexedBefore(index);
         final IndexingStrategy plan;
         // unlike the primary, replicas don't really care to about creation status of documents
         // this allows to ignore the case where a document was found in the live version maps in
@@ -976,8 +980,16 @@ public class InternalEngine extends Engine {
             // see Engine#getMaxSeqNoOfUpdatesOrDeletes for the explanation of the optimization using sequence numbers
             assert maxSeqNoOfUpdatesOrDeletes < index.seqNo() : index.seqNo() + ">=" + maxSeqNoOfUpdatesOrDeletes;
             plan = IndexingStrategy.optimizedAppendOnly(index.version());
+        } else if (appendOnly && mayHaveBeenIndexedBefore == false) {
+            // the first delivery of an auto-generated id that no retry has been seen for can't exist yet; retries and
+            // out of order deliveries still compare seq_no below as a newer copy of the document may already be indexed
+            plan = IndexingStrategy.optimizedAppendOnly(index.version());
         } else {
             versionMap.enforceSafeAccess();
+            if (appendOnly) {
+                // the version map isn't maintained, make sure all documents indexed so far are visible to the lookup
+                refreshIfNeeded("load_seq_no", localCheckpointTracker.getMaxSeqNo());
+            }
             final OpVsLuceneDocStatus opVsLucene = compareOpToLuceneDocBasedOnSeqNo(index);
             if (opVsLucene == OpVsLuceneDocStatus.OP_STALE_OR_EQUAL) {
                 plan = IndexingStrategy.processAsStaleOp(softDeleteEnabled, index.version());
@@ -1004,6 +1016,9 @@ public class InternalEngine extends Engine {
         final boolean canOptimizeAddDocument = canOptimizeAddDocument(index);
         if (canOptimizeAddDocument && mayHaveBeenIndexedBefore(index) == false) {
             plan = IndexingStrategy.optimizedAppendOnly(1L);
+        } else if (canOptimizeAddDocument && appendOnly) {
+            // a retried auto-generated id can only exist as an identical copy, replace it without resolving its version
+            plan = IndexingStrategy.overwriteWithoutLookup(1L);
         } else {
             versionMap.enforceSafeAccess();
             // resolves incoming version
@@ -1182,6 +1197,10 @@ public class InternalEngine extends Engine {
                 Versions.NOT_FOUND, result);
         }
 
+        static IndexingStrategy overwriteWithoutLookup(long versionForIndexing) {
+            return new IndexingStrategy(true, true, true, false, versionForIndexing, null);
+        }
+
         static IndexingStrategy processNormally(boolean currentNotFoundOrDeleted,
                                                 long versionForIndexing) {
             return new IndexingStrategy(currentNotFoundOrDeleted, currentNotFoundOrDeleted == false,
@@ -2820,6 +2839,9 @@ public class InternalEngine extends Engine {
                 final long seqNo = dv.docSeqNo(docId);
                 localCheckpointTracker.markSeqNoAsProcessed(seqNo);
                 localCheckpointTracker.markSeqNoAsPersisted(seqNo);
+                if (appendOnly) {
+                    continue;
+                }
                 idFieldVisitor.reset();
                 leaf.reader().document(docId, idFieldVisitor);
                 if (idFieldVisitor.getId() == null) {
@@ -96,6 +96,10 @@ public interface IndexFieldData<FD extends AtomicFieldData> extends IndexCompone
             return this.sortMode;
         }
 
+        public Object missingValue() {
+            return this.missingValue;
+        }
+
         public Nested nested() {
             return this.nested;
         }
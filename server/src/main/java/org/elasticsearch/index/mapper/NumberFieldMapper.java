@@ -30,15 +30,19 @@ import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.document.StoredField;
 import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.PointValues;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BoostQuery;
 import org.apache.lucene.search.DocValuesFieldExistsQuery;
 import org.apache.lucene.search.IndexOrDocValuesQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PointRangeQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FutureArrays;
 import org.apache.lucene.util.NumericUtils;
 import org.elasticsearch.common.Explicit;
 import org.elasticsearch.common.Numbers;
@@ -46,6 +50,7 @@ import org.elasticsearch.common.lucene.search.Queries;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.time.DateMathParser;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentParser.Token;
@@ -53,6 +58,7 @@ import org.elasticsearch.common.xcontent.support.XContentMapValues;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.fielddata.IndexNumericFieldData.NumericType;
 import org.elasticsearch.index.fielddata.plain.DocValuesIndexFieldData;
+import org.elasticsearch.index.query.QueryRewriteContext;
 import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.search.DocValueFormat;
 
@@ -948,6 +954,39 @@ public class NumberFieldMapper extends FieldMapper {
             return query;
         }
 
+        @Override
+        public Relation isFieldWithinQuery(IndexReader reader, Object from, Object to, boolean includeLower, boolean includeUpper,
+                                           ZoneId timeZone, DateMathParser dateMathParser, QueryRewriteContext context) throws IOException {
+            if (indexOptions() == IndexOptions.NONE) {
+                return Relation.INTERSECTS;
+            }
+            // the points query resolves the inclusive bounds of the range like the range query
+            final Query query = type.rangeQuery(name(), from, to, includeLower, includeUpper, false);
+            if (query instanceof MatchNoDocsQuery) {
+                return Relation.DISJOINT;
+            } else if (query instanceof PointRangeQuery == false) {
+                return Relation.INTERSECTS;
+            }
+            if (PointValues.size(reader, name()) == 0) {
+                // no points, so nothing matches
+                return Relation.DISJOINT;
+            }
+            final byte[] lowerPoint = ((PointRangeQuery) query).getLowerPoint();
+            final byte[] upperPoint = ((PointRangeQuery) query).getUpperPoint();
+            final byte[] minPackedValue = PointValues.getMinPackedValue(reader, name());
+            final byte[] maxPackedValue = PointValues.getMaxPackedValue(reader, name());
+            final int bytesPerDim = lowerPoint.length;
+            if (FutureArrays.compareUnsigned(minPackedValue, 0, bytesPerDim, lowerPoint, 0, bytesPerDim) >= 0
+                    && FutureArrays.compareUnsigned(maxPackedValue, 0, bytesPerDim, upperPoint, 0, bytesPerDim) <= 0) {
+                return Relation.WITHIN;
+            } else if (FutureArrays.compareUnsigned(maxPackedValue, 0, bytesPerDim, lowerPoint, 0, bytesPerDim) < 0
+                    || FutureArrays.compareUnsigned(minPackedValue, 0, bytesPerDim, upperPoint, 0, bytesPerDim) > 0) {
+                return Relation.DISJOINT;
+            } else {
+                return Relation.INTERSECTS;
+            }
+        }
+
         @Override
         public IndexFieldData.Builder fielddataBuilder(String fullyQualifiedIndexName) {
             failIfNoDocValues();
@@ -86,6 +86,7 @@ public class QueryShardContext extends QueryRewriteContext {
     private final int shardId;
     private final IndexSearcher searcher;
     private boolean cacheable = true;
+    private boolean usesScripts = false;
     private final SetOnce<Boolean> frozen = new SetOnce<>();
 
     private final Index fullyQualifiedIndex;
@@ -330,9 +331,19 @@ public class QueryShardContext extends QueryRewriteContext {
     /** Return the script service to allow compiling scripts. */
     public final ScriptService getScriptService() {
         failIfFrozen();
+        usesScripts = true;
         return scriptService;
     }
 
+    /**
+     * Returns <code>true</code> if scripts may have been compiled with this context, for instance for a script query, a script sort or
+     * a script based values source. Compiled scripts share the {@link SearchLookup} of this context, so documents can't be read
+     * concurrently by the scripts of a request.
+     */
+    public final boolean usesScripts() {
+        return usesScripts;
+    }
+
     /**
      * if this method is called the query context will throw exception if methods are accessed
      * that could yield different results across executions like {@link #getClient()}
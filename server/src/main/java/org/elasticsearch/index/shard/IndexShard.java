@@ -45,6 +45,7 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.indices.flush.FlushRequest;
 import org.elasticsearch.action.admin.indices.forcemerge.ForceMergeRequest;
 import org.elasticsearch.action.admin.indices.upgrade.post.UpgradeRequest;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.support.replication.ReplicationResponse;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.MappingMetaData;
@@ -53,6 +54,7 @@ import org.elasticsearch.cluster.routing.RecoverySource;
 import org.elasticsearch.cluster.routing.RecoverySource.SnapshotRecoverySource;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.common.Booleans;
+import org.elasticsearch.common.CheckedConsumer;
 import org.elasticsearch.common.CheckedFunction;
 import org.elasticsearch.common.CheckedRunnable;
 import org.elasticsearch.common.Nullable;
@@ -130,6 +132,7 @@ import org.elasticsearch.index.store.StoreStats;
 import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.index.translog.TranslogConfig;
 import org.elasticsearch.index.translog.TranslogStats;
+import org.elasticsearch.index.translog.TranslogSyncCoordinator;
 import org.elasticsearch.index.warmer.ShardIndexWarmerService;
 import org.elasticsearch.index.warmer.WarmerStats;
 import org.elasticsearch.indices.IndexingMemoryController;
@@ -174,6 +177,7 @@ import java.util.function.Function;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import static org.elasticsearch.index.seqno.RetentionLeaseActions.RETAIN_ALL;
@@ -286,7 +290,8 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
             final List<IndexingOperationListener> listeners,
             final Runnable globalCheckpointSyncer,
             final RetentionLeaseSyncer retentionLeaseSyncer,
-            final CircuitBreakerService circuitBreakerService) throws IOException {
+            final CircuitBreakerService circuitBreakerService,
+            final @Nullable TranslogSyncCoordinator translogSyncCoordinator) throws IOException {
         super(shardRouting.shardId(), indexSettings);
         assert shardRouting.initializing();
         this.shardRouting = shardRouting;
@@ -300,7 +305,9 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         this.indexSortSupplier = indexSortSupplier;
         this.indexEventListener = indexEventListener;
         this.threadPool = threadPool;
-        this.translogSyncProcessor = createTranslogSyncProcessor(logger, threadPool.getThreadContext(), this::getEngine);
+        this.translogSyncer = createTranslogSyncer(logger, this::getEngine);
+        this.translogSyncProcessor = createTranslogSyncProcessor(logger, threadPool.getThreadContext(), translogSyncer);
+        this.translogSyncCoordinator = translogSyncCoordinator;
         this.mapperService = mapperService;
         this.indexCache = indexCache;
         this.internalIndexingStats = new InternalIndexingStats();
@@ -720,6 +727,9 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
                                                            boolean isRetry)
         throws IOException {
         assert versionType.validateVersionForWrites(version);
+        if (indexSettings.isAppendOnly() && autoGeneratedTimestamp == IndexRequest.UNSET_AUTO_GENERATED_TIMESTAMP) {
+            return new Engine.IndexResult(appendOnlyViolation("documents with explicit ids"), version);
+        }
         return applyIndexOperation(getEngine(), UNASSIGNED_SEQ_NO, getOperationPrimaryTerm(), version, versionType, ifSeqNo,
             ifPrimaryTerm, autoGeneratedTimestamp, isRetry, Engine.Operation.Origin.PRIMARY, sourceToParse);
     }
@@ -758,6 +768,20 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         return index(engine, operation);
     }
 
+    /**
+     * Parses the given source against the current mapping of this shard without indexing it and returns the dynamic mapping
+     * update that indexing it would require, or {@code null} if the current mapping already covers the document.
+     */
+    @Nullable
+    public Mapping parseDynamicMappingsUpdate(SourceToParse sourceToParse) {
+        final DocumentMapperForType docMapper = docMapper();
+        final ParsedDocument doc = docMapper.getDocumentMapper().parse(sourceToParse);
+        if (docMapper.getMapping() != null) {
+            doc.addDynamicMappingsUpdate(docMapper.getMapping());
+        }
+        return doc.dynamicMappingsUpdate();
+    }
+
     public static Engine.Index prepareIndex(DocumentMapperForType docMapper, SourceToParse source, long seqNo,
                                             long primaryTerm, long version, VersionType versionType, Engine.Operation.Origin origin,
                                             long autoGeneratedIdTimestamp, boolean isRetry,
@@ -839,10 +863,18 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
                                                              long ifSeqNo, long ifPrimaryTerm)
         throws IOException {
         assert versionType.validateVersionForWrites(version);
+        if (indexSettings.isAppendOnly()) {
+            return getFailedDeleteResult(appendOnlyViolation("deletes"), version);
+        }
         return applyDeleteOperation(getEngine(), UNASSIGNED_SEQ_NO, getOperationPrimaryTerm(), version, id, versionType,
             ifSeqNo, ifPrimaryTerm, Engine.Operation.Origin.PRIMARY);
     }
 
+    private IllegalArgumentException appendOnlyViolation(String operation) {
+        return new IllegalArgumentException("index [" + shardId.getIndexName() + "] is append-only ["
+            + IndexSettings.INDEX_APPEND_ONLY_SETTING.getKey() + "] and does not accept " + operation);
+    }
+
     public Engine.DeleteResult applyDeleteOperationOnReplica(long seqNo, long version, String id) throws IOException {
         return applyDeleteOperation(
             getEngine(), seqNo, getOperationPrimaryTerm(), version, id, null, UNASSIGNED_SEQ_NO, 0, Engine.Operation.Origin.REPLICA);
@@ -962,7 +994,7 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
             throttled = engine.isThrottled();
             throttleTimeInMillis = engine.getIndexThrottleTimeInMillis();
         }
-        return internalIndexingStats.stats(throttled, throttleTimeInMillis);
+        return internalIndexingStats.stats(throttled, throttleTimeInMillis, getIndexBufferRAMBytesUsed(), getWritingBytes());
     }
 
     public SearchStats searchStats(String... groups) {
@@ -1979,6 +2011,7 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
     public void writeIndexingBuffer() {
         try {
             Engine engine = getEngine();
+            internalIndexingStats.indexBufferWrite();
             engine.writeIndexingBuffer();
         } catch (Exception e) {
             handleRefreshException(e);
@@ -2977,22 +3010,33 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         return indexShardOperationPermits.getActiveOperations();
     }
 
+    private final CheckedConsumer<Stream<Translog.Location>, IOException> translogSyncer;
     private final AsyncIOProcessor<Translog.Location> translogSyncProcessor;
+    @Nullable
+    private final TranslogSyncCoordinator translogSyncCoordinator;
+
+    private static CheckedConsumer<Stream<Translog.Location>, IOException> createTranslogSyncer(Logger logger,
+                                                                                                Supplier<Engine> engineSupplier) {
+        return locations -> {
+            try {
+                engineSupplier.get().ensureTranslogSynced(locations);
+            } catch (AlreadyClosedException ex) {
+                // that's fine since we already synced everything on engine close - this also is conform with the methods
+                // documentation
+            } catch (IOException ex) { // if this fails we are in deep shit - fail the request
+                logger.debug("failed to sync translog", ex);
+                throw ex;
+            }
+        };
+    }
 
     private static AsyncIOProcessor<Translog.Location> createTranslogSyncProcessor(Logger logger, ThreadContext threadContext,
-                                                                                   Supplier<Engine> engineSupplier) {
+                                                                                   CheckedConsumer<Stream<Translog.Location>,
+                                                                                       IOException> translogSyncer) {
         return new AsyncIOProcessor<>(logger, 1024, threadContext) {
             @Override
             protected void write(List<Tuple<Translog.Location, Consumer<Exception>>> candidates) throws IOException {
-                try {
-                    engineSupplier.get().ensureTranslogSynced(candidates.stream().map(Tuple::v1));
-                } catch (AlreadyClosedException ex) {
-                    // that's fine since we already synced everything on engine close - this also is conform with the methods
-                    // documentation
-                } catch (IOException ex) { // if this fails we are in deep shit - fail the request
-                    logger.debug("failed to sync translog", ex);
-                    throw ex;
-                }
+                translogSyncer.accept(candidates.stream().map(Tuple::v1));
             }
         };
     }
@@ -3005,10 +3049,16 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
      * one thread blocking on the sync an all others can continue indexing.
      * NOTE: if the syncListener throws an exception when it's processed the exception will only be logged. Users should make sure that the
      * listener handles all exception cases internally.
+     * If a {@link TranslogSyncCoordinator} is configured the location is synced as part of the next sync wave of all shards on the
+     * same data path instead.
      */
     public final void sync(Translog.Location location, Consumer<Exception> syncListener) {
         verifyNotClosed();
-        translogSyncProcessor.put(location, syncListener);
+        if (translogSyncCoordinator != null) {
+            translogSyncCoordinator.sync(path.getRootDataPath(), location, translogSyncer, syncListener);
+        } else {
+            translogSyncProcessor.put(location, syncListener);
+        }
     }
 
     public void sync() throws IOException {
@@ -23,6 +23,7 @@ import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.ToXContentFragment;
@@ -46,6 +47,9 @@ public class IndexingStats implements Writeable, ToXContentFragment {
         private long noopUpdateCount;
         private long throttleTimeInMillis;
         private boolean isThrottled;
+        private long indexBufferBytes;
+        private long indexBufferWritingBytes;
+        private long indexBufferWriteCount;
 
         Stats() {}
 
@@ -60,10 +64,22 @@ public class IndexingStats implements Writeable, ToXContentFragment {
             noopUpdateCount = in.readVLong();
             isThrottled = in.readBoolean();
             throttleTimeInMillis = in.readLong();
+            if (in.getVersion().onOrAfter(Version.V_8_0_0)) {
+                indexBufferBytes = in.readVLong();
+                indexBufferWritingBytes = in.readVLong();
+                indexBufferWriteCount = in.readVLong();
+            }
         }
 
         public Stats(long indexCount, long indexTimeInMillis, long indexCurrent, long indexFailedCount, long deleteCount,
                         long deleteTimeInMillis, long deleteCurrent, long noopUpdateCount, boolean isThrottled, long throttleTimeInMillis) {
+            this(indexCount, indexTimeInMillis, indexCurrent, indexFailedCount, deleteCount, deleteTimeInMillis, deleteCurrent,
+                noopUpdateCount, isThrottled, throttleTimeInMillis, 0, 0, 0);
+        }
+
+        public Stats(long indexCount, long indexTimeInMillis, long indexCurrent, long indexFailedCount, long deleteCount,
+                     long deleteTimeInMillis, long deleteCurrent, long noopUpdateCount, boolean isThrottled, long throttleTimeInMillis,
+                     long indexBufferBytes, long indexBufferWritingBytes, long indexBufferWriteCount) {
             this.indexCount = indexCount;
             this.indexTimeInMillis = indexTimeInMillis;
             this.indexCurrent = indexCurrent;
@@ -74,6 +90,9 @@ public class IndexingStats implements Writeable, ToXContentFragment {
             this.noopUpdateCount = noopUpdateCount;
             this.isThrottled = isThrottled;
             this.throttleTimeInMillis = throttleTimeInMillis;
+            this.indexBufferBytes = indexBufferBytes;
+            this.indexBufferWritingBytes = indexBufferWritingBytes;
+            this.indexBufferWriteCount = indexBufferWriteCount;
         }
 
         public void add(Stats stats) {
@@ -91,6 +110,10 @@ public class IndexingStats implements Writeable, ToXContentFragment {
             if (isThrottled != stats.isThrottled) {
                 isThrottled = true; //When combining if one is throttled set result to throttled.
             }
+
+            indexBufferBytes += stats.indexBufferBytes;
+            indexBufferWritingBytes += stats.indexBufferWritingBytes;
+            indexBufferWriteCount += stats.indexBufferWriteCount;
         }
 
         /**
@@ -146,6 +169,27 @@ public class IndexingStats implements Writeable, ToXContentFragment {
             return noopUpdateCount;
         }
 
+        /**
+         * Returns the heap bytes used by the indexing buffer
+         */
+        public ByteSizeValue getIndexBufferSize() {
+            return new ByteSizeValue(indexBufferBytes);
+        }
+
+        /**
+         * Returns the heap bytes of the indexing buffer that are currently moving to disk
+         */
+        public ByteSizeValue getIndexBufferWritingSize() {
+            return new ByteSizeValue(indexBufferWritingBytes);
+        }
+
+        /**
+         * Returns the number of times the indexing buffer was written to disk to free up heap
+         */
+        public long getIndexBufferWriteCount() {
+            return indexBufferWriteCount;
+        }
+
         @Override
         public void writeTo(StreamOutput out) throws IOException {
             out.writeVLong(indexCount);
@@ -158,7 +202,11 @@ public class IndexingStats implements Writeable, ToXContentFragment {
             out.writeVLong(noopUpdateCount);
             out.writeBoolean(isThrottled);
             out.writeLong(throttleTimeInMillis);
-
+            if (out.getVersion().onOrAfter(Version.V_8_0_0)) {
+                out.writeVLong(indexBufferBytes);
+                out.writeVLong(indexBufferWritingBytes);
+                out.writeVLong(indexBufferWriteCount);
+            }
         }
 
         @Override
@@ -176,6 +224,11 @@ public class IndexingStats implements Writeable, ToXContentFragment {
 
             builder.field(Fields.IS_THROTTLED, isThrottled);
             builder.humanReadableField(Fields.THROTTLED_TIME_IN_MILLIS, Fields.THROTTLED_TIME, getThrottleTime());
+
+            builder.humanReadableField(Fields.INDEX_BUFFER_SIZE_IN_BYTES, Fields.INDEX_BUFFER_SIZE, getIndexBufferSize());
+            builder.humanReadableField(Fields.INDEX_BUFFER_WRITING_SIZE_IN_BYTES, Fields.INDEX_BUFFER_WRITING_SIZE,
+                getIndexBufferWritingSize());
+            builder.field(Fields.INDEX_BUFFER_WRITE_TOTAL, indexBufferWriteCount);
             return builder;
         }
     }
@@ -242,6 +295,11 @@ public class IndexingStats implements Writeable, ToXContentFragment {
         static final String IS_THROTTLED = "is_throttled";
         static final String THROTTLED_TIME_IN_MILLIS = "throttle_time_in_millis";
         static final String THROTTLED_TIME = "throttle_time";
+        static final String INDEX_BUFFER_SIZE = "index_buffer_size";
+        static final String INDEX_BUFFER_SIZE_IN_BYTES = "index_buffer_size_in_bytes";
+        static final String INDEX_BUFFER_WRITING_SIZE = "index_buffer_writing_size";
+        static final String INDEX_BUFFER_WRITING_SIZE_IN_BYTES = "index_buffer_writing_size_in_bytes";
+        static final String INDEX_BUFFER_WRITE_TOTAL = "index_buffer_write_total";
     }
 
     @Override
@@ -38,8 +38,8 @@ final class InternalIndexingStats implements IndexingOperationListener {
      * is returned for them. If they are set, then only types provided will be returned, or
      * {@code _all} for all types.
      */
-    IndexingStats stats(boolean isThrottled, long currentThrottleInMillis) {
-        IndexingStats.Stats total = totalStats.stats(isThrottled, currentThrottleInMillis);
+    IndexingStats stats(boolean isThrottled, long currentThrottleInMillis, long indexBufferBytes, long indexBufferWritingBytes) {
+        IndexingStats.Stats total = totalStats.stats(isThrottled, currentThrottleInMillis, indexBufferBytes, indexBufferWritingBytes);
         return new IndexingStats(total);
     }
 
@@ -115,6 +115,10 @@ final class InternalIndexingStats implements IndexingOperationListener {
         totalStats.noopUpdates.inc();
     }
 
+    void indexBufferWrite() {
+        totalStats.indexBufferWrites.inc();
+    }
+
     static class StatsHolder {
         private final MeanMetric indexMetric = new MeanMetric();
         private final MeanMetric deleteMetric = new MeanMetric();
@@ -122,12 +126,14 @@ final class InternalIndexingStats implements IndexingOperationListener {
         private final CounterMetric indexFailed = new CounterMetric();
         private final CounterMetric deleteCurrent = new CounterMetric();
         private final CounterMetric noopUpdates = new CounterMetric();
+        private final CounterMetric indexBufferWrites = new CounterMetric();
 
-        IndexingStats.Stats stats(boolean isThrottled, long currentThrottleMillis) {
+        IndexingStats.Stats stats(boolean isThrottled, long currentThrottleMillis, long indexBufferBytes, long indexBufferWritingBytes) {
             return new IndexingStats.Stats(
                 indexMetric.count(), TimeUnit.NANOSECONDS.toMillis(indexMetric.sum()), indexCurrent.count(), indexFailed.count(),
                 deleteMetric.count(), TimeUnit.NANOSECONDS.toMillis(deleteMetric.sum()), deleteCurrent.count(),
-                noopUpdates.count(), isThrottled, TimeUnit.MILLISECONDS.toMillis(currentThrottleMillis));
+                noopUpdates.count(), isThrottled, TimeUnit.MILLISECONDS.toMillis(currentThrottleMillis),
+                indexBufferBytes, indexBufferWritingBytes, indexBufferWrites.count());
         }
     }
 }
@@ -21,6 +21,7 @@ package org.elasticsearch.index.shard;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.search.internal.ReaderContext;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.transport.TransportRequest;
 
@@ -114,6 +115,27 @@ public interface SearchOperationListener {
      */
     default void validateSearchContext(SearchContext context, TransportRequest transportRequest) {}
 
+    /**
+     * Executed when a new point in time {@link ReaderContext} was created
+     * @param readerContext the created reader context
+     */
+    default void onNewReaderContext(ReaderContext readerContext) {}
+
+    /**
+     * Executed when a point in time {@link ReaderContext} is freed, either explicitly or because it was idle for longer than
+     * its keep-alive.
+     * @param readerContext the freed reader context
+     */
+    default void onFreeReaderContext(ReaderContext readerContext) {}
+
+    /**
+     * Executed prior to using a {@link ReaderContext} that has been retrieved from the active readers. If the reader context is
+     * deemed invalid a runtime exception can be thrown, which will prevent the reader context from being used.
+     * @param readerContext the reader context retrieved from the active readers
+     * @param transportRequest the request that is going to use the reader context
+     */
+    default void validateReaderContext(ReaderContext readerContext, TransportRequest transportRequest) {}
+
     /**
      * A Composite listener that multiplexes calls to each of the listeners methods.
      */
@@ -248,5 +270,40 @@ public interface SearchOperationListener {
             }
             ExceptionsHelper.reThrowIfNotNull(exception);
         }
+
+        @Override
+        public void onNewReaderContext(ReaderContext readerContext) {
+            for (SearchOperationListener listener : listeners) {
+                try {
+                    listener.onNewReaderContext(readerContext);
+                } catch (Exception e) {
+                    logger.warn(() -> new ParameterizedMessage("onNewReaderContext listener [{}] failed", listener), e);
+                }
+            }
+        }
+
+        @Override
+        public void onFreeReaderContext(ReaderContext readerContext) {
+            for (SearchOperationListener listener : listeners) {
+                try {
+                    listener.onFreeReaderContext(readerContext);
+                } catch (Exception e) {
+                    logger.warn(() -> new ParameterizedMessage("onFreeReaderContext listener [{}] failed", listener), e);
+                }
+            }
+        }
+
+        @Override
+        public void validateReaderContext(ReaderContext readerContext, TransportRequest request) {
+            Exception exception = null;
+            for (SearchOperationListener listener : listeners) {
+                try {
+                    listener.validateReaderContext(readerContext, request);
+                } catch (Exception e) {
+                    exception = ExceptionsHelper.useOrSuppress(exception, e);
+                }
+            }
+            ExceptionsHelper.reThrowIfNotNull(exception);
+        }
     }
 }
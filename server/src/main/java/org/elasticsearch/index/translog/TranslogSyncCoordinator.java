@@ -0,0 +1,255 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.translog;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.metrics.MeanMetric;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.AsyncIOProcessor;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Node level coordinator that groups the translog sync requests of all shards that live on the same data path. Instead of every shard
+ * running its own fsync loop, the pending requests of all shards on a data path are drained together into a single sync wave: each
+ * shard that has pending locations is synced once up to its highest requested location and all waiting listeners are notified
+ * afterwards. Like the per shard processor, the thread that finds no wave in progress is hijacked to run the wave while all other
+ * threads just enqueue their requests and continue.
+ */
+public final class TranslogSyncCoordinator {
+
+    private static final Logger logger = LogManager.getLogger(TranslogSyncCoordinator.class);
+
+    /**
+     * Whether translog syncs of shards sharing a data path are grouped into node level sync waves.
+     */
+    public static final Setting<Boolean> GROUP_SYNC_ENABLED_SETTING =
+        Setting.boolSetting("indices.translog.group_sync.enabled", false, Property.NodeScope);
+
+    // requests of all shards on a data path share a queue, so allow for more pending entries than a single shard does
+    private static final int QUEUE_SIZE = 4096;
+
+    private final ThreadContext threadContext;
+    private final ConcurrentMap<Path, AsyncIOProcessor<SyncRequest>> processors = ConcurrentCollections.newConcurrentMap();
+    private final MeanMetric waves = new MeanMetric();
+    private final CounterMetric shardSyncs = new CounterMetric();
+    private final CounterMetric waitTimeInNanos = new CounterMetric();
+    private final CounterMetric syncTimeInNanos = new CounterMetric();
+
+    public TranslogSyncCoordinator(ThreadContext threadContext) {
+        this.threadContext = threadContext;
+    }
+
+    /**
+     * Syncs the given location of a shard's translog unless already synced. The syncer is invoked with all locations of the shard that
+     * are pending when the next wave on the given data path runs and must ensure the translog is synced up to the highest of them. A
+     * failing syncer only fails the listeners of its own shard.
+     *
+     * @param dataPath     the data path the shard's translog lives on
+     * @param location     the location to sync
+     * @param syncer       the shard's syncer, the same instance must be passed for every request of a shard
+     * @param syncListener notified once the location is synced or the sync failed
+     */
+    public void sync(Path dataPath, Translog.Location location, CheckedConsumer<Stream<Translog.Location>, IOException> syncer,
+                     Consumer<Exception> syncListener) {
+        final SyncRequest request = new SyncRequest(syncer, location, System.nanoTime());
+        processors.computeIfAbsent(dataPath, path -> new WaveProcessor(threadContext))
+            .put(request, e -> syncListener.accept(e != null ? e : request.failure));
+    }
+
+    public Stats stats() {
+        return new Stats(waves.count(), waves.sum(), shardSyncs.count(), TimeUnit.NANOSECONDS.toMillis(waitTimeInNanos.count()),
+            TimeUnit.NANOSECONDS.toMillis(syncTimeInNanos.count()));
+    }
+
+    private static final class SyncRequest {
+        private final CheckedConsumer<Stream<Translog.Location>, IOException> syncer;
+        private final Translog.Location location;
+        private final long enqueuedNanos;
+        // set by the wave that processed this request, the wave notifies the listener on the same thread
+        private Exception failure;
+
+        SyncRequest(CheckedConsumer<Stream<Translog.Location>, IOException> syncer, Translog.Location location, long enqueuedNanos) {
+            this.syncer = syncer;
+            this.location = location;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    private final class WaveProcessor extends AsyncIOProcessor<SyncRequest> {
+
+        WaveProcessor(ThreadContext threadContext) {
+            super(logger, QUEUE_SIZE, threadContext);
+        }
+
+        @Override
+        protected void write(List<Tuple<SyncRequest, Consumer<Exception>>> candidates) {
+            final long startNanos = System.nanoTime();
+            final Map<CheckedConsumer<Stream<Translog.Location>, IOException>, List<SyncRequest>> byShard = new LinkedHashMap<>();
+            long waitNanos = 0;
+            for (Tuple<SyncRequest, Consumer<Exception>> candidate : candidates) {
+                final SyncRequest request = candidate.v1();
+                waitNanos += startNanos - request.enqueuedNanos;
+                byShard.computeIfAbsent(request.syncer, k -> new ArrayList<>()).add(request);
+            }
+            for (Map.Entry<CheckedConsumer<Stream<Translog.Location>, IOException>, List<SyncRequest>> entry : byShard.entrySet()) {
+                final List<SyncRequest> requests = entry.getValue();
+                try {
+                    entry.getKey().accept(requests.stream().map(request -> request.location));
+                } catch (Exception e) {
+                    logger.debug("failed to sync translog", e);
+                    for (SyncRequest request : requests) {
+                        request.failure = e;
+                    }
+                }
+            }
+            waves.inc(candidates.size());
+            shardSyncs.inc(byShard.size());
+            waitTimeInNanos.inc(waitNanos);
+            syncTimeInNanos.inc(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Statistics about the sync waves run by a {@link TranslogSyncCoordinator}.
+     */
+    public static class Stats implements Writeable, ToXContentFragment {
+
+        private final long waves;
+        private final long requests;
+        private final long shardSyncs;
+        private final long totalWaitTimeInMillis;
+        private final long totalSyncTimeInMillis;
+
+        public Stats(long waves, long requests, long shardSyncs, long totalWaitTimeInMillis, long totalSyncTimeInMillis) {
+            this.waves = waves;
+            this.requests = requests;
+            this.shardSyncs = shardSyncs;
+            this.totalWaitTimeInMillis = totalWaitTimeInMillis;
+            this.totalSyncTimeInMillis = totalSyncTimeInMillis;
+        }
+
+        public Stats(StreamInput in) throws IOException {
+            waves = in.readVLong();
+            requests = in.readVLong();
+            shardSyncs = in.readVLong();
+            totalWaitTimeInMillis = in.readVLong();
+            totalSyncTimeInMillis = in.readVLong();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(waves);
+            out.writeVLong(requests);
+            out.writeVLong(shardSyncs);
+            out.writeVLong(totalWaitTimeInMillis);
+            out.writeVLong(totalSyncTimeInMillis);
+        }
+
+        /**
+         * The number of sync waves that have been run.
+         */
+        public long getWaves() {
+            return waves;
+        }
+
+        /**
+         * The number of sync requests that have been processed by all waves.
+         */
+        public long getRequests() {
+            return requests;
+        }
+
+        /**
+         * The number of per shard translog syncs executed by all waves.
+         */
+        public long getShardSyncs() {
+            return shardSyncs;
+        }
+
+        /**
+         * The average number of sync requests processed by a single wave.
+         */
+        public double getAverageBatchSize() {
+            return waves == 0 ? 0 : requests / (double) waves;
+        }
+
+        /**
+         * The total time sync requests waited for their wave to start.
+         */
+        public TimeValue getTotalWaitTime() {
+            return new TimeValue(totalWaitTimeInMillis);
+        }
+
+        /**
+         * The total time spent syncing translogs in waves.
+         */
+        public TimeValue getTotalSyncTime() {
+            return new TimeValue(totalSyncTimeInMillis);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject(Fields.TRANSLOG_SYNC);
+            builder.field(Fields.WAVES, waves);
+            builder.field(Fields.REQUESTS, requests);
+            builder.field(Fields.SHARD_SYNCS, shardSyncs);
+            builder.field(Fields.AVG_BATCH_SIZE, getAverageBatchSize());
+            builder.humanReadableField(Fields.TOTAL_WAIT_TIME_IN_MILLIS, Fields.TOTAL_WAIT_TIME, getTotalWaitTime());
+            builder.humanReadableField(Fields.TOTAL_SYNC_TIME_IN_MILLIS, Fields.TOTAL_SYNC_TIME, getTotalSyncTime());
+            builder.endObject();
+            return builder;
+        }
+
+        static final class Fields {
+            static final String TRANSLOG_SYNC = "translog_sync";
+            static final String WAVES = "waves";
+            static final String REQUESTS = "requests";
+            static final String SHARD_SYNCS = "shard_syncs";
+            static final String AVG_BATCH_SIZE = "avg_batch_size";
+            static final String TOTAL_WAIT_TIME = "total_wait_time";
+            static final String TOTAL_WAIT_TIME_IN_MILLIS = "total_wait_time_in_millis";
+            static final String TOTAL_SYNC_TIME = "total_sync_time";
+            static final String TOTAL_SYNC_TIME_IN_MILLIS = "total_sync_time_in_millis";
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardState;
@@ -42,8 +43,10 @@ import org.elasticsearch.threadpool.ThreadPool.Names;
 import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
@@ -101,6 +104,9 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
     /** Contains shards currently being throttled because we can't write segments quickly enough */
     private final Set<IndexShard> throttled = new HashSet<>();
 
+    /** Tracks the indexing operations of each shard between two checks, updated as the shards index each operation */
+    private final Map<ShardId, ShardIndexingBuffer> shardIndexingBuffers = ConcurrentCollections.newConcurrentMap();
+
     private final Cancellable scheduler;
 
     private static final EnumSet<IndexShardState> CAN_WRITE_INDEX_BUFFER_STATES = EnumSet.of(
@@ -214,19 +220,56 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
 
     @Override
     public void postIndex(ShardId shardId, Engine.Index index, Engine.IndexResult result) {
-        recordOperationBytes(index, result);
+        recordOperationBytes(shardId, index, result);
     }
 
     @Override
     public void postDelete(ShardId shardId, Engine.Delete delete, Engine.DeleteResult result) {
-        recordOperationBytes(delete, result);
+        recordOperationBytes(shardId, delete, result);
     }
 
     /** called by IndexShard to record estimated bytes written to translog for the operation */
-    private void recordOperationBytes(Engine.Operation operation, Engine.Result result) {
+    private void recordOperationBytes(ShardId shardId, Engine.Operation operation, Engine.Result result) {
         if (result.getResultType() == Engine.Result.Type.SUCCESS) {
-            statusChecker.bytesWritten(operation.estimatedSizeInBytes());
+            final int bytes = operation.estimatedSizeInBytes();
+            ShardIndexingBuffer buffer = shardIndexingBuffers.get(shardId);
+            if (buffer == null) {
+                buffer = shardIndexingBuffers.computeIfAbsent(shardId, k -> new ShardIndexingBuffer());
+            }
+            buffer.bytesSinceCheck.addAndGet(bytes);
+            statusChecker.bytesWritten(bytes);
+        }
+    }
+
+    /**
+     * The indexing buffer of a shard as seen by the checks. The shards record the bytes of their indexing operations as they
+     * index them, which lets the checks skip the idle shards that had nothing buffered at the previous check instead of
+     * polling the engine of every shard of the node.
+     */
+    private static final class ShardIndexingBuffer {
+        /** Estimated bytes of the indexing operations since the last check */
+        final AtomicLong bytesSinceCheck = new AtomicLong();
+        /** Heap bytes used by the indexing buffer at the last check, only accessed under the run lock of the checker */
+        long lastBytesUsed = -1;
+    }
+
+    /**
+     * Returns the heap bytes used by the indexing buffer of this shard. Shards that had an empty buffer at the previous check
+     * and didn't index anything since then still have an empty buffer, so we don't need to ask them.
+     */
+    private long indexBufferBytesUsedSinceLastCheck(IndexShard shard) {
+        ShardIndexingBuffer buffer = shardIndexingBuffers.get(shard.shardId());
+        if (buffer == null) {
+            // first check since this shard was added: it may have a buffer from before, e.g. from recovery, so we ask it
+            buffer = shardIndexingBuffers.computeIfAbsent(shard.shardId(), k -> new ShardIndexingBuffer());
+        }
+        // reset before reading the buffer, so that concurrent operations are seen either by this check or the next one
+        final long bytesSinceCheck = buffer.bytesSinceCheck.getAndSet(0);
+        if (bytesSinceCheck == 0 && buffer.lastBytesUsed == 0) {
+            return 0;
         }
+        buffer.lastBytesUsed = getIndexBufferRAMBytesUsed(shard);
+        return buffer.lastBytesUsed;
     }
 
     private static final class ShardAndBytesUsed implements Comparable<ShardAndBytesUsed> {
@@ -287,6 +330,9 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
         public void run() {
             runLock.lock();
             try {
+                // this check covers all operations indexed so far, so the indexing path only needs to trigger the next check
+                // once enough bytes have been indexed after it
+                bytesWrittenSinceCheck.set(0);
                 runUnlocked();
             } finally {
                 runLock.unlock();
@@ -298,10 +344,14 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
             // again, on schedule
 
             // First pass to sum up how much heap all shards' indexing buffers are using now, and how many bytes they are currently moving
-            // to disk:
+            // to disk, skipping the shards that are known to have an empty buffer:
             long totalBytesUsed = 0;
             long totalBytesWriting = 0;
-            for (IndexShard shard : availableShards()) {
+            final List<IndexShard> availableShards = availableShards();
+            final Set<ShardId> availableShardIds = new HashSet<>();
+            final Map<IndexShard, Long> shardsBytesUsed = new HashMap<>();
+            for (IndexShard shard : availableShards) {
+                availableShardIds.add(shard.shardId());
 
                 // Give shard a chance to transition to inactive so sync'd flush can happen:
                 checkIdle(shard, inactiveTime.nanos());
@@ -310,7 +360,8 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
                 long shardWritingBytes = getShardWritingBytes(shard);
 
                 // How many heap bytes this shard is currently using
-                long shardBytesUsed = getIndexBufferRAMBytesUsed(shard);
+                long shardBytesUsed = indexBufferBytesUsedSinceLastCheck(shard);
+                shardsBytesUsed.put(shard, shardBytesUsed);
 
                 shardBytesUsed -= shardWritingBytes;
                 totalBytesWriting += shardWritingBytes;
@@ -323,6 +374,8 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
 
                 totalBytesUsed += shardBytesUsed;
             }
+            // forget about the shards that were closed or relocated
+            shardIndexingBuffers.keySet().retainAll(availableShardIds);
 
             if (logger.isTraceEnabled()) {
                 logger.trace("total indexing heap bytes used [{}] vs {} [{}], currently writing bytes [{}]",
@@ -338,12 +391,12 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
                 // OK we are now over-budget; fill the priority queue and ask largest shard(s) to refresh:
                 PriorityQueue<ShardAndBytesUsed> queue = new PriorityQueue<>();
 
-                for (IndexShard shard : availableShards()) {
+                for (IndexShard shard : availableShards) {
                     // How many bytes this shard is currently (async'd) moving from heap to disk:
                     long shardWritingBytes = getShardWritingBytes(shard);
 
-                    // How many heap bytes this shard is currently using
-                    long shardBytesUsed = getIndexBufferRAMBytesUsed(shard);
+                    // How many heap bytes this shard was using in the first pass
+                    long shardBytesUsed = shardsBytesUsed.get(shard);
 
                     // Only count up bytes not already being refreshed:
                     shardBytesUsed -= shardWritingBytes;
@@ -109,6 +109,7 @@ import org.elasticsearch.index.shard.IndexShardState;
 import org.elasticsearch.index.shard.IndexingOperationListener;
 import org.elasticsearch.index.shard.IndexingStats;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.translog.TranslogSyncCoordinator;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.indices.cluster.IndicesClusterStateService;
 import org.elasticsearch.indices.fielddata.cache.IndicesFieldDataCache;
@@ -184,6 +185,8 @@ public class IndicesService extends AbstractLifecycleComponent
     private final CacheCleaner cacheCleaner;
     private final ThreadPool threadPool;
     private final CircuitBreakerService circuitBreakerService;
+    @Nullable
+    private final TranslogSyncCoordinator translogSyncCoordinator;
     private final BigArrays bigArrays;
     private final ScriptService scriptService;
     private final ClusterService clusterService;
@@ -234,6 +237,8 @@ public class IndicesService extends AbstractLifecycleComponent
                                                                 () -> Iterables.flatten(this).iterator());
         this.indexScopedSettings = indexScopedSettings;
         this.circuitBreakerService = circuitBreakerService;
+        this.translogSyncCoordinator = TranslogSyncCoordinator.GROUP_SYNC_ENABLED_SETTING.get(settings)
+            ? new TranslogSyncCoordinator(threadPool.getThreadContext()) : null;
         this.bigArrays = bigArrays;
         this.scriptService = scriptService;
         this.clusterService = clusterService;
@@ -358,7 +363,9 @@ public class IndicesService extends AbstractLifecycleComponent
             }
         }
 
-        return new NodeIndicesStats(commonStats, statsByShard(this, flags));
+        final TranslogSyncCoordinator.Stats translogSyncStats =
+            translogSyncCoordinator != null && flags.isSet(CommonStatsFlags.Flag.Translog) ? translogSyncCoordinator.stats() : null;
+        return new NodeIndicesStats(commonStats, statsByShard(this, flags), translogSyncStats);
     }
 
     Map<Index, List<IndexShardStats>> statsByShard(final IndicesService indicesService, final CommonStatsFlags flags) {
@@ -558,7 +565,8 @@ public class IndicesService extends AbstractLifecycleComponent
                 indicesQueryCache,
                 mapperRegistry,
                 indicesFieldDataCache,
-                namedWriteableRegistry
+                namedWriteableRegistry,
+                translogSyncCoordinator
         );
     }
 
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.indices;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.action.admin.indices.stats.CommonStats;
 import org.elasticsearch.action.admin.indices.stats.IndexShardStats;
 import org.elasticsearch.action.admin.indices.stats.ShardStats;
@@ -43,6 +44,7 @@ import org.elasticsearch.index.shard.DocsStats;
 import org.elasticsearch.index.shard.IndexingStats;
 import org.elasticsearch.index.store.StoreStats;
 import org.elasticsearch.index.translog.TranslogStats;
+import org.elasticsearch.index.translog.TranslogSyncCoordinator;
 import org.elasticsearch.index.warmer.WarmerStats;
 import org.elasticsearch.search.suggest.completion.CompletionStats;
 
@@ -59,6 +61,8 @@ public class NodeIndicesStats implements Writeable, ToXContentFragment {
 
     private CommonStats stats;
     private Map<Index, List<IndexShardStats>> statsByShard;
+    @Nullable
+    private TranslogSyncCoordinator.Stats translogSyncStats;
 
     public NodeIndicesStats(StreamInput in) throws IOException {
         stats = new CommonStats(in);
@@ -75,9 +79,18 @@ public class NodeIndicesStats implements Writeable, ToXContentFragment {
                 statsByShard.put(index, indexShardStats);
             }
         }
+        if (in.getVersion().onOrAfter(Version.V_8_0_0)) {
+            translogSyncStats = in.readOptionalWriteable(TranslogSyncCoordinator.Stats::new);
+        }
     }
 
     public NodeIndicesStats(CommonStats oldStats, Map<Index, List<IndexShardStats>> statsByShard) {
+        this(oldStats, statsByShard, null);
+    }
+
+    public NodeIndicesStats(CommonStats oldStats, Map<Index, List<IndexShardStats>> statsByShard,
+                            @Nullable TranslogSyncCoordinator.Stats translogSyncStats) {
+        this.translogSyncStats = translogSyncStats;
         //this.stats = stats;
         this.statsByShard = statsByShard;
 
@@ -172,6 +185,14 @@ public class NodeIndicesStats implements Writeable, ToXContentFragment {
         return stats.getRecoveryStats();
     }
 
+    /**
+     * Statistics of the node level translog sync waves, or <code>null</code> if translog syncs are not grouped on this node.
+     */
+    @Nullable
+    public TranslogSyncCoordinator.Stats getTranslogSyncStats() {
+        return translogSyncStats;
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         stats.writeTo(out);
@@ -186,6 +207,9 @@ public class NodeIndicesStats implements Writeable, ToXContentFragment {
                 }
             }
         }
+        if (out.getVersion().onOrAfter(Version.V_8_0_0)) {
+            out.writeOptionalWriteable(translogSyncStats);
+        }
     }
 
     @Override
@@ -200,6 +224,9 @@ public class NodeIndicesStats implements Writeable, ToXContentFragment {
         // "node" level
         builder.startObject(Fields.INDICES);
         stats.toXContent(builder, params);
+        if (translogSyncStats != null) {
+            translogSyncStats.toXContent(builder, params);
+        }
 
         if ("indices".equals(level)) {
             Map<Index, CommonStats> indexStats = createStatsByIndex();
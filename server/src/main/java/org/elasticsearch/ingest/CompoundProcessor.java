@@ -28,6 +28,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
@@ -45,6 +47,8 @@ public class CompoundProcessor implements Processor {
     private final List<Processor> processors;
     private final List<Processor> onFailureProcessors;
     private final List<Tuple<Processor, IngestMetric>> processorsWithMetrics;
+    private final boolean[] synchronous;
+    private final boolean batchExecution;
     private final LongSupplier relativeTimeProvider;
 
     CompoundProcessor(LongSupplier relativeTimeProvider, Processor... processor) {
@@ -67,6 +71,24 @@ public class CompoundProcessor implements Processor {
         this.relativeTimeProvider = relativeTimeProvider;
         this.processorsWithMetrics = new ArrayList<>(processors.size());
         processors.forEach(p -> processorsWithMetrics.add(new Tuple<>(p, new IngestMetric())));
+        this.synchronous = new boolean[processors.size()];
+        for (int i = 0; i < synchronous.length; i++) {
+            synchronous[i] = isSynchronous(processors.get(i));
+        }
+        this.batchExecution = processors.stream().anyMatch(Processor::supportsBatchExecution);
+    }
+
+    /**
+     * Returns whether the given processor only implements {@link Processor#execute(IngestDocument)}, in which case it can be
+     * run directly instead of going through the callback based {@link Processor#execute(IngestDocument, BiConsumer)}.
+     */
+    static boolean isSynchronous(Processor processor) {
+        try {
+            return processor.getClass().getMethod("execute", IngestDocument.class, BiConsumer.class).getDeclaringClass()
+                == Processor.class;
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError("processor [" + processor.getType() + "] does not have an execute method", e);
+        }
     }
 
     List<Tuple<Processor, IngestMetric>> getProcessorsWithMetrics() {
@@ -123,37 +145,191 @@ public class CompoundProcessor implements Processor {
         innerExecute(0, ingestDocument, handler);
     }
 
+    /**
+     * Whether any of the processors supports batch execution, documents are otherwise executed one at a time.
+     */
+    @Override
+    public boolean supportsBatchExecution() {
+        return batchExecution;
+    }
+
+    @Override
+    public void executeBatch(List<IngestDocument> ingestDocuments, BiConsumer<IngestDocument[], Exception[]> handler) {
+        final BatchExecution execution = new BatchExecution(ingestDocuments.size(), handler);
+        if (ingestDocuments.isEmpty()) {
+            handler.accept(execution.results, execution.failures);
+            return;
+        }
+        final int[] slots = new int[ingestDocuments.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = i;
+        }
+        innerExecuteBatch(0, ingestDocuments, slots, execution);
+    }
+
+    /**
+     * Executes the processor at the given position on all documents of the batch that are still being processed, documents
+     * are taken out of the batch once they have been dropped or failed. Processors that don't support batch execution are
+     * executed one document at a time, so that each document is timed and fails on its own.
+     */
+    private void innerExecuteBatch(int currentProcessor, List<IngestDocument> ingestDocuments, int[] slots, BatchExecution execution) {
+        if (ingestDocuments.isEmpty()) {
+            return;
+        }
+        if (currentProcessor == processorsWithMetrics.size()) {
+            for (int i = 0; i < slots.length; i++) {
+                execution.onDocumentCompleted(slots[i], ingestDocuments.get(i), null);
+            }
+            return;
+        }
+
+        Tuple<Processor, IngestMetric> processorWithMetric = processorsWithMetrics.get(currentProcessor);
+        final Processor processor = processorWithMetric.v1();
+        for (int i = 0; i < slots.length; i++) {
+            processorWithMetric.v2().preIngest();
+        }
+        final IngestDocument[] results = new IngestDocument[slots.length];
+        final Exception[] failures = new Exception[slots.length];
+        final long[] ingestTimesInMillis = new long[slots.length];
+        if (processor.supportsBatchExecution()) {
+            final long startTimeInNanos = relativeTimeProvider.getAsLong();
+            final AtomicBoolean completed = new AtomicBoolean();
+            try {
+                processor.executeBatch(ingestDocuments, (batchResults, batchFailures) -> {
+                    completed.set(true);
+                    // every document of the batch waited for the whole batch to be processed
+                    Arrays.fill(ingestTimesInMillis, TimeUnit.NANOSECONDS.toMillis(relativeTimeProvider.getAsLong() - startTimeInNanos));
+                    onProcessorCompleted(currentProcessor, ingestDocuments, slots, batchResults, batchFailures, ingestTimesInMillis,
+                        execution);
+                });
+            } catch (Exception e) {
+                if (completed.get()) {
+                    throw e;
+                }
+                Arrays.fill(ingestTimesInMillis, TimeUnit.NANOSECONDS.toMillis(relativeTimeProvider.getAsLong() - startTimeInNanos));
+                Arrays.fill(failures, e);
+                onProcessorCompleted(currentProcessor, ingestDocuments, slots, results, failures, ingestTimesInMillis, execution);
+            }
+            return;
+        }
+
+        // one more than the number of documents so that the batch moves on after all documents have been handed to the processor
+        final AtomicInteger pending = new AtomicInteger(slots.length + 1);
+        for (int i = 0; i < slots.length; i++) {
+            final int position = i;
+            final long startTimeInNanos = relativeTimeProvider.getAsLong();
+            final AtomicBoolean completed = new AtomicBoolean();
+            final BiConsumer<IngestDocument, Exception> documentHandler = (result, e) -> {
+                if (completed.compareAndSet(false, true)) {
+                    ingestTimesInMillis[position] = TimeUnit.NANOSECONDS.toMillis(relativeTimeProvider.getAsLong() - startTimeInNanos);
+                    results[position] = result;
+                    failures[position] = e;
+                    if (pending.decrementAndGet() == 0) {
+                        onProcessorCompleted(currentProcessor, ingestDocuments, slots, results, failures, ingestTimesInMillis, execution);
+                    }
+                }
+            };
+            try {
+                processor.execute(ingestDocuments.get(i), documentHandler);
+            } catch (Exception e) {
+                documentHandler.accept(null, e);
+            }
+        }
+        if (pending.decrementAndGet() == 0) {
+            onProcessorCompleted(currentProcessor, ingestDocuments, slots, results, failures, ingestTimesInMillis, execution);
+        }
+    }
+
+    private void onProcessorCompleted(int currentProcessor, List<IngestDocument> ingestDocuments, int[] slots,
+                                      IngestDocument[] results, Exception[] failures, long[] ingestTimesInMillis,
+                                      BatchExecution execution) {
+        Tuple<Processor, IngestMetric> processorWithMetric = processorsWithMetrics.get(currentProcessor);
+        final Processor processor = processorWithMetric.v1();
+        final IngestMetric metric = processorWithMetric.v2();
+        final List<IngestDocument> remaining = new ArrayList<>(slots.length);
+        final int[] remainingSlots = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            metric.postIngest(ingestTimesInMillis[i]);
+            final int slot = slots[i];
+            if (failures[i] != null) {
+                metric.ingestFailed();
+                if (ignoreFailure) {
+                    remainingSlots[remaining.size()] = slot;
+                    remaining.add(ingestDocuments.get(i));
+                } else {
+                    onProcessorFailure(processor, failures[i], ingestDocuments.get(i),
+                        (result, e) -> execution.onDocumentCompleted(slot, result, e));
+                }
+            } else if (results[i] != null) {
+                remainingSlots[remaining.size()] = slot;
+                remaining.add(results[i]);
+            } else {
+                execution.onDocumentCompleted(slot, null, null);
+            }
+        }
+        innerExecuteBatch(currentProcessor + 1, remaining, Arrays.copyOf(remainingSlots, remaining.size()), execution);
+    }
+
     void innerExecute(int currentProcessor, IngestDocument ingestDocument, BiConsumer<IngestDocument, Exception> handler) {
+        // consecutive synchronous processors are executed in a loop, only processors that may complete asynchronously
+        // need to continue the execution from their callback
+        while (currentProcessor < processorsWithMetrics.size() && synchronous[currentProcessor]) {
+            Tuple<Processor, IngestMetric> processorWithMetric = processorsWithMetrics.get(currentProcessor);
+            final Processor processor = processorWithMetric.v1();
+            final IngestMetric metric = processorWithMetric.v2();
+            final long startTimeInNanos = relativeTimeProvider.getAsLong();
+            metric.preIngest();
+            IngestDocument result = null;
+            Exception failure = null;
+            try {
+                result = processor.execute(ingestDocument);
+            } catch (Exception e) {
+                failure = e;
+            }
+            long ingestTimeInMillis = TimeUnit.NANOSECONDS.toMillis(relativeTimeProvider.getAsLong() - startTimeInNanos);
+            metric.postIngest(ingestTimeInMillis);
+
+            if (failure != null) {
+                metric.ingestFailed();
+                if (ignoreFailure == false) {
+                    onProcessorFailure(processor, failure, ingestDocument, handler);
+                    return;
+                }
+            } else if (result != null) {
+                ingestDocument = result;
+            } else {
+                handler.accept(null, null);
+                return;
+            }
+            currentProcessor++;
+        }
+
         if (currentProcessor == processorsWithMetrics.size()) {
             handler.accept(ingestDocument, null);
             return;
         }
 
-        Tuple<Processor, IngestMetric> processorWithMetric = processorsWithMetrics.get(currentProcessor);
+        final int asyncProcessor = currentProcessor;
+        final IngestDocument document = ingestDocument;
+        Tuple<Processor, IngestMetric> processorWithMetric = processorsWithMetrics.get(asyncProcessor);
         final Processor processor = processorWithMetric.v1();
         final IngestMetric metric = processorWithMetric.v2();
         final long startTimeInNanos = relativeTimeProvider.getAsLong();
         metric.preIngest();
-        processor.execute(ingestDocument, (result, e) -> {
+        processor.execute(document, (result, e) -> {
             long ingestTimeInMillis = TimeUnit.NANOSECONDS.toMillis(relativeTimeProvider.getAsLong() - startTimeInNanos);
             metric.postIngest(ingestTimeInMillis);
 
             if (e != null) {
                 metric.ingestFailed();
                 if (ignoreFailure) {
-                    innerExecute(currentProcessor + 1, ingestDocument, handler);
+                    innerExecute(asyncProcessor + 1, document, handler);
                 } else {
-                    ElasticsearchException compoundProcessorException =
-                        newCompoundProcessorException(e, processor.getType(), processor.getTag());
-                    if (onFailureProcessors.isEmpty()) {
-                        handler.accept(null, compoundProcessorException);
-                    } else {
-                        executeOnFailureAsync(0, ingestDocument, compoundProcessorException, handler);
-                    }
+                    onProcessorFailure(processor, e, document, handler);
                 }
             } else {
                 if (result != null) {
-                    innerExecute(currentProcessor + 1, result, handler);
+                    innerExecute(asyncProcessor + 1, result, handler);
                 } else {
                     handler.accept(null, null);
                 }
@@ -161,6 +337,43 @@ public class CompoundProcessor implements Processor {
         });
     }
 
+    private void onProcessorFailure(Processor processor, Exception e, IngestDocument ingestDocument,
+                                    BiConsumer<IngestDocument, Exception> handler) {
+        ElasticsearchException compoundProcessorException = newCompoundProcessorException(e, processor.getType(), processor.getTag());
+        if (onFailureProcessors.isEmpty()) {
+            handler.accept(null, compoundProcessorException);
+        } else {
+            executeOnFailureAsync(0, ingestDocument, compoundProcessorException, handler);
+        }
+    }
+
+    /**
+     * Collects the outcome of the documents of a batch, which leave the batch independently of each other when they are
+     * dropped, fail or reach the end of the processors.
+     */
+    private static final class BatchExecution {
+
+        private final IngestDocument[] results;
+        private final Exception[] failures;
+        private final AtomicInteger pending;
+        private final BiConsumer<IngestDocument[], Exception[]> handler;
+
+        BatchExecution(int size, BiConsumer<IngestDocument[], Exception[]> handler) {
+            this.results = new IngestDocument[size];
+            this.failures = new Exception[size];
+            this.pending = new AtomicInteger(size);
+            this.handler = handler;
+        }
+
+        void onDocumentCompleted(int slot, IngestDocument result, Exception failure) {
+            results[slot] = result;
+            failures[slot] = failure;
+            if (pending.decrementAndGet() == 0) {
+                handler.accept(results, failures);
+            }
+        }
+    }
+
     void executeOnFailureAsync(int currentOnFailureProcessor, IngestDocument ingestDocument, ElasticsearchException exception,
                                BiConsumer<IngestDocument, Exception> handler) {
         if (currentOnFailureProcessor == 0) {
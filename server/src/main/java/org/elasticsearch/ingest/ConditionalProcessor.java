@@ -91,6 +91,54 @@ public class ConditionalProcessor extends AbstractProcessor implements WrappingP
         throw new UnsupportedOperationException("this method should not get executed");
     }
 
+    @Override
+    public boolean supportsBatchExecution() {
+        return processor.supportsBatchExecution();
+    }
+
+    @Override
+    public void executeBatch(List<IngestDocument> ingestDocuments, BiConsumer<IngestDocument[], Exception[]> handler) {
+        final IngestDocument[] results = new IngestDocument[ingestDocuments.size()];
+        final Exception[] failures = new Exception[ingestDocuments.size()];
+        final List<IngestDocument> matching = new ArrayList<>(ingestDocuments.size());
+        final int[] matchingSlots = new int[ingestDocuments.size()];
+        for (int i = 0; i < ingestDocuments.size(); i++) {
+            final IngestDocument ingestDocument = ingestDocuments.get(i);
+            try {
+                if (evaluate(ingestDocument)) {
+                    matchingSlots[matching.size()] = i;
+                    matching.add(ingestDocument);
+                } else {
+                    results[i] = ingestDocument;
+                }
+            } catch (Exception e) {
+                failures[i] = e;
+            }
+        }
+        if (matching.isEmpty()) {
+            handler.accept(results, failures);
+            return;
+        }
+
+        final long startTimeInNanos = relativeTimeProvider.getAsLong();
+        for (int i = 0; i < matching.size(); i++) {
+            metric.preIngest();
+        }
+        Processor.executeBatch(processor, matching, (matchingResults, matchingFailures) -> {
+            long ingestTimeInMillis = TimeUnit.NANOSECONDS.toMillis(relativeTimeProvider.getAsLong() - startTimeInNanos);
+            for (int i = 0; i < matchingResults.length; i++) {
+                // every document of the batch waited for the whole batch to be processed
+                metric.postIngest(ingestTimeInMillis);
+                if (matchingFailures[i] != null) {
+                    metric.ingestFailed();
+                }
+                results[matchingSlots[i]] = matchingResults[i];
+                failures[matchingSlots[i]] = matchingFailures[i];
+            }
+            handler.accept(results, failures);
+        });
+    }
+
     boolean evaluate(IngestDocument ingestDocument) {
         IngestConditionalScript script =
             scriptService.compile(condition, IngestConditionalScript.CONTEXT).newInstance(condition.getParams());
@@ -706,15 +706,33 @@ public final class IngestDocument {
         private final Object initialContext;
 
         private FieldPath(String path) {
-            if (Strings.isEmpty(path)) {
-                throw new IllegalArgumentException("path cannot be null nor empty");
-            }
+            final ParsedPath parsedPath = ParsedPath.of(path);
+            this.initialContext = parsedPath.ingestMetadata ? ingestMetadata : sourceAndMetadata;
+            this.pathElements = parsedPath.pathElements;
+        }
+
+    }
+
+    /**
+     * A path split into its elements. Processors resolve the same few paths for every document they see, so parsed paths
+     * are cached per thread instead of splitting the path on every access. The cache is cleared once it holds
+     * {@link #CACHE_SIZE} paths, which bounds it if paths are rendered from templates using document specific values.
+     */
+    private static final class ParsedPath {
+
+        private static final int CACHE_SIZE = 1024;
+        private static final ThreadLocal<Map<String, ParsedPath>> CACHE = ThreadLocal.withInitial(HashMap::new);
+
+        private final boolean ingestMetadata;
+        private final String[] pathElements;
+
+        private ParsedPath(String path) {
             String newPath;
             if (path.startsWith(INGEST_KEY_PREFIX)) {
-                initialContext = ingestMetadata;
+                ingestMetadata = true;
                 newPath = path.substring(INGEST_KEY_PREFIX.length(), path.length());
             } else {
-                initialContext = sourceAndMetadata;
+                ingestMetadata = false;
                 if (path.startsWith(SOURCE_PREFIX)) {
                     newPath = path.substring(SOURCE_PREFIX.length(), path.length());
                 } else {
@@ -727,5 +745,20 @@ public final class IngestDocument {
             }
         }
 
+        static ParsedPath of(String path) {
+            if (Strings.isEmpty(path)) {
+                throw new IllegalArgumentException("path cannot be null nor empty");
+            }
+            final Map<String, ParsedPath> cache = CACHE.get();
+            ParsedPath parsedPath = cache.get(path);
+            if (parsedPath == null) {
+                parsedPath = new ParsedPath(path);
+                if (cache.size() >= CACHE_SIZE) {
+                    cache.clear();
+                }
+                cache.put(path, parsedPath);
+            }
+            return parsedPath;
+        }
     }
 }
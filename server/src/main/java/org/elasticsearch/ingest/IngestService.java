@@ -53,16 +53,19 @@ import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -77,6 +80,11 @@ public class IngestService implements ClusterStateApplier {
 
     private static final Logger logger = LogManager.getLogger(IngestService.class);
 
+    /**
+     * The maximum number of documents that are executed as a single batch, see {@link Pipeline#supportsBatchExecution()}.
+     */
+    static final int MAX_BATCH_SIZE = 128;
+
     private final ClusterService clusterService;
     private final ScriptService scriptService;
     private final Map<String, Processor.Factory> processorFactories;
@@ -348,6 +356,9 @@ public class IngestService implements ClusterStateApplier {
             protected void doRun() {
                 final Thread originalThread = Thread.currentThread();
                 final AtomicInteger counter = new AtomicInteger(numberOfActionRequests);
+                // documents that go through the same pipeline are executed in batches if the pipeline has processors
+                // that support batch execution, so that these processors can amortize their work across the documents
+                final Map<String, PipelineBatch> batches = new LinkedHashMap<>();
                 int i = 0;
                 for (DocWriteRequest<?> actionRequest : actionRequests) {
                     IndexRequest indexRequest = TransportBulkAction.getIndexWriteRequest(actionRequest);
@@ -368,13 +379,14 @@ public class IngestService implements ClusterStateApplier {
                     }
 
                     final int slot = i;
+                    PipelineBatch fullBatch = null;
                     try {
                         PipelineHolder holder = pipelines.get(pipelineId);
                         if (holder == null) {
                             throw new IllegalArgumentException("pipeline with id [" + pipelineId + "] does not exist");
                         }
                         Pipeline pipeline = holder.pipeline;
-                        innerExecute(slot, indexRequest, pipeline, itemDroppedHandler, e -> {
+                        final Consumer<Exception> handler = e -> {
                             if (e == null) {
                                 // this shouldn't be needed here but we do it for consistency with index api
                                 // which requires it to prevent double execution
@@ -387,7 +399,17 @@ public class IngestService implements ClusterStateApplier {
                                 completionHandler.accept(originalThread, null);
                             }
                             assert counter.get() >= 0;
-                        });
+                        };
+                        if (pipeline.supportsBatchExecution()) {
+                            final PipelineBatch batch = batches.computeIfAbsent(pipelineId, id -> new PipelineBatch(pipeline));
+                            batch.add(slot, indexRequest, handler);
+                            if (batch.slots.size() == MAX_BATCH_SIZE) {
+                                // bounds the number of sources that are held in memory at the same time
+                                fullBatch = batches.remove(pipelineId);
+                            }
+                        } else {
+                            innerExecute(slot, indexRequest, pipeline, itemDroppedHandler, handler);
+                        }
                     } catch (Exception e) {
                         itemFailureHandler.accept(slot, e);
                         if (counter.decrementAndGet() == 0){
@@ -395,8 +417,15 @@ public class IngestService implements ClusterStateApplier {
                         }
                         assert counter.get() >= 0;
                     }
+                    if (fullBatch != null) {
+                        innerExecute(fullBatch, itemDroppedHandler);
+                    }
                     i++;
                 }
+
+                for (PipelineBatch batch : batches.values()) {
+                    innerExecute(batch, itemDroppedHandler);
+                }
             }
         });
     }
@@ -463,13 +492,7 @@ public class IngestService implements ClusterStateApplier {
         // the pipeline specific stat holder may not exist and that is fine:
         // (e.g. the pipeline may have been removed while we're ingesting a document
         totalMetrics.preIngest();
-        String index = indexRequest.index();
-        String id = indexRequest.id();
-        String routing = indexRequest.routing();
-        Long version = indexRequest.version();
-        VersionType versionType = indexRequest.versionType();
-        Map<String, Object> sourceAsMap = indexRequest.sourceAsMap();
-        IngestDocument ingestDocument = new IngestDocument(index, id, routing, version, versionType, sourceAsMap);
+        IngestDocument ingestDocument = newIngestDocument(indexRequest);
         pipeline.execute(ingestDocument, (result, e) -> {
             long ingestTimeInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeInNanos);
             totalMetrics.postIngest(ingestTimeInMillis);
@@ -480,22 +503,125 @@ public class IngestService implements ClusterStateApplier {
                 itemDroppedHandler.accept(slot);
                 handler.accept(null);
             } else {
-                Map<IngestDocument.MetaData, Object> metadataMap = ingestDocument.extractMetadata();
-                //it's fine to set all metadata fields all the time, as ingest document holds their starting values
-                //before ingestion, which might also get modified during ingestion.
-                indexRequest.index((String) metadataMap.get(IngestDocument.MetaData.INDEX));
-                indexRequest.id((String) metadataMap.get(IngestDocument.MetaData.ID));
-                indexRequest.routing((String) metadataMap.get(IngestDocument.MetaData.ROUTING));
-                indexRequest.version(((Number) metadataMap.get(IngestDocument.MetaData.VERSION)).longValue());
-                if (metadataMap.get(IngestDocument.MetaData.VERSION_TYPE) != null) {
-                    indexRequest.versionType(VersionType.fromString((String) metadataMap.get(IngestDocument.MetaData.VERSION_TYPE)));
-                }
-                indexRequest.source(ingestDocument.getSourceAndMetadata(), indexRequest.getContentType());
+                updateIndexRequest(indexRequest, ingestDocument);
                 handler.accept(null);
             }
         });
     }
 
+    private void innerExecute(PipelineBatch batch, IntConsumer itemDroppedHandler) {
+        if (batch.pipeline.getProcessors().isEmpty()) {
+            batch.handlers.forEach(handler -> handler.accept(null));
+            return;
+        }
+
+        final List<IngestDocument> ingestDocuments = new ArrayList<>(batch.slots.size());
+        final List<Integer> positions = new ArrayList<>(batch.slots.size());
+        for (int i = 0; i < batch.slots.size(); i++) {
+            final IngestDocument ingestDocument;
+            try {
+                ingestDocument = newIngestDocument(batch.indexRequests.get(i));
+            } catch (Exception e) {
+                batch.handlers.get(i).accept(e);
+                continue;
+            }
+            ingestDocuments.add(ingestDocument);
+            positions.add(i);
+        }
+        if (ingestDocuments.isEmpty()) {
+            return;
+        }
+
+        long startTimeInNanos = System.nanoTime();
+        for (int i = 0; i < ingestDocuments.size(); i++) {
+            totalMetrics.preIngest();
+        }
+        final AtomicBoolean completed = new AtomicBoolean();
+        final BiConsumer<IngestDocument[], Exception[]> batchHandler = (results, failures) -> {
+            completed.set(true);
+            long ingestTimeInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeInNanos);
+            for (int i = 0; i < results.length; i++) {
+                // every document of the batch waited for the whole batch to be processed
+                totalMetrics.postIngest(ingestTimeInMillis);
+                final int position = positions.get(i);
+                Exception failure = failures[i];
+                if (failure == null && results[i] != null) {
+                    try {
+                        updateIndexRequest(batch.indexRequests.get(position), ingestDocuments.get(i));
+                    } catch (Exception e) {
+                        failure = e;
+                    }
+                }
+                final Consumer<Exception> handler = batch.handlers.get(position);
+                if (failure != null) {
+                    totalMetrics.ingestFailed();
+                    handler.accept(failure);
+                } else if (results[i] == null) {
+                    itemDroppedHandler.accept(batch.slots.get(position));
+                    handler.accept(null);
+                } else {
+                    handler.accept(null);
+                }
+            }
+        };
+        try {
+            batch.pipeline.executeBatch(ingestDocuments, batchHandler);
+        } catch (Exception e) {
+            if (completed.get()) {
+                throw e;
+            }
+            final Exception[] failures = new Exception[ingestDocuments.size()];
+            Arrays.fill(failures, e);
+            batchHandler.accept(new IngestDocument[ingestDocuments.size()], failures);
+        }
+    }
+
+    private static IngestDocument newIngestDocument(IndexRequest indexRequest) {
+        String index = indexRequest.index();
+        String id = indexRequest.id();
+        String routing = indexRequest.routing();
+        Long version = indexRequest.version();
+        VersionType versionType = indexRequest.versionType();
+        Map<String, Object> sourceAsMap = indexRequest.sourceAsMap();
+        return new IngestDocument(index, id, routing, version, versionType, sourceAsMap);
+    }
+
+    private static void updateIndexRequest(IndexRequest indexRequest, IngestDocument ingestDocument) {
+        Map<IngestDocument.MetaData, Object> metadataMap = ingestDocument.extractMetadata();
+        //it's fine to set all metadata fields all the time, as ingest document holds their starting values
+        //before ingestion, which might also get modified during ingestion.
+        indexRequest.index((String) metadataMap.get(IngestDocument.MetaData.INDEX));
+        indexRequest.id((String) metadataMap.get(IngestDocument.MetaData.ID));
+        indexRequest.routing((String) metadataMap.get(IngestDocument.MetaData.ROUTING));
+        indexRequest.version(((Number) metadataMap.get(IngestDocument.MetaData.VERSION)).longValue());
+        if (metadataMap.get(IngestDocument.MetaData.VERSION_TYPE) != null) {
+            indexRequest.versionType(VersionType.fromString((String) metadataMap.get(IngestDocument.MetaData.VERSION_TYPE)));
+        }
+        indexRequest.source(ingestDocument.getSourceAndMetadata(), indexRequest.getContentType());
+    }
+
+    /**
+     * The index requests of a bulk request that go through the same pipeline, together with their slot in the bulk request
+     * and the handler to notify once they have been processed.
+     */
+    private static final class PipelineBatch {
+
+        private final Pipeline pipeline;
+        private final List<Integer> slots = new ArrayList<>();
+        private final List<IndexRequest> indexRequests = new ArrayList<>();
+        private final List<Consumer<Exception>> handlers = new ArrayList<>();
+
+        PipelineBatch(Pipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        void add(int slot, IndexRequest indexRequest, Consumer<Exception> handler) {
+            slots.add(slot);
+            indexRequests.add(indexRequest);
+            handlers.add(handler);
+        }
+    }
+
     @Override
     public void applyClusterState(final ClusterChangedEvent event) {
         ClusterState state = event.state();
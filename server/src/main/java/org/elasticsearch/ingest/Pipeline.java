@@ -107,6 +107,36 @@ public final class Pipeline {
         });
     }
 
+    /**
+     * Whether any of the processors of this pipeline supports batch execution, see {@link Processor#supportsBatchExecution()}.
+     * Documents are otherwise executed one at a time.
+     */
+    public boolean supportsBatchExecution() {
+        return compoundProcessor.supportsBatchExecution();
+    }
+
+    /**
+     * Modifies a batch of documents, see {@link #execute(IngestDocument, BiConsumer)}. The handler receives the resulting
+     * documents and failures at the positions of the corresponding input documents.
+     */
+    public void executeBatch(List<IngestDocument> ingestDocuments, BiConsumer<IngestDocument[], Exception[]> handler) {
+        final long startTimeInNanos = relativeTimeProvider.getAsLong();
+        for (int i = 0; i < ingestDocuments.size(); i++) {
+            metrics.preIngest();
+        }
+        compoundProcessor.executeBatch(ingestDocuments, (results, failures) -> {
+            long ingestTimeInMillis = TimeUnit.NANOSECONDS.toMillis(relativeTimeProvider.getAsLong() - startTimeInNanos);
+            for (int i = 0; i < results.length; i++) {
+                // every document of the batch waited for the whole batch to be processed
+                metrics.postIngest(ingestTimeInMillis);
+                if (failures[i] != null) {
+                    metrics.ingestFailed();
+                }
+            }
+            handler.accept(results, failures);
+        });
+    }
+
     /**
      * The unique id of this pipeline
      */
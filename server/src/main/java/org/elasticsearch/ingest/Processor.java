@@ -26,7 +26,10 @@ import org.elasticsearch.index.analysis.AnalysisRegistry;
 import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.threadpool.Scheduler;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.LongSupplier;
@@ -54,6 +57,68 @@ public interface Processor {
         }
     }
 
+    /**
+     * Whether this processor implements {@link #executeBatch(List, BiConsumer)}. Processors that look up data for the documents
+     * they process can use this to amortize the lookups across the documents of a bulk request. Processors that don't support
+     * batch execution are executed one document at a time, see {@link #executeBatch(Processor, List, BiConsumer)}.
+     */
+    default boolean supportsBatchExecution() {
+        return false;
+    }
+
+    /**
+     * Introspect and potentially modify a batch of documents. The handler is invoked once all documents have been processed,
+     * with the resulting documents and failures at the positions of the corresponding input documents. A <code>null</code>
+     * result without a failure means that the document was dropped.
+     *
+     * Expert method: only override this method together with {@link #supportsBatchExecution()}.
+     */
+    default void executeBatch(List<IngestDocument> ingestDocuments, BiConsumer<IngestDocument[], Exception[]> handler) {
+        throw new UnsupportedOperationException("processor [" + getType() + "] does not support batch execution");
+    }
+
+    /**
+     * Executes the given processor on a batch of documents, falling back to executing the documents one at a time if the
+     * processor does not support batch execution.
+     */
+    static void executeBatch(Processor processor, List<IngestDocument> ingestDocuments,
+                             BiConsumer<IngestDocument[], Exception[]> handler) {
+        if (processor.supportsBatchExecution()) {
+            processor.executeBatch(ingestDocuments, handler);
+            return;
+        }
+        final IngestDocument[] results = new IngestDocument[ingestDocuments.size()];
+        final Exception[] failures = new Exception[ingestDocuments.size()];
+        if (ingestDocuments.isEmpty()) {
+            handler.accept(results, failures);
+            return;
+        }
+        // one more than the number of documents so that the handler is only invoked once all documents have been handed to
+        // the processor, and never from within the loop below
+        final AtomicInteger pending = new AtomicInteger(ingestDocuments.size() + 1);
+        for (int i = 0; i < ingestDocuments.size(); i++) {
+            final int slot = i;
+            final AtomicBoolean completed = new AtomicBoolean();
+            final BiConsumer<IngestDocument, Exception> documentHandler = (result, e) -> {
+                if (completed.compareAndSet(false, true)) {
+                    results[slot] = result;
+                    failures[slot] = e;
+                    if (pending.decrementAndGet() == 0) {
+                        handler.accept(results, failures);
+                    }
+                }
+            };
+            try {
+                processor.execute(ingestDocuments.get(i), documentHandler);
+            } catch (Exception e) {
+                documentHandler.accept(null, e);
+            }
+        }
+        if (pending.decrementAndGet() == 0) {
+            handler.accept(results, failures);
+        }
+    }
+
     /**
      * Introspect and potentially modify the incoming data.
      *
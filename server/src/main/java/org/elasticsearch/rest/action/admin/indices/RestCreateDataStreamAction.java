@@ -0,0 +1,60 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.rest.action.admin.indices;
+
+import org.elasticsearch.action.admin.indices.datastream.CreateDataStreamAction;
+import org.elasticsearch.client.node.NodeClient;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.RestController;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.action.RestToXContentListener;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class RestCreateDataStreamAction extends BaseRestHandler {
+
+    public RestCreateDataStreamAction(RestController controller) {
+        controller.registerHandler(RestRequest.Method.PUT, "/_data_stream/{name}", this);
+    }
+
+    @Override
+    public String getName() {
+        return "create_data_stream_action";
+    }
+
+    @Override
+    public RestChannelConsumer prepareRequest(final RestRequest request, final NodeClient client) throws IOException {
+        CreateDataStreamAction.Request createDataStreamRequest = new CreateDataStreamAction.Request(request.param("name"));
+        request.applyContentParser(parser -> {
+            Map<String, Object> body = parser.map();
+            Object timestampField = body.remove("timestamp_field");
+            if (timestampField != null) {
+                createDataStreamRequest.setTimestampField(XContentMapValues.nodeStringValue(timestampField));
+            }
+            if (body.isEmpty() == false) {
+                throw new IllegalArgumentException("unknown parameters " + body.keySet() + " in create data stream request");
+            }
+        });
+        createDataStreamRequest.timeout(request.paramAsTime("timeout", createDataStreamRequest.timeout()));
+        createDataStreamRequest.masterNodeTimeout(request.paramAsTime("master_timeout", createDataStreamRequest.masterNodeTimeout()));
+        return channel -> client.execute(CreateDataStreamAction.INSTANCE, createDataStreamRequest, new RestToXContentListener<>(channel));
+    }
+}
@@ -27,10 +27,12 @@ import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionRunnable;
 import org.elasticsearch.action.OriginalIndices;
+import org.elasticsearch.action.search.SearchContextId;
 import org.elasticsearch.action.search.SearchTask;
 import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Randomness;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
@@ -57,6 +59,7 @@ import org.elasticsearch.index.query.Rewriteable;
 import org.elasticsearch.index.shard.IndexEventListener;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.SearchOperationListener;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.indices.cluster.IndicesClusterStateService.AllocatedIndices.IndexRemovalReason;
 import org.elasticsearch.node.ResponseCollectorService;
@@ -67,6 +70,7 @@ import org.elasticsearch.search.aggregations.AggregatorFactories;
 import org.elasticsearch.search.aggregations.InternalAggregation;
 import org.elasticsearch.search.aggregations.MultiBucketConsumerService;
 import org.elasticsearch.search.aggregations.SearchContextAggregations;
+import org.elasticsearch.search.builder.PointInTimeBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.collapse.CollapseContext;
 import org.elasticsearch.search.dfs.DfsPhase;
@@ -81,6 +85,7 @@ import org.elasticsearch.search.fetch.subphase.ScriptFieldsContext.ScriptField;
 import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
 import org.elasticsearch.search.internal.AliasFilter;
 import org.elasticsearch.search.internal.InternalScrollSearchRequest;
+import org.elasticsearch.search.internal.ReaderContext;
 import org.elasticsearch.search.internal.ScrollContext;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.internal.SearchContext.Lifetime;
@@ -102,6 +107,7 @@ import org.elasticsearch.threadpool.ThreadPool.Names;
 import org.elasticsearch.transport.TransportRequest;
 
 import java.io.IOException;
+import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -149,6 +155,9 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
     public static final Setting<Integer> MAX_OPEN_SCROLL_CONTEXT =
         Setting.intSetting("search.max_open_scroll_context", 500, 0, Property.Dynamic, Property.NodeScope);
 
+    public static final Setting<Integer> MAX_OPEN_READER_CONTEXT =
+        Setting.intSetting("search.max_open_reader_context", 500, 0, Property.Dynamic, Property.NodeScope);
+
     public static final int DEFAULT_SIZE = 10;
     public static final int DEFAULT_FROM = 0;
 
@@ -182,12 +191,19 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
 
     private volatile int maxOpenScrollContext;
 
+    private volatile int maxOpenReaderContext;
+
     private final Cancellable keepAliveReaper;
 
     private final AtomicLong idGenerator = new AtomicLong();
 
+    // reader ids are part of the point in time id that is handed out to clients so they must not be guessable
+    private final SecureRandom readerIdGenerator = Randomness.createSecure();
+
     private final ConcurrentMapLong<SearchContext> activeContexts = ConcurrentCollections.newConcurrentMapLongWithAggressiveConcurrency();
 
+    private final ConcurrentMapLong<ReaderContext> activeReaders = ConcurrentCollections.newConcurrentMapLongWithAggressiveConcurrency();
+
     private final MultiBucketConsumerService multiBucketConsumerService;
 
     private final AtomicInteger openScrollContexts = new AtomicInteger();
@@ -224,6 +240,9 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         maxOpenScrollContext = MAX_OPEN_SCROLL_CONTEXT.get(settings);
         clusterService.getClusterSettings().addSettingsUpdateConsumer(MAX_OPEN_SCROLL_CONTEXT, this::setMaxOpenScrollContext);
 
+        maxOpenReaderContext = MAX_OPEN_READER_CONTEXT.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(MAX_OPEN_READER_CONTEXT, this::setMaxOpenReaderContext);
+
         lowLevelCancellation = LOW_LEVEL_CANCELLATION_SETTING.get(settings);
         clusterService.getClusterSettings().addSettingsUpdateConsumer(LOW_LEVEL_CANCELLATION_SETTING, this::setLowLevelCancellation);
     }
@@ -258,6 +277,10 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         this.maxOpenScrollContext = maxOpenScrollContext;
     }
 
+    private void setMaxOpenReaderContext(int maxOpenReaderContext) {
+        this.maxOpenReaderContext = maxOpenReaderContext;
+    }
+
     private void setLowLevelCancellation(Boolean lowLevelCancellation) {
         this.lowLevelCancellation = lowLevelCancellation;
     }
@@ -293,6 +316,9 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         for (final SearchContext context : activeContexts.values()) {
             freeContext(context.id());
         }
+        for (final ReaderContext readerContext : activeReaders.values()) {
+            freeReaderContext(readerContext.id());
+        }
     }
 
     @Override
@@ -534,6 +560,104 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         }
     }
 
+    /**
+     * Opens a reader context on the given shard that pins the current view of the shard until it is freed or until it has not been
+     * accessed for the given keep-alive. The given alias filter is bound to the reader context and applied to every search that uses
+     * it. The listener is notified with the id of the reader context.
+     */
+    public void openReaderContext(ShardId shardId, AliasFilter aliasFilter, TimeValue keepAlive, ActionListener<Long> listener) {
+        final IndexShard shard;
+        try {
+            checkKeepAliveLimit("point in time", keepAlive.millis());
+            shard = indicesService.indexServiceSafe(shardId.getIndex()).getShard(shardId.id());
+        } catch (Exception e) {
+            listener.onFailure(e);
+            return;
+        }
+        final Executor executor = getExecutor(shard);
+        // the listeners of the new reader context need the thread context of the caller, e.g. to record who opened it
+        final Runnable openReader = threadPool.getThreadContext().preserveContext(ActionRunnable.supply(listener, () -> {
+            if (activeReaders.size() >= maxOpenReaderContext) {
+                throw new ElasticsearchException(
+                    "Trying to create too many reader contexts. Must be less than or equal to: [" +
+                        maxOpenReaderContext + "]. " + "This limit can be set by changing the ["
+                        + MAX_OPEN_READER_CONTEXT.getKey() + "] setting.");
+            }
+            final Engine.Searcher searcher = shard.acquireSearcher("point_in_time");
+            boolean success = false;
+            ReaderContext readerContext = null;
+            try {
+                ReaderContext candidate;
+                do {
+                    candidate = new ReaderContext(readerIdGenerator.nextLong(), shard, searcher, aliasFilter, keepAlive.millis(),
+                        threadPool.relativeTimeInMillis());
+                } while (activeReaders.putIfAbsent(candidate.id(), candidate) != null);
+                readerContext = candidate;
+                shard.getSearchOperationListener().onNewReaderContext(readerContext);
+                success = true;
+                return readerContext.id();
+            } finally {
+                if (success == false) {
+                    if (readerContext != null) {
+                        freeReaderContext(readerContext.id());
+                    } else {
+                        searcher.close();
+                    }
+                }
+            }
+        }));
+        // wait for a pending refresh so that the point in time sees all the operations acknowledged so far
+        shard.awaitShardSearchActive(b -> executor.execute(openReader));
+    }
+
+    /**
+     * Frees the reader context with the given id. The underlying searcher is released once the searches that are still running on it
+     * have completed.
+     */
+    public boolean freeReaderContext(long id) {
+        final ReaderContext readerContext = activeReaders.remove(id);
+        if (readerContext != null) {
+            try {
+                readerContext.indexShard().getSearchOperationListener().onFreeReaderContext(readerContext);
+            } finally {
+                readerContext.decRef();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the reader context of the given point in time for the shard of the given request, with a reference acquired on behalf
+     * of the caller. The alias filter that is bound to the reader context replaces the one of the request.
+     */
+    private ReaderContext acquireReaderContext(ShardSearchRequest request, PointInTimeBuilder pointInTimeBuilder) {
+        final ShardId shardId = request.shardId();
+        final SearchContextId.SearchContextIdForNode contextId = SearchContextId.decode(pointInTimeBuilder.getId()).shards().get(shardId);
+        if (contextId == null) {
+            throw new IllegalArgumentException("point in time does not contain shard " + shardId);
+        }
+        final ReaderContext readerContext = activeReaders.get(contextId.getReaderId());
+        if (readerContext == null || readerContext.shardId().equals(shardId) == false
+            || contextId.getNode().equals(clusterService.localNode().getId()) == false || readerContext.tryIncRef() == false) {
+            throw new SearchContextMissingException(contextId.getReaderId());
+        }
+        try {
+            readerContext.indexShard().getSearchOperationListener().validateReaderContext(readerContext, request);
+            if (pointInTimeBuilder.getKeepAlive() != null) {
+                checkKeepAliveLimit("point in time", pointInTimeBuilder.getKeepAlive().millis());
+            }
+        } catch (Exception e) {
+            readerContext.decRef();
+            throw e;
+        }
+        if (pointInTimeBuilder.getKeepAlive() != null) {
+            readerContext.keepAlive(pointInTimeBuilder.getKeepAlive().millis(), threadPool.relativeTimeInMillis());
+        }
+        request.setAliasFilter(readerContext.aliasFilter());
+        return readerContext;
+    }
+
     final SearchContext createAndPutContext(ShardSearchRequest request) throws IOException {
         if (request.scroll() != null && openScrollContexts.get() >= maxOpenScrollContext) {
             throw new ElasticsearchException(
@@ -624,7 +748,13 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         IndexShard indexShard = indexService.getShard(request.shardId().getId());
         SearchShardTarget shardTarget = new SearchShardTarget(clusterService.localNode().getId(),
                 indexShard.shardId(), request.getClusterAlias(), OriginalIndices.NONE);
-        Engine.Searcher searcher = indexShard.acquireSearcher(source);
+        final PointInTimeBuilder pointInTimeBuilder = request.source() != null ? request.source().pointInTimeBuilder() : null;
+        final Engine.Searcher searcher;
+        if (pointInTimeBuilder != null) {
+            searcher = acquireReaderContext(request, pointInTimeBuilder).acquireSearcher(source);
+        } else {
+            searcher = indexShard.acquireSearcher(source);
+        }
 
         boolean success = false;
         DefaultSearchContext searchContext = null;
@@ -658,6 +788,11 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
                 freeContext(ctx.id());
             }
         }
+        for (ReaderContext readerContext : activeReaders.values()) {
+            if (index.equals(readerContext.shardId().getIndex())) {
+                freeReaderContext(readerContext.id());
+            }
+        }
     }
 
 
@@ -690,13 +825,17 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
     }
 
     private void contextScrollKeepAlive(SearchContext context, long keepAlive) {
+        checkKeepAliveLimit("scroll", keepAlive);
+        context.keepAlive(keepAlive);
+    }
+
+    private void checkKeepAliveLimit(String type, long keepAlive) {
         if (keepAlive > maxKeepAlive) {
             throw new IllegalArgumentException(
-                "Keep alive for scroll (" + TimeValue.timeValueMillis(keepAlive) + ") is too large. " +
+                "Keep alive for " + type + " (" + TimeValue.timeValueMillis(keepAlive) + ") is too large. " +
                     "It must be less than (" + TimeValue.timeValueMillis(maxKeepAlive) + "). " +
                     "This limit can be set by changing the [" + MAX_KEEPALIVE_SETTING.getKey() + "] cluster level setting.");
         }
-        context.keepAlive(keepAlive);
     }
 
     private void contextProcessing(SearchContext context) {
@@ -979,6 +1118,13 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         return this.activeContexts.size();
     }
 
+    /**
+     * Returns the number of reader contexts that are held open by points in time on this node.
+     */
+    public int getActiveReaders() {
+        return this.activeReaders.size();
+    }
+
     public ResponseCollectorService getResponseCollectorService() {
         return this.responseCollectorService;
     }
@@ -1000,6 +1146,12 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
                     freeContext(context.id());
                 }
             }
+            for (ReaderContext readerContext : activeReaders.values()) {
+                if (readerContext.isExpired(time)) {
+                    logger.debug("freeing reader context [{}] of point in time, time [{}]", readerContext.id(), time);
+                    freeReaderContext(readerContext.id());
+                }
+            }
         }
     }
 
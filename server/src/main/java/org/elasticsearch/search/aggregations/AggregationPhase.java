@@ -20,12 +20,22 @@ package org.elasticsearch.search.aggregations;
 
 import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.Query;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.lucene.search.Queries;
 import org.elasticsearch.search.SearchPhase;
+import org.elasticsearch.search.aggregations.bucket.InternalSingleBucketAggregation;
 import org.elasticsearch.search.aggregations.bucket.global.GlobalAggregator;
+import org.elasticsearch.search.aggregations.bucket.sampler.DiversifiedAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.sampler.SamplerAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.significant.SignificantTermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.significant.SignificantTextAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.terms.InternalTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.RareTermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
 import org.elasticsearch.search.aggregations.pipeline.SiblingPipelineAggregator;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.profile.query.CollectorResult;
 import org.elasticsearch.search.profile.query.InternalProfileCollector;
@@ -33,14 +43,27 @@ import org.elasticsearch.search.query.QueryPhaseExecutionException;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Aggregation phase of a search request, used to collect aggregations
  */
 public class AggregationPhase implements SearchPhase {
 
+    /**
+     * Aggregations whose result on a shard depends on all documents of the shard, like the background frequencies of
+     * significant terms or the documents picked by a sampler. They can't be computed by reducing the results of slices of
+     * the shard, so shards aggregate them on a single slice.
+     */
+    private static final Set<String> SINGLE_SLICE_AGGREGATIONS = Set.of(SignificantTermsAggregationBuilder.NAME,
+        SignificantTextAggregationBuilder.NAME, RareTermsAggregationBuilder.NAME, SamplerAggregationBuilder.NAME,
+        DiversifiedAggregationBuilder.NAME);
+
     @Inject
     public AggregationPhase() {
     }
@@ -75,6 +98,44 @@ public class AggregationPhase implements SearchPhase {
         }
     }
 
+    /**
+     * Returns true if the aggregations of the search can be collected on slices of the index concurrently, see
+     * {@link #createSliceCollector}.
+     */
+    public static boolean supportsConcurrentSlices(SearchContext context) {
+        SearchSourceBuilder source = context.request().source();
+        return source != null && source.aggregations() != null
+            && supportsConcurrentSlices(source.aggregations().getAggregatorFactories());
+    }
+
+    static boolean supportsConcurrentSlices(Collection<AggregationBuilder> builders) {
+        for (AggregationBuilder builder : builders) {
+            if (SINGLE_SLICE_AGGREGATIONS.contains(builder.getType()) || supportsConcurrentSlices(builder.getSubAggregations()) == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a new set of the top level aggregators, except the global ones, that collects an additional slice of the index
+     * when the query phase collects slices concurrently. The results of each slice are reduced with the results of the main
+     * aggregators in {@link #execute}.
+     */
+    public static Collector createSliceCollector(SearchContext context) throws IOException {
+        Aggregator[] aggregators = context.aggregations().factories().createTopLevelAggregators(context);
+        List<Aggregator> collectors = new ArrayList<>();
+        for (Aggregator aggregator : aggregators) {
+            if (aggregator instanceof GlobalAggregator == false) {
+                collectors.add(aggregator);
+            }
+        }
+        context.aggregations().addSliceAggregators(aggregators);
+        BucketCollector collector = MultiBucketCollector.wrap(collectors);
+        collector.preCollection();
+        return collector;
+    }
+
     @Override
     public void execute(SearchContext context) {
         if (context.aggregations() == null) {
@@ -123,11 +184,25 @@ public class AggregationPhase implements SearchPhase {
         }
 
         List<InternalAggregation> aggregations = new ArrayList<>(aggregators.length);
+        List<Aggregator[]> sliceAggregators = context.aggregations().sliceAggregators();
+        Map<String, AggregationBuilder> builders = sliceAggregators.isEmpty()
+            ? Collections.emptyMap()
+            : buildersByName(context.request().source().aggregations().getAggregatorFactories());
         context.aggregations().resetBucketMultiConsumer();
-        for (Aggregator aggregator : context.aggregations().aggregators()) {
+        for (int i = 0; i < aggregators.length; i++) {
+            Aggregator aggregator = aggregators[i];
             try {
                 aggregator.postCollection();
-                aggregations.add(aggregator.buildAggregation(0));
+                InternalAggregation aggregation = aggregator.buildAggregation(0);
+                if (sliceAggregators.isEmpty() == false) {
+                    if (aggregator instanceof GlobalAggregator == false) {
+                        aggregation = reduceSlices(context, aggregation, sliceAggregators, i);
+                        aggregation = pruneToShardSize(aggregation, builders.get(aggregation.getName()));
+                    }
+                    // the buckets of the slices weren't counted when they were built, count the buckets of the shard result once
+                    context.aggregations().multiBucketConsumer().accept(InternalMultiBucketAggregation.countInnerBucket(aggregation));
+                }
+                aggregations.add(aggregation);
             } catch (IOException e) {
                 throw new AggregationExecutionException("Failed to build aggregation [" + aggregator.name() + "]", e);
             }
@@ -150,4 +225,70 @@ public class AggregationPhase implements SearchPhase {
         context.queryCollectors().remove(AggregationPhase.class);
     }
 
+    /**
+     * Reduces the result of a top level aggregator with the results of the same aggregator on the other slices of the index.
+     * This is a partial reduction, the shard results are reduced again on the coordinating node.
+     */
+    private static InternalAggregation reduceSlices(SearchContext context, InternalAggregation aggregation,
+                                                    List<Aggregator[]> sliceAggregators, int index) throws IOException {
+        List<InternalAggregation> sliceAggregations = new ArrayList<>(sliceAggregators.size() + 1);
+        sliceAggregations.add(aggregation);
+        for (Aggregator[] slice : sliceAggregators) {
+            slice[index].postCollection();
+            sliceAggregations.add(slice[index].buildAggregation(0));
+        }
+        InternalAggregation.ReduceContext reduceContext = new InternalAggregation.ReduceContext(context.bigArrays(),
+            context.getQueryShardContext().getScriptService(), false);
+        return aggregation.reduce(sliceAggregations, reduceContext);
+    }
+
+    /**
+     * Applies {@code shard_size} and {@code shard_min_doc_count} to the terms aggregations of a shard result that was reduced
+     * from the results of slices. The slices keep all their buckets so that the pruning is based on the doc counts of the whole
+     * shard, like when the shard is collected on a single slice.
+     */
+    static InternalAggregation pruneToShardSize(InternalAggregation aggregation, @Nullable AggregationBuilder builder) {
+        if (builder == null) {
+            return aggregation;
+        }
+        if (aggregation instanceof InternalTerms && builder instanceof TermsAggregationBuilder) {
+            TermsAggregationBuilder terms = (TermsAggregationBuilder) builder;
+            // like the aggregator factory, shard_min_doc_count can't be greater than min_doc_count
+            aggregation = ((InternalTerms<?, ?>) aggregation).pruneToShardSize(Math.min(terms.shardMinDocCount(), terms.minDocCount()));
+        }
+        if (builder.getSubAggregations().isEmpty()) {
+            return aggregation;
+        }
+        final Map<String, AggregationBuilder> subBuilders = buildersByName(builder.getSubAggregations());
+        if (aggregation instanceof InternalMultiBucketAggregation) {
+            InternalMultiBucketAggregation<InternalMultiBucketAggregation, InternalMultiBucketAggregation.InternalBucket> multi =
+                (InternalMultiBucketAggregation<InternalMultiBucketAggregation, InternalMultiBucketAggregation.InternalBucket>) aggregation;
+            List<InternalMultiBucketAggregation.InternalBucket> buckets = new ArrayList<>(multi.getBuckets().size());
+            for (InternalMultiBucketAggregation.InternalBucket bucket : multi.getBuckets()) {
+                buckets.add(multi.createBucket(pruneToShardSize((InternalAggregations) bucket.getAggregations(), subBuilders), bucket));
+            }
+            return multi.create(buckets);
+        } else if (aggregation instanceof InternalSingleBucketAggregation) {
+            InternalSingleBucketAggregation single = (InternalSingleBucketAggregation) aggregation;
+            return single.create(pruneToShardSize(single.getAggregations(), subBuilders));
+        }
+        return aggregation;
+    }
+
+    private static InternalAggregations pruneToShardSize(InternalAggregations aggregations, Map<String, AggregationBuilder> builders) {
+        List<InternalAggregation> pruned = new ArrayList<>(aggregations.asList().size());
+        for (Aggregation aggregation : aggregations) {
+            pruned.add(pruneToShardSize((InternalAggregation) aggregation, builders.get(aggregation.getName())));
+        }
+        return new InternalAggregations(pruned);
+    }
+
+    private static Map<String, AggregationBuilder> buildersByName(Collection<AggregationBuilder> builders) {
+        Map<String, AggregationBuilder> byName = new HashMap<>(builders.size());
+        for (AggregationBuilder builder : builders) {
+            byName.put(builder.getName(), builder);
+        }
+        return byName;
+    }
+
 }
@@ -18,6 +18,9 @@
  */
 package org.elasticsearch.search.aggregations;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.elasticsearch.search.aggregations.MultiBucketConsumerService.MultiBucketConsumer;
 
 /**
@@ -28,6 +31,7 @@ public class SearchContextAggregations {
     private final AggregatorFactories factories;
     private final MultiBucketConsumer multiBucketConsumer;
     private Aggregator[] aggregators;
+    private final List<Aggregator[]> sliceAggregators = new ArrayList<>();
 
     /**
      * Creates a new aggregation context with the parsed aggregator factories
@@ -54,6 +58,30 @@ public class SearchContextAggregations {
         this.aggregators = aggregators;
     }
 
+    /**
+     * Returns the top level aggregators that collected the additional slices of the index when the query phase collected
+     * slices concurrently.
+     */
+    public List<Aggregator[]> sliceAggregators() {
+        return sliceAggregators;
+    }
+
+    /**
+     * Returns true if the query phase collected slices of the index concurrently. The results of all slices are then reduced
+     * before buckets are pruned to the shard size or counted towards the maximum number of buckets.
+     */
+    public boolean hasSliceAggregators() {
+        return sliceAggregators.isEmpty() == false;
+    }
+
+    /**
+     * Registers top level aggregators that collect an additional slice of the index. Their results are reduced with the
+     * results of the main {@link #aggregators()}.
+     */
+    public synchronized void addSliceAggregators(Aggregator[] aggregators) {
+        sliceAggregators.add(aggregators);
+    }
+
     /**
      * Returns a consumer for multi bucket aggregation that checks the total number of buckets
      * created in the response
@@ -27,6 +27,7 @@ import org.elasticsearch.search.aggregations.AggregatorFactories;
 import org.elasticsearch.search.aggregations.InternalAggregation;
 import org.elasticsearch.search.aggregations.InternalAggregations;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
+import org.elasticsearch.search.aggregations.SearchContextAggregations;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
 import org.elasticsearch.search.internal.SearchContext;
 
@@ -38,6 +39,11 @@ import java.util.function.IntConsumer;
 
 public abstract class BucketsAggregator extends AggregatorBase {
 
+    /**
+     * The estimated size of a bucket of the result of a slice, see {@link #consumeBucketsAndMaybeBreak}.
+     */
+    private static final long SLICE_BUCKET_WEIGHT = 512;
+
     private final BigArrays bigArrays;
     private final IntConsumer multiBucketConsumer;
     private IntArray docCounts;
@@ -48,7 +54,17 @@ public abstract class BucketsAggregator extends AggregatorBase {
         bigArrays = context.bigArrays();
         docCounts = bigArrays.newIntArray(1, true);
         if (context.aggregations() != null) {
-            multiBucketConsumer = context.aggregations().multiBucketConsumer();
+            final SearchContextAggregations aggregations = context.aggregations();
+            multiBucketConsumer = count -> {
+                if (aggregations.hasSliceAggregators() == false) {
+                    aggregations.multiBucketConsumer().accept(count);
+                } else {
+                    // the buckets of concurrently collected slices are counted towards the maximum number of buckets once the
+                    // slices have been reduced and pruned, see AggregationPhase. Slices keep all their buckets until then, so the
+                    // memory they use is accounted in the request circuit breaker, and released when this aggregator is closed.
+                    addRequestCircuitBreakerBytes(count * SLICE_BUCKET_WEIGHT);
+                }
+            };
         } else {
             multiBucketConsumer = (count) -> {};
         }
@@ -128,7 +144,8 @@ public abstract class BucketsAggregator extends AggregatorBase {
 
     /**
      * Adds {@code count} buckets to the global count for the request and fails if this number is greater than
-     * the maximum number of buckets allowed in a response
+     * the maximum number of buckets allowed in a response. When the slices of the shard are collected concurrently the buckets
+     * are accounted in the request circuit breaker instead.
      */
     protected final void consumeBucketsAndMaybeBreak(int count) {
         multiBucketConsumer.accept(count);
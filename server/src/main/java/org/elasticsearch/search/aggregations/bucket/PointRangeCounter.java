@@ -0,0 +1,220 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.aggregations.bucket;
+
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PointRangeQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.Bits;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.index.mapper.DateFieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.NumberFieldMapper;
+import org.elasticsearch.search.aggregations.Aggregator;
+import org.elasticsearch.search.aggregations.AggregatorFactories;
+import org.elasticsearch.search.aggregations.support.ValuesSourceConfig;
+import org.elasticsearch.search.internal.SearchContext;
+
+import java.io.IOException;
+
+/**
+ * Counts the documents of a segment that have a value of a single-valued {@code long} or {@code date} field within
+ * a range by intersecting the range with the points of the field, rather than by reading the doc values of every
+ * matching document. This only gives the same counts as collecting the documents for top-level aggregations without
+ * sub-aggregations when the query matches all documents or is a range query on the same field, see
+ * {@link #build(ValuesSourceConfig, SearchContext, Aggregator, AggregatorFactories)}.
+ */
+public final class PointRangeCounter {
+    /**
+     * Values beyond this bound are not converted exactly to the doubles that some aggregations compare values with.
+     */
+    private static final long MAX_EXACT_VALUE = 1L << 53;
+
+    private final String field;
+    private final long queryMin;
+    private final long queryMax;
+
+    private PointRangeCounter(String field, long queryMin, long queryMax) {
+        this.field = field;
+        this.queryMin = queryMin;
+        this.queryMax = queryMax;
+    }
+
+    /**
+     * Returns a counter if the documents collected by an aggregation with the provided configuration can be counted
+     * with points, <code>null</code> otherwise.
+     */
+    @Nullable
+    public static PointRangeCounter build(ValuesSourceConfig<?> config, SearchContext context,
+                                          Aggregator parent, AggregatorFactories factories) {
+        if (parent != null || factories.countAggregators() > 0) {
+            return null;
+        }
+        if (config.fieldContext() == null || config.script() != null || config.missing() != null) {
+            return null;
+        }
+        if (context.minimumScore() != null || context.terminateAfter() != SearchContext.DEFAULT_TERMINATE_AFTER) {
+            // not all documents that match the query are collected
+            return null;
+        }
+        final MappedFieldType fieldType = config.fieldContext().fieldType();
+        final String typeName = fieldType.typeName();
+        if (fieldType.indexOptions() == IndexOptions.NONE
+                || (typeName.equals(DateFieldMapper.CONTENT_TYPE) == false
+                    && typeName.equals(NumberFieldMapper.NumberType.LONG.typeName()) == false)) {
+            return null;
+        }
+        final String field = config.fieldContext().field();
+        final Query query = unwrap(context.query());
+        if (query instanceof MatchAllDocsQuery) {
+            return new PointRangeCounter(field, Long.MIN_VALUE, Long.MAX_VALUE);
+        } else if (query instanceof PointRangeQuery) {
+            PointRangeQuery rangeQuery = (PointRangeQuery) query;
+            if (rangeQuery.getField().equals(field) && rangeQuery.getNumDims() == 1 && rangeQuery.getBytesPerDim() == Long.BYTES) {
+                return new PointRangeCounter(field, LongPoint.decodeDimension(rangeQuery.getLowerPoint(), 0),
+                    LongPoint.decodeDimension(rangeQuery.getUpperPoint(), 0));
+            }
+        }
+        return null;
+    }
+
+    private static Query unwrap(Query query) {
+        while (true) {
+            if (query instanceof ConstantScoreQuery) {
+                query = ((ConstantScoreQuery) query).getQuery();
+            } else if (query instanceof BoostQuery) {
+                query = ((BoostQuery) query).getQuery();
+            } else if (query instanceof IndexOrDocValuesQuery) {
+                query = ((IndexOrDocValuesQuery) query).getIndexQuery();
+            } else {
+                return query;
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link Segment} that counts the documents of the provided segment, or <code>null</code> if the
+     * documents of this segment must be collected because its points can't be used to count them.
+     */
+    @Nullable
+    public Segment segment(LeafReaderContext ctx) throws IOException {
+        final PointValues values = ctx.reader().getPointValues(field);
+        if (values == null
+                || values.getNumIndexDimensions() != 1
+                || values.getBytesPerDimension() != Long.BYTES
+                // the field must be single-valued
+                || values.size() != values.getDocCount()) {
+            return null;
+        }
+        final long min = LongPoint.decodeDimension(values.getMinPackedValue(), 0);
+        final long max = LongPoint.decodeDimension(values.getMaxPackedValue(), 0);
+        if (min < -MAX_EXACT_VALUE || max > MAX_EXACT_VALUE) {
+            return null;
+        }
+        return new Segment(values, ctx.reader().getLiveDocs(), Math.max(min, queryMin), Math.min(max, queryMax));
+    }
+
+    /**
+     * Counts the documents of a single segment.
+     */
+    public static final class Segment {
+        private final PointValues values;
+        private final Bits liveDocs;
+        private final long min;
+        private final long max;
+
+        private Segment(PointValues values, @Nullable Bits liveDocs, long min, long max) {
+            this.values = values;
+            this.liveDocs = liveDocs;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * The minimum value of the documents to count.
+         */
+        public long min() {
+            return min;
+        }
+
+        /**
+         * The maximum value of the documents to count, lower than {@link #min()} if there is no document to count.
+         */
+        public long max() {
+            return max;
+        }
+
+        /**
+         * The number of documents that have a value in the segment, including deleted documents.
+         */
+        public int docCount() {
+            return values.getDocCount();
+        }
+
+        /**
+         * Returns the number of live documents with a value between <code>from</code> and <code>to</code>, both inclusive.
+         */
+        public int count(long from, long to) throws IOException {
+            final long lower = Math.max(from, min);
+            final long upper = Math.min(to, max);
+            if (lower > upper) {
+                return 0;
+            }
+            final int[] count = new int[1];
+            values.intersect(new PointValues.IntersectVisitor() {
+                @Override
+                public void visit(int docID) {
+                    if (liveDocs == null || liveDocs.get(docID)) {
+                        count[0]++;
+                    }
+                }
+
+                @Override
+                public void visit(int docID, byte[] packedValue) {
+                    final long value = LongPoint.decodeDimension(packedValue, 0);
+                    if (value >= lower && value <= upper) {
+                        visit(docID);
+                    }
+                }
+
+                @Override
+                public PointValues.Relation compare(byte[] minPackedValue, byte[] maxPackedValue) {
+                    final long cellMin = LongPoint.decodeDimension(minPackedValue, 0);
+                    final long cellMax = LongPoint.decodeDimension(maxPackedValue, 0);
+                    if (cellMax < lower || cellMin > upper) {
+                        return PointValues.Relation.CELL_OUTSIDE_QUERY;
+                    } else if (cellMin >= lower && cellMax <= upper) {
+                        return PointValues.Relation.CELL_INSIDE_QUERY;
+                    } else {
+                        return PointValues.Relation.CELL_CROSSES_QUERY;
+                    }
+                }
+            });
+            return count[0];
+        }
+    }
+}
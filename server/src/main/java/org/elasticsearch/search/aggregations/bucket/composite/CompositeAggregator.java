@@ -20,7 +20,10 @@
 package org.elasticsearch.search.aggregations.bucket.composite;
 
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.CollectionTerminatedException;
 import org.apache.lucene.search.DocIdSet;
@@ -28,6 +31,10 @@ import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.SortedSetSortField;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.RoaringDocIdSet;
 import org.elasticsearch.common.lease.Releasables;
@@ -53,6 +60,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.LongUnaryOperator;
 import java.util.stream.Collectors;
 
@@ -60,6 +68,7 @@ import static org.elasticsearch.search.aggregations.MultiBucketConsumerService.M
 
 final class CompositeAggregator extends BucketsAggregator {
     private final int size;
+    private final CompositeValuesSourceConfig[] sourceConfigs;
     private final SortedDocsProducer sortedDocsProducer;
     private final List<String> sourceNames;
     private final int[] reverseMuls;
@@ -73,11 +82,17 @@ final class CompositeAggregator extends BucketsAggregator {
     private RoaringDocIdSet.Builder docIdSetBuilder;
     private BucketCollector deferredCollectors;
 
+    private int segmentsWithSortedDocsProducer;
+    private int segmentsCollected;
+    private int segmentsWithIndexSort;
+    private int segmentsEarlyTerminated;
+
     CompositeAggregator(String name, AggregatorFactories factories, SearchContext context, Aggregator parent,
                         List<PipelineAggregator> pipelineAggregators, Map<String, Object> metaData,
                         int size, CompositeValuesSourceConfig[] sourceConfigs, CompositeKey rawAfterKey) throws IOException {
         super(name, factories, context, parent, pipelineAggregators, metaData);
         this.size = size;
+        this.sourceConfigs = sourceConfigs;
         this.sourceNames = Arrays.stream(sourceConfigs).map(CompositeValuesSourceConfig::name).collect(Collectors.toList());
         this.reverseMuls = Arrays.stream(sourceConfigs).mapToInt(CompositeValuesSourceConfig::reverseMul).toArray();
         this.formats = Arrays.stream(sourceConfigs).map(CompositeValuesSourceConfig::format).collect(Collectors.toList());
@@ -147,6 +162,16 @@ final class CompositeAggregator extends BucketsAggregator {
             pipelineAggregators(), metaData());
     }
 
+    @Override
+    public void collectDebugInfo(BiConsumer<String, Object> add) {
+        super.collectDebugInfo(add);
+        add.accept("sorted_docs_producer", sortedDocsProducer == null ? null : sortedDocsProducer.getClass().getSimpleName());
+        add.accept("segments_with_sorted_docs_producer", segmentsWithSortedDocsProducer);
+        add.accept("segments_collected", segmentsCollected);
+        add.accept("segments_with_index_sort", segmentsWithIndexSort);
+        add.accept("segments_early_terminated", segmentsEarlyTerminated);
+    }
+
     private void finishLeaf() {
         if (currentLeaf != null) {
             DocIdSet docIdSet = docIdSetBuilder.build();
@@ -166,6 +191,7 @@ final class CompositeAggregator extends BucketsAggregator {
               and terminates when the leading source value is guaranteed to be greater than the lowest
               composite bucket in the queue.
              */
+            segmentsWithSortedDocsProducer++;
             DocIdSet docIdSet = sortedDocsProducer.processLeaf(context.query(), queue, ctx, fillDocIdSet);
             if (fillDocIdSet) {
                 entries.add(new Entry(ctx, docIdSet));
@@ -178,11 +204,22 @@ final class CompositeAggregator extends BucketsAggregator {
              */
             throw new CollectionTerminatedException();
         } else {
+            segmentsCollected++;
+            /*
+              If the segment is sorted on the leading sources of the composite definition, documents are
+              visited in the order of their composite keys so we can terminate the collection as soon as
+              the queue is full and a document is not competitive on these sources.
+             */
+            final int indexSortSourcePrefix = computeIndexSortSourcePrefix(ctx.reader());
+            if (indexSortSourcePrefix > 0) {
+                segmentsWithIndexSort++;
+            }
             if (fillDocIdSet) {
                 currentLeaf = ctx;
                 docIdSetBuilder = new RoaringDocIdSet.Builder(ctx.reader().maxDoc());
             }
-            final LeafBucketCollector inner = queue.getLeafCollector(ctx, getFirstPassCollector(docIdSetBuilder));
+            final LeafBucketCollector inner = queue.getLeafCollector(ctx,
+                getFirstPassCollector(docIdSetBuilder, indexSortSourcePrefix));
             return new LeafBucketCollector() {
                 @Override
                 public void collect(int doc, long zeroBucket) throws IOException {
@@ -193,16 +230,92 @@ final class CompositeAggregator extends BucketsAggregator {
         }
     }
 
+    /**
+     * Returns the number of leading sources whose values are sorted in the same order as the documents
+     * of the provided segment, or 0 if the index sort of the segment doesn't match the leading source.
+     */
+    private int computeIndexSortSourcePrefix(LeafReader reader) throws IOException {
+        Sort indexSort = reader.getMetaData().getSort();
+        if (indexSort == null) {
+            return 0;
+        }
+        SortField[] sortFields = indexSort.getSort();
+        int prefix = 0;
+        while (prefix < Math.min(sortFields.length, sourceConfigs.length)) {
+            CompositeValuesSourceConfig config = sourceConfigs[prefix];
+            if (matchesIndexSort(reader, config, sortFields[prefix]) == false) {
+                break;
+            }
+            prefix++;
+            if (config.valuesSource() instanceof RoundingValuesSource) {
+                // rounded values are sorted but not unique so the next sources are not sorted anymore
+                break;
+            }
+        }
+        return prefix;
+    }
+
+    private static boolean matchesIndexSort(LeafReader reader, CompositeValuesSourceConfig config,
+                                            SortField sortField) throws IOException {
+        if (config.fieldType() == null
+                || config.missingBucket()
+                || config.fieldType().name().equals(sortField.getField()) == false
+                || sortField.getReverse() != (config.reverseMul() < 0)) {
+            return false;
+        }
+        ValuesSource vs = config.valuesSource();
+        if (vs instanceof RoundingValuesSource) {
+            vs = ((RoundingValuesSource) vs).source();
+        }
+        if (vs.getClass() == ValuesSource.Numeric.FieldData.class) {
+            if (sortField instanceof SortedNumericSortField == false) {
+                return false;
+            }
+        } else if (vs.getClass() == ValuesSource.Bytes.WithOrdinals.FieldData.class) {
+            if (sortField instanceof SortedSetSortField == false) {
+                return false;
+            }
+        } else {
+            // scripts, histogram and geotile sources don't follow the order of the field
+            return false;
+        }
+        // the order of the documents is only guaranteed for keys of single-valued fields
+        FieldInfo fieldInfo = reader.getFieldInfos().fieldInfo(sortField.getField());
+        if (fieldInfo == null) {
+            return true;
+        }
+        switch (fieldInfo.getDocValuesType()) {
+            case NUMERIC:
+            case SORTED:
+                return true;
+
+            case SORTED_NUMERIC:
+                return DocValues.unwrapSingleton(reader.getSortedNumericDocValues(sortField.getField())) != null;
+
+            case SORTED_SET:
+                return DocValues.unwrapSingleton(reader.getSortedSetDocValues(sortField.getField())) != null;
+
+            default:
+                return false;
+        }
+    }
+
     /**
      * The first pass selects the top composite buckets from all matching documents.
      */
-    private LeafBucketCollector getFirstPassCollector(RoaringDocIdSet.Builder builder) {
+    private LeafBucketCollector getFirstPassCollector(RoaringDocIdSet.Builder builder, int indexSortSourcePrefix) {
         return new LeafBucketCollector() {
             int lastDoc = -1;
 
             @Override
             public void collect(int doc, long bucket) throws IOException {
-                int slot = queue.addIfCompetitive();
+                final int slot;
+                try {
+                    slot = queue.addIfCompetitive(indexSortSourcePrefix);
+                } catch (CollectionTerminatedException exc) {
+                    segmentsEarlyTerminated++;
+                    throw exc;
+                }
                 if (slot != -1) {
                     if (builder != null && lastDoc != doc) {
                         builder.add(doc);
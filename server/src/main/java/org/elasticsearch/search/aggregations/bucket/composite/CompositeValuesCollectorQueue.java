@@ -20,6 +20,7 @@
 package org.elasticsearch.search.aggregations.bucket.composite;
 
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectionTerminatedException;
 import org.apache.lucene.util.PriorityQueue;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
@@ -141,7 +142,8 @@ final class CompositeValuesCollectorQueue extends PriorityQueue<Integer> impleme
     }
 
     /**
-     * Compares the values in <code>slot1</code> with the values in <code>slot2</code>.
+     * Compares the values in <code>slot1</code> with the values in <code>slot2</code>. The absolute value of
+     * the result is the position (starting at 1) of the first source that differs, or 0 if all sources are equal.
      */
     int compare(int slot1, int slot2) {
         assert slot2 != CANDIDATE_SLOT;
@@ -153,7 +155,7 @@ final class CompositeValuesCollectorQueue extends PriorityQueue<Integer> impleme
                 cmp = arrays[i].compare(slot1, slot2);
             }
             if (cmp != 0) {
-                return cmp;
+                return cmp > 0 ? i + 1 : -(i + 1);
             }
         }
         return 0;
@@ -247,6 +249,18 @@ final class CompositeValuesCollectorQueue extends PriorityQueue<Integer> impleme
      * @return The target slot of the candidate or -1 is the candidate is not competitive.
      */
     int addIfCompetitive() {
+        return addIfCompetitive(0);
+    }
+
+    /**
+     * Check if the current candidate should be added in the queue.
+     * @param indexSortSourcePrefix The number of leading sources whose values are sorted in the same order as the
+     *                              documents of the current segment, see {@link org.elasticsearch.index.IndexSortConfig}.
+     * @return The target slot of the candidate or -1 is the candidate is not competitive.
+     * @throws CollectionTerminatedException if the index sort guarantees that the remaining documents of the segment
+     *                                       cannot produce competitive keys.
+     */
+    int addIfCompetitive(int indexSortSourcePrefix) {
         // checks if the candidate key is competitive
         Integer topSlot = compareCurrent();
         if (topSlot != null) {
@@ -258,11 +272,18 @@ final class CompositeValuesCollectorQueue extends PriorityQueue<Integer> impleme
             // this key is greater than the top value collected in the previous round, skip it
             return -1;
         }
-        if (size() >= maxSize
-                // the tree map is full, check if the candidate key should be kept
-                && compare(CANDIDATE_SLOT, top()) > 0) {
-            // the candidate key is not competitive, skip it
-            return -1;
+        if (size() >= maxSize) {
+            // the tree map is full, check if the candidate key should be kept
+            int cmp = compare(CANDIDATE_SLOT, top());
+            if (cmp > 0) {
+                if (cmp <= indexSortSourcePrefix) {
+                    // the candidate is greater than the top value on the sorted sources so the
+                    // keys of the subsequent documents in the segment are not competitive either
+                    throw new CollectionTerminatedException();
+                }
+                // the candidate key is not competitive, skip it
+                return -1;
+            }
         }
 
         // the candidate key is competitive
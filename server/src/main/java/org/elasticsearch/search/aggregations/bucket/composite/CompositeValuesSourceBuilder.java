@@ -277,6 +277,7 @@ public abstract class CompositeValuesSourceBuilder<AB extends CompositeValuesSou
     public final CompositeValuesSourceConfig build(QueryShardContext queryShardContext) throws IOException {
         ValuesSourceConfig<?> config = ValuesSourceConfig.resolve(queryShardContext,
             valueType, field, script, null,null, format);
+        config.rejectHistogramValues(CompositeAggregationBuilder.NAME);
         return innerBuild(queryShardContext, config);
     }
 }
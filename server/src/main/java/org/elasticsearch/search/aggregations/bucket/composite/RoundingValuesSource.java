@@ -51,6 +51,13 @@ class RoundingValuesSource extends ValuesSource.Numeric {
         return false;
     }
 
+    /**
+     * Returns the original values source.
+     */
+    ValuesSource.Numeric source() {
+        return vs;
+    }
+
     public long round(long value) {
         return rounding.round(value);
     }
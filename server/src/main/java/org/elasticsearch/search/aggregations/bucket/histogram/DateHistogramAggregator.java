@@ -18,8 +18,10 @@
  */
 package org.elasticsearch.search.aggregations.bucket.histogram;
 
+import com.carrotsearch.hppc.LongArrayList;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.CollectionTerminatedException;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.util.CollectionUtil;
 import org.elasticsearch.common.Nullable;
@@ -35,6 +37,7 @@ import org.elasticsearch.search.aggregations.InternalOrder;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
 import org.elasticsearch.search.aggregations.LeafBucketCollectorBase;
 import org.elasticsearch.search.aggregations.bucket.BucketsAggregator;
+import org.elasticsearch.search.aggregations.bucket.PointRangeCounter;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
 import org.elasticsearch.search.aggregations.support.ValuesSource;
 import org.elasticsearch.search.internal.SearchContext;
@@ -52,6 +55,10 @@ import java.util.Map;
  * @see Rounding
  */
 class DateHistogramAggregator extends BucketsAggregator {
+    /**
+     * The maximum number of buckets of a segment for which documents are counted with points, see {@link #countWithPoints}.
+     */
+    static final int MAX_POINT_COUNTED_BUCKETS = 1024;
 
     private final ValuesSource.Numeric valuesSource;
     private final DocValueFormat formatter;
@@ -65,11 +72,13 @@ class DateHistogramAggregator extends BucketsAggregator {
 
     private final LongHash bucketOrds;
     private long offset;
+    @Nullable
+    private final PointRangeCounter pointRangeCounter;
 
     DateHistogramAggregator(String name, AggregatorFactories factories, Rounding rounding, Rounding shardRounding,
             long offset, BucketOrder order, boolean keyed,
             long minDocCount, @Nullable ExtendedBounds extendedBounds, @Nullable ValuesSource.Numeric valuesSource,
-            DocValueFormat formatter, SearchContext aggregationContext,
+            DocValueFormat formatter, @Nullable PointRangeCounter pointRangeCounter, SearchContext aggregationContext,
             Aggregator parent, List<PipelineAggregator> pipelineAggregators, Map<String, Object> metaData) throws IOException {
 
         super(name, factories, aggregationContext, parent, pipelineAggregators, metaData);
@@ -82,6 +91,7 @@ class DateHistogramAggregator extends BucketsAggregator {
         this.extendedBounds = extendedBounds;
         this.valuesSource = valuesSource;
         this.formatter = formatter;
+        this.pointRangeCounter = pointRangeCounter;
 
         bucketOrds = new LongHash(1, aggregationContext.bigArrays());
     }
@@ -100,6 +110,12 @@ class DateHistogramAggregator extends BucketsAggregator {
         if (valuesSource == null) {
             return LeafBucketCollector.NO_OP_COLLECTOR;
         }
+        if (pointRangeCounter != null) {
+            PointRangeCounter.Segment segment = pointRangeCounter.segment(ctx);
+            if (segment != null && countWithPoints(segment)) {
+                throw new CollectionTerminatedException();
+            }
+        }
         final SortedNumericDocValues values = valuesSource.longValues(ctx);
         return new LeafBucketCollectorBase(sub, values) {
             @Override
@@ -132,6 +148,48 @@ class DateHistogramAggregator extends BucketsAggregator {
         };
     }
 
+    /**
+     * Counts the documents of each bucket of the segment with a range query on the points of the field, which is
+     * much cheaper than collecting them if there are few buckets. Returns <code>false</code> without counting anything
+     * if there are too many buckets or if the bounds of the buckets can't be computed from the rounding.
+     */
+    private boolean countWithPoints(PointRangeCounter.Segment segment) throws IOException {
+        if (segment.min() > segment.max()) {
+            return true;
+        }
+        final long maxBuckets = Math.min(MAX_POINT_COUNTED_BUCKETS, segment.docCount() / 8);
+        final long lastKey = shardRounding.round(segment.max() - offset);
+        long key = shardRounding.round(segment.min() - offset);
+        // a bucket covers [key, nextKey) of the values shifted by the offset, this only holds if everything in between
+        // rounds to key, which is checked before counting anything
+        final LongArrayList bounds = new LongArrayList();
+        while (key <= lastKey) {
+            if (bounds.size() >= maxBuckets) {
+                return false;
+            }
+            final long nextKey = shardRounding.nextRoundingValue(key);
+            if (nextKey <= key || shardRounding.round(key) != key || shardRounding.round(nextKey - 1) != key) {
+                return false;
+            }
+            bounds.add(key);
+            key = nextKey;
+        }
+        bounds.add(key);
+        for (int i = 0; i < bounds.size() - 1; i++) {
+            final int count = segment.count(bounds.get(i) + offset, bounds.get(i + 1) - 1 + offset);
+            if (count > 0) {
+                long bucketOrd = bucketOrds.add(bounds.get(i) + offset);
+                if (bucketOrd < 0) { // already seen
+                    bucketOrd = -1 - bucketOrd;
+                } else {
+                    grow(bucketOrd + 1);
+                }
+                incrementBucketDocCount(bucketOrd, count);
+            }
+        }
+        return true;
+    }
+
     @Override
     public InternalAggregation buildAggregation(long owningBucketOrdinal) throws IOException {
         assert owningBucketOrdinal == 0;
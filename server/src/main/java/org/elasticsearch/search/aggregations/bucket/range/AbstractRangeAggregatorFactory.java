@@ -23,6 +23,7 @@ import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.AggregatorFactories;
 import org.elasticsearch.search.aggregations.AggregatorFactory;
+import org.elasticsearch.search.aggregations.bucket.PointRangeCounter;
 import org.elasticsearch.search.aggregations.bucket.range.RangeAggregator.Range;
 import org.elasticsearch.search.aggregations.bucket.range.RangeAggregator.Unmapped;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
@@ -72,8 +73,9 @@ public class AbstractRangeAggregatorFactory<R extends Range> extends ValuesSourc
                                             boolean collectsFromSingleBucket,
                                             List<PipelineAggregator> pipelineAggregators,
                                             Map<String, Object> metaData) throws IOException {
-        return new RangeAggregator(name, factories, valuesSource, config.format(), rangeFactory, ranges, keyed, searchContext, parent,
-                pipelineAggregators, metaData);
+        final PointRangeCounter pointRangeCounter = PointRangeCounter.build(config, searchContext, parent, factories);
+        return new RangeAggregator(name, factories, valuesSource, config.format(), rangeFactory, ranges, keyed, pointRangeCounter,
+                searchContext, parent, pipelineAggregators, metaData);
     }
 
 
@@ -19,7 +19,9 @@
 package org.elasticsearch.search.aggregations.bucket.range;
 
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectionTerminatedException;
 import org.apache.lucene.search.ScoreMode;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.ParseField;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
@@ -38,6 +40,7 @@ import org.elasticsearch.search.aggregations.LeafBucketCollector;
 import org.elasticsearch.search.aggregations.LeafBucketCollectorBase;
 import org.elasticsearch.search.aggregations.NonCollectingAggregator;
 import org.elasticsearch.search.aggregations.bucket.BucketsAggregator;
+import org.elasticsearch.search.aggregations.bucket.PointRangeCounter;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
 import org.elasticsearch.search.aggregations.support.ValuesSource;
 import org.elasticsearch.search.internal.SearchContext;
@@ -222,16 +225,26 @@ public class RangeAggregator extends BucketsAggregator {
     final Range[] ranges;
     final boolean keyed;
     final InternalRange.Factory rangeFactory;
+    @Nullable
+    final PointRangeCounter pointRangeCounter;
 
     final double[] maxTo;
 
     public RangeAggregator(String name, AggregatorFactories factories, ValuesSource.Numeric valuesSource, DocValueFormat format,
             InternalRange.Factory rangeFactory, Range[] ranges, boolean keyed, SearchContext context,
             Aggregator parent, List<PipelineAggregator> pipelineAggregators, Map<String, Object> metaData) throws IOException {
+        this(name, factories, valuesSource, format, rangeFactory, ranges, keyed, null, context, parent, pipelineAggregators, metaData);
+    }
+
+    public RangeAggregator(String name, AggregatorFactories factories, ValuesSource.Numeric valuesSource, DocValueFormat format,
+            InternalRange.Factory rangeFactory, Range[] ranges, boolean keyed, @Nullable PointRangeCounter pointRangeCounter,
+            SearchContext context, Aggregator parent, List<PipelineAggregator> pipelineAggregators,
+            Map<String, Object> metaData) throws IOException {
 
         super(name, factories, context, parent, pipelineAggregators, metaData);
         assert valuesSource != null;
         this.valuesSource = valuesSource;
+        this.pointRangeCounter = pointRangeCounter;
         this.format = format;
         this.keyed = keyed;
         this.rangeFactory = rangeFactory;
@@ -257,6 +270,13 @@ public class RangeAggregator extends BucketsAggregator {
     @Override
     public LeafBucketCollector getLeafCollector(LeafReaderContext ctx,
             final LeafBucketCollector sub) throws IOException {
+        if (pointRangeCounter != null) {
+            PointRangeCounter.Segment segment = pointRangeCounter.segment(ctx);
+            if (segment != null && ranges.length <= segment.docCount() / 8) {
+                countWithPoints(segment);
+                throw new CollectionTerminatedException();
+            }
+        }
         final SortedNumericDoubleValues values = valuesSource.doubleValues(ctx);
         return new LeafBucketCollectorBase(sub, values) {
             @Override
@@ -321,6 +341,27 @@ public class RangeAggregator extends BucketsAggregator {
         };
     }
 
+    /**
+     * Counts the documents of each range with a range query on the points of the field, which is much cheaper than
+     * collecting them if there are few ranges.
+     */
+    private void countWithPoints(PointRangeCounter.Segment segment) throws IOException {
+        grow(ranges.length);
+        for (int i = 0; i < ranges.length; i++) {
+            final Range range = ranges[i];
+            if (range.from > segment.max() || range.to <= segment.min()) {
+                continue;
+            }
+            // values are not larger than 2^53 so they compare to the bounds of the range exactly as doubles
+            final long from = Math.max(segment.min(), (long) Math.ceil(range.from));
+            final long to = Math.min(segment.max(), (long) Math.ceil(range.to) - 1);
+            final int count = segment.count(from, to);
+            if (count > 0) {
+                incrementBucketDocCount(subBucketOrdinal(0, i), count);
+            }
+        }
+    }
+
     private long subBucketOrdinal(long owningBucketOrdinal, int rangeOrd) {
         return owningBucketOrdinal * ranges.length + rangeOrd;
     }
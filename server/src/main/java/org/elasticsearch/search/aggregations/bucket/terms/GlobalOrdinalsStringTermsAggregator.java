@@ -177,9 +177,9 @@ public class GlobalOrdinalsStringTermsAggregator extends AbstractStringTermsAggr
         final int size;
         if (bucketCountThresholds.getMinDocCount() == 0) {
             // if minDocCount == 0 then we can end up with more buckets then maxBucketOrd() returns
-            size = (int) Math.min(valueCount, bucketCountThresholds.getShardSize());
+            size = (int) Math.min(valueCount, shardSize());
         } else {
-            size = (int) Math.min(maxBucketOrd(), bucketCountThresholds.getShardSize());
+            size = (int) Math.min(maxBucketOrd(), shardSize());
         }
         long otherDocCount = 0;
         BucketPriorityQueue<OrdBucket> ordered = new BucketPriorityQueue<>(size, order.comparator(this));
@@ -208,7 +208,7 @@ public class GlobalOrdinalsStringTermsAggregator extends AbstractStringTermsAggr
             spare.globalOrd = globalOrd;
             spare.bucketOrd = bucketOrd;
             spare.docCount = bucketDocCount;
-            if (bucketCountThresholds.getShardMinDocCount() <= spare.docCount) {
+            if (shardMinDocCount() <= spare.docCount) {
                 spare = ordered.insertWithOverflow(spare);
                 if (spare == null) {
                     consumeBucketsAndMaybeBreak(1);
@@ -289,6 +289,35 @@ public abstract class InternalTerms<A extends InternalTerms<A, B>, B extends Int
         return create(name, Arrays.asList(list), docCountError, otherDocCount);
     }
 
+    /**
+     * Keeps the top {@code shard_size} buckets that have at least {@code shardMinDocCount} documents, like the aggregator does
+     * when it builds the result of a shard. This is used for shards whose slices were collected concurrently, once the results
+     * of all slices have been reduced. The documents of the other buckets are added to the other doc count, and since the doc
+     * counts of a single shard are exact the doc count errors are reset.
+     */
+    public InternalTerms<A, B> pruneToShardSize(long shardMinDocCount) {
+        final List<B> buckets = getBuckets();
+        if (buckets.isEmpty()) {
+            return this;
+        }
+        final BucketPriorityQueue<B> ordered = new BucketPriorityQueue<>(Math.min(getShardSize(), buckets.size()),
+            order.comparator(null));
+        long otherDocCount = getSumOfOtherDocCounts();
+        for (B bucket : buckets) {
+            otherDocCount += bucket.docCount;
+            if (bucket.docCount >= shardMinDocCount) {
+                ordered.insertWithOverflow(bucket);
+            }
+        }
+        B[] list = createBucketsArray(ordered.size());
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            final B bucket = ordered.pop();
+            otherDocCount -= bucket.docCount;
+            list[i] = createBucket(bucket.docCount, bucket.aggregations, 0, bucket);
+        }
+        return create(name, Arrays.asList(list), 0, otherDocCount);
+    }
+
     @Override
     protected B reduceBucket(List<B> buckets, ReduceContext context) {
         assert buckets.size() > 0;
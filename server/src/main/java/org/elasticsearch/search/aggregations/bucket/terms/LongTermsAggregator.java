@@ -130,7 +130,7 @@ public class LongTermsAggregator extends TermsAggregator {
             }
         }
 
-        final int size = (int) Math.min(bucketOrds.size(), bucketCountThresholds.getShardSize());
+        final int size = (int) Math.min(bucketOrds.size(), shardSize());
         long otherDocCount = 0;
         BucketPriorityQueue<LongTerms.Bucket> ordered = new BucketPriorityQueue<>(size, order.comparator(this));
         LongTerms.Bucket spare = null;
@@ -142,7 +142,7 @@ public class LongTermsAggregator extends TermsAggregator {
             spare.docCount = bucketDocCount(i);
             otherDocCount += spare.docCount;
             spare.bucketOrd = i;
-            if (bucketCountThresholds.getShardMinDocCount() <= spare.docCount) {
+            if (shardMinDocCount() <= spare.docCount) {
                 spare = ordered.insertWithOverflow(spare);
                 if (spare == null) {
                     consumeBucketsAndMaybeBreak(1);
@@ -135,7 +135,7 @@ public class StringTermsAggregator extends AbstractStringTermsAggregator {
             }
         }
 
-        final int size = (int) Math.min(bucketOrds.size(), bucketCountThresholds.getShardSize());
+        final int size = (int) Math.min(bucketOrds.size(), shardSize());
 
         long otherDocCount = 0;
         BucketPriorityQueue<StringTerms.Bucket> ordered = new BucketPriorityQueue<>(size, order.comparator(this));
@@ -148,7 +148,7 @@ public class StringTermsAggregator extends AbstractStringTermsAggregator {
             spare.docCount = bucketDocCount(i);
             otherDocCount += spare.docCount;
             spare.bucketOrd = i;
-            if (bucketCountThresholds.getShardMinDocCount() <= spare.docCount) {
+            if (shardMinDocCount() <= spare.docCount) {
                 spare = ordered.insertWithOverflow(spare);
                 if (spare == null) {
                     consumeBucketsAndMaybeBreak(1);
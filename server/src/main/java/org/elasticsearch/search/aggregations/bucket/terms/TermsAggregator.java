@@ -183,6 +183,25 @@ public abstract class TermsAggregator extends DeferableBucketAggregator {
     protected final Set<Aggregator> aggsUsedForSorting = new HashSet<>();
     protected final SubAggCollectionMode collectMode;
 
+    /**
+     * The maximum number of buckets to keep when building the result of this shard. When the slices of the shard were collected
+     * concurrently all buckets of each slice are kept, they are pruned once the slices have been reduced.
+     */
+    protected final int shardSize() {
+        return collectedInSlices() ? Integer.MAX_VALUE : bucketCountThresholds.getShardSize();
+    }
+
+    /**
+     * The minimum number of documents of the buckets to keep when building the result of this shard, see {@link #shardSize()}.
+     */
+    protected final long shardMinDocCount() {
+        return collectedInSlices() ? 0 : bucketCountThresholds.getShardMinDocCount();
+    }
+
+    private boolean collectedInSlices() {
+        return context.aggregations() != null && context.aggregations().hasSliceAggregators();
+    }
+
     public TermsAggregator(String name, AggregatorFactories factories, SearchContext context, Aggregator parent,
             BucketCountThresholds bucketCountThresholds, BucketOrder order, DocValueFormat format, SubAggCollectionMode collectMode,
             List<PipelineAggregator> pipelineAggregators, Map<String, Object> metaData) throws IOException {
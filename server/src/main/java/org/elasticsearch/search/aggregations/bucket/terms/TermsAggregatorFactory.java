@@ -20,7 +20,21 @@
 package org.elasticsearch.search.aggregations.bucket.terms;
 
 import org.apache.logging.log4j.LogManager;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.DocValuesFieldExistsQuery;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PointRangeQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.Weight;
 import org.elasticsearch.common.ParseField;
 import org.elasticsearch.common.logging.DeprecationLogger;
 import org.elasticsearch.index.query.QueryShardContext;
@@ -52,6 +66,12 @@ public class TermsAggregatorFactory extends ValuesSourceAggregatorFactory<Values
 
     static Boolean REMAP_GLOBAL_ORDS, COLLECT_SEGMENT_ORDS;
 
+    /**
+     * The {@link ExecutionMode#MAP} mode is picked by default if the query is expected to match less documents
+     * than the number of segment terms that would need to be merged to build global ordinals divided by this ratio.
+     */
+    static final int TERMS_PER_MATCHING_DOC_RATIO = 16;
+
     private final BucketOrder order;
     private final IncludeExclude includeExclude;
     private final String executionHint;
@@ -142,7 +162,13 @@ public class TermsAggregatorFactory extends ValuesSourceAggregatorFactory<Values
             }
             final long maxOrd = execution == ExecutionMode.GLOBAL_ORDINALS ? getMaxOrd(valuesSource, searchContext.searcher()) : -1;
             if (execution == null) {
-                execution = ExecutionMode.GLOBAL_ORDINALS;
+                if (Aggregator.descendsFromBucketAggregator(parent) == false &&
+                        matchesFewDocuments((ValuesSource.Bytes.WithOrdinals) valuesSource, searchContext)) {
+                    // collecting the few matching documents from the segments is cheaper than building global ordinals
+                    execution = ExecutionMode.MAP;
+                } else {
+                    execution = ExecutionMode.GLOBAL_ORDINALS;
+                }
             }
             SubAggCollectionMode cm = collectMode;
             if (cm == null) {
@@ -213,6 +239,86 @@ public class TermsAggregatorFactory extends ValuesSourceAggregatorFactory<Values
         return SubAggCollectionMode.DEPTH_FIRST;
     }
 
+    /**
+     * Returns <code>true</code> if the query is expected to match so few documents that looking up their terms on
+     * each segment is cheaper than building the global ordinals of the field, which requires to merge the terms of
+     * all segments. The number of matching documents is estimated with the cost of the query on each segment, this
+     * is only done for queries whose cost can be computed without doing any real work, see {@link #hasCheapCost(Query)}.
+     */
+    boolean matchesFewDocuments(ValuesSource.Bytes.WithOrdinals valuesSource, SearchContext context) throws IOException {
+        final Query query = context.query();
+        final IndexReader reader = context.searcher().getIndexReader();
+        if (query == null || reader.leaves().size() <= 1) {
+            // global ordinals are the segment ordinals if there is a single segment
+            return false;
+        }
+        if (hasCheapCost(query) == false) {
+            // the estimation would need to rewrite or evaluate parts of the query
+            return false;
+        }
+        if (config.fieldContext() != null && config.fieldContext().fieldType().eagerGlobalOrdinals()) {
+            // global ordinals are built on refresh
+            return false;
+        }
+        long numTerms = 0;
+        for (LeafReaderContext ctx : reader.leaves()) {
+            numTerms += valuesSource.ordinalsValues(ctx).getValueCount();
+        }
+        final long maxMatchingDocs = numTerms / TERMS_PER_MATCHING_DOC_RATIO;
+        if (maxMatchingDocs == 0) {
+            return false;
+        }
+        // we don't use the context searcher in order to not populate the query cache or the profiler
+        final IndexSearcher searcher = new IndexSearcher(reader);
+        searcher.setQueryCache(null);
+        final Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        long matchingDocs = 0;
+        for (LeafReaderContext ctx : reader.leaves()) {
+            ScorerSupplier scorerSupplier = weight.scorerSupplier(ctx);
+            if (scorerSupplier != null) {
+                matchingDocs += scorerSupplier.cost();
+                if (matchingDocs > maxMatchingDocs) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns <code>true</code> if the cost of the provided query can be computed cheaply, that is if it is
+     * only made of term, point range, exists, match_all and match_none queries (possibly nested in boolean queries).
+     * Multi-term queries for instance need to visit the terms dictionary in order to compute their cost.
+     */
+    static boolean hasCheapCost(Query query) {
+        final boolean[] cheap = new boolean[] { true };
+        query.visit(new QueryVisitor() {
+            @Override
+            public void consumeTerms(Query query, Term... terms) {
+                if (query instanceof TermQuery == false) {
+                    cheap[0] = false;
+                }
+            }
+
+            @Override
+            public void visitLeaf(Query query) {
+                if (query instanceof PointRangeQuery == false
+                        && query instanceof DocValuesFieldExistsQuery == false
+                        && query instanceof MatchAllDocsQuery == false
+                        && query instanceof MatchNoDocsQuery == false) {
+                    cheap[0] = false;
+                }
+            }
+
+            @Override
+            public QueryVisitor getSubVisitor(BooleanClause.Occur occur, Query parent) {
+                // the default ignores MUST_NOT clauses, but their scorers are also built to compute the cost of the query
+                return this;
+            }
+        });
+        return cheap[0];
+    }
+
     /**
      * Get the maximum global ordinal value for the provided {@link ValuesSource} or -1
      * if the values source is not an instance of {@link ValuesSource.Bytes.WithOrdinals}.
@@ -24,8 +24,9 @@ import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.ScoreMode;
 import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.util.ArrayUtils;
-import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.ObjectArray;
+import org.elasticsearch.index.fielddata.HistogramValue;
+import org.elasticsearch.index.fielddata.HistogramValues;
 import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.aggregations.Aggregator;
@@ -47,13 +48,13 @@ abstract class AbstractHDRPercentilesAggregator extends NumericMetricsAggregator
     }
 
     protected final double[] keys;
-    protected final ValuesSource.Numeric valuesSource;
+    protected final ValuesSource valuesSource;
     protected final DocValueFormat format;
     protected ObjectArray<DoubleHistogram> states;
     protected final int numberOfSignificantValueDigits;
     protected final boolean keyed;
 
-    AbstractHDRPercentilesAggregator(String name, ValuesSource.Numeric valuesSource, SearchContext context, Aggregator parent,
+    AbstractHDRPercentilesAggregator(String name, ValuesSource valuesSource, SearchContext context, Aggregator parent,
             double[] keys, int numberOfSignificantValueDigits, boolean keyed, DocValueFormat formatter,
             List<PipelineAggregator> pipelineAggregators, Map<String, Object> metaData) throws IOException {
         super(name, context, parent, pipelineAggregators, metaData);
@@ -76,26 +77,27 @@ abstract class AbstractHDRPercentilesAggregator extends NumericMetricsAggregator
         if (valuesSource == null) {
             return LeafBucketCollector.NO_OP_COLLECTOR;
         }
-        final BigArrays bigArrays = context.bigArrays();
-        final SortedNumericDoubleValues values = valuesSource.doubleValues(ctx);
+        if (valuesSource instanceof ValuesSource.Histogram) {
+            final HistogramValues values = ((ValuesSource.Histogram) valuesSource).getHistogramValues(ctx);
+            return new LeafBucketCollectorBase(sub, values) {
+                @Override
+                public void collect(int doc, long bucket) throws IOException {
+                    DoubleHistogram state = getExistingOrNewState(bucket);
+                    if (values.advanceExact(doc)) {
+                        // merge the pre-aggregated buckets instead of expanding them into individual values
+                        final HistogramValue sketch = values.histogram();
+                        while (sketch.next()) {
+                            state.recordValueWithCount(sketch.value(), sketch.count());
+                        }
+                    }
+                }
+            };
+        }
+        final SortedNumericDoubleValues values = ((ValuesSource.Numeric) valuesSource).doubleValues(ctx);
         return new LeafBucketCollectorBase(sub, values) {
             @Override
             public void collect(int doc, long bucket) throws IOException {
-                states = bigArrays.grow(states, bucket + 1);
-
-                DoubleHistogram state = states.get(bucket);
-                if (state == null) {
-                    state = new DoubleHistogram(numberOfSignificantValueDigits);
-                    // Set the histogram to autosize so it can resize itself as
-                    // the data range increases. Resize operations should be
-                    // rare as the histogram buckets are exponential (on the top
-                    // level). In the future we could expose the range as an
-                    // option on the request so the histogram can be fixed at
-                    // initialisation and doesn't need resizing.
-                    state.setAutoResize(true);
-                    states.set(bucket, state);
-                }
-
+                DoubleHistogram state = getExistingOrNewState(bucket);
                 if (values.advanceExact(doc)) {
                     final int valueCount = values.docValueCount();
                     for (int i = 0; i < valueCount; i++) {
@@ -106,6 +108,23 @@ abstract class AbstractHDRPercentilesAggregator extends NumericMetricsAggregator
         };
     }
 
+    private DoubleHistogram getExistingOrNewState(long bucket) {
+        states = context.bigArrays().grow(states, bucket + 1);
+        DoubleHistogram state = states.get(bucket);
+        if (state == null) {
+            state = new DoubleHistogram(numberOfSignificantValueDigits);
+            // Set the histogram to autosize so it can resize itself as
+            // the data range increases. Resize operations should be
+            // rare as the histogram buckets are exponential (on the top
+            // level). In the future we could expose the range as an
+            // option on the request so the histogram can be fixed at
+            // initialisation and doesn't need resizing.
+            state.setAutoResize(true);
+            states.set(bucket, state);
+        }
+        return state;
+    }
+
     @Override
     public boolean hasMetric(String name) {
         return indexOfKey(keys, Double.parseDouble(name)) >= 0;
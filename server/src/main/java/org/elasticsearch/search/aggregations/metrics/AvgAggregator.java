@@ -24,6 +24,8 @@ import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.DoubleArray;
 import org.elasticsearch.common.util.LongArray;
+import org.elasticsearch.index.fielddata.HistogramValue;
+import org.elasticsearch.index.fielddata.HistogramValues;
 import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.aggregations.Aggregator;
@@ -40,14 +42,14 @@ import java.util.Map;
 
 class AvgAggregator extends NumericMetricsAggregator.SingleValue {
 
-    final ValuesSource.Numeric valuesSource;
+    final ValuesSource valuesSource;
 
     LongArray counts;
     DoubleArray sums;
     DoubleArray compensations;
     DocValueFormat format;
 
-    AvgAggregator(String name, ValuesSource.Numeric valuesSource, DocValueFormat formatter, SearchContext context,
+    AvgAggregator(String name, ValuesSource valuesSource, DocValueFormat formatter, SearchContext context,
             Aggregator parent, List<PipelineAggregator> pipelineAggregators, Map<String, Object> metaData) throws IOException {
         super(name, context, parent, pipelineAggregators, metaData);
         this.valuesSource = valuesSource;
@@ -72,7 +74,41 @@ class AvgAggregator extends NumericMetricsAggregator.SingleValue {
             return LeafBucketCollector.NO_OP_COLLECTOR;
         }
         final BigArrays bigArrays = context.bigArrays();
-        final SortedNumericDoubleValues values = valuesSource.doubleValues(ctx);
+        if (valuesSource instanceof ValuesSource.Histogram) {
+            final HistogramValues values = ((ValuesSource.Histogram) valuesSource).getHistogramValues(ctx);
+            return new LeafBucketCollectorBase(sub, values) {
+                @Override
+                public void collect(int doc, long bucket) throws IOException {
+                    counts = bigArrays.grow(counts, bucket + 1);
+                    sums = bigArrays.grow(sums, bucket + 1);
+                    compensations = bigArrays.grow(compensations, bucket + 1);
+
+                    if (values.advanceExact(doc)) {
+                        // each bucket of the pre-aggregated histogram stands for count occurrences of its value
+                        final HistogramValue sketch = values.histogram();
+                        double sum = sums.get(bucket);
+                        double compensation = compensations.get(bucket);
+                        long count = 0;
+                        while (sketch.next()) {
+                            count += sketch.count();
+                            double value = sketch.value() * sketch.count();
+                            if (Double.isFinite(value) == false) {
+                                sum += value;
+                            } else if (Double.isFinite(sum)) {
+                                double corrected = value - compensation;
+                                double newSum = sum + corrected;
+                                compensation = (newSum - sum) - corrected;
+                                sum = newSum;
+                            }
+                        }
+                        counts.increment(bucket, count);
+                        sums.set(bucket, sum);
+                        compensations.set(bucket, compensation);
+                    }
+                }
+            };
+        }
+        final SortedNumericDoubleValues values = ((ValuesSource.Numeric) valuesSource).doubleValues(ctx);
         return new LeafBucketCollectorBase(sub, values) {
             @Override
             public void collect(int doc, long bucket) throws IOException {
@@ -34,6 +34,7 @@ import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.LongArray;
+import org.elasticsearch.common.util.LongHash;
 import org.elasticsearch.common.util.ObjectArray;
 import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
 import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
@@ -106,6 +107,12 @@ class CardinalityAggregator extends NumericMetricsAggregator.SingleValue {
             if (ordinalsMemoryUsage < countsMemoryUsage / 4) {
                 return new OrdinalsCollector(counts, ordinalValues, context.bigArrays());
             }
+            // when ordinals are shared by several documents on average, hash each of them once. The cache only
+            // grows with the number of distinct ordinals that are collected so queries that match few documents
+            // don't pay for the size of the terms dictionary
+            if (maxOrd <= ctx.reader().maxDoc() / 2) {
+                return new OrdinalHashesCollector(counts, ordinalValues, context.bigArrays());
+            }
         }
 
         return new DirectCollector(counts, MurmurHash3Values.hash(valuesSource.bytesValues(ctx)));
@@ -301,6 +308,75 @@ class CardinalityAggregator extends NumericMetricsAggregator.SingleValue {
 
     }
 
+    /**
+     * Caches the hashes of the ordinals of a segment so that the hash of each ordinal is computed
+     * once, the first time a document with this ordinal is collected. The cache grows with the number
+     * of distinct ordinals that are collected and stops caching new ordinals once it holds
+     * {@link #MAX_CACHED_ORDS} of them.
+     */
+    private static class OrdinalHashesCollector extends Collector {
+
+        static final int MAX_CACHED_ORDS = 1 << 16;
+
+        private final BigArrays bigArrays;
+        private final SortedSetDocValues values;
+        private final HyperLogLogPlusPlus counts;
+        private final org.elasticsearch.common.hash.MurmurHash3.Hash128 hash =
+            new org.elasticsearch.common.hash.MurmurHash3.Hash128();
+        private LongHash cachedOrds;
+        private LongArray hashes;
+
+        OrdinalHashesCollector(HyperLogLogPlusPlus counts, SortedSetDocValues values, BigArrays bigArrays) {
+            this.bigArrays = bigArrays;
+            this.counts = counts;
+            this.values = values;
+            boolean success = false;
+            try {
+                this.cachedOrds = new LongHash(1, bigArrays);
+                this.hashes = bigArrays.newLongArray(1, false);
+                success = true;
+            } finally {
+                if (success == false) {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void collect(int doc, long bucketOrd) throws IOException {
+            if (values.advanceExact(doc)) {
+                for (long ord = values.nextOrd(); ord != SortedSetDocValues.NO_MORE_ORDS; ord = values.nextOrd()) {
+                    counts.collect(bucketOrd, hash(ord));
+                }
+            }
+        }
+
+        private long hash(long ord) throws IOException {
+            final long id = cachedOrds.find(ord);
+            if (id >= 0) {
+                return hashes.get(id);
+            }
+            final BytesRef value = values.lookupOrd(ord);
+            org.elasticsearch.common.hash.MurmurHash3.hash128(value.bytes, value.offset, value.length, 0, hash);
+            if (cachedOrds.size() < MAX_CACHED_ORDS) {
+                final long newId = cachedOrds.add(ord);
+                hashes = bigArrays.grow(hashes, newId + 1);
+                hashes.set(newId, hash.h1);
+            }
+            return hash.h1;
+        }
+
+        @Override
+        public void postCollect() {
+            // no-op
+        }
+
+        @Override
+        public void close() {
+            Releasables.close(cachedOrds, hashes);
+        }
+    }
+
     /**
      * Representation of a list of hash values. There might be dups and there is no guarantee on the order.
      */
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.search.aggregations.metrics;
 
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.LongBitSet;
 import org.apache.lucene.util.packed.PackedInts;
@@ -821,10 +822,24 @@ public final class HyperLogLogPlusPlus implements Releasable {
             if (algorithm.get(thisBucket) != HYPERLOGLOG) {
                 upgradeToHll(thisBucket);
             }
+            // merge the registers in bulk rather than going through the paged arrays for each of them
             final long thisStart = thisBucket << p;
-            final long otherStart = otherBucket << p;
+            final BytesRef thisRunLens = new BytesRef();
+            final BytesRef otherRunLens = new BytesRef();
+            runLens.get(thisStart, m, thisRunLens);
+            other.runLens.get(otherBucket << p, m, otherRunLens);
+            byte[] merged = null;
             for (int i = 0; i < m; ++i) {
-                runLens.set(thisStart + i, (byte) Math.max(runLens.get(thisStart + i), other.runLens.get(otherStart + i)));
+                final byte otherRunLen = otherRunLens.bytes[otherRunLens.offset + i];
+                if (otherRunLen > thisRunLens.bytes[thisRunLens.offset + i]) {
+                    if (merged == null) {
+                        merged = ArrayUtil.copyOfSubArray(thisRunLens.bytes, thisRunLens.offset, thisRunLens.offset + m);
+                    }
+                    merged[i] = otherRunLen;
+                }
+            }
+            if (merged != null) {
+                runLens.set(thisStart, merged, 0, m);
             }
         }
     }
@@ -1160,9 +1175,9 @@ public final class HyperLogLogPlusPlus implements Releasable {
             }
         } else {
             out.writeBoolean(HYPERLOGLOG);
-            for (long i = bucket << p, end = i + m; i < end; ++i) {
-                out.writeByte(runLens.get(i));
-            }
+            final BytesRef registers = new BytesRef();
+            runLens.get(bucket << p, m, registers);
+            out.writeBytes(registers.bytes, registers.offset, registers.length);
         }
     }
 
@@ -1179,9 +1194,9 @@ public final class HyperLogLogPlusPlus implements Releasable {
             }
         } else {
             counts.algorithm.set(0);
-            for (int i = 0; i < counts.m; ++i) {
-                counts.runLens.set(i, in.readByte());
-            }
+            final byte[] registers = new byte[counts.m];
+            in.readBytes(registers, 0, registers.length);
+            counts.runLens.set(0, registers, 0, registers.length);
         }
         return counts;
     }
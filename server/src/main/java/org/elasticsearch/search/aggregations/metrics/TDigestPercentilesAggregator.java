@@ -22,7 +22,7 @@ import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.InternalAggregation;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
-import org.elasticsearch.search.aggregations.support.ValuesSource.Numeric;
+import org.elasticsearch.search.aggregations.support.ValuesSource;
 import org.elasticsearch.search.internal.SearchContext;
 
 import java.io.IOException;
@@ -32,7 +32,7 @@ import java.util.Map;
 class TDigestPercentilesAggregator extends AbstractTDigestPercentilesAggregator {
 
     TDigestPercentilesAggregator(String name,
-                                    Numeric valuesSource,
+                                    ValuesSource valuesSource,
                                     SearchContext context,
                                     Aggregator parent,
                                     double[] percents,
@@ -83,6 +83,11 @@ public class ValueCountAggregationBuilder extends ValuesSourceAggregationBuilder
         return true;
     }
 
+    @Override
+    protected boolean supportsHistogramValues() {
+        return true;
+    }
+
     @Override
     protected ValueCountAggregatorFactory innerBuild(QueryShardContext queryShardContext,
                                                         ValuesSourceConfig<ValuesSource> config,
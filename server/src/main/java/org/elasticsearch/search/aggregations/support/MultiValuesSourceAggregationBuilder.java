@@ -171,6 +171,8 @@ public abstract class MultiValuesSourceAggregationBuilder<VS extends ValuesSourc
         fields.forEach((key, value) -> {
             ValuesSourceConfig<VS> config = ValuesSourceConfig.resolve(queryShardContext, finalValueType,
                 value.getFieldName(), value.getScript(), value.getMissing(), value.getTimeZone(), format);
+            // none of the multi values source aggregations knows how to consume pre-aggregated histograms
+            config.rejectHistogramValues(getType());
             configs.put(key, config);
         });
         DocValueFormat docValueFormat = resolveFormat(format, finalValueType);
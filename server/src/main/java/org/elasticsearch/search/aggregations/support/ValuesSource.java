@@ -34,7 +34,9 @@ import org.elasticsearch.index.fielddata.AbstractSortingNumericDocValues;
 import org.elasticsearch.index.fielddata.AtomicOrdinalsFieldData;
 import org.elasticsearch.index.fielddata.DocValueBits;
 import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.fielddata.HistogramValues;
 import org.elasticsearch.index.fielddata.IndexGeoPointFieldData;
+import org.elasticsearch.index.fielddata.IndexHistogramFieldData;
 import org.elasticsearch.index.fielddata.IndexNumericFieldData;
 import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.fielddata.MultiGeoPointValues;
@@ -552,4 +554,39 @@ public abstract class ValuesSource {
         }
     }
 
+    public abstract static class Histogram extends ValuesSource {
+
+        @Override
+        public DocValueBits docsWithValue(LeafReaderContext context) throws IOException {
+            final HistogramValues histogramValues = getHistogramValues(context);
+            return new DocValueBits() {
+                @Override
+                public boolean advanceExact(int doc) throws IOException {
+                    return histogramValues.advanceExact(doc);
+                }
+            };
+        }
+
+        public abstract HistogramValues getHistogramValues(LeafReaderContext context) throws IOException;
+
+        public static class Fielddata extends Histogram {
+
+            protected final IndexHistogramFieldData indexFieldData;
+
+            public Fielddata(IndexHistogramFieldData indexFieldData) {
+                this.indexFieldData = indexFieldData;
+            }
+
+            @Override
+            public SortedBinaryDocValues bytesValues(LeafReaderContext context) {
+                return indexFieldData.load(context).getBytesValues();
+            }
+
+            @Override
+            public HistogramValues getHistogramValues(LeafReaderContext context) {
+                return indexFieldData.load(context).getHistogramValues();
+            }
+        }
+    }
+
 }
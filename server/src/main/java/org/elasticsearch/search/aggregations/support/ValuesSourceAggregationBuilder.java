@@ -335,10 +335,21 @@ public abstract class ValuesSourceAggregationBuilder<VS extends ValuesSource, AB
         return valueType;
     }
 
+    /**
+     * Whether this aggregation knows how to consume pre-aggregated histograms, see {@link ValuesSource.Histogram}.
+     */
+    protected boolean supportsHistogramValues() {
+        return false;
+    }
+
     protected ValuesSourceConfig<VS> resolveConfig(QueryShardContext queryShardContext) {
         ValueType valueType = this.valueType != null ? this.valueType : targetValueType;
-        return ValuesSourceConfig.resolve(queryShardContext,
+        ValuesSourceConfig<VS> config = ValuesSourceConfig.resolve(queryShardContext,
                 valueType, field, script, missing, timeZone, format, this::resolveScriptAny);
+        if (supportsHistogramValues() == false) {
+            config.rejectHistogramValues(getType());
+        }
+        return config;
     }
 
     protected abstract ValuesSourceAggregatorFactory<VS> innerBuild(QueryShardContext queryShardContext,
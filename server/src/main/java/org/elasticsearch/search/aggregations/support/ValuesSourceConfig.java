@@ -24,6 +24,7 @@ import org.elasticsearch.common.geo.GeoPoint;
 import org.elasticsearch.common.time.DateFormatter;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.fielddata.IndexGeoPointFieldData;
+import org.elasticsearch.index.fielddata.IndexHistogramFieldData;
 import org.elasticsearch.index.fielddata.IndexNumericFieldData;
 import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.mapper.DateFieldMapper;
@@ -118,6 +119,8 @@ public class ValuesSourceConfig<VS extends ValuesSource> {
             config = new ValuesSourceConfig<>(ValuesSourceType.GEOPOINT);
         } else if (fieldType instanceof RangeFieldMapper.RangeFieldType) {
             config = new ValuesSourceConfig<>(ValuesSourceType.RANGE);
+        } else if (indexFieldData instanceof IndexHistogramFieldData) {
+            config = new ValuesSourceConfig<>(ValuesSourceType.HISTOGRAM);
         } else {
             if (valueType == null) {
                 config = new ValuesSourceConfig<>(ValuesSourceType.BYTES);
@@ -325,10 +328,24 @@ public class ValuesSourceConfig<VS extends ValuesSource> {
         if (valueSourceType() == ValuesSourceType.RANGE) {
             return (VS) rangeField();
         }
+        if (valueSourceType() == ValuesSourceType.HISTOGRAM) {
+            return (VS) histogramField();
+        }
         // falling back to bytes values
         return (VS) bytesField();
     }
 
+    /**
+     * Fails if the values are pre-aggregated histograms, see {@link ValuesSource.Histogram}. Must be called by aggregations that
+     * don't know how to consume them, whatever the path that resolved this config.
+     */
+    public void rejectHistogramValues(String aggregationType) {
+        if (valueSourceType() == ValuesSourceType.HISTOGRAM) {
+            throw new IllegalArgumentException("Field [" + fieldContext().field() + "] of type [" + fieldContext().fieldType().typeName()
+                + "] is not supported for aggregation [" + aggregationType + "]");
+        }
+    }
+
     private ValuesSource.Numeric numericScript() {
         return new ValuesSource.Numeric.Script(script(), scriptValueType());
     }
@@ -375,6 +392,10 @@ public class ValuesSourceConfig<VS extends ValuesSource> {
         return new ValuesSource.GeoPoint.Fielddata((IndexGeoPointFieldData) fieldContext().indexFieldData());
     }
 
+    private ValuesSource.Histogram histogramField() {
+        return new ValuesSource.Histogram.Fielddata((IndexHistogramFieldData) fieldContext().indexFieldData());
+    }
+
     private ValuesSource rangeField() {
         MappedFieldType fieldType = fieldContext.fieldType();
 
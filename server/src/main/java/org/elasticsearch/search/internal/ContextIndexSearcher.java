@@ -27,6 +27,7 @@ import org.apache.lucene.search.BulkScorer;
 import org.apache.lucene.search.CollectionStatistics;
 import org.apache.lucene.search.CollectionTerminatedException;
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.ConjunctionDISI;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.Explanation;
@@ -45,6 +46,8 @@ import org.apache.lucene.util.BitSetIterator;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.CombinedBitSet;
 import org.apache.lucene.util.SparseFixedBitSet;
+import org.apache.lucene.util.ThreadInterruptedException;
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.search.dfs.AggregatedDfs;
 import org.elasticsearch.search.profile.Timer;
 import org.elasticsearch.search.profile.query.ProfileWeight;
@@ -53,9 +56,13 @@ import org.elasticsearch.search.profile.query.QueryProfiler;
 import org.elasticsearch.search.profile.query.QueryTimingType;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 /**
  * Context-aware extension of {@link IndexSearcher}.
@@ -72,12 +79,30 @@ public class ContextIndexSearcher extends IndexSearcher {
     private Runnable checkCancelled;
 
     public ContextIndexSearcher(IndexReader reader, Similarity similarity, QueryCache queryCache, QueryCachingPolicy queryCachingPolicy) {
-        super(reader);
+        this(reader, similarity, queryCache, queryCachingPolicy, null);
+    }
+
+    /**
+     * Creates a searcher that searches the slices of the reader concurrently on the provided <code>executor</code> when it is given
+     * a {@link org.apache.lucene.search.CollectorManager}, or sequentially if <code>executor</code> is null.
+     */
+    public ContextIndexSearcher(IndexReader reader, Similarity similarity, QueryCache queryCache, QueryCachingPolicy queryCachingPolicy,
+                                Executor executor) {
+        super(reader, executor);
         setSimilarity(similarity);
         setQueryCache(queryCache);
         setQueryCachingPolicy(queryCachingPolicy);
     }
 
+    /**
+     * Returns true if this searcher searches slices of the reader concurrently when given a
+     * {@link org.apache.lucene.search.CollectorManager}.
+     */
+    public boolean isConcurrent() {
+        // the slices are only computed when an executor is provided
+        return leafSlices != null && leafSlices.length > 1;
+    }
+
     public void setProfiler(QueryProfiler profiler) {
         this.profiler = profiler;
     }
@@ -131,6 +156,74 @@ public class ContextIndexSearcher extends IndexSearcher {
         }
     }
 
+    /**
+     * Searches the slices of the reader concurrently if an executor was provided. Unlike {@link IndexSearcher}, this always
+     * waits for all slices to complete, even if one of them fails, so that the collectors can be safely read afterwards.
+     * The failure of the first slice that failed, like an early termination or a timeout, is rethrown unwrapped.
+     */
+    @Override
+    public <C extends Collector, T> T search(Query query, CollectorManager<C, T> collectorManager) throws IOException {
+        if (isConcurrent() == false) {
+            return super.search(query, collectorManager);
+        }
+        final List<C> collectors = new ArrayList<>(leafSlices.length);
+        ScoreMode scoreMode = null;
+        for (int i = 0; i < leafSlices.length; i++) {
+            final C collector = collectorManager.newCollector();
+            if (scoreMode == null) {
+                scoreMode = collector.scoreMode();
+            } else if (scoreMode != collector.scoreMode()) {
+                throw new IllegalStateException("CollectorManager does not always produce collectors with the same score mode");
+            }
+            collectors.add(collector);
+        }
+        final Weight weight = createWeight(rewrite(query), scoreMode, 1);
+
+        final List<FutureTask<C>> tasks = new ArrayList<>(leafSlices.length - 1);
+        for (int i = 0; i < leafSlices.length - 1; i++) {
+            final List<LeafReaderContext> leaves = Arrays.asList(leafSlices[i].leaves);
+            final C collector = collectors.get(i);
+            final FutureTask<C> task = new FutureTask<>(() -> {
+                search(leaves, weight, collector);
+                return collector;
+            });
+            tasks.add(task);
+            try {
+                getExecutor().execute(task);
+            } catch (RuntimeException e) {
+                // the executor is shutting down or its queue is full, collect the slice on the current thread
+                task.run();
+            }
+        }
+        // the last slice is collected by the current thread
+        Throwable failure = null;
+        try {
+            search(Arrays.asList(leafSlices[leafSlices.length - 1].leaves), weight, collectors.get(leafSlices.length - 1));
+        } catch (Exception e) {
+            failure = e;
+        }
+        for (FutureTask<C> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                failure = ExceptionsHelper.useOrSuppress(failure, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ThreadInterruptedException(e);
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new IOException(failure);
+        }
+        return collectorManager.reduce(collectors);
+    }
+
     @Override
     protected void search(List<LeafReaderContext> leaves, Weight weight, Collector collector) throws IOException {
         final Weight cancellableWeight;
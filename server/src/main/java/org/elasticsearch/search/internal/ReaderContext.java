@@ -0,0 +1,120 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.search.internal;
+
+import org.elasticsearch.common.util.concurrent.AbstractRefCounted;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.ShardId;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds an {@link Engine.Searcher} open on behalf of a point in time so that subsequent searches on the same shard all see the same
+ * view of the index. Each search executing against the reader holds a reference to it, and the underlying searcher is released once
+ * the reader context has been freed (or has expired) and all searches using it have completed.
+ */
+public final class ReaderContext extends AbstractRefCounted {
+
+    private final long id;
+    private final IndexShard indexShard;
+    private final Engine.Searcher searcher;
+    private final AliasFilter aliasFilter;
+    private final AtomicLong keepAlive;
+    private final AtomicLong lastAccessTime;
+    private Map<String, Object> context = null;
+
+    public ReaderContext(long id, IndexShard indexShard, Engine.Searcher searcher, AliasFilter aliasFilter,
+                         long keepAliveInMillis, long nowInMillis) {
+        super("reader_context");
+        this.id = id;
+        this.indexShard = indexShard;
+        this.searcher = searcher;
+        this.aliasFilter = aliasFilter;
+        this.keepAlive = new AtomicLong(keepAliveInMillis);
+        this.lastAccessTime = new AtomicLong(nowInMillis);
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public IndexShard indexShard() {
+        return indexShard;
+    }
+
+    public ShardId shardId() {
+        return indexShard.shardId();
+    }
+
+    /**
+     * Returns the alias filter that was resolved when the point in time was opened. It applies to every search that uses this
+     * reader context, regardless of what the search request says.
+     */
+    public AliasFilter aliasFilter() {
+        return aliasFilter;
+    }
+
+    /**
+     * Returns a new searcher on the pinned reader. The caller must have acquired a reference to this reader context, which is handed
+     * over to the returned searcher and released when it is closed.
+     */
+    public Engine.Searcher acquireSearcher(String source) {
+        return new Engine.Searcher(source, searcher.getIndexReader(), searcher.getSimilarity(), searcher.getQueryCache(),
+            searcher.getQueryCachingPolicy(), this::decRef);
+    }
+
+    /**
+     * Extends the keep-alive of this reader context to at least the given value, and marks it as accessed.
+     */
+    public void keepAlive(long keepAliveInMillis, long nowInMillis) {
+        keepAlive.accumulateAndGet(keepAliveInMillis, Math::max);
+        lastAccessTime.accumulateAndGet(nowInMillis, Math::max);
+    }
+
+    public boolean isExpired(long nowInMillis) {
+        return nowInMillis - lastAccessTime.get() > keepAlive.get();
+    }
+
+    /**
+     * Returns the object or <code>null</code> if the given key does not have a
+     * value in the context
+     */
+    @SuppressWarnings("unchecked") // (T)object
+    public synchronized <T> T getFromContext(String key) {
+        return context != null ? (T) context.get(key) : null;
+    }
+
+    /**
+     * Puts the object into the context
+     */
+    public synchronized void putInContext(String key, Object value) {
+        if (context == null) {
+            context = new HashMap<>();
+        }
+        context.put(key, value);
+    }
+
+    @Override
+    protected void closeInternal() {
+        searcher.close();
+    }
+}
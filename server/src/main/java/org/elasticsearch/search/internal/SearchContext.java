@@ -349,9 +349,10 @@ public abstract class SearchContext extends AbstractRefCounted implements Releas
 
     /**
      * Schedule the release of a resource. The time when {@link Releasable#close()} will be called on this object
-     * is function of the provided {@link Lifetime}.
+     * is function of the provided {@link Lifetime}. Aggregators may register resources from several threads when the
+     * query phase collects slices of the index concurrently.
      */
-    public void addReleasable(Releasable releasable, Lifetime lifetime) {
+    public synchronized void addReleasable(Releasable releasable, Lifetime lifetime) {
         if (clearables == null) {
             clearables = new EnumMap<>(Lifetime.class);
         }
@@ -363,7 +364,7 @@ public abstract class SearchContext extends AbstractRefCounted implements Releas
         releasables.add(releasable);
     }
 
-    public void clearReleasables(Lifetime lifetime) {
+    public synchronized void clearReleasables(Lifetime lifetime) {
         if (clearables != null) {
             List<List<Releasable>>releasables = new ArrayList<>();
             for (Lifetime lc : Lifetime.values()) {
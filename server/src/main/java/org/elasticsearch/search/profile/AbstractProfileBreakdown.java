@@ -62,4 +62,9 @@ public abstract class AbstractProfileBreakdown<T extends Enum<T>> {
         }
         return Collections.unmodifiableMap(map);
     }
+
+    /** Fetch extra debugging information about the execution of this node. */
+    public Map<String, Object> toDebugMap() {
+        return Collections.emptyMap();
+    }
 }
@@ -21,10 +21,27 @@ package org.elasticsearch.search.profile.aggregation;
 
 import org.elasticsearch.search.profile.AbstractProfileBreakdown;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 public class AggregationProfileBreakdown extends AbstractProfileBreakdown<AggregationTimingType> {
+    private final Map<String, Object> extra = new HashMap<>();
 
     public AggregationProfileBreakdown() {
         super(AggregationTimingType.class);
     }
 
+    /**
+     * Add extra debugging information about the aggregation.
+     */
+    public void addDebugInfo(String key, Object value) {
+        extra.put(key, value);
+    }
+
+    @Override
+    public Map<String, Object> toDebugMap() {
+        return Collections.unmodifiableMap(extra);
+    }
+
 }
@@ -80,6 +80,7 @@ public class ProfilingAggregator extends Aggregator {
         } finally {
             timer.stop();
         }
+        delegate.collectDebugInfo(profileBreakdown::addDebugInfo);
         return result;
     }
 
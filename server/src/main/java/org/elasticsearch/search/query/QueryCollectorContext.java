@@ -20,11 +20,14 @@
 package org.elasticsearch.search.query;
 
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MultiCollector;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Weight;
+import org.elasticsearch.common.CheckedSupplier;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.lucene.MinimumScoreCollector;
 import org.elasticsearch.common.lucene.search.FilteredCollector;
 import org.elasticsearch.search.profile.query.InternalProfileCollector;
@@ -35,6 +38,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BooleanSupplier;
 
 import static org.elasticsearch.search.profile.query.CollectorResult.REASON_SEARCH_CANCELLED;
@@ -71,6 +75,65 @@ abstract class QueryCollectorContext {
      */
     void postProcess(QuerySearchResult result) throws IOException {}
 
+    /**
+     * Returns true if this context can create a collector for each slice of the index with {@link #createForSlice},
+     * so that the query can collect the slices concurrently.
+     */
+    boolean supportsConcurrentCollection() {
+        return false;
+    }
+
+    /**
+     * Creates a collector for a single slice of the index that delegates documents to the provided <code>in</code> collector
+     * of the same slice. Only called if {@link #supportsConcurrentCollection()} returns true.
+     * @param in The delegate collector
+     */
+    Collector createForSlice(Collector in) throws IOException {
+        return create(in);
+    }
+
+    /**
+     * Post-process <code>result</code> after a concurrent search execution that used the collectors returned by
+     * {@link #createForSlice}.
+     *
+     * @param result The query search result to populate
+     */
+    void postProcessSlices(QuerySearchResult result) throws IOException {
+        postProcess(result);
+    }
+
+    /**
+     * Returns true if all the provided <code>collectors</code> can collect slices of the index concurrently
+     */
+    static boolean supportsConcurrentCollection(List<QueryCollectorContext> collectors) {
+        return collectors.stream().allMatch(QueryCollectorContext::supportsConcurrentCollection);
+    }
+
+    /**
+     * Creates a {@link CollectorManager} that builds the collector tree of the provided <code>collectors</code> for each slice
+     * of the index. The collector contexts keep track of the collectors of each slice and merge their results in
+     * {@link #postProcessSlices}.
+     * @param collectors Ordered list of collector context
+     */
+    static CollectorManager<Collector, Void> createQueryCollectorManager(List<QueryCollectorContext> collectors) {
+        assert supportsConcurrentCollection(collectors);
+        return new CollectorManager<>() {
+            @Override
+            public Collector newCollector() throws IOException {
+                Collector collector = null;
+                for (QueryCollectorContext ctx : collectors) {
+                    collector = ctx.createForSlice(collector);
+                }
+                return collector;
+            }
+
+            @Override
+            public Void reduce(Collection<Collector> sliceCollectors) {
+                return null;
+            }
+        };
+    }
+
     /**
      * Creates the collector tree from the provided <code>collectors</code>
      * @param collectors Ordered list of collector context
@@ -105,6 +168,11 @@ abstract class QueryCollectorContext {
             Collector create(Collector in) {
                 return new MinimumScoreCollector(in, minScore);
             }
+
+            @Override
+            boolean supportsConcurrentCollection() {
+                return true;
+            }
         };
     }
 
@@ -118,6 +186,11 @@ abstract class QueryCollectorContext {
                 final Weight filterWeight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
                 return new FilteredCollector(in, filterWeight);
             }
+
+            @Override
+            boolean supportsConcurrentCollection() {
+                return true;
+            }
         };
     }
 
@@ -125,7 +198,19 @@ abstract class QueryCollectorContext {
      * Creates a multi collector from the provided <code>subs</code>
      */
     static QueryCollectorContext createMultiCollectorContext(Collection<Collector> subs) {
+        return createMultiCollectorContext(subs, null);
+    }
+
+    /**
+     * Creates a multi collector from the provided <code>subs</code>
+     * @param sliceSubs Supplies new sub collectors for each additional slice of the index when the query collects slices
+     *                  concurrently, null if the sub collectors can only collect sequentially
+     */
+    static QueryCollectorContext createMultiCollectorContext(Collection<Collector> subs,
+                                                             @Nullable CheckedSupplier<Collection<Collector>, IOException> sliceSubs) {
         return new QueryCollectorContext(REASON_SEARCH_MULTI) {
+            private boolean subsInUse;
+
             @Override
             Collector create(Collector in) throws IOException {
                 List<Collector> subCollectors = new ArrayList<> ();
@@ -147,6 +232,22 @@ abstract class QueryCollectorContext {
                 final Collector collector = MultiCollector.wrap(subCollectors);
                 return new InternalProfileCollector(collector, REASON_SEARCH_MULTI, subCollectors);
             }
+
+            @Override
+            boolean supportsConcurrentCollection() {
+                return sliceSubs != null;
+            }
+
+            @Override
+            synchronized Collector createForSlice(Collector in) throws IOException {
+                // the first slice uses the original sub collectors
+                final Collection<Collector> sliceCollectors = subsInUse ? sliceSubs.get() : subs;
+                subsInUse = true;
+                List<Collector> subCollectors = new ArrayList<> ();
+                subCollectors.add(in);
+                subCollectors.addAll(sliceCollectors);
+                return MultiCollector.wrap(subCollectors);
+            }
         };
     }
 
@@ -159,6 +260,11 @@ abstract class QueryCollectorContext {
             Collector create(Collector in) throws IOException {
                 return new CancellableCollector(cancelled, in);
             }
+
+            @Override
+            boolean supportsConcurrentCollection() {
+                return true;
+            }
         };
     }
 
@@ -168,6 +274,8 @@ abstract class QueryCollectorContext {
     static QueryCollectorContext createEarlyTerminationCollectorContext(int numHits) {
         return new QueryCollectorContext(REASON_SEARCH_TERMINATE_AFTER_COUNT) {
             private EarlyTerminatingCollector collector;
+            // counts the documents collected by all slices when the query collects slices concurrently
+            private final AtomicInteger sliceNumCollected = new AtomicInteger();
 
             @Override
             Collector create(Collector in) throws IOException {
@@ -175,6 +283,16 @@ abstract class QueryCollectorContext {
                 this.collector = new EarlyTerminatingCollector(in, numHits, true);
                 return collector;
             }
+
+            @Override
+            boolean supportsConcurrentCollection() {
+                return true;
+            }
+
+            @Override
+            Collector createForSlice(Collector in) {
+                return new EarlyTerminatingCollector(in, numHits, true, sliceNumCollected);
+            }
         };
     }
 }
@@ -38,9 +38,11 @@ import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.action.search.SearchTask;
+import org.elasticsearch.common.CheckedSupplier;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
 import org.elasticsearch.common.util.concurrent.QueueResizingEsThreadPoolExecutor;
+import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.SearchPhase;
 import org.elasticsearch.search.SearchService;
@@ -57,6 +59,9 @@ import org.elasticsearch.search.suggest.SuggestPhase;
 import org.elasticsearch.tasks.TaskCancelledException;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
@@ -195,7 +200,8 @@ public class QueryPhase implements SearchPhase {
             }
             if (searchContext.queryCollectors().isEmpty() == false) {
                 // plug in additional collectors, like aggregations
-                collectors.add(createMultiCollectorContext(searchContext.queryCollectors().values()));
+                collectors.add(createMultiCollectorContext(searchContext.queryCollectors().values(),
+                    sliceQueryCollectors(searchContext)));
             }
             if (searchContext.minimumScore() != null) {
                 // apply the minimum score after multi collector so we filter aggs as well
@@ -257,17 +263,29 @@ public class QueryPhase implements SearchPhase {
             // add the top docs collector, the first collector context in the chain
             collectors.addFirst(topDocsFactory);
 
-            final Collector queryCollector;
-            if (doProfile) {
-                InternalProfileCollector profileCollector = QueryCollectorContext.createQueryCollectorWithProfiler(collectors);
-                searchContext.getProfilers().getCurrentQueryProfiler().setCollector(profileCollector);
-                queryCollector = profileCollector;
-            } else {
-               queryCollector = QueryCollectorContext.createQueryCollector(collectors);
-            }
+            // the profiler doesn't support collecting slices concurrently, and neither do scripts since they all read documents
+            // through the same SearchLookup
+            final boolean concurrent = doProfile == false
+                && usesScripts(searchContext) == false
+                && searcher instanceof ContextIndexSearcher
+                && ((ContextIndexSearcher) searcher).isConcurrent()
+                && QueryCollectorContext.supportsConcurrentCollection(collectors);
 
             try {
-                searcher.search(query, queryCollector);
+                if (concurrent) {
+                    // waits for all slices to complete and rethrows the first failure, like an early termination, unwrapped
+                    searcher.search(query, QueryCollectorContext.createQueryCollectorManager(collectors));
+                } else {
+                    final Collector queryCollector;
+                    if (doProfile) {
+                        InternalProfileCollector profileCollector = QueryCollectorContext.createQueryCollectorWithProfiler(collectors);
+                        searchContext.getProfilers().getCurrentQueryProfiler().setCollector(profileCollector);
+                        queryCollector = profileCollector;
+                    } else {
+                        queryCollector = QueryCollectorContext.createQueryCollector(collectors);
+                    }
+                    searcher.search(query, queryCollector);
+                }
             } catch (EarlyTerminatingCollector.EarlyTerminationException e) {
                 queryResult.terminatedEarly(true);
             } catch (TimeExceededException e) {
@@ -288,7 +306,11 @@ public class QueryPhase implements SearchPhase {
 
             final QuerySearchResult result = searchContext.queryResult();
             for (QueryCollectorContext ctx : collectors) {
-                ctx.postProcess(result);
+                if (concurrent) {
+                    ctx.postProcessSlices(result);
+                } else {
+                    ctx.postProcess(result);
+                }
             }
             ExecutorService executor = searchContext.indexShard().getThreadPool().executor(ThreadPool.Names.SEARCH);
             if (executor instanceof QueueResizingEsThreadPoolExecutor) {
@@ -306,6 +328,24 @@ public class QueryPhase implements SearchPhase {
         }
     }
 
+    private static boolean usesScripts(SearchContext searchContext) {
+        final QueryShardContext queryShardContext = searchContext.getQueryShardContext();
+        return queryShardContext != null && queryShardContext.usesScripts();
+    }
+
+    /**
+     * Returns a supplier of the additional query collectors, like aggregations, of each new slice of the index when the query
+     * collects slices concurrently, or null if the additional collectors can only collect sequentially.
+     */
+    private static CheckedSupplier<Collection<Collector>, IOException> sliceQueryCollectors(SearchContext searchContext) {
+        if (searchContext.aggregations() != null
+                && searchContext.queryCollectors().keySet().equals(Collections.singleton(AggregationPhase.class))
+                && AggregationPhase.supportsConcurrentSlices(searchContext)) {
+            return () -> Collections.singletonList(AggregationPhase.createSliceCollector(searchContext));
+        }
+        return null;
+    }
+
     /**
      * Returns true if the provided <code>query</code> returns docs in index order (internal doc ids).
      * @param query The query to execute
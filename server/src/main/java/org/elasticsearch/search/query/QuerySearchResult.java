@@ -22,6 +22,7 @@ package org.elasticsearch.search.query;
 import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.Version;
+import org.elasticsearch.common.io.stream.CountingStreamInput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
@@ -55,6 +56,7 @@ public final class QuerySearchResult extends SearchPhaseResult {
     private DocValueFormat[] sortValueFormats;
     private InternalAggregations aggregations;
     private boolean hasAggs;
+    private long aggsSerializedSize = -1;
     private Suggest suggest;
     private boolean searchTimedOut;
     private Boolean terminatedEarly = null;
@@ -171,6 +173,15 @@ public final class QuerySearchResult extends SearchPhaseResult {
     public void aggregations(InternalAggregations aggregations) {
         this.aggregations = aggregations;
         hasAggs = aggregations != null;
+        aggsSerializedSize = -1;
+    }
+
+    /**
+     * Returns the number of bytes the aggregations of this result took on the wire, or -1 if
+     * they were not read from a stream (for instance if the shard is local to the node).
+     */
+    public long aggsSerializedSize() {
+        return aggsSerializedSize;
     }
 
     /**
@@ -273,7 +284,13 @@ public final class QuerySearchResult extends SearchPhaseResult {
         }
         setTopDocs(readTopDocs(in));
         if (hasAggs = in.readBoolean()) {
-            aggregations = new InternalAggregations(in);
+            if (in.namedWriteableRegistry() != null) {
+                CountingStreamInput countingIn = new CountingStreamInput(in);
+                aggregations = new InternalAggregations(countingIn);
+                aggsSerializedSize = countingIn.count();
+            } else {
+                aggregations = new InternalAggregations(in);
+            }
         }
         if (in.getVersion().before(Version.V_7_2_0)) {
             List<SiblingPipelineAggregator> pipelineAggregators = in.readNamedWriteableList(PipelineAggregator.class).stream()
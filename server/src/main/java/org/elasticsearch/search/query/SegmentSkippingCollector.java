@@ -0,0 +1,136 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.search.query;
+
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.FilterCollector;
+import org.apache.lucene.search.FilterLeafCollector;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopFieldCollector;
+import org.elasticsearch.index.fielddata.fieldcomparator.LongValuesComparatorSource;
+import org.elasticsearch.search.MultiValueMode;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * A {@link Collector} that skips the segments that cannot contain competitive hits for a {@link TopFieldCollector}
+ * that sorts on a numeric field first. The best value of the field in a segment is read from the bounds of its points
+ * and compared with the worst of the top values that have been collected so far.
+ */
+final class SegmentSkippingCollector extends FilterCollector {
+    private final String field;
+    private final MultiValueMode sortMode;
+    private final boolean reverse;
+    private final int numHits;
+    // the head of the queue is the worst of the top values
+    private final PriorityQueue<Long> topValues;
+
+    private SegmentSkippingCollector(Collector in, String field, MultiValueMode sortMode, boolean reverse, int numHits) {
+        super(in);
+        this.field = field;
+        this.sortMode = sortMode;
+        this.reverse = reverse;
+        this.numHits = numHits;
+        this.topValues = new PriorityQueue<>(numHits, reverse ? Comparator.naturalOrder() : Comparator.reverseOrder());
+    }
+
+    /**
+     * Wraps the provided collector in a {@link SegmentSkippingCollector} if the primary sort is on a numeric field that
+     * can be compared with the bounds of its points, or returns it as is.
+     *
+     * @param in The {@link TopFieldCollector} to wrap
+     * @param sortField The primary sort field of the collector
+     * @param numHits The number of top hits to retrieve
+     */
+    static Collector wrap(Collector in, SortField sortField, int numHits) {
+        if (numHits <= 0 || sortField.getComparatorSource() instanceof LongValuesComparatorSource == false) {
+            return in;
+        }
+        final LongValuesComparatorSource source = (LongValuesComparatorSource) sortField.getComparatorSource();
+        // the sort value of a document must be within the bounds of its values and missing values must never compete
+        if (source.nested() != null
+                || source.sortMode() == MultiValueMode.SUM
+                || source.sortMissingLast(source.missingValue()) == false) {
+            return in;
+        }
+        return new SegmentSkippingCollector(in, sortField.getField(), source.sortMode(), sortField.getReverse(), numHits);
+    }
+
+    @Override
+    public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+        if (topValues.size() == numHits && isCompetitive(context.reader()) == false) {
+            throw new CollectionTerminatedException();
+        }
+        final NumericDocValues values = sortMode.select(DocValues.getSortedNumeric(context.reader(), field));
+        return new FilterLeafCollector(super.getLeafCollector(context)) {
+            @Override
+            public void collect(int doc) throws IOException {
+                super.collect(doc);
+                if (values.advanceExact(doc)) {
+                    add(values.longValue());
+                }
+            }
+        };
+    }
+
+    private void add(long value) {
+        if (topValues.size() < numHits) {
+            topValues.add(value);
+        } else if (reverse ? value > topValues.peek() : value < topValues.peek()) {
+            topValues.poll();
+            topValues.add(value);
+        }
+    }
+
+    /**
+     * Returns false if the best value of the field in the segment is worse than the worst of the top values.
+     * Values that are equal to the worst top value may still compete on the secondary sort fields.
+     */
+    private boolean isCompetitive(LeafReader reader) throws IOException {
+        final PointValues points = reader.getPointValues(field);
+        if (points == null || points.getNumDataDimensions() != 1) {
+            return true;
+        }
+        final byte[] packedValue = reverse ? points.getMaxPackedValue() : points.getMinPackedValue();
+        final long best;
+        switch (points.getBytesPerDimension()) {
+            case Long.BYTES:
+                best = LongPoint.decodeDimension(packedValue, 0);
+                break;
+            case Integer.BYTES:
+                best = IntPoint.decodeDimension(packedValue, 0);
+                break;
+            default:
+                return true;
+        }
+        final long worst = topValues.peek();
+        return reverse ? best >= worst : best <= worst;
+    }
+}
@@ -67,7 +67,10 @@ import org.elasticsearch.search.rescore.RescoreContext;
 import org.elasticsearch.search.sort.SortAndFormats;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static org.elasticsearch.search.profile.query.CollectorResult.REASON_SEARCH_COUNT;
@@ -101,6 +104,11 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
     static class EmptyTopDocsCollectorContext extends TopDocsCollectorContext {
         private final Collector collector;
         private final Supplier<TotalHits> hitCountSupplier;
+        private final int trackTotalHitsUpTo;
+        // the implicit total hit count, -1 if the hits are counted by the collector or not at all
+        private final int hitCount;
+        private final List<TotalHitCountCollector> sliceHitCountCollectors = new ArrayList<>();
+        private final List<EarlyTerminatingCollector> sliceEarlyTerminatingCollectors = new ArrayList<>();
 
         /**
          * Ctr
@@ -112,14 +120,17 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
         private EmptyTopDocsCollectorContext(IndexReader reader, Query query,
                                              int trackTotalHitsUpTo, boolean hasFilterCollector) throws IOException {
             super(REASON_SEARCH_COUNT, 0);
+            this.trackTotalHitsUpTo = trackTotalHitsUpTo;
             if (trackTotalHitsUpTo == SearchContext.TRACK_TOTAL_HITS_DISABLED) {
                 this.collector = new EarlyTerminatingCollector(new TotalHitCountCollector(), 0, false);
                 // for bwc hit count is set to 0, it will be converted to -1 by the coordinating node
                 this.hitCountSupplier = () -> new TotalHits(0, TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO);
+                this.hitCount = -1;
             } else {
                 TotalHitCountCollector hitCountCollector = new TotalHitCountCollector();
                 // implicit total hit counts are valid only when there is no filter collector in the chain
                 int hitCount =  hasFilterCollector ? -1 : shortcutTotalHitCount(reader, query);
+                this.hitCount = hitCount;
                 if (hitCount == -1) {
                     if (trackTotalHitsUpTo == SearchContext.TRACK_TOTAL_HITS_ACCURATE) {
                         this.collector = hitCountCollector;
@@ -149,6 +160,46 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
             final TotalHits totalHitCount = hitCountSupplier.get();
             result.topDocs(new TopDocsAndMaxScore(new TopDocs(totalHitCount, Lucene.EMPTY_SCORE_DOCS), Float.NaN), null);
         }
+
+        @Override
+        boolean supportsConcurrentCollection() {
+            return true;
+        }
+
+        @Override
+        synchronized Collector createForSlice(Collector in) {
+            assert in == null;
+            TotalHitCountCollector hitCountCollector = new TotalHitCountCollector();
+            sliceHitCountCollectors.add(hitCountCollector);
+            if (trackTotalHitsUpTo == SearchContext.TRACK_TOTAL_HITS_DISABLED || hitCount != -1) {
+                return new EarlyTerminatingCollector(hitCountCollector, 0, false);
+            } else if (trackTotalHitsUpTo == SearchContext.TRACK_TOTAL_HITS_ACCURATE) {
+                return hitCountCollector;
+            } else {
+                EarlyTerminatingCollector col = new EarlyTerminatingCollector(hitCountCollector, trackTotalHitsUpTo, false);
+                sliceEarlyTerminatingCollectors.add(col);
+                return col;
+            }
+        }
+
+        @Override
+        void postProcessSlices(QuerySearchResult result) {
+            final TotalHits totalHitCount;
+            if (trackTotalHitsUpTo == SearchContext.TRACK_TOTAL_HITS_DISABLED) {
+                totalHitCount = new TotalHits(0, TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO);
+            } else if (hitCount != -1) {
+                totalHitCount = new TotalHits(hitCount, TotalHits.Relation.EQUAL_TO);
+            } else {
+                long count = 0;
+                for (TotalHitCountCollector hitCountCollector : sliceHitCountCollectors) {
+                    count += hitCountCollector.getTotalHits();
+                }
+                boolean earlyTerminated = sliceEarlyTerminatingCollectors.stream().anyMatch(EarlyTerminatingCollector::hasEarlyTerminated);
+                totalHitCount = new TotalHits(count,
+                    earlyTerminated ? TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO : TotalHits.Relation.EQUAL_TO);
+            }
+            result.topDocs(new TopDocsAndMaxScore(new TopDocs(totalHitCount, Lucene.EMPTY_SCORE_DOCS), Float.NaN), null);
+        }
     }
 
     static class CollapsingTopDocsCollectorContext extends TopDocsCollectorContext {
@@ -208,10 +259,17 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
         }
 
         protected final @Nullable SortAndFormats sortAndFormats;
+        private final @Nullable ScoreDoc searchAfter;
+        private final int hitCountThreshold;
+        private final TopDocsCollector<?> topDocsCollector;
+        private final @Nullable MaxScoreCollector maxScoreCollector;
         private final Collector collector;
         private final Supplier<TotalHits> totalHitsSupplier;
         private final Supplier<TopDocs> topDocsSupplier;
         private final Supplier<Float> maxScoreSupplier;
+        // the collectors of each slice when the query collects slices of the index concurrently
+        private final List<TopDocsCollector<?>> sliceTopDocsCollectors = new ArrayList<>();
+        private final List<MaxScoreCollector> sliceMaxScoreCollectors = new ArrayList<>();
 
         /**
          * Ctr
@@ -234,37 +292,36 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
                                               boolean hasFilterCollector) throws IOException {
             super(REASON_SEARCH_TOP_HITS, numHits);
             this.sortAndFormats = sortAndFormats;
+            this.searchAfter = searchAfter;
 
-            final TopDocsCollector<?> topDocsCollector;
-
+            final Function<TopDocs, TotalHits> totalHitsFunction;
             if ((sortAndFormats == null || SortField.FIELD_SCORE.equals(sortAndFormats.sort.getSort()[0]))
                     && hasInfMaxScore(query)) {
                 // disable max score optimization since we have a mandatory clause
                 // that doesn't track the maximum score
-                topDocsCollector = createCollector(sortAndFormats, numHits, searchAfter, Integer.MAX_VALUE);
-                topDocsSupplier = new CachedSupplier<>(topDocsCollector::topDocs);
-                totalHitsSupplier = () -> topDocsSupplier.get().totalHits;
+                hitCountThreshold = Integer.MAX_VALUE;
+                totalHitsFunction = topDocs -> topDocs.totalHits;
             } else if (trackTotalHitsUpTo == SearchContext.TRACK_TOTAL_HITS_DISABLED) {
                 // don't compute hit counts via the collector
-                topDocsCollector = createCollector(sortAndFormats, numHits, searchAfter, 1);
-                topDocsSupplier = new CachedSupplier<>(topDocsCollector::topDocs);
-                totalHitsSupplier = () -> new TotalHits(0, TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO);
+                hitCountThreshold = 1;
+                totalHitsFunction = topDocs -> new TotalHits(0, TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO);
             } else {
                 // implicit total hit counts are valid only when there is no filter collector in the chain
                 final int hitCount = hasFilterCollector ? -1 : shortcutTotalHitCount(reader, query);
                 if (hitCount == -1) {
-                    topDocsCollector = createCollector(sortAndFormats, numHits, searchAfter, trackTotalHitsUpTo);
-                    topDocsSupplier = new CachedSupplier<>(topDocsCollector::topDocs);
-                    totalHitsSupplier = () -> topDocsSupplier.get().totalHits;
+                    hitCountThreshold = trackTotalHitsUpTo;
+                    totalHitsFunction = topDocs -> topDocs.totalHits;
                 } else {
                     // don't compute hit counts via the collector
-                    topDocsCollector = createCollector(sortAndFormats, numHits, searchAfter, 1);
-                    topDocsSupplier = new CachedSupplier<>(topDocsCollector::topDocs);
-                    totalHitsSupplier = () -> new TotalHits(hitCount, TotalHits.Relation.EQUAL_TO);
+                    hitCountThreshold = 1;
+                    totalHitsFunction = topDocs -> new TotalHits(hitCount, TotalHits.Relation.EQUAL_TO);
                 }
             }
-            MaxScoreCollector maxScoreCollector = null;
+            topDocsCollector = createCollector(sortAndFormats, numHits, searchAfter, hitCountThreshold);
+            topDocsSupplier = new CachedSupplier<>(this::topDocs);
+            totalHitsSupplier = () -> totalHitsFunction.apply(topDocsSupplier.get());
             if (sortAndFormats == null) {
+                maxScoreCollector = null;
                 maxScoreSupplier = () -> {
                     TopDocs topDocs = topDocsSupplier.get();
                     if (topDocs.scoreDocs.length == 0) {
@@ -275,12 +332,13 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
                 };
             } else if (trackMaxScore) {
                 maxScoreCollector = new MaxScoreCollector();
-                maxScoreSupplier = maxScoreCollector::getMaxScore;
+                maxScoreSupplier = this::maxScore;
             } else {
+                maxScoreCollector = null;
                 maxScoreSupplier = () -> Float.NaN;
             }
 
-            this.collector = MultiCollector.wrap(topDocsCollector, maxScoreCollector);
+            this.collector = MultiCollector.wrap(wrapTopDocsCollector(topDocsCollector), maxScoreCollector);
 
         }
 
@@ -290,6 +348,72 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
             return collector;
         }
 
+        @Override
+        boolean supportsConcurrentCollection() {
+            return true;
+        }
+
+        @Override
+        synchronized Collector createForSlice(Collector in) {
+            assert in == null;
+            TopDocsCollector<?> sliceTopDocsCollector = createCollector(sortAndFormats, numHits, searchAfter, hitCountThreshold);
+            sliceTopDocsCollectors.add(sliceTopDocsCollector);
+            MaxScoreCollector sliceMaxScoreCollector = null;
+            if (maxScoreCollector != null) {
+                sliceMaxScoreCollector = new MaxScoreCollector();
+                sliceMaxScoreCollectors.add(sliceMaxScoreCollector);
+            }
+            return MultiCollector.wrap(wrapTopDocsCollector(sliceTopDocsCollector), sliceMaxScoreCollector);
+        }
+
+        private Collector wrapTopDocsCollector(TopDocsCollector<?> topDocsCollector) {
+            // the segments that cannot compete can be skipped when the hits don't need to be counted,
+            // searching after a hit would make the top values of the skipping collector wrong
+            if (sortAndFormats != null && searchAfter == null && hitCountThreshold == 1) {
+                return SegmentSkippingCollector.wrap(topDocsCollector, sortAndFormats.sort.getSort()[0], numHits);
+            }
+            return topDocsCollector;
+        }
+
+        private TopDocs topDocs() {
+            if (sliceTopDocsCollectors.isEmpty()) {
+                return topDocsCollector.topDocs();
+            }
+            final TopDocs merged;
+            if (sortAndFormats == null) {
+                TopDocs[] sliceTopDocs = new TopDocs[sliceTopDocsCollectors.size()];
+                for (int i = 0; i < sliceTopDocs.length; i++) {
+                    sliceTopDocs[i] = sliceTopDocsCollectors.get(i).topDocs();
+                }
+                merged = TopDocs.merge(numHits, sliceTopDocs);
+            } else {
+                TopFieldDocs[] sliceTopDocs = new TopFieldDocs[sliceTopDocsCollectors.size()];
+                for (int i = 0; i < sliceTopDocs.length; i++) {
+                    sliceTopDocs[i] = (TopFieldDocs) sliceTopDocsCollectors.get(i).topDocs();
+                }
+                merged = TopDocs.merge(sortAndFormats.sort, numHits, sliceTopDocs);
+            }
+            // ties are broken on the slice index, which follows the doc id order of the slices, but it is not a shard index
+            for (ScoreDoc scoreDoc : merged.scoreDocs) {
+                scoreDoc.shardIndex = -1;
+            }
+            return merged;
+        }
+
+        private float maxScore() {
+            if (sliceMaxScoreCollectors.isEmpty()) {
+                return maxScoreCollector.getMaxScore();
+            }
+            float maxScore = Float.NaN;
+            for (MaxScoreCollector sliceMaxScoreCollector : sliceMaxScoreCollectors) {
+                float sliceMaxScore = sliceMaxScoreCollector.getMaxScore();
+                if (Float.isNaN(maxScore) || sliceMaxScore > maxScore) {
+                    maxScore = sliceMaxScore;
+                }
+            }
+            return maxScore;
+        }
+
         TopDocsAndMaxScore newTopDocs() {
             TopDocs in = topDocsSupplier.get();
             float maxScore = maxScoreSupplier.get();
@@ -329,6 +453,12 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
             this.numberOfShards = numberOfShards;
         }
 
+        @Override
+        boolean supportsConcurrentCollection() {
+            // scrolls search in index order after the last emitted doc
+            return false;
+        }
+
         @Override
         void postProcess(QuerySearchResult result) throws IOException {
             final TopDocsAndMaxScore topDocs = newTopDocs();
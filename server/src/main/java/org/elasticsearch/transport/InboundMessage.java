@@ -21,11 +21,13 @@ package org.elasticsearch.transport;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.compress.Compressor;
 import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.core.internal.io.IOUtils;
 
@@ -34,6 +36,9 @@ import java.io.IOException;
 
 public abstract class InboundMessage extends NetworkMessage implements Closeable {
 
+    // the size of the request id, status and version that precede the message's variable header
+    private static final int HEADER_BYTES_SIZE = TcpHeader.REQUEST_ID_SIZE + TcpHeader.STATUS_SIZE + TcpHeader.VERSION_ID_SIZE;
+
     private final StreamInput streamInput;
 
     InboundMessage(ThreadContext threadContext, Version version, byte status, long requestId, StreamInput streamInput) {
@@ -63,6 +68,7 @@ public abstract class InboundMessage extends NetworkMessage implements Closeable
             // we have additional bytes to read, outside of the header
             boolean hasMessageBytesToRead = (totalMessageSize - TcpHeader.HEADER_SIZE) > 0;
             StreamInput streamInput = reference.streamInput();
+            RetainingStreamInput retainingStreamInput = null;
             boolean success = false;
             try (ThreadContext.StoredContext existing = threadContext.stashContext()) {
                 long requestId = streamInput.readLong();
@@ -84,6 +90,10 @@ public abstract class InboundMessage extends NetworkMessage implements Closeable
                         throw new IllegalStateException(sb.toString());
                     }
                     streamInput = compressor.streamInput(streamInput);
+                } else if (TransportStatus.isRequest(status) && reference instanceof ReleasableBytesReference) {
+                    // uncompressed requests can keep slices of the network buffer instead of copying them out of it
+                    retainingStreamInput = new RetainingStreamInput((ReleasableBytesReference) reference, HEADER_BYTES_SIZE);
+                    streamInput = retainingStreamInput;
                 }
                 streamInput = new NamedWriteableAwareStreamInput(streamInput, namedWriteableRegistry);
                 streamInput.setVersion(remoteVersion);
@@ -97,7 +107,7 @@ public abstract class InboundMessage extends NetworkMessage implements Closeable
                         streamInput.readStringArray();
                     }
                     final String action = streamInput.readString();
-                    message = new Request(threadContext, remoteVersion, status, requestId, action, streamInput);
+                    message = new Request(threadContext, remoteVersion, status, requestId, action, streamInput, retainingStreamInput);
                 } else {
                     message = new Response(threadContext, remoteVersion, status, requestId, streamInput);
                 }
@@ -113,8 +123,7 @@ public abstract class InboundMessage extends NetworkMessage implements Closeable
 
     @Nullable
     static Compressor getCompressor(BytesReference message) {
-        final int offset = TcpHeader.REQUEST_ID_SIZE + TcpHeader.STATUS_SIZE + TcpHeader.VERSION_ID_SIZE;
-        return CompressorFactory.COMPRESSOR.isCompressed(message.slice(offset, message.length() - offset))
+        return CompressorFactory.COMPRESSOR.isCompressed(message.slice(HEADER_BYTES_SIZE, message.length() - HEADER_BYTES_SIZE))
             ? CompressorFactory.COMPRESSOR : null;
     }
 
@@ -139,17 +148,27 @@ public abstract class InboundMessage extends NetworkMessage implements Closeable
     public static class Request extends InboundMessage {
 
         private final String actionName;
+        @Nullable
+        private final RetainingStreamInput retainingStreamInput;
 
         Request(ThreadContext threadContext, Version version, byte status, long requestId, String actionName,
-                StreamInput streamInput) {
+                StreamInput streamInput, @Nullable RetainingStreamInput retainingStreamInput) {
             super(threadContext, version, status, requestId, streamInput);
             this.actionName = actionName;
+            this.retainingStreamInput = retainingStreamInput;
         }
 
         String getActionName() {
             return actionName;
         }
 
+        /**
+         * Returns a releasable that releases the network buffer if the request read from this message kept slices of it.
+         */
+        Releasable retainedBytes() {
+            return retainingStreamInput == null ? () -> {} : retainingStreamInput::releaseRetainedBytes;
+        }
+
     }
 
     public static class Response extends InboundMessage {
@@ -0,0 +1,141 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.transport;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.StreamInput;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link StreamInput} over an uncompressed inbound request that returns slices of the network buffer from
+ * {@link #readRetainedBytesReference()} instead of copying the bytes out of it. The buffer is retained once the first slice has
+ * been handed out and stays retained until {@link #releaseRetainedBytes()} is called after the response has been sent.
+ */
+final class RetainingStreamInput extends StreamInput {
+
+    private final ReleasableBytesReference bytes;
+    private final StreamInput delegate;
+    private final AtomicBoolean retained = new AtomicBoolean();
+    private int position;
+
+    RetainingStreamInput(ReleasableBytesReference bytes, int offset) throws IOException {
+        this.bytes = bytes;
+        this.delegate = bytes.slice(offset, bytes.length() - offset).streamInput();
+        this.position = offset;
+    }
+
+    @Override
+    public BytesReference readRetainedBytesReference() throws IOException {
+        final int length = readVInt();
+        if (length < 0) {
+            throw new NegativeArraySizeException("bytes reference length must be positive but was: " + length);
+        }
+        if (length == 0) {
+            return BytesArray.EMPTY;
+        }
+        ensureCanReadBytes(length);
+        final BytesReference slice = bytes.slice(position, length);
+        long remaining = length;
+        while (remaining > 0) {
+            final long skipped = skip(remaining);
+            if (skipped <= 0) {
+                throw new EOFException("tried to skip: " + length + " bytes but only " + (length - remaining) + " were skipped");
+            }
+            remaining -= skipped;
+        }
+        if (retained.compareAndSet(false, true)) {
+            bytes.incRef();
+        }
+        return slice;
+    }
+
+    /**
+     * Releases the network buffer if slices of it have been handed out. Must be called once the request read from this stream has
+     * been handled.
+     */
+    void releaseRetainedBytes() {
+        if (retained.compareAndSet(true, false)) {
+            bytes.decRef();
+        }
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        final byte b = delegate.readByte();
+        position++;
+        return b;
+    }
+
+    @Override
+    public void readBytes(byte[] b, int offset, int len) throws IOException {
+        delegate.readBytes(b, offset, len);
+        position += len;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = delegate.read();
+        if (b != -1) {
+            position++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int read = delegate.read(b, off, len);
+        if (read > 0) {
+            position += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = delegate.skip(n);
+        if (skipped > 0) {
+            position += skipped;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return bytes.length() - position;
+    }
+
+    @Override
+    protected void ensureCanReadBytes(int length) throws EOFException {
+        final int available = bytes.length() - position;
+        if (available < length) {
+            throw new EOFException("tried to read: " + length + " bytes but only " + available + " remaining");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
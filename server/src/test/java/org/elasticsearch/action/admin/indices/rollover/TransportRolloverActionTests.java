@@ -30,6 +30,8 @@ import org.elasticsearch.action.admin.indices.stats.IndicesStatsAction;
 import org.elasticsearch.action.admin.indices.stats.IndicesStatsResponse;
 import org.elasticsearch.action.admin.indices.stats.IndicesStatsTests;
 import org.elasticsearch.action.admin.indices.stats.ShardStats;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.ShardSearchFailure;
 import org.elasticsearch.action.support.ActionFilters;
 import org.elasticsearch.action.support.ActiveShardCount;
 import org.elasticsearch.action.support.PlainActionFuture;
@@ -37,7 +39,9 @@ import org.elasticsearch.client.Client;
 import org.elasticsearch.cluster.ClusterName;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.metadata.AliasAction;
+import org.elasticsearch.cluster.block.ClusterBlocks;
 import org.elasticsearch.cluster.metadata.AliasMetaData;
+import org.elasticsearch.cluster.metadata.DataStream;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.metadata.IndexTemplateMetaData;
@@ -70,6 +74,12 @@ import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.ShardPath;
 import org.elasticsearch.index.store.StoreStats;
 import org.elasticsearch.index.warmer.WarmerStats;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.metrics.InternalMax;
+import org.elasticsearch.search.aggregations.metrics.InternalMin;
+import org.elasticsearch.search.internal.InternalSearchResponse;
 import org.elasticsearch.search.suggest.completion.CompletionStats;
 import org.elasticsearch.tasks.Task;
 import org.elasticsearch.test.ESTestCase;
@@ -92,6 +102,8 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
@@ -445,6 +457,82 @@ public class TransportRolloverActionTests extends ESTestCase {
         assertThat(response.getConditionStatus().get("[max_docs: 300]"), is(true));
     }
 
+    public void testRolloverDataStream() {
+        final IndexMetaData first = createMetaData(DataStream.getBackingIndexName("logs", 1));
+        final IndexMetaData second = createMetaData(DataStream.getBackingIndexName("logs", 2));
+        final ClusterState state = ClusterState.builder(new ClusterName("test"))
+            .metaData(MetaData.builder()
+                .put(first, false)
+                .put(second, false)
+                .put(new DataStream("logs", "@timestamp", List.of(first.getIndex()), 1, Map.of())))
+            .build();
+        final RolloverInfo rolloverInfo = new RolloverInfo("logs", List.of(), randomNonNegativeLong());
+
+        final ClusterState rolledOver = TransportRolloverAction.rolloverDataStream(state, "logs", first.getIndex(),
+            second.getIndex().getName(), rolloverInfo);
+        final DataStream dataStream = rolledOver.metaData().dataStreams().get("logs");
+        assertThat(dataStream.getIndices(), equalTo(List.of(first.getIndex(), second.getIndex())));
+        assertThat(dataStream.getWriteIndex(), equalTo(second.getIndex()));
+        // the previous write index is write blocked before its timestamp range is recorded
+        final IndexMetaData source = rolledOver.metaData().index(first.getIndex());
+        assertThat(IndexMetaData.INDEX_BLOCKS_WRITE_SETTING.get(source.getSettings()), is(true));
+        assertThat(source.getSettingsVersion(), equalTo(first.getSettingsVersion() + 1));
+        assertThat(source.getRolloverInfos().get("logs"), equalTo(rolloverInfo));
+        assertThat(rolledOver.blocks().hasIndexBlock(first.getIndex().getName(), IndexMetaData.INDEX_WRITE_BLOCK), is(true));
+        assertThat(rolledOver.blocks().hasIndexBlock(second.getIndex().getName(), IndexMetaData.INDEX_WRITE_BLOCK), is(false));
+
+        // a concurrent rollover already changed the write index
+        IllegalStateException e = expectThrows(IllegalStateException.class, () -> TransportRolloverAction.rolloverDataStream(
+            rolledOver, "logs", first.getIndex(), second.getIndex().getName(), rolloverInfo));
+        assertThat(e.getMessage(), containsString("data stream [logs] was modified concurrently"));
+    }
+
+    public void testRecordTimestampRange() {
+        final IndexMetaData first = createMetaData(DataStream.getBackingIndexName("logs", 1));
+        final IndexMetaData second = createMetaData(DataStream.getBackingIndexName("logs", 2));
+        final ClusterState state = TransportRolloverAction.rolloverDataStream(ClusterState.builder(new ClusterName("test"))
+            .metaData(MetaData.builder()
+                .put(first, false)
+                .put(second, false)
+                .put(new DataStream("logs", "@timestamp", List.of(first.getIndex()), 1, Map.of())))
+            .build(), "logs", first.getIndex(), second.getIndex().getName(), new RolloverInfo("logs", List.of(), 0L));
+        final DataStream.TimestampRange range = new DataStream.TimestampRange(10L, 20L);
+
+        ClusterState recorded = TransportRolloverAction.recordTimestampRange(state, "logs", first.getIndex(), range);
+        assertThat(recorded.metaData().dataStreams().get("logs").getTimestampRanges(), equalTo(Map.of(first.getIndex().getName(), range)));
+
+        // the write index never gets a range
+        assertThat(TransportRolloverAction.recordTimestampRange(state, "logs", second.getIndex(), range), sameInstance(state));
+        // neither do indices that aren't part of the data stream anymore
+        assertThat(TransportRolloverAction.recordTimestampRange(state, "other", first.getIndex(), range), sameInstance(state));
+        // or whose write block was removed in the meantime
+        final ClusterState unblocked = ClusterState.builder(state)
+            .blocks(ClusterBlocks.builder().blocks(state.blocks()).removeIndexBlock(first.getIndex().getName(),
+                IndexMetaData.INDEX_WRITE_BLOCK))
+            .build();
+        assertThat(TransportRolloverAction.recordTimestampRange(unblocked, "logs", first.getIndex(), range), sameInstance(unblocked));
+    }
+
+    public void testTimestampRange() {
+        assertThat(TransportRolloverAction.timestampRange(timestampRangeResponse(1.2, 4.5, 2, 2)),
+            equalTo(new DataStream.TimestampRange(1L, 5L)));
+        // a backing index without documents
+        assertThat(TransportRolloverAction.timestampRange(timestampRangeResponse(Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, 2, 2)), nullValue());
+        // shards that weren't searched may hold timestamps outside of the range
+        assertThat(TransportRolloverAction.timestampRange(timestampRangeResponse(1, 5, 2, 1)), nullValue());
+    }
+
+    private static SearchResponse timestampRangeResponse(double min, double max, int totalShards, int successfulShards) {
+        final InternalAggregations aggregations = new InternalAggregations(List.of(
+            new InternalMin("min", min, DocValueFormat.RAW, emptyList(), null),
+            new InternalMax("max", max, DocValueFormat.RAW, emptyList(), null)));
+        final InternalSearchResponse internalResponse = new InternalSearchResponse(SearchHits.empty(), aggregations, null, null,
+            false, null, 1);
+        return new SearchResponse(internalResponse, null, totalShards, successfulShards, 0, 1L, ShardSearchFailure.EMPTY_ARRAY,
+            SearchResponse.Clusters.EMPTY);
+    }
+
     private IndicesStatsResponse createIndicesStatResponse(String indexName, long totalDocs, long primariesDocs) {
         final CommonStats primaryStats = mock(CommonStats.class);
         when(primaryStats.getDocs()).thenReturn(new DocsStats(primariesDocs, 0, between(1, 10000)));
@@ -38,12 +38,14 @@ import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.client.Requests;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.compress.CompressedXContent;
 import org.elasticsearch.common.lucene.uid.Versions;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.engine.VersionConflictEngineException;
+import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.mapper.Mapping;
 import org.elasticsearch.index.mapper.MetadataFieldMapper;
 import org.elasticsearch.index.shard.IndexShard;
@@ -285,6 +287,41 @@ public class TransportShardBulkActionTests extends IndexShardTestCase {
         closeShards(shard);
     }
 
+    public void testMappingUpdatesOfPendingItemsAreCoalesced() throws Exception {
+        IndexShard shard = newStartedShard(true);
+
+        final int numItems = randomIntBetween(2, 10);
+        BulkItemRequest[] items = new BulkItemRequest[numItems];
+        for (int i = 0; i < numItems; i++) {
+            DocWriteRequest<IndexRequest> writeRequest = new IndexRequest(shard.shardId().getIndexName()).id(Integer.toString(i))
+                .source(Requests.INDEX_CONTENT_TYPE, "field_" + i, "value");
+            items[i] = new BulkItemRequest(i, writeRequest);
+        }
+        BulkShardRequest bulkShardRequest = new BulkShardRequest(shard.shardId(), RefreshPolicy.NONE, items);
+
+        AtomicInteger updateCalled = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        TransportShardBulkAction.performOnPrimary(bulkShardRequest, shard, null, threadPool::absoluteTimeInMillis,
+            (update, shardId, type, listener) -> {
+                updateCalled.incrementAndGet();
+                ActionListener.completeWith(listener, () -> {
+                    shard.mapperService().merge(type, new CompressedXContent(update.toString()), MapperService.MergeReason.MAPPING_UPDATE);
+                    return null;
+                });
+            }, listener -> listener.onResponse(null),
+            new LatchedActionListener<>(ActionTestUtils.assertNoFailureListener(result -> {}), latch), threadPool);
+        latch.await();
+
+        // all new fields are sent to the master with the mapping update of the first item
+        assertThat(updateCalled.get(), equalTo(1));
+        for (int i = 0; i < numItems; i++) {
+            assertFalse(bulkShardRequest.items()[i].getPrimaryResponse().isFailed());
+            assertThat(shard.mapperService().fullName("field_" + i), notNullValue());
+        }
+
+        closeShards(shard);
+    }
+
     public void testExecuteBulkIndexRequestWithErrorWhileUpdatingMapping() throws Exception {
         IndexShard shard = newStartedShard(true);
 
@@ -0,0 +1,145 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.metadata.DataStream;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.time.DateMathParser;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.mapper.DateFieldMapper;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class DataStreamIndexFilterTests extends ESTestCase {
+
+    private static final String MAPPING = "{\"_doc\":{\"properties\":{\"@timestamp\":{\"type\":\"date\"}}}}";
+
+    public void testTimestampBounds() {
+        final DateMathParser parser = DateFieldMapper.DEFAULT_DATE_TIME_FORMATTER.toDateMathParser();
+        final long jan = millis("2020-01-01T00:00:00.000Z");
+        final long feb = millis("2020-02-01T00:00:00.000Z");
+
+        long[] bounds = timestampBounds(QueryBuilders.rangeQuery("@timestamp").gte("2020-01-01T00:00:00.000Z"), parser);
+        assertThat(bounds[0], equalTo(jan));
+        assertThat(bounds[1], equalTo(Long.MAX_VALUE));
+        bounds = timestampBounds(QueryBuilders.rangeQuery("@timestamp").gt("2020-01-01T00:00:00.000Z").lt("2020-02-01T00:00:00.000Z"),
+            parser);
+        assertThat(bounds[0], equalTo(jan + 1));
+        assertThat(bounds[1], equalTo(feb - 1));
+        bounds = timestampBounds(QueryBuilders.rangeQuery("@timestamp").gte("1577836800000").format("epoch_millis"), parser);
+        assertThat(bounds[0], equalTo(jan));
+
+        // required clauses narrow the range, optional clauses and other fields are ignored
+        bounds = timestampBounds(QueryBuilders.boolQuery()
+            .filter(QueryBuilders.rangeQuery("@timestamp").gte("2020-01-01T00:00:00.000Z"))
+            .must(QueryBuilders.constantScoreQuery(QueryBuilders.rangeQuery("@timestamp").lte("2020-02-01T00:00:00.000Z")))
+            .should(QueryBuilders.rangeQuery("@timestamp").gte("2021-01-01T00:00:00.000Z"))
+            .filter(QueryBuilders.rangeQuery("other").gte(10)), parser);
+        assertThat(bounds[0], equalTo(jan));
+        assertThat(bounds[1], equalTo(feb));
+
+        assertThat(timestampBounds(QueryBuilders.rangeQuery("other").gte(10), parser), nullValue());
+        assertThat(timestampBounds(QueryBuilders.termQuery("@timestamp", "2020-01-01T00:00:00.000Z"), parser), nullValue());
+        assertThat(timestampBounds(QueryBuilders.rangeQuery("@timestamp").gte("not a date"), parser), nullValue());
+        assertThat(timestampBounds(QueryBuilders.rangeQuery("@timestamp").gte("2020-01-01T00:00:00.000Z"), null), nullValue());
+    }
+
+    public void testTimestampParser() throws IOException {
+        IndexMetaData indexMetaData = indexMetaData(DataStream.getBackingIndexName("logs", 1), false);
+        assertThat(DataStreamIndexFilter.timestampParser(indexMetaData, "@timestamp"), notNullValue());
+        assertThat(DataStreamIndexFilter.timestampParser(indexMetaData, "other"), nullValue());
+        assertThat(DataStreamIndexFilter.timestampParser(indexMetaData, "@timestamp.sub"), nullValue());
+    }
+
+    public void testFilterIndices() throws IOException {
+        final IndexMetaData january = indexMetaData(DataStream.getBackingIndexName("logs", 1), true);
+        final IndexMetaData february = indexMetaData(DataStream.getBackingIndexName("logs", 2), true);
+        final IndexMetaData writeIndex = indexMetaData(DataStream.getBackingIndexName("logs", 3), false);
+        final IndexMetaData other = indexMetaData("other", false);
+        final DataStream dataStream = new DataStream("logs", "@timestamp",
+            List.of(january.getIndex(), february.getIndex(), writeIndex.getIndex()), 3, Map.of(
+                january.getIndex().getName(), range("2020-01-01T00:00:00.000Z", "2020-01-31T23:59:59.999Z"),
+                february.getIndex().getName(), range("2020-02-01T00:00:00.000Z", "2020-02-29T23:59:59.999Z")));
+        final MetaData metaData = MetaData.builder()
+            .put(january, false).put(february, false).put(writeIndex, false).put(other, false)
+            .put(dataStream)
+            .build();
+        final Index[] indices = new Index[] {january.getIndex(), february.getIndex(), writeIndex.getIndex(), other.getIndex()};
+
+        SearchRequest searchRequest = new SearchRequest().source(new SearchSourceBuilder()
+            .query(QueryBuilders.rangeQuery("@timestamp").gte("2020-02-15T00:00:00.000Z")));
+        assertThat(DataStreamIndexFilter.filterIndices(indices, searchRequest, metaData, 0L),
+            arrayContaining(february.getIndex(), writeIndex.getIndex(), other.getIndex()));
+
+        searchRequest = new SearchRequest().source(new SearchSourceBuilder()
+            .query(QueryBuilders.rangeQuery("@timestamp").lt("2020-01-01T00:00:00.000Z")));
+        assertThat(DataStreamIndexFilter.filterIndices(indices, searchRequest, metaData, 0L),
+            arrayContaining(writeIndex.getIndex(), other.getIndex()));
+
+        // a backing index whose write block was removed may contain documents outside of its recorded range
+        final MetaData unblocked = MetaData.builder(metaData).put(indexMetaData(january.getIndex().getName(), false), false).build();
+        assertThat(DataStreamIndexFilter.filterIndices(indices, searchRequest, unblocked, 0L),
+            arrayContaining(january.getIndex(), writeIndex.getIndex(), other.getIndex()));
+
+        // nothing is skipped if the request needs to visit all shards
+        searchRequest = new SearchRequest().source(new SearchSourceBuilder().query(QueryBuilders.matchAllQuery()));
+        assertThat(DataStreamIndexFilter.filterIndices(indices, searchRequest, metaData, 0L), sameInstance(indices));
+        searchRequest = new SearchRequest().source(new SearchSourceBuilder()
+            .query(QueryBuilders.rangeQuery("other").gte(10)));
+        assertThat(DataStreamIndexFilter.filterIndices(indices, searchRequest, metaData, 0L), sameInstance(indices));
+    }
+
+    private static long[] timestampBounds(QueryBuilder query, DateMathParser parser) {
+        return DataStreamIndexFilter.timestampBounds(query, "@timestamp", parser, 0L);
+    }
+
+    private static long millis(String date) {
+        return Instant.parse(date).toEpochMilli();
+    }
+
+    private static DataStream.TimestampRange range(String min, String max) {
+        return new DataStream.TimestampRange(millis(min), millis(max));
+    }
+
+    private static IndexMetaData indexMetaData(String name, boolean writeBlock) throws IOException {
+        return IndexMetaData.builder(name)
+            .settings(settings(Version.CURRENT)
+                .put(IndexMetaData.SETTING_NUMBER_OF_SHARDS, 1)
+                .put(IndexMetaData.SETTING_NUMBER_OF_REPLICAS, 0)
+                .put(IndexMetaData.SETTING_BLOCKS_WRITE, writeBlock))
+            .putMapping("_doc", MAPPING)
+            .build();
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.action.OriginalIndices;
 import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.internal.InternalSearchResponse;
 import org.elasticsearch.search.internal.ShardSearchRequest;
@@ -50,6 +51,7 @@ public final class MockSearchPhaseContext implements SearchPhaseContext {
     SearchRequest searchRequest = new SearchRequest();
     AtomicInteger phasesExecuted = new AtomicInteger();
     AtomicReference<SearchResponse> searchResponse = new AtomicReference<>();
+    List<Releasable> releasables = Collections.synchronizedList(new ArrayList<>());
 
     public MockSearchPhaseContext(int numShards) {
         this.numShards = numShards;
@@ -126,6 +128,11 @@ public final class MockSearchPhaseContext implements SearchPhaseContext {
         }
     }
 
+    @Override
+    public void addReleasable(Releasable releasable) {
+        releasables.add(releasable);
+    }
+
     @Override
     public void execute(Runnable command) {
         command.run();
@@ -0,0 +1,66 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.internal.AliasFilter;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.equalTo;
+
+public class SearchContextIdTests extends ESTestCase {
+
+    public void testEncode() {
+        final Map<ShardId, SearchContextId.SearchContextIdForNode> shards = new HashMap<>();
+        final int numShards = randomIntBetween(0, 10);
+        for (int i = 0; i < numShards; i++) {
+            final ShardId shardId = new ShardId(randomAlphaOfLength(5), "uuid-" + i, randomIntBetween(0, 5));
+            shards.put(shardId, new SearchContextId.SearchContextIdForNode(randomAlphaOfLength(10), randomNonNegativeLong()));
+        }
+        final Map<String, AliasFilter> aliasFilters = new HashMap<>();
+        aliasFilters.put("uuid-0", new AliasFilter(new TermQueryBuilder("field", "value"), "alias-1", "alias-2"));
+        aliasFilters.put("uuid-1", AliasFilter.EMPTY);
+
+        final SearchContextId searchContextId = SearchContextId.decode(SearchContextId.encode(shards, aliasFilters));
+        assertThat(searchContextId.shards().size(), equalTo(shards.size()));
+        for (Map.Entry<ShardId, SearchContextId.SearchContextIdForNode> entry : shards.entrySet()) {
+            final SearchContextId.SearchContextIdForNode decoded = searchContextId.shards().get(entry.getKey());
+            assertThat(decoded.getNode(), equalTo(entry.getValue().getNode()));
+            assertThat(decoded.getReaderId(), equalTo(entry.getValue().getReaderId()));
+        }
+        assertThat(searchContextId.aliases("uuid-0"), arrayContaining("alias-1", "alias-2"));
+        assertThat(searchContextId.aliases("uuid-1"), emptyArray());
+        assertThat(searchContextId.aliases("uuid-missing"), emptyArray());
+    }
+
+    public void testDecodeInvalidId() {
+        final String encoded = SearchContextId.encode(Map.of(new ShardId("index", "uuid", 0),
+            new SearchContextId.SearchContextIdForNode("node", 1L)), Map.of());
+        final String id = randomFrom("not base64!", encoded.substring(0, encoded.length() - 8));
+        final IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> SearchContextId.decode(id));
+        assertThat(e.getMessage(), equalTo("invalid id: [" + id + "]"));
+    }
+}
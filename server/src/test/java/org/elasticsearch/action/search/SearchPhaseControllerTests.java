@@ -31,12 +31,19 @@ import org.apache.lucene.search.grouping.CollapseTopFieldDocs;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.action.OriginalIndices;
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
@@ -68,12 +75,15 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 
@@ -478,6 +488,81 @@ public class SearchPhaseControllerTests extends ESTestCase {
         assertNull(reduce.sortedTopDocs.collapseValues);
     }
 
+    public void testConsumerAggsAccountedOnCircuitBreaker() {
+        CircuitBreakerService breakerService = newBreakerService(ByteSizeUnit.MB.toBytes(10));
+        SearchPhaseController controller = new SearchPhaseController(
+            (finalReduce) -> new InternalAggregation.ReduceContext(new BigArrays(null, breakerService, CircuitBreaker.REQUEST),
+                null, finalReduce));
+        CircuitBreaker breaker = breakerService.getBreaker(CircuitBreaker.REQUEST);
+        int expectedNumResults = randomIntBetween(3, 100);
+        int bufferSize = randomIntBetween(2, expectedNumResults - 1);
+        SearchRequest request = new SearchRequest();
+        request.source(new SearchSourceBuilder().aggregation(AggregationBuilders.max("test")).size(0));
+        request.setBatchedReduceSize(bufferSize);
+        ArraySearchPhaseResults<SearchPhaseResult> consumer = controller.newSearchPhaseResults(request, expectedNumResults);
+        assertThat(consumer, instanceOf(SearchPhaseController.QueryPhaseResultConsumer.class));
+        int max = 0;
+        for (int i = 0; i < expectedNumResults; i++) {
+            int number = randomIntBetween(1, 1000);
+            max = Math.max(max, number);
+            consumer.consumeResult(newAggsOnlyResult(i, number));
+            long accounted = ((SearchPhaseController.QueryPhaseResultConsumer) consumer).getAggsBufferBytes();
+            assertThat(accounted, greaterThan(0L));
+            assertEquals(accounted, breaker.getUsed());
+        }
+        SearchPhaseController.ReducedQueryPhase reduce = consumer.reduce();
+        InternalMax internalMax = (InternalMax) reduce.aggregations.asList().get(0);
+        assertEquals(max, internalMax.getValue(), 0.0D);
+        consumer.close();
+        assertEquals(0, breaker.getUsed());
+        // releasing twice must not change the accounting
+        consumer.close();
+        assertEquals(0, breaker.getUsed());
+    }
+
+    public void testConsumerAggsCircuitBreakerTrips() {
+        CircuitBreakerService breakerService = newBreakerService(randomLongBetween(1, 8));
+        SearchPhaseController controller = new SearchPhaseController(
+            (finalReduce) -> new InternalAggregation.ReduceContext(new BigArrays(null, breakerService, CircuitBreaker.REQUEST),
+                null, finalReduce));
+        CircuitBreaker breaker = breakerService.getBreaker(CircuitBreaker.REQUEST);
+        int expectedNumResults = randomIntBetween(3, 100);
+        int bufferSize = randomIntBetween(2, expectedNumResults - 1);
+        SearchRequest request = new SearchRequest();
+        request.source(new SearchSourceBuilder().aggregation(AggregationBuilders.max("test")).size(0));
+        request.setBatchedReduceSize(bufferSize);
+        ArraySearchPhaseResults<SearchPhaseResult> consumer = controller.newSearchPhaseResults(request, expectedNumResults);
+        for (int i = 0; i < expectedNumResults; i++) {
+            // consuming must never fail, the failure is reported on reduce
+            consumer.consumeResult(newAggsOnlyResult(i, randomIntBetween(1, 1000)));
+        }
+        assertEquals(0, breaker.getUsed());
+        expectThrows(CircuitBreakingException.class, consumer::reduce);
+        consumer.close();
+        assertEquals(0, breaker.getUsed());
+    }
+
+    private static CircuitBreakerService newBreakerService(long limit) {
+        return new HierarchyCircuitBreakerService(
+            Settings.builder()
+                .put(HierarchyCircuitBreakerService.REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING.getKey(), limit, ByteSizeUnit.BYTES)
+                .put(HierarchyCircuitBreakerService.USE_REAL_MEMORY_USAGE_SETTING.getKey(), false)
+                .build(),
+            new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
+    }
+
+    private static QuerySearchResult newAggsOnlyResult(int shardIndex, int number) {
+        QuerySearchResult result = new QuerySearchResult(shardIndex, new SearchShardTarget("node", new ShardId("a", "b", shardIndex),
+            null, OriginalIndices.NONE));
+        result.topDocs(new TopDocsAndMaxScore(new TopDocs(new TotalHits(1, TotalHits.Relation.EQUAL_TO), new ScoreDoc[0]), number),
+            new DocValueFormat[0]);
+        result.aggregations(new InternalAggregations(Collections.singletonList(new InternalMax("test", (double) number,
+            DocValueFormat.RAW, Collections.emptyList(), Collections.emptyMap()))));
+        result.setShardIndex(shardIndex);
+        result.size(0);
+        return result;
+    }
+
     public void testConsumerOnlyHits() {
         int expectedNumResults = randomIntBetween(1, 100);
         int bufferSize = randomIntBetween(2, 200);
@@ -752,4 +837,86 @@ public class SearchPhaseControllerTests extends ESTestCase {
         assertNull(reduce.sortedTopDocs.collapseField);
         assertNull(reduce.sortedTopDocs.collapseValues);
     }
+
+    public void testProgressListener() throws InterruptedException {
+        int expectedNumResults = randomIntBetween(10, 100);
+        for (int bufferSize : new int[] {expectedNumResults, expectedNumResults/2, expectedNumResults/4, 2}) {
+            SearchRequest request = randomSearchRequest();
+            request.source(new SearchSourceBuilder().aggregation(AggregationBuilders.avg("foo")));
+            request.setBatchedReduceSize(bufferSize);
+            AtomicInteger numQueryResultListener = new AtomicInteger();
+            AtomicInteger numQueryFailureListener = new AtomicInteger();
+            AtomicInteger numReduceListener = new AtomicInteger();
+            AtomicReference<TotalHits> totalHitsListener = new AtomicReference<>();
+            AtomicReference<InternalAggregations> finalAggsListener = new AtomicReference<>();
+            List<Integer> partialReduceShards = new CopyOnWriteArrayList<>();
+            SearchProgressListener progressListener = new SearchProgressListener() {
+                @Override
+                protected void onQueryResult(int shardIndex) {
+                    assertThat(shardIndex, lessThan(expectedNumResults));
+                    numQueryResultListener.incrementAndGet();
+                }
+
+                @Override
+                protected void onQueryFailure(int shardIndex, Exception exc) {
+                    numQueryFailureListener.incrementAndGet();
+                }
+
+                @Override
+                protected void onPartialReduce(int numReducedShards, TotalHits totalHits, InternalAggregations aggs, int reducePhase) {
+                    assertThat(numReducedShards, lessThanOrEqualTo(expectedNumResults));
+                    assertNotNull(aggs);
+                    partialReduceShards.add(numReducedShards);
+                }
+
+                @Override
+                protected void onReduce(int numReducedShards, TotalHits totalHits, InternalAggregations aggs, int reducePhase) {
+                    totalHitsListener.set(totalHits);
+                    finalAggsListener.set(aggs);
+                    numReduceListener.incrementAndGet();
+                }
+            };
+            ArraySearchPhaseResults<SearchPhaseResult> consumer =
+                searchPhaseController.newSearchPhaseResults(progressListener, request, expectedNumResults);
+            AtomicInteger max = new AtomicInteger();
+            Thread[] threads = new Thread[expectedNumResults];
+            for (int i = 0; i < expectedNumResults; i++) {
+                int id = i;
+                threads[i] = new Thread(() -> {
+                    int number = randomIntBetween(1, 1000);
+                    max.updateAndGet(prev -> Math.max(prev, number));
+                    QuerySearchResult result = new QuerySearchResult(id, new SearchShardTarget("node", new ShardId("a", "b", id),
+                        null, OriginalIndices.NONE));
+                    result.topDocs(new TopDocsAndMaxScore(
+                            new TopDocs(new TotalHits(1, TotalHits.Relation.EQUAL_TO), new ScoreDoc[]{new ScoreDoc(0, number)}), number),
+                        new DocValueFormat[0]);
+                    InternalAggregations aggs = new InternalAggregations(Collections.singletonList(new InternalMax("test", (double) number,
+                        DocValueFormat.RAW, Collections.emptyList(), Collections.emptyMap())));
+                    result.aggregations(aggs);
+                    result.setShardIndex(id);
+                    result.size(1);
+                    consumer.consumeResult(result);
+                });
+                threads[i].start();
+            }
+            for (int i = 0; i < expectedNumResults; i++) {
+                threads[i].join();
+            }
+            SearchPhaseController.ReducedQueryPhase reduce = consumer.reduce();
+            assertFinalReduction(request);
+            InternalMax internalMax = (InternalMax) reduce.aggregations.asList().get(0);
+            assertEquals(max.get(), internalMax.getValue(), 0.0D);
+            assertEquals(expectedNumResults, reduce.totalHits.value);
+
+            assertEquals(expectedNumResults, numQueryResultListener.get());
+            assertEquals(0, numQueryFailureListener.get());
+            assertEquals(1, numReduceListener.get());
+            assertEquals(reduce.totalHits, totalHitsListener.get());
+            assertSame(reduce.aggregations, finalAggsListener.get());
+            assertEquals(reduce.numReducePhases - 1, partialReduceShards.size());
+            for (int i = 1; i < partialReduceShards.size(); i++) {
+                assertThat(partialReduceShards.get(i), greaterThan(partialReduceShards.get(i - 1)));
+            }
+        }
+    }
 }
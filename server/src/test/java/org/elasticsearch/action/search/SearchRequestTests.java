@@ -25,19 +25,26 @@ import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.ArrayUtils;
+import org.elasticsearch.index.Index;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.AbstractSearchTestCase;
 import org.elasticsearch.search.Scroll;
+import org.elasticsearch.search.builder.PointInTimeBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.internal.AliasFilter;
 import org.elasticsearch.search.rescore.QueryRescorerBuilder;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.VersionUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.elasticsearch.test.EqualsHashCodeTestUtils.checkEqualsAndHashCode;
+import static org.hamcrest.Matchers.arrayContainingInAnyOrder;
 
 public class SearchRequestTests extends AbstractSearchTestCase {
 
@@ -163,6 +170,23 @@ public class SearchRequestTests extends AbstractSearchTestCase {
         }
     }
 
+    public void testIndicesOfPointInTime() {
+        final Index index = new Index("index", "index_uuid");
+        final Index aliasedIndex = new Index("aliased_index", "aliased_index_uuid");
+        final Map<ShardId, SearchContextId.SearchContextIdForNode> shards = new HashMap<>();
+        for (int i = 0; i < 2; i++) {
+            shards.put(new ShardId(index, i), new SearchContextId.SearchContextIdForNode("node", randomLong()));
+            shards.put(new ShardId(aliasedIndex, i), new SearchContextId.SearchContextIdForNode("node", randomLong()));
+        }
+        final String id = SearchContextId.encode(shards, Map.of(
+            index.getUUID(), AliasFilter.EMPTY,
+            aliasedIndex.getUUID(), new AliasFilter(null, "alias_1", "alias_2")));
+        final SearchRequest searchRequest = new SearchRequest()
+            .source(new SearchSourceBuilder().pointInTimeBuilder(new PointInTimeBuilder(id, TimeValue.timeValueMinutes(1))));
+        assertThat(searchRequest.indices(), arrayContainingInAnyOrder("index", "alias_1", "alias_2"));
+        assertNull(searchRequest.validate());
+    }
+
     public void testCopyConstructor() throws IOException {
         SearchRequest searchRequest = createSearchRequest();
         SearchRequest deserializedRequest = copyWriteable(searchRequest, namedWriteableRegistry, SearchRequest::new);
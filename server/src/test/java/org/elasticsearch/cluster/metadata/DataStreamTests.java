@@ -0,0 +1,128 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.cluster.metadata;
+
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.test.AbstractSerializingTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+public class DataStreamTests extends AbstractSerializingTestCase<DataStream> {
+
+    public static DataStream randomInstance() {
+        String name = randomAlphaOfLength(10).toLowerCase(Locale.ROOT);
+        int numIndices = randomIntBetween(1, 5);
+        List<Index> indices = new ArrayList<>(numIndices);
+        Map<String, DataStream.TimestampRange> ranges = new HashMap<>();
+        for (int i = 1; i <= numIndices; i++) {
+            Index index = new Index(DataStream.getBackingIndexName(name, i), UUIDs.randomBase64UUID(random()));
+            indices.add(index);
+            if (i < numIndices && randomBoolean()) {
+                long min = randomNonNegativeLong() / 2;
+                ranges.put(index.getName(), new DataStream.TimestampRange(min, min + randomIntBetween(0, 1000000)));
+            }
+        }
+        return new DataStream(name, randomAlphaOfLength(10), indices, numIndices, ranges);
+    }
+
+    @Override
+    protected DataStream doParseInstance(XContentParser parser) throws IOException {
+        return DataStream.fromXContent(parser);
+    }
+
+    @Override
+    protected boolean supportsUnknownFields() {
+        return false;
+    }
+
+    @Override
+    protected Writeable.Reader<DataStream> instanceReader() {
+        return DataStream::new;
+    }
+
+    @Override
+    protected DataStream createTestInstance() {
+        return randomInstance();
+    }
+
+    public void testRollover() {
+        DataStream ds = randomInstance();
+        Index newWriteIndex = new Index(DataStream.getBackingIndexName(ds.getName(), ds.getGeneration() + 1), UUIDs.randomBase64UUID());
+        DataStream rolledOver = ds.rollover(newWriteIndex);
+
+        assertThat(rolledOver.getName(), equalTo(ds.getName()));
+        assertThat(rolledOver.getTimestampField(), equalTo(ds.getTimestampField()));
+        assertThat(rolledOver.getGeneration(), equalTo(ds.getGeneration() + 1));
+        assertThat(rolledOver.getIndices(), hasSize(ds.getIndices().size() + 1));
+        assertThat(rolledOver.getWriteIndex(), equalTo(newWriteIndex));
+        assertThat(rolledOver.getTimestampRanges(), equalTo(ds.getTimestampRanges()));
+    }
+
+    public void testTimestampRanges() {
+        Index first = new Index(DataStream.getBackingIndexName("logs", 1), UUIDs.randomBase64UUID());
+        Index second = new Index(DataStream.getBackingIndexName("logs", 2), UUIDs.randomBase64UUID());
+        DataStream ds = new DataStream("logs", "@timestamp", List.of(first, second));
+
+        assertTrue(ds.mayContainTimestamps(first, 0, 10));
+        ds = ds.withTimestampRange(first, new DataStream.TimestampRange(100, 200));
+        assertFalse(ds.mayContainTimestamps(first, 0, 99));
+        assertFalse(ds.mayContainTimestamps(first, 201, 300));
+        assertTrue(ds.mayContainTimestamps(first, 0, 100));
+        assertTrue(ds.mayContainTimestamps(first, 200, 300));
+        assertTrue(ds.mayContainTimestamps(first, 150, 160));
+        // the write index can always contain anything
+        assertTrue(ds.mayContainTimestamps(second, 0, 10));
+
+        final DataStream finalDs = ds;
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> finalDs.withTimestampRange(second, new DataStream.TimestampRange(0, 1)));
+        assertThat(e.getMessage(), equalTo("index [.ds-logs-000002] is the write index of data stream [logs] and can still " +
+            "receive documents with any timestamp"));
+        expectThrows(IllegalArgumentException.class, () -> new DataStream.TimestampRange(2, 1));
+    }
+
+    public void testRemoveBackingIndex() {
+        Index first = new Index(DataStream.getBackingIndexName("logs", 1), UUIDs.randomBase64UUID());
+        Index second = new Index(DataStream.getBackingIndexName("logs", 2), UUIDs.randomBase64UUID());
+        DataStream ds = new DataStream("logs", "@timestamp", List.of(first, second))
+            .withTimestampRange(first, new DataStream.TimestampRange(100, 200));
+
+        DataStream removed = ds.removeBackingIndex(first);
+        assertThat(removed.getIndices(), equalTo(List.of(second)));
+        assertTrue(removed.getTimestampRanges().isEmpty());
+        assertThat(removed.getGeneration(), equalTo(2L));
+        expectThrows(IllegalArgumentException.class, () -> ds.removeBackingIndex(second));
+    }
+
+    public void testGetBackingIndexName() {
+        assertThat(DataStream.getBackingIndexName("logs", 1), equalTo(".ds-logs-000001"));
+        assertThat(DataStream.getBackingIndexName("logs", 1234567), equalTo(".ds-logs-1234567"));
+    }
+}
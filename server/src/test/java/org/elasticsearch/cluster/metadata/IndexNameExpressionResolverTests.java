@@ -1457,4 +1457,42 @@ public class IndexNameExpressionResolverTests extends ESTestCase {
             assertEquals("test-index", indices[2].getName());
         }
     }
+
+    public void testDataStreams() {
+        final IndexMetaData first = indexBuilder(DataStream.getBackingIndexName("logs", 1)).build();
+        final IndexMetaData second = indexBuilder(DataStream.getBackingIndexName("logs", 2)).build();
+        final MetaData metaData = MetaData.builder()
+            .put(first, false)
+            .put(second, false)
+            .put(indexBuilder("logs-archive"))
+            .put(new DataStream("logs", "@timestamp", List.of(first.getIndex(), second.getIndex())))
+            .build();
+        final ClusterState state = ClusterState.builder(new ClusterName("_name")).metaData(metaData).build();
+
+        // reads resolve to all backing indices
+        Index[] indices = indexNameExpressionResolver.concreteIndices(state, IndicesOptions.strictExpandOpen(), "logs");
+        assertThat(indices, arrayContainingInAnyOrder(first.getIndex(), second.getIndex()));
+        indices = indexNameExpressionResolver.concreteIndices(state, IndicesOptions.strictExpandOpen(), "log*");
+        assertThat(indices, arrayContainingInAnyOrder(first.getIndex(), second.getIndex(), metaData.index("logs-archive").getIndex()));
+        assertTrue(indexNameExpressionResolver.hasIndexOrAlias("logs", state));
+
+        // writes resolve to the write index only
+        IndicesRequest request = new IndicesRequest() {
+            @Override
+            public String[] indices() {
+                return new String[] { "logs" };
+            }
+
+            @Override
+            public IndicesOptions indicesOptions() {
+                return IndicesOptions.strictSingleIndexNoExpandForbidClosed();
+            }
+        };
+        assertThat(indexNameExpressionResolver.concreteWriteIndex(state, request), equalTo(second.getIndex()));
+
+        // a single index operation can't read from several backing indices
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> indexNameExpressionResolver
+            .concreteIndices(state, IndicesOptions.strictSingleIndexNoExpandForbidClosed(), "logs"));
+        assertThat(e.getMessage(), containsString("Data stream [logs] has more than one backing index"));
+    }
 }
@@ -23,6 +23,8 @@ import org.elasticsearch.common.blobstore.BlobContainer;
 import org.elasticsearch.common.blobstore.BlobPath;
 import org.elasticsearch.common.blobstore.BlobStore;
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
@@ -30,8 +32,10 @@ import org.elasticsearch.repositories.ESBlobStoreTestCase;
 import org.elasticsearch.repositories.blobstore.BlobStoreTestUtil;
 
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 @LuceneTestCase.SuppressFileSystems("ExtrasFS")
 public class FsBlobStoreTests extends ESBlobStoreTestCase {
@@ -78,4 +82,18 @@ public class FsBlobStoreTests extends ESBlobStoreTestCase {
             assertTrue(BlobStoreTestUtil.blobExists(container, "test"));
         }
     }
+
+    public void testReadBlobRange() throws Exception {
+        try (FsBlobStore store = new FsBlobStore(Settings.EMPTY, createTempDir(), false)) {
+            final BlobContainer container = store.blobContainer(BlobPath.cleanPath().add("foo"));
+            final byte[] data = randomBytes(randomIntBetween(10, scaledRandomIntBetween(1024, 1 << 16)));
+            writeBlob(container, "test", new BytesArray(data));
+
+            final int position = randomIntBetween(0, data.length - 1);
+            final int length = randomIntBetween(0, data.length - position);
+            final byte[] range = BytesReference.toBytes(Streams.readFully(container.readBlob("test", position, length)));
+            assertArrayEquals(Arrays.copyOfRange(data, position, position + length), range);
+            expectThrows(NoSuchFileException.class, () -> container.readBlob("missing", 0L, 1L));
+        }
+    }
 }
@@ -24,12 +24,16 @@ import org.elasticsearch.Version;
 import org.elasticsearch.cli.MockTerminal;
 import org.elasticsearch.cli.Terminal;
 import org.elasticsearch.cluster.ClusterModule;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.Manifest;
+import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.common.CheckedConsumer;
 import org.elasticsearch.common.CheckedRunnable;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.gateway.PersistedClusterStateService;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.node.Node;
 import org.elasticsearch.test.ESTestCase;
@@ -49,6 +53,7 @@ import static org.elasticsearch.env.NodeRepurposeCommand.NO_SHARD_DATA_TO_CLEAN_
 import static org.elasticsearch.env.NodeRepurposeCommand.PRE_V7_MESSAGE;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
 
@@ -127,6 +132,34 @@ public class NodeRepurposeCommandTests extends ESTestCase {
         assertManifestIdenticalExceptIndices(oldManifest, newManifest);
     }
 
+    public void testCleanupAllWithPersistedClusterState() throws Exception {
+        final long currentTerm = randomLongBetween(1, 100);
+        final long version = randomLongBetween(1, 100);
+        try (NodeEnvironment nodeEnvironment = new NodeEnvironment(dataMasterSettings, environment);
+             PersistedClusterStateService.Writer writer
+                 = new PersistedClusterStateService(nodeEnvironment, xContentRegistry()).createWriter()) {
+            writer.writeFullStateAndCommit(currentTerm, ClusterState.builder(ClusterName.DEFAULT)
+                .version(version)
+                .metaData(MetaData.builder().put(IndexMetaData.builder(INDEX.getName())
+                    .settings(Settings.builder()
+                        .put("index.version.created", Version.CURRENT)
+                        .put(IndexMetaData.SETTING_INDEX_UUID, INDEX.getUUID()))
+                    .numberOfShards(1)
+                    .numberOfReplicas(1)
+                    .build(), false))
+                .build());
+        }
+        checkCleanupAll(not(containsString(PRE_V7_MESSAGE)));
+
+        try (NodeEnvironment nodeEnvironment = new NodeEnvironment(noDataNoMasterSettings, environment)) {
+            final PersistedClusterStateService.OnDiskState onDiskState
+                = new PersistedClusterStateService(nodeEnvironment, xContentRegistry()).loadBestOnDiskState();
+            assertThat(onDiskState.currentTerm, equalTo(currentTerm));
+            assertThat(onDiskState.lastAcceptedVersion, equalTo(version));
+            assertThat(onDiskState.metaData.indices().size(), equalTo(0));
+        }
+    }
+
     public void testCleanupAllPreV7() throws Exception {
         checkCleanupAll(containsString(PRE_V7_MESSAGE));
     }
@@ -37,8 +37,10 @@ import org.elasticsearch.common.util.set.Sets;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.test.ESTestCase;
 
+import java.io.IOException;
 import java.util.Collections;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.not;
@@ -240,4 +242,51 @@ public class GatewayMetaStatePersistedStateTests extends ESTestCase {
         gateway = maybeNew(gateway);
         assertClusterStateEqual(expectedClusterState, gateway.getLastAcceptedState());
     }
+
+    public void testLucenePersistedStateMigratesLegacyState() throws IOException {
+        final long legacyTerm = randomLongBetween(1, 100);
+        final IndexMetaData legacyIndex = createIndexMetaData("legacy", 1, 1L);
+        CoordinationState.PersistedState legacyState = newGatewayPersistedState();
+        legacyState.setCurrentTerm(legacyTerm);
+        legacyState.setLastAcceptedState(createClusterState(randomLongBetween(1, 100),
+            MetaData.builder().coordinationMetaData(createCoordinationMetaData(legacyTerm)).put(legacyIndex, false).build()));
+
+        final Settings luceneSettings = Settings.builder().put(settings)
+            .put(PersistedClusterStateService.LUCENE_PERSISTED_STATE_SETTING.getKey(), true).build();
+        final MetaStateService metaStateService = new MetaStateService(nodeEnvironment, xContentRegistry());
+        final ClusterState newState;
+        MockGatewayMetaState gateway = new MockGatewayMetaState(localNode);
+        try {
+            gateway.start(luceneSettings, nodeEnvironment, xContentRegistry());
+            final CoordinationState.PersistedState persistedState = gateway.getPersistedState();
+            assertThat(persistedState, instanceOf(GatewayMetaState.LucenePersistedState.class));
+            assertThat(persistedState.getCurrentTerm(), equalTo(legacyTerm));
+            assertThat(persistedState.getLastAcceptedState().metaData().index("legacy"), equalTo(legacyIndex));
+            assertTrue(metaStateService.loadManifestOrEmpty().isEmpty());
+            // the index metadata files are still used by dangling indices detection and the node tools
+            assertThat(metaStateService.loadIndexState(legacyIndex.getIndex()), equalTo(legacyIndex));
+
+            persistedState.setCurrentTerm(legacyTerm + 1);
+            newState = createClusterState(persistedState.getLastAcceptedState().version() + 1,
+                MetaData.builder().coordinationMetaData(createCoordinationMetaData(legacyTerm + 1))
+                    .put(createIndexMetaData("new", 1, 1L), false).build());
+            persistedState.setLastAcceptedState(newState);
+        } finally {
+            gateway.close();
+        }
+
+        gateway = new MockGatewayMetaState(localNode);
+        try {
+            gateway.start(luceneSettings, nodeEnvironment, xContentRegistry());
+            final CoordinationState.PersistedState persistedState = gateway.getPersistedState();
+            assertThat(persistedState.getCurrentTerm(), equalTo(legacyTerm + 1));
+            assertClusterStateEqual(newState, persistedState.getLastAcceptedState());
+        } finally {
+            gateway.close();
+        }
+
+        final IllegalStateException e = expectThrows(IllegalStateException.class,
+            () -> new MockGatewayMetaState(localNode).start(settings, nodeEnvironment, xContentRegistry()));
+        assertThat(e.getMessage(), containsString(PersistedClusterStateService.LUCENE_PERSISTED_STATE_SETTING.getKey()));
+    }
 }
@@ -0,0 +1,199 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.gateway;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.coordination.CoordinationMetaData;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.env.Environment;
+import org.elasticsearch.env.NodeEnvironment;
+import org.elasticsearch.env.TestEnvironment;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class PersistedClusterStateServiceTests extends ESTestCase {
+
+    private PersistedClusterStateService newPersistedClusterStateService(NodeEnvironment nodeEnvironment) {
+        return new PersistedClusterStateService(nodeEnvironment, xContentRegistry());
+    }
+
+    private static IndexMetaData indexMetaData(String name, long version) {
+        return IndexMetaData.builder(name)
+            .version(version)
+            .settings(Settings.builder()
+                .put(IndexMetaData.SETTING_INDEX_UUID, UUIDs.randomBase64UUID(random()))
+                .put(IndexMetaData.SETTING_NUMBER_OF_SHARDS, 1)
+                .put(IndexMetaData.SETTING_NUMBER_OF_REPLICAS, 0)
+                .put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT))
+            .build();
+    }
+
+    private static ClusterState clusterState(long term, long version, MetaData.Builder metaData) {
+        return ClusterState.builder(ClusterName.DEFAULT)
+            .version(version)
+            .metaData(metaData.coordinationMetaData(CoordinationMetaData.builder().term(term).build()))
+            .build();
+    }
+
+    public void testLoadsEmptyStateWhenNothingWritten() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService persistedClusterStateService = newPersistedClusterStateService(nodeEnvironment);
+            assertFalse(persistedClusterStateService.hasOnDiskState());
+            final PersistedClusterStateService.OnDiskState onDiskState = persistedClusterStateService.loadBestOnDiskState();
+            assertTrue(onDiskState.empty());
+            assertThat(onDiskState.currentTerm, equalTo(0L));
+            assertThat(onDiskState.lastAcceptedVersion, equalTo(0L));
+        }
+    }
+
+    public void testWriteFullAndIncrementalState() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService persistedClusterStateService = newPersistedClusterStateService(nodeEnvironment);
+            final IndexMetaData unchanged = indexMetaData("unchanged", 1L);
+            final IndexMetaData updated = indexMetaData("updated", 1L);
+            final IndexMetaData deleted = indexMetaData("deleted", 1L);
+            final ClusterState initialState = clusterState(1L, 10L, MetaData.builder()
+                .persistentSettings(Settings.builder().put("setting", "initial").build())
+                .put(unchanged, false).put(updated, false).put(deleted, false));
+
+            try (PersistedClusterStateService.Writer writer = persistedClusterStateService.createWriter()) {
+                writer.writeFullStateAndCommit(2L, initialState);
+            }
+
+            PersistedClusterStateService.OnDiskState onDiskState = persistedClusterStateService.loadBestOnDiskState();
+            assertTrue(persistedClusterStateService.hasOnDiskState());
+            assertThat(onDiskState.currentTerm, equalTo(2L));
+            assertThat(onDiskState.lastAcceptedVersion, equalTo(10L));
+            assertThat(onDiskState.metaData.indices().size(), equalTo(3));
+            assertThat(onDiskState.metaData.persistentSettings().get("setting"), equalTo("initial"));
+
+            final IndexMetaData added = indexMetaData("added", 1L);
+            final ClusterState newState = clusterState(1L, 11L, MetaData.builder()
+                .persistentSettings(Settings.builder().put("setting", "updated").build())
+                .put(unchanged, false)
+                .put(IndexMetaData.builder(updated).version(2L).numberOfReplicas(1), false)
+                .put(added, false));
+
+            try (PersistedClusterStateService.Writer writer = persistedClusterStateService.createWriter()) {
+                writer.writeFullStateAndCommit(2L, initialState);
+                writer.writeIncrementalStateAndCommit(3L, initialState, newState);
+            }
+
+            onDiskState = persistedClusterStateService.loadBestOnDiskState();
+            assertThat(onDiskState.currentTerm, equalTo(3L));
+            assertThat(onDiskState.lastAcceptedVersion, equalTo(11L));
+            assertThat(onDiskState.metaData.persistentSettings().get("setting"), equalTo("updated"));
+            assertThat(onDiskState.metaData.indices().size(), equalTo(3));
+            assertThat(onDiskState.metaData.index("unchanged").getIndexUUID(), equalTo(unchanged.getIndexUUID()));
+            assertThat(onDiskState.metaData.index("updated").getVersion(), equalTo(2L));
+            assertThat(onDiskState.metaData.index("updated").getNumberOfReplicas(), equalTo(1));
+            assertThat(onDiskState.metaData.index("added").getIndexUUID(), equalTo(added.getIndexUUID()));
+            assertThat(onDiskState.metaData.index("deleted"), nullValue());
+        }
+    }
+
+    public void testCommitOnlyUpdatesTermAndVersion() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService persistedClusterStateService = newPersistedClusterStateService(nodeEnvironment);
+            final ClusterState clusterState = clusterState(1L, 5L, MetaData.builder().put(indexMetaData("test", 1L), false));
+            try (PersistedClusterStateService.Writer writer = persistedClusterStateService.createWriter()) {
+                writer.writeFullStateAndCommit(1L, clusterState);
+                writer.commit(7L, 5L);
+            }
+
+            final PersistedClusterStateService.OnDiskState onDiskState = persistedClusterStateService.loadBestOnDiskState();
+            assertThat(onDiskState.currentTerm, equalTo(7L));
+            assertThat(onDiskState.lastAcceptedVersion, equalTo(5L));
+            assertThat(onDiskState.metaData.indices().size(), equalTo(1));
+        }
+    }
+
+    public void testUncommittedWritesAreDiscarded() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService persistedClusterStateService = newPersistedClusterStateService(nodeEnvironment);
+            try (PersistedClusterStateService.Writer writer = persistedClusterStateService.createWriter()) {
+                writer.writeFullStateAndCommit(1L, clusterState(1L, 5L, MetaData.builder().put(indexMetaData("test", 1L), false)));
+            }
+
+            // opening a writer must not affect the committed state until the writer commits
+            try (PersistedClusterStateService.Writer writer = persistedClusterStateService.createWriter()) {
+                assertTrue(writer.isOpen());
+                assertFalse(writer.isFullStateWritten());
+            }
+
+            final PersistedClusterStateService.OnDiskState onDiskState = persistedClusterStateService.loadBestOnDiskState();
+            assertThat(onDiskState.lastAcceptedVersion, equalTo(5L));
+            assertThat(onDiskState.metaData.indices().size(), equalTo(1));
+        }
+    }
+
+    public void testFailsOnMismatchedNodeId() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            try (PersistedClusterStateService.Writer writer = newPersistedClusterStateService(nodeEnvironment).createWriter()) {
+                writer.writeFullStateAndCommit(1L, clusterState(1L, 1L, MetaData.builder()));
+            }
+
+            final String otherNodeId = randomAlphaOfLength(10);
+            final PersistedClusterStateService otherService
+                = new PersistedClusterStateService(nodeEnvironment.nodeDataPaths(), otherNodeId, xContentRegistry());
+            final IllegalStateException e = expectThrows(IllegalStateException.class, otherService::loadBestOnDiskState);
+            assertThat(e.getMessage(), containsString("unexpected node ID in metadata"));
+            assertThat(e.getMessage(), containsString(otherNodeId));
+        }
+    }
+
+    public void testClosedWriterRejectsWrites() throws IOException {
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService.Writer writer = newPersistedClusterStateService(nodeEnvironment).createWriter();
+            writer.close();
+            assertFalse(writer.isOpen());
+            expectThrows(IllegalStateException.class,
+                () -> writer.writeFullStateAndCommit(1L, clusterState(1L, 1L, MetaData.builder())));
+        }
+    }
+
+    private NodeEnvironment newNodeEnvironment(Path[] dataPaths) throws IOException {
+        final Settings settings = Settings.builder()
+            .put(Environment.PATH_HOME_SETTING.getKey(), createTempDir().toAbsolutePath())
+            .putList(Environment.PATH_DATA_SETTING.getKey(), Arrays.stream(dataPaths).map(Path::toString).collect(Collectors.toList()))
+            .build();
+        return new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+    }
+
+    private Path[] createDataPaths() {
+        final Path[] dataPaths = new Path[randomIntBetween(1, 4)];
+        for (int i = 0; i < dataPaths.length; i++) {
+            dataPaths[i] = createTempDir();
+        }
+        return dataPaths;
+    }
+}
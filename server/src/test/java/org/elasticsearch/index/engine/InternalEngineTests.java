@@ -3668,6 +3668,71 @@ public class InternalEngineTests extends EngineTestCase {
         }
     }
 
+    public void testAppendOnlyIndexSkipsVersionMap() throws IOException {
+        final Settings settings = Settings.builder().put(defaultSettings.getSettings())
+            .put(IndexSettings.INDEX_APPEND_ONLY_SETTING.getKey(), true).build();
+        final IndexMetaData indexMetaData = IndexMetaData.builder(defaultSettings.getIndexMetaData()).settings(settings).build();
+        final IndexSettings indexSettings = IndexSettingsModule.newIndexSettings(indexMetaData);
+        try (Store store = createStore();
+             InternalEngine engine = createEngine(config(indexSettings, store, createTempDir(), NoMergePolicy.INSTANCE, null))) {
+            final int numDocs = randomIntBetween(1, 20);
+            for (int i = 0; i < numDocs; i++) {
+                final ParsedDocument doc = testParsedDocument(Integer.toString(i), null, testDocumentWithTextField(), B_1, null);
+                final boolean isRetry = randomBoolean();
+                Engine.Index index = new Engine.Index(newUid(doc), doc, UNASSIGNED_SEQ_NO, 0, Versions.MATCH_ANY,
+                    VersionType.INTERNAL, PRIMARY, System.nanoTime(), i, isRetry, UNASSIGNED_SEQ_NO, 0);
+                assertThat(engine.index(index).getResultType(), equalTo(Engine.Result.Type.SUCCESS));
+                if (randomBoolean()) {
+                    // a retry of an operation that already made it into the index must not create a duplicate
+                    index = new Engine.Index(newUid(doc), doc, UNASSIGNED_SEQ_NO, 0, Versions.MATCH_ANY,
+                        VersionType.INTERNAL, PRIMARY, System.nanoTime(), i, true, UNASSIGNED_SEQ_NO, 0);
+                    assertThat(engine.index(index).getResultType(), equalTo(Engine.Result.Type.SUCCESS));
+                }
+            }
+            assertThat(engine.getVersionMap().isEmpty(), equalTo(true));
+            assertThat(engine.getNumVersionLookups(), equalTo(0L));
+            try (Engine.GetResult get = engine.get(new Engine.Get(true, false, "0", newUid("0")), engine::acquireSearcher)) {
+                assertTrue(get.exists());
+            }
+            engine.refresh("test");
+            try (Engine.Searcher searcher = engine.acquireSearcher("test")) {
+                assertEquals(numDocs, searcher.count(new MatchAllDocsQuery()));
+            }
+        }
+    }
+
+    public void testAppendOnlyIndexOutOfOrderRetryOnReplica() throws IOException {
+        final Settings settings = Settings.builder().put(defaultSettings.getSettings())
+            .put(IndexSettings.INDEX_APPEND_ONLY_SETTING.getKey(), true).build();
+        final IndexMetaData indexMetaData = IndexMetaData.builder(defaultSettings.getIndexMetaData()).settings(settings).build();
+        final IndexSettings indexSettings = IndexSettingsModule.newIndexSettings(indexMetaData);
+        try (Store store = createStore();
+             InternalEngine replica = createEngine(config(indexSettings, store, createTempDir(), NoMergePolicy.INSTANCE, null))) {
+            final ParsedDocument doc = testParsedDocument("1", null, testDocumentWithTextField(), B_1, null);
+            final long autoGeneratedIdTimestamp = randomNonNegativeLong();
+            // the primary indexed the original request as seq_no 0 and its retry as seq_no 1
+            final Engine.Index original = appendOnlyReplica(doc, false, autoGeneratedIdTimestamp, 0);
+            final Engine.Index retry = appendOnlyReplica(doc, true, autoGeneratedIdTimestamp, 1);
+            replica.advanceMaxSeqNoOfUpdatesOrDeletes(1);
+            final boolean retryFirst = randomBoolean();
+            if (retryFirst) {
+                assertThat(replica.index(retry).getResultType(), equalTo(Engine.Result.Type.SUCCESS));
+                assertThat(replica.index(original).getResultType(), equalTo(Engine.Result.Type.SUCCESS));
+            } else {
+                assertThat(replica.index(original).getResultType(), equalTo(Engine.Result.Type.SUCCESS));
+                // the first delivery of an auto-generated id is appended without a lookup
+                assertThat(replica.getNumVersionLookups(), equalTo(0L));
+                assertThat(replica.index(retry).getResultType(), equalTo(Engine.Result.Type.SUCCESS));
+            }
+            assertThat(replica.getNumVersionLookups(), equalTo(retryFirst ? 2L : 1L));
+            assertThat(replica.getVersionMap().isEmpty(), equalTo(true));
+            final List<DocIdSeqNoAndSource> docs = getDocIds(replica, true);
+            assertThat(docs, hasSize(1));
+            // the stale delivery of the original request must not replace the newer copy
+            assertThat(docs.get(0).getSeqNo(), equalTo(1L));
+        }
+    }
+
     public void testRetryWithAutogeneratedIdsAndWrongOrderWorksAndNoDuplicateDocs() throws IOException {
 
         final ParsedDocument doc = testParsedDocument("1", null, testDocumentWithTextField(),
@@ -31,6 +31,8 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiReader;
 import org.apache.lucene.search.IndexOrDocValuesQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchNoDocsQuery;
@@ -83,9 +85,35 @@ public class NumberFieldTypeTests extends FieldTypeTestCase {
 
     public void testIsFieldWithinQuery() throws IOException {
         MappedFieldType ft = createDefaultFieldType();
-        // current impl ignores args and should always return INTERSECTS
+        ft.setName("field");
+        // not indexed fields have no points to check the bounds against
         assertEquals(Relation.INTERSECTS, ft.isFieldWithinQuery(null, randomDouble(), randomDouble(),
                 randomBoolean(), randomBoolean(), null, null, null));
+
+        ft.setIndexOptions(IndexOptions.DOCS);
+        assertEquals(Relation.DISJOINT, ft.isFieldWithinQuery(new MultiReader(), 10, 20,
+                randomBoolean(), randomBoolean(), null, null, null));
+
+        Directory dir = newDirectory();
+        IndexWriter w = new IndexWriter(dir, new IndexWriterConfig(null));
+        for (int value : new int[] { 10, 20 }) {
+            Document doc = new Document();
+            for (IndexableField field : type.createFields("field", value, true, false, false)) {
+                doc.add(field);
+            }
+            w.addDocument(doc);
+        }
+        DirectoryReader reader = DirectoryReader.open(w);
+        assertEquals(Relation.WITHIN, ft.isFieldWithinQuery(reader, 5, 25, randomBoolean(), randomBoolean(), null, null, null));
+        assertEquals(Relation.WITHIN, ft.isFieldWithinQuery(reader, 10, 20, true, true, null, null, null));
+        assertEquals(Relation.WITHIN, ft.isFieldWithinQuery(reader, null, null, randomBoolean(), randomBoolean(), null, null, null));
+        assertEquals(Relation.INTERSECTS, ft.isFieldWithinQuery(reader, 10, 20, false, true, null, null, null));
+        assertEquals(Relation.INTERSECTS, ft.isFieldWithinQuery(reader, 15, 25, randomBoolean(), randomBoolean(), null, null, null));
+        assertEquals(Relation.INTERSECTS, ft.isFieldWithinQuery(reader, null, 15, randomBoolean(), randomBoolean(), null, null, null));
+        assertEquals(Relation.DISJOINT, ft.isFieldWithinQuery(reader, 21, 30, randomBoolean(), randomBoolean(), null, null, null));
+        assertEquals(Relation.DISJOINT, ft.isFieldWithinQuery(reader, 20, 30, false, randomBoolean(), null, null, null));
+        assertEquals(Relation.DISJOINT, ft.isFieldWithinQuery(reader, null, 10, randomBoolean(), false, null, null, null));
+        IOUtils.close(reader, w, dir);
     }
 
     public void testIntegerTermsQueryWithDecimalPart() {
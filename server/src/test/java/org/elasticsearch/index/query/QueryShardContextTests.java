@@ -94,6 +94,14 @@ public class QueryShardContextTests extends ESTestCase {
         assertThat(shardContext.getFullyQualifiedIndex().getUUID(), equalTo(indexUuid));
     }
 
+    public void testUsesScripts() {
+        QueryShardContext context = createQueryShardContext(IndexMetaData.INDEX_UUID_NA_VALUE, null);
+        assertFalse(context.usesScripts());
+        context.getScriptService();
+        assertTrue(context.usesScripts());
+        assertFalse(context.isCacheable());
+    }
+
     public static QueryShardContext createQueryShardContext(String indexUuid, String clusterAlias) {
         IndexMetaData.Builder indexMetadataBuilder = new IndexMetaData.Builder("index");
         indexMetadataBuilder.settings(Settings.builder().put("index.version.created", Version.CURRENT)
@@ -1582,6 +1582,18 @@ public class IndexShardTests extends IndexShardTestCase {
         closeShards(shard);
     }
 
+    public void testIndexBufferStats() throws IOException {
+        IndexShard shard = newStartedShard();
+        assertThat(shard.indexingStats().getTotal().getIndexBufferWriteCount(), equalTo(0L));
+        indexDoc(shard, "_doc", "test");
+        assertThat(shard.indexingStats().getTotal().getIndexBufferSize().getBytes(), greaterThan(0L));
+        shard.writeIndexingBuffer();
+        IndexingStats.Stats stats = shard.indexingStats().getTotal();
+        assertThat(stats.getIndexBufferWriteCount(), equalTo(1L));
+        assertThat(stats.getIndexBufferWritingSize().getBytes(), equalTo(0L));
+        closeShards(shard);
+    }
+
     public void testExternalRefreshMetric() throws IOException {
         IndexShard shard = newStartedShard();
         assertThat(shard.refreshStats().getExternalTotal(), equalTo(2L)); // refresh on: finalize and end of recovery
@@ -0,0 +1,141 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.translog;
+
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.After;
+import org.junit.Before;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class TranslogSyncCoordinatorTests extends ESTestCase {
+
+    private ThreadContext threadContext;
+
+    @Before
+    public void setUpThreadContext() {
+        threadContext = new ThreadContext(Settings.EMPTY);
+    }
+
+    @After
+    public void tearDownThreadContext() {
+        threadContext.close();
+    }
+
+    public void testSyncsAllShardsOnDataPath() throws Exception {
+        final TranslogSyncCoordinator coordinator = new TranslogSyncCoordinator(threadContext);
+        final Path[] dataPaths = new Path[] { createTempDir(), createTempDir() };
+        final int numShards = randomIntBetween(1, 8);
+        final AtomicLong[] syncedUpTo = new AtomicLong[numShards];
+        final AtomicInteger shardSyncs = new AtomicInteger();
+        final List<CheckedConsumer<Stream<Translog.Location>, IOException>> syncers = new ArrayList<>();
+        for (int i = 0; i < numShards; i++) {
+            final AtomicLong synced = syncedUpTo[i] = new AtomicLong(-1);
+            syncers.add(locations -> {
+                shardSyncs.incrementAndGet();
+                final long max = locations.mapToLong(location -> location.translogLocation).max().getAsLong();
+                synced.accumulateAndGet(max, Math::max);
+            });
+        }
+        final int numThreads = randomIntBetween(2, 8);
+        final int opsPerThread = scaledRandomIntBetween(100, 2000);
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch notified = new CountDownLatch(numThreads * opsPerThread);
+        final AtomicReference<AssertionError> failure = new AtomicReference<>();
+        final Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                for (int op = 0; op < opsPerThread; op++) {
+                    final int shard = randomIntBetween(0, numShards - 1);
+                    final long offset = randomIntBetween(0, 1000);
+                    final Path dataPath = dataPaths[shard % dataPaths.length];
+                    coordinator.sync(dataPath, new Translog.Location(1, offset, 1), syncers.get(shard), e -> {
+                        try {
+                            assertNull(e);
+                            assertThat(offset, lessThanOrEqualTo(syncedUpTo[shard].get()));
+                        } catch (AssertionError error) {
+                            failure.compareAndSet(null, error);
+                        }
+                        notified.countDown();
+                    });
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(notified.await(10, TimeUnit.SECONDS));
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        final TranslogSyncCoordinator.Stats stats = coordinator.stats();
+        assertThat(stats.getRequests(), equalTo((long) numThreads * opsPerThread));
+        assertThat(stats.getShardSyncs(), equalTo((long) shardSyncs.get()));
+        assertThat(stats.getWaves(), greaterThan(0L));
+        assertThat(stats.getWaves(), lessThanOrEqualTo(stats.getShardSyncs()));
+        assertThat(stats.getAverageBatchSize(), equalTo(stats.getRequests() / (double) stats.getWaves()));
+    }
+
+    public void testFailureOnlyFailsListenersOfItsShard() throws Exception {
+        final TranslogSyncCoordinator coordinator = new TranslogSyncCoordinator(threadContext);
+        final Path dataPath = createTempDir();
+        final IOException syncFailure = new IOException("simulated");
+        final CheckedConsumer<Stream<Translog.Location>, IOException> failingSyncer = locations -> {
+            throw syncFailure;
+        };
+        final AtomicInteger synced = new AtomicInteger();
+        final CheckedConsumer<Stream<Translog.Location>, IOException> syncer = locations -> synced.incrementAndGet();
+
+        final AtomicReference<Exception> failed = new AtomicReference<>();
+        coordinator.sync(dataPath, new Translog.Location(1, 1, 1), failingSyncer, failed::set);
+        assertThat(failed.get(), sameInstance(syncFailure));
+
+        final AtomicReference<Exception> succeeded = new AtomicReference<>(new Exception("not notified"));
+        coordinator.sync(dataPath, new Translog.Location(1, 1, 1), syncer, succeeded::set);
+        assertNull(succeeded.get());
+        assertThat(synced.get(), equalTo(1));
+        assertThat(coordinator.stats().getWaves(), equalTo(2L));
+    }
+}
@@ -54,6 +54,8 @@ import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertNoFailures;
 import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class IndexingMemoryControllerTests extends ESSingleNodeTestCase {
 
@@ -68,6 +70,9 @@ public class IndexingMemoryControllerTests extends ESSingleNodeTestCase {
         // Shards that are currently throttled
         final Set<IndexShard> throttled = new HashSet<>();
 
+        // How many times the size of each shard's indexing buffer was asked for
+        final Map<IndexShard, Integer> bufferSizeRequests = new HashMap<>();
+
         MockController(Settings settings) {
             super(Settings.builder()
                             .put("indices.memory.interval", "200h") // disable it
@@ -87,6 +92,7 @@ public class IndexingMemoryControllerTests extends ESSingleNodeTestCase {
 
         @Override
         protected long getIndexBufferRAMBytesUsed(IndexShard shard) {
+            bufferSizeRequests.merge(shard, 1, Integer::sum);
             return indexBufferRAMBytesUsed.get(shard) + writingBytes.get(shard);
         }
 
@@ -159,9 +165,15 @@ public class IndexingMemoryControllerTests extends ESSingleNodeTestCase {
             // Each doc we index takes up a megabyte!
             bytes += 1024*1024;
             indexBufferRAMBytesUsed.put(shard, bytes);
+            // the estimated size of the operation is kept small so that indexing doesn't trigger a check by itself
+            postIndex(shard.shardId(), indexOperation(1), new Engine.IndexResult(1, 1, 0, true));
             forceCheck();
         }
 
+        public int bufferSizeRequests(IndexShard shard) {
+            return bufferSizeRequests.getOrDefault(shard, 0);
+        }
+
         @Override
         protected Cancellable scheduleTask(ThreadPool threadPool) {
             return null;
@@ -200,6 +212,88 @@ public class IndexingMemoryControllerTests extends ESSingleNodeTestCase {
         controller.assertBuffer(shard2, 1);
     }
 
+    public void testSkipIdleShards() {
+        createIndex("test", Settings.builder().put("index.number_of_shards", 2).put("index.number_of_replicas", 0).build());
+        IndicesService indicesService = getInstanceFromNode(IndicesService.class);
+        IndexService test = indicesService.indexService(resolveIndex("test"));
+
+        MockController controller = new MockController(Settings.builder()
+                                                       .put("indices.memory.index_buffer_size", "4mb").build());
+        IndexShard shard0 = test.getShard(0);
+        IndexShard shard1 = test.getShard(1);
+        controller.simulateIndexing(shard0);
+        controller.simulateIndexing(shard1);
+        controller.writeIndexingBufferAsync(shard1);
+        controller.doneWriting(shard1);
+        // the buffer of shard1 is empty now, which the next check sees
+        controller.forceCheck();
+        assertThat(controller.bufferSizeRequests(shard0), equalTo(3));
+        assertThat(controller.bufferSizeRequests(shard1), equalTo(2));
+
+        // shard1 had an empty buffer and didn't index anything since, so it isn't asked again
+        controller.forceCheck();
+        controller.forceCheck();
+        assertThat(controller.bufferSizeRequests(shard0), equalTo(5));
+        assertThat(controller.bufferSizeRequests(shard1), equalTo(2));
+
+        // until it indexes again
+        controller.simulateIndexing(shard1);
+        assertThat(controller.bufferSizeRequests(shard1), equalTo(3));
+        controller.assertBuffer(shard1, 1);
+
+        // deletes count as indexing too
+        controller.writeIndexingBufferAsync(shard1);
+        controller.doneWriting(shard1);
+        controller.forceCheck();
+        controller.forceCheck();
+        assertThat(controller.bufferSizeRequests(shard1), equalTo(4));
+        controller.postDelete(shard1.shardId(), deleteOperation(1), new Engine.DeleteResult(1, 1, 1, true));
+        controller.forceCheck();
+        assertThat(controller.bufferSizeRequests(shard1), equalTo(5));
+    }
+
+    public void testIndexingTriggersCheck() {
+        createIndex("test", Settings.builder().put("index.number_of_shards", 1).put("index.number_of_replicas", 0).build());
+        IndicesService indicesService = getInstanceFromNode(IndicesService.class);
+        IndexService test = indicesService.indexService(resolveIndex("test"));
+
+        MockController controller = new MockController(Settings.builder()
+                                                       .put("indices.memory.index_buffer_size", "3mb").build());
+        IndexShard shard0 = test.getShard(0);
+        controller.simulateIndexing(shard0);
+        assertThat(controller.bufferSizeRequests(shard0), equalTo(1));
+
+        // a check is triggered once more than 1/30th of the indexing buffer has been indexed since the last check
+        final int threshold = Math.toIntExact(new ByteSizeValue(3, ByteSizeUnit.MB).getBytes() / 30);
+        controller.postIndex(shard0.shardId(), indexOperation(threshold), new Engine.IndexResult(1, 1, 1, true));
+        assertThat(controller.bufferSizeRequests(shard0), equalTo(1));
+        controller.postIndex(shard0.shardId(), indexOperation(1), new Engine.IndexResult(1, 1, 2, true));
+        assertThat(controller.bufferSizeRequests(shard0), equalTo(2));
+
+        // a scheduled check resets the bytes indexed since the last check
+        controller.postIndex(shard0.shardId(), indexOperation(threshold), new Engine.IndexResult(1, 1, 3, true));
+        controller.forceCheck();
+        assertThat(controller.bufferSizeRequests(shard0), equalTo(3));
+        controller.postIndex(shard0.shardId(), indexOperation(1), new Engine.IndexResult(1, 1, 4, true));
+        assertThat(controller.bufferSizeRequests(shard0), equalTo(3));
+
+        // failed operations don't count
+        controller.postIndex(shard0.shardId(), indexOperation(threshold), new Engine.IndexResult(new IllegalStateException(), 1));
+        assertThat(controller.bufferSizeRequests(shard0), equalTo(3));
+    }
+
+    private static Engine.Index indexOperation(int estimatedSizeInBytes) {
+        Engine.Index index = mock(Engine.Index.class);
+        when(index.estimatedSizeInBytes()).thenReturn(estimatedSizeInBytes);
+        return index;
+    }
+
+    private static Engine.Delete deleteOperation(int estimatedSizeInBytes) {
+        Engine.Delete delete = mock(Engine.Delete.class);
+        when(delete.estimatedSizeInBytes()).thenReturn(estimatedSizeInBytes);
+        return delete;
+    }
+
     public void testActiveInactive() {
 
         createIndex("test", Settings.builder().put("index.number_of_shards", 2).put("index.number_of_replicas", 0).build());
@@ -23,11 +23,15 @@ import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 
@@ -279,6 +283,163 @@ public class CompoundProcessorTests extends ESTestCase {
         assertStats(pipeline, 1, 1, 0);
     }
 
+    public void testSynchronousAndAsyncProcessors() throws Exception {
+        TestProcessor first = new TestProcessor(ingestDocument -> ingestDocument.setFieldValue("first", true));
+        AtomicReference<Runnable> pendingCallback = new AtomicReference<>();
+        Processor async = new AbstractProcessor("async") {
+            @Override
+            public void execute(IngestDocument ingestDocument, BiConsumer<IngestDocument, Exception> handler) {
+                pendingCallback.set(() -> handler.accept(ingestDocument, null));
+            }
+
+            @Override
+            public IngestDocument execute(IngestDocument ingestDocument) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String getType() {
+                return "async";
+            }
+        };
+        TestProcessor last = new TestProcessor(ingestDocument -> ingestDocument.setFieldValue("last", true));
+        assertTrue(CompoundProcessor.isSynchronous(first));
+        assertFalse(CompoundProcessor.isSynchronous(async));
+
+        CompoundProcessor compoundProcessor = new CompoundProcessor(first, async, last);
+        AtomicReference<IngestDocument> result = new AtomicReference<>();
+        compoundProcessor.execute(ingestDocument, (document, e) -> result.set(document));
+        assertThat(first.getInvokedCounter(), equalTo(1));
+        assertThat(last.getInvokedCounter(), equalTo(0));
+        assertThat(result.get(), nullValue());
+
+        pendingCallback.get().run();
+        assertThat(last.getInvokedCounter(), equalTo(1));
+        assertThat(result.get(), sameInstance(ingestDocument));
+        assertThat(ingestDocument.getFieldValue("first", Boolean.class), is(true));
+        assertThat(ingestDocument.getFieldValue("last", Boolean.class), is(true));
+    }
+
+    public void testManySynchronousProcessors() throws Exception {
+        // synchronous processors run in a loop and don't grow the stack with the number of processors
+        Processor[] processors = new Processor[10_000];
+        for (int i = 0; i < processors.length; i++) {
+            processors[i] = new TestProcessor(ingestDocument -> ingestDocument.appendFieldValue("values", 1));
+        }
+        CompoundProcessor compoundProcessor = new CompoundProcessor(processors);
+        AtomicReference<IngestDocument> result = new AtomicReference<>();
+        compoundProcessor.execute(ingestDocument, (document, e) -> result.set(document));
+        assertThat(result.get().getFieldValue("values", List.class), hasSize(processors.length));
+    }
+
+    public void testExecuteBatch() throws Exception {
+        List<IngestDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            documents.add(new IngestDocument(new HashMap<>(Collections.singletonMap("id", i)), new HashMap<>()));
+        }
+        TestProcessor first = new TestProcessor(ingestDocument -> {
+            if (ingestDocument.getFieldValue("id", Integer.class) == 1) {
+                throw new IllegalArgumentException("error");
+            }
+            ingestDocument.setFieldValue("first", true);
+        });
+        Processor drop = new AbstractProcessor("drop") {
+            @Override
+            public IngestDocument execute(IngestDocument ingestDocument) {
+                return ingestDocument.getFieldValue("id", Integer.class) == 2 ? null : ingestDocument;
+            }
+
+            @Override
+            public String getType() {
+                return "drop";
+            }
+        };
+        TestProcessor last = new TestProcessor(ingestDocument -> ingestDocument.setFieldValue("last", true));
+        TestProcessor onFailure = new TestProcessor(ingestDocument -> ingestDocument.setFieldValue("on_failure", true));
+        LongSupplier relativeTimeProvider = mock(LongSupplier.class);
+        when(relativeTimeProvider.getAsLong()).thenReturn(0L);
+        CompoundProcessor compoundProcessor = new CompoundProcessor(false, Arrays.asList(first, drop, last),
+            Collections.singletonList(onFailure), relativeTimeProvider);
+
+        IngestDocument[][] results = new IngestDocument[1][];
+        Exception[][] failures = new Exception[1][];
+        compoundProcessor.executeBatch(documents, (r, f) -> {
+            results[0] = r;
+            failures[0] = f;
+        });
+
+        assertThat(first.getInvokedCounter(), equalTo(3));
+        assertThat(last.getInvokedCounter(), equalTo(1));
+        assertThat(onFailure.getInvokedCounter(), equalTo(1));
+        assertThat(failures[0][0], nullValue());
+        assertThat(results[0][0].getFieldValue("first", Boolean.class), is(true));
+        assertThat(results[0][0].getFieldValue("last", Boolean.class), is(true));
+        assertThat(failures[0][1], nullValue());
+        assertThat(results[0][1].getFieldValue("on_failure", Boolean.class), is(true));
+        assertThat(results[0][1].hasField("last"), is(false));
+        assertThat(failures[0][2], nullValue());
+        assertThat(results[0][2], nullValue());
+        assertStats(0, compoundProcessor, 0, 3, 1, 0);
+        assertStats(1, compoundProcessor, 0, 2, 0, 0);
+        assertStats(2, compoundProcessor, 0, 1, 0, 0);
+    }
+
+    public void testExecuteBatchWithFailingBatchProcessor() throws Exception {
+        List<IngestDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            documents.add(new IngestDocument(new HashMap<>(Collections.singletonMap("id", i)), new HashMap<>()));
+        }
+        Processor batch = new AbstractProcessor("batch") {
+            @Override
+            public IngestDocument execute(IngestDocument ingestDocument) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean supportsBatchExecution() {
+                return true;
+            }
+
+            @Override
+            public void executeBatch(List<IngestDocument> ingestDocuments, BiConsumer<IngestDocument[], Exception[]> handler) {
+                throw new IllegalStateException("error");
+            }
+
+            @Override
+            public String getType() {
+                return "batch";
+            }
+        };
+        TestProcessor first = new TestProcessor(ingestDocument -> {});
+        TestProcessor onFailure = new TestProcessor(ingestDocument -> ingestDocument.setFieldValue("on_failure", true));
+        LongSupplier relativeTimeProvider = mock(LongSupplier.class);
+        when(relativeTimeProvider.getAsLong()).thenReturn(0L, TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(2),
+            TimeUnit.MILLISECONDS.toNanos(3), TimeUnit.MILLISECONDS.toNanos(4), TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(6), TimeUnit.MILLISECONDS.toNanos(8));
+        assertThat(new CompoundProcessor(first).supportsBatchExecution(), is(false));
+        CompoundProcessor compoundProcessor = new CompoundProcessor(false, Arrays.asList(first, batch),
+            Collections.singletonList(onFailure), relativeTimeProvider);
+        assertThat(compoundProcessor.supportsBatchExecution(), is(true));
+
+        IngestDocument[][] results = new IngestDocument[1][];
+        Exception[][] failures = new Exception[1][];
+        compoundProcessor.executeBatch(documents, (r, f) -> {
+            results[0] = r;
+            failures[0] = f;
+        });
+
+        assertThat(first.getInvokedCounter(), equalTo(3));
+        assertThat(onFailure.getInvokedCounter(), equalTo(3));
+        for (int i = 0; i < documents.size(); i++) {
+            assertThat(failures[0][i], nullValue());
+            assertThat(results[0][i].getFieldValue("on_failure", Boolean.class), is(true));
+        }
+        // each document is timed on its own by processors that don't support batch execution
+        assertStats(0, compoundProcessor, 0, 3, 0, 3);
+        // every document waited for the whole batch
+        assertStats(1, compoundProcessor, 0, 3, 3, 6);
+    }
+
     private void assertStats(CompoundProcessor compoundProcessor, long count,  long failed, long time) {
         assertStats(0, compoundProcessor, 0L, count, failed, time);
     }
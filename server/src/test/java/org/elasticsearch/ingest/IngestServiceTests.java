@@ -62,6 +62,7 @@ import org.hamcrest.CustomTypeSafeMatcher;
 import org.mockito.ArgumentMatcher;
 import org.mockito.invocation.InvocationOnMock;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
@@ -701,6 +702,74 @@ public class IngestServiceTests extends ESTestCase {
         verify(completionHandler, times(1)).accept(Thread.currentThread(), null);
     }
 
+    public void testExecuteBulkInBatches() {
+        final List<Integer> batchSizes = new ArrayList<>();
+        final Processor batchProcessor = new AbstractProcessor("_tag") {
+            @Override
+            public IngestDocument execute(IngestDocument ingestDocument) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean supportsBatchExecution() {
+                return true;
+            }
+
+            @Override
+            public void executeBatch(List<IngestDocument> ingestDocuments, BiConsumer<IngestDocument[], Exception[]> handler) {
+                batchSizes.add(ingestDocuments.size());
+                final IngestDocument[] results = new IngestDocument[ingestDocuments.size()];
+                final Exception[] failures = new Exception[ingestDocuments.size()];
+                for (int i = 0; i < ingestDocuments.size(); i++) {
+                    IngestDocument ingestDocument = ingestDocuments.get(i);
+                    if ("fail".equals(ingestDocument.getFieldValue(IngestDocument.MetaData.ID.getFieldName(), String.class))) {
+                        failures[i] = new IllegalStateException("failed");
+                    } else {
+                        ingestDocument.setFieldValue("batched", true);
+                        results[i] = ingestDocument;
+                    }
+                }
+                handler.accept(results, failures);
+            }
+
+            @Override
+            public String getType() {
+                return "batch";
+            }
+        };
+        IngestService ingestService = createWithProcessors(Collections.singletonMap("batch", (factories, tag, config) -> batchProcessor));
+        PutPipelineRequest putRequest = new PutPipelineRequest("_id",
+            new BytesArray("{\"processors\": [{\"batch\" : {}}]}"), XContentType.JSON);
+        ClusterState clusterState = ClusterState.builder(new ClusterName("_name")).build(); // Start empty
+        ClusterState previousClusterState = clusterState;
+        clusterState = IngestService.innerPut(putRequest, clusterState);
+        ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
+
+        final int numDocs = IngestService.MAX_BATCH_SIZE + 1;
+        final int failingSlot = randomIntBetween(0, numDocs - 1);
+        final BulkRequest bulkRequest = new BulkRequest();
+        for (int i = 0; i < numDocs; i++) {
+            String id = i == failingSlot ? "fail" : Integer.toString(i);
+            bulkRequest.add(new IndexRequest("_index").id(id).source(emptyMap()).setPipeline("_id"));
+        }
+        @SuppressWarnings("unchecked")
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
+        @SuppressWarnings("unchecked")
+        final BiConsumer<Thread, Exception> completionHandler = mock(BiConsumer.class);
+        ingestService.executeBulkRequest(numDocs, bulkRequest.requests(), failureHandler, completionHandler, indexReq -> {});
+
+        assertThat(batchSizes, equalTo(Arrays.asList(IngestService.MAX_BATCH_SIZE, 1)));
+        verify(failureHandler, times(1)).accept(eq(failingSlot), any(ElasticsearchException.class));
+        verify(completionHandler, times(1)).accept(Thread.currentThread(), null);
+        for (int i = 0; i < numDocs; i++) {
+            IndexRequest indexRequest = (IndexRequest) bulkRequest.requests().get(i);
+            assertThat(indexRequest.sourceAsMap().containsKey("batched"), is(i != failingSlot));
+        }
+        IngestStats.Stats totalStats = ingestService.stats().getTotalStats();
+        assertThat(totalStats.getIngestCount(), equalTo((long) numDocs));
+        assertThat(totalStats.getIngestFailedCount(), equalTo(1L));
+    }
+
     public void testExecuteEmptyPipeline() throws Exception {
         IngestService ingestService = createWithProcessors(emptyMap());
         PutPipelineRequest putRequest =
@@ -29,6 +29,7 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.OriginalIndices;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.SearchContextId;
 import org.elasticsearch.action.search.SearchPhaseExecutionException;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
@@ -37,6 +38,7 @@ import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.action.support.WriteRequest;
+import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
@@ -71,6 +73,7 @@ import org.elasticsearch.search.aggregations.MultiBucketConsumerService;
 import org.elasticsearch.search.aggregations.bucket.global.GlobalAggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.support.ValueType;
+import org.elasticsearch.search.builder.PointInTimeBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.fetch.FetchSearchResult;
 import org.elasticsearch.search.fetch.ShardFetchRequest;
@@ -82,6 +85,7 @@ import org.elasticsearch.test.ESSingleNodeTestCase;
 import org.junit.Before;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -104,6 +108,7 @@ import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertSear
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.startsWith;
 
@@ -522,6 +527,87 @@ public class SearchServiceTests extends ESSingleNodeTestCase {
             ex.getMessage());
     }
 
+    /**
+     * test that opening more than the allowed number of reader contexts throws an exception, and that reader ids are not sequential
+     */
+    public void testMaxOpenReaderContexts() throws Exception {
+        createIndex("index");
+        final SearchService service = getInstanceFromNode(SearchService.class);
+        final ShardId shardId = new ShardId(resolveIndex("index"), 0);
+        final int maxOpenReaders = randomIntBetween(2, 5);
+        client().admin().cluster().prepareUpdateSettings()
+            .setTransientSettings(Settings.builder().put(SearchService.MAX_OPEN_READER_CONTEXT.getKey(), maxOpenReaders)).get();
+        try {
+            final List<Long> readerIds = new ArrayList<>();
+            for (int i = 0; i < maxOpenReaders; i++) {
+                readerIds.add(openReaderContext(service, shardId, AliasFilter.EMPTY));
+            }
+            assertThat(service.getActiveReaders(), equalTo(maxOpenReaders));
+            assertThat(readerIds.get(1), not(equalTo(readerIds.get(0) + 1)));
+
+            ElasticsearchException ex = expectThrows(ElasticsearchException.class,
+                () -> openReaderContext(service, shardId, AliasFilter.EMPTY));
+            assertEquals(
+                "Trying to create too many reader contexts. Must be less than or equal to: [" + maxOpenReaders + "]. " +
+                    "This limit can be set by changing the [search.max_open_reader_context] setting.",
+                ex.getMessage());
+            assertThat(service.getActiveReaders(), equalTo(maxOpenReaders));
+
+            assertTrue(service.freeReaderContext(readerIds.remove(0)));
+            readerIds.add(openReaderContext(service, shardId, AliasFilter.EMPTY));
+            for (long readerId : readerIds) {
+                assertTrue(service.freeReaderContext(readerId));
+            }
+            assertThat(service.getActiveReaders(), equalTo(0));
+        } finally {
+            client().admin().cluster().prepareUpdateSettings()
+                .setTransientSettings(Settings.builder().putNull(SearchService.MAX_OPEN_READER_CONTEXT.getKey())).get();
+        }
+    }
+
+    /**
+     * test that a search on a point in time uses the alias filter that was bound to the reader context when it was opened, rather
+     * than the one of the request
+     */
+    public void testPointInTimeUsesBoundAliasFilter() throws Exception {
+        createIndex("index");
+        client().prepareIndex("index", "type", "1").setSource("field", "value1").setRefreshPolicy(IMMEDIATE).get();
+        client().prepareIndex("index", "type", "2").setSource("field", "value2").setRefreshPolicy(IMMEDIATE).get();
+        final SearchService service = getInstanceFromNode(SearchService.class);
+        final ShardId shardId = new ShardId(resolveIndex("index"), 0);
+        final String localNodeId = getInstanceFromNode(ClusterService.class).localNode().getId();
+        final AliasFilter aliasFilter = new AliasFilter(new TermQueryBuilder("field", "value1"), "alias");
+        final long readerId = openReaderContext(service, shardId, aliasFilter);
+        try {
+            final String pointInTimeId = SearchContextId.encode(
+                Map.of(shardId, new SearchContextId.SearchContextIdForNode(localNodeId, readerId)), Map.of());
+            final SearchRequest searchRequest = new SearchRequest().allowPartialSearchResults(true)
+                .source(new SearchSourceBuilder().pointInTimeBuilder(new PointInTimeBuilder(pointInTimeId, null)));
+            final ShardSearchRequest request = new ShardSearchRequest(OriginalIndices.NONE, searchRequest, shardId, 1,
+                AliasFilter.EMPTY, 1.0f, -1, null, null);
+            try (SearchContext context = service.createContext(request)) {
+                assertThat(request.getAliasFilter(), equalTo(aliasFilter));
+                assertThat(context.aliasFilter(), notNullValue());
+            }
+
+            // a point in time id that points to an unknown reader must not be usable
+            final String unknownId = SearchContextId.encode(
+                Map.of(shardId, new SearchContextId.SearchContextIdForNode(localNodeId, readerId + 1)), Map.of());
+            final SearchRequest unknownRequest = new SearchRequest().allowPartialSearchResults(true)
+                .source(new SearchSourceBuilder().pointInTimeBuilder(new PointInTimeBuilder(unknownId, null)));
+            expectThrows(SearchContextMissingException.class, () -> service.createContext(new ShardSearchRequest(OriginalIndices.NONE,
+                unknownRequest, shardId, 1, AliasFilter.EMPTY, 1.0f, -1, null, null)));
+        } finally {
+            assertTrue(service.freeReaderContext(readerId));
+        }
+    }
+
+    private static long openReaderContext(SearchService service, ShardId shardId, AliasFilter aliasFilter) {
+        final PlainActionFuture<Long> future = new PlainActionFuture<>();
+        service.openReaderContext(shardId, aliasFilter, TimeValue.timeValueMinutes(1), future);
+        return future.actionGet();
+    }
+
     public static class FailOnRewriteQueryPlugin extends Plugin implements SearchPlugin {
         @Override
         public List<QuerySpec<?>> getQueries() {
@@ -0,0 +1,93 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.search.aggregations;
+
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.aggregations.bucket.sampler.SamplerAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.significant.SignificantTermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.terms.LongTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.MaxAggregationBuilder;
+import org.elasticsearch.search.aggregations.support.ValueType;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class AggregationPhaseTests extends ESTestCase {
+
+    public void testSupportsConcurrentSlices() {
+        assertTrue(AggregationPhase.supportsConcurrentSlices(Collections.emptyList()));
+        assertTrue(AggregationPhase.supportsConcurrentSlices(List.of(new TermsAggregationBuilder("terms", ValueType.LONG)
+            .subAggregation(new MaxAggregationBuilder("max")))));
+        assertFalse(AggregationPhase.supportsConcurrentSlices(List.of(new MaxAggregationBuilder("max"),
+            new SignificantTermsAggregationBuilder("significant", ValueType.STRING))));
+        assertFalse(AggregationPhase.supportsConcurrentSlices(List.of(new TermsAggregationBuilder("terms", ValueType.LONG)
+            .subAggregation(new SamplerAggregationBuilder("sampler")))));
+    }
+
+    public void testPruneTermsToShardSize() {
+        TermsAggregationBuilder builder = new TermsAggregationBuilder("terms", ValueType.LONG).shardSize(2)
+            .shardMinDocCount(4).minDocCount(5);
+        LongTerms terms = longTerms("terms", 2, 1, new long[] { 10, 5, 3, 4, 7 });
+
+        LongTerms pruned = (LongTerms) AggregationPhase.pruneToShardSize(terms, builder);
+        assertEquals(2, pruned.getBuckets().size());
+        assertEquals(0L, pruned.getBuckets().get(0).getKeyAsNumber().longValue());
+        assertEquals(10L, pruned.getBuckets().get(0).getDocCount());
+        assertEquals(4L, pruned.getBuckets().get(1).getKeyAsNumber().longValue());
+        assertEquals(7L, pruned.getBuckets().get(1).getDocCount());
+        // the docs of the dropped buckets, including the one below shard_min_doc_count, are counted as other docs
+        assertEquals(1L + 5 + 3 + 4, pruned.getSumOfOtherDocCounts());
+        assertEquals(0L, pruned.getDocCountError());
+
+        // aggregations without a builder are left untouched
+        assertSame(terms, AggregationPhase.pruneToShardSize(terms, null));
+    }
+
+    public void testPruneSubAggregationsToShardSize() {
+        TermsAggregationBuilder builder = new TermsAggregationBuilder("terms", ValueType.LONG)
+            .subAggregation(new TermsAggregationBuilder("sub", ValueType.LONG).shardSize(1));
+
+        LongTerms sub = longTerms("sub", 1, 0, new long[] { 2, 3 });
+        LongTerms.Bucket bucket = new LongTerms.Bucket(0, 5, new InternalAggregations(List.of(sub)), false, 0, DocValueFormat.RAW);
+        LongTerms terms = new LongTerms("terms", BucketOrder.count(false), 10, 1, Collections.emptyList(), null, DocValueFormat.RAW,
+            10, false, 0, List.of(bucket), 0);
+
+        LongTerms pruned = (LongTerms) AggregationPhase.pruneToShardSize(terms, builder);
+        assertEquals(1, pruned.getBuckets().size());
+        LongTerms prunedSub = pruned.getBuckets().get(0).getAggregations().get("sub");
+        assertEquals(1, prunedSub.getBuckets().size());
+        assertEquals(1L, prunedSub.getBuckets().get(0).getKeyAsNumber().longValue());
+        assertEquals(2L, prunedSub.getSumOfOtherDocCounts());
+    }
+
+    /**
+     * Builds terms keyed by the position of their doc count, in no particular order like the unpruned result of the slices.
+     */
+    private static LongTerms longTerms(String name, int shardSize, long otherDocCount, long[] docCounts) {
+        List<LongTerms.Bucket> buckets = new ArrayList<>();
+        for (int i = 0; i < docCounts.length; i++) {
+            buckets.add(new LongTerms.Bucket(i, docCounts[i], InternalAggregations.EMPTY, false, 0, DocValueFormat.RAW));
+        }
+        return new LongTerms(name, BucketOrder.count(false), shardSize, 1, Collections.emptyList(), null, DocValueFormat.RAW,
+            shardSize, false, otherDocCount, buckets, 0);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.aggregations.bucket;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.index.mapper.DateFieldMapper;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregatorTestCase;
+import org.elasticsearch.search.aggregations.InternalAggregation;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
+import org.elasticsearch.search.aggregations.bucket.histogram.InternalDateHistogram;
+import org.elasticsearch.search.aggregations.bucket.range.InternalRange;
+import org.elasticsearch.search.aggregations.bucket.range.RangeAggregationBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that aggregations that count documents with {@link PointRangeCounter} return the same buckets as when they
+ * collect documents, which they do if the query is not a {@link MatchAllDocsQuery} or a range query.
+ */
+public class PointRangeCounterTests extends AggregatorTestCase {
+    private static final String FIELD = "date";
+    private static final long START = 1_500_000_000_000L;
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private IndexSearcher searcher;
+    private DateFieldMapper.DateFieldType fieldType;
+
+    public void testDateHistogram() throws IOException {
+        DateHistogramAggregationBuilder builder = new DateHistogramAggregationBuilder("histo").field(FIELD);
+        if (randomBoolean()) {
+            builder.fixedInterval(new DateHistogramInterval(randomIntBetween(1, 48) + "h"));
+        } else {
+            builder.calendarInterval(DateHistogramInterval.DAY);
+        }
+        if (randomBoolean()) {
+            builder.offset(randomLongBetween(-DAY, DAY));
+        }
+        testCase(query -> {
+            InternalDateHistogram histogram = search(query, builder);
+            InternalDateHistogram expected = search(collectingQuery(query), builder);
+            List<? extends Histogram.Bucket> buckets = histogram.getBuckets();
+            List<? extends Histogram.Bucket> expectedBuckets = expected.getBuckets();
+            assertEquals(expectedBuckets.size(), buckets.size());
+            for (int i = 0; i < buckets.size(); i++) {
+                assertEquals(expectedBuckets.get(i).getKey(), buckets.get(i).getKey());
+                assertEquals(expectedBuckets.get(i).getDocCount(), buckets.get(i).getDocCount());
+            }
+        });
+    }
+
+    public void testRange() throws IOException {
+        RangeAggregationBuilder builder = new RangeAggregationBuilder("range").field(FIELD);
+        builder.addUnboundedTo(START + randomDoubleBetween(0, 3 * DAY, true));
+        for (int i = 0; i < randomIntBetween(1, 5); i++) {
+            double from = START + randomDoubleBetween(-DAY, 10 * DAY, true);
+            builder.addRange(from, from + randomDoubleBetween(0, 5 * DAY, true));
+        }
+        builder.addUnboundedFrom(START + randomDoubleBetween(5 * DAY, 10 * DAY, true));
+        testCase(query -> {
+            InternalRange<?, ?> range = search(query, builder);
+            InternalRange<?, ?> expected = search(collectingQuery(query), builder);
+            assertEquals(expected.getBuckets().size(), range.getBuckets().size());
+            for (int i = 0; i < range.getBuckets().size(); i++) {
+                assertEquals(expected.getBuckets().get(i).getKey(), range.getBuckets().get(i).getKey());
+                assertEquals(expected.getBuckets().get(i).getDocCount(), range.getBuckets().get(i).getDocCount());
+            }
+        });
+    }
+
+    private void testCase(CheckedConsumer<Query, IOException> verifier) throws IOException {
+        fieldType = new DateFieldMapper.Builder(FIELD).fieldType();
+        fieldType.setName(FIELD);
+        fieldType.setHasDocValues(true);
+        fieldType.setIndexOptions(IndexOptions.DOCS);
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter indexWriter = new IndexWriter(directory, newIndexWriterConfig())) {
+                int numDocs = randomIntBetween(500, 2000);
+                boolean multiValued = randomBoolean();
+                for (int i = 0; i < numDocs; i++) {
+                    Document document = new Document();
+                    document.add(new StringField("id", Integer.toString(i), Field.Store.NO));
+                    int numValues = multiValued && rarely() ? 2 : 1;
+                    for (int j = 0; j < numValues; j++) {
+                        long value = START + randomLongBetween(0, 10 * DAY);
+                        document.add(new LongPoint(FIELD, value));
+                        document.add(new SortedNumericDocValuesField(FIELD, value));
+                    }
+                    indexWriter.addDocument(document);
+                    if (rarely()) {
+                        indexWriter.commit();
+                    }
+                }
+                for (int i = 0; i < randomIntBetween(0, 50); i++) {
+                    indexWriter.deleteDocuments(new Term("id", Integer.toString(randomInt(numDocs - 1))));
+                }
+            }
+            try (IndexReader reader = DirectoryReader.open(directory)) {
+                searcher = new IndexSearcher(reader);
+                verifier.accept(new MatchAllDocsQuery());
+                long from = START + randomLongBetween(-DAY, 10 * DAY);
+                verifier.accept(LongPoint.newRangeQuery(FIELD, from, from + randomLongBetween(0, 5 * DAY)));
+            }
+        }
+    }
+
+    private <A extends InternalAggregation> A search(Query query, AggregationBuilder builder) throws IOException {
+        return search(searcher, query, builder, fieldType);
+    }
+
+    /**
+     * Returns a query that matches the same documents but forces the aggregations to collect them.
+     */
+    private static Query collectingQuery(Query query) {
+        return new BooleanQuery.Builder().add(query, BooleanClause.Occur.FILTER).build();
+    }
+}
@@ -31,11 +31,16 @@ import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.RandomIndexWriter;
 import org.apache.lucene.search.DocValuesFieldExistsQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.SortedSetSortField;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.NumericUtils;
@@ -74,9 +79,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
@@ -1661,6 +1669,65 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
         testRandomTerms("price", () -> randomInt(), (v) -> ((Number) v).intValue());
     }
 
+    public void testEarlyTerminationWithIndexSort() throws IOException {
+        final Map<String, Integer> expected = new TreeMap<>();
+        try (Directory directory = newDirectory()) {
+            IndexWriterConfig config = newIndexWriterConfig();
+            config.setIndexSort(new Sort(new SortedSetSortField("keyword", false),
+                new SortedNumericSortField("long", SortField.Type.LONG, false)));
+            try (RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory, config)) {
+                Document document = new Document();
+                int numDocs = randomIntBetween(500, 1000);
+                for (int i = 0; i < numDocs; i++) {
+                    String keyword = String.format(Locale.ROOT, "k%02d", randomIntBetween(0, 20));
+                    long value = randomIntBetween(0, 50);
+                    addToDocument(document, createDocument("keyword", keyword, "long", value));
+                    indexWriter.addDocument(document);
+                    document.clear();
+                    expected.merge(String.format(Locale.ROOT, "%s/%03d", keyword, value), 1, Integer::sum);
+                }
+                indexWriter.forceMerge(1);
+            }
+            try (IndexReader indexReader = DirectoryReader.open(directory)) {
+                IndexSearcher indexSearcher = new IndexSearcher(indexReader);
+                // the sorted docs producer doesn't apply on this query
+                Query query = new DocValuesFieldExistsQuery("keyword");
+                Iterator<Map.Entry<String, Integer>> expectedIt = expected.entrySet().iterator();
+                Map<String, Object> afterKey = null;
+                while (true) {
+                    CompositeAggregationBuilder builder = new CompositeAggregationBuilder("name", Arrays.asList(
+                        new TermsValuesSourceBuilder("keyword").field("keyword"),
+                        new TermsValuesSourceBuilder("long").field("long"))).size(10).aggregateAfter(afterKey);
+                    Aggregator aggregator = createAggregator(query, builder, indexSearcher, createIndexSettings(), FIELD_TYPES);
+                    aggregator.preCollection();
+                    indexSearcher.search(query, aggregator);
+                    aggregator.postCollection();
+                    InternalComposite result = (InternalComposite) aggregator.buildAggregation(0L);
+                    Map<String, Object> debug = new HashMap<>();
+                    aggregator.collectDebugInfo(debug::put);
+                    assertNull(debug.get("sorted_docs_producer"));
+                    assertEquals(1, debug.get("segments_with_index_sort"));
+                    for (InternalComposite.InternalBucket bucket : result.getBuckets()) {
+                        assertTrue(expectedIt.hasNext());
+                        Map.Entry<String, Integer> entry = expectedIt.next();
+                        String key = String.format(Locale.ROOT, "%s/%03d", bucket.getKey().get("keyword"), bucket.getKey().get("long"));
+                        assertEquals(entry.getKey(), key);
+                        assertEquals((long) entry.getValue(), bucket.getDocCount());
+                    }
+                    if (result.getBuckets().size() < 10) {
+                        break;
+                    }
+                    if (expectedIt.hasNext()) {
+                        // the segment contains more keys than the requested size
+                        assertEquals(1, debug.get("segments_early_terminated"));
+                    }
+                    afterKey = result.afterKey();
+                }
+                assertFalse(expectedIt.hasNext());
+            }
+        }
+    }
+
     public void testDuplicateNames() {
         IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> {
             List<CompositeValuesSourceBuilder<?>> builders = new ArrayList<>();
@@ -19,6 +19,17 @@
 
 package org.elasticsearch.search.aggregations.bucket.terms;
 
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.test.ESTestCase;
 
@@ -41,4 +52,31 @@ public class TermsAggregatorFactoryTests extends ESTestCase {
         assertThat(TermsAggregatorFactory.subAggCollectionMode(1, 100),
             equalTo(Aggregator.SubAggCollectionMode.BREADTH_FIRST));
     }
+
+    public void testHasCheapCost() {
+        final Query term = new TermQuery(new Term("field", "value"));
+        final Query range = LongPoint.newRangeQuery("number", 0, 10);
+        assertTrue(TermsAggregatorFactory.hasCheapCost(term));
+        assertTrue(TermsAggregatorFactory.hasCheapCost(range));
+        assertTrue(TermsAggregatorFactory.hasCheapCost(new MatchAllDocsQuery()));
+        assertTrue(TermsAggregatorFactory.hasCheapCost(new BooleanQuery.Builder()
+            .add(term, Occur.MUST)
+            .add(range, Occur.FILTER)
+            .add(new TermQuery(new Term("field", "other")), Occur.MUST_NOT)
+            .build()));
+
+        final Query expensive = randomFrom(
+            new WildcardQuery(new Term("field", "val*e")),
+            new PrefixQuery(new Term("field", "val")),
+            new TermInSetQuery("field", new BytesRef("value"), new BytesRef("other")));
+        assertFalse(TermsAggregatorFactory.hasCheapCost(expensive));
+        for (Occur occur : Occur.values()) {
+            // expensive clauses are detected whatever their occurrence, must_not clauses need a scorer too
+            final Query query = new BooleanQuery.Builder()
+                .add(term, Occur.MUST)
+                .add(expensive, occur)
+                .build();
+            assertFalse(occur.toString(), TermsAggregatorFactory.hasCheapCost(query));
+        }
+    }
 }
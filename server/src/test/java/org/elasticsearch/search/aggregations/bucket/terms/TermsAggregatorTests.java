@@ -30,11 +30,16 @@ import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.DocValuesFieldExistsQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.BytesRef;
@@ -162,6 +167,65 @@ public class TermsAggregatorTests extends AggregatorTestCase {
         directory.close();
     }
 
+    public void testMapExecutionForFewMatchingDocs() throws Exception {
+        randomizeAggregatorImpl = false;
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter indexWriter = new IndexWriter(directory, newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+                int numSegments = randomIntBetween(2, 5);
+                for (int i = 0; i < numSegments; i++) {
+                    for (int j = 0; j < 64; j++) {
+                        String value = i + "_" + j;
+                        Document document = new Document();
+                        document.add(new StringField("string", value, Field.Store.NO));
+                        document.add(new SortedSetDocValuesField("string", new BytesRef(value)));
+                        indexWriter.addDocument(document);
+                    }
+                    indexWriter.commit();
+                }
+            }
+            try (IndexReader indexReader = DirectoryReader.open(directory)) {
+                IndexSearcher indexSearcher = new IndexSearcher(indexReader);
+                MappedFieldType fieldType = new KeywordFieldMapper.KeywordFieldType();
+                fieldType.setName("string");
+                fieldType.setHasDocValues(true);
+                TermsAggregationBuilder aggregationBuilder = new TermsAggregationBuilder("_name", ValueType.STRING)
+                    .field("string");
+                TermQuery query = new TermQuery(new Term("string", "1_7"));
+
+                TermsAggregator aggregator = createAggregator(query, aggregationBuilder, indexSearcher, createIndexSettings(), fieldType);
+                assertThat(aggregator, instanceOf(StringTermsAggregator.class));
+                aggregator.preCollection();
+                indexSearcher.search(query, aggregator);
+                aggregator.postCollection();
+                Terms result = (Terms) aggregator.buildAggregation(0L);
+                assertEquals(1, result.getBuckets().size());
+                assertEquals("1_7", result.getBuckets().get(0).getKeyAsString());
+                assertEquals(1L, result.getBuckets().get(0).getDocCount());
+
+                aggregator = createAggregator(new MatchAllDocsQuery(), aggregationBuilder, indexSearcher, createIndexSettings(), fieldType);
+                assertThat(aggregator, instanceOf(GlobalOrdinalsStringTermsAggregator.class));
+
+                aggregator = createAggregator(aggregationBuilder, indexSearcher, fieldType);
+                assertThat(aggregator, instanceOf(GlobalOrdinalsStringTermsAggregator.class));
+
+                // the cost of multi-term queries is not estimated
+                aggregator = createAggregator(new PrefixQuery(new Term("string", "1_7")), aggregationBuilder, indexSearcher,
+                    createIndexSettings(), fieldType);
+                assertThat(aggregator, instanceOf(GlobalOrdinalsStringTermsAggregator.class));
+
+                aggregationBuilder.executionHint("global_ordinals");
+                aggregator = createAggregator(query, aggregationBuilder, indexSearcher, createIndexSettings(), fieldType);
+                assertThat(aggregator, instanceOf(GlobalOrdinalsStringTermsAggregator.class));
+
+                aggregationBuilder.executionHint(null);
+                fieldType = fieldType.clone();
+                fieldType.setEagerGlobalOrdinals(true);
+                aggregator = createAggregator(query, aggregationBuilder, indexSearcher, createIndexSettings(), fieldType);
+                assertThat(aggregator, instanceOf(GlobalOrdinalsStringTermsAggregator.class));
+            }
+        }
+    }
+
     public void testSimple() throws Exception {
         try (Directory directory = newDirectory()) {
             try (RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory)) {
@@ -23,6 +23,7 @@ import org.apache.lucene.document.BinaryDocValuesField;
 import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.RandomIndexWriter;
@@ -31,8 +32,12 @@ import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.CheckedConsumer;
 import org.elasticsearch.common.geo.GeoPoint;
+import org.elasticsearch.common.hash.MurmurHash3;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.index.mapper.KeywordFieldMapper;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.NumberFieldMapper;
 import org.elasticsearch.index.mapper.RangeFieldMapper;
@@ -172,6 +177,36 @@ public class CardinalityAggregatorTests extends AggregatorTestCase {
         }, null);
     }
 
+    public void testKeywordWithRepeatedValues() throws IOException {
+        MappedFieldType fieldType = new KeywordFieldMapper.KeywordFieldType();
+        fieldType.setName("keyword");
+        fieldType.setHasDocValues(true);
+        // a low precision disables the collection of ordinals in bitsets
+        final long precisionThreshold = 10;
+        final int numValues = randomIntBetween(50, 200);
+        final HyperLogLogPlusPlus expected = new HyperLogLogPlusPlus(HyperLogLogPlusPlus.precisionFromThreshold(precisionThreshold),
+            BigArrays.NON_RECYCLING_INSTANCE, 1);
+        final MurmurHash3.Hash128 hash = new MurmurHash3.Hash128();
+        for (int i = 0; i < numValues; i++) {
+            BytesRef value = new BytesRef("value" + i);
+            MurmurHash3.hash128(value.bytes, value.offset, value.length, 0, hash);
+            expected.collect(0, hash.h1);
+        }
+        CardinalityAggregationBuilder aggregationBuilder = new CardinalityAggregationBuilder("name", null)
+            .field("keyword").precisionThreshold(precisionThreshold);
+        testCase(aggregationBuilder, new MatchAllDocsQuery(), iw -> {
+            for (int i = 0; i < numValues * 4; i++) {
+                iw.addDocument(singleton(new SortedSetDocValuesField("keyword", new BytesRef("value" + (i % numValues)))));
+            }
+            // a single segment so that each ordinal is shared by several documents
+            iw.forceMerge(1);
+        }, card -> {
+            assertEquals(expected.cardinality(0), card.getValue(), 0);
+            assertTrue(AggregationInspectionHelper.hasValue(card));
+        }, fieldType);
+        expected.close();
+    }
+
     private void testCase(Query query, CheckedConsumer<RandomIndexWriter, IOException> buildIndex,
                           Consumer<InternalCardinality> verify) throws IOException {
         MappedFieldType fieldType = new NumberFieldMapper.NumberFieldType(
@@ -38,6 +38,7 @@ public class ValuesSourceTypeTests extends AbstractWriteableEnumTestCase {
         assertThat(ValuesSourceType.BYTES.ordinal(), equalTo(2));
         assertThat(ValuesSourceType.GEOPOINT.ordinal(), equalTo(3));
         assertThat(ValuesSourceType.RANGE.ordinal(), equalTo(4));
+        assertThat(ValuesSourceType.HISTOGRAM.ordinal(), equalTo(5));
     }
 
     @Override
@@ -47,6 +48,7 @@ public class ValuesSourceTypeTests extends AbstractWriteableEnumTestCase {
         assertThat(ValuesSourceType.fromString("bytes"), equalTo(ValuesSourceType.BYTES));
         assertThat(ValuesSourceType.fromString("geopoint"), equalTo(ValuesSourceType.GEOPOINT));
         assertThat(ValuesSourceType.fromString("range"), equalTo(ValuesSourceType.RANGE));
+        assertThat(ValuesSourceType.fromString("histogram"), equalTo(ValuesSourceType.HISTOGRAM));
         IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> ValuesSourceType.fromString("does_not_exist"));
         assertThat(e.getMessage(),
             equalTo("No enum constant org.elasticsearch.search.aggregations.support.ValuesSourceType.DOES_NOT_EXIST"));
@@ -60,6 +62,7 @@ public class ValuesSourceTypeTests extends AbstractWriteableEnumTestCase {
         assertReadFromStream(2, ValuesSourceType.BYTES);
         assertReadFromStream(3, ValuesSourceType.GEOPOINT);
         assertReadFromStream(4, ValuesSourceType.RANGE);
+        assertReadFromStream(5, ValuesSourceType.HISTOGRAM);
     }
 
     @Override
@@ -69,5 +72,6 @@ public class ValuesSourceTypeTests extends AbstractWriteableEnumTestCase {
         assertWriteToStream(ValuesSourceType.BYTES, 2);
         assertWriteToStream(ValuesSourceType.GEOPOINT, 3);
         assertWriteToStream(ValuesSourceType.RANGE, 4);
+        assertWriteToStream(ValuesSourceType.HISTOGRAM, 5);
     }
 }
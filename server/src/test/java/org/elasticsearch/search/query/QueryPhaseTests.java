@@ -24,12 +24,14 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.LatLonDocValuesField;
 import org.apache.lucene.document.LatLonPoint;
+import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NoMergePolicy;
@@ -38,6 +40,7 @@ import org.apache.lucene.index.Term;
 import org.apache.lucene.queries.MinDocQuery;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.CollectionTerminatedException;
 import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.DocValuesFieldExistsQuery;
@@ -53,6 +56,7 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TotalHitCountCollector;
 import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.search.Weight;
@@ -65,20 +69,27 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.FixedBitSet;
 import org.elasticsearch.action.search.SearchTask;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.fielddata.IndexNumericFieldData;
+import org.elasticsearch.index.fielddata.fieldcomparator.LongValuesComparatorSource;
+import org.elasticsearch.index.fielddata.plain.SortedNumericDVIndexFieldData;
 import org.elasticsearch.index.query.ParsedQuery;
 import org.elasticsearch.index.search.ESToParentBlockJoinQuery;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardTestCase;
 import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.MultiValueMode;
+import org.elasticsearch.search.internal.ContextIndexSearcher;
 import org.elasticsearch.search.internal.ScrollContext;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.sort.SortAndFormats;
 import org.elasticsearch.test.TestSearchContext;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.equalTo;
@@ -715,6 +726,148 @@ public class QueryPhaseTests extends IndexShardTestCase {
         dir.close();
     }
 
+    public void testConcurrentSegmentSearch() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE);
+        RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
+        final int numSegments = randomIntBetween(6, 20);
+        int numDocs = 0;
+        for (int i = 0; i < numSegments; i++) {
+            final int numSegmentDocs = randomIntBetween(1, 20);
+            for (int j = 0; j < numSegmentDocs; j++) {
+                Document doc = new Document();
+                if (randomBoolean()) {
+                    doc.add(new StringField("foo", "bar", Store.NO));
+                }
+                doc.add(new NumericDocValuesField("rank", randomIntBetween(0, 1000)));
+                w.addDocument(doc);
+                numDocs++;
+            }
+            w.commit();
+        }
+        w.close();
+
+        IndexReader reader = DirectoryReader.open(dir);
+        ContextIndexSearcher concurrentSearcher = new ContextIndexSearcher(reader, IndexSearcher.getDefaultSimilarity(),
+            IndexSearcher.getDefaultQueryCache(), IndexSearcher.getDefaultQueryCachingPolicy(),
+            threadPool.executor(ThreadPool.Names.SEARCH_WORKER));
+        assertTrue(concurrentSearcher.isConcurrent());
+        IndexSearcher sequentialSearcher = new IndexSearcher(reader);
+
+        TestSearchContext context = new TestSearchContext(null, indexShard);
+        context.setTask(new SearchTask(123L, "", "", "", null, Collections.emptyMap()));
+        context.setSize(10);
+        {
+            context.parsedQuery(new ParsedQuery(new TermQuery(new Term("foo", "bar"))));
+            QueryPhase.execute(context, sequentialSearcher, checkCancelled -> {});
+            TopDocs expected = context.queryResult().topDocs().topDocs;
+            QueryPhase.execute(context, concurrentSearcher, checkCancelled -> {});
+            TopDocs actual = context.queryResult().topDocs().topDocs;
+            assertEquals(expected.totalHits, actual.totalHits);
+            assertEquals(expected.scoreDocs.length, actual.scoreDocs.length);
+            for (int i = 0; i < expected.scoreDocs.length; i++) {
+                assertEquals(expected.scoreDocs[i].score, actual.scoreDocs[i].score, 0f);
+            }
+        }
+        {
+            context.parsedQuery(new ParsedQuery(new MatchAllDocsQuery()));
+            context.sort(new SortAndFormats(new Sort(new SortField("rank", SortField.Type.INT), SortField.FIELD_DOC),
+                new DocValueFormat[] { DocValueFormat.RAW, DocValueFormat.RAW }));
+            QueryPhase.execute(context, sequentialSearcher, checkCancelled -> {});
+            TopDocs expected = context.queryResult().topDocs().topDocs;
+            QueryPhase.execute(context, concurrentSearcher, checkCancelled -> {});
+            TopDocs actual = context.queryResult().topDocs().topDocs;
+            assertEquals(numDocs, actual.totalHits.value);
+            assertEquals(expected.totalHits, actual.totalHits);
+            assertEquals(expected.scoreDocs.length, actual.scoreDocs.length);
+            for (int i = 0; i < expected.scoreDocs.length; i++) {
+                assertEquals(expected.scoreDocs[i].doc, actual.scoreDocs[i].doc);
+            }
+            context.sort(null);
+        }
+        {
+            context.parsedQuery(new ParsedQuery(new MatchAllDocsQuery()));
+            context.setSize(0);
+            context.trackTotalHitsUpTo(SearchContext.TRACK_TOTAL_HITS_ACCURATE);
+            QueryPhase.execute(context, concurrentSearcher, checkCancelled -> {});
+            assertEquals(numDocs, context.queryResult().topDocs().topDocs.totalHits.value);
+
+            context.terminateAfter(1);
+            QueryPhase.execute(context, concurrentSearcher, checkCancelled -> {});
+            assertTrue(context.queryResult().terminatedEarly());
+        }
+        reader.close();
+        dir.close();
+    }
+
+    public void testSkipNonCompetitiveSegments() throws Exception {
+        Directory dir = newDirectory();
+        // one segment per commit
+        IndexWriter w = new IndexWriter(dir, new IndexWriterConfig(null).setMergePolicy(NoMergePolicy.INSTANCE));
+        final int numSegments = randomIntBetween(2, 10);
+        for (int i = 0; i < numSegments; i++) {
+            // the values of each segment are lower than the values of the previous segments
+            final int numSegmentDocs = randomIntBetween(10, 50);
+            for (int j = 0; j < numSegmentDocs; j++) {
+                Document doc = new Document();
+                long rank = (numSegments - i) * 100 + randomIntBetween(0, 99);
+                doc.add(new LongPoint("rank", rank));
+                doc.add(new SortedNumericDocValuesField("rank", rank));
+                w.addDocument(doc);
+            }
+            w.commit();
+        }
+        w.close();
+
+        IndexReader reader = DirectoryReader.open(dir);
+        final AtomicInteger skippedSegments = new AtomicInteger();
+        IndexSearcher contextSearcher = new IndexSearcher(reader) {
+            @Override
+            protected void search(List<LeafReaderContext> leaves, Weight weight, Collector collector) throws IOException {
+                super.search(leaves, weight, new FilterCollector(collector) {
+                    @Override
+                    public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+                        try {
+                            return super.getLeafCollector(context);
+                        } catch (CollectionTerminatedException e) {
+                            skippedSegments.incrementAndGet();
+                            throw e;
+                        }
+                    }
+                });
+            }
+        };
+        SortedNumericDVIndexFieldData fieldData = new SortedNumericDVIndexFieldData(indexShard.shardId().getIndex(),
+            "rank", IndexNumericFieldData.NumericType.LONG);
+        Sort sort = new Sort(new SortField("rank", new LongValuesComparatorSource(fieldData, null, MultiValueMode.MAX, null), true));
+
+        TestSearchContext context = new TestSearchContext(null, indexShard);
+        context.setTask(new SearchTask(123L, "", "", "", null, Collections.emptyMap()));
+        context.parsedQuery(new ParsedQuery(new MatchAllDocsQuery()));
+        context.sort(new SortAndFormats(sort, new DocValueFormat[] { DocValueFormat.RAW }));
+        context.setSize(10);
+        context.trackTotalHitsUpTo(SearchContext.TRACK_TOTAL_HITS_DISABLED);
+
+        QueryPhase.execute(context, contextSearcher, checkCancelled -> {});
+        TopDocs expected = new IndexSearcher(reader).search(new MatchAllDocsQuery(), 10, sort);
+        TopDocs actual = context.queryResult().topDocs().topDocs;
+        assertEquals(expected.scoreDocs.length, actual.scoreDocs.length);
+        for (int i = 0; i < expected.scoreDocs.length; i++) {
+            assertEquals(expected.scoreDocs[i].doc, actual.scoreDocs[i].doc);
+        }
+        assertEquals(numSegments - 1, skippedSegments.get());
+
+        // searching after a hit cannot skip segments
+        skippedSegments.set(0);
+        context.searchAfter(new FieldDoc(Integer.MAX_VALUE, Float.NaN, new Object[] { Long.MAX_VALUE }));
+        QueryPhase.execute(context, contextSearcher, checkCancelled -> {});
+        assertEquals(10, context.queryResult().topDocs().topDocs.scoreDocs.length);
+        assertEquals(0, skippedSegments.get());
+
+        reader.close();
+        dir.close();
+    }
+
     private static IndexSearcher getAssertingEarlyTerminationSearcher(IndexReader reader, int size) {
         return new IndexSearcher(reader) {
             @Override
@@ -24,6 +24,7 @@ import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.OriginalIndices;
+import org.elasticsearch.common.io.stream.CountingStreamOutput;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
 import org.elasticsearch.common.settings.Settings;
@@ -99,4 +100,18 @@ public class QuerySearchResultTests extends ESTestCase {
         }
         assertEquals(querySearchResult.terminatedEarly(), deserialized.terminatedEarly());
     }
+
+    public void testAggsSerializedSize() throws Exception {
+        QuerySearchResult querySearchResult = createTestInstance();
+        InternalAggregations aggs = InternalAggregationsTests.createTestInstance();
+        querySearchResult.aggregations(aggs);
+        assertEquals(-1L, querySearchResult.aggsSerializedSize());
+        QuerySearchResult deserialized = copyWriteable(querySearchResult, namedWriteableRegistry, QuerySearchResult::new,
+            Version.CURRENT);
+        try (CountingStreamOutput out = new CountingStreamOutput()) {
+            aggs.writeTo(out);
+            assertEquals(out.size(), deserialized.aggsSerializedSize());
+        }
+        assertEquals(aggs.asList(), deserialized.consumeAggs().asList());
+    }
 }
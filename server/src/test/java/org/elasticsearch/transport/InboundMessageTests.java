@@ -21,6 +21,7 @@ package org.elasticsearch.transport;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.io.stream.StreamInput;
@@ -35,6 +36,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class InboundMessageTests extends ESTestCase {
 
@@ -200,6 +202,37 @@ public class InboundMessageTests extends ESTestCase {
         assertThat(iste.getMessage(), Matchers.startsWith("stream marked as compressed, but no compressor found,"));
     }
 
+    public void testReadRequestRetainsSlicesOfReleasableBuffer() throws IOException {
+        final BytesReference source = new BytesArray(randomByteArrayOfLength(randomIntBetween(1, 1024)));
+        final boolean compress = randomBoolean();
+        OutboundMessage.Request request = new OutboundMessage.Request(threadContext, new SourceMessage(source), Version.CURRENT,
+            randomAlphaOfLength(10), randomLong(), false, compress);
+        BytesReference reference;
+        try (BytesStreamOutput streamOutput = new BytesStreamOutput()) {
+            reference = request.serialize(streamOutput);
+        }
+        final AtomicInteger released = new AtomicInteger();
+        final ReleasableBytesReference buffer =
+            new ReleasableBytesReference(reference.slice(6, reference.length() - 6), released::incrementAndGet);
+
+        InboundMessage.Reader reader = new InboundMessage.Reader(Version.CURRENT, registry, threadContext);
+        final InboundMessage.Request inboundMessage = (InboundMessage.Request) reader.deserialize(buffer);
+        final StreamInput in = inboundMessage.getStreamInput();
+        assertEquals(source, in.readRetainedBytesReference());
+        assertEquals(-1, in.read());
+        inboundMessage.close();
+
+        buffer.close();
+        if (compress) {
+            // compressed messages are copied out of the buffer
+            assertEquals(1, released.get());
+        } else {
+            assertEquals(0, released.get());
+        }
+        inboundMessage.retainedBytes().close();
+        assertEquals(1, released.get());
+    }
+
     private void testVersionIncompatibility(Version version, Version currentVersion, boolean isHandshake) throws IOException {
         String[] features = {};
         String value = randomAlphaOfLength(10);
@@ -219,6 +252,20 @@ public class InboundMessageTests extends ESTestCase {
         reader.deserialize(sliced);
     }
 
+    private static final class SourceMessage extends TransportMessage {
+
+        private final BytesReference source;
+
+        private SourceMessage(BytesReference source) {
+            this.source = source;
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeBytesReference(source);
+        }
+    }
+
     private static final class Message extends TransportMessage {
 
         public String value;
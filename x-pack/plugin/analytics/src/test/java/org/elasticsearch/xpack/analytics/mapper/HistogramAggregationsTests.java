@@ -0,0 +1,131 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.analytics.mapper;
+
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.ByteBuffersDataOutput;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.AggregatorTestCase;
+import org.elasticsearch.search.aggregations.InternalAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.metrics.Avg;
+import org.elasticsearch.search.aggregations.metrics.Percentiles;
+import org.elasticsearch.search.aggregations.metrics.PercentilesMethod;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.elasticsearch.search.aggregations.metrics.ValueCount;
+import org.elasticsearch.search.aggregations.metrics.WeightedAvgAggregationBuilder;
+import org.elasticsearch.search.aggregations.support.MultiValuesSourceFieldConfig;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+
+public class HistogramAggregationsTests extends AggregatorTestCase {
+
+    private static final String FIELD_NAME = "field";
+
+    public void testPercentilesTDigest() throws IOException {
+        testCase(AggregationBuilders.percentiles("percentiles").field(FIELD_NAME).method(PercentilesMethod.TDIGEST), this::indexSample,
+            (Percentiles percentiles) -> {
+                assertEquals(1.0, percentiles.percentile(0), 0.0);
+                assertEquals(10.0, percentiles.percentile(100), 0.0);
+            });
+    }
+
+    public void testPercentilesHDR() throws IOException {
+        testCase(AggregationBuilders.percentiles("percentiles").field(FIELD_NAME).method(PercentilesMethod.HDR), this::indexSample,
+            (Percentiles percentiles) -> {
+                assertEquals(1.0, percentiles.percentile(0), 0.01);
+                assertEquals(10.0, percentiles.percentile(100), 0.01);
+                assertEquals(9.0, percentiles.percentile(50), 0.01);
+            });
+    }
+
+    public void testAvg() throws IOException {
+        testCase(AggregationBuilders.avg("avg").field(FIELD_NAME), this::indexSample,
+            (Avg avg) -> assertEquals((1 * 2 + 5 * 1 + 9 * 4 + 10 * 3) / 10.0, avg.getValue(), 0.0001));
+    }
+
+    public void testSum() throws IOException {
+        testCase(AggregationBuilders.sum("sum").field(FIELD_NAME), this::indexSample,
+            (Sum sum) -> assertEquals(1 * 2 + 5 * 1 + 9 * 4 + 10 * 3, sum.getValue(), 0.0001));
+    }
+
+    public void testValueCount() throws IOException {
+        testCase(AggregationBuilders.count("count").field(FIELD_NAME), this::indexSample,
+            (ValueCount count) -> assertEquals(10, count.getValue()));
+    }
+
+    public void testUnsupportedAggregation() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> testCase(AggregationBuilders.min("min").field(FIELD_NAME), this::indexSample, agg -> {}));
+        assertEquals("Field [field] of type [histogram] is not supported for aggregation [min]", e.getMessage());
+    }
+
+    public void testUnsupportedMultiValuesSourceAggregation() {
+        MultiValuesSourceFieldConfig histogram = new MultiValuesSourceFieldConfig.Builder().setFieldName(FIELD_NAME).build();
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> testCase(new WeightedAvgAggregationBuilder("weighted_avg").value(histogram).weight(histogram), this::indexSample,
+                agg -> {}));
+        assertEquals("Field [field] of type [histogram] is not supported for aggregation [weighted_avg]", e.getMessage());
+    }
+
+    public void testUnsupportedCompositeAggregation() {
+        CompositeAggregationBuilder composite = new CompositeAggregationBuilder("composite",
+            singletonList(new TermsValuesSourceBuilder("terms").field(FIELD_NAME)));
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> testCase(composite, this::indexSample, agg -> {}));
+        assertEquals("Field [field] of type [histogram] is not supported for aggregation [composite]", e.getMessage());
+    }
+
+    private void indexSample(RandomIndexWriter iw) throws IOException {
+        iw.addDocument(singleton(histogramField(new double[] {1, 5}, new int[] {2, 1})));
+        // buckets with a count of zero are not stored
+        iw.addDocument(singleton(histogramField(new double[] {2, 9, 10}, new int[] {0, 4, 3})));
+    }
+
+    private static BinaryDocValuesField histogramField(double[] values, int[] counts) throws IOException {
+        ByteBuffersDataOutput dataOutput = new ByteBuffersDataOutput();
+        for (int i = 0; i < values.length; i++) {
+            if (counts[i] > 0) {
+                dataOutput.writeVInt(counts[i]);
+                dataOutput.writeLong(Double.doubleToRawLongBits(values[i]));
+            }
+        }
+        return new BinaryDocValuesField(FIELD_NAME, new BytesRef(dataOutput.toArrayCopy()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <A> void testCase(AggregationBuilder builder, CheckedConsumer<RandomIndexWriter, IOException> buildIndex,
+                              Consumer<A> verify) throws IOException {
+        try (Directory directory = newDirectory()) {
+            try (RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory)) {
+                buildIndex.accept(indexWriter);
+            }
+
+            try (IndexReader indexReader = DirectoryReader.open(directory)) {
+                IndexSearcher indexSearcher = newSearcher(indexReader, true, true);
+                HistogramFieldMapper.HistogramFieldType fieldType = new HistogramFieldMapper.HistogramFieldType();
+                fieldType.setName(FIELD_NAME);
+                fieldType.setHasDocValues(true);
+                InternalAggregation result = search(indexSearcher, new MatchAllDocsQuery(), builder, fieldType);
+                verify.accept((A) result);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.search;
+
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.IndexScopedSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.settings.SettingsFilter;
+import org.elasticsearch.plugins.ActionPlugin;
+import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.rest.RestController;
+import org.elasticsearch.rest.RestHandler;
+import org.elasticsearch.xpack.search.action.DeleteAsyncSearchAction;
+import org.elasticsearch.xpack.search.action.GetAsyncSearchAction;
+import org.elasticsearch.xpack.search.action.SubmitAsyncSearchAction;
+import org.elasticsearch.xpack.search.action.TransportDeleteAsyncSearchAction;
+import org.elasticsearch.xpack.search.action.TransportGetAsyncSearchAction;
+import org.elasticsearch.xpack.search.action.TransportSubmitAsyncSearchAction;
+import org.elasticsearch.xpack.search.rest.RestDeleteAsyncSearchAction;
+import org.elasticsearch.xpack.search.rest.RestGetAsyncSearchAction;
+import org.elasticsearch.xpack.search.rest.RestSubmitAsyncSearchAction;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Plugin for the async search feature: searches are executed in the background on the coordinating node and their
+ * progress, including partial aggregations, can be retrieved by id while they run and until they expire.
+ */
+public final class AsyncSearch extends Plugin implements ActionPlugin {
+
+    @Override
+    public List<ActionHandler<? extends ActionRequest, ? extends ActionResponse>> getActions() {
+        return Arrays.asList(
+            new ActionHandler<>(SubmitAsyncSearchAction.INSTANCE, TransportSubmitAsyncSearchAction.class),
+            new ActionHandler<>(GetAsyncSearchAction.INSTANCE, TransportGetAsyncSearchAction.class),
+            new ActionHandler<>(DeleteAsyncSearchAction.INSTANCE, TransportDeleteAsyncSearchAction.class)
+        );
+    }
+
+    @Override
+    public List<RestHandler> getRestHandlers(Settings settings, RestController restController, ClusterSettings clusterSettings,
+                                             IndexScopedSettings indexScopedSettings, SettingsFilter settingsFilter,
+                                             IndexNameExpressionResolver indexNameExpressionResolver,
+                                             Supplier<DiscoveryNodes> nodesInCluster) {
+        return Arrays.asList(
+            new RestSubmitAsyncSearchAction(restController),
+            new RestGetAsyncSearchAction(restController),
+            new RestDeleteAsyncSearchAction(restController)
+        );
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.search;
+
+import org.elasticsearch.tasks.TaskId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * A simple object that encodes the node and the task that are executing an async search into an opaque identifier
+ * that is returned to the user.
+ */
+public final class AsyncSearchId {
+    private final TaskId taskId;
+    private final String encoded;
+
+    public AsyncSearchId(TaskId taskId) {
+        this.taskId = Objects.requireNonNull(taskId);
+        this.encoded = encode(taskId);
+    }
+
+    /**
+     * The id of the {@link AsyncSearchTask} that executes the search.
+     */
+    public TaskId getTaskId() {
+        return taskId;
+    }
+
+    /**
+     * The opaque representation of this id.
+     */
+    public String getEncoded() {
+        return encoded;
+    }
+
+    /**
+     * Encodes the provided {@link TaskId} in an opaque url-safe string.
+     */
+    public static String encode(TaskId taskId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(taskId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes an identifier that was created with {@link #encode(TaskId)}.
+     *
+     * @throws IllegalArgumentException if the provided identifier is invalid
+     */
+    public static AsyncSearchId decode(String id) {
+        final TaskId taskId;
+        try {
+            taskId = new TaskId(new String(Base64.getUrlDecoder().decode(id), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("invalid id [" + id + "]", e);
+        }
+        if (taskId.isSet() == false) {
+            throw new IllegalArgumentException("invalid id [" + id + "]");
+        }
+        return new AsyncSearchId(taskId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AsyncSearchId that = (AsyncSearchId) o;
+        return taskId.equals(that.taskId);
+    }
+
+    @Override
+    public int hashCode() {
+        return taskId.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "[" + encoded + "][" + taskId + "]";
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.search;
+
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.SearchProgressListener;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchTask;
+import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.InternalAggregation.ReduceContext;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.tasks.TaskManager;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.xpack.core.security.authc.Authentication;
+import org.elasticsearch.xpack.core.security.authc.AuthenticationField;
+import org.elasticsearch.xpack.search.action.AsyncSearchResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Task that tracks the progress of a currently running {@link org.elasticsearch.action.search.SearchRequest}.
+ *
+ * The task stays registered in the {@link TaskManager} after the search completes so that the final response can be retrieved
+ * until the task expires. The security headers of the user that submitted the search are kept with the task so that only this user
+ * can retrieve or delete it. Partial aggregations are kept as they are reported by the search, and are reduced lazily by the first
+ * request for the partial response of each reduce phase. The result is cached so that the next requests only render it.
+ */
+public class AsyncSearchTask extends SearchTask {
+    private final Supplier<String> descriptionSupplier;
+    private final AsyncSearchId searchId;
+    private final ThreadPool threadPool;
+    private final Supplier<ReduceContext> reduceContextSupplier;
+    private final Map<String, String> originHeaders;
+    private final long startTimeMillis;
+    private volatile long expirationTimeMillis;
+    private final AtomicBoolean isReleased = new AtomicBoolean(false);
+
+    // the fields below are guarded by this
+    private int totalShards = -1;
+    private int skippedShards;
+    private int successfulShards;
+    private final List<ShardSearchFailure> shardFailures = new ArrayList<>();
+    private TotalHits totalHits;
+    private InternalAggregations aggs;
+    // whether the aggregations come from the final reduction and don't need to be reduced again
+    private boolean isFinalAggs;
+    private int reducePhase;
+    private SearchResponse finalResponse;
+    private ElasticsearchException failure;
+    private boolean isRunning = true;
+    private final Map<Long, Consumer<AsyncSearchResponse>> completionListeners = new HashMap<>();
+    private long completionListenerId;
+
+    // the fields below are guarded by reduceMutex, the lock of the task isn't held while reducing
+    private final Object reduceMutex = new Object();
+    private InternalAggregations reducedAggs;
+    private int reducedAggsPhase = -1;
+
+    /**
+     * Creates an instance of {@link AsyncSearchTask}.
+     *
+     * @param id The id of the task.
+     * @param type The type of the task.
+     * @param action The action name.
+     * @param descriptionSupplier The supplier of the description of the search request, it is called lazily since the source
+     *                            of the request can be quite big.
+     * @param parentTaskId The parent task id.
+     * @param headers The headers of the task.
+     * @param localNodeId The id of the node that executes the search.
+     * @param keepAlive The amount of time to keep the search and its result available after it started.
+     * @param threadPool The thread pool used to schedule expiration and timeouts.
+     * @param reduceContextSupplier A supplier to create final reduce contexts for the partial aggregations.
+     * @param originHeaders The security headers of the user that submitted the search.
+     */
+    public AsyncSearchTask(long id, String type, String action, Supplier<String> descriptionSupplier, TaskId parentTaskId,
+                           Map<String, String> headers, String localNodeId, TimeValue keepAlive, ThreadPool threadPool,
+                           Supplier<ReduceContext> reduceContextSupplier, Map<String, String> originHeaders) {
+        super(id, type, action, null, parentTaskId, headers);
+        this.descriptionSupplier = descriptionSupplier;
+        this.searchId = new AsyncSearchId(new TaskId(localNodeId, id));
+        this.threadPool = threadPool;
+        this.reduceContextSupplier = reduceContextSupplier;
+        this.originHeaders = originHeaders;
+        this.startTimeMillis = threadPool.absoluteTimeInMillis();
+        this.expirationTimeMillis = startTimeMillis + keepAlive.getMillis();
+        setProgressListener(new Listener());
+    }
+
+    /**
+     * Returns the {@link AsyncSearchTask} registered in the provided {@link TaskManager} with the given id,
+     * or <code>null</code> if the task doesn't exist, has expired or was submitted by another user than the one
+     * authenticated in the provided thread context.
+     */
+    public static AsyncSearchTask getTask(TaskManager taskManager, AsyncSearchId searchId, ThreadContext threadContext) throws IOException {
+        final Task task = taskManager.getTask(searchId.getTaskId().getId());
+        if (task instanceof AsyncSearchTask == false) {
+            return null;
+        }
+        final AsyncSearchTask searchTask = (AsyncSearchTask) task;
+        if (searchTask.getSearchId().equals(searchId) == false
+                || searchTask.isExpired()
+                || searchTask.isAuthenticatedUserSame(threadContext) == false) {
+            return null;
+        }
+        return searchTask;
+    }
+
+    @Override
+    public String getDescription() {
+        return descriptionSupplier.get();
+    }
+
+    /**
+     * Returns the {@link AsyncSearchId} of the task.
+     */
+    public AsyncSearchId getSearchId() {
+        return searchId;
+    }
+
+    /**
+     * Returns <code>true</code> if the user authenticated in the provided thread context is the user that submitted the search,
+     * or if the search was submitted without security.
+     */
+    public boolean isAuthenticatedUserSame(ThreadContext threadContext) throws IOException {
+        final String originAuthentication = originHeaders.get(AuthenticationField.AUTHENTICATION_KEY);
+        if (originAuthentication == null) {
+            return true;
+        }
+        final Authentication current = Authentication.getAuthentication(threadContext);
+        return current != null && Authentication.decode(originAuthentication).sameUserAs(current);
+    }
+
+    /**
+     * Returns the expiration time of the task in milliseconds since epoch.
+     */
+    public long getExpirationTime() {
+        return expirationTimeMillis;
+    }
+
+    /**
+     * Extends the expiration time of the task so that it expires after the provided keep alive from now.
+     * The expiration time is never shortened.
+     */
+    public void extendExpirationTime(TimeValue keepAlive) {
+        final long newExpirationTime = threadPool.absoluteTimeInMillis() + keepAlive.getMillis();
+        synchronized (this) {
+            if (newExpirationTime > expirationTimeMillis) {
+                expirationTimeMillis = newExpirationTime;
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the task has expired or has been released.
+     */
+    public boolean isExpired() {
+        return isReleased.get() || threadPool.absoluteTimeInMillis() >= expirationTimeMillis;
+    }
+
+    /**
+     * Returns an {@link ActionListener} that records the final response or failure of the search.
+     */
+    public ActionListener<SearchResponse> getSearchResponseListener() {
+        return ActionListener.wrap(this::onFinalResponse, this::onFatalFailure);
+    }
+
+    /**
+     * Schedules the release of this task once its expiration time is reached. The expiration is re-checked when the
+     * scheduled time is reached in case it was extended in the meantime.
+     */
+    public void scheduleExpiration(TaskManager taskManager) {
+        final long delay = expirationTimeMillis - threadPool.absoluteTimeInMillis();
+        if (delay <= 0) {
+            release(taskManager, "async search expired");
+        } else if (isReleased.get() == false) {
+            threadPool.schedule(() -> scheduleExpiration(taskManager), TimeValue.timeValueMillis(delay), ThreadPool.Names.GENERIC);
+        }
+    }
+
+    /**
+     * Cancels the search if it is still running and unregisters the task from the {@link TaskManager} so that its
+     * response can no longer be retrieved.
+     *
+     * @return <code>true</code> if this call released the task, <code>false</code> if the task was already released.
+     */
+    public boolean release(TaskManager taskManager, String reason) {
+        if (isReleased.compareAndSet(false, true) == false) {
+            return false;
+        }
+        final boolean running;
+        synchronized (this) {
+            running = isRunning;
+        }
+        if (running) {
+            taskManager.cancel(this, reason, () -> {});
+        }
+        taskManager.unregister(this);
+        return true;
+    }
+
+    /**
+     * Creates a listener that listens for an {@link AsyncSearchResponse} and executes the
+     * consumer when the task is finished or when the provided <code>waitForCompletion</code>
+     * timeout occurs. In such case the consumed {@link AsyncSearchResponse} will contain partial results.
+     */
+    public void addCompletionListener(Consumer<AsyncSearchResponse> listener, TimeValue waitForCompletion) {
+        final boolean executeImmediately;
+        final long id;
+        synchronized (this) {
+            executeImmediately = isRunning == false || waitForCompletion.getMillis() <= 0;
+            if (executeImmediately == false) {
+                id = completionListenerId++;
+                completionListeners.put(id, listener);
+            } else {
+                id = -1;
+            }
+        }
+        if (executeImmediately) {
+            listener.accept(getAsyncResponse());
+        } else {
+            final Scheduler.ScheduledCancellable cancellable = threadPool.schedule(() -> {
+                final Consumer<AsyncSearchResponse> removed;
+                synchronized (this) {
+                    removed = completionListeners.remove(id);
+                }
+                if (removed != null) {
+                    removed.accept(getAsyncResponse());
+                }
+            }, waitForCompletion, ThreadPool.Names.GENERIC);
+            // the timeout is useless once the listener has been notified of the completion
+            synchronized (this) {
+                final Consumer<AsyncSearchResponse> registered = completionListeners.get(id);
+                if (registered != null) {
+                    completionListeners.put(id, resp -> {
+                        cancellable.cancel();
+                        registered.accept(resp);
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the current state of the search as an {@link AsyncSearchResponse}.
+     */
+    public AsyncSearchResponse getAsyncResponse() {
+        final SearchResponse finalResponse;
+        final ElasticsearchException failure;
+        final boolean isRunning;
+        synchronized (this) {
+            finalResponse = this.finalResponse;
+            failure = this.failure;
+            isRunning = this.isRunning;
+        }
+        final SearchResponse response = finalResponse != null ? finalResponse : buildPartialResponse();
+        return new AsyncSearchResponse(searchId.getEncoded(), response, failure, finalResponse == null, isRunning,
+            startTimeMillis, expirationTimeMillis);
+    }
+
+    private SearchResponse buildPartialResponse() {
+        final int totalShards;
+        final int successfulShards;
+        final int skippedShards;
+        final ShardSearchFailure[] shardFailures;
+        final TotalHits totalHits;
+        final InternalAggregations aggs;
+        final boolean isFinalAggs;
+        final int reducePhase;
+        synchronized (this) {
+            if (this.totalShards == -1) {
+                // the search has not reported its shards yet
+                return null;
+            }
+            totalShards = this.totalShards;
+            successfulShards = this.successfulShards;
+            skippedShards = this.skippedShards;
+            shardFailures = this.shardFailures.toArray(ShardSearchFailure.EMPTY_ARRAY);
+            totalHits = this.totalHits;
+            aggs = this.aggs;
+            isFinalAggs = this.isFinalAggs;
+            reducePhase = this.reducePhase;
+        }
+        final InternalAggregations reducedAggs = aggs == null || isFinalAggs ? aggs : reducePartialAggs(aggs, reducePhase);
+        final InternalSearchResponse internal = new InternalSearchResponse(
+            new SearchHits(SearchHits.EMPTY, totalHits, Float.NaN), reducedAggs, null, null, false, null, reducePhase);
+        final long tookInMillis = threadPool.absoluteTimeInMillis() - startTimeMillis;
+        return new SearchResponse(internal, null, totalShards, successfulShards, skippedShards, tookInMillis,
+            shardFailures, SearchResponse.Clusters.EMPTY);
+    }
+
+    /**
+     * Runs the final reduction of the partial aggregations of the given reduce phase, or returns the cached result if they have
+     * already been reduced. This is called by the requests for the partial response rather than by the search itself so that
+     * the partial reductions of the search, which block the consumption of shard results, stay cheap.
+     */
+    private InternalAggregations reducePartialAggs(InternalAggregations aggs, int reducePhase) {
+        synchronized (reduceMutex) {
+            if (reducedAggsPhase == reducePhase) {
+                return reducedAggs;
+            }
+            final InternalAggregations reduced = InternalAggregations.reduce(Collections.singletonList(aggs), reduceContextSupplier.get());
+            if (reducePhase > reducedAggsPhase) {
+                reducedAggs = reduced;
+                reducedAggsPhase = reducePhase;
+            }
+            return reduced;
+        }
+    }
+
+    private void onFinalResponse(SearchResponse response) {
+        synchronized (this) {
+            finalResponse = response;
+            isRunning = false;
+            aggs = null;
+        }
+        synchronized (reduceMutex) {
+            reducedAggs = null;
+        }
+        executeCompletionListeners();
+    }
+
+    private void onFatalFailure(Exception exc) {
+        synchronized (this) {
+            failure = ExceptionsHelper.convertToElastic(exc);
+            isRunning = false;
+        }
+        executeCompletionListeners();
+    }
+
+    private void executeCompletionListeners() {
+        final List<Consumer<AsyncSearchResponse>> listeners;
+        synchronized (this) {
+            listeners = new ArrayList<>(completionListeners.values());
+            completionListeners.clear();
+        }
+        if (listeners.isEmpty() == false) {
+            final AsyncSearchResponse response = getAsyncResponse();
+            for (Consumer<AsyncSearchResponse> listener : listeners) {
+                listener.accept(response);
+            }
+        }
+    }
+
+    class Listener extends SearchProgressListener {
+        @Override
+        protected void onListShards(int totalShards, int skippedShards) {
+            synchronized (AsyncSearchTask.this) {
+                AsyncSearchTask.this.totalShards = totalShards;
+                AsyncSearchTask.this.skippedShards = skippedShards;
+                // skipped shards are reported as successful in the final response
+                AsyncSearchTask.this.successfulShards = skippedShards;
+            }
+        }
+
+        @Override
+        protected void onQueryResult(int shardIndex) {
+            synchronized (AsyncSearchTask.this) {
+                successfulShards++;
+            }
+        }
+
+        @Override
+        protected void onQueryFailure(int shardIndex, Exception exc) {
+            synchronized (AsyncSearchTask.this) {
+                shardFailures.add(new ShardSearchFailure(exc));
+            }
+        }
+
+        @Override
+        protected void onPartialReduce(int numReducedShards, TotalHits totalHits, InternalAggregations aggs, int reducePhase) {
+            // this is called while the search holds the lock of its result consumer, the partial aggregations are only reduced
+            // when the partial response is requested, see reducePartialAggs
+            synchronized (AsyncSearchTask.this) {
+                AsyncSearchTask.this.totalHits = totalHits;
+                AsyncSearchTask.this.aggs = aggs;
+                AsyncSearchTask.this.isFinalAggs = false;
+                AsyncSearchTask.this.reducePhase = reducePhase;
+            }
+        }
+
+        @Override
+        protected void onReduce(int numReducedShards, TotalHits totalHits, InternalAggregations aggs, int reducePhase) {
+            synchronized (AsyncSearchTask.this) {
+                AsyncSearchTask.this.totalHits = totalHits;
+                // the aggregations are already final, they are returned as is until the fetch phase completes
+                AsyncSearchTask.this.aggs = aggs;
+                AsyncSearchTask.this.isFinalAggs = true;
+                AsyncSearchTask.this.reducePhase = reducePhase;
+            }
+        }
+    }
+}
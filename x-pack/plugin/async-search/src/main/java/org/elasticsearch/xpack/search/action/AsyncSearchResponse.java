@@ -0,0 +1,185 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.search.action;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.xcontent.StatusToXContentObject;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.rest.RestStatus;
+
+import java.io.IOException;
+/**
+ * A response of an async search request. It contains the state of the search, the (partial) {@link SearchResponse}
+ * built so far and the failure that terminated the search, if any.
+ */
+public class AsyncSearchResponse extends ActionResponse implements StatusToXContentObject {
+    @Nullable
+    private final String id;
+    @Nullable
+    private final SearchResponse searchResponse;
+    @Nullable
+    private final ElasticsearchException failure;
+    private final boolean isRunning;
+    private final boolean isPartial;
+    private final long startTimeMillis;
+    private final long expirationTimeMillis;
+
+    /**
+     * Creates a new {@link AsyncSearchResponse}
+     *
+     * @param id The id of the search for further retrieval, <code>null</code> if not stored.
+     * @param searchResponse The actual search result, <code>null</code> if the search didn't report progress yet.
+     * @param failure The actual failure if the search failed, <code>null</code> otherwise.
+     * @param isPartial Whether the <code>searchResponse</code> contains partial results.
+     * @param isRunning Whether the search is running in the cluster.
+     * @param startTimeMillis The start date of the search in milliseconds since epoch.
+     * @param expirationTimeMillis The expiration date of the search in milliseconds since epoch.
+     */
+    public AsyncSearchResponse(String id, SearchResponse searchResponse, ElasticsearchException failure,
+                               boolean isPartial, boolean isRunning, long startTimeMillis, long expirationTimeMillis) {
+        this.id = id;
+        this.searchResponse = searchResponse;
+        this.failure = failure;
+        this.isPartial = isPartial;
+        this.isRunning = isRunning;
+        this.startTimeMillis = startTimeMillis;
+        this.expirationTimeMillis = expirationTimeMillis;
+    }
+
+    public AsyncSearchResponse(StreamInput in) throws IOException {
+        super(in);
+        this.id = in.readOptionalString();
+        this.searchResponse = in.readOptionalWriteable(SearchResponse::new);
+        this.failure = in.readBoolean() ? in.readException() : null;
+        this.isPartial = in.readBoolean();
+        this.isRunning = in.readBoolean();
+        this.startTimeMillis = in.readLong();
+        this.expirationTimeMillis = in.readLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeOptionalString(id);
+        out.writeOptionalWriteable(searchResponse);
+        if (failure != null) {
+            out.writeBoolean(true);
+            out.writeException(failure);
+        } else {
+            out.writeBoolean(false);
+        }
+        out.writeBoolean(isPartial);
+        out.writeBoolean(isRunning);
+        out.writeLong(startTimeMillis);
+        out.writeLong(expirationTimeMillis);
+    }
+
+    /**
+     * Returns a copy of this response with the provided id, <code>null</code> if the response is not stored in the cluster.
+     */
+    public AsyncSearchResponse withId(@Nullable String id) {
+        return new AsyncSearchResponse(id, searchResponse, failure, isPartial, isRunning, startTimeMillis, expirationTimeMillis);
+    }
+
+    /**
+     * Returns the id of the async search request or <code>null</code> if the response is not stored in the cluster.
+     */
+    @Nullable
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the current {@link SearchResponse} or <code>null</code> if not available.
+     *
+     * See {@link #isPartial()} to determine whether the response contains partial or complete results.
+     */
+    @Nullable
+    public SearchResponse getSearchResponse() {
+        return searchResponse;
+    }
+
+    /**
+     * Returns the failure reason or <code>null</code> if the query is running or has completed normally.
+     */
+    @Nullable
+    public ElasticsearchException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns <code>true</code> if the {@link SearchResponse} contains partial
+     * results computed from a subset of the total shards.
+     */
+    public boolean isPartial() {
+        return isPartial;
+    }
+
+    /**
+     * Whether the search is still running in the cluster.
+     *
+     * A value of <code>false</code> indicates that the response is final
+     * even if {@link #isPartial()} returns <code>true</code>. In such case,
+     * the partial response represents the status of the search before a
+     * non-recoverable failure.
+     */
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * When this response was created as a timestamp in milliseconds since epoch.
+     */
+    public long getStartTime() {
+        return startTimeMillis;
+    }
+
+    /**
+     * When this response will expired as a timestamp in milliseconds since epoch.
+     */
+    public long getExpirationTime() {
+        return expirationTimeMillis;
+    }
+
+    @Override
+    public RestStatus status() {
+        if (searchResponse == null || isPartial) {
+            // shard failures are not considered fatal for partial results so
+            // we return OK until we get the final response
+            return failure != null ? failure.status() : RestStatus.OK;
+        } else {
+            return searchResponse.status();
+        }
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject();
+        if (id != null) {
+            builder.field("id", id);
+        }
+        builder.field("is_partial", isPartial);
+        builder.field("is_running", isRunning);
+        builder.timeField("start_time_in_millis", "start_time", startTimeMillis);
+        builder.timeField("expiration_time_in_millis", "expiration_time", expirationTimeMillis);
+
+        if (searchResponse != null) {
+            builder.field("response");
+            searchResponse.toXContent(builder, params);
+        }
+        if (failure != null) {
+            builder.startObject("error");
+            failure.toXContent(builder, params);
+            builder.endObject();
+        }
+        builder.endObject();
+        return builder;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.search.action;
+
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.action.IndicesRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContent;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Objects;
+
+import static org.elasticsearch.action.ValidateActions.addValidationError;
+
+/**
+ * A request to track asynchronously the progress of a search against one or more indices.
+ *
+ * @see AsyncSearchResponse
+ */
+public class SubmitAsyncSearchRequest extends ActionRequest implements IndicesRequest {
+
+    public static final TimeValue DEFAULT_WAIT_FOR_COMPLETION = TimeValue.timeValueSeconds(1);
+    public static final TimeValue DEFAULT_KEEP_ALIVE = TimeValue.timeValueDays(5);
+    public static final TimeValue MIN_KEEP_ALIVE = TimeValue.timeValueSeconds(1);
+    /**
+     * Async searches reduce shard results more often than regular searches by default so that partial results are available early
+     */
+    public static final int DEFAULT_BATCHED_REDUCE_SIZE = 5;
+
+    private static final ToXContent.Params FORMAT_PARAMS = new ToXContent.MapParams(Collections.singletonMap("pretty", "false"));
+
+    private final SearchRequest request;
+    private TimeValue waitForCompletion = DEFAULT_WAIT_FOR_COMPLETION;
+    private TimeValue keepAlive = DEFAULT_KEEP_ALIVE;
+    private boolean keepOnCompletion = false;
+
+    /**
+     * Creates a new request
+     */
+    public SubmitAsyncSearchRequest(String... indices) {
+        this(new SearchRequest(indices));
+        request.setBatchedReduceSize(DEFAULT_BATCHED_REDUCE_SIZE);
+    }
+
+    /**
+     * Creates a new request that wraps the provided {@link SearchRequest}
+     */
+    public SubmitAsyncSearchRequest(SearchRequest request) {
+        this.request = Objects.requireNonNull(request);
+    }
+
+    public SubmitAsyncSearchRequest(StreamInput in) throws IOException {
+        super(in);
+        this.request = new SearchRequest(in);
+        this.waitForCompletion = in.readTimeValue();
+        this.keepAlive = in.readTimeValue();
+        this.keepOnCompletion = in.readBoolean();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        request.writeTo(out);
+        out.writeTimeValue(waitForCompletion);
+        out.writeTimeValue(keepAlive);
+        out.writeBoolean(keepOnCompletion);
+    }
+
+    /**
+     * Returns the underlying {@link SearchRequest}.
+     */
+    public SearchRequest getSearchRequest() {
+        return request;
+    }
+
+    /**
+     * Sets the minimum time that the request should wait before returning a partial result (defaults to 1 second).
+     */
+    public SubmitAsyncSearchRequest setWaitForCompletion(TimeValue waitForCompletion) {
+        this.waitForCompletion = Objects.requireNonNull(waitForCompletion);
+        return this;
+    }
+
+    public TimeValue getWaitForCompletion() {
+        return waitForCompletion;
+    }
+
+    /**
+     * Sets the amount of time after which the result will expire (defaults to 5 days).
+     */
+    public SubmitAsyncSearchRequest setKeepAlive(TimeValue keepAlive) {
+        this.keepAlive = Objects.requireNonNull(keepAlive);
+        return this;
+    }
+
+    public TimeValue getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Should the resource be kept on completion or failure (defaults to false).
+     */
+    public SubmitAsyncSearchRequest setKeepOnCompletion(boolean value) {
+        this.keepOnCompletion = value;
+        return this;
+    }
+
+    public boolean isKeepOnCompletion() {
+        return keepOnCompletion;
+    }
+
+    @Override
+    public String[] indices() {
+        return request.indices();
+    }
+
+    @Override
+    public IndicesOptions indicesOptions() {
+        return request.indicesOptions();
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = request.validate();
+        if (request.scroll() != null) {
+            validationException = addValidationError("[scroll] queries are not supported", validationException);
+        }
+        if (request.isSuggestOnly()) {
+            validationException = addValidationError("suggest-only queries are not supported", validationException);
+        }
+        if (keepAlive.getMillis() < MIN_KEEP_ALIVE.getMillis()) {
+            validationException = addValidationError("[keep_alive] must be greater than or equal to [" + MIN_KEEP_ALIVE + "]",
+                validationException);
+        }
+        return validationException;
+    }
+
+    @Override
+    public String getDescription() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("indices[");
+        Strings.arrayToDelimitedString(request.indices(), ",", sb);
+        sb.append("], ");
+        sb.append("search_type[").append(request.searchType()).append("], ");
+        sb.append("keep_alive[").append(keepAlive).append("], ");
+        if (request.source() != null) {
+            sb.append("source[").append(request.source().toString(FORMAT_PARAMS)).append("]");
+        } else {
+            sb.append("source[]");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SubmitAsyncSearchRequest request1 = (SubmitAsyncSearchRequest) o;
+        return keepOnCompletion == request1.keepOnCompletion &&
+            waitForCompletion.equals(request1.waitForCompletion) &&
+            keepAlive.equals(request1.keepAlive) &&
+            request.equals(request1.request);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(request, waitForCompletion, keepAlive, keepOnCompletion);
+    }
+}
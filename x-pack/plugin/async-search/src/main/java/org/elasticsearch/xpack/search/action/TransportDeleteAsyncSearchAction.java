@@ -0,0 +1,72 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.search.action;
+
+import org.elasticsearch.ResourceNotFoundException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionListenerResponseHandler;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.HandledTransportAction;
+import org.elasticsearch.action.support.master.AcknowledgedResponse;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+import org.elasticsearch.xpack.search.AsyncSearchId;
+import org.elasticsearch.xpack.search.AsyncSearchTask;
+
+import java.io.IOException;
+
+/**
+ * Cancels an async search if it is still running and discards its response. The request is forwarded to the node that
+ * executes the search if needed.
+ */
+public class TransportDeleteAsyncSearchAction extends HandledTransportAction<DeleteAsyncSearchAction.Request, AcknowledgedResponse> {
+    private final ClusterService clusterService;
+    private final TransportService transportService;
+
+    @Inject
+    public TransportDeleteAsyncSearchAction(TransportService transportService, ActionFilters actionFilters,
+                                            ClusterService clusterService) {
+        super(DeleteAsyncSearchAction.NAME, transportService, actionFilters, DeleteAsyncSearchAction.Request::new);
+        this.clusterService = clusterService;
+        this.transportService = transportService;
+    }
+
+    @Override
+    protected void doExecute(Task task, DeleteAsyncSearchAction.Request request, ActionListener<AcknowledgedResponse> listener) {
+        final AsyncSearchId searchId;
+        try {
+            searchId = AsyncSearchId.decode(request.getId());
+        } catch (IllegalArgumentException e) {
+            listener.onFailure(e);
+            return;
+        }
+        final DiscoveryNode node = clusterService.state().nodes().get(searchId.getTaskId().getNodeId());
+        if (node == null) {
+            listener.onFailure(new ResourceNotFoundException("async search [{}] not found", request.getId()));
+        } else if (clusterService.localNode().getId().equals(node.getId()) == false) {
+            transportService.sendRequest(node, DeleteAsyncSearchAction.NAME, request,
+                new ActionListenerResponseHandler<>(listener, AcknowledgedResponse::new, ThreadPool.Names.SAME));
+        } else {
+            final AsyncSearchTask searchTask;
+            try {
+                searchTask = AsyncSearchTask.getTask(taskManager, searchId, transportService.getThreadPool().getThreadContext());
+            } catch (IOException e) {
+                listener.onFailure(e);
+                return;
+            }
+            // searches submitted by other users are reported as missing to not leak their existence
+            if (searchTask == null || searchTask.release(taskManager, "async search deleted") == false) {
+                listener.onFailure(new ResourceNotFoundException("async search [{}] not found", request.getId()));
+            } else {
+                listener.onResponse(new AcknowledgedResponse(true));
+            }
+        }
+    }
+}
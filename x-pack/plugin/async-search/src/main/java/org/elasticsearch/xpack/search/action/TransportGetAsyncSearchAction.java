@@ -0,0 +1,72 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.search.action;
+
+import org.elasticsearch.ResourceNotFoundException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionListenerResponseHandler;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.HandledTransportAction;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+import org.elasticsearch.xpack.search.AsyncSearchId;
+import org.elasticsearch.xpack.search.AsyncSearchTask;
+
+import java.io.IOException;
+
+/**
+ * Returns the current state of an async search. The request is forwarded to the node that executes the search if needed.
+ */
+public class TransportGetAsyncSearchAction extends HandledTransportAction<GetAsyncSearchAction.Request, AsyncSearchResponse> {
+    private final ClusterService clusterService;
+    private final TransportService transportService;
+
+    @Inject
+    public TransportGetAsyncSearchAction(TransportService transportService, ActionFilters actionFilters, ClusterService clusterService) {
+        super(GetAsyncSearchAction.NAME, transportService, actionFilters, GetAsyncSearchAction.Request::new);
+        this.clusterService = clusterService;
+        this.transportService = transportService;
+    }
+
+    @Override
+    protected void doExecute(Task task, GetAsyncSearchAction.Request request, ActionListener<AsyncSearchResponse> listener) {
+        final AsyncSearchId searchId;
+        try {
+            searchId = AsyncSearchId.decode(request.getId());
+        } catch (IllegalArgumentException e) {
+            listener.onFailure(e);
+            return;
+        }
+        final DiscoveryNode node = clusterService.state().nodes().get(searchId.getTaskId().getNodeId());
+        if (node == null) {
+            listener.onFailure(new ResourceNotFoundException("async search [{}] not found", request.getId()));
+        } else if (clusterService.localNode().getId().equals(node.getId()) == false) {
+            transportService.sendRequest(node, GetAsyncSearchAction.NAME, request,
+                new ActionListenerResponseHandler<>(listener, AsyncSearchResponse::new, ThreadPool.Names.SAME));
+        } else {
+            final AsyncSearchTask searchTask;
+            try {
+                searchTask = AsyncSearchTask.getTask(taskManager, searchId, transportService.getThreadPool().getThreadContext());
+            } catch (IOException e) {
+                listener.onFailure(e);
+                return;
+            }
+            // searches submitted by other users are reported as missing to not leak their existence
+            if (searchTask == null) {
+                listener.onFailure(new ResourceNotFoundException("async search [{}] not found", request.getId()));
+                return;
+            }
+            if (request.getKeepAlive().getMillis() > 0) {
+                searchTask.extendExpirationTime(request.getKeepAlive());
+            }
+            searchTask.addCompletionListener(listener::onResponse, request.getWaitForCompletion());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.search.action;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.TransportSearchAction;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.HandledTransportAction;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.search.SearchService;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskAwareRequest;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+import org.elasticsearch.xpack.core.ClientHelper;
+import org.elasticsearch.xpack.search.AsyncSearchTask;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Starts a search in the background and returns its (partial) response once the search completes or the
+ * <code>wait_for_completion</code> timeout expires, whichever comes first. The search is registered as an
+ * {@link AsyncSearchTask} on the local node that can be retrieved with {@link GetAsyncSearchAction} until it expires.
+ */
+public class TransportSubmitAsyncSearchAction extends HandledTransportAction<SubmitAsyncSearchRequest, AsyncSearchResponse> {
+    private final TransportService transportService;
+    private final ThreadPool threadPool;
+    private final SearchService searchService;
+    private final TransportSearchAction searchAction;
+
+    @Inject
+    public TransportSubmitAsyncSearchAction(TransportService transportService, ActionFilters actionFilters, ThreadPool threadPool,
+                                            SearchService searchService, TransportSearchAction searchAction) {
+        super(SubmitAsyncSearchAction.NAME, transportService, actionFilters, SubmitAsyncSearchRequest::new);
+        this.transportService = transportService;
+        this.threadPool = threadPool;
+        this.searchService = searchService;
+        this.searchAction = searchAction;
+    }
+
+    @Override
+    protected void doExecute(Task task, SubmitAsyncSearchRequest request, ActionListener<AsyncSearchResponse> submitListener) {
+        final SearchRequest searchRequest = request.getSearchRequest();
+        // the security headers of the user are kept with the task so that only this user can access the search afterwards
+        final Map<String, String> originHeaders = threadPool.getThreadContext().getHeaders().entrySet().stream()
+            .filter(e -> ClientHelper.SECURITY_HEADER_FILTERS.contains(e.getKey()))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        final AsyncSearchTask searchTask = (AsyncSearchTask) taskManager.register("transport", SearchAction.INSTANCE.name(),
+            new TaskAwareRequest() {
+                @Override
+                public void setParentTask(TaskId taskId) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public TaskId getParentTask() {
+                    // the search outlives the submit request so it cannot be a child of it
+                    return TaskId.EMPTY_TASK_ID;
+                }
+
+                @Override
+                public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+                    return new AsyncSearchTask(id, type, action, request::getDescription, parentTaskId, headers,
+                        transportService.getLocalNode().getId(), request.getKeepAlive(), threadPool,
+                        () -> searchService.createReduceContext(true), originHeaders);
+                }
+            });
+        searchAction.execute(searchTask, searchRequest, searchTask.getSearchResponseListener());
+        searchTask.addCompletionListener(searchResponse -> {
+            if (searchResponse.isRunning() || request.isKeepOnCompletion()) {
+                searchTask.scheduleExpiration(taskManager);
+                submitListener.onResponse(searchResponse);
+            } else {
+                // the search is done and the user didn't ask to keep the response, there is nothing to retrieve
+                searchTask.release(taskManager, "async search completed");
+                submitListener.onResponse(searchResponse.withId(null));
+            }
+        }, request.getWaitForCompletion());
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.search.rest;
+
+import org.elasticsearch.client.node.NodeClient;
+import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.RestController;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.action.RestStatusToXContentListener;
+import org.elasticsearch.rest.action.search.RestSearchAction;
+import org.elasticsearch.xpack.search.action.SubmitAsyncSearchAction;
+import org.elasticsearch.xpack.search.action.SubmitAsyncSearchRequest;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+import static org.elasticsearch.rest.RestRequest.Method.POST;
+import static org.elasticsearch.rest.action.search.RestSearchAction.parseSearchRequest;
+
+public class RestSubmitAsyncSearchAction extends BaseRestHandler {
+    static final Set<String> RESPONSE_PARAMS = Collections.unmodifiableSet(
+        new HashSet<>(Arrays.asList(RestSearchAction.TYPED_KEYS_PARAM, RestSearchAction.TOTAL_HITS_AS_INT_PARAM)));
+
+    public RestSubmitAsyncSearchAction(RestController controller) {
+        controller.registerHandler(POST, "/_async_search", this);
+        controller.registerHandler(POST, "/{index}/_async_search", this);
+    }
+
+    @Override
+    public String getName() {
+        return "async_search_submit_action";
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        SubmitAsyncSearchRequest submit = new SubmitAsyncSearchRequest();
+        IntConsumer setSize = size -> submit.getSearchRequest().source().size(size);
+        request.withContentOrSourceParamParserOrNull(parser ->
+            parseSearchRequest(submit.getSearchRequest(), request, parser, setSize));
+
+        if (request.hasParam("wait_for_completion")) {
+            submit.setWaitForCompletion(request.paramAsTime("wait_for_completion", submit.getWaitForCompletion()));
+        }
+        if (request.hasParam("keep_alive")) {
+            submit.setKeepAlive(request.paramAsTime("keep_alive", submit.getKeepAlive()));
+        }
+        if (request.hasParam("keep_on_completion")) {
+            submit.setKeepOnCompletion(request.paramAsBoolean("keep_on_completion", submit.isKeepOnCompletion()));
+        }
+        return channel -> client.execute(SubmitAsyncSearchAction.INSTANCE, submit, new RestStatusToXContentListener<>(channel));
+    }
+
+    @Override
+    protected Set<String> responseParams() {
+        return RESPONSE_PARAMS;
+    }
+}
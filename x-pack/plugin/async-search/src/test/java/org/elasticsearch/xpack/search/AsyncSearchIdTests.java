@@ -0,0 +1,32 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.search;
+
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.test.ESTestCase;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class AsyncSearchIdTests extends ESTestCase {
+
+    public void testEncodeDecode() {
+        final int iterations = randomIntBetween(1, 100);
+        for (int i = 0; i < iterations; i++) {
+            final TaskId taskId = new TaskId(randomAlphaOfLengthBetween(1, 20), randomNonNegativeLong());
+            final AsyncSearchId searchId = new AsyncSearchId(taskId);
+            final AsyncSearchId decoded = AsyncSearchId.decode(searchId.getEncoded());
+            assertThat(decoded, equalTo(searchId));
+            assertThat(decoded.getTaskId(), equalTo(taskId));
+            assertThat(decoded.getEncoded(), equalTo(searchId.getEncoded()));
+        }
+    }
+
+    public void testDecodeInvalidId() {
+        expectThrows(IllegalArgumentException.class, () -> AsyncSearchId.decode("!!!"));
+        expectThrows(IllegalArgumentException.class, () -> AsyncSearchId.decode(AsyncSearchId.encode(TaskId.EMPTY_TASK_ID)));
+        expectThrows(IllegalArgumentException.class, () -> AsyncSearchId.decode("bm9kZQ"));
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.search;
+
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.aggregations.InternalAggregation.ReduceContext;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.metrics.InternalMax;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.TestThreadPool;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.xpack.core.security.authc.Authentication;
+import org.elasticsearch.xpack.core.security.authc.AuthenticationField;
+import org.elasticsearch.xpack.core.security.user.User;
+import org.elasticsearch.xpack.search.action.AsyncSearchResponse;
+import org.junit.After;
+import org.junit.Before;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class AsyncSearchTaskTests extends ESTestCase {
+    private ThreadPool threadPool;
+
+    @Before
+    public void beforeTest() {
+        threadPool = new TestThreadPool(getTestName());
+    }
+
+    @After
+    public void afterTest() {
+        ThreadPool.terminate(threadPool, 30, TimeUnit.SECONDS);
+    }
+
+    private AsyncSearchTask createTask(TimeValue keepAlive) {
+        return createTask(keepAlive, () -> null, Collections.emptyMap());
+    }
+
+    private AsyncSearchTask createTask(TimeValue keepAlive, Supplier<ReduceContext> reduceContextSupplier,
+                                       Map<String, String> originHeaders) {
+        return new AsyncSearchTask(randomNonNegativeLong(), "async_search", "indices:data/read/search", () -> "test",
+            TaskId.EMPTY_TASK_ID, Collections.emptyMap(), "node", keepAlive, threadPool, reduceContextSupplier, originHeaders);
+    }
+
+    public void testWaitForCompletionTimeout() throws InterruptedException {
+        AsyncSearchTask task = createTask(TimeValue.timeValueMinutes(1));
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<AsyncSearchResponse> response = new AtomicReference<>();
+        task.addCompletionListener(resp -> {
+            response.set(resp);
+            latch.countDown();
+        }, TimeValue.timeValueMillis(randomIntBetween(1, 100)));
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(response.get().isRunning());
+        assertTrue(response.get().isPartial());
+        // the search didn't report any progress yet
+        assertNull(response.get().getSearchResponse());
+        assertThat(response.get().getId(), equalTo(task.getSearchId().getEncoded()));
+    }
+
+    public void testPartialResponse() {
+        AsyncSearchTask task = createTask(TimeValue.timeValueMinutes(1));
+        AsyncSearchTask.Listener listener = (AsyncSearchTask.Listener) task.getProgressListener();
+        int numShards = randomIntBetween(1, 10);
+        int numSkipped = randomIntBetween(0, numShards - 1);
+        listener.onListShards(numShards, numSkipped);
+        for (int i = numSkipped; i < numShards; i++) {
+            listener.onQueryResult(i);
+        }
+        TotalHits totalHits = new TotalHits(randomIntBetween(1, 100), TotalHits.Relation.EQUAL_TO);
+        listener.onPartialReduce(numShards - numSkipped, totalHits, null, 1);
+
+        AsyncSearchResponse response = task.getAsyncResponse();
+        assertTrue(response.isRunning());
+        assertTrue(response.isPartial());
+        SearchResponse searchResponse = response.getSearchResponse();
+        assertNotNull(searchResponse);
+        assertThat(searchResponse.getTotalShards(), equalTo(numShards));
+        assertThat(searchResponse.getSkippedShards(), equalTo(numSkipped));
+        assertThat(searchResponse.getSuccessfulShards(), equalTo(numShards));
+        assertThat(searchResponse.getHits().getTotalHits(), equalTo(totalHits));
+    }
+
+    public void testPartialAggregationsAreReducedLazilyOncePerReducePhase() {
+        AtomicInteger reduceContexts = new AtomicInteger();
+        AsyncSearchTask task = createTask(TimeValue.timeValueMinutes(1), () -> {
+            reduceContexts.incrementAndGet();
+            return new ReduceContext(null, null, true);
+        }, Collections.emptyMap());
+        AsyncSearchTask.Listener listener = (AsyncSearchTask.Listener) task.getProgressListener();
+        listener.onListShards(1, 0);
+        listener.onQueryResult(0);
+        InternalAggregations aggs = new InternalAggregations(Collections.singletonList(
+            new InternalMax("max", 42d, DocValueFormat.RAW, Collections.emptyList(), Collections.emptyMap())));
+        listener.onPartialReduce(1, new TotalHits(1, TotalHits.Relation.EQUAL_TO), aggs, 1);
+        // the partial reduction of the search doesn't reduce the aggregations
+        assertThat(reduceContexts.get(), equalTo(0));
+
+        int numRequests = randomIntBetween(1, 5);
+        for (int i = 0; i < numRequests; i++) {
+            InternalMax max = task.getAsyncResponse().getSearchResponse().getAggregations().get("max");
+            assertThat(max.getValue(), equalTo(42d));
+        }
+        // the first request reduces the aggregations, the next ones reuse them
+        assertThat(reduceContexts.get(), equalTo(1));
+
+        InternalAggregations newAggs = new InternalAggregations(Collections.singletonList(
+            new InternalMax("max", 84d, DocValueFormat.RAW, Collections.emptyList(), Collections.emptyMap())));
+        listener.onPartialReduce(1, new TotalHits(2, TotalHits.Relation.EQUAL_TO), newAggs, 2);
+        assertThat(reduceContexts.get(), equalTo(1));
+        for (int i = 0; i < numRequests; i++) {
+            InternalMax max = task.getAsyncResponse().getSearchResponse().getAggregations().get("max");
+            assertThat(max.getValue(), equalTo(84d));
+        }
+        assertThat(reduceContexts.get(), equalTo(2));
+
+        // the aggregations of the final reduction are returned as is
+        listener.onReduce(1, new TotalHits(2, TotalHits.Relation.EQUAL_TO), newAggs, 3);
+        InternalMax max = task.getAsyncResponse().getSearchResponse().getAggregations().get("max");
+        assertThat(max.getValue(), equalTo(84d));
+        assertThat(reduceContexts.get(), equalTo(2));
+    }
+
+    public void testOnlySubmittingUserCanAccessTheSearch() throws IOException {
+        Authentication origin = new Authentication(new User("foo"), new Authentication.RealmRef("realm", "file", "node"), null);
+        AsyncSearchTask task = createTask(TimeValue.timeValueMinutes(1), () -> null,
+            Collections.singletonMap(AuthenticationField.AUTHENTICATION_KEY, origin.encode()));
+
+        ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+        // not authenticated
+        assertFalse(task.isAuthenticatedUserSame(threadContext));
+        try (ThreadContext.StoredContext ignore = threadContext.stashContext()) {
+            // the realm name may differ between nodes
+            new Authentication(new User("foo"), new Authentication.RealmRef("other_realm", "file", "other_node"), null)
+                .writeToContext(threadContext);
+            assertTrue(task.isAuthenticatedUserSame(threadContext));
+        }
+        try (ThreadContext.StoredContext ignore = threadContext.stashContext()) {
+            new Authentication(new User("bar"), new Authentication.RealmRef("realm", "file", "node"), null)
+                .writeToContext(threadContext);
+            assertFalse(task.isAuthenticatedUserSame(threadContext));
+        }
+        try (ThreadContext.StoredContext ignore = threadContext.stashContext()) {
+            new Authentication(new User("foo"), new Authentication.RealmRef("realm", "native", "node"), null)
+                .writeToContext(threadContext);
+            assertFalse(task.isAuthenticatedUserSame(threadContext));
+        }
+
+        // searches submitted without security can be accessed by anyone
+        AsyncSearchTask unsecuredTask = createTask(TimeValue.timeValueMinutes(1));
+        assertTrue(unsecuredTask.isAuthenticatedUserSame(threadContext));
+    }
+
+    public void testCompletionListenersAreNotifiedOnCompletion() throws InterruptedException {
+        AsyncSearchTask task = createTask(TimeValue.timeValueMinutes(1));
+        int numListeners = randomIntBetween(1, 10);
+        CountDownLatch latch = new CountDownLatch(numListeners);
+        for (int i = 0; i < numListeners; i++) {
+            task.addCompletionListener(resp -> {
+                assertFalse(resp.isRunning());
+                assertFalse(resp.isPartial());
+                assertNotNull(resp.getSearchResponse());
+                latch.countDown();
+            }, TimeValue.timeValueDays(1));
+        }
+        SearchResponse searchResponse = new SearchResponse(InternalSearchResponse.empty(), null, 1, 1, 0, 1L,
+            ShardSearchFailure.EMPTY_ARRAY, SearchResponse.Clusters.EMPTY);
+        task.getSearchResponseListener().onResponse(searchResponse);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        // listeners that are added after the completion are notified immediately
+        AtomicReference<AsyncSearchResponse> response = new AtomicReference<>();
+        task.addCompletionListener(response::set, TimeValue.timeValueDays(1));
+        assertNotNull(response.get());
+        assertSame(searchResponse, response.get().getSearchResponse());
+    }
+
+    public void testFailure() {
+        AsyncSearchTask task = createTask(TimeValue.timeValueMinutes(1));
+        task.getSearchResponseListener().onFailure(new IllegalStateException("boom"));
+        AsyncSearchResponse response = task.getAsyncResponse();
+        assertFalse(response.isRunning());
+        assertNotNull(response.getFailure());
+    }
+
+    public void testExtendExpirationTime() {
+        AsyncSearchTask task = createTask(TimeValue.timeValueSeconds(1));
+        long expirationTime = task.getExpirationTime();
+        task.extendExpirationTime(TimeValue.timeValueHours(1));
+        assertThat(task.getExpirationTime(), greaterThan(expirationTime));
+        long extended = task.getExpirationTime();
+        // the expiration time is never shortened
+        task.extendExpirationTime(TimeValue.timeValueSeconds(1));
+        assertThat(task.getExpirationTime(), equalTo(extended));
+        assertFalse(task.isExpired());
+    }
+}
@@ -5,6 +5,7 @@
  */
 package org.elasticsearch.xpack.core.enrich.action;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionRequestValidationException;
 import org.elasticsearch.action.ActionResponse;
 import org.elasticsearch.action.ActionType;
@@ -18,6 +19,7 @@ import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.tasks.TaskInfo;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -49,16 +51,28 @@ public class EnrichStatsAction extends ActionType<EnrichStatsAction.Response> {
 
         private final List<ExecutingPolicy> executingPolicies;
         private final List<CoordinatorStats> coordinatorStats;
+        private final List<CacheStats> cacheStats;
 
         public Response(List<ExecutingPolicy> executingPolicies, List<CoordinatorStats> coordinatorStats) {
+            this(executingPolicies, coordinatorStats, Collections.emptyList());
+        }
+
+        public Response(List<ExecutingPolicy> executingPolicies, List<CoordinatorStats> coordinatorStats,
+                        List<CacheStats> cacheStats) {
             this.executingPolicies = executingPolicies;
             this.coordinatorStats = coordinatorStats;
+            this.cacheStats = cacheStats;
         }
 
         public Response(StreamInput in) throws IOException {
             super(in);
             executingPolicies = in.readList(ExecutingPolicy::new);
             coordinatorStats = in.readList(CoordinatorStats::new);
+            if (in.getVersion().onOrAfter(Version.V_8_0_0)) {
+                cacheStats = in.readList(CacheStats::new);
+            } else {
+                cacheStats = Collections.emptyList();
+            }
         }
 
         public List<ExecutingPolicy> getExecutingPolicies() {
@@ -69,10 +83,17 @@ public class EnrichStatsAction extends ActionType<EnrichStatsAction.Response> {
             return coordinatorStats;
         }
 
+        public List<CacheStats> getCacheStats() {
+            return cacheStats;
+        }
+
         @Override
         public void writeTo(StreamOutput out) throws IOException {
             out.writeList(executingPolicies);
             out.writeList(coordinatorStats);
+            if (out.getVersion().onOrAfter(Version.V_8_0_0)) {
+                out.writeList(cacheStats);
+            }
         }
 
         @Override
@@ -92,6 +113,13 @@ public class EnrichStatsAction extends ActionType<EnrichStatsAction.Response> {
                 builder.endObject();
             }
             builder.endArray();
+            builder.startArray("cache_stats");
+            for (CacheStats entry : cacheStats) {
+                builder.startObject();
+                entry.toXContent(builder, params);
+                builder.endObject();
+            }
+            builder.endArray();
             builder.endObject();
             return builder;
         }
@@ -102,12 +130,13 @@ public class EnrichStatsAction extends ActionType<EnrichStatsAction.Response> {
             if (o == null || getClass() != o.getClass()) return false;
             Response response = (Response) o;
             return executingPolicies.equals(response.executingPolicies) &&
-                coordinatorStats.equals(response.coordinatorStats);
+                coordinatorStats.equals(response.coordinatorStats) &&
+                cacheStats.equals(response.cacheStats);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(executingPolicies, coordinatorStats);
+            return Objects.hash(executingPolicies, coordinatorStats, cacheStats);
         }
 
         public static class CoordinatorStats implements Writeable, ToXContentFragment {
@@ -191,6 +220,83 @@ public class EnrichStatsAction extends ActionType<EnrichStatsAction.Response> {
             }
         }
 
+        public static class CacheStats implements Writeable, ToXContentFragment {
+
+            private final String nodeId;
+            private final long count;
+            private final long hits;
+            private final long misses;
+            private final long evictions;
+
+            public CacheStats(String nodeId, long count, long hits, long misses, long evictions) {
+                this.nodeId = nodeId;
+                this.count = count;
+                this.hits = hits;
+                this.misses = misses;
+                this.evictions = evictions;
+            }
+
+            public CacheStats(StreamInput in) throws IOException {
+                this(in.readString(), in.readVLong(), in.readVLong(), in.readVLong(), in.readVLong());
+            }
+
+            public String getNodeId() {
+                return nodeId;
+            }
+
+            public long getCount() {
+                return count;
+            }
+
+            public long getHits() {
+                return hits;
+            }
+
+            public long getMisses() {
+                return misses;
+            }
+
+            public long getEvictions() {
+                return evictions;
+            }
+
+            @Override
+            public void writeTo(StreamOutput out) throws IOException {
+                out.writeString(nodeId);
+                out.writeVLong(count);
+                out.writeVLong(hits);
+                out.writeVLong(misses);
+                out.writeVLong(evictions);
+            }
+
+            @Override
+            public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+                builder.field("node_id", nodeId);
+                builder.field("count", count);
+                builder.field("hits", hits);
+                builder.field("misses", misses);
+                builder.field("evictions", evictions);
+                return builder;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (this == o) return true;
+                if (o == null || getClass() != o.getClass()) return false;
+                CacheStats stats = (CacheStats) o;
+                return Objects.equals(nodeId, stats.nodeId) &&
+                    count == stats.count &&
+                    hits == stats.hits &&
+                    misses == stats.misses &&
+                    evictions == stats.evictions;
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hash(nodeId, count, hits, misses, evictions);
+            }
+        }
+
         public static class ExecutingPolicy implements Writeable, ToXContentFragment {
 
             private final String name;
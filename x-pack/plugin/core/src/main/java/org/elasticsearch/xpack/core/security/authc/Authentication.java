@@ -80,6 +80,19 @@ public class Authentication implements ToXContentObject {
         return version;
     }
 
+    /**
+     * Returns whether this authentication and the provided one are for the same user. We cannot guarantee that all of the details
+     * of the authentications will be the same, e.g. the roles or the names of the authenticating (or lookup) realms can differ, so
+     * the username and the type of the realm that the user originates from are compared instead. This is a best effort check since
+     * principal uniqueness is not guaranteed and realm names can change between nodes.
+     */
+    public boolean sameUserAs(Authentication other) {
+        final boolean samePrincipal = user.principal().equals(other.getUser().principal());
+        final RealmRef realm = user.isRunAs() ? lookedUpBy : authenticatedBy;
+        final RealmRef otherRealm = other.getUser().isRunAs() ? other.getLookedUpBy() : other.getAuthenticatedBy();
+        return samePrincipal && realm.getType().equals(otherRealm.getType());
+    }
+
     public AuthenticationType getAuthenticationType() {
         return type;
     }
@@ -35,9 +35,11 @@ public abstract class AbstractEnrichProcessor extends AbstractProcessor {
     protected final String matchField;
     protected final int maxMatches;
 
-    protected AbstractEnrichProcessor(String tag, Client client, String policyName, String field, String targetField,
-                                      boolean ignoreMissing, boolean overrideEnabled, String matchField, int maxMatches) {
-        this(tag, createSearchRunner(client), policyName, field, targetField, ignoreMissing, overrideEnabled, matchField, maxMatches);
+    protected AbstractEnrichProcessor(String tag, Client client, EnrichCache enrichCache, String policyName, String field,
+                                      String targetField, boolean ignoreMissing, boolean overrideEnabled, String matchField,
+                                      int maxMatches) {
+        this(tag, createSearchRunner(client, enrichCache), policyName, field, targetField, ignoreMissing, overrideEnabled, matchField,
+            maxMatches);
     }
 
     protected AbstractEnrichProcessor(String tag,
@@ -95,14 +97,15 @@ public abstract class AbstractEnrichProcessor extends AbstractProcessor {
                     return;
                 }
 
+                // Search responses may be shared via the enrich cache, so never hand out the hits' source maps as is
                 if (overrideEnabled || ingestDocument.hasField(targetField) == false) {
                     if (maxMatches == 1) {
-                        Map<String, Object> firstDocument = searchHits[0].getSourceAsMap();
+                        Map<String, Object> firstDocument = IngestDocument.deepCopyMap(searchHits[0].getSourceAsMap());
                         ingestDocument.setFieldValue(targetField, firstDocument);
                     } else {
                         List<Map<String, Object>> enrichDocuments = new ArrayList<>(searchHits.length);
                         for (SearchHit searchHit : searchHits) {
-                            Map<String, Object> enrichDocument = searchHit.getSourceAsMap();
+                            Map<String, Object> enrichDocument = IngestDocument.deepCopyMap(searchHit.getSourceAsMap());
                             enrichDocuments.add(enrichDocument);
                         }
                         ingestDocument.setFieldValue(targetField, enrichDocuments);
@@ -153,10 +156,17 @@ public abstract class AbstractEnrichProcessor extends AbstractProcessor {
         return maxMatches;
     }
 
-    private static BiConsumer<SearchRequest, BiConsumer<SearchResponse, Exception>> createSearchRunner(Client client) {
+    private static BiConsumer<SearchRequest, BiConsumer<SearchResponse, Exception>> createSearchRunner(Client client,
+                                                                                                      EnrichCache enrichCache) {
         return (req, handler) -> {
+            SearchResponse cachedResponse = enrichCache.get(req);
+            if (cachedResponse != null) {
+                handler.accept(cachedResponse, null);
+                return;
+            }
             client.execute(EnrichCoordinatorProxyAction.INSTANCE, req, ActionListener.wrap(
                 resp -> {
+                    enrichCache.put(req, resp);
                     handler.accept(resp, null);
                 },
                 e -> {
@@ -94,12 +94,17 @@ public class EnrichPlugin extends Plugin implements ActionPlugin, IngestPlugin {
             val -> Setting.parseInt(val, 1, Integer.MAX_VALUE, QUEUE_CAPACITY_SETTING_NAME),
             Setting.Property.NodeScope);
 
+    public static final Setting<Long> CACHE_SIZE =
+        Setting.longSetting("enrich.cache_size", 1000, 0, Setting.Property.NodeScope);
+
     private final Settings settings;
     private final Boolean enabled;
+    private final EnrichCache enrichCache;
 
     public EnrichPlugin(final Settings settings) {
         this.settings = settings;
         this.enabled = ENRICH_ENABLED_SETTING.get(settings);
+        this.enrichCache = new EnrichCache(CACHE_SIZE.get(settings));
     }
 
     @Override
@@ -108,7 +113,7 @@ public class EnrichPlugin extends Plugin implements ActionPlugin, IngestPlugin {
             return Map.of();
         }
 
-        EnrichProcessorFactory factory = new EnrichProcessorFactory(parameters.client);
+        EnrichProcessorFactory factory = new EnrichProcessorFactory(parameters.client, enrichCache);
         parameters.ingestService.addIngestClusterStateListener(factory);
         return Map.of(EnrichProcessorFactory.TYPE, factory);
     }
@@ -168,7 +173,8 @@ public class EnrichPlugin extends Plugin implements ActionPlugin, IngestPlugin {
         return List.of(
             enrichPolicyLocks,
             new EnrichCoordinatorProxyAction.Coordinator(client, settings),
-            enrichPolicyMaintenanceService
+            enrichPolicyMaintenanceService,
+            enrichCache
         );
     }
 
@@ -197,7 +203,8 @@ public class EnrichPlugin extends Plugin implements ActionPlugin, IngestPlugin {
             COORDINATOR_PROXY_MAX_CONCURRENT_REQUESTS,
             COORDINATOR_PROXY_MAX_LOOKUPS_PER_REQUEST,
             COORDINATOR_PROXY_QUEUE_CAPACITY,
-            ENRICH_MAX_FORCE_MERGE_ATTEMPTS
+            ENRICH_MAX_FORCE_MERGE_ATTEMPTS,
+            CACHE_SIZE
         );
     }
 }
@@ -23,11 +23,13 @@ final class EnrichProcessorFactory implements Processor.Factory, Consumer<Cluste
 
     static final String TYPE = "enrich";
     private final Client client;
+    private final EnrichCache enrichCache;
 
     volatile MetaData metaData;
 
-    EnrichProcessorFactory(Client client) {
+    EnrichProcessorFactory(Client client, EnrichCache enrichCache) {
         this.client = client;
+        this.enrichCache = enrichCache;
     }
 
     @Override
@@ -58,13 +60,13 @@ final class EnrichProcessorFactory implements Processor.Factory, Consumer<Cluste
 
         switch (policyType) {
             case EnrichPolicy.MATCH_TYPE:
-                return new MatchProcessor(tag, client, policyName, field, targetField, overrideEnabled, ignoreMissing, matchField,
-                    maxMatches);
+                return new MatchProcessor(tag, client, enrichCache, policyName, field, targetField, overrideEnabled, ignoreMissing,
+                    matchField, maxMatches);
             case EnrichPolicy.GEO_MATCH_TYPE:
                 String relationStr = ConfigurationUtils.readStringProperty(TYPE, tag, config, "shape_relation", "intersects");
                 ShapeRelation shapeRelation = ShapeRelation.getRelationByName(relationStr);
-                return new GeoMatchProcessor(tag, client, policyName, field, targetField, overrideEnabled, ignoreMissing, matchField,
-                    maxMatches, shapeRelation);
+                return new GeoMatchProcessor(tag, client, enrichCache, policyName, field, targetField, overrideEnabled, ignoreMissing,
+                    matchField, maxMatches, shapeRelation);
             default:
                 throw new IllegalArgumentException("unsupported policy type [" + policyType + "]");
         }
@@ -73,6 +75,7 @@ final class EnrichProcessorFactory implements Processor.Factory, Consumer<Cluste
     @Override
     public void accept(ClusterState state) {
         metaData = state.getMetaData();
+        enrichCache.setMetadata(metaData);
     }
 
 }
@@ -27,6 +27,7 @@ public final class GeoMatchProcessor extends AbstractEnrichProcessor {
 
     GeoMatchProcessor(String tag,
                       Client client,
+                      EnrichCache enrichCache,
                       String policyName,
                       String field,
                       String targetField,
@@ -35,7 +36,7 @@ public final class GeoMatchProcessor extends AbstractEnrichProcessor {
                       String matchField,
                       int maxMatches,
                       ShapeRelation shapeRelation) {
-        super(tag, client, policyName, field, targetField, ignoreMissing, overrideEnabled, matchField, maxMatches);
+        super(tag, client, enrichCache, policyName, field, targetField, ignoreMissing, overrideEnabled, matchField, maxMatches);
         this.shapeRelation = shapeRelation;
     }
 
@@ -19,6 +19,7 @@ public class MatchProcessor extends AbstractEnrichProcessor {
 
     MatchProcessor(String tag,
                    Client client,
+                   EnrichCache enrichCache,
                    String policyName,
                    String field,
                    String targetField,
@@ -26,7 +27,7 @@ public class MatchProcessor extends AbstractEnrichProcessor {
                    boolean ignoreMissing,
                    String matchField,
                    int maxMatches) {
-        super(tag, client, policyName, field, targetField, ignoreMissing, overrideEnabled, matchField, maxMatches);
+        super(tag, client, enrichCache, policyName, field, targetField, ignoreMissing, overrideEnabled, matchField, maxMatches);
     }
 
     /** used in tests **/
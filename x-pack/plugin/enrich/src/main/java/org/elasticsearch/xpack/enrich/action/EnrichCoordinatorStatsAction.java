@@ -5,6 +5,7 @@
  */
 package org.elasticsearch.xpack.enrich.action;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionType;
 import org.elasticsearch.action.FailedNodeException;
 import org.elasticsearch.action.support.ActionFilters;
@@ -17,6 +18,7 @@ import org.elasticsearch.cluster.ClusterName;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
@@ -24,7 +26,9 @@ import org.elasticsearch.tasks.Task;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction;
+import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction.Response.CacheStats;
 import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction.Response.CoordinatorStats;
+import org.elasticsearch.xpack.enrich.EnrichCache;
 
 import java.io.IOException;
 import java.util.List;
@@ -88,38 +92,59 @@ public class EnrichCoordinatorStatsAction extends ActionType<EnrichCoordinatorSt
     public static class NodeResponse extends BaseNodeResponse {
 
         private final CoordinatorStats coordinatorStats;
+        private final CacheStats cacheStats;
 
-        NodeResponse(DiscoveryNode node, CoordinatorStats coordinatorStats) {
+        NodeResponse(DiscoveryNode node, CoordinatorStats coordinatorStats, CacheStats cacheStats) {
             super(node);
             this.coordinatorStats = coordinatorStats;
+            this.cacheStats = cacheStats;
         }
 
         NodeResponse(StreamInput in) throws IOException {
             super(in);
             this.coordinatorStats = new CoordinatorStats(in);
+            if (in.getVersion().onOrAfter(Version.V_8_0_0)) {
+                this.cacheStats = in.readOptionalWriteable(CacheStats::new);
+            } else {
+                this.cacheStats = null;
+            }
         }
 
         public CoordinatorStats getCoordinatorStats() {
             return coordinatorStats;
         }
 
+        /**
+         * @return the enrich cache stats of this node or <code>null</code> if the node is on a version that doesn't cache lookups
+         */
+        @Nullable
+        public CacheStats getCacheStats() {
+            return cacheStats;
+        }
+
         @Override
         public void writeTo(StreamOutput out) throws IOException {
             super.writeTo(out);
             coordinatorStats.writeTo(out);
+            if (out.getVersion().onOrAfter(Version.V_8_0_0)) {
+                out.writeOptionalWriteable(cacheStats);
+            }
         }
     }
 
     public static class TransportAction extends TransportNodesAction<Request, Response, NodeRequest, NodeResponse> {
 
         private final EnrichCoordinatorProxyAction.Coordinator coordinator;
+        private final EnrichCache enrichCache;
 
         @Inject
         public TransportAction(ThreadPool threadPool, ClusterService clusterService, TransportService transportService,
-                               ActionFilters actionFilters, EnrichCoordinatorProxyAction.Coordinator coordinator) {
+                               ActionFilters actionFilters, EnrichCoordinatorProxyAction.Coordinator coordinator,
+                               EnrichCache enrichCache) {
             super(NAME, threadPool, clusterService, transportService, actionFilters, Request::new, NodeRequest::new,
                 ThreadPool.Names.SAME, NodeResponse.class);
             this.coordinator = coordinator;
+            this.enrichCache = enrichCache;
         }
 
         @Override
@@ -146,7 +171,7 @@ public class EnrichCoordinatorStatsAction extends ActionType<EnrichCoordinatorSt
         @Override
         protected NodeResponse nodeOperation(NodeRequest request, Task task) {
             DiscoveryNode node = clusterService.localNode();
-            return new NodeResponse(node, coordinator.getStats(node.getId()));
+            return new NodeResponse(node, coordinator.getStats(node.getId()), enrichCache.getStats(node.getId()));
         }
     }
 
@@ -21,6 +21,7 @@ import org.elasticsearch.tasks.Task;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction;
+import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction.Response.CacheStats;
 import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction.Response.CoordinatorStats;
 import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction.Response.ExecutingPolicy;
 import org.elasticsearch.xpack.core.enrich.action.ExecuteEnrichPolicyAction;
@@ -28,6 +29,7 @@ import org.elasticsearch.xpack.core.enrich.action.ExecuteEnrichPolicyAction;
 import java.io.IOException;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 public class TransportEnrichStatsAction extends TransportMasterNodeAction<EnrichStatsAction.Request, EnrichStatsAction.Response> {
@@ -79,13 +81,18 @@ public class TransportEnrichStatsAction extends TransportMasterNodeAction<Enrich
                     .map(EnrichCoordinatorStatsAction.NodeResponse::getCoordinatorStats)
                     .sorted(Comparator.comparing(CoordinatorStats::getNodeId))
                     .collect(Collectors.toList());
+                List<CacheStats> cacheStats = response.getNodes().stream()
+                    .map(EnrichCoordinatorStatsAction.NodeResponse::getCacheStats)
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(CacheStats::getNodeId))
+                    .collect(Collectors.toList());
                 List<ExecutingPolicy> policyExecutionTasks = taskManager.getTasks().values().stream()
                     .filter(t -> t.getAction().equals(ExecuteEnrichPolicyAction.NAME))
                     .map(t -> t.taskInfo(clusterService.localNode().getId(), true))
                     .map(t -> new ExecutingPolicy(t.getDescription(), t))
                     .sorted(Comparator.comparing(ExecutingPolicy::getName))
                     .collect(Collectors.toList());
-                listener.onResponse(new EnrichStatsAction.Response(policyExecutionTasks, coordinatorStats));
+                listener.onResponse(new EnrichStatsAction.Response(policyExecutionTasks, coordinatorStats, cacheStats));
             },
             listener::onFailure
         );
@@ -114,6 +114,10 @@ public class BasicEnrichTests extends ESSingleNodeTestCase {
         assertThat(statsResponse.getCoordinatorStats().get(0).getNodeId(), equalTo(localNodeId));
         assertThat(statsResponse.getCoordinatorStats().get(0).getRemoteRequestsTotal(), greaterThanOrEqualTo(1L));
         assertThat(statsResponse.getCoordinatorStats().get(0).getExecutedSearchesTotal(), equalTo((long) numDocs));
+        assertThat(statsResponse.getCacheStats().size(), equalTo(1));
+        assertThat(statsResponse.getCacheStats().get(0).getNodeId(), equalTo(localNodeId));
+        assertThat(statsResponse.getCacheStats().get(0).getMisses(), equalTo((long) numDocs));
+        assertThat(statsResponse.getCacheStats().get(0).getHits(), equalTo(0L));
     }
 
     public void testIngestDataWithGeoMatchProcessor() {
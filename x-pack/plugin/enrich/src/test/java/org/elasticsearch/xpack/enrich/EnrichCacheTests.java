@@ -0,0 +1,114 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.enrich;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.cluster.metadata.AliasMetaData;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.query.MatchQueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.core.enrich.EnrichPolicy;
+import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction.Response.CacheStats;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+
+public class EnrichCacheTests extends ESTestCase {
+
+    public void testCaching() {
+        // Emulate cluster metadata:
+        // (two enrich indices with corresponding alias entries)
+        MetaData metaData = MetaData.builder()
+            .put(newEnrichIndex("policy1", 1))
+            .put(newEnrichIndex("policy2", 1))
+            .build();
+
+        // Emulated search requests that an enrich processor could generate:
+        // (two unique searches for two enrich policies)
+        SearchRequest searchRequest1 = newSearchRequest("policy1", "match_field", "1");
+        SearchRequest searchRequest2 = newSearchRequest("policy1", "match_field", "2");
+        SearchRequest searchRequest3 = newSearchRequest("policy2", "match_field", "1");
+        SearchRequest searchRequest4 = newSearchRequest("policy2", "match_field", "2");
+        // Emulated search response (content doesn't matter, since it isn't used, it just a cache entry)
+        SearchResponse searchResponse = mock(SearchResponse.class);
+
+        EnrichCache enrichCache = new EnrichCache(3);
+        enrichCache.setMetadata(metaData);
+        enrichCache.put(searchRequest1, searchResponse);
+        enrichCache.put(searchRequest2, searchResponse);
+        enrichCache.put(searchRequest3, searchResponse);
+        CacheStats cacheStats = enrichCache.getStats("_id");
+        assertThat(cacheStats.getCount(), equalTo(3L));
+        assertThat(cacheStats.getHits(), equalTo(0L));
+        assertThat(cacheStats.getMisses(), equalTo(0L));
+        assertThat(cacheStats.getEvictions(), equalTo(0L));
+
+        assertThat(enrichCache.get(searchRequest1), sameInstance(searchResponse));
+        assertThat(enrichCache.get(searchRequest2), sameInstance(searchResponse));
+        assertThat(enrichCache.get(searchRequest3), sameInstance(searchResponse));
+        assertThat(enrichCache.get(searchRequest4), nullValue());
+        cacheStats = enrichCache.getStats("_id");
+        assertThat(cacheStats.getCount(), equalTo(3L));
+        assertThat(cacheStats.getHits(), equalTo(3L));
+        assertThat(cacheStats.getMisses(), equalTo(1L));
+        assertThat(cacheStats.getEvictions(), equalTo(0L));
+
+        enrichCache.put(searchRequest4, searchResponse);
+        cacheStats = enrichCache.getStats("_id");
+        assertThat(cacheStats.getCount(), equalTo(3L));
+        assertThat(cacheStats.getHits(), equalTo(3L));
+        assertThat(cacheStats.getMisses(), equalTo(1L));
+        assertThat(cacheStats.getEvictions(), equalTo(1L));
+
+        // Simulate a policy execution, which creates a new enrich index for policy1 and moves the alias:
+        metaData = MetaData.builder()
+            .put(newEnrichIndex("policy1", 2))
+            .put(newEnrichIndex("policy2", 1))
+            .build();
+        enrichCache.setMetadata(metaData);
+
+        // Lookups for policy1 now miss, because the cache key is the new enrich index:
+        assertThat(enrichCache.get(searchRequest1), nullValue());
+        assertThat(enrichCache.get(searchRequest2), nullValue());
+        assertThat(enrichCache.get(searchRequest3), sameInstance(searchResponse));
+        assertThat(enrichCache.get(searchRequest4), sameInstance(searchResponse));
+        cacheStats = enrichCache.getStats("_id");
+        assertThat(cacheStats.getCount(), equalTo(3L));
+        assertThat(cacheStats.getHits(), equalTo(5L));
+        assertThat(cacheStats.getMisses(), equalTo(3L));
+        assertThat(cacheStats.getEvictions(), equalTo(1L));
+    }
+
+    public void testDisabled() {
+        EnrichCache enrichCache = new EnrichCache(0);
+        enrichCache.setMetadata(MetaData.builder().put(newEnrichIndex("policy1", 1)).build());
+        SearchRequest searchRequest = newSearchRequest("policy1", "match_field", "1");
+        enrichCache.put(searchRequest, mock(SearchResponse.class));
+        assertThat(enrichCache.get(searchRequest), nullValue());
+        assertThat(enrichCache.getStats("_id").getCount(), equalTo(0L));
+    }
+
+    private static IndexMetaData.Builder newEnrichIndex(String policyName, int generation) {
+        return IndexMetaData.builder(EnrichPolicy.getBaseName(policyName) + "-" + generation)
+            .settings(Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT))
+            .numberOfShards(1)
+            .numberOfReplicas(0)
+            .putAlias(AliasMetaData.builder(EnrichPolicy.getBaseName(policyName)).build());
+    }
+
+    private static SearchRequest newSearchRequest(String policyName, String field, String value) {
+        return new SearchRequest(EnrichPolicy.getBaseName(policyName))
+            .source(new SearchSourceBuilder().query(new MatchQueryBuilder(field, value)));
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.search.lookup.LeafSearchLookup;
+import org.elasticsearch.search.lookup.SearchLookup;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Abstract base for scripts that compute the values of a runtime field. Scripts are bound to a single segment and are run once per
+ * document; they read {@code params._source} or {@code doc} and report the values of the field through {@code emitValue}.
+ */
+public abstract class AbstractScriptFieldScript {
+
+    private final Map<String, Object> params;
+    private final LeafSearchLookup leafSearchLookup;
+
+    public AbstractScriptFieldScript(Map<String, Object> params, SearchLookup searchLookup, LeafReaderContext ctx) {
+        this.leafSearchLookup = searchLookup.getLeafSearchLookup(ctx);
+        this.params = new HashMap<>(params);
+        // _source is loaded lazily, so exposing it costs nothing for scripts that only read doc values
+        this.params.put("_source", leafSearchLookup.source());
+    }
+
+    /**
+     * Return the parameters for this script.
+     */
+    public final Map<String, Object> getParams() {
+        return params;
+    }
+
+    /**
+     * The doc lookup for the Lucene segment this script was created for.
+     */
+    public final Map<String, ScriptDocValues<?>> getDoc() {
+        return leafSearchLookup.doc();
+    }
+
+    /**
+     * Set the document to run the script on next.
+     */
+    protected final void setDocument(int docId) {
+        leafSearchLookup.setDocument(docId);
+    }
+
+    public abstract void execute();
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.util.ArrayUtil;
+import org.elasticsearch.script.ScriptContext;
+import org.elasticsearch.search.lookup.SearchLookup;
+
+import java.io.IOException;
+import java.util.Map;
+
+public abstract class DoubleScriptFieldScript extends AbstractScriptFieldScript {
+
+    public static final ScriptContext<Factory> CONTEXT = new ScriptContext<>("double_script_field", Factory.class);
+
+    public static final String[] PARAMETERS = {};
+
+    public interface Factory {
+        LeafFactory newFactory(Map<String, Object> params, SearchLookup searchLookup);
+    }
+
+    public interface LeafFactory {
+        DoubleScriptFieldScript newInstance(LeafReaderContext ctx) throws IOException;
+    }
+
+    private double[] values = new double[1];
+    private int count;
+
+    public DoubleScriptFieldScript(Map<String, Object> params, SearchLookup searchLookup, LeafReaderContext ctx) {
+        super(params, searchLookup, ctx);
+    }
+
+    /**
+     * Execute the script for the provided {@code docId}. The emitted values are available through {@link #values()} and
+     * {@link #count()} until the next call.
+     */
+    public final void runForDoc(int docId) {
+        count = 0;
+        setDocument(docId);
+        execute();
+    }
+
+    /**
+     * Values from the last time {@link #runForDoc(int)} was called. This array is mutable and will change with the next call; only
+     * the first {@link #count()} entries are valid.
+     */
+    public final double[] values() {
+        return values;
+    }
+
+    /**
+     * The number of results produced the last time {@link #runForDoc(int)} was called.
+     */
+    public final int count() {
+        return count;
+    }
+
+    private void add(double v) {
+        if (values.length < count + 1) {
+            values = ArrayUtil.grow(values, count + 1);
+        }
+        values[count++] = v;
+    }
+
+    public static class EmitValue {
+        private final DoubleScriptFieldScript script;
+
+        public EmitValue(DoubleScriptFieldScript script) {
+            this.script = script;
+        }
+
+        public void emitValue(double v) {
+            script.add(v);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields;
+
+import org.elasticsearch.painless.spi.PainlessExtension;
+import org.elasticsearch.painless.spi.Whitelist;
+import org.elasticsearch.painless.spi.WhitelistLoader;
+import org.elasticsearch.script.ScriptContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class RuntimeFieldsPainlessExtension implements PainlessExtension {
+
+    @Override
+    public Map<ScriptContext<?>, List<Whitelist>> getContextWhitelists() {
+        return Map.of(
+            StringScriptFieldScript.CONTEXT, whitelist("string_whitelist.txt"),
+            LongScriptFieldScript.CONTEXT, whitelist("long_whitelist.txt"),
+            DoubleScriptFieldScript.CONTEXT, whitelist("double_whitelist.txt")
+        );
+    }
+
+    private static List<Whitelist> whitelist(String resource) {
+        return Collections.singletonList(WhitelistLoader.loadFromResourceFiles(RuntimeFieldsPainlessExtension.class, resource));
+    }
+}
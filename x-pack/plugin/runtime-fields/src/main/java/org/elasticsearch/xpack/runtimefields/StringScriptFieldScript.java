@@ -0,0 +1,58 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.elasticsearch.script.ScriptContext;
+import org.elasticsearch.search.lookup.SearchLookup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public abstract class StringScriptFieldScript extends AbstractScriptFieldScript {
+
+    public static final ScriptContext<Factory> CONTEXT = new ScriptContext<>("string_script_field", Factory.class);
+
+    public static final String[] PARAMETERS = {};
+
+    public interface Factory {
+        LeafFactory newFactory(Map<String, Object> params, SearchLookup searchLookup);
+    }
+
+    public interface LeafFactory {
+        StringScriptFieldScript newInstance(LeafReaderContext ctx) throws IOException;
+    }
+
+    private final List<String> results = new ArrayList<>();
+
+    public StringScriptFieldScript(Map<String, Object> params, SearchLookup searchLookup, LeafReaderContext ctx) {
+        super(params, searchLookup, ctx);
+    }
+
+    /**
+     * Execute the script for the provided {@code docId}, returning the values it emitted. The returned list is reused by the next call.
+     */
+    public final List<String> resultsForDoc(int docId) {
+        results.clear();
+        setDocument(docId);
+        execute();
+        return results;
+    }
+
+    public static class EmitValue {
+        private final StringScriptFieldScript script;
+
+        public EmitValue(StringScriptFieldScript script) {
+            this.script = script;
+        }
+
+        public void emitValue(String v) {
+            script.results.add(v);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.fielddata;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.fielddata.AtomicFieldData;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.lookup.SearchLookup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Base class for the {@link IndexFieldData} of runtime fields. Values are not loaded from the index but computed by running the field's
+ * script on every document that is visited, so nothing is cached across requests and loading is always direct.
+ */
+public abstract class AbstractScriptIndexFieldData<FD extends AtomicFieldData> implements IndexFieldData<FD> {
+
+    private final Index index;
+    private final String fieldName;
+    private final Script script;
+    private final Supplier<SearchLookup> searchLookup;
+
+    protected AbstractScriptIndexFieldData(Index index, String fieldName, Script script, Supplier<SearchLookup> searchLookup) {
+        this.index = index;
+        this.fieldName = fieldName;
+        this.script = script;
+        this.searchLookup = searchLookup;
+    }
+
+    @Override
+    public final Index index() {
+        return index;
+    }
+
+    @Override
+    public final String getFieldName() {
+        return fieldName;
+    }
+
+    @Override
+    public final FD load(LeafReaderContext context) {
+        try {
+            // every load gets its own lookup: the source lookup is stateful and the same field data is shared by concurrent searches
+            return loadScriptValues(context, script, searchLookup.get());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public final FD loadDirect(LeafReaderContext context) {
+        return load(context);
+    }
+
+    protected abstract FD loadScriptValues(LeafReaderContext context, Script script, SearchLookup searchLookup) throws IOException;
+
+    @Override
+    public final void clear() {
+        // nothing to clear, values are never cached
+    }
+
+    /**
+     * Base class for the builders of the field data of runtime fields. The builders keep track of the runtime fields whose
+     * scripts are being resolved, so that a script that reads its own field, directly or through other runtime fields, fails
+     * instead of recursing until the stack overflows.
+     */
+    public abstract static class Builder<IFD extends AbstractScriptIndexFieldData<?>> implements IndexFieldData.Builder {
+
+        @Override
+        public final IFD build(IndexSettings indexSettings, MappedFieldType fieldType, IndexFieldDataCache cache,
+                               CircuitBreakerService breakerService, MapperService mapperService) {
+            return build(indexSettings, fieldType, cache, breakerService, mapperService, List.of());
+        }
+
+        private IFD build(IndexSettings indexSettings, MappedFieldType fieldType, IndexFieldDataCache cache,
+                          CircuitBreakerService breakerService, MapperService mapperService, List<String> parents) {
+            final List<String> fieldChain = new ArrayList<>(parents);
+            fieldChain.add(fieldType.name());
+            if (parents.contains(fieldType.name())) {
+                throw new IllegalArgumentException("Cyclic dependency detected while resolving runtime fields: "
+                    + String.join(" -> ", fieldChain));
+            }
+            return build(indexSettings.getIndex(), fieldType.name(),
+                searchLookupSupplier(indexSettings, cache, breakerService, mapperService, fieldChain));
+        }
+
+        protected abstract IFD build(Index index, String fieldName, Supplier<SearchLookup> searchLookup);
+    }
+
+    /**
+     * Builds a {@link SearchLookup} that loads the field data of other fields directly, so that runtime field scripts can use
+     * {@code doc} without going through the field data cache of the shard. The field data of other runtime fields is built
+     * with the chain of runtime fields that led to them.
+     */
+    private static Supplier<SearchLookup> searchLookupSupplier(IndexSettings indexSettings, IndexFieldDataCache cache,
+                                                               CircuitBreakerService breakerService, MapperService mapperService,
+                                                               List<String> fieldChain) {
+        return () -> new SearchLookup(mapperService, fieldType -> {
+            IndexFieldData.Builder builder = fieldType.fielddataBuilder(indexSettings.getIndex().getName());
+            if (builder instanceof Builder) {
+                return ((Builder<?>) builder).build(indexSettings, fieldType, cache, breakerService, mapperService, fieldChain);
+            }
+            return builder.build(indexSettings, fieldType, cache, breakerService, mapperService);
+        });
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.fielddata;
+
+import org.elasticsearch.index.fielddata.SortingBinaryDocValues;
+import org.elasticsearch.xpack.runtimefields.StringScriptFieldScript;
+
+import java.util.List;
+
+/**
+ * Doc values computed by a {@link StringScriptFieldScript}. The values of the current document are kept until another document is
+ * requested, so consumers that advance to the same document several times only run the script once.
+ */
+public final class ScriptBinaryDocValues extends SortingBinaryDocValues {
+    private final StringScriptFieldScript script;
+    private int docId = -1;
+
+    ScriptBinaryDocValues(StringScriptFieldScript script) {
+        this.script = script;
+    }
+
+    @Override
+    public boolean advanceExact(int docId) {
+        if (this.docId != docId) {
+            this.docId = docId;
+            List<String> results = script.resultsForDoc(docId);
+            count = results.size();
+            grow();
+            for (int i = 0; i < count; i++) {
+                values[i].copyChars(results.get(i));
+            }
+        }
+        // sorting already sorted values is cheap and rewinds the value iterator
+        sort();
+        return count > 0;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.fielddata;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.SortField;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.fielddata.AtomicFieldData;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
+import org.elasticsearch.index.fielddata.fieldcomparator.BytesRefFieldComparatorSource;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.MultiValueMode;
+import org.elasticsearch.search.lookup.SearchLookup;
+import org.elasticsearch.xpack.runtimefields.StringScriptFieldScript;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Field data for runtime fields whose script emits strings. This is not an {@code IndexOrdinalsFieldData}, so aggregations on it always
+ * work on the values themselves rather than on ordinals.
+ */
+public final class ScriptBinaryFieldData extends AbstractScriptIndexFieldData<ScriptBinaryFieldData.ScriptBinaryAtomicFieldData> {
+
+    public static class Builder extends AbstractScriptIndexFieldData.Builder<ScriptBinaryFieldData> {
+        private final Script script;
+        private final StringScriptFieldScript.Factory scriptFactory;
+
+        public Builder(Script script, StringScriptFieldScript.Factory scriptFactory) {
+            this.script = script;
+            this.scriptFactory = scriptFactory;
+        }
+
+        @Override
+        protected ScriptBinaryFieldData build(Index index, String fieldName, Supplier<SearchLookup> searchLookup) {
+            return new ScriptBinaryFieldData(index, fieldName, script, scriptFactory, searchLookup);
+        }
+    }
+
+    private final StringScriptFieldScript.Factory scriptFactory;
+
+    private ScriptBinaryFieldData(Index index, String fieldName, Script script, StringScriptFieldScript.Factory scriptFactory,
+                                  Supplier<SearchLookup> searchLookup) {
+        super(index, fieldName, script, searchLookup);
+        this.scriptFactory = scriptFactory;
+    }
+
+    @Override
+    protected ScriptBinaryAtomicFieldData loadScriptValues(LeafReaderContext context, Script script, SearchLookup searchLookup)
+        throws IOException {
+        StringScriptFieldScript leafScript = scriptFactory.newFactory(script.getParams(), searchLookup).newInstance(context);
+        return new ScriptBinaryAtomicFieldData(new ScriptBinaryDocValues(leafScript));
+    }
+
+    @Override
+    public SortField sortField(Object missingValue, MultiValueMode sortMode, XFieldComparatorSource.Nested nested, boolean reverse) {
+        return new SortField(getFieldName(), new BytesRefFieldComparatorSource(this, missingValue, sortMode, nested), reverse);
+    }
+
+    public static final class ScriptBinaryAtomicFieldData implements AtomicFieldData {
+        private final ScriptBinaryDocValues docValues;
+
+        ScriptBinaryAtomicFieldData(ScriptBinaryDocValues docValues) {
+            this.docValues = docValues;
+        }
+
+        @Override
+        public ScriptDocValues<?> getScriptValues() {
+            return new ScriptDocValues.Strings(getBytesValues());
+        }
+
+        @Override
+        public SortedBinaryDocValues getBytesValues() {
+            return docValues;
+        }
+
+        @Override
+        public long ramBytesUsed() {
+            return 0;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.fielddata;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.SortField;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.fielddata.AtomicNumericFieldData;
+import org.elasticsearch.index.fielddata.FieldData;
+import org.elasticsearch.index.fielddata.IndexNumericFieldData;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.index.fielddata.fieldcomparator.DoubleValuesComparatorSource;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.MultiValueMode;
+import org.elasticsearch.search.lookup.SearchLookup;
+import org.elasticsearch.xpack.runtimefields.DoubleScriptFieldScript;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Field data for runtime fields whose script emits doubles. It is an {@link IndexNumericFieldData}, so numeric aggregations and sorting
+ * treat it like any other double field.
+ */
+public final class ScriptDoubleFieldData extends AbstractScriptIndexFieldData<AtomicNumericFieldData> implements IndexNumericFieldData {
+
+    public static class Builder extends AbstractScriptIndexFieldData.Builder<ScriptDoubleFieldData> {
+        private final Script script;
+        private final DoubleScriptFieldScript.Factory scriptFactory;
+
+        public Builder(Script script, DoubleScriptFieldScript.Factory scriptFactory) {
+            this.script = script;
+            this.scriptFactory = scriptFactory;
+        }
+
+        @Override
+        protected ScriptDoubleFieldData build(Index index, String fieldName, Supplier<SearchLookup> searchLookup) {
+            return new ScriptDoubleFieldData(index, fieldName, script, scriptFactory, searchLookup);
+        }
+    }
+
+    private final DoubleScriptFieldScript.Factory scriptFactory;
+
+    private ScriptDoubleFieldData(Index index, String fieldName, Script script, DoubleScriptFieldScript.Factory scriptFactory,
+                                Supplier<SearchLookup> searchLookup) {
+        super(index, fieldName, script, searchLookup);
+        this.scriptFactory = scriptFactory;
+    }
+
+    @Override
+    protected ScriptDoubleAtomicFieldData loadScriptValues(LeafReaderContext context, Script script, SearchLookup searchLookup)
+        throws IOException {
+        DoubleScriptFieldScript leafScript = scriptFactory.newFactory(script.getParams(), searchLookup).newInstance(context);
+        return new ScriptDoubleAtomicFieldData(new ScriptDoubleDocValues(leafScript));
+    }
+
+    @Override
+    public SortField sortField(Object missingValue, MultiValueMode sortMode, XFieldComparatorSource.Nested nested, boolean reverse) {
+        return new SortField(getFieldName(), new DoubleValuesComparatorSource(this, missingValue, sortMode, nested), reverse);
+    }
+
+    @Override
+    public NumericType getNumericType() {
+        return NumericType.DOUBLE;
+    }
+
+    public static final class ScriptDoubleAtomicFieldData implements AtomicNumericFieldData {
+        private final ScriptDoubleDocValues docValues;
+
+        ScriptDoubleAtomicFieldData(ScriptDoubleDocValues docValues) {
+            this.docValues = docValues;
+        }
+
+        @Override
+        public SortedNumericDocValues getLongValues() {
+            return FieldData.castToLong(docValues);
+        }
+
+        @Override
+        public SortedNumericDoubleValues getDoubleValues() {
+            return docValues;
+        }
+
+        @Override
+        public ScriptDocValues<?> getScriptValues() {
+            return new ScriptDocValues.Doubles(getDoubleValues());
+        }
+
+        @Override
+        public SortedBinaryDocValues getBytesValues() {
+            return FieldData.toString(docValues);
+        }
+
+        @Override
+        public long ramBytesUsed() {
+            return 0;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
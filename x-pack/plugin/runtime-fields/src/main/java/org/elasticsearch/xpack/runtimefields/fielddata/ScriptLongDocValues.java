@@ -0,0 +1,37 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.fielddata;
+
+import org.elasticsearch.index.fielddata.AbstractSortingNumericDocValues;
+import org.elasticsearch.xpack.runtimefields.LongScriptFieldScript;
+
+/**
+ * Doc values computed by a {@link LongScriptFieldScript}. The values of the current document are kept until another document is
+ * requested, so consumers that advance to the same document several times only run the script once.
+ */
+public final class ScriptLongDocValues extends AbstractSortingNumericDocValues {
+    private final LongScriptFieldScript script;
+    private int docId = -1;
+
+    ScriptLongDocValues(LongScriptFieldScript script) {
+        this.script = script;
+    }
+
+    @Override
+    public boolean advanceExact(int docId) {
+        if (this.docId == docId) {
+            // rewind the value iterator
+            resize(docValueCount());
+        } else {
+            this.docId = docId;
+            script.runForDoc(docId);
+            resize(script.count());
+            System.arraycopy(script.values(), 0, values, 0, script.count());
+            sort();
+        }
+        return docValueCount() > 0;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.fielddata;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.SortField;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.fielddata.AtomicNumericFieldData;
+import org.elasticsearch.index.fielddata.FieldData;
+import org.elasticsearch.index.fielddata.IndexNumericFieldData;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.index.fielddata.fieldcomparator.LongValuesComparatorSource;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.MultiValueMode;
+import org.elasticsearch.search.lookup.SearchLookup;
+import org.elasticsearch.xpack.runtimefields.LongScriptFieldScript;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Field data for runtime fields whose script emits longs. It is an {@link IndexNumericFieldData}, so numeric aggregations and sorting
+ * treat it like any other long field.
+ */
+public final class ScriptLongFieldData extends AbstractScriptIndexFieldData<AtomicNumericFieldData> implements IndexNumericFieldData {
+
+    public static class Builder extends AbstractScriptIndexFieldData.Builder<ScriptLongFieldData> {
+        private final Script script;
+        private final LongScriptFieldScript.Factory scriptFactory;
+
+        public Builder(Script script, LongScriptFieldScript.Factory scriptFactory) {
+            this.script = script;
+            this.scriptFactory = scriptFactory;
+        }
+
+        @Override
+        protected ScriptLongFieldData build(Index index, String fieldName, Supplier<SearchLookup> searchLookup) {
+            return new ScriptLongFieldData(index, fieldName, script, scriptFactory, searchLookup);
+        }
+    }
+
+    private final LongScriptFieldScript.Factory scriptFactory;
+
+    private ScriptLongFieldData(Index index, String fieldName, Script script, LongScriptFieldScript.Factory scriptFactory,
+                                Supplier<SearchLookup> searchLookup) {
+        super(index, fieldName, script, searchLookup);
+        this.scriptFactory = scriptFactory;
+    }
+
+    @Override
+    protected ScriptLongAtomicFieldData loadScriptValues(LeafReaderContext context, Script script, SearchLookup searchLookup)
+        throws IOException {
+        LongScriptFieldScript leafScript = scriptFactory.newFactory(script.getParams(), searchLookup).newInstance(context);
+        return new ScriptLongAtomicFieldData(new ScriptLongDocValues(leafScript));
+    }
+
+    @Override
+    public SortField sortField(Object missingValue, MultiValueMode sortMode, XFieldComparatorSource.Nested nested, boolean reverse) {
+        return new SortField(getFieldName(), new LongValuesComparatorSource(this, missingValue, sortMode, nested), reverse);
+    }
+
+    @Override
+    public NumericType getNumericType() {
+        return NumericType.LONG;
+    }
+
+    public static final class ScriptLongAtomicFieldData implements AtomicNumericFieldData {
+        private final ScriptLongDocValues docValues;
+
+        ScriptLongAtomicFieldData(ScriptLongDocValues docValues) {
+            this.docValues = docValues;
+        }
+
+        @Override
+        public SortedNumericDocValues getLongValues() {
+            return docValues;
+        }
+
+        @Override
+        public SortedNumericDoubleValues getDoubleValues() {
+            return FieldData.castToDouble(docValues);
+        }
+
+        @Override
+        public ScriptDocValues<?> getScriptValues() {
+            return new ScriptDocValues.Longs(getLongValues());
+        }
+
+        @Override
+        public SortedBinaryDocValues getBytesValues() {
+            return FieldData.toString(docValues);
+        }
+
+        @Override
+        public long ramBytesUsed() {
+            return 0;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
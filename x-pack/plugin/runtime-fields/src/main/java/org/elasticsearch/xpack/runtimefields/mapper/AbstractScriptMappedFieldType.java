@@ -0,0 +1,76 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.mapper;
+
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.xpack.runtimefields.query.ScriptFieldExistsQuery;
+
+import java.util.Objects;
+
+/**
+ * Base class for the field types of runtime fields. Nothing is indexed for these fields: every query and aggregation runs
+ * the {@link Script} against each candidate document.
+ */
+public abstract class AbstractScriptMappedFieldType extends MappedFieldType {
+    private final Script script;
+
+    AbstractScriptMappedFieldType(Script script) {
+        this.script = Objects.requireNonNull(script);
+        setIndexOptions(IndexOptions.NONE);
+        setTokenized(false);
+        setHasDocValues(false);
+        setOmitNorms(true);
+    }
+
+    AbstractScriptMappedFieldType(AbstractScriptMappedFieldType ref) {
+        super(ref);
+        this.script = ref.script;
+    }
+
+    /**
+     * The value of the {@code runtime_type} parameter that produced this field type.
+     */
+    abstract String runtimeType();
+
+    final Script script() {
+        return script;
+    }
+
+    @Override
+    public final String typeName() {
+        return RuntimeScriptFieldMapper.CONTENT_TYPE;
+    }
+
+    @Override
+    public final boolean isSearchable() {
+        return true;
+    }
+
+    @Override
+    public Query existsQuery(QueryShardContext context) {
+        IndexFieldData<?> fieldData = context.getForField(this);
+        return new ScriptFieldExistsQuery<>(script, name(), fieldData);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (super.equals(o) == false) {
+            return false;
+        }
+        AbstractScriptMappedFieldType other = (AbstractScriptMappedFieldType) o;
+        return script.equals(other.script);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), script);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.mapper;
+
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexableField;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.elasticsearch.index.mapper.FieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.Mapper;
+import org.elasticsearch.index.mapper.MapperParsingException;
+import org.elasticsearch.index.mapper.ParseContext;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptService;
+import org.elasticsearch.xpack.runtimefields.DoubleScriptFieldScript;
+import org.elasticsearch.xpack.runtimefields.LongScriptFieldScript;
+import org.elasticsearch.xpack.runtimefields.StringScriptFieldScript;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link FieldMapper} for fields whose values are computed by a script when they are searched or aggregated rather than
+ * when the document is indexed. Values for the field in the document itself are ignored: they stay in {@code _source}
+ * where the script can read them.
+ */
+public final class RuntimeScriptFieldMapper extends FieldMapper {
+
+    public static final String CONTENT_TYPE = "runtime_script";
+
+    public static class Builder extends FieldMapper.Builder<Builder, RuntimeScriptFieldMapper> {
+
+        public Builder(String name, AbstractScriptMappedFieldType fieldType) {
+            super(name, fieldType, fieldType);
+            builder = this;
+        }
+
+        @Override
+        protected boolean defaultDocValues(Version indexCreated) {
+            return false;
+        }
+
+        @Override
+        public RuntimeScriptFieldMapper build(BuilderContext context) {
+            setupFieldType(context);
+            return new RuntimeScriptFieldMapper(name, fieldType, defaultFieldType, context.indexSettings(),
+                multiFieldsBuilder.build(this, context), copyTo);
+        }
+    }
+
+    public static class TypeParser implements Mapper.TypeParser {
+        @Override
+        public Mapper.Builder<?, ?> parse(String name, Map<String, Object> node, ParserContext parserContext)
+            throws MapperParsingException {
+            Object runtimeType = node.remove("runtime_type");
+            if (runtimeType == null) {
+                throw new MapperParsingException("The [runtime_type] property must be specified for field [" + name + "].");
+            }
+            Object scriptNode = node.remove("script");
+            if (scriptNode == null) {
+                throw new MapperParsingException("The [script] property must be specified for field [" + name + "].");
+            }
+            Script script = parseScript(name, scriptNode);
+            ScriptService scriptService = parserContext.queryShardContextSupplier().get().getScriptService();
+            AbstractScriptMappedFieldType fieldType;
+            switch (runtimeType.toString()) {
+                case ScriptKeywordMappedFieldType.RUNTIME_TYPE:
+                    fieldType = new ScriptKeywordMappedFieldType(script, scriptService.compile(script, StringScriptFieldScript.CONTEXT));
+                    break;
+                case ScriptLongMappedFieldType.RUNTIME_TYPE:
+                    fieldType = new ScriptLongMappedFieldType(script, scriptService.compile(script, LongScriptFieldScript.CONTEXT));
+                    break;
+                case ScriptDoubleMappedFieldType.RUNTIME_TYPE:
+                    fieldType = new ScriptDoubleMappedFieldType(script, scriptService.compile(script, DoubleScriptFieldScript.CONTEXT));
+                    break;
+                default:
+                    throw new MapperParsingException("Unsupported [runtime_type] [" + runtimeType + "] for field [" + name
+                        + "]. Expected one of [" + ScriptKeywordMappedFieldType.RUNTIME_TYPE + ", " + ScriptLongMappedFieldType.RUNTIME_TYPE
+                        + ", " + ScriptDoubleMappedFieldType.RUNTIME_TYPE + "].");
+            }
+            return new Builder(name, fieldType);
+        }
+
+        private static Script parseScript(String name, Object scriptNode) {
+            if (scriptNode instanceof String) {
+                return new Script((String) scriptNode);
+            }
+            if (scriptNode instanceof Map == false) {
+                throw new MapperParsingException("The [script] property of field [" + name + "] must be a string or an object.");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> scriptMap = (Map<String, Object>) scriptNode;
+            try (XContentBuilder builder = XContentBuilder.builder(JsonXContent.jsonXContent).map(scriptMap);
+                 InputStream stream = BytesReference.bytes(builder).streamInput();
+                 XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+                     LoggingDeprecationHandler.INSTANCE, stream)) {
+                return Script.parse(parser);
+            } catch (IOException | IllegalArgumentException e) {
+                throw new MapperParsingException("Failed to parse the [script] property of field [" + name + "]", e);
+            }
+        }
+    }
+
+    private RuntimeScriptFieldMapper(String simpleName, MappedFieldType fieldType, MappedFieldType defaultFieldType,
+                                     Settings indexSettings, MultiFields multiFields, CopyTo copyTo) {
+        super(simpleName, fieldType, defaultFieldType, indexSettings, multiFields, copyTo);
+        assert fieldType.indexOptions() == IndexOptions.NONE;
+    }
+
+    @Override
+    protected RuntimeScriptFieldMapper clone() {
+        return (RuntimeScriptFieldMapper) super.clone();
+    }
+
+    @Override
+    public AbstractScriptMappedFieldType fieldType() {
+        return (AbstractScriptMappedFieldType) super.fieldType();
+    }
+
+    @Override
+    public void parse(ParseContext context) throws IOException {
+        // Runtime fields are computed at search time so we just skip whatever the document has for them
+        if (context.parser().currentToken().isValue() == false) {
+            context.parser().skipChildren();
+        }
+    }
+
+    @Override
+    protected void parseCreateField(ParseContext context, List<IndexableField> fields) {
+        throw new AssertionError("parse is implemented directly");
+    }
+
+    @Override
+    protected void doXContentBody(XContentBuilder builder, boolean includeDefaults, Params params) throws IOException {
+        super.doXContentBody(builder, includeDefaults, params);
+        builder.field("runtime_type", fieldType().runtimeType());
+        builder.field("script", fieldType().script());
+    }
+
+    @Override
+    protected String contentType() {
+        return CONTENT_TYPE;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.mapper;
+
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PointRangeQuery;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.common.geo.ShapeRelation;
+import org.elasticsearch.common.time.DateMathParser;
+import org.elasticsearch.index.mapper.NumberFieldMapper.NumberType;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.xpack.runtimefields.DoubleScriptFieldScript;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptDoubleFieldData;
+import org.elasticsearch.xpack.runtimefields.query.DoubleScriptFieldRangeQuery;
+import org.elasticsearch.xpack.runtimefields.query.DoubleScriptFieldTermsQuery;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Field type for runtime fields with {@code "runtime_type": "double"}.
+ */
+final class ScriptDoubleMappedFieldType extends AbstractScriptMappedFieldType {
+    static final String RUNTIME_TYPE = "double";
+
+    private final DoubleScriptFieldScript.Factory scriptFactory;
+
+    ScriptDoubleMappedFieldType(Script script, DoubleScriptFieldScript.Factory scriptFactory) {
+        super(script);
+        this.scriptFactory = scriptFactory;
+    }
+
+    private ScriptDoubleMappedFieldType(ScriptDoubleMappedFieldType ref) {
+        super(ref);
+        this.scriptFactory = ref.scriptFactory;
+    }
+
+    @Override
+    public ScriptDoubleMappedFieldType clone() {
+        return new ScriptDoubleMappedFieldType(this);
+    }
+
+    @Override
+    String runtimeType() {
+        return RUNTIME_TYPE;
+    }
+
+    @Override
+    public ScriptDoubleFieldData.Builder fielddataBuilder(String fullyQualifiedIndexName) {
+        return new ScriptDoubleFieldData.Builder(script(), scriptFactory);
+    }
+
+    @Override
+    public DocValueFormat docValueFormat(String format, ZoneId timeZone) {
+        if (timeZone != null) {
+            throw new IllegalArgumentException("Field [" + name() + "] of type [" + typeName() + "] does not support custom time zones");
+        }
+        if (format == null) {
+            return DocValueFormat.RAW;
+        }
+        return new DocValueFormat.Decimal(format);
+    }
+
+    private ScriptDoubleFieldData fieldData(QueryShardContext context) {
+        return (ScriptDoubleFieldData) context.getForField(this);
+    }
+
+    @Override
+    public Query termQuery(Object value, QueryShardContext context) {
+        double term = NumberType.DOUBLE.parse(value, false).doubleValue();
+        return new DoubleScriptFieldTermsQuery(script(), name(), fieldData(context), new double[] {term});
+    }
+
+    @Override
+    public Query termsQuery(List<?> values, QueryShardContext context) {
+        double[] terms = values.stream().mapToDouble(v -> NumberType.DOUBLE.parse(v, false).doubleValue()).sorted().distinct().toArray();
+        return new DoubleScriptFieldTermsQuery(script(), name(), fieldData(context), terms);
+    }
+
+    @Override
+    public Query rangeQuery(Object lowerTerm, Object upperTerm, boolean includeLower, boolean includeUpper,
+                            ShapeRelation relation, ZoneId timeZone, DateMathParser parser, QueryShardContext context) {
+        // Borrow the bound handling of the indexed double field so exclusive bounds step to the adjacent double the same way
+        Query query = NumberType.DOUBLE.rangeQuery(name(), lowerTerm, upperTerm, includeLower, includeUpper, false);
+        PointRangeQuery pointQuery = (PointRangeQuery) query;
+        double lower = DoublePoint.decodeDimension(pointQuery.getLowerPoint(), 0);
+        double upper = DoublePoint.decodeDimension(pointQuery.getUpperPoint(), 0);
+        if (lower > upper) {
+            return new MatchNoDocsQuery("range on [" + name() + "] can't match any double");
+        }
+        return new DoubleScriptFieldRangeQuery(script(), name(), fieldData(context), lower, upper);
+    }
+}
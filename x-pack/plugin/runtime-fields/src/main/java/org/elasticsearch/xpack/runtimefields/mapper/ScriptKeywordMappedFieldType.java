@@ -0,0 +1,94 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.mapper;
+
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.geo.ShapeRelation;
+import org.elasticsearch.common.lucene.BytesRefs;
+import org.elasticsearch.common.time.DateMathParser;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.xpack.runtimefields.StringScriptFieldScript;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptBinaryFieldData;
+import org.elasticsearch.xpack.runtimefields.query.StringScriptFieldRangeQuery;
+import org.elasticsearch.xpack.runtimefields.query.StringScriptFieldTermsQuery;
+
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Field type for runtime fields with {@code "runtime_type": "keyword"}.
+ */
+final class ScriptKeywordMappedFieldType extends AbstractScriptMappedFieldType {
+    static final String RUNTIME_TYPE = "keyword";
+
+    private final StringScriptFieldScript.Factory scriptFactory;
+
+    ScriptKeywordMappedFieldType(Script script, StringScriptFieldScript.Factory scriptFactory) {
+        super(script);
+        this.scriptFactory = scriptFactory;
+    }
+
+    private ScriptKeywordMappedFieldType(ScriptKeywordMappedFieldType ref) {
+        super(ref);
+        this.scriptFactory = ref.scriptFactory;
+    }
+
+    @Override
+    public ScriptKeywordMappedFieldType clone() {
+        return new ScriptKeywordMappedFieldType(this);
+    }
+
+    @Override
+    String runtimeType() {
+        return RUNTIME_TYPE;
+    }
+
+    @Override
+    public ScriptBinaryFieldData.Builder fielddataBuilder(String fullyQualifiedIndexName) {
+        return new ScriptBinaryFieldData.Builder(script(), scriptFactory);
+    }
+
+    @Override
+    public Object valueForDisplay(Object value) {
+        if (value == null) {
+            return null;
+        }
+        // keywords are internally stored as utf8 bytes
+        BytesRef binaryValue = (BytesRef) value;
+        return binaryValue.utf8ToString();
+    }
+
+    private ScriptBinaryFieldData fieldData(QueryShardContext context) {
+        return (ScriptBinaryFieldData) context.getForField(this);
+    }
+
+    @Override
+    public Query termQuery(Object value, QueryShardContext context) {
+        return new StringScriptFieldTermsQuery(script(), name(), fieldData(context), Set.of(BytesRefs.toBytesRef(value)));
+    }
+
+    @Override
+    public Query termsQuery(List<?> values, QueryShardContext context) {
+        Set<BytesRef> terms = new HashSet<>(values.size());
+        for (Object value : values) {
+            terms.add(BytesRefs.toBytesRef(value));
+        }
+        return new StringScriptFieldTermsQuery(script(), name(), fieldData(context), terms);
+    }
+
+    @Override
+    public Query rangeQuery(Object lowerTerm, Object upperTerm, boolean includeLower, boolean includeUpper,
+                            ShapeRelation relation, ZoneId timeZone, DateMathParser parser, QueryShardContext context) {
+        return new StringScriptFieldRangeQuery(script(), name(), fieldData(context),
+            lowerTerm == null ? null : BytesRefs.toBytesRef(lowerTerm),
+            upperTerm == null ? null : BytesRefs.toBytesRef(upperTerm),
+            includeLower, includeUpper);
+    }
+}
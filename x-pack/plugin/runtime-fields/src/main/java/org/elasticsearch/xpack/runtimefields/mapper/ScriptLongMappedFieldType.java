@@ -0,0 +1,132 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.mapper;
+
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PointRangeQuery;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.common.geo.ShapeRelation;
+import org.elasticsearch.common.time.DateMathParser;
+import org.elasticsearch.index.mapper.NumberFieldMapper.NumberType;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.xpack.runtimefields.LongScriptFieldScript;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptLongFieldData;
+import org.elasticsearch.xpack.runtimefields.query.LongScriptFieldRangeQuery;
+import org.elasticsearch.xpack.runtimefields.query.LongScriptFieldTermsQuery;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Field type for runtime fields with {@code "runtime_type": "long"}.
+ */
+final class ScriptLongMappedFieldType extends AbstractScriptMappedFieldType {
+    static final String RUNTIME_TYPE = "long";
+
+    private final LongScriptFieldScript.Factory scriptFactory;
+
+    ScriptLongMappedFieldType(Script script, LongScriptFieldScript.Factory scriptFactory) {
+        super(script);
+        this.scriptFactory = scriptFactory;
+    }
+
+    private ScriptLongMappedFieldType(ScriptLongMappedFieldType ref) {
+        super(ref);
+        this.scriptFactory = ref.scriptFactory;
+    }
+
+    @Override
+    public ScriptLongMappedFieldType clone() {
+        return new ScriptLongMappedFieldType(this);
+    }
+
+    @Override
+    String runtimeType() {
+        return RUNTIME_TYPE;
+    }
+
+    @Override
+    public ScriptLongFieldData.Builder fielddataBuilder(String fullyQualifiedIndexName) {
+        return new ScriptLongFieldData.Builder(script(), scriptFactory);
+    }
+
+    @Override
+    public DocValueFormat docValueFormat(String format, ZoneId timeZone) {
+        if (timeZone != null) {
+            throw new IllegalArgumentException("Field [" + name() + "] of type [" + typeName() + "] does not support custom time zones");
+        }
+        if (format == null) {
+            return DocValueFormat.RAW;
+        }
+        return new DocValueFormat.Decimal(format);
+    }
+
+    private ScriptLongFieldData fieldData(QueryShardContext context) {
+        return (ScriptLongFieldData) context.getForField(this);
+    }
+
+    @Override
+    public Query termQuery(Object value, QueryShardContext context) {
+        return rangeQuery(value, value, true, true, null, null, null, context);
+    }
+
+    @Override
+    public Query termsQuery(List<?> values, QueryShardContext context) {
+        long[] terms = new long[values.size()];
+        int count = 0;
+        for (Object value : values) {
+            long[] bounds = bounds(value, value, true, true);
+            if (bounds != null) {
+                terms[count++] = bounds[0];
+            }
+        }
+        if (count == 0) {
+            return new MatchNoDocsQuery("no terms can match [" + name() + "]");
+        }
+        terms = Arrays.copyOf(terms, count);
+        Arrays.sort(terms);
+        int unique = 1;
+        for (int i = 1; i < terms.length; i++) {
+            if (terms[i] != terms[unique - 1]) {
+                terms[unique++] = terms[i];
+            }
+        }
+        return new LongScriptFieldTermsQuery(script(), name(), fieldData(context), Arrays.copyOf(terms, unique));
+    }
+
+    @Override
+    public Query rangeQuery(Object lowerTerm, Object upperTerm, boolean includeLower, boolean includeUpper,
+                            ShapeRelation relation, ZoneId timeZone, DateMathParser parser, QueryShardContext context) {
+        long[] bounds = bounds(lowerTerm, upperTerm, includeLower, includeUpper);
+        if (bounds == null) {
+            return new MatchNoDocsQuery("range on [" + name() + "] can't match any long");
+        }
+        return new LongScriptFieldRangeQuery(script(), name(), fieldData(context), bounds[0], bounds[1]);
+    }
+
+    /**
+     * Resolve the bounds to an inclusive range of longs, or {@code null} if no long can match. We borrow the rounding rules
+     * of the indexed {@code long} field so runtime fields interpret things like {@code gt: 1.5} exactly the same way.
+     */
+    private long[] bounds(Object lowerTerm, Object upperTerm, boolean includeLower, boolean includeUpper) {
+        Query query = NumberType.LONG.rangeQuery(name(), lowerTerm, upperTerm, includeLower, includeUpper, false);
+        if (query instanceof PointRangeQuery == false) {
+            assert query instanceof MatchNoDocsQuery : query;
+            return null;
+        }
+        PointRangeQuery pointQuery = (PointRangeQuery) query;
+        long lower = LongPoint.decodeDimension(pointQuery.getLowerPoint(), 0);
+        long upper = LongPoint.decodeDimension(pointQuery.getUpperPoint(), 0);
+        if (lower > upper) {
+            return null;
+        }
+        return new long[] {lower, upper};
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.query;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.ConstantScoreScorer;
+import org.apache.lucene.search.ConstantScoreWeight;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TwoPhaseIterator;
+import org.apache.lucene.search.Weight;
+import org.elasticsearch.index.fielddata.AtomicFieldData;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.script.Script;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Abstract base class for queries on runtime fields. There is no index to look values up in, so these queries visit every document of
+ * the segment and run the field's script on it; they should be combined with selective queries on indexed fields where possible.
+ */
+public abstract class AbstractScriptFieldQuery<FD extends AtomicFieldData> extends Query {
+
+    /**
+     * We don't have the infrastructure to estimate the match cost of a script so we just use a big number.
+     */
+    protected static final float MATCH_COST = 9000f;
+
+    private final Script script;
+    private final String fieldName;
+    private final IndexFieldData<FD> fieldData;
+
+    protected AbstractScriptFieldQuery(Script script, String fieldName, IndexFieldData<FD> fieldData) {
+        this.script = Objects.requireNonNull(script);
+        this.fieldName = Objects.requireNonNull(fieldName);
+        this.fieldData = Objects.requireNonNull(fieldData);
+    }
+
+    /**
+     * Matches documents of a single segment.
+     */
+    @FunctionalInterface
+    protected interface DocMatcher {
+        boolean matches(int docId) throws IOException;
+    }
+
+    /**
+     * Build the matcher for the values of a segment.
+     */
+    protected abstract DocMatcher matcher(FD leafFieldData);
+
+    protected final Script script() {
+        return script;
+    }
+
+    protected final String fieldName() {
+        return fieldName;
+    }
+
+    @Override
+    public final Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+        return new ConstantScoreWeight(this, boost) {
+            @Override
+            public boolean isCacheable(LeafReaderContext ctx) {
+                return false; // scripts aren't guaranteed to be deterministic
+            }
+
+            @Override
+            public Scorer scorer(LeafReaderContext ctx) throws IOException {
+                final DocMatcher matcher = matcher(fieldData.load(ctx));
+                final DocIdSetIterator approximation = DocIdSetIterator.all(ctx.reader().maxDoc());
+                final TwoPhaseIterator twoPhase = new TwoPhaseIterator(approximation) {
+                    @Override
+                    public boolean matches() throws IOException {
+                        return matcher.matches(approximation.docID());
+                    }
+
+                    @Override
+                    public float matchCost() {
+                        return MATCH_COST;
+                    }
+                };
+                return new ConstantScoreScorer(this, score(), scoreMode, twoPhase);
+            }
+        };
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        if (visitor.acceptField(fieldName)) {
+            visitor.visitLeaf(this);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), script, fieldName);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (sameClassAs(obj) == false) {
+            return false;
+        }
+        AbstractScriptFieldQuery<?> other = (AbstractScriptFieldQuery<?>) obj;
+        return script.equals(other.script) && fieldName.equals(other.fieldName);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.query;
+
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.index.fielddata.AtomicNumericFieldData;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptDoubleFieldData;
+
+import java.util.Objects;
+
+/**
+ * Matches documents with at least one value between {@code lowerValue} and {@code upperValue}, both inclusive.
+ */
+public class DoubleScriptFieldRangeQuery extends AbstractScriptFieldQuery<AtomicNumericFieldData> {
+    private final double lowerValue;
+    private final double upperValue;
+
+    public DoubleScriptFieldRangeQuery(Script script, String fieldName, ScriptDoubleFieldData fieldData,
+                                        double lowerValue, double upperValue) {
+        super(script, fieldName, fieldData);
+        this.lowerValue = lowerValue;
+        this.upperValue = upperValue;
+        assert lowerValue <= upperValue;
+    }
+
+    @Override
+    protected DocMatcher matcher(AtomicNumericFieldData leafFieldData) {
+        final SortedNumericDoubleValues values = leafFieldData.getDoubleValues();
+        return docId -> {
+            if (values.advanceExact(docId)) {
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    double value = values.nextValue();
+                    if (value > upperValue) {
+                        // values are sorted, none of the remaining ones can match
+                        return false;
+                    }
+                    if (value >= lowerValue) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public String toString(String field) {
+        StringBuilder b = new StringBuilder();
+        if (false == fieldName().equals(field)) {
+            b.append(fieldName()).append(':');
+        }
+        b.append('[').append(lowerValue).append(" TO ").append(upperValue).append(']');
+        return b.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), lowerValue, upperValue);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (false == super.equals(obj)) {
+            return false;
+        }
+        DoubleScriptFieldRangeQuery other = (DoubleScriptFieldRangeQuery) obj;
+        return Double.compare(lowerValue, other.lowerValue) == 0 && Double.compare(upperValue, other.upperValue) == 0;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.query;
+
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.index.fielddata.AtomicNumericFieldData;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptDoubleFieldData;
+
+import java.util.Arrays;
+
+public class DoubleScriptFieldTermsQuery extends AbstractScriptFieldQuery<AtomicNumericFieldData> {
+    private final double[] terms;
+
+    /**
+     * Build the query.
+     * @param terms the values to match, sorted and without duplicates
+     */
+    public DoubleScriptFieldTermsQuery(Script script, String fieldName, ScriptDoubleFieldData fieldData, double[] terms) {
+        super(script, fieldName, fieldData);
+        this.terms = terms;
+    }
+
+    @Override
+    protected DocMatcher matcher(AtomicNumericFieldData leafFieldData) {
+        final SortedNumericDoubleValues values = leafFieldData.getDoubleValues();
+        return docId -> {
+            if (values.advanceExact(docId)) {
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    if (Arrays.binarySearch(terms, values.nextValue()) >= 0) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public String toString(String field) {
+        if (fieldName().equals(field)) {
+            return Arrays.toString(terms);
+        }
+        return fieldName() + ":" + Arrays.toString(terms);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Arrays.hashCode(terms);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (false == super.equals(obj)) {
+            return false;
+        }
+        DoubleScriptFieldTermsQuery other = (DoubleScriptFieldTermsQuery) obj;
+        return Arrays.equals(terms, other.terms);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.query;
+
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.elasticsearch.index.fielddata.AtomicNumericFieldData;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptLongFieldData;
+
+import java.util.Objects;
+
+/**
+ * Matches documents with at least one value between {@code lowerValue} and {@code upperValue}, both inclusive.
+ */
+public class LongScriptFieldRangeQuery extends AbstractScriptFieldQuery<AtomicNumericFieldData> {
+    private final long lowerValue;
+    private final long upperValue;
+
+    public LongScriptFieldRangeQuery(Script script, String fieldName, ScriptLongFieldData fieldData,
+                                      long lowerValue, long upperValue) {
+        super(script, fieldName, fieldData);
+        this.lowerValue = lowerValue;
+        this.upperValue = upperValue;
+        assert lowerValue <= upperValue;
+    }
+
+    @Override
+    protected DocMatcher matcher(AtomicNumericFieldData leafFieldData) {
+        final SortedNumericDocValues values = leafFieldData.getLongValues();
+        return docId -> {
+            if (values.advanceExact(docId)) {
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    long value = values.nextValue();
+                    if (value > upperValue) {
+                        // values are sorted, none of the remaining ones can match
+                        return false;
+                    }
+                    if (value >= lowerValue) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public String toString(String field) {
+        StringBuilder b = new StringBuilder();
+        if (false == fieldName().equals(field)) {
+            b.append(fieldName()).append(':');
+        }
+        b.append('[').append(lowerValue).append(" TO ").append(upperValue).append(']');
+        return b.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), lowerValue, upperValue);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (false == super.equals(obj)) {
+            return false;
+        }
+        LongScriptFieldRangeQuery other = (LongScriptFieldRangeQuery) obj;
+        return Long.compare(lowerValue, other.lowerValue) == 0 && Long.compare(upperValue, other.upperValue) == 0;
+    }
+}
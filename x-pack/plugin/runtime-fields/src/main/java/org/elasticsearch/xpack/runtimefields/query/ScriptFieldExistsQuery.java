@@ -0,0 +1,36 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.query;
+
+import org.elasticsearch.index.fielddata.AtomicFieldData;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
+import org.elasticsearch.script.Script;
+
+/**
+ * Matches documents for which the script of a runtime field emits at least one value.
+ */
+public class ScriptFieldExistsQuery<FD extends AtomicFieldData> extends AbstractScriptFieldQuery<FD> {
+
+    public ScriptFieldExistsQuery(Script script, String fieldName, IndexFieldData<FD> fieldData) {
+        super(script, fieldName, fieldData);
+    }
+
+    @Override
+    protected DocMatcher matcher(FD leafFieldData) {
+        // the string view of numeric values only converts values that are read, so this never formats anything
+        final SortedBinaryDocValues values = leafFieldData.getBytesValues();
+        return values::advanceExact;
+    }
+
+    @Override
+    public String toString(String field) {
+        if (fieldName().equals(field)) {
+            return "*";
+        }
+        return fieldName() + ":*";
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.query;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptBinaryFieldData;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptBinaryFieldData.ScriptBinaryAtomicFieldData;
+
+import java.util.Objects;
+
+public class StringScriptFieldRangeQuery extends AbstractScriptFieldQuery<ScriptBinaryAtomicFieldData> {
+    private final BytesRef lowerValue;
+    private final BytesRef upperValue;
+    private final boolean includeLower;
+    private final boolean includeUpper;
+
+    /**
+     * Build the query. A {@code null} bound means that the range is unbounded on that side.
+     */
+    public StringScriptFieldRangeQuery(Script script, String fieldName, ScriptBinaryFieldData fieldData, BytesRef lowerValue,
+                                       BytesRef upperValue, boolean includeLower, boolean includeUpper) {
+        super(script, fieldName, fieldData);
+        this.lowerValue = lowerValue;
+        this.upperValue = upperValue;
+        this.includeLower = includeLower;
+        this.includeUpper = includeUpper;
+    }
+
+    @Override
+    protected DocMatcher matcher(ScriptBinaryAtomicFieldData leafFieldData) {
+        final SortedBinaryDocValues values = leafFieldData.getBytesValues();
+        return docId -> {
+            if (values.advanceExact(docId)) {
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    if (matches(values.nextValue())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        };
+    }
+
+    private boolean matches(BytesRef value) {
+        if (lowerValue != null) {
+            int cmp = lowerValue.compareTo(value);
+            if (cmp > 0 || (cmp == 0 && includeLower == false)) {
+                return false;
+            }
+        }
+        if (upperValue != null) {
+            int cmp = upperValue.compareTo(value);
+            if (cmp < 0 || (cmp == 0 && includeUpper == false)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString(String field) {
+        StringBuilder b = new StringBuilder();
+        if (false == fieldName().equals(field)) {
+            b.append(fieldName()).append(':');
+        }
+        b.append(includeLower ? '[' : '{');
+        b.append(lowerValue == null ? "*" : lowerValue.utf8ToString()).append(" TO ");
+        b.append(upperValue == null ? "*" : upperValue.utf8ToString());
+        b.append(includeUpper ? ']' : '}');
+        return b.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), lowerValue, upperValue, includeLower, includeUpper);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (false == super.equals(obj)) {
+            return false;
+        }
+        StringScriptFieldRangeQuery other = (StringScriptFieldRangeQuery) obj;
+        return Objects.equals(lowerValue, other.lowerValue) && Objects.equals(upperValue, other.upperValue)
+            && includeLower == other.includeLower && includeUpper == other.includeUpper;
+    }
+}
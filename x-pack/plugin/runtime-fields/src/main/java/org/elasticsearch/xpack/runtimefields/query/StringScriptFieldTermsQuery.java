@@ -0,0 +1,61 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.query;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptBinaryFieldData;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptBinaryFieldData.ScriptBinaryAtomicFieldData;
+
+import java.util.Objects;
+import java.util.Set;
+
+public class StringScriptFieldTermsQuery extends AbstractScriptFieldQuery<ScriptBinaryAtomicFieldData> {
+    private final Set<BytesRef> terms;
+
+    public StringScriptFieldTermsQuery(Script script, String fieldName, ScriptBinaryFieldData fieldData, Set<BytesRef> terms) {
+        super(script, fieldName, fieldData);
+        this.terms = terms;
+    }
+
+    @Override
+    protected DocMatcher matcher(ScriptBinaryAtomicFieldData leafFieldData) {
+        final SortedBinaryDocValues values = leafFieldData.getBytesValues();
+        return docId -> {
+            if (values.advanceExact(docId)) {
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    if (terms.contains(values.nextValue())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public String toString(String field) {
+        if (fieldName().equals(field)) {
+            return terms.toString();
+        }
+        return fieldName() + ":" + terms;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), terms);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (false == super.equals(obj)) {
+            return false;
+        }
+        StringScriptFieldTermsQuery other = (StringScriptFieldTermsQuery) obj;
+        return terms.equals(other.terms);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.mapper;
+
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.SourceFieldMapper;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.search.lookup.SourceLookup;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.IndexSettingsModule;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Base class for tests of the field types of runtime fields that index documents and run the field's script on them.
+ */
+abstract class AbstractScriptMappedFieldTypeTestCase extends ESTestCase {
+
+    protected static final String FIELD = "test";
+
+    protected static IndexSettings indexSettings() {
+        return IndexSettingsModule.newIndexSettings("test", Settings.EMPTY);
+    }
+
+    protected static QueryShardContext context(MappedFieldType fieldType, IndexFieldData<?> fieldData) {
+        QueryShardContext context = mock(QueryShardContext.class);
+        doReturn(fieldData).when(context).getForField(fieldType);
+        return context;
+    }
+
+    /**
+     * The values of the {@code foo} field in the source of the document the script runs on.
+     */
+    protected static List<?> sourceValues(Map<String, Object> params) {
+        Object value = ((SourceLookup) params.get("_source")).get("foo");
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        return value instanceof List ? (List<?>) value : Collections.singletonList(value);
+    }
+
+    /**
+     * Indexes documents that only have a {@code _source}, like documents whose fields are all runtime fields. Documents keep
+     * the order they were indexed in.
+     */
+    protected static void withIndex(List<String> sources, CheckedConsumer<IndexSearcher, IOException> test) throws IOException {
+        try (Directory directory = newDirectory();
+             RandomIndexWriter iw = new RandomIndexWriter(random(), directory,
+                 newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+            for (String source : sources) {
+                iw.addDocument(List.of(new StoredField(SourceFieldMapper.NAME, new BytesRef(source))));
+            }
+            try (DirectoryReader reader = iw.getReader()) {
+                test.accept(new IndexSearcher(reader));
+            }
+        }
+    }
+
+    /**
+     * The values of the field for every document of the index, in the order of the documents.
+     */
+    protected static List<List<?>> docValues(IndexSearcher searcher, IndexFieldData<?> fieldData) throws IOException {
+        List<List<?>> values = new ArrayList<>();
+        for (LeafReaderContext ctx : searcher.getIndexReader().leaves()) {
+            ScriptDocValues<?> docValues = fieldData.load(ctx).getScriptValues();
+            for (int docId = 0; docId < ctx.reader().maxDoc(); docId++) {
+                docValues.setNextDocId(docId);
+                values.add(new ArrayList<>(docValues));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * The sources of all documents of the index, sorted on the given sort field.
+     */
+    protected static List<String> sortedSources(IndexSearcher searcher, SortField sortField) throws IOException {
+        TopFieldDocs docs = searcher.search(new MatchAllDocsQuery(), searcher.getIndexReader().maxDoc(), new Sort(sortField));
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < docs.scoreDocs.length; i++) {
+            sources.add(searcher.doc(docs.scoreDocs[i].doc).getBinaryValue(SourceFieldMapper.NAME).utf8ToString());
+        }
+        return sources;
+    }
+}
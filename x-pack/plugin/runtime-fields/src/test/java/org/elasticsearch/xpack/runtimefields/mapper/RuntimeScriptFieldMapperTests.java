@@ -0,0 +1,130 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.mapper;
+
+import org.apache.lucene.index.IndexOptions;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.index.mapper.ContentPath;
+import org.elasticsearch.index.mapper.Mapper;
+import org.elasticsearch.index.mapper.MapperParsingException;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptService;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.runtimefields.DoubleScriptFieldScript;
+import org.elasticsearch.xpack.runtimefields.LongScriptFieldScript;
+import org.elasticsearch.xpack.runtimefields.StringScriptFieldScript;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RuntimeScriptFieldMapperTests extends ESTestCase {
+
+    private final LongScriptFieldScript.Factory longFactory = (params, searchLookup) -> ctx -> {
+        throw new UnsupportedOperationException();
+    };
+    private final DoubleScriptFieldScript.Factory doubleFactory = (params, searchLookup) -> ctx -> {
+        throw new UnsupportedOperationException();
+    };
+    private final StringScriptFieldScript.Factory stringFactory = (params, searchLookup) -> ctx -> {
+        throw new UnsupportedOperationException();
+    };
+
+    public void testParseLong() throws IOException {
+        RuntimeScriptFieldMapper mapper = parse(Map.of("runtime_type", "long", "script", "emitValue(1)"));
+        assertThat(mapper.fieldType(), instanceOf(ScriptLongMappedFieldType.class));
+        assertThat(mapper.fieldType().script(), equalTo(new Script("emitValue(1)")));
+        assertThat(mapper.fieldType().indexOptions(), equalTo(IndexOptions.NONE));
+        assertThat(mapper.fieldType().hasDocValues(), equalTo(false));
+        String xContent = toXContent(mapper);
+        assertThat(xContent, containsString("\"type\":\"runtime_script\""));
+        assertThat(xContent, containsString("\"runtime_type\":\"long\""));
+        assertThat(xContent, containsString("\"script\":{\"source\":\"emitValue(1)\",\"lang\":\"painless\"}"));
+    }
+
+    public void testParseDouble() throws IOException {
+        RuntimeScriptFieldMapper mapper = parse(Map.of("runtime_type", "double", "script", "emitValue(1.0)"));
+        assertThat(mapper.fieldType(), instanceOf(ScriptDoubleMappedFieldType.class));
+        assertThat(toXContent(mapper), containsString("\"runtime_type\":\"double\""));
+    }
+
+    public void testParseKeyword() throws IOException {
+        RuntimeScriptFieldMapper mapper = parse(Map.of("runtime_type", "keyword", "script", "emitValue('a')"));
+        assertThat(mapper.fieldType(), instanceOf(ScriptKeywordMappedFieldType.class));
+        assertThat(toXContent(mapper), containsString("\"runtime_type\":\"keyword\""));
+    }
+
+    public void testParseScriptObject() throws IOException {
+        Map<String, Object> script = Map.of("source", "emitValue(params.value)", "params", Map.of("value", 1));
+        RuntimeScriptFieldMapper mapper = parse(Map.of("runtime_type", "long", "script", script));
+        assertThat(mapper.fieldType().script(), equalTo(new Script(Script.DEFAULT_SCRIPT_TYPE, Script.DEFAULT_SCRIPT_LANG,
+            "emitValue(params.value)", Map.of("value", 1))));
+    }
+
+    public void testMissingRuntimeType() {
+        MapperParsingException e = expectThrows(MapperParsingException.class, () -> parse(Map.of("script", "emitValue(1)")));
+        assertThat(e.getMessage(), equalTo("The [runtime_type] property must be specified for field [field]."));
+    }
+
+    public void testMissingScript() {
+        MapperParsingException e = expectThrows(MapperParsingException.class, () -> parse(Map.of("runtime_type", "long")));
+        assertThat(e.getMessage(), equalTo("The [script] property must be specified for field [field]."));
+    }
+
+    public void testUnsupportedRuntimeType() {
+        MapperParsingException e = expectThrows(MapperParsingException.class,
+            () -> parse(Map.of("runtime_type", "date", "script", "emitValue(1)")));
+        assertThat(e.getMessage(),
+            equalTo("Unsupported [runtime_type] [date] for field [field]. Expected one of [keyword, long, double]."));
+    }
+
+    public void testInvalidScript() {
+        MapperParsingException e = expectThrows(MapperParsingException.class,
+            () -> parse(Map.of("runtime_type", "long", "script", 1)));
+        assertThat(e.getMessage(), equalTo("The [script] property of field [field] must be a string or an object."));
+        e = expectThrows(MapperParsingException.class,
+            () -> parse(Map.of("runtime_type", "long", "script", Map.of("unknown", "emitValue(1)"))));
+        assertThat(e.getMessage(), equalTo("Failed to parse the [script] property of field [field]"));
+    }
+
+    private RuntimeScriptFieldMapper parse(Map<String, Object> mapping) {
+        ScriptService scriptService = mock(ScriptService.class);
+        when(scriptService.compile(any(Script.class), eq(LongScriptFieldScript.CONTEXT))).thenReturn(longFactory);
+        when(scriptService.compile(any(Script.class), eq(DoubleScriptFieldScript.CONTEXT))).thenReturn(doubleFactory);
+        when(scriptService.compile(any(Script.class), eq(StringScriptFieldScript.CONTEXT))).thenReturn(stringFactory);
+        QueryShardContext queryShardContext = mock(QueryShardContext.class);
+        when(queryShardContext.getScriptService()).thenReturn(scriptService);
+        Mapper.TypeParser.ParserContext parserContext = mock(Mapper.TypeParser.ParserContext.class);
+        when(parserContext.queryShardContextSupplier()).thenReturn(() -> queryShardContext);
+
+        Map<String, Object> node = new HashMap<>(mapping);
+        Mapper.Builder<?, ?> builder = new RuntimeScriptFieldMapper.TypeParser().parse("field", node, parserContext);
+        assertThat("all properties should have been consumed", node.isEmpty(), equalTo(true));
+        Settings settings = Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT).build();
+        return (RuntimeScriptFieldMapper) builder.build(new Mapper.BuilderContext(settings, new ContentPath()));
+    }
+
+    private static String toXContent(RuntimeScriptFieldMapper mapper) throws IOException {
+        XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
+        mapper.toXContent(builder, ToXContent.EMPTY_PARAMS);
+        return Strings.toString(builder.endObject());
+    }
+}
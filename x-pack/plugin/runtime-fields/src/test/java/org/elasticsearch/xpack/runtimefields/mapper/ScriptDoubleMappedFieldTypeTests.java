@@ -0,0 +1,101 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.mapper;
+
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.MultiValueMode;
+import org.elasticsearch.xpack.runtimefields.DoubleScriptFieldScript;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptDoubleFieldData;
+import org.elasticsearch.xpack.runtimefields.query.DoubleScriptFieldRangeQuery;
+import org.elasticsearch.xpack.runtimefields.query.DoubleScriptFieldTermsQuery;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class ScriptDoubleMappedFieldTypeTests extends AbstractScriptMappedFieldTypeTestCase {
+    private final Script script = new Script("emitValue(1.0)");
+
+    public void testTermQuery() {
+        ScriptDoubleMappedFieldType fieldType = fieldType();
+        QueryShardContext context = context(fieldType);
+        ScriptDoubleFieldData fieldData = context.getForField(fieldType);
+        assertThat(fieldType.termQuery("1.5", context), equalTo(new DoubleScriptFieldTermsQuery(script, FIELD, fieldData,
+            new double[] {1.5})));
+        assertThat(fieldType.termsQuery(List.of(3, "1.5", 3.0), context), equalTo(new DoubleScriptFieldTermsQuery(script, FIELD,
+            fieldData, new double[] {1.5, 3})));
+    }
+
+    public void testRangeQuery() {
+        ScriptDoubleMappedFieldType fieldType = fieldType();
+        QueryShardContext context = context(fieldType);
+        ScriptDoubleFieldData fieldData = context.getForField(fieldType);
+        assertThat(
+            fieldType.rangeQuery(1, 4, true, true, null, null, null, context),
+            equalTo(new DoubleScriptFieldRangeQuery(script, FIELD, fieldData, 1, 4))
+        );
+        assertThat(
+            fieldType.rangeQuery(1, null, false, true, null, null, null, context),
+            equalTo(new DoubleScriptFieldRangeQuery(script, FIELD, fieldData, Math.nextUp(1.0), Double.POSITIVE_INFINITY))
+        );
+    }
+
+    public void testDocValues() throws IOException {
+        ScriptDoubleMappedFieldType fieldType = fieldType();
+        withIndex(List.of("{\"foo\": [2.5, 1]}", "{\"foo\": 3.5}", "{}"), searcher -> {
+            ScriptDoubleFieldData fieldData = context(fieldType).getForField(fieldType);
+            assertThat(docValues(searcher, fieldData), equalTo(List.of(List.of(1.0, 2.5), List.of(3.5), List.of())));
+        });
+    }
+
+    public void testSort() throws IOException {
+        ScriptDoubleMappedFieldType fieldType = fieldType();
+        withIndex(List.of("{\"foo\": [4.5, 0.5]}", "{\"foo\": 1.5}", "{\"foo\": 2.5}"), searcher -> {
+            ScriptDoubleFieldData fieldData = context(fieldType).getForField(fieldType);
+            assertThat(
+                sortedSources(searcher, fieldData.sortField(null, MultiValueMode.MAX, null, true)),
+                equalTo(List.of("{\"foo\": [4.5, 0.5]}", "{\"foo\": 2.5}", "{\"foo\": 1.5}"))
+            );
+        });
+    }
+
+    public void testQueries() throws IOException {
+        ScriptDoubleMappedFieldType fieldType = fieldType();
+        withIndex(List.of("{\"foo\": [1.5, 5]}", "{\"foo\": 2.5}", "{\"foo\": 3}", "{}"), searcher -> {
+            QueryShardContext context = context(fieldType);
+            assertThat(searcher.count(fieldType.termQuery(1.5, context)), equalTo(1));
+            assertThat(searcher.count(fieldType.termQuery(1, context)), equalTo(0));
+            assertThat(searcher.count(fieldType.termsQuery(List.of(2.5, 3, 4), context)), equalTo(2));
+            assertThat(searcher.count(fieldType.rangeQuery(2, 5, true, false, null, null, null, context)), equalTo(2));
+            assertThat(searcher.count(fieldType.rangeQuery(3, null, false, true, null, null, null, context)), equalTo(1));
+            assertThat(searcher.count(fieldType.existsQuery(context)), equalTo(3));
+        });
+    }
+
+    /**
+     * A field type whose script emits the values of the {@code foo} field of the source.
+     */
+    private ScriptDoubleMappedFieldType fieldType() {
+        DoubleScriptFieldScript.Factory factory = (params, searchLookup) -> ctx -> new DoubleScriptFieldScript(params, searchLookup,
+            ctx) {
+            @Override
+            public void execute() {
+                for (Object value : sourceValues(getParams())) {
+                    new EmitValue(this).emitValue(((Number) value).doubleValue());
+                }
+            }
+        };
+        ScriptDoubleMappedFieldType fieldType = new ScriptDoubleMappedFieldType(script, factory);
+        fieldType.setName(FIELD);
+        return fieldType;
+    }
+
+    private QueryShardContext context(ScriptDoubleMappedFieldType fieldType) {
+        return context(fieldType, fieldType.fielddataBuilder("test").build(indexSettings(), fieldType, null, null, null));
+    }
+}
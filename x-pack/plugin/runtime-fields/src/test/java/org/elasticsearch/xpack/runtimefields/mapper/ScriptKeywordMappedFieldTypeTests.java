@@ -0,0 +1,75 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.mapper;
+
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.MultiValueMode;
+import org.elasticsearch.xpack.runtimefields.StringScriptFieldScript;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptBinaryFieldData;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class ScriptKeywordMappedFieldTypeTests extends AbstractScriptMappedFieldTypeTestCase {
+    private final Script script = new Script("emitValue('a')");
+
+    public void testDocValues() throws IOException {
+        ScriptKeywordMappedFieldType fieldType = fieldType();
+        withIndex(List.of("{\"foo\": [\"b\", \"a\"]}", "{\"foo\": \"c\"}", "{}"), searcher -> {
+            ScriptBinaryFieldData fieldData = context(fieldType).getForField(fieldType);
+            assertThat(docValues(searcher, fieldData), equalTo(List.of(List.of("a", "b"), List.of("c"), List.of())));
+        });
+    }
+
+    public void testSort() throws IOException {
+        ScriptKeywordMappedFieldType fieldType = fieldType();
+        withIndex(List.of("{\"foo\": [\"d\", \"c\"]}", "{\"foo\": \"a\"}", "{\"foo\": \"b\"}"), searcher -> {
+            ScriptBinaryFieldData fieldData = context(fieldType).getForField(fieldType);
+            assertThat(
+                sortedSources(searcher, fieldData.sortField(null, MultiValueMode.MIN, null, false)),
+                equalTo(List.of("{\"foo\": \"a\"}", "{\"foo\": \"b\"}", "{\"foo\": [\"d\", \"c\"]}"))
+            );
+        });
+    }
+
+    public void testQueries() throws IOException {
+        ScriptKeywordMappedFieldType fieldType = fieldType();
+        withIndex(List.of("{\"foo\": [\"a\", \"e\"]}", "{\"foo\": \"b\"}", "{\"foo\": \"c\"}", "{}"), searcher -> {
+            QueryShardContext context = context(fieldType);
+            assertThat(searcher.count(fieldType.termQuery("a", context)), equalTo(1));
+            assertThat(searcher.count(fieldType.termQuery("d", context)), equalTo(0));
+            assertThat(searcher.count(fieldType.termsQuery(List.of("b", "c", "d"), context)), equalTo(2));
+            assertThat(searcher.count(fieldType.rangeQuery("b", "e", true, false, null, null, null, context)), equalTo(2));
+            assertThat(searcher.count(fieldType.rangeQuery("d", null, true, true, null, null, null, context)), equalTo(1));
+            assertThat(searcher.count(fieldType.existsQuery(context)), equalTo(3));
+        });
+    }
+
+    /**
+     * A field type whose script emits the values of the {@code foo} field of the source.
+     */
+    private ScriptKeywordMappedFieldType fieldType() {
+        StringScriptFieldScript.Factory factory = (params, searchLookup) -> ctx -> new StringScriptFieldScript(params, searchLookup,
+            ctx) {
+            @Override
+            public void execute() {
+                for (Object value : sourceValues(getParams())) {
+                    new EmitValue(this).emitValue(value.toString());
+                }
+            }
+        };
+        ScriptKeywordMappedFieldType fieldType = new ScriptKeywordMappedFieldType(script, factory);
+        fieldType.setName(FIELD);
+        return fieldType;
+    }
+
+    private QueryShardContext context(ScriptKeywordMappedFieldType fieldType) {
+        return context(fieldType, fieldType.fielddataBuilder("test").build(indexSettings(), fieldType, null, null, null));
+    }
+}
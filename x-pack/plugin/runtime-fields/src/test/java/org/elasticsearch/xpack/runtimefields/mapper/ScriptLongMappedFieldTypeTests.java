@@ -0,0 +1,146 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.runtimefields.mapper;
+
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.MultiValueMode;
+import org.elasticsearch.xpack.runtimefields.LongScriptFieldScript;
+import org.elasticsearch.xpack.runtimefields.fielddata.ScriptLongFieldData;
+import org.elasticsearch.xpack.runtimefields.query.LongScriptFieldRangeQuery;
+import org.elasticsearch.xpack.runtimefields.query.LongScriptFieldTermsQuery;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScriptLongMappedFieldTypeTests extends AbstractScriptMappedFieldTypeTestCase {
+    private final Script script = new Script("emitValue(1)");
+
+    public void testTermQuery() {
+        ScriptLongMappedFieldType fieldType = fieldType();
+        QueryShardContext context = context(fieldType);
+        ScriptLongFieldData fieldData = context.getForField(fieldType);
+        assertThat(fieldType.termQuery(1, context), equalTo(new LongScriptFieldRangeQuery(script, "test", fieldData, 1, 1)));
+        assertThat(fieldType.termQuery("1", context), equalTo(new LongScriptFieldRangeQuery(script, "test", fieldData, 1, 1)));
+        assertThat(fieldType.termQuery(1.5, context), instanceOf(MatchNoDocsQuery.class));
+    }
+
+    public void testTermsQuery() {
+        ScriptLongMappedFieldType fieldType = fieldType();
+        QueryShardContext context = context(fieldType);
+        ScriptLongFieldData fieldData = context.getForField(fieldType);
+        assertThat(
+            fieldType.termsQuery(List.of(3, "1", 3, 1.5), context),
+            equalTo(new LongScriptFieldTermsQuery(script, "test", fieldData, new long[] {1, 3}))
+        );
+        assertThat(fieldType.termsQuery(List.of(1.5, 2.5), context), instanceOf(MatchNoDocsQuery.class));
+    }
+
+    public void testRangeQuery() {
+        ScriptLongMappedFieldType fieldType = fieldType();
+        QueryShardContext context = context(fieldType);
+        ScriptLongFieldData fieldData = context.getForField(fieldType);
+        assertThat(
+            fieldType.rangeQuery(1, 4, false, true, null, null, null, context),
+            equalTo(new LongScriptFieldRangeQuery(script, "test", fieldData, 2, 4))
+        );
+        assertThat(
+            fieldType.rangeQuery(1.5, null, true, true, null, null, null, context),
+            equalTo(new LongScriptFieldRangeQuery(script, "test", fieldData, 2, Long.MAX_VALUE))
+        );
+        assertThat(fieldType.rangeQuery(2, 2, true, false, null, null, null, context), instanceOf(MatchNoDocsQuery.class));
+        assertThat(fieldType.rangeQuery(4, 1, true, true, null, null, null, context), instanceOf(MatchNoDocsQuery.class));
+    }
+
+    public void testDocValues() throws IOException {
+        ScriptLongMappedFieldType fieldType = sourceFieldType();
+        withIndex(List.of("{\"foo\": [2, 1]}", "{\"foo\": 3}", "{}"), searcher -> {
+            ScriptLongFieldData fieldData = context(fieldType).getForField(fieldType);
+            assertThat(docValues(searcher, fieldData), equalTo(List.of(List.of(1L, 2L), List.of(3L), List.of())));
+        });
+    }
+
+    public void testSort() throws IOException {
+        ScriptLongMappedFieldType fieldType = sourceFieldType();
+        withIndex(List.of("{\"foo\": [4, 3]}", "{\"foo\": 1}", "{\"foo\": 2}"), searcher -> {
+            ScriptLongFieldData fieldData = context(fieldType).getForField(fieldType);
+            assertThat(
+                sortedSources(searcher, fieldData.sortField(null, MultiValueMode.MIN, null, false)),
+                equalTo(List.of("{\"foo\": 1}", "{\"foo\": 2}", "{\"foo\": [4, 3]}"))
+            );
+        });
+    }
+
+    public void testQueries() throws IOException {
+        ScriptLongMappedFieldType fieldType = sourceFieldType();
+        withIndex(List.of("{\"foo\": [1, 5]}", "{\"foo\": 2}", "{\"foo\": 3}", "{}"), searcher -> {
+            QueryShardContext context = context(fieldType);
+            assertThat(searcher.count(fieldType.termQuery(1, context)), equalTo(1));
+            assertThat(searcher.count(fieldType.termQuery(4, context)), equalTo(0));
+            assertThat(searcher.count(fieldType.termsQuery(List.of(2, 3, 4), context)), equalTo(2));
+            assertThat(searcher.count(fieldType.rangeQuery(2, 5, true, false, null, null, null, context)), equalTo(2));
+            assertThat(searcher.count(fieldType.rangeQuery(4, null, true, true, null, null, null, context)), equalTo(1));
+            assertThat(searcher.count(fieldType.existsQuery(context)), equalTo(3));
+        });
+    }
+
+    public void testScriptReadingItsOwnField() throws IOException {
+        LongScriptFieldScript.Factory factory = (params, searchLookup) -> ctx -> new LongScriptFieldScript(params, searchLookup, ctx) {
+            @Override
+            public void execute() {
+                for (Object value : getDoc().get(FIELD)) {
+                    new EmitValue(this).emitValue((Long) value);
+                }
+            }
+        };
+        ScriptLongMappedFieldType fieldType = new ScriptLongMappedFieldType(script, factory);
+        fieldType.setName(FIELD);
+        MapperService mapperService = mock(MapperService.class);
+        when(mapperService.fullName(FIELD)).thenReturn(fieldType);
+        withIndex(List.of("{}"), searcher -> {
+            ScriptLongFieldData fieldData = fieldType.fielddataBuilder("test").build(indexSettings(), fieldType, null, null, mapperService);
+            IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> docValues(searcher, fieldData));
+            assertThat(e.getMessage(), equalTo("Cyclic dependency detected while resolving runtime fields: test -> test"));
+        });
+    }
+
+    private ScriptLongMappedFieldType fieldType() {
+        LongScriptFieldScript.Factory factory = (params, searchLookup) -> ctx -> {
+            throw new UnsupportedOperationException();
+        };
+        ScriptLongMappedFieldType fieldType = new ScriptLongMappedFieldType(script, factory);
+        fieldType.setName("test");
+        return fieldType;
+    }
+
+    /**
+     * A field type whose script emits the values of the {@code foo} field of the source.
+     */
+    private ScriptLongMappedFieldType sourceFieldType() {
+        LongScriptFieldScript.Factory factory = (params, searchLookup) -> ctx -> new LongScriptFieldScript(params, searchLookup, ctx) {
+            @Override
+            public void execute() {
+                for (Object value : sourceValues(getParams())) {
+                    new EmitValue(this).emitValue(((Number) value).longValue());
+                }
+            }
+        };
+        ScriptLongMappedFieldType fieldType = new ScriptLongMappedFieldType(script, factory);
+        fieldType.setName(FIELD);
+        return fieldType;
+    }
+
+    private QueryShardContext context(ScriptLongMappedFieldType fieldType) {
+        return context(fieldType, fieldType.fielddataBuilder("test").build(indexSettings(), fieldType, null, null, null));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.searchablesnapshots;
+
+import org.apache.lucene.store.BufferedIndexInput;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo;
+import org.elasticsearch.xpack.searchablesnapshots.cache.CacheKey;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * An {@link IndexInput} that reads a snapshotted file through the node-level snapshot cache. The file is split into ranges of the
+ * size configured in the cache, each range being downloaded from the repository on first access and then read from the local disk.
+ */
+public class CachedBlobContainerIndexInput extends BufferedIndexInput {
+
+    private final SearchableSnapshotDirectory directory;
+    private final FileInfo fileInfo;
+    private final long offset;
+    private final long length;
+
+    CachedBlobContainerIndexInput(SearchableSnapshotDirectory directory, FileInfo fileInfo, IOContext context) {
+        this("CachedBlobContainerIndexInput(" + fileInfo.physicalName() + ")", directory, fileInfo, context, 0L, fileInfo.length());
+    }
+
+    private CachedBlobContainerIndexInput(String resourceDesc, SearchableSnapshotDirectory directory, FileInfo fileInfo,
+                                          IOContext context, long offset, long length) {
+        super(resourceDesc, context);
+        this.directory = directory;
+        this.fileInfo = fileInfo;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    protected void readInternal(byte[] b, int off, int len) throws IOException {
+        long position = getFilePointer() + offset;
+        if (position + len > offset + length) {
+            throw new EOFException("read past EOF: " + this);
+        }
+        final long rangeSize = directory.cacheService().getRangeSize();
+        int remaining = len;
+        int bufferOffset = off;
+        while (remaining > 0) {
+            final long rangeStart = (position / rangeSize) * rangeSize;
+            final long rangeLength = Math.min(rangeSize, fileInfo.length() - rangeStart);
+            final int toRead = Math.toIntExact(Math.min(remaining, rangeStart + rangeLength - position));
+            final CacheKey cacheKey = new CacheKey(directory.repository(), directory.indexId(), directory.shardId(),
+                fileInfo.name(), rangeStart);
+            directory.cacheService().read(cacheKey, rangeLength, this::writeRange, position - rangeStart, b, bufferOffset, toRead);
+            position += toRead;
+            bufferOffset += toRead;
+            remaining -= toRead;
+        }
+    }
+
+    /**
+     * Copies the range of the snapshotted file identified by the given {@link CacheKey} from the repository, reading the parts of the
+     * file that overlap with the range.
+     */
+    private void writeRange(CacheKey cacheKey, long rangeLength, OutputStream output) throws IOException {
+        final long partSize = fileInfo.numberOfParts() > 1 ? fileInfo.partSize().getBytes() : fileInfo.length();
+        final byte[] buffer = new byte[Math.toIntExact(Math.min(Streams.BUFFER_SIZE, rangeLength))];
+        long position = cacheKey.getRangeStart();
+        long remaining = rangeLength;
+        while (remaining > 0) {
+            final int part = Math.toIntExact(position / partSize);
+            final long partPosition = position % partSize;
+            final long length = Math.min(remaining, fileInfo.partBytes(part) - partPosition);
+            try (InputStream input = directory.blobContainer().readBlob(fileInfo.partName(part), partPosition, length)) {
+                long copied = 0;
+                while (copied < length) {
+                    final int read = input.read(buffer, 0, Math.toIntExact(Math.min(buffer.length, length - copied)));
+                    if (read < 0) {
+                        throw new EOFException("unexpected EOF reading [" + fileInfo.partName(part) + "] at position ["
+                            + (partPosition + copied) + "]");
+                    }
+                    output.write(buffer, 0, read);
+                    copied += read;
+                }
+            }
+            position += length;
+            remaining -= length;
+        }
+    }
+
+    @Override
+    protected void seekInternal(long pos) throws IOException {
+        if (pos > length) {
+            throw new EOFException("Reading past end of file [position=" + pos + ", length=" + length + "] for " + toString());
+        } else if (pos < 0L) {
+            throw new IOException("Seeking to negative position [" + pos + "] for " + toString());
+        }
+    }
+
+    @Override
+    public IndexInput slice(String sliceDescription, long offset, long length) throws IOException {
+        if ((offset >= 0L) && (length >= 0L) && (offset + length <= length())) {
+            final CachedBlobContainerIndexInput slice = new CachedBlobContainerIndexInput(getFullSliceDescription(sliceDescription),
+                directory, fileInfo, IOContext.READ, this.offset + offset, length);
+            slice.seek(0L);
+            return slice;
+        } else {
+            throw new IllegalArgumentException("slice() " + sliceDescription + " out of bounds: offset=" + offset
+                + ",length=" + length + ",fileLength=" + length() + ": " + this);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    @Override
+    public String toString() {
+        return "CachedBlobContainerIndexInput{" +
+            "fileInfo=" + fileInfo.physicalName() +
+            ", offset=" + offset +
+            ", length=" + length +
+            ", position=" + getFilePointer() +
+            '}';
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.searchablesnapshots;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.elasticsearch.common.blobstore.BlobContainer;
+import org.elasticsearch.common.util.LazyInitializable;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.shard.ShardPath;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo;
+import org.elasticsearch.index.store.FsDirectoryFactory;
+import org.elasticsearch.repositories.IndexId;
+import org.elasticsearch.repositories.RepositoriesService;
+import org.elasticsearch.repositories.Repository;
+import org.elasticsearch.repositories.blobstore.BlobStoreRepository;
+import org.elasticsearch.snapshots.SnapshotId;
+import org.elasticsearch.xpack.searchablesnapshots.cache.CacheService;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_INDEX_ID_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_INDEX_NAME_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_REPOSITORY_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_SNAPSHOT_ID_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_SNAPSHOT_NAME_SETTING;
+
+/**
+ * A {@link Directory} that exposes the files of a shard snapshot stored in a {@link BlobContainer} as if they were local files. Reads of
+ * snapshotted files are served through the node-level {@link CacheService}, so that only the ranges that are actually accessed are
+ * downloaded from the repository. Any other file (write lock, new commit points created during recovery, ...) is delegated to a local
+ * directory on disk.
+ */
+public class SearchableSnapshotDirectory extends FilterDirectory {
+
+    private final LazyInitializable<BlobContainer, RuntimeException> blobContainer;
+    private final LazyInitializable<Map<String, FileInfo>, RuntimeException> snapshotFiles;
+    private final Set<String> deletedSnapshotFiles = ConcurrentHashMap.newKeySet();
+    private final CacheService cacheService;
+    private final String repository;
+    private final String indexId;
+    private final int shardId;
+
+    public SearchableSnapshotDirectory(Directory localDirectory, Supplier<BlobContainer> blobContainer,
+                                       Function<BlobContainer, BlobStoreIndexShardSnapshot> snapshot,
+                                       CacheService cacheService, String repository, String indexId, int shardId) {
+        super(localDirectory);
+        this.blobContainer = new LazyInitializable<>(blobContainer::get);
+        // the shard snapshot is loaded lazily, on the first access to the directory, as it requires to read from the repository
+        this.snapshotFiles = new LazyInitializable<>(() -> snapshot.apply(this.blobContainer.getOrCompute()).indexFiles().stream()
+            .collect(Collectors.toMap(FileInfo::physicalName, Function.identity())));
+        this.cacheService = cacheService;
+        this.repository = repository;
+        this.indexId = indexId;
+        this.shardId = shardId;
+    }
+
+    private FileInfo snapshotFile(String name) {
+        if (deletedSnapshotFiles.contains(name)) {
+            return null;
+        }
+        return snapshotFiles.getOrCompute().get(name);
+    }
+
+    private boolean isSnapshotFile(String name) {
+        return snapshotFile(name) != null;
+    }
+
+    @Override
+    public String[] listAll() throws IOException {
+        final Set<String> files = new TreeSet<>(snapshotFiles.getOrCompute().keySet());
+        files.removeAll(deletedSnapshotFiles);
+        Collections.addAll(files, in.listAll());
+        return files.toArray(new String[0]);
+    }
+
+    @Override
+    public long fileLength(String name) throws IOException {
+        final FileInfo fileInfo = snapshotFile(name);
+        if (fileInfo != null) {
+            return fileInfo.length();
+        }
+        return in.fileLength(name);
+    }
+
+    @Override
+    public IndexInput openInput(String name, IOContext context) throws IOException {
+        final FileInfo fileInfo = snapshotFile(name);
+        if (fileInfo != null) {
+            return new CachedBlobContainerIndexInput(this, fileInfo, context);
+        }
+        return in.openInput(name, context);
+    }
+
+    @Override
+    public void deleteFile(String name) throws IOException {
+        if (isSnapshotFile(name)) {
+            // snapshotted files are never deleted from the repository, they are just hidden from this directory
+            deletedSnapshotFiles.add(name);
+            return;
+        }
+        in.deleteFile(name);
+    }
+
+    @Override
+    public IndexOutput createOutput(String name, IOContext context) throws IOException {
+        if (isSnapshotFile(name)) {
+            throw new FileAlreadyExistsException("file [" + name + "] already exists in snapshot");
+        }
+        return in.createOutput(name, context);
+    }
+
+    @Override
+    public void sync(Collection<String> names) throws IOException {
+        // snapshotted files are durable by definition
+        in.sync(names.stream().filter(name -> isSnapshotFile(name) == false).collect(Collectors.toList()));
+    }
+
+    @Override
+    public void rename(String source, String dest) throws IOException {
+        if (isSnapshotFile(source)) {
+            throw new UnsupportedOperationException("cannot rename file [" + source + "] that exists in snapshot");
+        }
+        if (isSnapshotFile(dest)) {
+            throw new FileAlreadyExistsException("file [" + dest + "] already exists in snapshot");
+        }
+        in.rename(source, dest);
+    }
+
+    CacheService cacheService() {
+        return cacheService;
+    }
+
+    BlobContainer blobContainer() {
+        return blobContainer.getOrCompute();
+    }
+
+    String repository() {
+        return repository;
+    }
+
+    String indexId() {
+        return indexId;
+    }
+
+    int shardId() {
+        return shardId;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchableSnapshotDirectory(repository=" + repository + ", indexId=" + indexId + ", shardId=" + shardId + ", " + in + ")";
+    }
+
+    public static Directory create(RepositoriesService repositories, CacheService cache,
+                                   IndexSettings indexSettings, ShardPath shardPath) throws IOException {
+        final Repository repository = repositories.repository(SNAPSHOT_REPOSITORY_SETTING.get(indexSettings.getSettings()));
+        if (repository instanceof BlobStoreRepository == false) {
+            throw new IllegalArgumentException("Repository [" + repository + "] does not support searchable snapshots");
+        }
+        final BlobStoreRepository blobStoreRepository = (BlobStoreRepository) repository;
+        final IndexId indexId = new IndexId(SNAPSHOT_INDEX_NAME_SETTING.get(indexSettings.getSettings()),
+            SNAPSHOT_INDEX_ID_SETTING.get(indexSettings.getSettings()));
+        final SnapshotId snapshotId = new SnapshotId(SNAPSHOT_SNAPSHOT_NAME_SETTING.get(indexSettings.getSettings()),
+            SNAPSHOT_SNAPSHOT_ID_SETTING.get(indexSettings.getSettings()));
+        final int shardId = shardPath.getShardId().id();
+
+        final Path location = shardPath.resolveIndex();
+        Files.createDirectories(location);
+        final Directory localDirectory = FSDirectory.open(location, indexSettings.getValue(FsDirectoryFactory.INDEX_LOCK_FACTOR_SETTING));
+
+        return new SearchableSnapshotDirectory(localDirectory,
+            () -> blobStoreRepository.shardContainer(indexId, shardId),
+            blobContainer -> blobStoreRepository.loadShardSnapshot(blobContainer, snapshotId),
+            cache, repository.getMetadata().name(), indexId.getId(), shardId);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.searchablesnapshots;
+
+import org.apache.lucene.util.SetOnce;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.IndexScopedSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.settings.SettingsFilter;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.env.Environment;
+import org.elasticsearch.env.NodeEnvironment;
+import org.elasticsearch.index.IndexModule;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.engine.EngineFactory;
+import org.elasticsearch.index.engine.ReadOnlyEngine;
+import org.elasticsearch.plugins.ActionPlugin;
+import org.elasticsearch.plugins.EnginePlugin;
+import org.elasticsearch.plugins.IndexStorePlugin;
+import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.repositories.RepositoriesService;
+import org.elasticsearch.rest.RestController;
+import org.elasticsearch.rest.RestHandler;
+import org.elasticsearch.script.ScriptService;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.watcher.ResourceWatcherService;
+import org.elasticsearch.xpack.searchablesnapshots.action.MountSearchableSnapshotAction;
+import org.elasticsearch.xpack.searchablesnapshots.action.TransportMountSearchableSnapshotAction;
+import org.elasticsearch.xpack.searchablesnapshots.cache.CacheService;
+import org.elasticsearch.xpack.searchablesnapshots.rest.RestMountSearchableSnapshotAction;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Plugin for Searchable Snapshots feature: it allows to mount the indices of a snapshot as read-only indices whose files are read on
+ * demand from the repository and cached on the local disks of the nodes.
+ */
+public class SearchableSnapshots extends Plugin implements IndexStorePlugin, EnginePlugin, ActionPlugin {
+
+    public static final String SNAPSHOT_DIRECTORY_FACTORY_KEY = "snapshot";
+
+    public static final Setting<String> SNAPSHOT_REPOSITORY_SETTING =
+        Setting.simpleString("index.store.snapshot.repository_name", Setting.Property.IndexScope, Setting.Property.Final);
+    public static final Setting<String> SNAPSHOT_SNAPSHOT_NAME_SETTING =
+        Setting.simpleString("index.store.snapshot.snapshot_name", Setting.Property.IndexScope, Setting.Property.Final);
+    public static final Setting<String> SNAPSHOT_SNAPSHOT_ID_SETTING =
+        Setting.simpleString("index.store.snapshot.snapshot_uuid", Setting.Property.IndexScope, Setting.Property.Final);
+    public static final Setting<String> SNAPSHOT_INDEX_NAME_SETTING =
+        Setting.simpleString("index.store.snapshot.index_name", Setting.Property.IndexScope, Setting.Property.Final);
+    public static final Setting<String> SNAPSHOT_INDEX_ID_SETTING =
+        Setting.simpleString("index.store.snapshot.index_uuid", Setting.Property.IndexScope, Setting.Property.Final);
+
+    private final RepositoriesServiceSupplier repositoriesService = new RepositoriesServiceSupplier();
+    private final SetOnce<CacheService> cacheService = new SetOnce<>();
+    private final Settings settings;
+
+    public SearchableSnapshots(final Settings settings) {
+        this.settings = settings;
+    }
+
+    public static boolean isSearchableSnapshotStore(Settings indexSettings) {
+        return SNAPSHOT_DIRECTORY_FACTORY_KEY.equals(IndexModule.INDEX_STORE_TYPE_SETTING.get(indexSettings));
+    }
+
+    @Override
+    public List<Setting<?>> getSettings() {
+        return Arrays.asList(
+            SNAPSHOT_REPOSITORY_SETTING,
+            SNAPSHOT_SNAPSHOT_NAME_SETTING,
+            SNAPSHOT_SNAPSHOT_ID_SETTING,
+            SNAPSHOT_INDEX_NAME_SETTING,
+            SNAPSHOT_INDEX_ID_SETTING,
+            CacheService.SNAPSHOT_CACHE_SIZE_SETTING,
+            CacheService.SNAPSHOT_CACHE_RANGE_SIZE_SETTING
+        );
+    }
+
+    @Override
+    public Collection<Object> createComponents(final Client client, final ClusterService clusterService, final ThreadPool threadPool,
+                                               final ResourceWatcherService resourceWatcherService, final ScriptService scriptService,
+                                               final NamedXContentRegistry xContentRegistry, final Environment environment,
+                                               final NodeEnvironment nodeEnvironment,
+                                               final NamedWriteableRegistry namedWriteableRegistry) {
+        final CacheService cacheService = new CacheService(settings, nodeEnvironment.nodeDataPaths()[0].resolve("snapshot_cache"));
+        this.cacheService.set(cacheService);
+        return Arrays.asList(cacheService, repositoriesService);
+    }
+
+    @Override
+    public Map<String, DirectoryFactory> getDirectoryFactories() {
+        return Collections.singletonMap(SNAPSHOT_DIRECTORY_FACTORY_KEY, (indexSettings, shardPath) -> {
+            final RepositoriesService repositories = repositoriesService.get();
+            assert repositories != null;
+            final CacheService cache = cacheService.get();
+            assert cache != null;
+            return SearchableSnapshotDirectory.create(repositories, cache, indexSettings, shardPath);
+        });
+    }
+
+    @Override
+    public Optional<EngineFactory> getEngineFactory(IndexSettings indexSettings) {
+        if (isSearchableSnapshotStore(indexSettings.getSettings())) {
+            return Optional.of(engineConfig -> new ReadOnlyEngine(engineConfig, null, null, true, Function.identity()));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<ActionHandler<? extends ActionRequest, ? extends ActionResponse>> getActions() {
+        return Collections.singletonList(
+            new ActionHandler<>(MountSearchableSnapshotAction.INSTANCE, TransportMountSearchableSnapshotAction.class));
+    }
+
+    @Override
+    public List<RestHandler> getRestHandlers(Settings settings, RestController restController, ClusterSettings clusterSettings,
+                                             IndexScopedSettings indexScopedSettings, SettingsFilter settingsFilter,
+                                             IndexNameExpressionResolver indexNameExpressionResolver,
+                                             Supplier<DiscoveryNodes> nodesInCluster) {
+        return Collections.singletonList(new RestMountSearchableSnapshotAction(restController));
+    }
+
+    /**
+     * Directory factories are created before the {@link RepositoriesService}, so the latter is injected once the node is built.
+     */
+    public static final class RepositoriesServiceSupplier implements Supplier<RepositoriesService> {
+
+        private final SetOnce<RepositoriesService> repositoriesService = new SetOnce<>();
+
+        @Inject
+        public void setRepositoriesService(RepositoriesService repositoriesService) {
+            this.repositoriesService.set(repositoriesService);
+        }
+
+        @Override
+        public RepositoriesService get() {
+            return repositoriesService.get();
+        }
+    }
+}
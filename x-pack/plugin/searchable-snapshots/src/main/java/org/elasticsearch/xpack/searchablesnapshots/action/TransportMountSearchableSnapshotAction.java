@@ -0,0 +1,158 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.searchablesnapshots.action;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.snapshots.restore.RestoreClusterStateListener;
+import org.elasticsearch.action.admin.cluster.snapshots.restore.RestoreSnapshotRequest;
+import org.elasticsearch.action.admin.cluster.snapshots.restore.RestoreSnapshotResponse;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.master.TransportMasterNodeAction;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.block.ClusterBlockException;
+import org.elasticsearch.cluster.block.ClusterBlockLevel;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.IndexModule;
+import org.elasticsearch.repositories.IndexId;
+import org.elasticsearch.repositories.RepositoriesService;
+import org.elasticsearch.repositories.Repository;
+import org.elasticsearch.repositories.RepositoryData;
+import org.elasticsearch.snapshots.RestoreService;
+import org.elasticsearch.snapshots.SnapshotId;
+import org.elasticsearch.snapshots.SnapshotRestoreException;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+import org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Action that mounts a snapshot as a searchable snapshot, by converting the mount request into a restore request with the
+ * appropriate index settings.
+ */
+public class TransportMountSearchableSnapshotAction
+    extends TransportMasterNodeAction<MountSearchableSnapshotRequest, RestoreSnapshotResponse> {
+
+    private final RepositoriesService repositoriesService;
+    private final RestoreService restoreService;
+
+    @Inject
+    public TransportMountSearchableSnapshotAction(TransportService transportService, ClusterService clusterService,
+                                                  ThreadPool threadPool, RepositoriesService repositoriesService,
+                                                  RestoreService restoreService, ActionFilters actionFilters,
+                                                  IndexNameExpressionResolver indexNameExpressionResolver) {
+        super(MountSearchableSnapshotAction.NAME, transportService, clusterService, threadPool, actionFilters,
+            MountSearchableSnapshotRequest::new, indexNameExpressionResolver);
+        this.repositoriesService = repositoriesService;
+        this.restoreService = restoreService;
+    }
+
+    @Override
+    protected String executor() {
+        // Using the generic instead of the snapshot threadpool here as the snapshot threadpool might be blocked on long running tasks
+        // which would block the request from getting an error response because of the ongoing task
+        return ThreadPool.Names.GENERIC;
+    }
+
+    @Override
+    protected RestoreSnapshotResponse read(StreamInput in) throws IOException {
+        return new RestoreSnapshotResponse(in);
+    }
+
+    @Override
+    protected ClusterBlockException checkBlock(MountSearchableSnapshotRequest request, ClusterState state) {
+        // Mounting a snapshot creates an index, so we need to check for METADATA_WRITE and WRITE blocks
+        ClusterBlockException blockException = state.blocks().globalBlockedException(ClusterBlockLevel.METADATA_WRITE);
+        if (blockException != null) {
+            return blockException;
+        }
+        return state.blocks().globalBlockedException(ClusterBlockLevel.WRITE);
+    }
+
+    /**
+     * Return the index settings required to make a snapshot searchable
+     */
+    private static Settings getIndexSettings(String repoName, SnapshotId snapshotId, IndexId indexId) {
+        return Settings.builder()
+            .put(SearchableSnapshots.SNAPSHOT_REPOSITORY_SETTING.getKey(), repoName)
+            .put(SearchableSnapshots.SNAPSHOT_SNAPSHOT_NAME_SETTING.getKey(), snapshotId.getName())
+            .put(SearchableSnapshots.SNAPSHOT_SNAPSHOT_ID_SETTING.getKey(), snapshotId.getUUID())
+            .put(SearchableSnapshots.SNAPSHOT_INDEX_NAME_SETTING.getKey(), indexId.getName())
+            .put(SearchableSnapshots.SNAPSHOT_INDEX_ID_SETTING.getKey(), indexId.getId())
+            .put(IndexModule.INDEX_STORE_TYPE_SETTING.getKey(), SearchableSnapshots.SNAPSHOT_DIRECTORY_FACTORY_KEY)
+            .put(IndexMetaData.SETTING_BLOCKS_WRITE, true)
+            .build();
+    }
+
+    @Override
+    protected void masterOperation(Task task, final MountSearchableSnapshotRequest request, final ClusterState state,
+                                   final ActionListener<RestoreSnapshotResponse> listener) {
+        final String repoName = request.repositoryName();
+        final String snapName = request.snapshotName();
+        final String indexName = request.snapshotIndexName();
+
+        // Retrieve IndexId and SnapshotId instances, which are then used to create a new restore
+        // request, which is then sent on to the actual snapshot restore mechanism
+        final Repository repository = repositoriesService.repository(repoName);
+        final RepositoryData repoData = repository.getRepositoryData();
+
+        final Optional<SnapshotId> matchingSnapshotId = repoData.getSnapshotIds().stream()
+            .filter(s -> snapName.equals(s.getName())).findFirst();
+        if (matchingSnapshotId.isPresent() == false) {
+            throw new SnapshotRestoreException(repoName, snapName, "snapshot does not exist");
+        }
+        final SnapshotId snapshotId = matchingSnapshotId.get();
+
+        final IndexId indexId = repoData.getIndices().get(indexName);
+        if (indexId == null) {
+            throw new SnapshotRestoreException(repoName, snapName, "index [" + indexName + "] not found in snapshot");
+        }
+
+        final String[] ignoreIndexSettings = new String[request.ignoreIndexSettings().length + 1];
+        System.arraycopy(request.ignoreIndexSettings(), 0, ignoreIndexSettings, 0, request.ignoreIndexSettings().length);
+        // mounted indices have no replicas by default since the data are already replicated in the repository
+        ignoreIndexSettings[ignoreIndexSettings.length - 1] = IndexMetaData.SETTING_AUTO_EXPAND_REPLICAS;
+
+        final RestoreSnapshotRequest restoreSnapshotRequest = new RestoreSnapshotRequest(repoName, snapName)
+            // Restore the single index specified
+            .indices(indexName)
+            // Always rename it to the desired mounted index name
+            .renamePattern(".+")
+            .renameReplacement(request.mountedIndexName())
+            // Pass through index settings, adding the index-level settings required to use searchable snapshots
+            .indexSettings(Settings.builder()
+                .put(IndexMetaData.SETTING_NUMBER_OF_REPLICAS, 0) // can be overridden
+                .put(request.indexSettings())
+                .put(getIndexSettings(repoName, snapshotId, indexId))
+                .build())
+            // Pass through ignored index settings
+            .ignoreIndexSettings(ignoreIndexSettings)
+            // Don't include global state
+            .includeGlobalState(false)
+            // Don't include aliases
+            .includeAliases(false)
+            // Pass through the wait-for-completion flag
+            .waitForCompletion(request.waitForCompletion())
+            // Pass through the master-node timeout
+            .masterNodeTimeout(request.masterNodeTimeout());
+
+        restoreService.restoreSnapshot(restoreSnapshotRequest, ActionListener.delegateFailure(listener,
+            (delegatedListener, restoreCompletionResponse) -> {
+                if (restoreCompletionResponse.getRestoreInfo() == null && restoreSnapshotRequest.waitForCompletion()) {
+                    RestoreClusterStateListener.createAndRegisterListener(clusterService, restoreCompletionResponse, delegatedListener);
+                } else {
+                    delegatedListener.onResponse(new RestoreSnapshotResponse(restoreCompletionResponse.getRestoreInfo()));
+                }
+            }));
+    }
+}
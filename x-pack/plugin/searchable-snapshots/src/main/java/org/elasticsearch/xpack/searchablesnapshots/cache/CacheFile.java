@@ -0,0 +1,86 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.searchablesnapshots.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.elasticsearch.common.util.concurrent.AbstractRefCounted;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A local file holding a copy of a range of bytes of a snapshotted file. The file is deleted once it has been evicted from the
+ * {@link CacheService} and all the pending reads have completed.
+ */
+public final class CacheFile extends AbstractRefCounted {
+
+    private static final Logger logger = LogManager.getLogger(CacheFile.class);
+
+    private final Path file;
+    private final long length;
+    private final FileChannel channel;
+
+    CacheFile(Path file, long length) throws IOException {
+        super("cache-file");
+        this.file = file;
+        this.length = length;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Reads exactly {@code length} bytes starting at {@code position} of this cache file. The caller must hold a reference on this
+     * cache file (see {@link #tryIncRef()}) while reading.
+     */
+    public void read(long position, byte[] bytes, int offset, int length) throws IOException {
+        assert refCount() > 0 : "cache file [" + file + "] is already released";
+        if (position < 0L || position + length > this.length) {
+            throw new EOFException("read past EOF: position=" + position + " length=" + length + " cache file length=" + this.length);
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, pos);
+            if (read < 0) {
+                throw new EOFException("unexpected EOF reading cache file [" + file + "] at position [" + pos + "]");
+            }
+            pos += read;
+        }
+    }
+
+    @Override
+    protected void closeInternal() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn(() -> new ParameterizedMessage("failed to close cache file [{}]", file), e);
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn(() -> new ParameterizedMessage("failed to delete cache file [{}]", file), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CacheFile{file=" + file + ", length=" + length + ", refCount=" + refCount() + '}';
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.searchablesnapshots.cache;
+
+import java.util.Objects;
+
+/**
+ * Identifies a range of bytes of a file stored in a snapshot. Blob names are unique within the container of a given shard of a
+ * given index in a repository, so the same key can be shared by all the indices mounted from snapshots of that shard.
+ */
+public final class CacheKey {
+
+    private final String repository;
+    private final String indexId;
+    private final int shardId;
+    private final String blobName;
+    private final long rangeStart;
+
+    public CacheKey(String repository, String indexId, int shardId, String blobName, long rangeStart) {
+        this.repository = Objects.requireNonNull(repository);
+        this.indexId = Objects.requireNonNull(indexId);
+        this.shardId = shardId;
+        this.blobName = Objects.requireNonNull(blobName);
+        this.rangeStart = rangeStart;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public String getIndexId() {
+        return indexId;
+    }
+
+    public int getShardId() {
+        return shardId;
+    }
+
+    public String getBlobName() {
+        return blobName;
+    }
+
+    public long getRangeStart() {
+        return rangeStart;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CacheKey cacheKey = (CacheKey) o;
+        return shardId == cacheKey.shardId
+            && rangeStart == cacheKey.rangeStart
+            && repository.equals(cacheKey.repository)
+            && indexId.equals(cacheKey.indexId)
+            && blobName.equals(cacheKey.blobName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(repository, indexId, shardId, blobName, rangeStart);
+    }
+
+    @Override
+    public String toString() {
+        return "[repository=" + repository + ", indexId=" + indexId + ", shardId=" + shardId
+            + ", blobName=" + blobName + ", rangeStart=" + rangeStart + "]";
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.searchablesnapshots.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.component.AbstractLifecycleComponent;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.internal.io.IOUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@link CacheService} maintains a node-level cache of ranges of snapshotted files. Each range is copied into a local file the first
+ * time it is read, and subsequent reads of the same range are served from the local file. The cache is bounded in size and evicts the
+ * least recently used ranges first.
+ */
+public class CacheService extends AbstractLifecycleComponent {
+
+    private static final Logger logger = LogManager.getLogger(CacheService.class);
+
+    /**
+     * The maximum number of bytes of snapshotted files that are cached on disk. Defaults to a fixed 1gb so that the cache never
+     * takes a large share of the disk of the data path it lives on; nodes dedicated to searchable snapshots should size it explicitly.
+     */
+    public static final Setting<ByteSizeValue> SNAPSHOT_CACHE_SIZE_SETTING = Setting.byteSizeSetting("searchable_snapshots.cache.size",
+        new ByteSizeValue(1, ByteSizeUnit.GB),                  // default
+        new ByteSizeValue(4, ByteSizeUnit.KB),                  // min
+        new ByteSizeValue(Long.MAX_VALUE, ByteSizeUnit.BYTES),  // max
+        Setting.Property.NodeScope);
+
+    public static final Setting<ByteSizeValue> SNAPSHOT_CACHE_RANGE_SIZE_SETTING =
+        Setting.byteSizeSetting("searchable_snapshots.cache.range_size",
+            new ByteSizeValue(32, ByteSizeUnit.MB),                 // default
+            new ByteSizeValue(4, ByteSizeUnit.KB),                  // min
+            new ByteSizeValue(Integer.MAX_VALUE, ByteSizeUnit.BYTES),  // max
+            Setting.Property.NodeScope);
+
+    /**
+     * Writes the bytes of the range identified by a {@link CacheKey} into the given {@link OutputStream}.
+     */
+    @FunctionalInterface
+    public interface RangeWriter {
+        void writeRange(CacheKey key, long rangeLength, OutputStream output) throws IOException;
+    }
+
+    private final Cache<CacheKey, CacheFile> cache;
+    private final Path cacheDir;
+    private final long rangeSize;
+
+    public CacheService(final Settings settings, final Path cacheDir) {
+        this.cacheDir = cacheDir;
+        this.rangeSize = SNAPSHOT_CACHE_RANGE_SIZE_SETTING.get(settings).getBytes();
+        final long cacheSize = SNAPSHOT_CACHE_SIZE_SETTING.get(settings).getBytes();
+        if (cacheSize < rangeSize) {
+            // a range that does not fit in the cache would be evicted as soon as it is loaded
+            throw new IllegalArgumentException("setting [" + SNAPSHOT_CACHE_SIZE_SETTING.getKey() + "] must be greater than or equal to ["
+                + SNAPSHOT_CACHE_RANGE_SIZE_SETTING.getKey() + "] but got [" + cacheSize + "] < [" + rangeSize + "]");
+        }
+        this.cache = CacheBuilder.<CacheKey, CacheFile>builder()
+            .setMaximumWeight(cacheSize)
+            .weigher((key, cacheFile) -> cacheFile.getLength())
+            .removalListener(notification -> notification.getValue().decRef())
+            .build();
+    }
+
+    @Override
+    protected void doStart() {
+        try {
+            // cached files do not survive a restart
+            IOUtils.rm(cacheDir);
+            Files.createDirectories(cacheDir);
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to initialize snapshot cache directory [" + cacheDir + "]", e);
+        }
+    }
+
+    @Override
+    protected void doStop() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    protected void doClose() {
+    }
+
+    /**
+     * @return the size of the ranges of files that are cached
+     */
+    public long getRangeSize() {
+        return rangeSize;
+    }
+
+    /**
+     * @return the number of ranges currently held by the cache
+     */
+    public int getCount() {
+        return cache.count();
+    }
+
+    /**
+     * @return the total number of bytes currently held by the cache
+     */
+    public long getWeight() {
+        return cache.weight();
+    }
+
+    /**
+     * Reads {@code length} bytes starting at {@code position} within the range identified by the given {@link CacheKey}. The range is
+     * first copied into the cache using the given {@link RangeWriter} if it is not cached yet.
+     */
+    public void read(final CacheKey key, final long rangeLength, final RangeWriter rangeWriter,
+                     final long position, final byte[] bytes, final int offset, final int length) throws IOException {
+        assert rangeLength <= rangeSize : "range length [" + rangeLength + "] is greater than range size [" + rangeSize + "]";
+        while (true) {
+            final CacheFile cacheFile;
+            try {
+                cacheFile = cache.computeIfAbsent(key, k -> createCacheFile(k, rangeLength, rangeWriter));
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("failed to load range " + key + " in cache", e.getCause());
+            }
+            if (cacheFile.tryIncRef()) {
+                try {
+                    cacheFile.read(position, bytes, offset, length);
+                    return;
+                } finally {
+                    cacheFile.decRef();
+                }
+            }
+            // the cache file has been evicted in the meantime, load it again
+        }
+    }
+
+    private CacheFile createCacheFile(final CacheKey key, final long rangeLength, final RangeWriter rangeWriter) throws IOException {
+        ensureOpen();
+        final Path file = cacheDir.resolve(UUIDs.randomBase64UUID());
+        boolean success = false;
+        try {
+            try (OutputStream output = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                rangeWriter.writeRange(key, rangeLength, output);
+            }
+            final long actualLength = Files.size(file);
+            if (actualLength != rangeLength) {
+                throw new IOException("expected [" + rangeLength + "] bytes for range " + key + " but got [" + actualLength + "]");
+            }
+            logger.trace("cached range {} of length [{}] into [{}]", key, rangeLength, file);
+            final CacheFile cacheFile = new CacheFile(file, rangeLength);
+            success = true;
+            return cacheFile;
+        } finally {
+            if (success == false) {
+                IOUtils.deleteFilesIgnoringExceptions(file);
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (lifecycle.started() == false) {
+            throw new IllegalStateException("snapshot cache service is not started [" + lifecycleState() + "]");
+        }
+    }
+}
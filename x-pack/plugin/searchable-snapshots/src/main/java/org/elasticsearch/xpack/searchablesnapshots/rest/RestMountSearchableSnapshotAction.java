@@ -0,0 +1,43 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.searchablesnapshots.rest;
+
+import org.elasticsearch.client.node.NodeClient;
+import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.RestController;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.action.RestToXContentListener;
+import org.elasticsearch.xpack.searchablesnapshots.action.MountSearchableSnapshotAction;
+import org.elasticsearch.xpack.searchablesnapshots.action.MountSearchableSnapshotRequest;
+
+import java.io.IOException;
+
+import static org.elasticsearch.rest.RestRequest.Method.POST;
+
+/**
+ * Mounts an index of a snapshot as a searchable snapshot
+ */
+public class RestMountSearchableSnapshotAction extends BaseRestHandler {
+
+    public RestMountSearchableSnapshotAction(RestController controller) {
+        controller.registerHandler(POST, "/_snapshot/{repository}/{snapshot}/_mount", this);
+    }
+
+    @Override
+    public String getName() {
+        return "mount_snapshot_action";
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        MountSearchableSnapshotRequest mountSearchableSnapshotRequest = MountSearchableSnapshotRequest.PARSER.apply(
+            request.contentParser(), request);
+        mountSearchableSnapshotRequest.masterNodeTimeout(
+            request.paramAsTime("master_timeout", mountSearchableSnapshotRequest.masterNodeTimeout()));
+        return channel -> client.execute(MountSearchableSnapshotAction.INSTANCE, mountSearchableSnapshotRequest,
+            new RestToXContentListener<>(channel));
+    }
+}
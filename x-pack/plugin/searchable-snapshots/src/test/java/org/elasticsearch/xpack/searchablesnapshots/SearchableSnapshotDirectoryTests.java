@@ -0,0 +1,162 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.searchablesnapshots;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.Version;
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.blobstore.BlobContainer;
+import org.elasticsearch.common.blobstore.BlobPath;
+import org.elasticsearch.common.blobstore.fs.FsBlobStore;
+import org.elasticsearch.common.lucene.store.InputStreamIndexInput;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot.FileInfo;
+import org.elasticsearch.index.store.Store;
+import org.elasticsearch.index.store.StoreFileMetaData;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.searchablesnapshots.cache.CacheKey;
+import org.elasticsearch.xpack.searchablesnapshots.cache.CacheService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.arrayContainingInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@LuceneTestCase.SuppressFileSystems("ExtrasFS")
+public class SearchableSnapshotDirectoryTests extends ESTestCase {
+
+    public void testReadSnapshotFiles() throws Exception {
+        final int numDocs = randomIntBetween(10, 1_000);
+        try (Directory source = new ByteBuffersDirectory();
+             FsBlobStore blobStore = new FsBlobStore(Settings.EMPTY, createTempDir(), false)) {
+
+            try (IndexWriter writer = new IndexWriter(source, newIndexWriterConfig())) {
+                for (int i = 0; i < numDocs; i++) {
+                    final Document document = new Document();
+                    document.add(new StringField("id", Integer.toString(i), Field.Store.YES));
+                    document.add(new StringField("value", randomAlphaOfLength(10), Field.Store.YES));
+                    writer.addDocument(document);
+                    if (rarely()) {
+                        writer.commit();
+                    }
+                }
+                writer.commit();
+            }
+
+            // snapshot the files of the source directory into the blob container, possibly splitting them into multiple parts
+            final BlobContainer blobContainer = blobStore.blobContainer(BlobPath.cleanPath().add("indices").add("_uuid").add("0"));
+            final ByteSizeValue partSize = randomBoolean() ? null : new ByteSizeValue(randomIntBetween(1, 1024), ByteSizeUnit.BYTES);
+            final List<FileInfo> files = new ArrayList<>();
+            for (String fileName : source.listAll()) {
+                final String checksum;
+                final long length = source.fileLength(fileName);
+                try (IndexInput input = source.openInput(fileName, IOContext.READONCE)) {
+                    checksum = Store.digestToString(CodecUtil.retrieveChecksum(input));
+                }
+                final FileInfo fileInfo = new FileInfo("__" + UUIDs.randomBase64UUID(random()),
+                    new StoreFileMetaData(fileName, length, checksum, Version.LATEST), partSize);
+                for (int part = 0; part < fileInfo.numberOfParts(); part++) {
+                    try (IndexInput input = source.openInput(fileName, IOContext.READONCE)) {
+                        final long partStart = part * (partSize != null ? partSize.getBytes() : 0L);
+                        input.seek(partStart);
+                        blobContainer.writeBlob(fileInfo.partName(part), new InputStreamIndexInput(input, fileInfo.partBytes(part)),
+                            fileInfo.partBytes(part), true);
+                    }
+                }
+                files.add(fileInfo);
+            }
+            final BlobStoreIndexShardSnapshot snapshot = new BlobStoreIndexShardSnapshot("_snapshot", 0L, files, 0L, 0L, 0, 0L);
+
+            final Settings settings = Settings.builder()
+                .put(CacheService.SNAPSHOT_CACHE_RANGE_SIZE_SETTING.getKey(), new ByteSizeValue(randomIntBetween(4, 64), ByteSizeUnit.KB))
+                .put(CacheService.SNAPSHOT_CACHE_SIZE_SETTING.getKey(), new ByteSizeValue(randomIntBetween(64, 1024), ByteSizeUnit.KB))
+                .build();
+            try (CacheService cacheService = new CacheService(settings, createTempDir())) {
+                cacheService.start();
+
+                try (Directory directory = new SearchableSnapshotDirectory(newFSDirectory(createTempDir()), () -> blobContainer,
+                    container -> snapshot, cacheService, "_repository", "_uuid", 0)) {
+
+                    assertThat(directory.listAll(), arrayContainingInAnyOrder(source.listAll()));
+                    for (String fileName : source.listAll()) {
+                        assertThat(directory.fileLength(fileName), equalTo(source.fileLength(fileName)));
+                        try (IndexInput expected = source.openInput(fileName, IOContext.READONCE);
+                             IndexInput actual = directory.openInput(fileName, IOContext.READONCE)) {
+                            final byte[] expectedBytes = new byte[Math.toIntExact(expected.length())];
+                            expected.readBytes(expectedBytes, 0, expectedBytes.length);
+                            final byte[] actualBytes = new byte[Math.toIntExact(actual.length())];
+                            actual.readBytes(actualBytes, 0, actualBytes.length);
+                            assertArrayEquals(expectedBytes, actualBytes);
+                        }
+                    }
+
+                    try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                        assertThat(reader.numDocs(), equalTo(numDocs));
+                        final IndexSearcher searcher = new IndexSearcher(reader);
+                        final int id = randomIntBetween(0, numDocs - 1);
+                        assertThat(searcher.count(new TermQuery(new Term("id", Integer.toString(id)))), equalTo(1));
+                    }
+
+                    // deleting a snapshotted file just hides it
+                    final String fileName = randomFrom(source.listAll());
+                    directory.deleteFile(fileName);
+                    assertThat(directory.listAll().length, equalTo(source.listAll().length - 1));
+                }
+                assertThat(cacheService.getWeight(), lessThanOrEqualTo(CacheService.SNAPSHOT_CACHE_SIZE_SETTING.get(settings).getBytes()));
+            }
+        }
+    }
+
+    public void testCacheServiceReusesCachedRanges() throws Exception {
+        final Settings settings = Settings.builder()
+            .put(CacheService.SNAPSHOT_CACHE_RANGE_SIZE_SETTING.getKey(), new ByteSizeValue(4, ByteSizeUnit.KB))
+            .put(CacheService.SNAPSHOT_CACHE_SIZE_SETTING.getKey(), new ByteSizeValue(1, ByteSizeUnit.MB))
+            .build();
+        try (CacheService cacheService = new CacheService(settings, createTempDir())) {
+            cacheService.start();
+            final byte[] range = randomByteArrayOfLength(4096);
+            final int[] loads = new int[1];
+            final CacheService.RangeWriter rangeWriter = (key, rangeLength, output) -> {
+                loads[0]++;
+                output.write(range, 0, Math.toIntExact(rangeLength));
+            };
+            final CacheKey cacheKey = new CacheKey("_repository", "_uuid", 0, "_blob", 0L);
+
+            final int iterations = randomIntBetween(1, 10);
+            for (int i = 0; i < iterations; i++) {
+                final int position = randomIntBetween(0, range.length - 1);
+                final int length = randomIntBetween(1, range.length - position);
+                final byte[] bytes = new byte[length];
+                cacheService.read(cacheKey, range.length, rangeWriter, position, bytes, 0, length);
+                for (int j = 0; j < length; j++) {
+                    assertThat(bytes[j], equalTo(range[position + j]));
+                }
+            }
+            assertThat(loads[0], equalTo(1));
+            assertThat(cacheService.getCount(), equalTo(1));
+            assertThat(cacheService.getWeight(), greaterThan(0L));
+        }
+    }
+}
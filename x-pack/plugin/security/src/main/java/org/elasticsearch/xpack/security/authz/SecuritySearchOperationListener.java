@@ -9,6 +9,7 @@ import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.index.shard.SearchOperationListener;
 import org.elasticsearch.license.XPackLicenseState;
 import org.elasticsearch.search.SearchContextMissingException;
+import org.elasticsearch.search.internal.ReaderContext;
 import org.elasticsearch.search.internal.ScrollContext;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.transport.TransportRequest;
@@ -22,13 +23,14 @@ import static org.elasticsearch.xpack.security.authz.AuthorizationService.AUTHOR
 import static org.elasticsearch.xpack.security.authz.AuthorizationService.ORIGINATING_ACTION_KEY;
 
 /**
- * A {@link SearchOperationListener} that is used to provide authorization for scroll requests.
+ * A {@link SearchOperationListener} that is used to provide authorization for scroll and point in time requests.
  *
  * In order to identify the user associated with a scroll request, we replace the {@link ScrollContext}
  * on creation with a custom implementation that holds the {@link Authentication} object. When
  * this context is accessed again in {@link SearchOperationListener#onPreQueryPhase(SearchContext)}
  * the ScrollContext is inspected for the authentication, which is compared to the currently
- * authentication.
+ * authentication. The {@link ReaderContext} of a point in time holds the {@link Authentication} of the user
+ * who opened it in the same way.
  */
 public final class SecuritySearchOperationListener implements SearchOperationListener {
 
@@ -70,6 +72,30 @@ public final class SecuritySearchOperationListener implements SearchOperationLis
         }
     }
 
+    /**
+     * Adds the {@link Authentication} to the {@link ReaderContext} of a point in time
+     */
+    @Override
+    public void onNewReaderContext(ReaderContext readerContext) {
+        if (licenseState.isAuthAllowed()) {
+            readerContext.putInContext(AuthenticationField.AUTHENTICATION_KEY, Authentication.getAuthentication(threadContext));
+        }
+    }
+
+    /**
+     * Compares the {@link Authentication} object from the reader context of a point in time with the current authentication context
+     */
+    @Override
+    public void validateReaderContext(ReaderContext readerContext, TransportRequest request) {
+        if (licenseState.isAuthAllowed()) {
+            final Authentication originalAuth = readerContext.getFromContext(AuthenticationField.AUTHENTICATION_KEY);
+            final Authentication current = Authentication.getAuthentication(threadContext);
+            final String action = threadContext.getTransient(ORIGINATING_ACTION_KEY);
+            ensureAuthenticatedUserIsSame(originalAuth, current, auditTrailService, readerContext.id(), action, request,
+                    AuditUtil.extractRequestId(threadContext), threadContext.getTransient(AUTHORIZATION_INFO_KEY));
+        }
+    }
+
     /**
      * Compares the {@link Authentication} that was stored in the {@link ScrollContext} with the
      * current authentication. We cannot guarantee that all of the details of the authentication will
@@ -81,21 +107,7 @@ public final class SecuritySearchOperationListener implements SearchOperationLis
                                               AuthorizationInfo authorizationInfo) {
         // this is really a best effort attempt since we cannot guarantee principal uniqueness
         // and realm names can change between nodes.
-        final boolean samePrincipal = original.getUser().principal().equals(current.getUser().principal());
-        final boolean sameRealmType;
-        if (original.getUser().isRunAs()) {
-            if (current.getUser().isRunAs()) {
-                sameRealmType = original.getLookedUpBy().getType().equals(current.getLookedUpBy().getType());
-            }  else {
-                sameRealmType = original.getLookedUpBy().getType().equals(current.getAuthenticatedBy().getType());
-            }
-        } else if (current.getUser().isRunAs()) {
-            sameRealmType = original.getAuthenticatedBy().getType().equals(current.getLookedUpBy().getType());
-        } else {
-            sameRealmType = original.getAuthenticatedBy().getType().equals(current.getAuthenticatedBy().getType());
-        }
-
-        final boolean sameUser = samePrincipal && sameRealmType;
+        final boolean sameUser = original.sameUserAs(current);
         if (sameUser == false) {
             auditTrailService.accessDenied(requestId, current, action, request, authorizationInfo);
             throw new SearchContextMissingException(id);
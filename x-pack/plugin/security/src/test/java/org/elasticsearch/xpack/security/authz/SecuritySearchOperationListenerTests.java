@@ -9,10 +9,13 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.common.util.concurrent.ThreadContext.StoredContext;
+import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.license.XPackLicenseState;
 import org.elasticsearch.search.Scroll;
 import org.elasticsearch.search.SearchContextMissingException;
+import org.elasticsearch.search.internal.AliasFilter;
 import org.elasticsearch.search.internal.InternalScrollSearchRequest;
+import org.elasticsearch.search.internal.ReaderContext;
 import org.elasticsearch.search.internal.ScrollContext;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.test.ESTestCase;
@@ -166,6 +169,44 @@ public class SecuritySearchOperationListenerTests extends ESTestCase {
         }
     }
 
+    public void testReaderContextIsBoundToTheUserThatOpenedIt() throws Exception {
+        final ReaderContext readerContext = new ReaderContext(randomLong(), mock(IndexShard.class), null,
+            AliasFilter.EMPTY, TimeValue.timeValueMinutes(1).millis(), 0L);
+        XPackLicenseState licenseState = mock(XPackLicenseState.class);
+        when(licenseState.isAuthAllowed()).thenReturn(true);
+        ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+        AuditTrailService auditTrailService = mock(AuditTrailService.class);
+        SecuritySearchOperationListener listener = new SecuritySearchOperationListener(threadContext, licenseState, auditTrailService);
+
+        Authentication authentication = new Authentication(new User("test", "role"), new RealmRef("realm", "file", "node"), null);
+        try (StoredContext ignore = threadContext.newStoredContext(false)) {
+            authentication.writeToContext(threadContext);
+            listener.onNewReaderContext(readerContext);
+        }
+        Authentication contextAuth = readerContext.getFromContext(AuthenticationField.AUTHENTICATION_KEY);
+        assertEquals(authentication, contextAuth);
+
+        try (StoredContext ignore = threadContext.newStoredContext(false)) {
+            authentication.writeToContext(threadContext);
+            listener.validateReaderContext(readerContext, Empty.INSTANCE);
+            verifyZeroInteractions(auditTrailService);
+        }
+
+        try (StoredContext ignore = threadContext.newStoredContext(false)) {
+            Authentication other = new Authentication(new User("other", "role"), new RealmRef("realm", "file", "node"), null);
+            other.writeToContext(threadContext);
+            threadContext.putTransient(ORIGINATING_ACTION_KEY, "action");
+            threadContext.putTransient(AUTHORIZATION_INFO_KEY,
+                (AuthorizationInfo) () -> Collections.singletonMap(PRINCIPAL_ROLES_FIELD_NAME, other.getUser().roles()));
+            SearchContextMissingException expected = expectThrows(SearchContextMissingException.class,
+                () -> listener.validateReaderContext(readerContext, Empty.INSTANCE));
+            assertEquals(readerContext.id(), expected.id());
+            verify(auditTrailService).accessDenied(eq(null), eq(other), eq("action"), eq(Empty.INSTANCE),
+                authzInfoRoles(other.getUser().roles()));
+        }
+        verify(licenseState, times(3)).isAuthAllowed();
+    }
+
     public void testEnsuredAuthenticatedUserIsSame() {
         Authentication original = new Authentication(new User("test", "role"), new RealmRef("realm", "file", "node"), null);
         Authentication current =
@@ -28,12 +28,15 @@ import org.elasticsearch.index.mapper.ParseContext;
 import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.xpack.vectors.query.VectorDVIndexFieldData;
+import org.elasticsearch.xpack.vectors.query.VectorGraphIndexFieldData;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.time.ZoneId;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import static org.elasticsearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
 
@@ -45,8 +48,12 @@ public class DenseVectorFieldMapper extends FieldMapper implements ArrayValueMap
     public static final String CONTENT_TYPE = "dense_vector";
     public static short MAX_DIMS_COUNT = 1024; //maximum allowed number of dimensions
     private static final byte INT_BYTES = 4;
+    // how far from 1 the magnitude of a vector may be when using the dot_product similarity
+    private static final float UNIT_VECTOR_TOLERANCE = 1e-4f;
 
     public static class Defaults {
+        public static final boolean INDEX_VECTORS = false;
+        public static final VectorSimilarity SIMILARITY = VectorSimilarity.COSINE;
         public static final MappedFieldType FIELD_TYPE = new DenseVectorFieldType();
 
         static {
@@ -60,6 +67,8 @@ public class DenseVectorFieldMapper extends FieldMapper implements ArrayValueMap
 
     public static class Builder extends FieldMapper.Builder<Builder, DenseVectorFieldMapper> {
         private int dims = 0;
+        private boolean indexVectors = Defaults.INDEX_VECTORS;
+        private VectorSimilarity similarity = Defaults.SIMILARITY;
 
         public Builder(String name) {
             super(name, Defaults.FIELD_TYPE, Defaults.FIELD_TYPE);
@@ -75,10 +84,29 @@ public class DenseVectorFieldMapper extends FieldMapper implements ArrayValueMap
             return this;
         }
 
+        /**
+         * Whether to build a graph of the vectors of each segment to support approximate nearest neighbour search. Vectors are
+         * never indexed in the inverted index so this is distinct from {@link #index(boolean)}.
+         */
+        public Builder indexVectors(boolean indexVectors) {
+            this.indexVectors = indexVectors;
+            return this;
+        }
+
+        public Builder similarity(VectorSimilarity similarity) {
+            this.similarity = Objects.requireNonNull(similarity);
+            return this;
+        }
+
         @Override
         protected void setupFieldType(BuilderContext context) {
             super.setupFieldType(context);
             fieldType().setDims(dims);
+            fieldType().setIndexVectors(indexVectors);
+            fieldType().setSimilarity(similarity);
+            // the graphs are built by the field data warmer on refresh rather than by the first search
+            fieldType().setEagerGlobalOrdinals(indexVectors);
+            defaultFieldType.setEagerGlobalOrdinals(indexVectors);
         }
 
         @Override
@@ -104,31 +132,101 @@ public class DenseVectorFieldMapper extends FieldMapper implements ArrayValueMap
                 throw new MapperParsingException("The [dims] property must be specified for field [" + name + "].");
             }
             int dims = XContentMapValues.nodeIntegerValue(dimsField);
-            return builder.dims(dims);
+            builder.dims(dims);
+            Object indexField = node.remove("index");
+            if (indexField != null) {
+                builder.indexVectors(XContentMapValues.nodeBooleanValue(indexField, name + ".index"));
+            }
+            Object similarityField = node.remove("similarity");
+            if (similarityField != null) {
+                if (builder.indexVectors == false) {
+                    throw new MapperParsingException("The [similarity] property of field [" + name + "] requires [index] to be [true].");
+                }
+                try {
+                    builder.similarity(VectorSimilarity.fromString(similarityField.toString()));
+                } catch (IllegalArgumentException e) {
+                    throw new MapperParsingException("Unknown [similarity] [" + similarityField + "] for field [" + name + "], " +
+                        "expected one of " + Arrays.toString(VectorSimilarity.values()));
+                }
+            }
+            return builder;
         }
     }
 
     public static final class DenseVectorFieldType extends MappedFieldType {
         private int dims;
+        private boolean indexVectors = Defaults.INDEX_VECTORS;
+        private VectorSimilarity similarity = Defaults.SIMILARITY;
 
         public DenseVectorFieldType() {}
 
         protected DenseVectorFieldType(DenseVectorFieldType ref) {
             super(ref);
+            this.dims = ref.dims;
+            this.indexVectors = ref.indexVectors;
+            this.similarity = ref.similarity;
         }
 
         public DenseVectorFieldType clone() {
             return new DenseVectorFieldType(this);
         }
 
-        int dims() {
+        public int dims() {
             return dims;
         }
 
         void setDims(int dims) {
+            checkIfFrozen();
             this.dims = dims;
         }
 
+        /**
+         * Whether a graph of the vectors is built for approximate nearest neighbour search.
+         */
+        public boolean indexVectors() {
+            return indexVectors;
+        }
+
+        void setIndexVectors(boolean indexVectors) {
+            checkIfFrozen();
+            this.indexVectors = indexVectors;
+        }
+
+        public VectorSimilarity similarity() {
+            return similarity;
+        }
+
+        void setSimilarity(VectorSimilarity similarity) {
+            checkIfFrozen();
+            this.similarity = similarity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (super.equals(o) == false) {
+                return false;
+            }
+            DenseVectorFieldType that = (DenseVectorFieldType) o;
+            return dims == that.dims && indexVectors == that.indexVectors && similarity == that.similarity;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(super.hashCode(), dims, indexVectors, similarity);
+        }
+
+        @Override
+        public void checkCompatibility(MappedFieldType fieldType, List<String> conflicts) {
+            super.checkCompatibility(fieldType, conflicts);
+            DenseVectorFieldType other = (DenseVectorFieldType) fieldType;
+            if (indexVectors != other.indexVectors) {
+                conflicts.add("mapper [" + name() + "] has different [index] values");
+            }
+            if (similarity != other.similarity) {
+                conflicts.add("mapper [" + name() + "] has different [similarity] values");
+            }
+        }
+
         @Override
         public String typeName() {
             return CONTENT_TYPE;
@@ -147,6 +245,9 @@ public class DenseVectorFieldMapper extends FieldMapper implements ArrayValueMap
 
         @Override
         public IndexFieldData.Builder fielddataBuilder(String fullyQualifiedIndexName) {
+            if (indexVectors) {
+                return new VectorGraphIndexFieldData.Builder(dims, similarity);
+            }
             return new VectorDVIndexFieldData.Builder(true);
         }
 
@@ -205,9 +306,15 @@ public class DenseVectorFieldMapper extends FieldMapper implements ArrayValueMap
                 "] less than defined in the mapping [" +  dims +"]");
         }
 
+        float vectorMagnitude = (float) Math.sqrt(dotProduct);
+        if (fieldType().indexVectors() && fieldType().similarity() == VectorSimilarity.DOT_PRODUCT
+                && Math.abs(vectorMagnitude - 1) > UNIT_VECTOR_TOLERANCE) {
+            throw new IllegalArgumentException("Field [" + name() + "] of type [" + typeName() + "] of doc [" +
+                context.sourceToParse().id() + "] must have unit length with the [" + VectorSimilarity.DOT_PRODUCT +
+                "] similarity but has magnitude [" + vectorMagnitude + "]");
+        }
         if (indexCreatedVersion.onOrAfter(Version.V_7_5_0)) {
             // encode vector magnitude at the end
-            float vectorMagnitude = (float) Math.sqrt(dotProduct);
             byteBuffer.putFloat(vectorMagnitude);
         }
         BinaryDocValuesField field = new BinaryDocValuesField(fieldType().name(), new BytesRef(bytes));
@@ -222,6 +329,12 @@ public class DenseVectorFieldMapper extends FieldMapper implements ArrayValueMap
     protected void doXContentBody(XContentBuilder builder, boolean includeDefaults, Params params) throws IOException {
         super.doXContentBody(builder, includeDefaults, params);
         builder.field("dims", fieldType().dims());
+        if (includeDefaults || fieldType().indexVectors() != Defaults.INDEX_VECTORS) {
+            builder.field("index", fieldType().indexVectors());
+        }
+        if (fieldType().indexVectors() && (includeDefaults || fieldType().similarity() != Defaults.SIMILARITY)) {
+            builder.field("similarity", fieldType().similarity().toString());
+        }
     }
 
     @Override
@@ -0,0 +1,81 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.vectors.mapper;
+
+import java.util.Locale;
+
+/**
+ * The similarity functions that can be used to find the nearest neighbours of a {@code dense_vector}. {@link #compare} returns a
+ * raw similarity where higher means closer, {@link #score} turns it into a non-negative score.
+ */
+public enum VectorSimilarity {
+    L2_NORM {
+        @Override
+        public float compare(float[] v1, float[] v2) {
+            float squareSum = 0;
+            for (int i = 0; i < v1.length; i++) {
+                float diff = v1[i] - v2[i];
+                squareSum += diff * diff;
+            }
+            return -squareSum;
+        }
+
+        @Override
+        public float score(float similarity) {
+            return 1 / (1 - similarity);
+        }
+    },
+    /**
+     * Dot product of vectors that are expected to have unit length, which makes it equivalent to cosine but cheaper.
+     */
+    DOT_PRODUCT {
+        @Override
+        public float compare(float[] v1, float[] v2) {
+            return dotProduct(v1, v2);
+        }
+
+        @Override
+        public float score(float similarity) {
+            return Math.max((1 + similarity) / 2, 0);
+        }
+    },
+    /**
+     * Cosine similarity. Vectors must be normalized by the caller before calling {@link #compare} which then simply computes
+     * their dot product.
+     */
+    COSINE {
+        @Override
+        public float compare(float[] v1, float[] v2) {
+            return dotProduct(v1, v2);
+        }
+
+        @Override
+        public float score(float similarity) {
+            return Math.max((1 + similarity) / 2, 0);
+        }
+    };
+
+    public abstract float compare(float[] v1, float[] v2);
+
+    public abstract float score(float similarity);
+
+    private static float dotProduct(float[] v1, float[] v2) {
+        float dot = 0;
+        for (int i = 0; i < v1.length; i++) {
+            dot += v1[i] * v2[i];
+        }
+        return dot;
+    }
+
+    public static VectorSimilarity fromString(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
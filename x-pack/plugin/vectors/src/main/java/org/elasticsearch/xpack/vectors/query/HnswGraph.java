@@ -0,0 +1,463 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.NumericUtils;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.SparseFixedBitSet;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.xpack.vectors.mapper.VectorSimilarity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * A hierarchical navigable small world graph (Malkov and Yashunin, 2016) over the dense vectors of a single segment. Nodes are
+ * numbered in increasing doc id order. The graph is immutable once built, so it can be searched concurrently and lives as long as
+ * the segment it was built from.
+ */
+public final class HnswGraph implements Accountable {
+
+    static final int DEFAULT_MAX_CONNECTIONS = 16;
+    static final int DEFAULT_BEAM_WIDTH = 100;
+    // the graph only has to be good, not reproducible across segments, but a fixed seed makes it deterministic for tests
+    private static final long SEED = 42L;
+
+    private static final TopDocs EMPTY_TOP_DOCS = new TopDocs(new TotalHits(0, TotalHits.Relation.EQUAL_TO), new ScoreDoc[0]);
+
+    /**
+     * A graph without any vector, for segments that don't have the field.
+     */
+    public static final HnswGraph EMPTY = empty();
+
+    private final VectorSimilarity similarity;
+    private final float[][] vectors;
+    private final int[] docs;
+    private final int maxConnections;
+    private final int beamWidth;
+    // node -> level -> neighbours, trimmed to their actual size once the graph is built
+    private final int[][][] neighbours;
+    private float[][][] neighbourScores;
+    private int[][] neighbourCounts;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private long ramBytesUsed;
+
+    private HnswGraph(VectorSimilarity similarity, float[][] vectors, int[] docs, int maxConnections, int beamWidth) {
+        this.similarity = similarity;
+        this.vectors = vectors;
+        this.docs = docs;
+        this.maxConnections = maxConnections;
+        this.beamWidth = beamWidth;
+        this.neighbours = new int[vectors.length][][];
+        this.neighbourScores = new float[vectors.length][][];
+        this.neighbourCounts = new int[vectors.length][];
+    }
+
+    private static HnswGraph empty() {
+        HnswGraph graph = new HnswGraph(VectorSimilarity.COSINE, new float[0][], new int[0], DEFAULT_MAX_CONNECTIONS, DEFAULT_BEAM_WIDTH);
+        graph.freeze();
+        return graph;
+    }
+
+    /**
+     * Builds the graph of all vectors in the given doc values.
+     */
+    public static HnswGraph build(BinaryDocValues values, int dims, VectorSimilarity similarity) throws IOException {
+        return build(values, dims, similarity, DEFAULT_MAX_CONNECTIONS, DEFAULT_BEAM_WIDTH);
+    }
+
+    static HnswGraph build(BinaryDocValues values, int dims, VectorSimilarity similarity,
+                           int maxConnections, int beamWidth) throws IOException {
+        float[][] vectors = new float[16][];
+        int[] docs = new int[16];
+        int size = 0;
+        for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+            if (size == docs.length) {
+                docs = ArrayUtil.grow(docs, size + 1);
+                vectors = ArrayUtil.grow(vectors, size + 1);
+            }
+            float[] vector = decode(values.binaryValue(), dims);
+            if (similarity == VectorSimilarity.COSINE) {
+                normalize(vector);
+            }
+            vectors[size] = vector;
+            docs[size] = doc;
+            size++;
+        }
+        HnswGraph graph = new HnswGraph(similarity, ArrayUtil.copyOfSubArray(vectors, 0, size),
+            ArrayUtil.copyOfSubArray(docs, 0, size), maxConnections, beamWidth);
+        VisitedTracker visited = new VisitedTracker(size);
+        SplittableRandom random = new SplittableRandom(SEED);
+        double levelMultiplier = 1 / Math.log(maxConnections);
+        for (int node = 0; node < size; node++) {
+            // nextDouble() is in [0, 1), take the log of a value in (0, 1]
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+            graph.insert(node, level, visited);
+        }
+        graph.freeze();
+        return graph;
+    }
+
+    static float[] decode(BytesRef bytes, int dims) {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(bytes.bytes, bytes.offset, bytes.length);
+        float[] vector = new float[dims];
+        for (int dim = 0; dim < dims; dim++) {
+            vector[dim] = byteBuffer.getFloat();
+        }
+        return vector;
+    }
+
+    static void normalize(float[] vector) {
+        double squareSum = 0;
+        for (float value : vector) {
+            squareSum += value * value;
+        }
+        if (squareSum > 0) {
+            float magnitude = (float) Math.sqrt(squareSum);
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] /= magnitude;
+            }
+        }
+    }
+
+    /**
+     * The number of vectors in the graph.
+     */
+    public int size() {
+        return vectors.length;
+    }
+
+    /**
+     * Finds the {@code k} nearest neighbours of {@code query} among the documents that {@code acceptDocs} accepts. The search
+     * keeps track of {@code numCandidates} candidates on the bottom layer: more candidates improve recall but are slower.
+     *
+     * @return the nearest neighbours ordered by decreasing score, with the doc ids of the segment
+     */
+    public TopDocs search(float[] query, int k, int numCandidates, Bits acceptDocs) {
+        if (entryPoint == -1) {
+            return EMPTY_TOP_DOCS;
+        }
+        if (similarity == VectorSimilarity.COSINE) {
+            query = query.clone();
+            normalize(query);
+        }
+        int[] entryPoints = new int[] { entryPoint };
+        for (int level = maxLevel; level > 0; level--) {
+            LongHeap closest = searchLayer(query, entryPoints, 1, level, null, visitOnce(new SparseFixedBitSet(size())));
+            entryPoints = new int[] { decodeNode(closest.top()) };
+        }
+        LongHeap results = searchLayer(query, entryPoints, Math.max(k, numCandidates), 0, acceptDocs,
+            visitOnce(new SparseFixedBitSet(size())));
+        while (results.size() > k) {
+            results.pop();
+        }
+        ScoreDoc[] hits = new ScoreDoc[results.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            long encoded = results.pop();
+            hits[i] = new ScoreDoc(docs[decodeNode(encoded)], similarity.score(decodeScore(encoded)));
+        }
+        return new TopDocs(new TotalHits(hits.length, TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO), hits);
+    }
+
+    private void insert(int node, int level, VisitedTracker visited) {
+        neighbours[node] = new int[level + 1][];
+        neighbourScores[node] = new float[level + 1][];
+        neighbourCounts[node] = new int[level + 1];
+        for (int l = 0; l <= level; l++) {
+            // one extra slot so that a full list can take a new neighbour before it is pruned
+            neighbours[node][l] = new int[maxConnections(l) + 1];
+            neighbourScores[node][l] = new float[maxConnections(l) + 1];
+        }
+        if (entryPoint == -1) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        final float[] vector = vectors[node];
+        int[] entryPoints = new int[] { entryPoint };
+        for (int l = maxLevel; l > level; l--) {
+            visited.reset();
+            LongHeap closest = searchLayer(vector, entryPoints, 1, l, null, visited::visit);
+            entryPoints = new int[] { decodeNode(closest.top()) };
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            visited.reset();
+            LongHeap candidates = searchLayer(vector, entryPoints, beamWidth, l, null, visited::visit);
+            // pop the candidates from the worst to the best
+            long[] sorted = new long[candidates.size()];
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                sorted[i] = candidates.pop();
+            }
+            for (int friend : selectNeighbours(sorted, maxConnections(l))) {
+                float score = similarity.compare(vector, vectors[friend]);
+                addNeighbour(node, l, friend, score);
+                addNeighbour(friend, l, node, score);
+            }
+            entryPoints = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                entryPoints[i] = decodeNode(sorted[i]);
+            }
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    /**
+     * Picks the neighbours of a new node among candidates sorted by decreasing similarity with it. A candidate is preferred when it
+     * is closer to the new node than to any neighbour already picked, which keeps links to distinct regions of the graph. Remaining
+     * slots are filled with the closest candidates that were skipped.
+     */
+    private int[] selectNeighbours(long[] sortedCandidates, int maxCount) {
+        int[] selected = new int[Math.min(maxCount, sortedCandidates.length)];
+        boolean[] taken = new boolean[sortedCandidates.length];
+        int count = 0;
+        for (int i = 0; i < sortedCandidates.length && count < selected.length; i++) {
+            int candidate = decodeNode(sortedCandidates[i]);
+            float score = decodeScore(sortedCandidates[i]);
+            boolean diverse = true;
+            for (int j = 0; j < count; j++) {
+                if (similarity.compare(vectors[candidate], vectors[selected[j]]) > score) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate;
+                taken[i] = true;
+            }
+        }
+        for (int i = 0; i < sortedCandidates.length && count < selected.length; i++) {
+            if (taken[i] == false) {
+                selected[count++] = decodeNode(sortedCandidates[i]);
+            }
+        }
+        return selected;
+    }
+
+    private void addNeighbour(int node, int level, int friend, float score) {
+        int[] friends = neighbours[node][level];
+        float[] scores = neighbourScores[node][level];
+        int count = neighbourCounts[node][level];
+        friends[count] = friend;
+        scores[count] = score;
+        count++;
+        if (count > maxConnections(level)) {
+            // drop the most distant neighbour
+            int worst = 0;
+            for (int i = 1; i < count; i++) {
+                if (scores[i] < scores[worst]) {
+                    worst = i;
+                }
+            }
+            count--;
+            friends[worst] = friends[count];
+            scores[worst] = scores[count];
+        }
+        neighbourCounts[node][level] = count;
+    }
+
+    private int maxConnections(int level) {
+        return level == 0 ? maxConnections * 2 : maxConnections;
+    }
+
+    private void freeze() {
+        long bytes = RamUsageEstimator.shallowSizeOf(vectors) + RamUsageEstimator.sizeOf(docs)
+            + RamUsageEstimator.shallowSizeOf(neighbours);
+        for (int node = 0; node < vectors.length; node++) {
+            bytes += RamUsageEstimator.sizeOf(vectors[node]);
+            bytes += RamUsageEstimator.shallowSizeOf(neighbours[node]);
+            for (int level = 0; level < neighbours[node].length; level++) {
+                neighbours[node][level] = ArrayUtil.copyOfSubArray(neighbours[node][level], 0, neighbourCounts[node][level]);
+                bytes += RamUsageEstimator.sizeOf(neighbours[node][level]);
+            }
+        }
+        neighbourScores = null;
+        neighbourCounts = null;
+        ramBytesUsed = bytes;
+    }
+
+    private int neighbourCount(int node, int level) {
+        return neighbourCounts == null ? neighbours[node][level].length : neighbourCounts[node][level];
+    }
+
+    /**
+     * Greedy beam search of a single layer of the graph.
+     *
+     * @return a min-heap of the {@code ef} accepted nodes that are the most similar to the query
+     */
+    private LongHeap searchLayer(float[] query, int[] entryPoints, int ef, int level, Bits acceptDocs, IntPredicate visit) {
+        // candidates are negated so that the most similar one is at the top
+        LongHeap candidates = new LongHeap();
+        LongHeap results = new LongHeap();
+        for (int entryPoint : entryPoints) {
+            if (visit.test(entryPoint)) {
+                long encoded = encode(entryPoint, similarity.compare(query, vectors[entryPoint]));
+                candidates.push(~encoded);
+                if (acceptDocs == null || acceptDocs.get(docs[entryPoint])) {
+                    results.push(encoded);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        while (candidates.size() > 0) {
+            long best = ~candidates.pop();
+            if (results.size() >= ef && decodeScore(best) < decodeScore(results.top())) {
+                break;
+            }
+            int node = decodeNode(best);
+            int[] friends = neighbours[node][level];
+            int count = neighbourCount(node, level);
+            for (int i = 0; i < count; i++) {
+                int friend = friends[i];
+                if (visit.test(friend) == false) {
+                    continue;
+                }
+                float score = similarity.compare(query, vectors[friend]);
+                if (results.size() < ef || score > decodeScore(results.top())) {
+                    long encoded = encode(friend, score);
+                    candidates.push(~encoded);
+                    if (acceptDocs == null || acceptDocs.get(docs[friend])) {
+                        results.push(encoded);
+                        if (results.size() > ef) {
+                            results.pop();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private static IntPredicate visitOnce(SparseFixedBitSet visited) {
+        return node -> {
+            if (visited.get(node)) {
+                return false;
+            }
+            visited.set(node);
+            return true;
+        };
+    }
+
+    /**
+     * Packs a node and its similarity into a long that sorts by similarity, then by node.
+     */
+    private static long encode(int node, float score) {
+        return (((long) NumericUtils.floatToSortableInt(score)) << 32) | (node & 0xFFFFFFFFL);
+    }
+
+    private static int decodeNode(long encoded) {
+        return (int) encoded;
+    }
+
+    private static float decodeScore(long encoded) {
+        return NumericUtils.sortableIntToFloat((int) (encoded >> 32));
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        return ramBytesUsed;
+    }
+
+    /**
+     * Tracks visited nodes across the many searches done while building the graph without clearing a bit set between them.
+     */
+    private static final class VisitedTracker {
+        private final int[] marks;
+        private int generation;
+
+        VisitedTracker(int size) {
+            this.marks = new int[size];
+        }
+
+        void reset() {
+            generation++;
+        }
+
+        boolean visit(int node) {
+            if (marks[node] == generation) {
+                return false;
+            }
+            marks[node] = generation;
+            return true;
+        }
+    }
+
+    /**
+     * A binary min-heap of longs.
+     */
+    private static final class LongHeap {
+        private long[] heap = new long[16];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long top() {
+            assert size > 0;
+            return heap[0];
+        }
+
+        void push(long value) {
+            if (size == heap.length) {
+                heap = ArrayUtil.grow(heap, size + 1);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        long pop() {
+            assert size > 0;
+            long result = heap[0];
+            long value = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (value <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = value;
+            return result;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HnswGraph(size=" + size() + ", maxLevel=" + maxLevel + ", similarity=" + similarity + ")";
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.Weight;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Finds the {@code k} nearest neighbours of a query vector using the {@link HnswGraph} of each segment. The search happens when the
+ * query is rewritten: the best hits of every segment are merged into the top {@code k} of the whole reader, which are then
+ * returned with their scores by a query that is tied to this reader.
+ */
+public class KnnVectorQuery extends Query {
+
+    private final String field;
+    private final float[] queryVector;
+    private final int k;
+    private final int numCandidates;
+    private final VectorGraphIndexFieldData fieldData;
+
+    public KnnVectorQuery(String field, float[] queryVector, int k, int numCandidates, VectorGraphIndexFieldData fieldData) {
+        this.field = Objects.requireNonNull(field);
+        this.queryVector = Objects.requireNonNull(queryVector);
+        this.k = k;
+        this.numCandidates = numCandidates;
+        this.fieldData = Objects.requireNonNull(fieldData);
+    }
+
+    @Override
+    public Query rewrite(IndexReader reader) throws IOException {
+        TopDocs[] perLeaf = new TopDocs[reader.leaves().size()];
+        for (LeafReaderContext context : reader.leaves()) {
+            HnswGraph graph = fieldData.load(context).getGraph();
+            TopDocs topDocs = graph.search(queryVector, k, numCandidates, context.reader().getLiveDocs());
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                scoreDoc.doc += context.docBase;
+            }
+            perLeaf[context.ord] = topDocs;
+        }
+        ScoreDoc[] topK = TopDocs.merge(k, perLeaf).scoreDocs;
+        if (topK.length == 0) {
+            return new MatchNoDocsQuery("no vectors in field [" + field + "]");
+        }
+        Arrays.sort(topK, Comparator.comparingInt(scoreDoc -> scoreDoc.doc));
+        int[] docs = new int[topK.length];
+        float[] scores = new float[topK.length];
+        for (int i = 0; i < topK.length; i++) {
+            docs[i] = topK[i].doc;
+            scores[i] = topK[i].score;
+        }
+        return new TopDocsQuery(reader.getContext().id(), docs, scores);
+    }
+
+    @Override
+    public String toString(String field) {
+        return "knn(" + this.field + ", k=" + k + ", num_candidates=" + numCandidates + ")";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (sameClassAs(obj) == false) {
+            return false;
+        }
+        KnnVectorQuery that = (KnnVectorQuery) obj;
+        return field.equals(that.field) && Arrays.equals(queryVector, that.queryVector)
+            && k == that.k && numCandidates == that.numCandidates;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), field, Arrays.hashCode(queryVector), k, numCandidates);
+    }
+
+    /**
+     * Matches a fixed set of documents of a given reader, sorted by doc id, with precomputed scores.
+     */
+    static final class TopDocsQuery extends Query {
+        // the hits were found across all segments, so they are only valid for the reader that they were found in
+        private final Object readerId;
+        private final int[] docs;
+        private final float[] scores;
+
+        TopDocsQuery(Object readerId, int[] docs, float[] scores) {
+            this.readerId = readerId;
+            this.docs = docs;
+            this.scores = scores;
+        }
+
+        @Override
+        public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+            if (Objects.equals(searcher.getIndexReader().getContext().id(), readerId) == false) {
+                throw new IllegalStateException("Executing against a different reader than the query has been rewritten against");
+            }
+            return new Weight(this) {
+                @Override
+                public void extractTerms(Set<Term> terms) {
+                }
+
+                @Override
+                public Explanation explain(LeafReaderContext context, int doc) {
+                    int index = Arrays.binarySearch(docs, context.docBase + doc);
+                    if (index < 0) {
+                        return Explanation.noMatch("not a nearest neighbour");
+                    }
+                    return Explanation.match(scores[index] * boost, "nearest neighbour similarity");
+                }
+
+                @Override
+                public Scorer scorer(LeafReaderContext context) {
+                    int from = firstIndexAtLeast(0, docs.length, context.docBase);
+                    int to = firstIndexAtLeast(from, docs.length, context.docBase + context.reader().maxDoc());
+                    if (from == to) {
+                        return null;
+                    }
+                    return new TopDocsScorer(this, context.docBase, from, to, boost);
+                }
+
+                @Override
+                public boolean isCacheable(LeafReaderContext ctx) {
+                    // matches of a segment depend on the other segments
+                    return false;
+                }
+            };
+        }
+
+        private int firstIndexAtLeast(int from, int to, int doc) {
+            int index = Arrays.binarySearch(docs, from, to, doc);
+            return index >= 0 ? index : -1 - index;
+        }
+
+        private final class TopDocsScorer extends Scorer {
+            private final int docBase;
+            private final int from;
+            private final int to;
+            private final float boost;
+            private int index;
+
+            TopDocsScorer(Weight weight, int docBase, int from, int to, float boost) {
+                super(weight);
+                this.docBase = docBase;
+                this.from = from;
+                this.to = to;
+                this.boost = boost;
+                this.index = from - 1;
+            }
+
+            @Override
+            public int docID() {
+                if (index < from) {
+                    return -1;
+                }
+                return index < to ? docs[index] - docBase : DocIdSetIterator.NO_MORE_DOCS;
+            }
+
+            @Override
+            public float score() {
+                return scores[index] * boost;
+            }
+
+            @Override
+            public float getMaxScore(int upTo) {
+                float maxScore = 0;
+                for (int i = Math.max(index, from); i < to && docs[i] - docBase <= upTo; i++) {
+                    maxScore = Math.max(maxScore, scores[i]);
+                }
+                return maxScore * boost;
+            }
+
+            @Override
+            public DocIdSetIterator iterator() {
+                return new DocIdSetIterator() {
+                    @Override
+                    public int docID() {
+                        return TopDocsScorer.this.docID();
+                    }
+
+                    @Override
+                    public int nextDoc() {
+                        index = Math.min(index + 1, to);
+                        return docID();
+                    }
+
+                    @Override
+                    public int advance(int target) {
+                        index = firstIndexAtLeast(Math.min(index + 1, to), to, docBase + target);
+                        return docID();
+                    }
+
+                    @Override
+                    public long cost() {
+                        return to - from;
+                    }
+                };
+            }
+        }
+
+        @Override
+        public String toString(String field) {
+            return "TopDocsQuery(hits=" + docs.length + ")";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (sameClassAs(obj) == false) {
+                return false;
+            }
+            TopDocsQuery that = (TopDocsQuery) obj;
+            return Objects.equals(readerId, that.readerId) && Arrays.equals(docs, that.docs) && Arrays.equals(scores, that.scores);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(classHash(), readerId, Arrays.hashCode(docs), Arrays.hashCode(scores));
+        }
+    }
+}
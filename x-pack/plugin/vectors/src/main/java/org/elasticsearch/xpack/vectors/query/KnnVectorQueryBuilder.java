@@ -0,0 +1,193 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.common.ParseField;
+import org.elasticsearch.common.ParsingException;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.xcontent.ConstructingObjectParser;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.query.AbstractQueryBuilder;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.xpack.vectors.mapper.DenseVectorFieldMapper;
+import org.elasticsearch.xpack.vectors.mapper.DenseVectorFieldMapper.DenseVectorFieldType;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.elasticsearch.common.xcontent.ConstructingObjectParser.constructorArg;
+import static org.elasticsearch.common.xcontent.ConstructingObjectParser.optionalConstructorArg;
+
+/**
+ * A query that finds the {@code k} approximate nearest neighbours of a vector in a {@code dense_vector} field that was mapped with
+ * {@code index: true}. Each shard returns its own {@code k} nearest neighbours, which are then merged like any other hits.
+ */
+public class KnnVectorQueryBuilder extends AbstractQueryBuilder<KnnVectorQueryBuilder> {
+    public static final String NAME = "knn";
+    public static final int DEFAULT_K = 10;
+    public static final int DEFAULT_NUM_CANDIDATES = 100;
+    public static final int MAX_NUM_CANDIDATES = 10_000;
+
+    private static final ParseField FIELD_FIELD = new ParseField("field");
+    private static final ParseField QUERY_VECTOR_FIELD = new ParseField("query_vector");
+    private static final ParseField K_FIELD = new ParseField("k");
+    private static final ParseField NUM_CANDIDATES_FIELD = new ParseField("num_candidates");
+
+    private final String field;
+    private final float[] queryVector;
+    private final int k;
+    private final int numCandidates;
+
+    /**
+     * Creates a new knn query
+     *
+     * @param numCandidates the number of candidates that each segment keeps track of, more candidates improve accuracy but are
+     *                      slower, {@code null} defaults to the largest of {@code k} and {@value DEFAULT_NUM_CANDIDATES}
+     */
+    public KnnVectorQueryBuilder(String field, float[] queryVector, int k, Integer numCandidates) {
+        if (field == null) {
+            throw new IllegalArgumentException("[" + NAME + "] field cannot be null");
+        }
+        if (queryVector == null) {
+            throw new IllegalArgumentException("[" + NAME + "] query_vector cannot be null");
+        }
+        if (k < 1) {
+            throw new IllegalArgumentException("[" + NAME + "] k must be greater than 0, got [" + k + "]");
+        }
+        int candidates = numCandidates == null ? Math.max(k, DEFAULT_NUM_CANDIDATES) : numCandidates;
+        if (candidates < k) {
+            throw new IllegalArgumentException("[" + NAME + "] num_candidates must be greater than or equal to k, got [" +
+                candidates + "] and k [" + k + "]");
+        }
+        if (candidates > MAX_NUM_CANDIDATES) {
+            throw new IllegalArgumentException("[" + NAME + "] num_candidates cannot exceed [" + MAX_NUM_CANDIDATES + "], got [" +
+                candidates + "]");
+        }
+        this.field = field;
+        this.queryVector = queryVector;
+        this.k = k;
+        this.numCandidates = candidates;
+    }
+
+    /**
+     * Read from a stream.
+     */
+    public KnnVectorQueryBuilder(StreamInput in) throws IOException {
+        super(in);
+        field = in.readString();
+        queryVector = in.readFloatArray();
+        k = in.readVInt();
+        numCandidates = in.readVInt();
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeString(field);
+        out.writeFloatArray(queryVector);
+        out.writeVInt(k);
+        out.writeVInt(numCandidates);
+    }
+
+    public String field() {
+        return field;
+    }
+
+    public float[] queryVector() {
+        return queryVector;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    public int numCandidates() {
+        return numCandidates;
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(NAME);
+        builder.field(FIELD_FIELD.getPreferredName(), field);
+        builder.array(QUERY_VECTOR_FIELD.getPreferredName(), queryVector);
+        builder.field(K_FIELD.getPreferredName(), k);
+        builder.field(NUM_CANDIDATES_FIELD.getPreferredName(), numCandidates);
+        printBoostAndQueryName(builder);
+        builder.endObject();
+    }
+
+    private static final ConstructingObjectParser<KnnVectorQueryBuilder, Void> PARSER = new ConstructingObjectParser<>(NAME,
+        a -> {
+            @SuppressWarnings("unchecked")
+            List<Float> values = (List<Float>) a[1];
+            float[] queryVector = new float[values.size()];
+            for (int i = 0; i < queryVector.length; i++) {
+                queryVector[i] = values.get(i);
+            }
+            int k = a[2] == null ? DEFAULT_K : (Integer) a[2];
+            return new KnnVectorQueryBuilder((String) a[0], queryVector, k, (Integer) a[3]);
+        });
+    static {
+        PARSER.declareString(constructorArg(), FIELD_FIELD);
+        PARSER.declareFloatArray(constructorArg(), QUERY_VECTOR_FIELD);
+        PARSER.declareInt(optionalConstructorArg(), K_FIELD);
+        PARSER.declareInt(optionalConstructorArg(), NUM_CANDIDATES_FIELD);
+        declareStandardFields(PARSER);
+    }
+
+    public static KnnVectorQueryBuilder fromXContent(XContentParser parser) {
+        try {
+            return PARSER.apply(parser, null);
+        } catch (IllegalArgumentException e) {
+            throw new ParsingException(parser.getTokenLocation(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getWriteableName() {
+        return NAME;
+    }
+
+    @Override
+    protected Query doToQuery(QueryShardContext context) {
+        MappedFieldType fieldType = context.fieldMapper(field);
+        if (fieldType == null) {
+            return new MatchNoDocsQuery("field [" + field + "] is not mapped");
+        }
+        if (fieldType instanceof DenseVectorFieldType == false) {
+            throw new IllegalArgumentException("[" + NAME + "] queries are only supported on [" + DenseVectorFieldMapper.CONTENT_TYPE +
+                "] fields, but [" + field + "] is of type [" + fieldType.typeName() + "]");
+        }
+        DenseVectorFieldType vectorFieldType = (DenseVectorFieldType) fieldType;
+        if (vectorFieldType.indexVectors() == false) {
+            throw new IllegalArgumentException("[" + NAME + "] queries are only supported on [" + DenseVectorFieldMapper.CONTENT_TYPE +
+                "] fields that are mapped with [index: true], but [" + field + "] is not");
+        }
+        if (vectorFieldType.dims() != queryVector.length) {
+            throw new IllegalArgumentException("[" + NAME + "] the query vector has [" + queryVector.length +
+                "] dimensions but field [" + field + "] has [" + vectorFieldType.dims() + "]");
+        }
+        VectorGraphIndexFieldData fieldData = context.getForField(fieldType);
+        return new KnnVectorQuery(field, queryVector, k, numCandidates, fieldData);
+    }
+
+    @Override
+    protected int doHashCode() {
+        return Objects.hash(field, Arrays.hashCode(queryVector), k, numCandidates);
+    }
+
+    @Override
+    protected boolean doEquals(KnnVectorQueryBuilder other) {
+        return Objects.equals(field, other.field) && Arrays.equals(queryVector, other.queryVector)
+            && k == other.k && numCandidates == other.numCandidates;
+    }
+}
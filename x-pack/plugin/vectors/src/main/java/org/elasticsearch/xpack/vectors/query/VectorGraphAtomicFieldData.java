@@ -0,0 +1,69 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Accountables;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.index.fielddata.AtomicFieldData;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * The {@link HnswGraph} of a segment. Scripts still read the vectors from doc values.
+ */
+public final class VectorGraphAtomicFieldData implements AtomicFieldData {
+
+    private final LeafReader reader;
+    private final String field;
+    private final HnswGraph graph;
+
+    VectorGraphAtomicFieldData(LeafReader reader, String field, HnswGraph graph) {
+        this.reader = reader;
+        this.field = field;
+        this.graph = graph;
+    }
+
+    public HnswGraph getGraph() {
+        return graph;
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        return graph.ramBytesUsed();
+    }
+
+    @Override
+    public Collection<Accountable> getChildResources() {
+        return Collections.singletonList(Accountables.namedAccountable("graph", graph));
+    }
+
+    @Override
+    public SortedBinaryDocValues getBytesValues() {
+        throw new UnsupportedOperationException("String representation of doc values for vector fields is not supported");
+    }
+
+    @Override
+    public ScriptDocValues<BytesRef> getScriptValues() {
+        try {
+            return new VectorScriptDocValues.DenseVectorScriptDocValues(
+                reader == null ? DocValues.emptyBinary() : DocValues.getBinary(reader, field));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load doc values for vector field!", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        // no-op
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.fielddata.IndexFieldData.XFieldComparatorSource.Nested;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.fielddata.plain.AbstractIndexFieldData;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.search.MultiValueMode;
+import org.elasticsearch.xpack.vectors.mapper.VectorSimilarity;
+
+/**
+ * Field data for {@code dense_vector} fields that are indexed for nearest neighbour search. Loading a segment builds the
+ * {@link HnswGraph} of its vectors, which is then cached for as long as the segment lives and accounted for in the field data
+ * circuit breaker. The graphs are global in the sense that {@link #loadGlobal} builds the graphs of all segments, which lets the
+ * field data warmer build them on refresh instead of the first search paying the cost.
+ */
+public class VectorGraphIndexFieldData extends AbstractIndexFieldData<VectorGraphAtomicFieldData>
+        implements IndexFieldData.Global<VectorGraphAtomicFieldData> {
+
+    private final int dims;
+    private final VectorSimilarity similarity;
+    private final CircuitBreaker breaker;
+
+    public VectorGraphIndexFieldData(IndexSettings indexSettings, String fieldName, IndexFieldDataCache cache,
+                                     CircuitBreakerService breakerService, int dims, VectorSimilarity similarity) {
+        super(indexSettings, fieldName, cache);
+        this.dims = dims;
+        this.similarity = similarity;
+        this.breaker = breakerService.getBreaker(CircuitBreaker.FIELDDATA);
+    }
+
+    public VectorSimilarity similarity() {
+        return similarity;
+    }
+
+    @Override
+    public VectorGraphAtomicFieldData loadDirect(LeafReaderContext context) throws Exception {
+        final LeafReader reader = context.reader();
+        final long estimatedBytes = estimateGraphBytes(reader.maxDoc());
+        breaker.addEstimateBytesAndMaybeBreak(estimatedBytes, getFieldName());
+        HnswGraph graph = null;
+        try {
+            graph = HnswGraph.build(DocValues.getBinary(reader, getFieldName()), dims, similarity);
+        } finally {
+            breaker.addWithoutBreaking(-(estimatedBytes - (graph == null ? 0 : graph.ramBytesUsed())));
+        }
+        return new VectorGraphAtomicFieldData(reader, getFieldName(), graph);
+    }
+
+    /**
+     * An upper bound of the memory used by the graph of a segment, assuming that all documents have a vector.
+     */
+    private long estimateGraphBytes(int maxDoc) {
+        long perVector = (long) dims * Float.BYTES + 2 * HnswGraph.DEFAULT_MAX_CONNECTIONS * Integer.BYTES + Integer.BYTES
+            + 3 * RamUsageEstimator.NUM_BYTES_ARRAY_HEADER;
+        return perVector * maxDoc;
+    }
+
+    @Override
+    protected VectorGraphAtomicFieldData empty(int maxDoc) {
+        return new VectorGraphAtomicFieldData(null, getFieldName(), HnswGraph.EMPTY);
+    }
+
+    @Override
+    public IndexFieldData<VectorGraphAtomicFieldData> loadGlobal(DirectoryReader indexReader) {
+        for (LeafReaderContext context : indexReader.leaves()) {
+            load(context);
+        }
+        return this;
+    }
+
+    @Override
+    public IndexFieldData<VectorGraphAtomicFieldData> localGlobalDirect(DirectoryReader indexReader) {
+        return loadGlobal(indexReader);
+    }
+
+    @Override
+    public SortField sortField(@Nullable Object missingValue, MultiValueMode sortMode, Nested nested, boolean reverse) {
+        throw new IllegalArgumentException("can't sort on the vector field");
+    }
+
+    public static class Builder implements IndexFieldData.Builder {
+        private final int dims;
+        private final VectorSimilarity similarity;
+
+        public Builder(int dims, VectorSimilarity similarity) {
+            this.dims = dims;
+            this.similarity = similarity;
+        }
+
+        @Override
+        public IndexFieldData<?> build(IndexSettings indexSettings, MappedFieldType fieldType, IndexFieldDataCache cache,
+                                       CircuitBreakerService breakerService, MapperService mapperService) {
+            return new VectorGraphIndexFieldData(indexSettings, fieldType.name(), cache, breakerService, dims, similarity);
+        }
+    }
+}
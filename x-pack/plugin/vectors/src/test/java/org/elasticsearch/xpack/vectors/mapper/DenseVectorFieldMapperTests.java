@@ -187,4 +187,50 @@ public class DenseVectorFieldMapperTests extends ESSingleNodeTestCase {
             new SourceToParse("test-index", "2", invalidDoc2, XContentType.JSON)));
         assertThat(e2.getCause().getMessage(), containsString("has number of dimensions [2] less than defined in the mapping [3]"));
     }
+
+    public void testIndexedVectors() throws Exception {
+        IndexService indexService = createIndex("test-index");
+        DocumentMapperParser parser = indexService.mapperService().documentMapperParser();
+        String mapping = Strings.toString(XContentFactory.jsonBuilder()
+            .startObject()
+            .startObject("_doc")
+            .startObject("properties")
+            .startObject("my-dense-vector").field("type", "dense_vector").field("dims", 2)
+                .field("index", true).field("similarity", "dot_product")
+            .endObject()
+            .endObject()
+            .endObject()
+            .endObject());
+        DocumentMapper mapper = parser.parse("_doc", new CompressedXContent(mapping));
+        assertEquals(mapping, mapper.mappingSource().toString());
+        DenseVectorFieldMapper.DenseVectorFieldType fieldType =
+            (DenseVectorFieldMapper.DenseVectorFieldType) mapper.mappers().getMapper("my-dense-vector").fieldType();
+        assertTrue(fieldType.indexVectors());
+        assertEquals(VectorSimilarity.DOT_PRODUCT, fieldType.similarity());
+
+        mapper.parse(new SourceToParse("test-index", "1", BytesReference.bytes(XContentFactory.jsonBuilder().startObject()
+            .array("my-dense-vector", 0.6f, 0.8f)
+            .endObject()), XContentType.JSON));
+        MapperParsingException e = expectThrows(MapperParsingException.class, () -> mapper.parse(
+            new SourceToParse("test-index", "2", BytesReference.bytes(XContentFactory.jsonBuilder().startObject()
+                .array("my-dense-vector", 3f, 4f)
+                .endObject()), XContentType.JSON)));
+        assertThat(e.getCause().getMessage(), containsString("must have unit length with the [dot_product] similarity"));
+    }
+
+    public void testSimilarityRequiresIndex() throws Exception {
+        IndexService indexService = createIndex("test-index");
+        DocumentMapperParser parser = indexService.mapperService().documentMapperParser();
+        String mapping = Strings.toString(XContentFactory.jsonBuilder()
+            .startObject()
+            .startObject("_doc")
+            .startObject("properties")
+            .startObject("my-dense-vector").field("type", "dense_vector").field("dims", 3).field("similarity", "l2_norm")
+            .endObject()
+            .endObject()
+            .endObject()
+            .endObject());
+        MapperParsingException e = expectThrows(MapperParsingException.class, () -> parser.parse("_doc", new CompressedXContent(mapping)));
+        assertEquals("The [similarity] property of field [my-dense-vector] requires [index] to be [true].", e.getMessage());
+    }
 }
@@ -9,9 +9,27 @@ package org.elasticsearch.xpack.vectors.mapper;
 
 import org.elasticsearch.index.mapper.FieldTypeTestCase;
 import org.elasticsearch.index.mapper.MappedFieldType;
+import org.junit.Before;
 
 public class DenseVectorFieldTypeTests extends FieldTypeTestCase {
 
+    @Before
+    public void setupProperties() {
+        addModifier(new Modifier("index", false) {
+            @Override
+            public void modify(MappedFieldType ft) {
+                DenseVectorFieldMapper.DenseVectorFieldType vectorFieldType = (DenseVectorFieldMapper.DenseVectorFieldType) ft;
+                vectorFieldType.setIndexVectors(vectorFieldType.indexVectors() == false);
+            }
+        });
+        addModifier(new Modifier("similarity", false) {
+            @Override
+            public void modify(MappedFieldType ft) {
+                ((DenseVectorFieldMapper.DenseVectorFieldType) ft).setSimilarity(VectorSimilarity.L2_NORM);
+            }
+        });
+    }
+
     @Override
     protected MappedFieldType createDefaultFieldType() {
         return new DenseVectorFieldMapper.DenseVectorFieldType();
@@ -0,0 +1,136 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FixedBitSet;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.vectors.mapper.VectorSimilarity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class HnswGraphTests extends ESTestCase {
+
+    private static final String FIELD = "vector";
+
+    public void testEmpty() throws IOException {
+        assertThat(HnswGraph.EMPTY.size(), equalTo(0));
+        assertThat(HnswGraph.EMPTY.search(new float[] { 1f }, 10, 100, null).scoreDocs.length, equalTo(0));
+    }
+
+    public void testRecall() throws IOException {
+        int dims = randomIntBetween(2, 16);
+        int numVectors = randomIntBetween(500, 2000);
+        float[][] vectors = randomVectors(numVectors, dims);
+        VectorSimilarity similarity = randomFrom(VectorSimilarity.L2_NORM, VectorSimilarity.COSINE);
+        try (Directory directory = newDirectory(); DirectoryReader reader = indexVectors(directory, vectors)) {
+            LeafReader leafReader = getOnlyLeafReader(reader);
+            HnswGraph graph = HnswGraph.build(leafReader.getBinaryDocValues(FIELD), dims, similarity);
+            assertThat(graph.size(), equalTo(numVectors));
+            assertThat(graph.ramBytesUsed(), greaterThanOrEqualTo((long) numVectors * dims * Float.BYTES));
+
+            int k = 10;
+            int numQueries = 20;
+            int found = 0;
+            for (int i = 0; i < numQueries; i++) {
+                float[] query = randomVectors(1, dims)[0];
+                TopDocs topDocs = graph.search(query, k, 100, null);
+                assertThat(topDocs.scoreDocs.length, equalTo(k));
+                for (int j = 1; j < topDocs.scoreDocs.length; j++) {
+                    assertThat(topDocs.scoreDocs[j].score, lessThanOrEqualTo(topDocs.scoreDocs[j - 1].score));
+                }
+                Set<Integer> expected = bruteForce(vectors, query, k, similarity);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    if (expected.contains(scoreDoc.doc)) {
+                        found++;
+                    }
+                }
+            }
+            // a well connected graph finds almost all true neighbours with that many candidates
+            assertThat((double) found / (k * numQueries), greaterThanOrEqualTo(0.9));
+        }
+    }
+
+    public void testAcceptDocs() throws IOException {
+        int dims = randomIntBetween(2, 8);
+        int numVectors = randomIntBetween(100, 500);
+        float[][] vectors = randomVectors(numVectors, dims);
+        try (Directory directory = newDirectory(); DirectoryReader reader = indexVectors(directory, vectors)) {
+            LeafReader leafReader = getOnlyLeafReader(reader);
+            HnswGraph graph = HnswGraph.build(leafReader.getBinaryDocValues(FIELD), dims, VectorSimilarity.L2_NORM);
+            FixedBitSet acceptDocs = new FixedBitSet(numVectors);
+            for (int doc = 0; doc < numVectors; doc += 2) {
+                acceptDocs.set(doc);
+            }
+            TopDocs topDocs = graph.search(randomVectors(1, dims)[0], 5, 50, acceptDocs);
+            assertThat(topDocs.scoreDocs.length, equalTo(5));
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                assertThat(scoreDoc.doc % 2, equalTo(0));
+            }
+        }
+    }
+
+    private static float[][] randomVectors(int count, int dims) {
+        float[][] vectors = new float[count][dims];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < dims; i++) {
+                vector[i] = randomFloat() * 2 - 1;
+            }
+        }
+        return vectors;
+    }
+
+    private static DirectoryReader indexVectors(Directory directory, float[][] vectors) throws IOException {
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (float[] vector : vectors) {
+                ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES);
+                for (float value : vector) {
+                    buffer.putFloat(value);
+                }
+                Document document = new Document();
+                document.add(new BinaryDocValuesField(FIELD, new BytesRef(buffer.array())));
+                writer.addDocument(document);
+            }
+            writer.forceMerge(1);
+        }
+        return DirectoryReader.open(directory);
+    }
+
+    private static Set<Integer> bruteForce(float[][] vectors, float[] query, int k, VectorSimilarity similarity) {
+        float[] normalizedQuery = query.clone();
+        if (similarity == VectorSimilarity.COSINE) {
+            HnswGraph.normalize(normalizedQuery);
+        }
+        Integer[] docs = IntStream.range(0, vectors.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(docs, Comparator.comparingDouble(doc -> {
+            float[] vector = vectors[doc].clone();
+            if (similarity == VectorSimilarity.COSINE) {
+                HnswGraph.normalize(vector);
+            }
+            return -similarity.compare(normalizedQuery, vector);
+        }));
+        return new HashSet<>(Arrays.asList(docs).subList(0, k));
+    }
+}
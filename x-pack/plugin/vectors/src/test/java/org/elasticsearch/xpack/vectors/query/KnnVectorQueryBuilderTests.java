@@ -0,0 +1,155 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.action.admin.indices.mapping.put.PutMappingRequest;
+import org.elasticsearch.common.ParsingException;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.compress.CompressedXContent;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.test.AbstractQueryTestCase;
+import org.elasticsearch.xpack.vectors.Vectors;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class KnnVectorQueryBuilderTests extends AbstractQueryTestCase<KnnVectorQueryBuilder> {
+
+    private static final String VECTOR_FIELD = "mapped_vector";
+    private static final String NOT_INDEXED_VECTOR_FIELD = "mapped_not_indexed_vector";
+    private static final int DIMS = 3;
+
+    @Override
+    protected Collection<Class<? extends Plugin>> getPlugins() {
+        return Collections.singleton(Vectors.class);
+    }
+
+    @Override
+    protected void initializeAdditionalMappings(MapperService mapperService) throws IOException {
+        mapperService.merge("_doc", new CompressedXContent(Strings.toString(PutMappingRequest.buildFromSimplifiedDef("_doc",
+            VECTOR_FIELD, "type=dense_vector,dims=" + DIMS + ",index=true",
+            NOT_INDEXED_VECTOR_FIELD, "type=dense_vector,dims=" + DIMS))), MapperService.MergeReason.MAPPING_UPDATE);
+    }
+
+    @Override
+    protected KnnVectorQueryBuilder doCreateTestQueryBuilder() {
+        int k = randomIntBetween(1, 100);
+        Integer numCandidates = randomBoolean() ? null : randomIntBetween(k, KnnVectorQueryBuilder.MAX_NUM_CANDIDATES);
+        return new KnnVectorQueryBuilder(VECTOR_FIELD, randomVector(DIMS), k, numCandidates);
+    }
+
+    @Override
+    protected void doAssertLuceneQuery(KnnVectorQueryBuilder queryBuilder, Query query, QueryShardContext context) throws IOException {
+        assertThat(query, instanceOf(KnnVectorQuery.class));
+        MappedFieldType fieldType = context.fieldMapper(queryBuilder.field());
+        VectorGraphIndexFieldData fieldData = context.getForField(fieldType);
+        assertThat(query, equalTo(new KnnVectorQuery(queryBuilder.field(), queryBuilder.queryVector(), queryBuilder.k(),
+            queryBuilder.numCandidates(), fieldData)));
+    }
+
+    public void testIllegalArguments() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> new KnnVectorQueryBuilder(null, randomVector(DIMS), 10, null));
+        assertThat(e.getMessage(), containsString("field cannot be null"));
+        e = expectThrows(IllegalArgumentException.class, () -> new KnnVectorQueryBuilder(VECTOR_FIELD, null, 10, null));
+        assertThat(e.getMessage(), containsString("query_vector cannot be null"));
+        e = expectThrows(IllegalArgumentException.class, () -> new KnnVectorQueryBuilder(VECTOR_FIELD, randomVector(DIMS), 0, null));
+        assertThat(e.getMessage(), containsString("k must be greater than 0"));
+        e = expectThrows(IllegalArgumentException.class, () -> new KnnVectorQueryBuilder(VECTOR_FIELD, randomVector(DIMS), 10, 5));
+        assertThat(e.getMessage(), containsString("num_candidates must be greater than or equal to k"));
+        e = expectThrows(IllegalArgumentException.class,
+            () -> new KnnVectorQueryBuilder(VECTOR_FIELD, randomVector(DIMS), 10, KnnVectorQueryBuilder.MAX_NUM_CANDIDATES + 1));
+        assertThat(e.getMessage(), containsString("num_candidates cannot exceed"));
+    }
+
+    public void testDefaults() {
+        KnnVectorQueryBuilder builder = new KnnVectorQueryBuilder(VECTOR_FIELD, randomVector(DIMS), 5, null);
+        assertThat(builder.numCandidates(), equalTo(KnnVectorQueryBuilder.DEFAULT_NUM_CANDIDATES));
+        builder = new KnnVectorQueryBuilder(VECTOR_FIELD, randomVector(DIMS), 500, null);
+        assertThat(builder.numCandidates(), equalTo(500));
+    }
+
+    public void testFromJson() throws IOException {
+        String json = "{\n" +
+            "  \"knn\" : {\n" +
+            "    \"field\" : \"" + VECTOR_FIELD + "\",\n" +
+            "    \"query_vector\" : [ 1.0, -0.5, 2.0 ],\n" +
+            "    \"k\" : 5,\n" +
+            "    \"num_candidates\" : 50,\n" +
+            "    \"boost\" : 2.0,\n" +
+            "    \"_name\" : \"my_knn\"\n" +
+            "  }\n" +
+            "}";
+        KnnVectorQueryBuilder parsed = (KnnVectorQueryBuilder) parseQuery(json);
+        checkGeneratedJson(json, parsed);
+        assertThat(parsed.field(), equalTo(VECTOR_FIELD));
+        assertArrayEquals(new float[] { 1.0f, -0.5f, 2.0f }, parsed.queryVector(), 0f);
+        assertThat(parsed.k(), equalTo(5));
+        assertThat(parsed.numCandidates(), equalTo(50));
+        assertThat(parsed.boost(), equalTo(2.0f));
+        assertThat(parsed.queryName(), equalTo("my_knn"));
+    }
+
+    public void testFromJsonDefaults() throws IOException {
+        String json = "{ \"knn\" : { \"field\" : \"" + VECTOR_FIELD + "\", \"query_vector\" : [ 1.0, 2.0, 3.0 ] } }";
+        KnnVectorQueryBuilder parsed = (KnnVectorQueryBuilder) parseQuery(json);
+        assertThat(parsed.k(), equalTo(KnnVectorQueryBuilder.DEFAULT_K));
+        assertThat(parsed.numCandidates(), equalTo(KnnVectorQueryBuilder.DEFAULT_NUM_CANDIDATES));
+    }
+
+    public void testFromJsonIllegalArguments() {
+        String json = "{ \"knn\" : { \"field\" : \"" + VECTOR_FIELD + "\", \"query_vector\" : [ 1.0, 2.0, 3.0 ], \"k\" : 0 } }";
+        ParsingException e = expectThrows(ParsingException.class, () -> parseQuery(json));
+        assertThat(e.getMessage(), containsString("k must be greater than 0"));
+    }
+
+    public void testUnmappedField() throws IOException {
+        QueryShardContext context = createShardContext();
+        context.setAllowUnmappedFields(true);
+        KnnVectorQueryBuilder builder = new KnnVectorQueryBuilder("unmapped", randomVector(DIMS), 10, null);
+        assertThat(builder.toQuery(context), instanceOf(MatchNoDocsQuery.class));
+    }
+
+    public void testWrongFieldType() {
+        KnnVectorQueryBuilder builder = new KnnVectorQueryBuilder(INT_FIELD_NAME, randomVector(DIMS), 10, null);
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> builder.toQuery(createShardContext()));
+        assertThat(e.getMessage(), containsString("queries are only supported on [dense_vector] fields, but [" + INT_FIELD_NAME +
+            "] is of type [integer]"));
+    }
+
+    public void testNotIndexedField() {
+        KnnVectorQueryBuilder builder = new KnnVectorQueryBuilder(NOT_INDEXED_VECTOR_FIELD, randomVector(DIMS), 10, null);
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> builder.toQuery(createShardContext()));
+        assertThat(e.getMessage(), containsString("fields that are mapped with [index: true], but [" + NOT_INDEXED_VECTOR_FIELD +
+            "] is not"));
+    }
+
+    public void testDimsMismatch() {
+        int dims = randomValueOtherThan(DIMS, () -> randomIntBetween(1, 10));
+        KnnVectorQueryBuilder builder = new KnnVectorQueryBuilder(VECTOR_FIELD, randomVector(dims), 10, null);
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> builder.toQuery(createShardContext()));
+        assertThat(e.getMessage(), containsString("the query vector has [" + dims + "] dimensions but field [" + VECTOR_FIELD +
+            "] has [" + DIMS + "]"));
+    }
+
+    private static float[] randomVector(int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = randomFloat();
+        }
+        return vector;
+    }
+}
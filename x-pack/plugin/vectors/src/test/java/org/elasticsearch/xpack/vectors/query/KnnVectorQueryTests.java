@@ -0,0 +1,195 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.vectors.query;
+
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.CodecReader;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FilterMergePolicy;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.IOSupplier;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.IndexSettingsModule;
+import org.elasticsearch.xpack.vectors.mapper.VectorSimilarity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class KnnVectorQueryTests extends ESTestCase {
+
+    private static final String FIELD = "vector";
+    // segments are small enough for no graph node to ever drop a neighbour, so that the graph searches are exhaustive and their
+    // results can be compared with a brute force search
+    private static final int MAX_SEGMENT_SIZE = HnswGraph.DEFAULT_MAX_CONNECTIONS;
+    private static final int NUM_CANDIDATES = 100;
+
+    public void testMultipleSegments() throws IOException {
+        int dims = randomIntBetween(2, 8);
+        float[][] vectors = randomVectors(randomIntBetween(2, 5) * MAX_SEGMENT_SIZE, dims);
+        Set<Integer> deleted = randomBoolean() ? new HashSet<>() : randomDocs(vectors.length);
+        try (Directory directory = newDirectory(); DirectoryReader reader = indexVectors(directory, vectors, deleted)) {
+            assertThat(reader.leaves().size(), greaterThan(1));
+            IndexSearcher searcher = new IndexSearcher(reader);
+            for (int i = 0; i < 10; i++) {
+                float[] queryVector = randomVectors(1, dims)[0];
+                int k = randomIntBetween(1, 30);
+                TopDocs topDocs = searcher.search(new KnnVectorQuery(FIELD, queryVector, k, NUM_CANDIDATES, fieldData(dims)), k);
+                List<Integer> expected = bruteForce(vectors, deleted, queryVector, k);
+                assertThat(topDocs.totalHits.value, equalTo((long) expected.size()));
+                assertThat(Arrays.stream(topDocs.scoreDocs).map(scoreDoc -> scoreDoc.doc).collect(Collectors.toList()),
+                    equalTo(expected));
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    assertThat(scoreDoc.score, equalTo(score(queryVector, vectors[scoreDoc.doc])));
+                }
+            }
+        }
+    }
+
+    public void testDocBase() throws IOException {
+        int dims = randomIntBetween(2, 8);
+        float[][] vectors = randomVectors(randomIntBetween(2, 5) * MAX_SEGMENT_SIZE, dims);
+        try (Directory directory = newDirectory(); DirectoryReader reader = indexVectors(directory, vectors, new HashSet<>())) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            // the closest vector of the query is the vector itself, which is not in the first segment so its doc id must be rebased
+            int doc = randomIntBetween(MAX_SEGMENT_SIZE, vectors.length - 1);
+            Query query = searcher.rewrite(new KnnVectorQuery(FIELD, vectors[doc], 1, NUM_CANDIDATES, fieldData(dims)));
+            TopDocs topDocs = searcher.search(query, 10);
+            assertThat(topDocs.scoreDocs.length, equalTo(1));
+            assertThat(topDocs.scoreDocs[0].doc, equalTo(doc));
+            assertTrue(searcher.explain(query, doc).isMatch());
+            assertFalse(searcher.explain(query, randomValueOtherThan(doc, () -> randomIntBetween(0, vectors.length - 1))).isMatch());
+        }
+    }
+
+    public void testAllDocsDeleted() throws IOException {
+        int dims = randomIntBetween(2, 8);
+        float[][] vectors = randomVectors(MAX_SEGMENT_SIZE, dims);
+        Set<Integer> deleted = IntStream.range(0, vectors.length).boxed().collect(Collectors.toSet());
+        try (Directory directory = newDirectory(); DirectoryReader reader = indexVectors(directory, vectors, deleted)) {
+            Query query = new KnnVectorQuery(FIELD, randomVectors(1, dims)[0], 10, NUM_CANDIDATES, fieldData(dims));
+            assertThat(new IndexSearcher(reader).rewrite(query), instanceOf(MatchNoDocsQuery.class));
+        }
+    }
+
+    public void testDifferentReader() throws IOException {
+        int dims = randomIntBetween(2, 8);
+        float[][] vectors = randomVectors(randomIntBetween(2, 5) * MAX_SEGMENT_SIZE, dims);
+        try (Directory directory = newDirectory(); DirectoryReader reader = indexVectors(directory, vectors, new HashSet<>());
+             DirectoryReader otherReader = DirectoryReader.open(directory)) {
+            Query query = new IndexSearcher(reader).rewrite(
+                new KnnVectorQuery(FIELD, randomVectors(1, dims)[0], 10, NUM_CANDIDATES, fieldData(dims)));
+            // the hits of the rewritten query are only valid for the reader that it was rewritten against
+            IllegalStateException e = expectThrows(IllegalStateException.class,
+                () -> new IndexSearcher(otherReader).createWeight(query, ScoreMode.COMPLETE, 1f));
+            assertThat(e.getMessage(), equalTo("Executing against a different reader than the query has been rewritten against"));
+        }
+    }
+
+    private static VectorGraphIndexFieldData fieldData(int dims) {
+        return new VectorGraphIndexFieldData(IndexSettingsModule.newIndexSettings("test", Settings.EMPTY), FIELD,
+            new IndexFieldDataCache.None(), new NoneCircuitBreakerService(), dims, VectorSimilarity.L2_NORM);
+    }
+
+    private static float[][] randomVectors(int count, int dims) {
+        float[][] vectors = new float[count][dims];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < dims; i++) {
+                vector[i] = randomFloat() * 2 - 1;
+            }
+        }
+        return vectors;
+    }
+
+    private static Set<Integer> randomDocs(int maxDoc) {
+        Set<Integer> docs = new HashSet<>();
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (rarely()) {
+                docs.add(doc);
+            }
+        }
+        return docs;
+    }
+
+    /**
+     * Indexes the vectors in segments of at most {@link #MAX_SEGMENT_SIZE} documents that are never merged, so that the doc id
+     * of a vector is its index in {@code vectors}. Segments whose documents are all deleted are kept for the same reason.
+     */
+    private static DirectoryReader indexVectors(Directory directory, float[][] vectors, Set<Integer> deleted) throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig().setMergePolicy(new FilterMergePolicy(NoMergePolicy.INSTANCE) {
+            @Override
+            public boolean keepFullyDeletedSegment(IOSupplier<CodecReader> readerIOSupplier) {
+                return true;
+            }
+        });
+        try (IndexWriter writer = new IndexWriter(directory, config)) {
+            for (int doc = 0; doc < vectors.length; doc++) {
+                ByteBuffer buffer = ByteBuffer.allocate(vectors[doc].length * Float.BYTES);
+                for (float value : vectors[doc]) {
+                    buffer.putFloat(value);
+                }
+                Document document = new Document();
+                document.add(new StringField("id", Integer.toString(doc), Field.Store.NO));
+                document.add(new BinaryDocValuesField(FIELD, new BytesRef(buffer.array())));
+                writer.addDocument(document);
+                if ((doc + 1) % MAX_SEGMENT_SIZE == 0 || randomInt(MAX_SEGMENT_SIZE) == 0) {
+                    writer.flush();
+                }
+            }
+            for (int doc : deleted) {
+                writer.deleteDocuments(new Term("id", Integer.toString(doc)));
+            }
+        }
+        DirectoryReader reader = DirectoryReader.open(directory);
+        assertThat(reader.maxDoc(), equalTo(vectors.length));
+        for (int i = 0; i < reader.leaves().size(); i++) {
+            assertThat(reader.leaves().get(i).reader().maxDoc(), lessThanOrEqualTo(MAX_SEGMENT_SIZE));
+        }
+        return reader;
+    }
+
+    private static List<Integer> bruteForce(float[][] vectors, Set<Integer> deleted, float[] query, int k) {
+        // ties are broken by doc id, like when merging hits
+        return IntStream.range(0, vectors.length)
+            .filter(doc -> deleted.contains(doc) == false)
+            .boxed()
+            .sorted(Comparator.comparingDouble(doc -> -score(query, vectors[doc])))
+            .limit(k)
+            .collect(Collectors.toList());
+    }
+
+    private static float score(float[] query, float[] vector) {
+        return VectorSimilarity.L2_NORM.score(VectorSimilarity.L2_NORM.compare(query, vector));
+    }
+}